@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.parameters.GroupId;
+import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.eventprocessor.DefaultEventProcessor;
+import edu.snu.mist.formats.avro.Direction;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group whose queries consist of a source output emitter and a filter operator.
+ * The group is assigned to an event processor that is not started,
+ * so the events are processed by calling Group.processAllEvent on the benchmark thread.
+ */
+final class BenchmarkGroup {
+
+  private final Group group;
+
+  private final List<SourceOutputEmitter> sourceOutputEmitters;
+
+  BenchmarkGroup(final int numQueries,
+                 final int drainBatchSize,
+                 final Blackhole blackhole) throws InjectionException {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(GroupId.class, "benchmark-group");
+    this.group = Tang.Factory.getTang().newInjector(jcb.build()).getInstance(Group.class);
+    group.setEventProcessor(new DefaultEventProcessor(new DiscardingGroupSelector(), 0, Long.MAX_VALUE));
+    this.sourceOutputEmitters = new ArrayList<>(numQueries);
+
+    for (int i = 0; i < numQueries; i++) {
+      final Query query = new DefaultQueryImpl("query-" + i);
+      group.addQuery(query);
+      final FilterOperator<Integer> operator = new FilterOperator<>(input -> input % 2 == 0);
+      operator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+      final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+      nextOperators.put(new DefaultPhysicalOperatorImpl("op-" + i, new HashMap<>(), operator),
+          new MISTEdge(Direction.LEFT));
+      sourceOutputEmitters.add(new NonBlockingQueueSourceOutputEmitter<>(nextOperators, query,
+          NonBlockingQueueSourceOutputEmitter.DEFAULT_QUEUE_CAPACITY, drainBatchSize));
+    }
+    // Drain the queries that are activated when they are added
+    group.processAllEvent();
+  }
+
+  /**
+   * Emit the data events to the sources in a round-robin manner.
+   * A watermark is emitted to each source after the data.
+   * @param numEvents the number of data events
+   * @param timestamp the timestamp of the first event
+   */
+  void emitEvents(final int numEvents, final long timestamp) {
+    for (int i = 0; i < numEvents; i++) {
+      sourceOutputEmitters.get(i % sourceOutputEmitters.size()).emitData(new MistDataEvent(i, timestamp + i));
+    }
+    for (final SourceOutputEmitter sourceOutputEmitter : sourceOutputEmitters) {
+      sourceOutputEmitter.emitWatermark(new MistWatermarkEvent(timestamp + numEvents));
+    }
+  }
+
+  /**
+   * Process all the events of the group.
+   * @return the number of processed events
+   */
+  int processAllEvent() {
+    return group.processAllEvent();
+  }
+}
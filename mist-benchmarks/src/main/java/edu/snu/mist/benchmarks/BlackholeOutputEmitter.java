@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * An output emitter that consumes the outputs of an operator with a JMH blackhole,
+ * so that the JIT compiler does not eliminate the operator logic.
+ */
+public final class BlackholeOutputEmitter implements OutputEmitter {
+
+  private final Blackhole blackhole;
+
+  public BlackholeOutputEmitter(final Blackhole blackhole) {
+    this.blackhole = blackhole;
+  }
+
+  @Override
+  public void emitData(final MistDataEvent data) {
+    blackhole.consume(data.getValue());
+  }
+
+  @Override
+  public void emitData(final MistDataEvent data, final int index) {
+    blackhole.consume(data.getValue());
+    blackhole.consume(index);
+  }
+
+  @Override
+  public void emitDataBatch(final List<MistDataEvent> dataList) {
+    for (final MistDataEvent data : dataList) {
+      blackhole.consume(data.getValue());
+    }
+  }
+
+  @Override
+  public void emitWatermark(final MistWatermarkEvent watermark) {
+    blackhole.consume(watermark);
+  }
+
+  @Override
+  public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+    blackhole.consume(checkpoint);
+  }
+}
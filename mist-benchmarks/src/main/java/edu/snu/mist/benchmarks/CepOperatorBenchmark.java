@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.cep.CepEventContiguity;
+import edu.snu.mist.common.cep.CepEventPattern;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.CepOperator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cep operator with the pattern A(strict) B(one or more, relaxed) C(relaxed)
+ * on a random stream of A, B, C and D events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CepOperatorBenchmark {
+
+  private static final String[] EVENTS = {"A", "B", "C", "D"};
+
+  /**
+   * The window time of the pattern.
+   */
+  @Param({"10", "100"})
+  private long windowTime;
+
+  /**
+   * The contiguity between the events of the pattern.
+   * The non-deterministic relaxed contiguity is excluded since the number of its matches grows exponentially.
+   */
+  @Param({"STRICT", "RELAXED"})
+  private CepEventContiguity contiguity;
+
+  private CepOperator<String> cepOperator;
+
+  private Random random;
+
+  private long timestamp;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    final List<CepEventPattern<String>> patterns = new ArrayList<>();
+    patterns.add(new CepEventPattern.Builder<String>()
+        .setName("A")
+        .setCondition(s -> s.equals("A"))
+        .setClass(String.class)
+        .setContiguity(CepEventContiguity.STRICT)
+        .build());
+    patterns.add(new CepEventPattern.Builder<String>()
+        .setName("B")
+        .setCondition(s -> s.equals("B"))
+        .setClass(String.class)
+        .setContiguity(contiguity)
+        .setNOrMore(1)
+        .setInnerContiguity(contiguity)
+        .build());
+    patterns.add(new CepEventPattern.Builder<String>()
+        .setName("C")
+        .setCondition(s -> s.equals("C"))
+        .setClass(String.class)
+        .setContiguity(contiguity)
+        .build());
+    cepOperator = new CepOperator<>(patterns, windowTime);
+    cepOperator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    random = new Random(0);
+  }
+
+  @Benchmark
+  public void cep() {
+    cepOperator.processLeftData(new MistDataEvent(EVENTS[random.nextInt(EVENTS.length)], timestamp++));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupEvent;
+import edu.snu.mist.core.task.groupaware.eventprocessor.NextGroupSelector;
+
+import java.util.Collection;
+
+/**
+ * A next group selector that discards the scheduled groups.
+ * The benchmarks process the groups on the benchmark thread instead of event processors.
+ */
+public final class DiscardingGroupSelector implements NextGroupSelector {
+
+  @Override
+  public Group getNextExecutableGroup() {
+    throw new UnsupportedOperationException("The groups are processed by the benchmark thread");
+  }
+
+  @Override
+  public void reschedule(final Group groupInfo, final boolean miss) {
+    // do nothing
+  }
+
+  @Override
+  public void reschedule(final Collection<Group> groupInfos) {
+    // do nothing
+  }
+
+  @Override
+  public boolean removeDispatchedGroup(final Group group) {
+    return false;
+  }
+
+  @Override
+  public void onNext(final GroupEvent groupEvent) {
+    // do nothing
+  }
+
+  @Override
+  public void close() throws Exception {
+    // do nothing
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.FusedOperator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the fused operators of the queries that filter and transform strings like MqttFilterApplication,
+ * with the interpreted operations and the generated pipelines.
+ * The queries have different functions, so the interpreted call sites to the functions are megamorphic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusedOperatorBenchmark {
+
+  private static final List<ConfValues.OperatorType> TYPES =
+      Arrays.asList(ConfValues.OperatorType.FILTER, ConfValues.OperatorType.MAP);
+
+  /**
+   * True if the fused operators generate specialized pipelines.
+   */
+  @Param({"false", "true"})
+  private boolean generatePipeline;
+
+  private FusedOperator[] operators;
+
+  private int value;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    final MISTPredicate<String> startsWithA = input -> input.startsWith("a");
+    final MISTPredicate<String> endsWithA = input -> input.endsWith("a");
+    final MISTPredicate<String> containsB = input -> input.contains("b");
+    final MISTPredicate<String> isLong = input -> input.length() > 3;
+    final MISTFunction<String, String> upperCase = String::toUpperCase;
+    final MISTFunction<String, String> concat = input -> input + "!";
+    final MISTFunction<String, String> trim = String::trim;
+    final MISTFunction<String, Integer> length = String::length;
+    operators = new FusedOperator[] {
+        new FusedOperator(TYPES, Arrays.asList(startsWithA, upperCase), generatePipeline),
+        new FusedOperator(TYPES, Arrays.asList(endsWithA, concat), generatePipeline),
+        new FusedOperator(TYPES, Arrays.asList(containsB, trim), generatePipeline),
+        new FusedOperator(TYPES, Arrays.asList(isLong, length), generatePipeline)};
+    for (final FusedOperator operator : operators) {
+      operator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(4)
+  public void filterAndMap() {
+    value += 1;
+    final String input = (value & 1) == 0 ? "abcd" : "bcda";
+    for (final FusedOperator operator : operators) {
+      operator.processLeftData(new MistDataEvent(input, value));
+    }
+  }
+}
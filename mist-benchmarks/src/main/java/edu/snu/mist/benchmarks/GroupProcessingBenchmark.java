@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.core.task.NonBlockingQueueSourceOutputEmitter;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DefaultGroupImpl.processAllEvent when the events are spread over the queries of a group.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupProcessingBenchmark {
+
+  private static final int NUM_EVENTS = 1024;
+
+  /**
+   * The number of queries in the group.
+   */
+  @Param({"1", "16", "256"})
+  private int numQueries;
+
+  private BenchmarkGroup group;
+
+  private long timestamp;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) throws InjectionException {
+    group = new BenchmarkGroup(numQueries, NonBlockingQueueSourceOutputEmitter.DEFAULT_BATCH_SIZE, blackhole);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_EVENTS)
+  public int processAllEvent() {
+    group.emitEvents(NUM_EVENTS, timestamp);
+    timestamp += NUM_EVENTS + 1;
+    return group.processAllEvent();
+  }
+}
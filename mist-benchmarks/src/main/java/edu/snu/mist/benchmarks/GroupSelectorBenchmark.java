@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.parameters.GroupId;
+import edu.snu.mist.core.task.DefaultQueryImpl;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.SourceOutputEmitter;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.eventprocessor.*;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the next group selectors by the time to process a burst of events with started event processors.
+ * All the groups are assigned to the first event processor, and each burst arrives at random groups,
+ * which is the case that the group rebalancer has not yet handled.
+ * The closed event processors still wait for the next group, so the forked JVM may report the lingering threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupSelectorBenchmark {
+
+  /**
+   * The time to process an event (ns).
+   */
+  private static final long EVENT_PROCESSING_NANOS = 20000;
+
+  /**
+   * The number of events in a burst.
+   */
+  private static final int BURST_SIZE = 500;
+
+  /**
+   * The next group selector, which is the value of NextGroupSelectorOption.
+   */
+  @Param({"queue", "stealing"})
+  private String nextGroupSelector;
+
+  @Param({"4"})
+  private int numEventProcessors;
+
+  @Param({"64"})
+  private int numGroups;
+
+  private List<EventProcessor> eventProcessors;
+
+  private List<SpinningSourceOutputEmitter> sourceOutputEmitters;
+
+  /**
+   * The number of processed events, which is shared by the source output emitters.
+   */
+  private AtomicLong numProcessedEvents;
+
+  private long numEmittedEvents;
+
+  private Random random;
+
+  @Setup
+  public void setUp() throws InjectionException {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindImplementation(NextGroupSelectorFactory.class, nextGroupSelector.equals("stealing")
+        ? WorkStealingGroupSelectorFactory.class : BlockingQueueGroupSelectorFactory.class);
+    jcb.bindImplementation(EventProcessorFactory.class, DefaultEventProcessorFactory.class);
+    final EventProcessorFactory eventProcessorFactory =
+        Tang.Factory.getTang().newInjector(jcb.build()).getInstance(EventProcessorFactory.class);
+
+    eventProcessors = new ArrayList<>(numEventProcessors);
+    for (int i = 0; i < numEventProcessors; i++) {
+      eventProcessors.add(eventProcessorFactory.newEventProcessor());
+    }
+
+    numProcessedEvents = new AtomicLong();
+    numEmittedEvents = 0;
+    random = new Random(0);
+    sourceOutputEmitters = new ArrayList<>(numGroups);
+    for (int i = 0; i < numGroups; i++) {
+      final JavaConfigurationBuilder groupConf = Tang.Factory.getTang().newConfigurationBuilder();
+      groupConf.bindNamedParameter(GroupId.class, "group-" + i);
+      final Group group = Tang.Factory.getTang().newInjector(groupConf.build()).getInstance(Group.class);
+      group.setEventProcessor(eventProcessors.get(0));
+      final Query query = new DefaultQueryImpl("query-" + i);
+      group.addQuery(query);
+      sourceOutputEmitters.add(new SpinningSourceOutputEmitter(query, numProcessedEvents));
+    }
+
+    for (final EventProcessor eventProcessor : eventProcessors) {
+      eventProcessor.start();
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    for (final EventProcessor eventProcessor : eventProcessors) {
+      eventProcessor.close();
+    }
+  }
+
+  @Benchmark
+  public long processBurst() {
+    for (int i = 0; i < BURST_SIZE; i++) {
+      sourceOutputEmitters.get(random.nextInt(numGroups)).add();
+    }
+    numEmittedEvents += BURST_SIZE;
+    while (numProcessedEvents.get() < numEmittedEvents) {
+      Thread.yield();
+    }
+    return numEmittedEvents;
+  }
+
+  /**
+   * A source output emitter that spins while processing an event.
+   */
+  private static final class SpinningSourceOutputEmitter implements SourceOutputEmitter {
+    private final Query query;
+    private final Queue<Integer> events;
+    private final AtomicBoolean scheduled;
+    private final AtomicLong numProcessedEvents;
+
+    SpinningSourceOutputEmitter(final Query query,
+                                final AtomicLong numProcessedEvents) {
+      this.query = query;
+      this.events = new ConcurrentLinkedQueue<>();
+      this.scheduled = new AtomicBoolean(false);
+      this.numProcessedEvents = numProcessedEvents;
+    }
+
+    void add() {
+      events.add(0);
+      if (scheduled.compareAndSet(false, true)) {
+        query.insert(this);
+      }
+    }
+
+    @Override
+    public int processAllEvent() {
+      int numProcessed = 0;
+      while (events.poll() != null) {
+        final long processingStartTime = System.nanoTime();
+        while (System.nanoTime() - processingStartTime < EVENT_PROCESSING_NANOS) {
+          // Simulate the event processing
+        }
+        numProcessedEvents.incrementAndGet();
+        numProcessed += 1;
+      }
+      scheduled.set(false);
+      if (!events.isEmpty() && scheduled.compareAndSet(false, true)) {
+        query.insert(this);
+      }
+      return numProcessed;
+    }
+
+    @Override
+    public int numberOfEvents() {
+      return events.size();
+    }
+
+    @Override
+    public List<MistEvent> getQueuedEvents() {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public void holdEvents() {
+      // do nothing
+    }
+
+    @Override
+    public void releaseHeldEvents() {
+      // do nothing
+    }
+
+    @Override
+    public List<MistEvent> takeHeldEvents() {
+      return new ArrayList<>();
+    }
+
+    @Override
+    public Query getQuery() {
+      return query;
+    }
+
+    @Override
+    public void emitData(final MistDataEvent data) {
+      // do nothing
+    }
+
+    @Override
+    public void emitData(final MistDataEvent data, final int index) {
+      // do nothing
+    }
+
+    @Override
+    public void emitDataBatch(final List<MistDataEvent> dataList) {
+      // do nothing
+    }
+
+    @Override
+    public void emitWatermark(final MistWatermarkEvent watermark) {
+      // do nothing
+    }
+
+    @Override
+    public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+      // do nothing
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.MapOperator;
+import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.OperatorOutputEmitter;
+import edu.snu.mist.formats.avro.Direction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the fan-out of OperatorOutputEmitter to the next operators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorOutputEmitterBenchmark {
+
+  private static final int BATCH_SIZE = 256;
+
+  /**
+   * The number of next operators.
+   */
+  @Param({"1", "4", "16"})
+  private int fanOut;
+
+  private OperatorOutputEmitter outputEmitter;
+
+  private List<MistDataEvent> batch;
+
+  private long timestamp;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    for (int i = 0; i < fanOut; i++) {
+      final MapOperator<Integer, Integer> operator = new MapOperator<>(input -> input + 1);
+      operator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+      nextOperators.put(new DefaultPhysicalOperatorImpl("op-" + i, new HashMap<>(), operator),
+          new MISTEdge(Direction.LEFT));
+    }
+    outputEmitter = new OperatorOutputEmitter(nextOperators);
+    batch = new ArrayList<>(BATCH_SIZE);
+  }
+
+  @Benchmark
+  public void emitData() {
+    outputEmitter.emitData(new MistDataEvent(1, timestamp++));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void emitDataBatch() {
+    batch.clear();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(new MistDataEvent(i, timestamp++));
+    }
+    outputEmitter.emitDataBatch(batch);
+  }
+}
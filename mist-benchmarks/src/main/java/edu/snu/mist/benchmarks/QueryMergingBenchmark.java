@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.sources.EventGenerator;
+import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.merging.ExecutionVertexGenerator;
+import edu.snu.mist.core.task.merging.ImmediateQueryMergingStarter;
+import edu.snu.mist.core.task.merging.MergingExecutionDags;
+import edu.snu.mist.formats.avro.Direction;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the submission latency of mergeable queries in ImmediateQueryMergingStarter.
+ * All the queries share a source, and their filter operators are shared among the queries
+ * that have the same filter configuration, so the shared source has many children.
+ * The merged dags grow during an iteration, and they are reset at the start of each iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryMergingBenchmark {
+
+  private static final List<String> JAR_FILE_PATHS = Collections.emptyList();
+
+  /**
+   * The number of distinct filter configurations.
+   */
+  @Param({"100", "10000"})
+  private int numFilters;
+
+  private QueryStarter queryStarter;
+
+  private Map<String, String> sourceConf;
+
+  private long queryIndex;
+
+  @Setup(Level.Iteration)
+  public void setUp() throws InjectionException {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindImplementation(ExecutionDags.class, MergingExecutionDags.class);
+    jcb.bindImplementation(QueryStarter.class, ImmediateQueryMergingStarter.class);
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    injector.bindVolatileInstance(ExecutionVertexGenerator.class, new BenchmarkVertexGenerator());
+    queryStarter = injector.getInstance(QueryStarter.class);
+    sourceConf = new HashMap<>();
+    sourceConf.put("source", "shared");
+    queryIndex = 0;
+  }
+
+  @Benchmark
+  public void submitQuery() throws IOException, ClassNotFoundException {
+    final long i = queryIndex++;
+    final DAG<ConfigVertex, MISTEdge> dag = new AdjacentListConcurrentMapDAG<>();
+    final Map<String, String> filterConf = new HashMap<>();
+    filterConf.put("filter", Long.toString(i % numFilters));
+    final Map<String, String> sinkConf = new HashMap<>();
+    sinkConf.put("sink", Long.toString(i));
+    final ConfigVertex src = new ConfigVertex("src-" + i, ExecutionVertex.Type.SOURCE, sourceConf);
+    final ConfigVertex filter = new ConfigVertex("filter-" + i, ExecutionVertex.Type.OPERATOR, filterConf);
+    final ConfigVertex sink = new ConfigVertex("sink-" + i, ExecutionVertex.Type.SINK, sinkConf);
+    dag.addVertex(src);
+    dag.addVertex(filter);
+    dag.addVertex(sink);
+    dag.addEdge(src, filter, new MISTEdge(Direction.LEFT));
+    dag.addEdge(filter, sink, new MISTEdge(Direction.LEFT));
+    queryStarter.start("q" + i, new DefaultQueryImpl("q" + i), dag, JAR_FILE_PATHS);
+  }
+
+  /**
+   * Generates the execution vertices without user code.
+   */
+  private static final class BenchmarkVertexGenerator implements ExecutionVertexGenerator {
+    @Override
+    public ExecutionVertex generate(final ConfigVertex configVertex,
+                                    final URL[] urls,
+                                    final ClassLoader classLoader) {
+      switch (configVertex.getType()) {
+        case SOURCE:
+          return new BenchmarkSource(configVertex.getId(), configVertex.getConfiguration());
+        case OPERATOR:
+          return new DefaultPhysicalOperatorImpl(configVertex.getId(), configVertex.getConfiguration(),
+              new FilterOperator<>(input -> true));
+        case SINK:
+          return new PhysicalSinkImpl<>(configVertex.getId(), configVertex.getConfiguration(),
+              new BenchmarkSink<>());
+        default:
+          throw new IllegalArgumentException("Invalid vertex type: " + configVertex.getType());
+      }
+    }
+  }
+
+  /**
+   * A source that does not generate events.
+   */
+  private static final class BenchmarkSource implements PhysicalSource {
+    private final String id;
+    private final Map<String, String> conf;
+    private SourceOutputEmitter outputEmitter;
+
+    BenchmarkSource(final String id, final Map<String, String> conf) {
+      this.id = id;
+      this.conf = conf;
+    }
+
+    @Override
+    public void start() {
+      // do nothing
+    }
+
+    @Override
+    public void startAfterMigration(final Map<String, Object> forwardedState) {
+      // do nothing
+    }
+
+    @Override
+    public void checkpointCompleted(final long checkpointTimestamp) {
+      // do nothing
+    }
+
+    @Override
+    public EventGenerator getEventGenerator() {
+      return null;
+    }
+
+    @Override
+    public SourceOutputEmitter getSourceOutputEmitter() {
+      return outputEmitter;
+    }
+
+    @Override
+    public void close() throws Exception {
+      // do nothing
+    }
+
+    @Override
+    public Type getType() {
+      return Type.SOURCE;
+    }
+
+    @Override
+    public String getIdentifier() {
+      return id;
+    }
+
+    @Override
+    public void setOutputEmitter(final OutputEmitter emitter) {
+      outputEmitter = (SourceOutputEmitter) emitter;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public Map<String, String> getConfiguration() {
+      return conf;
+    }
+  }
+
+  /**
+   * A sink that discards the outputs.
+   */
+  private static final class BenchmarkSink<T> implements Sink<T> {
+    @Override
+    public void close() throws Exception {
+      // do nothing
+    }
+
+    @Override
+    public void handle(final T input) {
+      // do nothing
+    }
+  }
+}
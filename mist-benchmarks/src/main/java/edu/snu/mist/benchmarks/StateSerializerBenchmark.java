@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.core.task.StateSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the checkpoint serialization of operator states via StateSerializer.
+ * The state map has a primitive state, which is kept as is, and a keyed state, which is serialized.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateSerializerBenchmark {
+
+  /**
+   * The number of keys in the keyed state.
+   */
+  @Param({"10", "10000"})
+  private int numKeys;
+
+  private Map<String, Object> stateMap;
+
+  private Map<String, Object> serializedStateMap;
+
+  @Setup
+  public void setUp() {
+    final HashMap<String, Long> keyedState = new HashMap<>();
+    for (int i = 0; i < numKeys; i++) {
+      keyedState.put("key-" + i, (long) i);
+    }
+    stateMap = new HashMap<>();
+    stateMap.put("count", numKeys);
+    stateMap.put("keyedState", keyedState);
+    serializedStateMap = StateSerializer.serializeStateMap(stateMap);
+  }
+
+  @Benchmark
+  public Map<String, Object> serialize() {
+    return StateSerializer.serializeStateMap(stateMap);
+  }
+
+  /**
+   * The deserialization consumes the serialized buffers, so it deserializes the duplicates of them.
+   */
+  @Benchmark
+  public Map<String, Object> deserialize() {
+    final Map<String, Object> duplicatedStateMap = new HashMap<>();
+    for (final Map.Entry<String, Object> entry : serializedStateMap.entrySet()) {
+      final Object state = entry.getValue();
+      duplicatedStateMap.put(entry.getKey(),
+          state instanceof ByteBuffer ? ((ByteBuffer) state).duplicate() : state);
+    }
+    return StateSerializer.deserializeStateMap(duplicatedStateMap);
+  }
+}
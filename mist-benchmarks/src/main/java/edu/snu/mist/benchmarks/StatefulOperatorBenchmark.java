@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.ApplyStatefulOperator;
+import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.operators.ReduceByKeyOperator;
+import edu.snu.mist.core.operators.StateTransitionOperator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stateful operators that keep their states across events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatefulOperatorBenchmark {
+
+  /**
+   * The number of distinct keys of reduceByKey.
+   */
+  @Param({"16", "10000"})
+  private int numKeys;
+
+  private Operator reduceByKeyOperator;
+
+  private Operator updatedPairReduceByKeyOperator;
+
+  private Operator applyStatefulOperator;
+
+  private Operator stateTransitionOperator;
+
+  private List<Map<String, Object>> stateTransitionInputs;
+
+  private Random random;
+
+  private long timestamp;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    reduceByKeyOperator = new ReduceByKeyOperator<Integer, Integer>(0, (v1, v2) -> v1 + v2);
+    updatedPairReduceByKeyOperator = new ReduceByKeyOperator<Integer, Integer>(0, (v1, v2) -> v1 + v2,
+        Integer.class, ConfValues.ReduceByKeyOutputMode.UPDATED_PAIR);
+    applyStatefulOperator = new ApplyStatefulOperator<>(new SumFunction());
+
+    // 0 -(even)-> 1 -(odd)-> 2 -(any)-> 0
+    final Map<String, Collection<Tuple2<MISTPredicate, String>>> stateTable = new HashMap<>();
+    stateTable.put("0", Collections.singletonList(new Tuple2<>(numberPredicate(n -> n % 2 == 0), "1")));
+    stateTable.put("1", Collections.singletonList(new Tuple2<>(numberPredicate(n -> n % 2 == 1), "2")));
+    stateTable.put("2", Collections.singletonList(new Tuple2<>(numberPredicate(n -> true), "0")));
+    stateTransitionOperator = new StateTransitionOperator("0", Collections.singleton("2"), stateTable);
+
+    for (final Operator operator : Arrays.asList(reduceByKeyOperator, updatedPairReduceByKeyOperator,
+        applyStatefulOperator, stateTransitionOperator)) {
+      operator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    }
+    random = new Random(0);
+    stateTransitionInputs = new ArrayList<>(numKeys);
+    for (int i = 0; i < numKeys; i++) {
+      stateTransitionInputs.add(Collections.singletonMap("number", i));
+    }
+  }
+
+  private static MISTPredicate<Map<String, Object>> numberPredicate(final MISTPredicate<Integer> predicate) {
+    return input -> predicate.test((Integer) input.get("number"));
+  }
+
+  private MistDataEvent nextKeyValueEvent() {
+    final int key = random.nextInt(numKeys);
+    return new MistDataEvent(new Tuple2<>(key, 1), timestamp++);
+  }
+
+  @Benchmark
+  public void reduceByKey() {
+    reduceByKeyOperator.processLeftData(nextKeyValueEvent());
+  }
+
+  @Benchmark
+  public void reduceByKeyUpdatedPair() {
+    updatedPairReduceByKeyOperator.processLeftData(nextKeyValueEvent());
+  }
+
+  @Benchmark
+  public void applyStateful() {
+    applyStatefulOperator.processLeftData(new MistDataEvent(random.nextInt(numKeys), timestamp++));
+  }
+
+  @Benchmark
+  public void stateTransition() {
+    stateTransitionOperator.processLeftData(
+        new MistDataEvent(stateTransitionInputs.get(random.nextInt(numKeys)), timestamp++));
+  }
+
+  /**
+   * A function that sums up the inputs.
+   */
+  private static final class SumFunction implements ApplyStatefulFunction<Integer, Long> {
+    private long sum;
+
+    @Override
+    public void initialize() {
+      sum = 0;
+    }
+
+    @Override
+    public void update(final Integer input) {
+      sum += input;
+    }
+
+    @Override
+    public Object getCurrentState() {
+      return sum;
+    }
+
+    @Override
+    public void setFunctionState(final Object state) {
+      sum = (Long) state;
+    }
+
+    @Override
+    public Long produceResult() {
+      return sum;
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.ConditionalBranchOperator;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.operators.FlatMapOperator;
+import edu.snu.mist.core.operators.MapOperator;
+import edu.snu.mist.core.operators.Operator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stateless operators with single events and batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatelessOperatorBenchmark {
+
+  private static final int BATCH_SIZE = 256;
+
+  private Operator mapOperator;
+
+  private Operator filterOperator;
+
+  private Operator flatMapOperator;
+
+  private Operator branchOperator;
+
+  private List<MistDataEvent> batch;
+
+  private int value;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    mapOperator = new MapOperator<Integer, Integer>(input -> input * 2);
+    filterOperator = new FilterOperator<Integer>(input -> input % 2 == 0);
+    flatMapOperator = new FlatMapOperator<Integer, Integer>(input -> Arrays.asList(input, input + 1));
+    final List<MISTPredicate<Integer>> predicates = new ArrayList<>();
+    predicates.add(input -> input % 3 == 0);
+    predicates.add(input -> input % 3 == 1);
+    branchOperator = new ConditionalBranchOperator<>(predicates);
+    for (final Operator operator : Arrays.asList(mapOperator, filterOperator, flatMapOperator, branchOperator)) {
+      operator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    }
+    batch = new ArrayList<>(BATCH_SIZE);
+  }
+
+  private MistDataEvent nextEvent() {
+    value += 1;
+    return new MistDataEvent(value, value);
+  }
+
+  private void processBatch(final Operator operator) {
+    batch.clear();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(nextEvent());
+    }
+    operator.processLeftDataBatch(batch);
+  }
+
+  @Benchmark
+  public void map() {
+    mapOperator.processLeftData(nextEvent());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void mapBatch() {
+    processBatch(mapOperator);
+  }
+
+  @Benchmark
+  public void filter() {
+    filterOperator.processLeftData(nextEvent());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void filterBatch() {
+    processBatch(filterOperator);
+  }
+
+  @Benchmark
+  public void flatMap() {
+    flatMapOperator.processLeftData(nextEvent());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void flatMapBatch() {
+    processBatch(flatMapOperator);
+  }
+
+  @Benchmark
+  public void conditionalBranch() {
+    branchOperator.processLeftData(nextEvent());
+  }
+}
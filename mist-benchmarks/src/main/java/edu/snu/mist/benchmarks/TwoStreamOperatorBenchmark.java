@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.JoinOperator;
+import edu.snu.mist.core.operators.SymmetricHashJoinOperator;
+import edu.snu.mist.core.operators.UnionOperator;
+import edu.snu.mist.core.operators.window.WindowImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operators that combine two streams.
+ * The window join benchmarks join a window that contains the given number of inputs of each stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwoStreamOperatorBenchmark {
+
+  /**
+   * The window time of the symmetric hash join.
+   */
+  private static final long JOIN_WINDOW_TIME = 1000L;
+
+  /**
+   * The number of inputs of each stream in a joined window.
+   */
+  @Param({"100", "1000"})
+  private int windowInputs;
+
+  /**
+   * The number of distinct join keys.
+   */
+  @Param({"10", "1000"})
+  private int numKeys;
+
+  private JoinOperator<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> predicateJoinOperator;
+
+  private JoinOperator<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> hashJoinOperator;
+
+  private SymmetricHashJoinOperator<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> symmetricHashJoinOperator;
+
+  private UnionOperator unionOperator;
+
+  private WindowImpl<Object> window;
+
+  private Random random;
+
+  private long timestamp;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    predicateJoinOperator = new JoinOperator<>((left, right) -> left.get(0).equals(right.get(0)));
+    hashJoinOperator = new JoinOperator<>(left -> left.get(0), right -> right.get(0));
+    symmetricHashJoinOperator =
+        new SymmetricHashJoinOperator<>(left -> left.get(0), right -> right.get(0), JOIN_WINDOW_TIME);
+    unionOperator = new UnionOperator();
+    predicateJoinOperator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    hashJoinOperator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    symmetricHashJoinOperator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    unionOperator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+
+    random = new Random(0);
+    window = new WindowImpl<>(0L, 2L * windowInputs);
+    for (int i = 0; i < windowInputs; i++) {
+      window.putData(new MistDataEvent(new Tuple2<>(nextInput(), null), 2 * i));
+      window.putData(new MistDataEvent(new Tuple2<>(null, nextInput()), 2 * i + 1));
+    }
+  }
+
+  private Tuple2<Integer, Integer> nextInput() {
+    return new Tuple2<>(random.nextInt(numKeys), random.nextInt());
+  }
+
+  @Benchmark
+  public void predicateJoin() {
+    predicateJoinOperator.processLeftData(new MistDataEvent(window, timestamp++));
+  }
+
+  @Benchmark
+  public void hashJoin() {
+    hashJoinOperator.processLeftData(new MistDataEvent(window, timestamp++));
+  }
+
+  @Benchmark
+  public void symmetricHashJoin() {
+    timestamp += 1;
+    if (timestamp % 2 == 0) {
+      symmetricHashJoinOperator.processLeftData(new MistDataEvent(nextInput(), timestamp));
+    } else {
+      symmetricHashJoinOperator.processRightData(new MistDataEvent(nextInput(), timestamp));
+    }
+  }
+
+  /**
+   * The union operator emits the buffered inputs when the watermarks of both streams are advanced.
+   */
+  @Benchmark
+  public void union() {
+    timestamp += 1;
+    unionOperator.processLeftData(new MistDataEvent(1, timestamp));
+    unionOperator.processRightData(new MistDataEvent(2, timestamp));
+    if (timestamp % 100 == 0) {
+      unionOperator.processLeftWatermark(new MistWatermarkEvent(timestamp));
+      unionOperator.processRightWatermark(new MistWatermarkEvent(timestamp));
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.benchmarks;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.operators.window.AggregateWindowOperator;
+import edu.snu.mist.core.operators.window.CountWindowOperator;
+import edu.snu.mist.core.operators.window.SessionWindowOperator;
+import edu.snu.mist.core.operators.window.TimeWindowOperator;
+import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.OperatorOutputEmitter;
+import edu.snu.mist.formats.avro.Direction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the window operators followed by an aggregate window operator that sums up the windows.
+ * The timestamp of the events increases by one, so the window size and interval are the number of events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowOperatorBenchmark {
+
+  private static final int WINDOW_SIZE = 1000;
+
+  /**
+   * The gap between the sessions of the session window.
+   */
+  private static final int SESSION_INTERVAL = 10;
+
+  /**
+   * The emission interval of the fixed-size windows.
+   * The tumbling windows are used if it is equal to the window size.
+   */
+  @Param({"1000", "100", "10"})
+  private int windowInterval;
+
+  private Operator timeWindowOperator;
+
+  private Operator countWindowOperator;
+
+  private Operator sessionWindowOperator;
+
+  private long timestamp;
+
+  private long numSessionEvents;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    timeWindowOperator = new TimeWindowOperator<Integer>(WINDOW_SIZE, windowInterval);
+    countWindowOperator = new CountWindowOperator<Integer>(WINDOW_SIZE, windowInterval);
+    sessionWindowOperator = new SessionWindowOperator<Integer>(SESSION_INTERVAL);
+    connectToAggregation(timeWindowOperator, blackhole);
+    connectToAggregation(countWindowOperator, blackhole);
+    connectToAggregation(sessionWindowOperator, blackhole);
+  }
+
+  private void connectToAggregation(final Operator windowOperator, final Blackhole blackhole) {
+    final AggregateWindowOperator<Integer, Integer> aggregateOperator =
+        new AggregateWindowOperator<>((Integer v1, Integer v2) -> v1 + v2);
+    aggregateOperator.setOutputEmitter(new BlackholeOutputEmitter(blackhole));
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(new DefaultPhysicalOperatorImpl("aggregate", new HashMap<>(), aggregateOperator),
+        new MISTEdge(Direction.LEFT));
+    windowOperator.setOutputEmitter(new OperatorOutputEmitter(nextOperators));
+  }
+
+  @Benchmark
+  public void timeWindow() {
+    timeWindowOperator.processLeftData(new MistDataEvent(1, timestamp++));
+  }
+
+  @Benchmark
+  public void countWindow() {
+    countWindowOperator.processLeftData(new MistDataEvent(1, timestamp++));
+  }
+
+  /**
+   * A new session starts after every hundred events.
+   */
+  @Benchmark
+  public void sessionWindow() {
+    numSessionEvents += 1;
+    timestamp += numSessionEvents % 100 == 0 ? SESSION_INTERVAL + 1 : 1;
+    sessionWindowOperator.processLeftData(new MistDataEvent(1, timestamp));
+  }
+}
@@ -19,6 +19,7 @@ import edu.snu.mist.client.datastreams.ContinuousStreamImpl;
 import edu.snu.mist.client.datastreams.MISTStream;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.formats.avro.Direction;
@@ -30,6 +31,10 @@ import java.util.*;
 /**
  * This class implements a logical DAG optimizer.
  * Through this optimizer, a few DAG optimization techniques will be applied to the logical DAG in client-side.
+ * 1) The conditionally branching streams from a stream are unified into a single conditional branch operator.
+ * 2) The linear chains of stateless operators (map, filter and flatMap) are fused into single fused operators.
+ *    The queries are merged at the granularity of the fused operators, so the operators right after the sources,
+ *    which are the ones that the queries on the same source most likely share (e.g., parsing), are not fused.
  * TODO: [MIST-452] (Minor) handle corner case in conditional branch API
  */
 public final class LogicalDagOptimizer {
@@ -60,9 +65,139 @@ public final class LogicalDagOptimizer {
         optimizeSubDag(nextVertex, visited);
       }
     }
+    fuseStatelessChains();
     return dag;
   }
 
+  /**
+   * Check whether the vertex is a stateless operator that can be fused.
+   * @param vertex vertex
+   * @return true if the vertex is a map, filter or flatMap without conditional branches
+   */
+  private static boolean isFusable(final MISTStream vertex) {
+    if (!(vertex instanceof ContinuousStreamImpl)) {
+      return false;
+    }
+    final ContinuousStreamImpl stream = (ContinuousStreamImpl) vertex;
+    if (stream.getBranchIndex() != 0 || stream.getCondBranchCount() != 0) {
+      return false;
+    }
+    final Map<String, String> conf = stream.getConfiguration();
+    final String type = conf.get(ConfKeys.OperatorConf.OP_TYPE.name());
+    return ConfValues.OperatorType.MAP.name().equals(type)
+        || ConfValues.OperatorType.FILTER.name().equals(type)
+        || ConfValues.OperatorType.FLAT_MAP.name().equals(type);
+  }
+
+  /**
+   * Get the next vertex of the vertex in a fused chain.
+   * @param vertex a fusable vertex
+   * @return the only downstream vertex if it can be fused with the vertex, otherwise null
+   */
+  private MISTStream getFusableDownstream(final MISTStream vertex) {
+    final Map<MISTStream, MISTEdge> edges = dag.getEdges(vertex);
+    if (edges.size() != 1) {
+      return null;
+    }
+    final Map.Entry<MISTStream, MISTEdge> edge = edges.entrySet().iterator().next();
+    if (!edge.getValue().equals(new MISTEdge(Direction.LEFT)) || !isFusable(edge.getKey())
+        || dag.getInDegree(edge.getKey()) != 1) {
+      return null;
+    }
+    return edge.getKey();
+  }
+
+  /**
+   * Fuse the linear chains of stateless operators.
+   * Each chain starts from a fusable vertex that does not follow a source,
+   * and continues while the vertex has a single downstream that has a single upstream.
+   */
+  private void fuseStatelessChains() {
+    // The upstream of each vertex. It is only used for the vertices that have a single upstream.
+    final Map<MISTStream, MISTStream> upstreams = new HashMap<>();
+    for (final MISTStream vertex : dag.getVertices()) {
+      for (final MISTStream downstream : dag.getEdges(vertex).keySet()) {
+        upstreams.put(downstream, vertex);
+      }
+    }
+    final Set<MISTStream> sources = dag.getRootVertices();
+    final Set<MISTStream> chainHeads = new HashSet<>();
+    for (final MISTStream vertex : dag.getVertices()) {
+      final MISTStream upstream = upstreams.get(vertex);
+      if (isFusable(vertex) && !sources.contains(upstream)) {
+        chainHeads.add(vertex);
+      }
+    }
+    // The vertices that follow another vertex of a chain are not the heads
+    final Set<MISTStream> followers = new HashSet<>();
+    for (final MISTStream head : chainHeads) {
+      final MISTStream next = getFusableDownstream(head);
+      if (next != null) {
+        followers.add(next);
+      }
+    }
+    chainHeads.removeAll(followers);
+
+    // The fused operators of the chains, indexed by the last vertices of the chains.
+    // The upstream of a chain can be the last vertex of another chain that is already fused.
+    final Map<MISTStream, MISTStream> fusedTails = new HashMap<>();
+    for (final MISTStream head : chainHeads) {
+      final List<MISTStream> chain = new ArrayList<>();
+      MISTStream current = head;
+      while (current != null) {
+        chain.add(current);
+        current = getFusableDownstream(current);
+      }
+      if (chain.size() > 1) {
+        final MISTStream upstream = upstreams.get(head);
+        fusedTails.put(chain.get(chain.size() - 1), fuseChain(fusedTails.getOrDefault(upstream, upstream), chain));
+      }
+    }
+  }
+
+  /**
+   * Replace the chain with a fused operator.
+   * @param upstream the upstream of the chain
+   * @param chain the vertices of the chain
+   * @return the fused operator
+   */
+  private MISTStream fuseChain(final MISTStream upstream, final List<MISTStream> chain) {
+    final List<String> types = new ArrayList<>(chain.size());
+    final ArrayList<String> udfs = new ArrayList<>(chain.size());
+    for (final MISTStream vertex : chain) {
+      final Map<String, String> conf = vertex.getConfiguration();
+      types.add(conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+      udfs.add(conf.get(ConfKeys.OperatorConf.UDF_STRING.name()));
+    }
+    final Map<String, String> opConf = new HashMap<>();
+    opConf.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.FUSED.name());
+    opConf.put(ConfKeys.FusedOperator.OP_TYPE_LIST.name(), String.join(",", types));
+    try {
+      opConf.put(ConfKeys.FusedOperator.UDF_LIST_STRING.name(), SerializeUtils.serializeToString(udfs));
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+
+    final ContinuousStreamImpl fusedStream = new ContinuousStreamImpl(dag, opConf);
+    dag.addVertex(fusedStream);
+    final MISTStream head = chain.get(0);
+    dag.addEdge(upstream, fusedStream, dag.getEdges(upstream).get(head));
+    dag.removeEdge(upstream, head);
+    final MISTStream tail = chain.get(chain.size() - 1);
+    for (final Map.Entry<MISTStream, MISTEdge> edge : new ArrayList<>(dag.getEdges(tail).entrySet())) {
+      dag.addEdge(fusedStream, edge.getKey(), edge.getValue());
+      dag.removeEdge(tail, edge.getKey());
+    }
+    for (int i = 0; i < chain.size() - 1; i++) {
+      dag.removeEdge(chain.get(i), chain.get(i + 1));
+    }
+    for (final MISTStream vertex : chain) {
+      dag.removeVertex(vertex);
+    }
+    return fusedStream;
+  }
+
   /**
    * Obtimize the operators and sinks recursively (DFS order) according to the mechanism.
    * @param currVertex  current vertex
@@ -119,6 +119,30 @@ public final class MISTQueryBuilder {
     return buildStream(srcConf.getConfiguration(), watermarkConf.getConfiguration());
   }
 
+  /**
+   * Create a continuous stream that receives length-prefixed binary data from the socket server.
+   * @param srcConf binary socket source configuration
+   * @param <T> the type of the deserialized data
+   * @return a new continuous stream
+   */
+  public <T> ContinuousStream<T> binarySocketStream(final SourceConfiguration srcConf) {
+    return binarySocketStream(srcConf, getDefaultWatermarkConf());
+  }
+
+  /**
+   * Create a continuous stream that receives length-prefixed binary data from the socket server.
+   * @param srcConf binary socket source configuration
+   * @param watermarkConf a watermark configuration
+   * @param <T> the type of the deserialized data
+   * @return a new continuous stream
+   */
+  public <T> ContinuousStream<T> binarySocketStream(final SourceConfiguration srcConf,
+                                                    final WatermarkConfiguration watermarkConf) {
+    assert srcConf.getConfiguration()
+        .get(ConfKeys.SourceConf.SOURCE_TYPE.name()) == ConfValues.SourceType.NETTY_BINARY.name();
+    return buildStream(srcConf.getConfiguration(), watermarkConf.getConfiguration());
+  }
+
   /**
    * Create a continuous stream that receives data from the kafka producer.
    * @param srcConf kafka configuration
@@ -80,7 +80,8 @@ public final class MISTQueryImpl implements MISTQuery {
             .setFrom(fromIndex)
             .setTo(toIndex)
             .setDirection(edgeInfo.getDirection())
-            .setBranchIndex(edgeInfo.getIndex());
+            .setBranchIndex(edgeInfo.getIndex())
+            .setInputIndex(edgeInfo.getInputIndex());
         edges.add(edgeBuilder.build());
       }
     }
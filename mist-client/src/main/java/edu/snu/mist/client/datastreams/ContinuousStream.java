@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.client.datastreams;
 
+import edu.snu.mist.client.datastreams.configurations.SinkConfiguration;
 import edu.snu.mist.common.functions.*;
 import edu.snu.mist.common.cep.CepEventPattern;
 import edu.snu.mist.common.types.Tuple2;
@@ -78,6 +79,20 @@ public interface ContinuousStream<T> extends MISTStream<T> {
   <K, V> ContinuousStream<Map<K, V>> reduceByKey(
       int keyFieldIndex, Class<K> keyType, MISTBiFunction<V, V, V> reduceFunc);
 
+  /**
+   * Applies reduceByKey operation to the current stream.
+   * Unlike reduceByKey, this stream emits only the updated key and its reduced value on every input,
+   * instead of the whole key-value map.
+   * @param keyFieldIndex the field index of key field
+   * @param keyType the type of key. This parameter is used for type inference and for choosing the state structure
+   * @param reduceFunc function used for reduce operation
+   * @param <K> the type of key in resulting stream
+   * @param <V> the type of value in resulting stream
+   * @return new transformed stream after applying the operation
+   */
+  <K, V> ContinuousStream<Tuple2<K, V>> reduceByKeyUpdates(
+      int keyFieldIndex, Class<K> keyType, MISTBiFunction<V, V, V> reduceFunc);
+
   /**
    * Applies user-defined stateful operator to the current stream.
    * This stream will produce outputs on every stream input.
@@ -87,6 +102,25 @@ public interface ContinuousStream<T> extends MISTStream<T> {
    */
   <OUT> ContinuousStream<OUT> applyStateful(ApplyStatefulFunction<T, OUT> applyStatefulFunction);
 
+  /**
+   * Partitions the current stream by the keys of the inputs.
+   * The operations of the keyed stream keep a separate state or windows for each key.
+   * @param keyFunc the function that extracts the key from the input
+   * @param <K> the type of key
+   * @return new keyed stream
+   */
+  <K> KeyedStream<K, T> keyBy(MISTFunction<T, K> keyFunc);
+
+  /**
+   * Partitions the current stream by the keys of the inputs.
+   * The operations of the keyed stream keep a separate state or windows for each key.
+   * @param keyFunc the function that extracts the key from the input
+   * @param keyType the type of key. This parameter is used for choosing the state structure
+   * @param <K> the type of key
+   * @return new keyed stream
+   */
+  <K> KeyedStream<K, T> keyBy(MISTFunction<T, K> keyFunc, Class<K> keyType);
+
   /**
    * Applies state transition operator to the current stream.
    * @param initialState initial state
@@ -118,6 +152,14 @@ public interface ContinuousStream<T> extends MISTStream<T> {
    */
   ContinuousStream<T> union(ContinuousStream<T> inputStream);
 
+  /**
+   * Applies union operation to the current stream and the input continuous streams passed as a parameter.
+   * All the streams are unified by a single union operator instead of a chain of binary unions.
+   * @param inputStreams the streams to be unified with this stream
+   * @return new unified stream after applying type-checking
+   */
+  ContinuousStream<T> union(List<ContinuousStream<T>> inputStreams);
+
   /**
    * Creates a new WindowsStream according to the WindowInformation.
    * @param windowInfo the WindowInformation contains some information used during windowing operation
@@ -138,6 +180,40 @@ public interface ContinuousStream<T> extends MISTStream<T> {
                                         MISTBiPredicate<T, U> joinBiPredicate,
                                         WindowInformation windowInfo);
 
+  /**
+   * Joins current stream with the input stream by the keys of the inputs.
+   * Two streams are windowed according to the WindowInfo,
+   * and a pair of inputs that have the same key is joined within the window by a hash join.
+   * @param inputStream the stream to be joined with this stream
+   * @param firstKeyFunc the function that extracts the key from the input of this stream
+   * @param secondKeyFunc the function that extracts the key from the input of the input stream
+   * @param windowInfo the windowing information for joining two streams
+   * @param <U> the data type of the input stream to be joined with this stream
+   * @param <K> the type of the join key
+   * @return new windowed and joined stream
+   */
+  <U, K> WindowedStream<Tuple2<T, U>> join(ContinuousStream<U> inputStream,
+                                           MISTFunction<T, K> firstKeyFunc,
+                                           MISTFunction<U, K> secondKeyFunc,
+                                           WindowInformation windowInfo);
+
+  /**
+   * Joins current stream with the input stream by the keys of the inputs incrementally.
+   * A pair of inputs that have the same key is emitted as soon as the later input arrives,
+   * if the difference of their timestamps is not larger than the window time.
+   * @param inputStream the stream to be joined with this stream
+   * @param firstKeyFunc the function that extracts the key from the input of this stream
+   * @param secondKeyFunc the function that extracts the key from the input of the input stream
+   * @param windowTime the window time in which two inputs can be joined
+   * @param <U> the data type of the input stream to be joined with this stream
+   * @param <K> the type of the join key
+   * @return new joined stream
+   */
+  <U, K> ContinuousStream<Tuple2<T, U>> symmetricHashJoin(ContinuousStream<U> inputStream,
+                                                          MISTFunction<T, K> firstKeyFunc,
+                                                          MISTFunction<U, K> secondKeyFunc,
+                                                          long windowTime);
+
   /**
    * Branches out to a continuous stream with condition.
    * If an input data is matched with the condition, it will be routed only to the relevant downstream.
@@ -156,6 +232,14 @@ public interface ContinuousStream<T> extends MISTStream<T> {
    */
   MISTStream<String> textSocketOutput(String serverAddr, int serverPort);
 
+  /**
+   * Push the binary stream to the socket server.
+   * Each output is sent as a frame that is prefixed with its length.
+   * @param sinkConf binary socket sink configuration
+   * @return sink stream
+   */
+  MISTStream<byte[]> binarySocketOutput(SinkConfiguration sinkConf);
+
   /**
    * Publish the mqtt text stream to the mqtt broker.
    * @param brokerURI broker URI
@@ -16,7 +16,7 @@
 
 package edu.snu.mist.client.datastreams;
 
-
+import edu.snu.mist.client.datastreams.configurations.SinkConfiguration;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
 import edu.snu.mist.common.configurations.ConfValues;
@@ -158,6 +158,16 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     return transformWithSingleUdfOperator(applyStatefulFunction, ConfValues.OperatorType.APPLY_STATEFUL);
   }
 
+  @Override
+  public <K> KeyedStream<K, T> keyBy(final MISTFunction<T, K> keyFunc) {
+    return new KeyedStreamImpl<>(this, keyFunc, null);
+  }
+
+  @Override
+  public <K> KeyedStream<K, T> keyBy(final MISTFunction<T, K> keyFunc, final Class<K> keyType) {
+    return new KeyedStreamImpl<>(this, keyFunc, keyType);
+  }
+
   @Override
   public ContinuousStream<Tuple2<T, String>> stateTransition(
           final String initialState,
@@ -186,15 +196,27 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     return transformToSingleInputContinuousStream(confMap, this);
   }
 
-  @Override
-  public <K, V> ContinuousStream<Map<K, V>> reduceByKey(final int keyFieldNum,
-                                                        final Class<K> keyType,
-                                                        final MISTBiFunction<V, V, V> reduceFunc) {
+  /**
+   * Create a new continuous stream that is processed by the reduceByKey operator.
+   * @param keyFieldNum the field index of key field
+   * @param keyType the type of key
+   * @param reduceFunc reduce function
+   * @param outputMode the output mode of the operator
+   * @param <OUT> the result type of the operation
+   * @return a new transformed continuous stream
+   */
+  private <OUT> ContinuousStream<OUT> transformWithReduceByKeyOperator(
+      final int keyFieldNum,
+      final Class<?> keyType,
+      final MISTBiFunction reduceFunc,
+      final ConfValues.ReduceByKeyOutputMode outputMode) {
     final Map<String, String> confMap = new HashMap<>();
     confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.REDUCE_BY_KEY.name());
 
     try {
       confMap.put(ConfKeys.ReduceByKeyOperator.KEY_INDEX.name(), String.valueOf(keyFieldNum));
+      confMap.put(ConfKeys.ReduceByKeyOperator.KEY_TYPE.name(), keyType.getName());
+      confMap.put(ConfKeys.ReduceByKeyOperator.OUTPUT_MODE.name(), outputMode.name());
       confMap.put(ConfKeys.ReduceByKeyOperator.MIST_BI_FUNC.name(),
           SerializeUtils.serializeToString(reduceFunc));
       return transformToSingleInputContinuousStream(confMap, this);
@@ -204,6 +226,22 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     }
   }
 
+  @Override
+  public <K, V> ContinuousStream<Map<K, V>> reduceByKey(final int keyFieldNum,
+                                                        final Class<K> keyType,
+                                                        final MISTBiFunction<V, V, V> reduceFunc) {
+    return transformWithReduceByKeyOperator(
+        keyFieldNum, keyType, reduceFunc, ConfValues.ReduceByKeyOutputMode.FULL_MAP);
+  }
+
+  @Override
+  public <K, V> ContinuousStream<Tuple2<K, V>> reduceByKeyUpdates(final int keyFieldNum,
+                                                                  final Class<K> keyType,
+                                                                  final MISTBiFunction<V, V, V> reduceFunc) {
+    return transformWithReduceByKeyOperator(
+        keyFieldNum, keyType, reduceFunc, ConfValues.ReduceByKeyOutputMode.UPDATED_PAIR);
+  }
+
   @Override
   public ContinuousStream<T> union(final ContinuousStream<T> inputStream) {
     // TODO[MIST-245]: Improve type checking.
@@ -212,6 +250,23 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     return transformToDoubleInputContinuousStream(confMap, this, inputStream);
   }
 
+  @Override
+  public ContinuousStream<T> union(final List<ContinuousStream<T>> inputStreams) {
+    if (inputStreams.isEmpty()) {
+      throw new IllegalArgumentException("At least one stream should be unified with this stream.");
+    }
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.UNION.name());
+    confMap.put(ConfKeys.UnionOperator.NUM_INPUTS.name(), String.valueOf(inputStreams.size() + 1));
+    final ContinuousStream<T> downStream = new ContinuousStreamImpl<>(dag, confMap);
+    dag.addVertex(downStream);
+    dag.addEdge(this, downStream, new MISTEdge(Direction.LEFT));
+    for (int i = 0; i < inputStreams.size(); i++) {
+      dag.addEdge(inputStreams.get(i), downStream, new MISTEdge(Direction.RIGHT, 0, i + 1));
+    }
+    return downStream;
+  }
+
   @Override
   public WindowedStream<T> window(final WindowInformation windowInfo) {
     final Map<String, String> confMap = new HashMap<>();
@@ -237,19 +292,47 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
   public <U> WindowedStream<Tuple2<T, U>> join(final ContinuousStream<U> inputStream,
                                                final MISTBiPredicate<T, U> joinBiPredicate,
                                                final WindowInformation windowInfo) {
+    final WindowedStream<Tuple2<T, U>> windowedStream = unifyAndWindow(inputStream, windowInfo);
+
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.JOIN.name());
+
+    try {
+      confMap.put(ConfKeys.OperatorConf.UDF_STRING.name(),
+           SerializeUtils.serializeToString(joinBiPredicate));
+      return transformToWindowedStream(confMap, windowedStream);
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Maps two streams into a Tuple2 form, unifies them, and applies windowing operation.
+   */
+  private <U> WindowedStream<Tuple2<T, U>> unifyAndWindow(final ContinuousStream<U> inputStream,
+                                                          final WindowInformation windowInfo) {
     final MISTFunction<T, Tuple2<T, U>> firstMapFunc = input -> new Tuple2<>(input, null);
     final MISTFunction<U, Tuple2<T, U>> secondMapFunc = input -> new Tuple2<>(null, input);
-    final WindowedStream<Tuple2<T, U>> windowedStream = this
+    return this
         .map(firstMapFunc)
         .union(inputStream.map(secondMapFunc))
         .window(windowInfo);
+  }
+
+  @Override
+  public <U, K> WindowedStream<Tuple2<T, U>> join(final ContinuousStream<U> inputStream,
+                                                  final MISTFunction<T, K> firstKeyFunc,
+                                                  final MISTFunction<U, K> secondKeyFunc,
+                                                  final WindowInformation windowInfo) {
+    final WindowedStream<Tuple2<T, U>> windowedStream = unifyAndWindow(inputStream, windowInfo);
 
     final Map<String, String> confMap = new HashMap<>();
-    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.JOIN.name());
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.HASH_JOIN.name());
 
     try {
-      confMap.put(ConfKeys.OperatorConf.UDF_STRING.name(),
-           SerializeUtils.serializeToString(joinBiPredicate));
+      confMap.put(ConfKeys.JoinOperator.FIRST_KEY_FUNC.name(), SerializeUtils.serializeToString(firstKeyFunc));
+      confMap.put(ConfKeys.JoinOperator.SECOND_KEY_FUNC.name(), SerializeUtils.serializeToString(secondKeyFunc));
       return transformToWindowedStream(confMap, windowedStream);
     } catch (final IOException e) {
       e.printStackTrace();
@@ -257,6 +340,25 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     }
   }
 
+  @Override
+  public <U, K> ContinuousStream<Tuple2<T, U>> symmetricHashJoin(final ContinuousStream<U> inputStream,
+                                                                 final MISTFunction<T, K> firstKeyFunc,
+                                                                 final MISTFunction<U, K> secondKeyFunc,
+                                                                 final long windowTime) {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.SYMMETRIC_HASH_JOIN.name());
+    confMap.put(ConfKeys.JoinOperator.JOIN_WINDOW_TIME.name(), String.valueOf(windowTime));
+
+    try {
+      confMap.put(ConfKeys.JoinOperator.FIRST_KEY_FUNC.name(), SerializeUtils.serializeToString(firstKeyFunc));
+      confMap.put(ConfKeys.JoinOperator.SECOND_KEY_FUNC.name(), SerializeUtils.serializeToString(secondKeyFunc));
+      return transformToDoubleInputContinuousStream(confMap, this, inputStream);
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public ContinuousStream<T> routeIf(final MISTPredicate<T> condition) {
     condBranchCount++;
@@ -289,6 +391,16 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     return sink;
   }
 
+  @Override
+  public MISTStream<byte[]> binarySocketOutput(final SinkConfiguration sinkConf) {
+    assert sinkConf.getConfiguration()
+        .get(ConfKeys.SinkConf.SINK_TYPE.name()) == ConfValues.SinkType.NETTY_BINARY.name();
+    final MISTStream<byte[]> sink = new MISTStreamImpl<>(dag, sinkConf.getConfiguration());
+    dag.addVertex(sink);
+    dag.addEdge(this, sink, new MISTEdge(Direction.LEFT));
+    return sink;
+  }
+
   @Override
   public MISTStream<MqttMessage> mqttOutput(final String brokerURI, final String topic) {
 
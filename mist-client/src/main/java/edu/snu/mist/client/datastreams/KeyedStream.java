@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.datastreams;
+
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.common.windows.WindowData;
+import edu.snu.mist.common.windows.WindowInformation;
+
+/**
+ * Keyed stream interface created by keyBy methods.
+ * The operations of a keyed stream keep a separate state or windows for each key in a single operator,
+ * so a single query can process the inputs of many keys (e.g., devices) instead of a query for each key.
+ * It is not a stream itself, and should be transformed into a continuous stream by one of the operations.
+ * @param <K> the type of key
+ * @param <T> the type of data
+ */
+public interface KeyedStream<K, T> {
+
+  /**
+   * Applies the user-defined stateful operation to the inputs of each key.
+   * The function is initialized for each new key, and only its state (getCurrentState) is kept per key,
+   * so the function should create a new state object when it is initialized.
+   * The states of the keys are never evicted.
+   * @param applyStatefulFunction the user-defined ApplyStatefulFunction
+   * @param <OUT> the type of stream output
+   * @return new continuous stream that emits the key and the result on every input
+   */
+  <OUT> ContinuousStream<Tuple2<K, OUT>> applyStateful(ApplyStatefulFunction<T, OUT> applyStatefulFunction);
+
+  /**
+   * Applies the user-defined stateful operation to the inputs of each key.
+   * The state of a key is evicted if the key has no input during the idle timeout,
+   * and the function is initialized again when the key has an input after that.
+   * @param applyStatefulFunction the user-defined ApplyStatefulFunction
+   * @param idleTimeout the idle timeout of the keys expressed in milliseconds
+   * @param <OUT> the type of stream output
+   * @return new continuous stream that emits the key and the result on every input
+   */
+  <OUT> ContinuousStream<Tuple2<K, OUT>> applyStateful(ApplyStatefulFunction<T, OUT> applyStatefulFunction,
+                                                       long idleTimeout);
+
+  /**
+   * Makes the windows of each key and aggregates each window by the user-defined aggregation function.
+   * Time windows and session windows are supported. The time windows of all the keys have the same boundaries.
+   * A window of a key is emitted when it is closed, and empty windows do not produce any output.
+   * The key is evicted when all of its windows are emitted.
+   * @param windowInfo the windowing information. It should be TimeWindowInformation or SessionWindowInformation
+   * @param aggregateFunc the function that aggregates the WindowData of a key
+   * @param <R> the type of result
+   * @return new continuous stream that emits the key and the aggregated result for each window
+   */
+  <R> ContinuousStream<Tuple2<K, R>> aggregateWindow(WindowInformation windowInfo,
+                                                     MISTFunction<WindowData<T>, R> aggregateFunc);
+}
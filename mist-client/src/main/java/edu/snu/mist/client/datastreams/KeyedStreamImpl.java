@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.datastreams;
+
+import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.common.windows.SessionWindowInformation;
+import edu.snu.mist.common.windows.TimeWindowInformation;
+import edu.snu.mist.common.windows.WindowData;
+import edu.snu.mist.common.windows.WindowInformation;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The class for KeyedStream.
+ * It configures the keyed operators that are connected to the upstream.
+ */
+final class KeyedStreamImpl<K, T> implements KeyedStream<K, T> {
+
+  /**
+   * The upstream that is keyed.
+   */
+  private final ContinuousStreamImpl<T> upStream;
+
+  /**
+   * The function that extracts the key from the input.
+   */
+  private final MISTFunction<T, K> keyFunc;
+
+  /**
+   * The type of key, or null if it is unknown.
+   */
+  private final Class<K> keyType;
+
+  KeyedStreamImpl(final ContinuousStreamImpl<T> upStream,
+                  final MISTFunction<T, K> keyFunc,
+                  final Class<K> keyType) {
+    this.upStream = upStream;
+    this.keyFunc = keyFunc;
+    this.keyType = keyType;
+  }
+
+  /**
+   * Create a new continuous stream that is processed by the keyed operator using a single udf.
+   * @param confMap the configuration of the operator except the key and the udf
+   * @param udf a user-defined function
+   * @param <OUT> the result type of the operation
+   * @return a new transformed continuous stream
+   */
+  private <OUT> ContinuousStream<OUT> transformWithKeyedOperator(final Map<String, String> confMap,
+                                                                 final Serializable udf) {
+    try {
+      confMap.put(ConfKeys.KeyedOperator.KEY_FUNC.name(), SerializeUtils.serializeToString(keyFunc));
+      if (keyType != null) {
+        confMap.put(ConfKeys.KeyedOperator.KEY_TYPE.name(), keyType.getName());
+      }
+      confMap.put(ConfKeys.OperatorConf.UDF_STRING.name(), SerializeUtils.serializeToString(udf));
+      return upStream.transformToSingleInputContinuousStream(confMap, upStream);
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public <OUT> ContinuousStream<Tuple2<K, OUT>> applyStateful(
+      final ApplyStatefulFunction<T, OUT> applyStatefulFunction) {
+    return applyStateful(applyStatefulFunction, 0L);
+  }
+
+  @Override
+  public <OUT> ContinuousStream<Tuple2<K, OUT>> applyStateful(
+      final ApplyStatefulFunction<T, OUT> applyStatefulFunction,
+      final long idleTimeout) {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.KEYED_APPLY_STATEFUL.name());
+    confMap.put(ConfKeys.KeyedOperator.IDLE_TIMEOUT.name(), String.valueOf(idleTimeout));
+    return transformWithKeyedOperator(confMap, applyStatefulFunction);
+  }
+
+  @Override
+  public <R> ContinuousStream<Tuple2<K, R>> aggregateWindow(
+      final WindowInformation windowInfo,
+      final MISTFunction<WindowData<T>, R> aggregateFunc) {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.KEYED_AGGREGATE_WINDOW.name());
+    confMap.put(ConfKeys.WindowOperator.WINDOW_SIZE.name(), String.valueOf(windowInfo.getWindowSize()));
+    confMap.put(ConfKeys.WindowOperator.WINDOW_INTERVAL.name(), String.valueOf(windowInfo.getWindowInterval()));
+
+    if (windowInfo instanceof TimeWindowInformation) {
+      confMap.put(ConfKeys.KeyedOperator.WINDOW_TYPE.name(), ConfValues.OperatorType.TIME_WINDOW.name());
+    } else if (windowInfo instanceof SessionWindowInformation) {
+      confMap.put(ConfKeys.KeyedOperator.WINDOW_TYPE.name(), ConfValues.OperatorType.SESSION_WINDOW.name());
+    } else {
+      throw new IllegalArgumentException("Keyed windows should be time or session windows: " + windowInfo);
+    }
+    return transformWithKeyedOperator(confMap, aggregateFunc);
+  }
+}
@@ -56,4 +56,13 @@ public interface WindowedStream<T> extends MISTStream<WindowData<T>> {
    * @return new aggregated continuous stream after applying the stateful operation
    */
   <R> ContinuousStream<R> applyStatefulWindow(ApplyStatefulFunction<T, R> applyStatefulFunction);
+
+  /**
+   * It reduces the data in each window by an associative reduce function.
+   * As the function is associative, partial results of the data shared by overlapping windows are reused.
+   * Empty windows do not produce any output.
+   * @param reduceFunc the associative reduce function
+   * @return new reduced continuous stream after applying the reduce function
+   */
+  ContinuousStream<T> reduceWindow(MISTBiFunction<T, T, T> reduceFunc);
 }
\ No newline at end of file
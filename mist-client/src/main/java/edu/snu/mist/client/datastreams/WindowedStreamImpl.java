@@ -85,4 +85,17 @@ final class WindowedStreamImpl<T> extends MISTStreamImpl<WindowData<T>> implemen
       throw new RuntimeException(e);
     }
   }
+
+  @Override
+  public ContinuousStream<T> reduceWindow(final MISTBiFunction<T, T, T> reduceFunc) {
+    try {
+      final Map<String, String> confMap = new HashMap<>();
+      confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.REDUCE_WINDOW.name());
+      confMap.put(ConfKeys.OperatorConf.UDF_STRING.name(), SerializeUtils.serializeToString(reduceFunc));
+      return transformToSingleInputContinuousStream(confMap, this);
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.datastreams.configurations;
+
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The class represents the binary socket sink configuration.
+ * The sink sends each output as a frame that is prefixed with its length in 4 bytes.
+ * The outputs are batched and flushed when the pending bytes exceed the flush size
+ * or when the flush interval elapses.
+ */
+public final class BinarySocketSinkConfiguration {
+
+  /**
+   * The default number of pending bytes that triggers the flush.
+   */
+  private static final int DEFAULT_FLUSH_SIZE = 64 * 1024;
+
+  /**
+   * The default flush interval in milliseconds.
+   */
+  private static final long DEFAULT_FLUSH_INTERVAL = 10;
+
+  private BinarySocketSinkConfiguration() {
+    // do nothing
+  }
+
+  /**
+   * Gets the builder for Configuration construction.
+   * @return the builder
+   */
+  public static BinarySocketSinkConfigurationBuilder newBuilder() {
+    return new BinarySocketSinkConfigurationBuilder();
+  }
+
+  /**
+   * This class builds BinarySocketSinkConfiguration.
+   */
+  public static final class BinarySocketSinkConfigurationBuilder {
+
+    private String socketServerAddr;
+    private int socketServerPort;
+    private int flushSize = DEFAULT_FLUSH_SIZE;
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    /**
+     * Builds the BinarySocketSinkConfiguration.
+     * @return the configuration
+     */
+    public SinkConfiguration build() {
+      final Map<String, String> confMap = new HashMap<>();
+      confMap.put(ConfKeys.SinkConf.SINK_TYPE.name(), ConfValues.SinkType.NETTY_BINARY.name());
+      confMap.put(ConfKeys.NettySink.SINK_ADDRESS.name(), socketServerAddr);
+      confMap.put(ConfKeys.NettySink.SINK_PORT.name(), String.valueOf(socketServerPort));
+      confMap.put(ConfKeys.NettySink.FLUSH_SIZE.name(), String.valueOf(flushSize));
+      confMap.put(ConfKeys.NettySink.FLUSH_INTERVAL.name(), String.valueOf(flushInterval));
+      return new SinkConfiguration(confMap);
+    }
+
+    /**
+     * Sets the configuration for the host address to the given address.
+     * @param address the address given by users which they want to set
+     * @return the configured SinkBuilder
+     */
+    public BinarySocketSinkConfigurationBuilder setHostAddress(final String address) {
+      socketServerAddr = address;
+      return this;
+    }
+
+    /**
+     * Sets the configuration for the host port to the given port.
+     * @param port the port given by users which they want to set
+     * @return the configured SinkBuilder
+     */
+    public BinarySocketSinkConfigurationBuilder setHostPort(final int port) {
+      socketServerPort = port;
+      return this;
+    }
+
+    /**
+     * Sets the number of pending bytes that triggers the flush.
+     * @param size the flush size in bytes
+     * @return the configured SinkBuilder
+     */
+    public BinarySocketSinkConfigurationBuilder setFlushSize(final int size) {
+      flushSize = size;
+      return this;
+    }
+
+    /**
+     * Sets the interval of the periodic flush.
+     * @param interval the flush interval in milliseconds
+     * @return the configured SinkBuilder
+     */
+    public BinarySocketSinkConfigurationBuilder setFlushInterval(final long interval) {
+      flushInterval = interval;
+      return this;
+    }
+  }
+}
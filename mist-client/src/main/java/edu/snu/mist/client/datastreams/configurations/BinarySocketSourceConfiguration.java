@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.datastreams.configurations;
+
+import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.MISTFunction;
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.io.Tuple;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The class represents the binary socket source configuration.
+ * The socket server sends the data as frames that are prefixed with their length in 4 bytes.
+ */
+public final class BinarySocketSourceConfiguration {
+
+  private BinarySocketSourceConfiguration() {
+    // do nothing
+  }
+
+  /**
+   * Gets the builder for Configuration construction.
+   * @param <T> the type of the deserialized data
+   * @return the builder
+   */
+  public static <T> BinarySocketSourceConfigurationBuilder<T> newBuilder() {
+    return new BinarySocketSourceConfigurationBuilder<>();
+  }
+
+  /**
+   * This class builds BinarySocketSourceConfiguration of BinarySocketSourceStream.
+   * @param <T> the type of the deserialized data
+   */
+  public static final class BinarySocketSourceConfigurationBuilder<T> {
+
+    private String socketServerAddr;
+    private int socketServerPort;
+    private MISTFunction<ByteBuf, T> deserializeFunc;
+    private MISTFunction<T, Tuple<T, Long>> extractFunc;
+
+    /**
+     * Tests that required parameters are set and builds the BinarySocketSourceConfiguration.
+     * @return the configuration
+     */
+    public SourceConfiguration build() {
+      if (deserializeFunc == null) {
+        throw new IllegalStateException("The deserializer should be set");
+      }
+      final Map<String, String> confMap = new HashMap<>();
+      confMap.put(ConfKeys.SourceConf.SOURCE_TYPE.name(), ConfValues.SourceType.NETTY_BINARY.name());
+      confMap.put(ConfKeys.NettySourceConf.SOURCE_ADDR.name(), socketServerAddr);
+      confMap.put(ConfKeys.NettySourceConf.SOURCE_PORT.name(), String.valueOf(socketServerPort));
+      try {
+        confMap.put(ConfKeys.NettySourceConf.DESERIALIZE_FUNC.name(),
+            SerializeUtils.serializeToString(deserializeFunc));
+        if (extractFunc != null) {
+          confMap.put(ConfKeys.SourceConf.TIMESTAMP_EXTRACT_FUNC.name(),
+              SerializeUtils.serializeToString(extractFunc));
+        }
+        return new SourceConfiguration(confMap);
+      } catch (final IOException e) {
+        e.printStackTrace();
+        throw new RuntimeException(e);
+      }
+    }
+
+    /**
+     * Sets the configuration for the host address to the given address.
+     * @param address the address given by users which they want to set
+     * @return the configured SourceBuilder
+     */
+    public BinarySocketSourceConfigurationBuilder<T> setHostAddress(final String address) {
+      socketServerAddr = address;
+      return this;
+    }
+
+    /**
+     * Sets the configuration for the host port to the given port.
+     * @param port the port given by users which they want to set
+     * @return the configured SourceBuilder
+     */
+    public BinarySocketSourceConfigurationBuilder<T> setHostPort(final int port) {
+      socketServerPort = port;
+      return this;
+    }
+
+    /**
+     * Sets the function that deserializes a frame into an input.
+     * The frame is a slice of the receive buffer and it is released after the function returns,
+     * so the function should copy the bytes that it keeps.
+     * @param function the function given by users which they want to set
+     * @return the configured SourceBuilder
+     */
+    public BinarySocketSourceConfigurationBuilder<T> setDeserializer(final MISTFunction<ByteBuf, T> function) {
+      deserializeFunc = function;
+      return this;
+    }
+
+    /**
+     * Sets the configuration for the extracting timestamp in event-time input data function to the given function.
+     * This is an optional setting for event-time processing.
+     * @param function the function given by users which they want to set
+     * @return the configured SourceBuilder
+     */
+    public BinarySocketSourceConfigurationBuilder<T> setTimestampExtractionFunction(
+        final MISTFunction<T, Tuple<T, Long>> function) {
+      extractFunc = function;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.datastreams.configurations;
+
+import java.util.Map;
+
+/**
+ * The class represents sink configuration.
+ */
+public final class SinkConfiguration {
+
+  private final Map<String, String> conf;
+
+  SinkConfiguration(final Map<String, String> confMap) {
+    this.conf = confMap;
+  }
+
+  /**
+   * Get the configuration.
+   * @return configuration
+   */
+  public Map<String, String> getConfiguration() {
+    return conf;
+  }
+}
@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.client.rulebased;
 
+import edu.snu.mist.common.rulebased.RuleBasedSchema;
 import edu.snu.mist.common.types.Tuple2;
 
 import java.util.*;
@@ -88,6 +89,19 @@ public final class RuleBasedInput {
     return separator;
   }
 
+  /**
+   * @return the schema of this input, which parses the input into a RuleBasedRecord
+   */
+  public RuleBasedSchema getSchema() {
+    final List<String> fieldNames = new ArrayList<>(fields.size());
+    final List<RuleBasedSchema.FieldType> fieldTypes = new ArrayList<>(fields.size());
+    for (final Tuple2<String, RuleBasedValueType> field : fields) {
+      fieldNames.add((String) field.get(0));
+      fieldTypes.add(RuleBasedSchema.FieldType.valueOf(((RuleBasedValueType) field.get(1)).name()));
+    }
+    return new RuleBasedSchema(fieldNames, fieldTypes, separator);
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (!(o instanceof RuleBasedInput)) {
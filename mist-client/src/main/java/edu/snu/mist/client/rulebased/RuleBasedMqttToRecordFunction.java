@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.rulebased;
+
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.rulebased.RuleBasedSchema;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+import java.util.Map;
+
+/**
+ * Class for parsing the payload of MqttMessage into a RuleBasedRecord, which is a map of fields.
+ * The payload is parsed without being decoded into a String if the separator is a single character.
+ */
+public final class RuleBasedMqttToRecordFunction implements MISTFunction<MqttMessage, Map<String, Object>> {
+  private final RuleBasedSchema schema;
+
+  public RuleBasedMqttToRecordFunction(final RuleBasedSchema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  public Map<String, Object> apply(final MqttMessage message) {
+    return schema.parse(message.getPayload());
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return schema.equals(((RuleBasedMqttToRecordFunction) o).schema);
+  }
+
+  @Override
+  public int hashCode() {
+    return schema.hashCode();
+  }
+}
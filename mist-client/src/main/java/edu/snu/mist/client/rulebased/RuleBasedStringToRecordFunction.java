@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.rulebased;
+
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.rulebased.RuleBasedSchema;
+
+import java.util.Map;
+
+/**
+ * Class for parsing input String into a RuleBasedRecord, which is a map of fields.
+ */
+public final class RuleBasedStringToRecordFunction implements MISTFunction<String, Map<String, Object>> {
+  private final RuleBasedSchema schema;
+
+  public RuleBasedStringToRecordFunction(final RuleBasedSchema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  public Map<String, Object> apply(final String s) {
+    return schema.parse(s);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return schema.equals(((RuleBasedStringToRecordFunction) o).schema);
+  }
+
+  @Override
+  public int hashCode() {
+    return schema.hashCode();
+  }
+}
@@ -35,7 +35,8 @@ import java.util.*;
 
 /**
  * Class for translate rule-based query into data-flow DAG.
- * First, convert RuleBasedInput into socketTextStream, and add map vertex that parse string to the map of fields.
+ * First, convert RuleBasedInput into a source, and add map vertex that parses the input into a RuleBasedRecord,
+ * which is a map of fields. The queries on the same input have the same parsing vertex, so it is shared by merging.
  * Then, translate all the comparison conditions into filter vertex.
  * Each comparison condition is converted into one filter vertex.
  * For union conditions, AND is translated into filter vertex, and OR is translated into union vertex.
@@ -94,10 +95,8 @@ public final class RuleBasedTranslator {
                 .setHostAddress(sourceHostname)
                 .setHostPort(sourcePort)
                 .build();
-        final List<Tuple2<String, RuleBasedValueType>> fields = input.getFields();
-        final String separator = input.getSeparator();
         return queryBuilder.socketTextStream(sourceConf)
-            .map(new RuleBasedStringToMapFunction(fields, separator));
+            .map(new RuleBasedStringToRecordFunction(input.getSchema()));
       }
       case MQTT_SOURCE: {
         final String topic = input.getSourceConfiguration().get("MQTT_INPUT_TOPIC").toString();
@@ -107,12 +106,8 @@ public final class RuleBasedTranslator {
                 .setTopic(topic)
                 .setBrokerURI(brokerURI)
                 .build();
-        final List<Tuple2<String, RuleBasedValueType>> fields = input.getFields();
-        final String separator = input.getSeparator();
         return queryBuilder.mqttStream(sourceConf)
-            //TODO: make a new mqtt map function.
-            .map(mqttMessage -> new String(mqttMessage.getPayload()))
-            .map(new RuleBasedStringToMapFunction(fields, separator));
+            .map(new RuleBasedMqttToRecordFunction(input.getSchema()));
       }
       default:
         throw new IllegalStateException("No other source is ready yet!");
@@ -19,6 +19,8 @@ import edu.snu.mist.client.datastreams.ContinuousStream;
 import edu.snu.mist.client.datastreams.ContinuousStreamImpl;
 import edu.snu.mist.client.datastreams.MISTStream;
 import edu.snu.mist.client.utils.TestParameters;
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.formats.avro.Direction;
@@ -26,6 +28,7 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -115,4 +118,64 @@ public final class LogicalDagOptimizerTest {
     result7.put(sink3, new MISTEdge(Direction.LEFT));
     Assert.assertEquals(e7, result7);
   }
+
+  /**
+   * Test stateless operator fusion.
+   * logical dag:
+   *                                  -> op4 -> sink1
+   * src1 -> op1 -> op2 -> op3 (flatMap)
+   *                                  -> op5 -> op6 -> sink2
+   *
+   * should be converted to the expected optimized dag:
+   *                   -> op4 -> sink1
+   * src1 -> op1 -> fused1 (op2, op3)
+   *                   -> fused2 (op5, op6) -> sink2
+   */
+  @Test
+  public void testStatelessOperatorFusion() throws InjectionException {
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID);
+    final ContinuousStream<String> src1 =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<String> op1 = src1.map(String::trim);
+    final ContinuousStream<String> op2 = op1.filter((x) -> !x.isEmpty());
+    final ContinuousStream<String> op3 = op2.flatMap((x) -> Arrays.asList(x.split(" ")));
+    final ContinuousStream<String> op4 = op3.filter((x) -> true);
+    final ContinuousStream<String> op5 = op3.map(String::toUpperCase);
+    final ContinuousStream<String> op6 = op5.filter((x) -> true);
+    final MISTStream<String> sink1 = op4.textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+    final MISTStream<String> sink2 = op6.textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+
+    final MISTQuery query = queryBuilder.build();
+    final DAG<MISTStream, MISTEdge> optimizedDAG = new LogicalDagOptimizer(query.getDAG()).getOptimizedDAG();
+    Assert.assertEquals(7, optimizedDAG.numberOfVertices());
+
+    // op1 follows the source, so it is not fused
+    Assert.assertEquals(1, optimizedDAG.getEdges(src1).size());
+    Assert.assertTrue(optimizedDAG.getEdges(src1).containsKey(op1));
+    Assert.assertEquals(1, optimizedDAG.getEdges(op1).size());
+    final MISTStream fused1 = optimizedDAG.getEdges(op1).keySet().iterator().next();
+    Assert.assertEquals(ConfValues.OperatorType.FUSED.name(),
+        fused1.getConfiguration().get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("FILTER,FLAT_MAP",
+        fused1.getConfiguration().get(ConfKeys.FusedOperator.OP_TYPE_LIST.name()));
+
+    // op3 has two downstream vertices, so op4 is not fused and op5 starts a new chain
+    final Map<MISTStream, MISTEdge> fused1Edges = optimizedDAG.getEdges(fused1);
+    Assert.assertEquals(2, fused1Edges.size());
+    Assert.assertTrue(fused1Edges.containsKey(op4));
+    MISTStream fused2 = null;
+    for (final MISTStream vertex : fused1Edges.keySet()) {
+      if (vertex != op4) {
+        fused2 = vertex;
+      }
+    }
+    Assert.assertEquals("MAP,FILTER", fused2.getConfiguration().get(ConfKeys.FusedOperator.OP_TYPE_LIST.name()));
+    final Map<MISTStream, MISTEdge> expectedEdges = new HashMap<>();
+    expectedEdges.put(sink2, new MISTEdge(Direction.LEFT));
+    Assert.assertEquals(expectedEdges, optimizedDAG.getEdges(fused2));
+    expectedEdges.clear();
+    expectedEdges.put(sink1, new MISTEdge(Direction.LEFT));
+    Assert.assertEquals(expectedEdges, optimizedDAG.getEdges(op4));
+  }
 }
@@ -16,13 +16,17 @@
 package edu.snu.mist.client;
 
 import edu.snu.mist.client.datastreams.ContinuousStream;
+import edu.snu.mist.client.datastreams.configurations.BinarySocketSourceConfiguration;
 import edu.snu.mist.client.datastreams.configurations.KafkaSourceConfiguration;
 import edu.snu.mist.client.datastreams.configurations.MQTTSourceConfiguration;
 import edu.snu.mist.client.datastreams.configurations.TextSocketSourceConfiguration;
 import edu.snu.mist.client.utils.TestParameters;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.functions.MISTFunction;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.exceptions.InjectionException;
@@ -82,6 +86,33 @@ public class MISTQueryBuilderTest {
         conf.get(ConfKeys.SourceConf.TIMESTAMP_EXTRACT_FUNC.name()));
   }
 
+  /**
+   * Test whether the serialization of the netty binary source is correct.
+   */
+  @Test
+  public void testNettyBinarySourceSerialization() throws IOException {
+    final MISTFunction<ByteBuf, String> deserializer = (frame) -> frame.toString(CharsetUtil.UTF_8);
+    final MISTQueryBuilder queryBuilder =
+        new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID);
+
+    final ContinuousStream<String> stream =
+        queryBuilder.binarySocketStream(BinarySocketSourceConfiguration.<String>newBuilder()
+            .setHostAddress(TestParameters.HOST)
+            .setHostPort(TestParameters.SERVER_PORT)
+            .setDeserializer(deserializer)
+            .build());
+    // check
+    final Map<String, String> conf = stream.getConfiguration();
+    Assert.assertEquals(ConfValues.SourceType.NETTY_BINARY.name(),
+        conf.get(ConfKeys.SourceConf.SOURCE_TYPE.name()));
+    Assert.assertEquals(TestParameters.HOST, conf.get(ConfKeys.NettySourceConf.SOURCE_ADDR.name()));
+    Assert.assertEquals(String.valueOf(TestParameters.SERVER_PORT),
+        conf.get(ConfKeys.NettySourceConf.SOURCE_PORT.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(deserializer),
+        conf.get(ConfKeys.NettySourceConf.DESERIALIZE_FUNC.name()));
+  }
+
   /**
    * This method tests a serialization of KafkaSourceStream.
    */
@@ -19,6 +19,8 @@ import edu.snu.mist.client.datastreams.ContinuousStream;
 import edu.snu.mist.client.datastreams.MISTStream;
 import edu.snu.mist.client.datastreams.WindowedStream;
 import edu.snu.mist.client.utils.TestParameters;
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.functions.MISTBiFunction;
 import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.functions.MISTPredicate;
@@ -58,7 +60,7 @@ public final class MISTQueryTest {
 
   private final AvroConfigurationSerializer avroSerializer = new AvroConfigurationSerializer();
   /**
-   * This method tests a serialization of a complex query, containing 9 vertices.
+   * This method tests a serialization of a complex query, containing 7 operators.
    * @throws org.apache.reef.tang.exceptions.InjectionException
    */
   @Test
@@ -84,22 +86,22 @@ public final class MISTQueryTest {
     final MISTQuery complexQuery = queryBuilder.build();
     final Tuple<List<AvroVertex>, List<Edge>> serializedDAG = complexQuery.getAvroOperatorDag();
     final List<AvroVertex> vertices = serializedDAG.getKey();
-    Assert.assertEquals(7, vertices.size());
+    // The filter and the map are fused into a single vertex
+    Assert.assertEquals(6, vertices.size());
 
     Assert.assertEquals(sourceStream.getConfiguration(),
         vertices.get(0).getConfiguration());
     Assert.assertEquals(flatMapStream.getConfiguration(),
         vertices.get(1).getConfiguration());
-    Assert.assertEquals(filterStream.getConfiguration(),
-        vertices.get(2).getConfiguration());
-    Assert.assertEquals(mapStream.getConfiguration(),
-        vertices.get(3).getConfiguration());
+    final Map<String, String> fusedConf = vertices.get(2).getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.FUSED.name(), fusedConf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("FILTER,MAP", fusedConf.get(ConfKeys.FusedOperator.OP_TYPE_LIST.name()));
     Assert.assertEquals(windowedStream.getConfiguration(),
-        vertices.get(4).getConfiguration());
+        vertices.get(3).getConfiguration());
     Assert.assertEquals(reduceByKeyStream.getConfiguration(),
-        vertices.get(5).getConfiguration());
+        vertices.get(4).getConfiguration());
     Assert.assertEquals(sinkStream.getConfiguration(),
-        vertices.get(6).getConfiguration());
+        vertices.get(5).getConfiguration());
 
 
     final List<Edge> edges = serializedDAG.getValue();
@@ -108,8 +110,7 @@ public final class MISTQueryTest {
         Edge.newBuilder().setFrom(1).setTo(2).setDirection(Direction.LEFT).setBranchIndex(0).build(),
         Edge.newBuilder().setFrom(2).setTo(3).setDirection(Direction.LEFT).setBranchIndex(0).build(),
         Edge.newBuilder().setFrom(3).setTo(4).setDirection(Direction.LEFT).setBranchIndex(0).build(),
-        Edge.newBuilder().setFrom(4).setTo(5).setDirection(Direction.LEFT).setBranchIndex(0).build(),
-        Edge.newBuilder().setFrom(5).setTo(6).setDirection(Direction.LEFT).setBranchIndex(0).build());
+        Edge.newBuilder().setFrom(4).setTo(5).setDirection(Direction.LEFT).setBranchIndex(0).build());
     Assert.assertEquals(new HashSet<>(expectedEdges), new HashSet<>(edges));
   }
 }
\ No newline at end of file
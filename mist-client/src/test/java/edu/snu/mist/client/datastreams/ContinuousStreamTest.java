@@ -17,10 +17,13 @@ package edu.snu.mist.client.datastreams;
 
 import edu.snu.mist.client.MISTQuery;
 import edu.snu.mist.client.MISTQueryBuilder;
+import edu.snu.mist.client.datastreams.configurations.BinarySocketSinkConfiguration;
+import edu.snu.mist.client.datastreams.configurations.SinkConfiguration;
 import edu.snu.mist.client.utils.TestParameters;
 import edu.snu.mist.client.utils.UDFTestUtils;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.functions.*;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
@@ -28,6 +31,7 @@ import edu.snu.mist.common.types.Tuple2;
 import edu.snu.mist.common.windows.CountWindowInformation;
 import edu.snu.mist.common.windows.SessionWindowInformation;
 import edu.snu.mist.common.windows.TimeWindowInformation;
+import edu.snu.mist.common.windows.WindowData;
 import edu.snu.mist.formats.avro.Direction;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
@@ -37,6 +41,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -116,6 +121,26 @@ public final class ContinuousStreamTest {
         reducedStream, new MISTEdge(Direction.LEFT));
   }
 
+  /**
+   * Test for reduceByKey operator that emits only the updated key-value pairs.
+   */
+  @Test
+  public void testReduceByKeyUpdatesOperatorStream() throws IOException {
+    final MISTBiFunction<Integer, Integer, Integer> biFunc =  (x, y) -> x + y;
+    final ContinuousStream<Tuple2<String, Integer>> reducedStream =
+        filteredMappedStream.reduceByKeyUpdates(0, String.class, biFunc);
+    final Map<String, String> conf = reducedStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.REDUCE_BY_KEY.name(),
+        conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals(String.class.getName(),
+        conf.get(ConfKeys.ReduceByKeyOperator.KEY_TYPE.name()));
+    Assert.assertEquals(ConfValues.ReduceByKeyOutputMode.UPDATED_PAIR.name(),
+        conf.get(ConfKeys.ReduceByKeyOperator.OUTPUT_MODE.name()));
+
+    checkEdges(queryBuilder.build().getDAG(), 1, filteredMappedStream,
+        reducedStream, new MISTEdge(Direction.LEFT));
+  }
+
   /**
    * Test for stateful UDF operator.
    */
@@ -137,6 +162,61 @@ public final class ContinuousStreamTest {
         statefulOperatorStream, new MISTEdge(Direction.LEFT));
   }
 
+  /**
+   * Test for keyed applyStateful operator.
+   */
+  @Test
+  public void testKeyedApplyStatefulOperatorStream() throws IOException {
+    final MISTFunction<Tuple2<String, Integer>, String> keyFunc = tuple -> (String) tuple.get(0);
+    final ApplyStatefulFunction<Tuple2<String, Integer>, Integer> applyStatefulFunction =
+        new UDFTestUtils.TestApplyStatefulFunction();
+    final ContinuousStream<Tuple2<String, Integer>> keyedStatefulStream =
+        filteredMappedStream.keyBy(keyFunc, String.class).applyStateful(applyStatefulFunction, 1000L);
+
+    final Map<String, String> conf = keyedStatefulStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.KEYED_APPLY_STATEFUL.name(),
+        conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(keyFunc),
+        conf.get(ConfKeys.KeyedOperator.KEY_FUNC.name()));
+    Assert.assertEquals(String.class.getName(), conf.get(ConfKeys.KeyedOperator.KEY_TYPE.name()));
+    Assert.assertEquals("1000", conf.get(ConfKeys.KeyedOperator.IDLE_TIMEOUT.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(applyStatefulFunction),
+        conf.get(ConfKeys.OperatorConf.UDF_STRING.name()));
+
+    // Check filter -> map -> keyed applyStateful
+    checkEdges(queryBuilder.build().getDAG(), 1, filteredMappedStream,
+        keyedStatefulStream, new MISTEdge(Direction.LEFT));
+  }
+
+  /**
+   * Test for keyed aggregateWindow operator.
+   */
+  @Test
+  public void testKeyedAggregateWindowStream() throws IOException {
+    final MISTFunction<Tuple2<String, Integer>, String> keyFunc = tuple -> (String) tuple.get(0);
+    final MISTFunction<WindowData<Tuple2<String, Integer>>, Integer> aggregateFunc =
+        windowData -> windowData.getDataCollection().size();
+    final ContinuousStream<Tuple2<String, Integer>> keyedWindowStream = filteredMappedStream
+        .keyBy(keyFunc)
+        .aggregateWindow(new TimeWindowInformation(windowSize, windowEmissionInterval), aggregateFunc);
+
+    final Map<String, String> conf = keyedWindowStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.KEYED_AGGREGATE_WINDOW.name(),
+        conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals(ConfValues.OperatorType.TIME_WINDOW.name(),
+        conf.get(ConfKeys.KeyedOperator.WINDOW_TYPE.name()));
+    Assert.assertNull(conf.get(ConfKeys.KeyedOperator.KEY_TYPE.name()));
+    Assert.assertEquals(String.valueOf(windowSize), conf.get(ConfKeys.WindowOperator.WINDOW_SIZE.name()));
+    Assert.assertEquals(String.valueOf(windowEmissionInterval),
+        conf.get(ConfKeys.WindowOperator.WINDOW_INTERVAL.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(aggregateFunc),
+        conf.get(ConfKeys.OperatorConf.UDF_STRING.name()));
+
+    // Check filter -> map -> keyed aggregateWindow
+    checkEdges(queryBuilder.build().getDAG(), 1, filteredMappedStream,
+        keyedWindowStream, new MISTEdge(Direction.LEFT));
+  }
+
   /**
    * Test for union operator.
    */
@@ -163,6 +243,32 @@ public final class ContinuousStreamTest {
     Assert.assertEquals(new MISTEdge(Direction.RIGHT), n2.get(unifiedStream));
   }
 
+  /**
+   * Test for union operator with more than two upstreams.
+   */
+  @Test
+  public void testMultiStreamUnionOperatorStream() {
+    final ContinuousStream<Tuple2<String, Integer>> filteredMappedStream2 = queryBuilder
+        .socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF)
+            .map(s -> new Tuple2<>(s, 2));
+    final ContinuousStream<Tuple2<String, Integer>> filteredMappedStream3 = queryBuilder
+        .socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF)
+            .map(s -> new Tuple2<>(s, 3));
+
+    final ContinuousStream<Tuple2<String, Integer>> unifiedStream
+        = filteredMappedStream.union(Arrays.asList(filteredMappedStream2, filteredMappedStream3));
+    Assert.assertEquals("3", unifiedStream.getConfiguration().get(ConfKeys.UnionOperator.NUM_INPUTS.name()));
+
+    // Check filteredMappedStream (input 0)  ---> union
+    //       filteredMappedStream2 (input 1) --/
+    //       filteredMappedStream3 (input 2) --/
+    final MISTQuery query = queryBuilder.build();
+    final DAG<MISTStream, MISTEdge> dag = query.getDAG();
+    Assert.assertEquals(new MISTEdge(Direction.LEFT), dag.getEdges(filteredMappedStream).get(unifiedStream));
+    Assert.assertEquals(new MISTEdge(Direction.RIGHT, 0, 1), dag.getEdges(filteredMappedStream2).get(unifiedStream));
+    Assert.assertEquals(new MISTEdge(Direction.RIGHT, 0, 2), dag.getEdges(filteredMappedStream3).get(unifiedStream));
+  }
+
   /**
    * Test for creating time-based WindowedStream from ContinuousStream.
    */
@@ -257,6 +363,66 @@ public final class ContinuousStreamTest {
         joinedStream, new MISTEdge(Direction.LEFT));
   }
 
+  /**
+   * Test for equi-join operation.
+   */
+  @Test
+  public void testHashJoinOperatorStream() throws IOException {
+    final ContinuousStream<String> firstInputStream =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<String> secondInputStream =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final MISTFunction<String, String> firstKeyFunc = string -> string;
+    final MISTFunction<String, String> secondKeyFunc = string -> string.toLowerCase();
+
+    final WindowedStream<Tuple2<String, String>> joinedStream = firstInputStream
+        .join(secondInputStream, firstKeyFunc, secondKeyFunc, new CountWindowInformation(5, 3));
+
+    final Map<String, String> conf = joinedStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.HASH_JOIN.name(), conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(firstKeyFunc),
+        conf.get(ConfKeys.JoinOperator.FIRST_KEY_FUNC.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(secondKeyFunc),
+        conf.get(ConfKeys.JoinOperator.SECOND_KEY_FUNC.name()));
+
+    // Check inputs -> mapped -> unified -> windowed -> joined
+    final DAG<MISTStream, MISTEdge> dag = queryBuilder.build().getDAG();
+    final MISTStream firstMappedInputStream = getNextOperatorStream(dag, 1,
+        firstInputStream, new MISTEdge(Direction.LEFT));
+    final MISTStream unifiedStream = getNextOperatorStream(dag, 1,
+        firstMappedInputStream, new MISTEdge(Direction.LEFT));
+    final MISTStream windowedStream = getNextOperatorStream(dag, 1,
+        unifiedStream, new MISTEdge(Direction.LEFT));
+    checkEdges(dag, 1, windowedStream, joinedStream, new MISTEdge(Direction.LEFT));
+  }
+
+  /**
+   * Test for symmetric hash join operation.
+   */
+  @Test
+  public void testSymmetricHashJoinOperatorStream() throws IOException {
+    final ContinuousStream<String> firstInputStream =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<String> secondInputStream =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final MISTFunction<String, String> keyFunc = string -> string;
+
+    final ContinuousStream<Tuple2<String, String>> joinedStream = firstInputStream
+        .symmetricHashJoin(secondInputStream, keyFunc, keyFunc, 1000L);
+
+    final Map<String, String> conf = joinedStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.SYMMETRIC_HASH_JOIN.name(),
+        conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("1000", conf.get(ConfKeys.JoinOperator.JOIN_WINDOW_TIME.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(keyFunc),
+        conf.get(ConfKeys.JoinOperator.FIRST_KEY_FUNC.name()));
+
+    // Check two inputs -> joined
+    final DAG<MISTStream, MISTEdge> dag = queryBuilder.build().getDAG();
+    checkEdges(dag, 1, firstInputStream, joinedStream, new MISTEdge(Direction.LEFT));
+    checkEdges(dag, 1, secondInputStream, joinedStream, new MISTEdge(Direction.RIGHT));
+  }
+
   /**
    * Test for creating conditional branch operator.
    */
@@ -315,6 +481,30 @@ public final class ContinuousStreamTest {
     Assert.assertEquals(new MISTEdge(Direction.LEFT), neighbors.get(sink));
   }
 
+  /**
+   * Test for binary socket sink.
+   */
+  @Test
+  public void testBinarySocketSink() throws InjectionException {
+    final SinkConfiguration sinkConf = BinarySocketSinkConfiguration.newBuilder()
+        .setHostAddress(TestParameters.HOST)
+        .setHostPort(TestParameters.SINK_PORT)
+        .setFlushSize(1024)
+        .build();
+    final MISTStream<byte[]> sink = filteredMappedStream
+        .map((tuple) -> tuple.toString().getBytes())
+        .binarySocketOutput(sinkConf);
+    final Map<String, String> conf = sink.getConfiguration();
+    Assert.assertEquals(ConfValues.SinkType.NETTY_BINARY.name(),
+        conf.get(ConfKeys.SinkConf.SINK_TYPE.name()));
+    Assert.assertEquals(TestParameters.HOST,
+        conf.get(ConfKeys.NettySink.SINK_ADDRESS.name()));
+    Assert.assertEquals(String.valueOf(TestParameters.SINK_PORT),
+        conf.get(ConfKeys.NettySink.SINK_PORT.name()));
+    Assert.assertEquals("1024", conf.get(ConfKeys.NettySink.FLUSH_SIZE.name()));
+    Assert.assertNotNull(conf.get(ConfKeys.NettySink.FLUSH_INTERVAL.name()));
+  }
+
   /**
    * Test for Mqtt sink.
    */
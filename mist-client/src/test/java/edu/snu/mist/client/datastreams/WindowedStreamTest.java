@@ -20,6 +20,7 @@ import edu.snu.mist.client.utils.TestParameters;
 import edu.snu.mist.client.utils.UDFTestUtils;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.functions.ApplyStatefulFunction;
 import edu.snu.mist.common.functions.MISTBiFunction;
 import edu.snu.mist.common.functions.MISTFunction;
@@ -123,6 +124,26 @@ public class WindowedStreamTest {
         aggregateWindowStream, new MISTEdge(Direction.LEFT));
   }
 
+  /**
+   * Test for reduceWindow operation.
+   */
+  @Test
+  public void testReduceWindowStream() throws InjectionException, IOException {
+    final MISTBiFunction<Tuple2<String, Integer>, Tuple2<String, Integer>, Tuple2<String, Integer>> reduceFunc =
+        (x, y) -> new Tuple2<>((String) x.get(0), (Integer) x.get(1) + (Integer) y.get(1));
+    final ContinuousStream<Tuple2<String, Integer>> reducedWindowStream =
+        timeWindowedStream.reduceWindow(reduceFunc);
+
+    final Map<String, String> conf = reducedWindowStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.REDUCE_WINDOW.name(),
+        conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(reduceFunc),
+        conf.get(ConfKeys.OperatorConf.UDF_STRING.name()));
+    // Check windowed -> reduced
+    checkEdges(queryBuilder.build().getDAG(), 1, timeWindowedStream,
+        reducedWindowStream, new MISTEdge(Direction.LEFT));
+  }
+
   static final class WindowAggregateFunction implements MISTFunction<WindowData<Tuple2<String, Integer>>, String> {
     @Inject
     public WindowAggregateFunction() {
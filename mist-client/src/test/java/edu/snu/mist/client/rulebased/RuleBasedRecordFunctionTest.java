@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.rulebased;
+
+import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.predicates.RuleBasedEQPredicate;
+import edu.snu.mist.common.predicates.RuleBasedGTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedLEPredicate;
+import edu.snu.mist.common.predicates.RuleBasedNEQPredicate;
+import edu.snu.mist.common.rulebased.RuleBasedRecord;
+import edu.snu.mist.common.rulebased.RuleBasedSchema;
+import edu.snu.mist.common.types.Tuple2;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for parsing rule-based inputs into RuleBasedRecords.
+ */
+public final class RuleBasedRecordFunctionTest {
+
+  private final List<Tuple2<String, RuleBasedValueType>> fields = Arrays.asList(
+      new Tuple2<>("id", RuleBasedValueType.INTEGER),
+      new Tuple2<>("time", RuleBasedValueType.LONG),
+      new Tuple2<>("temp", RuleBasedValueType.DOUBLE),
+      new Tuple2<>("room", RuleBasedValueType.STRING));
+
+  private RuleBasedSchema schema(final String separator) {
+    return new RuleBasedInput.MqttBuilder()
+        .setMqttBrokerURI("tcp://localhost:1883")
+        .setMqttTopic("test")
+        .addField("id", RuleBasedValueType.INTEGER)
+        .addField("time", RuleBasedValueType.LONG)
+        .addField("temp", RuleBasedValueType.DOUBLE)
+        .addField("room", RuleBasedValueType.STRING)
+        .setSeparator(separator)
+        .build()
+        .getSchema();
+  }
+
+  /**
+   * Tests whether the string and the mqtt payload are parsed into the same map as RuleBasedStringToMapFunction.
+   */
+  @Test
+  public void testSameAsMapFunction() {
+    final String[] inputs = {"1,2,3.5,a", " -12 , +9000000000 ,-0.25, room 1 ,spare", "2147483647,0,1e3,,x"};
+    for (final String separator : new String[]{",", "\\s*,\\s*"}) {
+      final RuleBasedStringToMapFunction mapFunction = new RuleBasedStringToMapFunction(fields, separator);
+      final RuleBasedStringToRecordFunction stringFunction =
+          new RuleBasedStringToRecordFunction(schema(separator));
+      final RuleBasedMqttToRecordFunction mqttFunction = new RuleBasedMqttToRecordFunction(schema(separator));
+      for (final String input : inputs) {
+        final Map<String, Object> expected = mapFunction.apply(input);
+        Assert.assertEquals(expected, stringFunction.apply(input));
+        Assert.assertEquals(expected,
+            mqttFunction.apply(new MqttMessage(input.getBytes(StandardCharsets.UTF_8))));
+      }
+    }
+  }
+
+  /**
+   * Tests whether the inputs that have less values than the fields are rejected.
+   */
+  @Test
+  public void testTooFewValues() {
+    final RuleBasedMqttToRecordFunction mqttFunction = new RuleBasedMqttToRecordFunction(schema(","));
+    for (final String input : new String[]{"1,2,3", "1,2,3.0,,", ""}) {
+      try {
+        mqttFunction.apply(new MqttMessage(input.getBytes(StandardCharsets.UTF_8)));
+        Assert.fail("The input should be rejected: " + input);
+      } catch (final IllegalStateException e) {
+        // expected
+      }
+    }
+  }
+
+  /**
+   * Tests whether the rule-based predicates give the same results for the records and the maps,
+   * and the schema of a record is restored after serialization.
+   */
+  @Test
+  public void testPredicatesOnRecord() throws Exception {
+    final RuleBasedRecord record = schema(",").parse("7,100,36.5,kitchen");
+    final RuleBasedRecord deserialized = SerializeUtils.deserializeFromString(
+        SerializeUtils.serializeToString(record), RuleBasedRecord.class.getClassLoader());
+    final Map<String, Object> map = new RuleBasedStringToMapFunction(fields, ",").apply("7,100,36.5,kitchen");
+    Assert.assertEquals(map, deserialized);
+
+    final List<RuleBasedGTPredicate> gtPredicates = Arrays.asList(
+        new RuleBasedGTPredicate("id", 6), new RuleBasedGTPredicate("time", 100L),
+        new RuleBasedGTPredicate("temp", 36.0), new RuleBasedGTPredicate("room", "bath"));
+    for (final RuleBasedGTPredicate predicate : gtPredicates) {
+      Assert.assertEquals(predicate.test(map), predicate.test(record));
+      Assert.assertEquals(predicate.test(map), predicate.test(deserialized));
+    }
+    Assert.assertTrue(new RuleBasedLEPredicate("time", 100L).test(record));
+    Assert.assertTrue(new RuleBasedEQPredicate("temp", 36.5).test(record));
+    Assert.assertFalse(new RuleBasedEQPredicate("id", 7L).test(record));
+    Assert.assertTrue(new RuleBasedNEQPredicate("room", "bath").test(record));
+  }
+}
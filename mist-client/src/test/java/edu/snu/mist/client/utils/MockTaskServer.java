@@ -16,6 +16,7 @@
 package edu.snu.mist.client.utils;
 
 import edu.snu.mist.formats.avro.AvroDag;
+import edu.snu.mist.formats.avro.AvroQueryMetrics;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.QueryControlResult;
 import org.apache.avro.AvroRemoteException;
@@ -40,4 +41,9 @@ public class MockTaskServer implements ClientToTaskMessage {
   public QueryControlResult deleteQueries(final String groupId, final String queryId) throws AvroRemoteException {
     return new QueryControlResult(testQueryResult, true, testQueryResult);
   }
+
+  @Override
+  public AvroQueryMetrics getQueryMetrics(final String queryId) throws AvroRemoteException {
+    return null;
+  }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package edu.snu.mist.common;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.reef.wake.EventHandler;
 
 import java.util.concurrent.ConcurrentMap;
@@ -25,15 +26,17 @@ import java.util.logging.Logger;
 
 /**
  * This class forwards upstream messages to the event handler which handles that messages.
+ * The messages are released after they are handled, so the event handler should not retain them.
+ * @param <T> the type of the messages
  */
-public final class NettyMessageForwarder extends ChannelInboundHandlerAdapter {
+public final class NettyMessageForwarder<T> extends ChannelInboundHandlerAdapter {
   private static final Logger LOG = Logger.getLogger(NettyMessageForwarder.class.getName());
   /**
    * Map of channel and event handler.
    */
-  private final ConcurrentMap<Channel, EventHandler<String>> channelMap;
+  private final ConcurrentMap<Channel, EventHandler<T>> channelMap;
 
-  public NettyMessageForwarder(final ConcurrentMap<Channel, EventHandler<String>> channelMap) {
+  public NettyMessageForwarder(final ConcurrentMap<Channel, EventHandler<T>> channelMap) {
     this.channelMap = channelMap;
   }
 
@@ -46,9 +49,13 @@ public final class NettyMessageForwarder extends ChannelInboundHandlerAdapter {
   @Override
   public void channelRead(
       final ChannelHandlerContext ctx, final Object msg) throws Exception {
-    final EventHandler<String> eventHandler = channelMap.get(ctx.channel());
-    if (eventHandler != null) {
-      eventHandler.onNext((String)msg);
+    final EventHandler<T> eventHandler = channelMap.get(ctx.channel());
+    try {
+      if (eventHandler != null) {
+        eventHandler.onNext((T)msg);
+      }
+    } finally {
+      ReferenceCountUtil.release(msg);
     }
   }
 
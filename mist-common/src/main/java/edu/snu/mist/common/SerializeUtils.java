@@ -82,6 +82,40 @@ public final class SerializeUtils {
     return Base64.getEncoder().encodeToString(baos.toByteArray());
   }
 
+  /**
+   * Write the object to a byte array without encoding it to a string.
+   * @param obj object
+   * @return serialized object
+   * @throws IOException
+   */
+  public static byte[] serializeToBytes(final Serializable obj) throws IOException {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final ObjectOutputStream oos = new ObjectOutputStream(baos);
+    oos.writeObject(obj);
+    oos.close();
+    return baos.toByteArray();
+  }
+
+  /**
+   * Read the object from a byte array with the external class loader.
+   * @param data serialized object
+   * @param classLoader an external class loader, or null to use the default class loader
+   * @param <T> object type
+   * @return object
+   * @throws IOException
+   * @throws ClassNotFoundException
+   */
+  public static <T> T deserializeFromBytes(
+      final byte[] data,
+      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+    final ObjectInputStream stream = classLoader == null
+        ? new ObjectInputStream(new ByteArrayInputStream(data))
+        : new ExternalJarObjectInputStream(classLoader, data);
+    final T object  = (T)stream.readObject();
+    stream.close();
+    return object;
+  }
+
   /**
    * Get urls from the list of String.
    * @param paths list of string
@@ -33,7 +33,8 @@ public final class ConfKeys {
 
   public enum NettySourceConf {
     SOURCE_ADDR,
-    SOURCE_PORT
+    SOURCE_PORT,
+    DESERIALIZE_FUNC
   }
 
   public enum MQTTSourceConf {
@@ -59,7 +60,19 @@ public final class ConfKeys {
 
   public enum ReduceByKeyOperator {
     KEY_INDEX,
-    MIST_BI_FUNC
+    KEY_TYPE,
+    MIST_BI_FUNC,
+    OUTPUT_MODE
+  }
+
+  public enum UnionOperator {
+    NUM_INPUTS
+  }
+
+  public enum JoinOperator {
+    FIRST_KEY_FUNC,
+    SECOND_KEY_FUNC,
+    JOIN_WINDOW_TIME
   }
 
   public enum WindowOperator {
@@ -71,6 +84,18 @@ public final class ConfKeys {
     UDF_LIST_STRING
   }
 
+  public enum FusedOperator {
+    OP_TYPE_LIST,
+    UDF_LIST_STRING
+  }
+
+  public enum KeyedOperator {
+    KEY_FUNC,
+    KEY_TYPE,
+    IDLE_TIMEOUT,
+    WINDOW_TYPE
+  }
+
   public enum SinkConf {
     SINK_TYPE,
   }
@@ -78,6 +103,8 @@ public final class ConfKeys {
   public enum NettySink {
     SINK_ADDRESS,
     SINK_PORT,
+    FLUSH_SIZE,
+    FLUSH_INTERVAL,
   }
 
   public enum MqttSink {
@@ -24,6 +24,7 @@ public final class ConfValues {
   public enum SourceType {
     KAFKA,
     NETTY,
+    NETTY_BINARY,
     MQTT
   }
 
@@ -41,11 +42,23 @@ public final class ConfValues {
     SESSION_WINDOW,
     JOIN,
     AGGREGATE_WINDOW,
-    APPLY_STATEFUL_WINDOW
+    APPLY_STATEFUL_WINDOW,
+    REDUCE_WINDOW,
+    HASH_JOIN,
+    SYMMETRIC_HASH_JOIN,
+    FUSED,
+    KEYED_APPLY_STATEFUL,
+    KEYED_AGGREGATE_WINDOW
+  }
+
+  public enum ReduceByKeyOutputMode {
+    FULL_MAP,
+    UPDATED_PAIR
   }
 
   public enum SinkType {
     NETTY,
+    NETTY_BINARY,
     MQTT
   }
 
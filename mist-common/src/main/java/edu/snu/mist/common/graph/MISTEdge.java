@@ -33,6 +33,12 @@ public final class MISTEdge {
    *
    */
   private final int index;
+  /**
+   * An input index information.
+   * It is used to determine the upstream of an operator that merges more than two upstreams.
+   * The left upstream is regarded as the input 0 and the right upstreams are numbered from 1.
+   */
+  private final int inputIndex;
   /**
    * The default value of index.
    */
@@ -44,8 +50,15 @@ public final class MISTEdge {
 
   public MISTEdge(final Direction direction,
                   final int index) {
+    this(direction, index, DEFAULT_INDEX);
+  }
+
+  public MISTEdge(final Direction direction,
+                  final int index,
+                  final int inputIndex) {
     this.direction = direction;
     this.index = index;
+    this.inputIndex = inputIndex;
   }
 
   /**
@@ -55,6 +68,13 @@ public final class MISTEdge {
     return index;
   }
 
+  /**
+   * @return the input index information
+   */
+  public int getInputIndex() {
+    return inputIndex;
+  }
+
   /**
    * @return the direction information
    */
@@ -68,12 +88,13 @@ public final class MISTEdge {
       return false;
     } else {
       return direction == ((MISTEdge) o).getDirection() &&
-          index == ((MISTEdge) o).getIndex();
+          index == ((MISTEdge) o).getIndex() &&
+          inputIndex == ((MISTEdge) o).getInputIndex();
     }
   }
 
   @Override
   public int hashCode() {
-    return 10 * direction.hashCode() + new Integer(index).hashCode();
+    return 100 * direction.hashCode() + 10 * new Integer(index).hashCode() + inputIndex;
   }
 }
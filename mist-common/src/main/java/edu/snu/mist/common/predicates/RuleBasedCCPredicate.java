@@ -17,6 +17,7 @@
 package edu.snu.mist.common.predicates;
 
 import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.rulebased.RuleBasedRecord;
 
 import java.util.Map;
 
@@ -68,6 +69,69 @@ public abstract class RuleBasedCCPredicate implements MISTPredicate<Map<String,
     }
   }
 
+  /**
+   * Compare the field of the input with the query object.
+   * If the input is a RuleBasedRecord, the primitive value of the field is compared without boxing.
+   * @param input input stream object
+   * @return the result of compare method of the type
+   */
+  protected final int compareField(final Map<String, Object> input) {
+    if (input instanceof RuleBasedRecord) {
+      final RuleBasedRecord record = (RuleBasedRecord) input;
+      final int index = record.getSchema().indexOf(field);
+      if (index >= 0) {
+        switch (record.getSchema().getFieldType(index)) {
+          case INTEGER:
+            if (value instanceof Integer) {
+              return Integer.compare(record.getInt(index), (int) value);
+            }
+            break;
+          case LONG:
+            if (value instanceof Long) {
+              return Long.compare(record.getLong(index), (long) value);
+            }
+            break;
+          case DOUBLE:
+            if (value instanceof Double) {
+              return Double.compare(record.getDouble(index), (double) value);
+            }
+            break;
+          default:
+            break;
+        }
+      }
+    }
+    return ruleBasedCompare(input.get(field), value);
+  }
+
+  /**
+   * Check whether the field of the input is equal to the query object.
+   * If the input is a RuleBasedRecord, the primitive value of the field is compared without boxing.
+   * @param input input stream object
+   * @return true if the field is equal to the query object
+   */
+  protected final boolean fieldEquals(final Map<String, Object> input) {
+    if (input instanceof RuleBasedRecord) {
+      final RuleBasedRecord record = (RuleBasedRecord) input;
+      final int index = record.getSchema().indexOf(field);
+      if (index >= 0) {
+        switch (record.getSchema().getFieldType(index)) {
+          case INTEGER:
+            return value instanceof Integer && record.getInt(index) == (int) value;
+          case LONG:
+            return value instanceof Long && record.getLong(index) == (long) value;
+          case DOUBLE:
+            // The same as Double.equals()
+            return value instanceof Double
+                && Double.doubleToLongBits(record.getDouble(index)) == Double.doubleToLongBits((double) value);
+          default:
+            return record.getString(index).equals(value);
+        }
+      }
+    }
+    return input.get(field).equals(value);
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -31,6 +31,6 @@ public final class RuleBasedGEPredicate extends RuleBasedCCPredicate implements
 
   @Override
   public boolean test(final Map<String, Object> stringObjectMap) {
-    return ruleBasedCompare(stringObjectMap.get(this.getField()), this.getValue()) >= 0;
+    return compareField(stringObjectMap) >= 0;
   }
 }
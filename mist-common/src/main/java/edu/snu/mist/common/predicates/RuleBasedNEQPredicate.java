@@ -31,6 +31,6 @@ public final class RuleBasedNEQPredicate extends RuleBasedCCPredicate implements
 
   @Override
   public boolean test(final Map<String, Object> stringObjectMap) {
-    return !(stringObjectMap.get(this.getField()).equals(this.getValue()));
+    return !fieldEquals(stringObjectMap);
   }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.rulebased;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A record of a rule-based input, which is parsed by a RuleBasedSchema.
+ * The values are kept in primitive arrays and can be accessed by the positions of the fields without boxing.
+ * It is also an immutable map from the field names to the values, so the functions for maps can use it,
+ * but the values are boxed when they are accessed through the map.
+ */
+public final class RuleBasedRecord extends AbstractMap<String, Object> implements Serializable {
+
+  /**
+   * The schema of the record.
+   */
+  private final RuleBasedSchema schema;
+
+  /**
+   * The values of INTEGER and LONG fields.
+   */
+  private final long[] longs;
+
+  /**
+   * The values of DOUBLE fields.
+   */
+  private final double[] doubles;
+
+  /**
+   * The values of STRING fields.
+   */
+  private final String[] strings;
+
+  RuleBasedRecord(final RuleBasedSchema schema) {
+    this.schema = schema;
+    this.longs = new long[schema.getNumLongs()];
+    this.doubles = new double[schema.getNumDoubles()];
+    this.strings = new String[schema.getNumStrings()];
+  }
+
+  public RuleBasedSchema getSchema() {
+    return schema;
+  }
+
+  public int getInt(final int index) {
+    return (int) longs[schema.getSlot(index)];
+  }
+
+  public long getLong(final int index) {
+    return longs[schema.getSlot(index)];
+  }
+
+  public double getDouble(final int index) {
+    return doubles[schema.getSlot(index)];
+  }
+
+  public String getString(final int index) {
+    return strings[schema.getSlot(index)];
+  }
+
+  void setLong(final int index, final long value) {
+    longs[schema.getSlot(index)] = value;
+  }
+
+  void setDouble(final int index, final double value) {
+    doubles[schema.getSlot(index)] = value;
+  }
+
+  void setString(final int index, final String value) {
+    strings[schema.getSlot(index)] = value;
+  }
+
+  /**
+   * @param index the position of the field
+   * @return the boxed value of the field
+   */
+  public Object getValue(final int index) {
+    switch (schema.getFieldType(index)) {
+      case INTEGER:
+        return getInt(index);
+      case LONG:
+        return getLong(index);
+      case DOUBLE:
+        return getDouble(index);
+      default:
+        return getString(index);
+    }
+  }
+
+  @Override
+  public Object get(final Object key) {
+    final int index = key instanceof String ? schema.indexOf((String) key) : -1;
+    return index < 0 ? null : getValue(index);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return key instanceof String && schema.indexOf((String) key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return schema.size();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<String, Object>>() {
+      @Override
+      public Iterator<Map.Entry<String, Object>> iterator() {
+        return new Iterator<Map.Entry<String, Object>>() {
+          private int index = 0;
+
+          @Override
+          public boolean hasNext() {
+            return index < schema.size();
+          }
+
+          @Override
+          public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            final Map.Entry<String, Object> entry =
+                new SimpleImmutableEntry<>(schema.getFieldName(index), getValue(index));
+            index += 1;
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return schema.size();
+      }
+    };
+  }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.rulebased;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The schema of a rule-based input, which consists of the names and the types of the fields and the separator.
+ * It parses an input into a RuleBasedRecord that keeps the values in primitive arrays,
+ * instead of a hash map of boxed values. The records refer to the schema for the field names,
+ * so a single schema is shared by all the records of the input.
+ *
+ * The input is split by the separator as String.split() does, and the values are trimmed.
+ * If the separator is a single ASCII character that is not a regex meta character,
+ * a byte array is parsed without decoding it into a string.
+ */
+public final class RuleBasedSchema implements Serializable {
+
+  /**
+   * The types of the fields.
+   */
+  public enum FieldType {
+    INTEGER,
+    LONG,
+    DOUBLE,
+    STRING
+  }
+
+  /**
+   * The regex meta characters that cannot be a byte separator.
+   */
+  private static final String REGEX_META_CHARACTERS = ".$|()[{^?*+\\";
+
+  /**
+   * The maximum number of digits that are parsed without overflow checks.
+   */
+  private static final int MAX_FAST_DIGITS = 18;
+
+  /**
+   * The names of the fields.
+   */
+  private final String[] fieldNames;
+
+  /**
+   * The types of the fields.
+   */
+  private final FieldType[] fieldTypes;
+
+  /**
+   * The separator regex.
+   */
+  private final String separator;
+
+  /**
+   * The positions of the fields in the value arrays of their types.
+   * INTEGER and LONG fields are stored in the long array.
+   */
+  private final transient int[] slots;
+
+  /**
+   * The number of the fields that are stored in each value array.
+   */
+  private final transient int numLongs;
+  private final transient int numDoubles;
+  private final transient int numStrings;
+
+  /**
+   * The positions of the fields.
+   */
+  private final transient Map<String, Integer> fieldIndexes;
+
+  /**
+   * The separator byte, or -1 if a byte array cannot be parsed without decoding.
+   */
+  private final transient int separatorByte;
+
+  /**
+   * @param fieldNames the names of the fields
+   * @param fieldTypes the types of the fields
+   * @param separator the separator regex
+   */
+  public RuleBasedSchema(final List<String> fieldNames,
+                         final List<FieldType> fieldTypes,
+                         final String separator) {
+    if (fieldNames.size() != fieldTypes.size()) {
+      throw new IllegalArgumentException("The numbers of the field names and types are different");
+    }
+    this.fieldNames = fieldNames.toArray(new String[fieldNames.size()]);
+    this.fieldTypes = fieldTypes.toArray(new FieldType[fieldTypes.size()]);
+    this.separator = separator;
+    this.slots = new int[this.fieldNames.length];
+    final Map<String, Integer> indexes = new HashMap<>();
+    int longs = 0;
+    int doubles = 0;
+    int strings = 0;
+    for (int i = 0; i < this.fieldNames.length; i++) {
+      indexes.put(this.fieldNames[i], i);
+      switch (this.fieldTypes[i]) {
+        case INTEGER:
+        case LONG:
+          slots[i] = longs;
+          longs += 1;
+          break;
+        case DOUBLE:
+          slots[i] = doubles;
+          doubles += 1;
+          break;
+        case STRING:
+          slots[i] = strings;
+          strings += 1;
+          break;
+        default:
+          throw new IllegalArgumentException("Fields value type is wrong!");
+      }
+    }
+    this.numLongs = longs;
+    this.numDoubles = doubles;
+    this.numStrings = strings;
+    this.fieldIndexes = Collections.unmodifiableMap(indexes);
+    this.separatorByte = separator.length() == 1 && separator.charAt(0) < 128
+        && REGEX_META_CHARACTERS.indexOf(separator.charAt(0)) < 0 ? separator.charAt(0) : -1;
+  }
+
+  /**
+   * Rebuilds the transient fields after deserialization.
+   */
+  private Object readResolve() {
+    return new RuleBasedSchema(Arrays.asList(fieldNames), Arrays.asList(fieldTypes), separator);
+  }
+
+  /**
+   * @return the number of the fields
+   */
+  public int size() {
+    return fieldNames.length;
+  }
+
+  /**
+   * @param field field name
+   * @return the position of the field, or -1 if the schema does not have the field
+   */
+  public int indexOf(final String field) {
+    final Integer index = fieldIndexes.get(field);
+    return index == null ? -1 : index;
+  }
+
+  public String getFieldName(final int index) {
+    return fieldNames[index];
+  }
+
+  public FieldType getFieldType(final int index) {
+    return fieldTypes[index];
+  }
+
+  int getSlot(final int index) {
+    return slots[index];
+  }
+
+  int getNumLongs() {
+    return numLongs;
+  }
+
+  int getNumDoubles() {
+    return numDoubles;
+  }
+
+  int getNumStrings() {
+    return numStrings;
+  }
+
+  private static IllegalStateException sizeMismatch() {
+    return new IllegalStateException("Cannot match input string to tuple since the size is different!");
+  }
+
+  /**
+   * Parses the input string.
+   * If the input has more values than the fields, the spare values are ignored.
+   * @param input input string
+   * @return the record
+   */
+  public RuleBasedRecord parse(final String input) {
+    final String[] values = input.split(separator);
+    if (values.length < fieldNames.length) {
+      throw sizeMismatch();
+    }
+    final RuleBasedRecord record = new RuleBasedRecord(this);
+    for (int i = 0; i < fieldNames.length; i++) {
+      final String value = values[i].trim();
+      switch (fieldTypes[i]) {
+        case INTEGER:
+          record.setLong(i, Integer.parseInt(value));
+          break;
+        case LONG:
+          record.setLong(i, Long.parseLong(value));
+          break;
+        case DOUBLE:
+          record.setDouble(i, Double.parseDouble(value));
+          break;
+        default:
+          record.setString(i, value);
+          break;
+      }
+    }
+    return record;
+  }
+
+  /**
+   * Parses the UTF-8 encoded input.
+   * If the input has more values than the fields, the spare values are ignored.
+   * @param input input bytes
+   * @return the record
+   */
+  public RuleBasedRecord parse(final byte[] input) {
+    if (separatorByte < 0) {
+      return parse(new String(input, StandardCharsets.UTF_8));
+    }
+    if (countValues(input) < fieldNames.length) {
+      throw sizeMismatch();
+    }
+    final RuleBasedRecord record = new RuleBasedRecord(this);
+    int start = 0;
+    for (int i = 0; i < fieldNames.length; i++) {
+      int end = start;
+      while (end < input.length && input[end] != separatorByte) {
+        end += 1;
+      }
+      setValue(record, i, input, start, end);
+      start = end + 1;
+    }
+    return record;
+  }
+
+  /**
+   * Counts the values as String.split() does, which removes the trailing empty values.
+   */
+  private int countValues(final byte[] input) {
+    if (input.length == 0) {
+      return 1;
+    }
+    int count = 0;
+    int current = 0;
+    boolean empty = true;
+    for (final byte b : input) {
+      if (b == separatorByte) {
+        if (!empty) {
+          count = current + 1;
+        }
+        current += 1;
+        empty = true;
+      } else {
+        empty = false;
+      }
+    }
+    return empty ? count : current + 1;
+  }
+
+  /**
+   * Trims and parses the value in the range of the input.
+   */
+  private void setValue(final RuleBasedRecord record, final int index,
+                        final byte[] input, final int from, final int to) {
+    int start = from;
+    int end = to;
+    while (start < end && (input[start] & 0xff) <= ' ') {
+      start += 1;
+    }
+    while (start < end && (input[end - 1] & 0xff) <= ' ') {
+      end -= 1;
+    }
+    switch (fieldTypes[index]) {
+      case INTEGER: {
+        final long value = parseLong(input, start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+          // Throws the exception of the overflow
+          Integer.parseInt(new String(input, start, end - start, StandardCharsets.UTF_8));
+        }
+        record.setLong(index, value);
+        break;
+      }
+      case LONG:
+        record.setLong(index, parseLong(input, start, end));
+        break;
+      case DOUBLE:
+        record.setDouble(index, Double.parseDouble(new String(input, start, end - start, StandardCharsets.UTF_8)));
+        break;
+      default:
+        record.setString(index, new String(input, start, end - start, StandardCharsets.UTF_8));
+        break;
+    }
+  }
+
+  /**
+   * Parses a decimal number in the range of the input.
+   * Numbers of ASCII digits are directly parsed, and the others are parsed by Long.parseLong().
+   */
+  private static long parseLong(final byte[] input, final int start, final int end) {
+    int position = start;
+    final boolean negative = position < end && input[position] == '-';
+    if (position < end && (input[position] == '-' || input[position] == '+')) {
+      position += 1;
+    }
+    final int digits = end - position;
+    boolean simple = digits > 0 && digits <= MAX_FAST_DIGITS;
+    long result = 0;
+    while (simple && position < end) {
+      final int digit = input[position] - '0';
+      if (digit < 0 || digit > 9) {
+        simple = false;
+      }
+      result = result * 10 + digit;
+      position += 1;
+    }
+    if (simple) {
+      return negative ? -result : result;
+    } else {
+      return Long.parseLong(new String(input, start, end - start, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final RuleBasedSchema that = (RuleBasedSchema) o;
+    return Arrays.equals(fieldNames, that.fieldNames)
+        && Arrays.equals(fieldTypes, that.fieldTypes)
+        && separator.equals(that.separator);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Arrays.hashCode(fieldNames);
+    result = 31 * result + Arrays.hashCode(fieldTypes);
+    result = 31 * result + separator.hashCode();
+    return result;
+  }
+}
@@ -25,6 +25,11 @@ import edu.snu.mist.common.exceptions.NegativeTimestampException;
  */
 public final class MistDataEvent implements MistEvent {
 
+  /**
+   * The ingestion time of an event that was not generated by a source.
+   */
+  public static final long NO_INGESTION_TIME = Long.MIN_VALUE;
+
   /**
    * Value of the data.
    */
@@ -35,6 +40,12 @@ public final class MistDataEvent implements MistEvent {
    */
   private long timestamp;
 
+  /**
+   * The value of System.nanoTime() when the source generated the data,
+   * which is used for measuring the end-to-end latency. It is not a part of the data.
+   */
+  private long ingestionTime;
+
   public MistDataEvent(final Object value) {
     this(value, System.currentTimeMillis());
   }
@@ -46,6 +57,17 @@ public final class MistDataEvent implements MistEvent {
     }
     this.value = value;
     this.timestamp = timestamp;
+    this.ingestionTime = NO_INGESTION_TIME;
+  }
+
+  /**
+   * Creates an event that has the same value, timestamp and ingestion time.
+   * @return the copied event
+   */
+  public MistDataEvent copy() {
+    final MistDataEvent event = new MistDataEvent(value, timestamp);
+    event.ingestionTime = ingestionTime;
+    return event;
   }
 
   public Object getValue() {
@@ -60,6 +82,17 @@ public final class MistDataEvent implements MistEvent {
     value = v;
   }
 
+  /**
+   * @return the ingestion time in nanoseconds, or NO_INGESTION_TIME if the data was not generated by a source
+   */
+  public long getIngestionTime() {
+    return ingestionTime;
+  }
+
+  public void setIngestionTime(final long ingestionTime) {
+    this.ingestionTime = ingestionTime;
+  }
+
   @Override
   public boolean isData() {
     return true;
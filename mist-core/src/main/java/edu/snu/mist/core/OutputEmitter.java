@@ -15,6 +15,8 @@
  */
 package edu.snu.mist.core;
 
+import java.util.List;
+
 /**
  * This interface forwards the emitted output as a input of next operators.
  */
@@ -34,6 +36,14 @@ public interface OutputEmitter {
    */
   void emitData(MistDataEvent data, int index);
 
+  /**
+   * Emits a batch of outputs as inputs of next operators.
+   * The order of the data in the list is preserved.
+   * The list can be reused by the caller after this method returns, so it should not be retained.
+   * @param dataList list of data
+   */
+  void emitDataBatch(List<MistDataEvent> dataList);
+
   /**
    * Emits an output as an input of next operators.
    * @param watermark watermark
@@ -16,17 +16,29 @@
 package edu.snu.mist.core.configs;
 
 import edu.snu.mist.core.master.lb.parameters.*;
+import edu.snu.mist.core.master.migration.parameters.GroupMigrationTimeout;
 import edu.snu.mist.core.master.recovery.parameters.RecoveryUnitSize;
 import edu.snu.mist.core.parameters.*;
+import edu.snu.mist.core.shared.parameters.MqttIngestOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttIngestQueueCapacity;
 import edu.snu.mist.core.shared.parameters.MqttSinkClientNumPerBroker;
+import edu.snu.mist.core.shared.parameters.MqttSinkCoalesceMessages;
 import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.MqttSinkPublishQueueCapacity;
+import edu.snu.mist.core.shared.parameters.MqttSinkOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttSinkRetryBufferSize;
 import edu.snu.mist.core.shared.parameters.MqttSourceClientNumPerBroker;
 import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultNumEventProcessors;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.EventProcessorOption;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupRebalancingPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.NextGroupSelectorOption;
 import edu.snu.mist.core.task.groupaware.parameters.GroupPinningTime;
 import edu.snu.mist.core.task.groupaware.parameters.ProcessingTimeout;
+import edu.snu.mist.core.task.metrics.parameters.MetricsSamplingInterval;
+import edu.snu.mist.core.task.migration.parameters.MaxMigrationPauseTime;
+import edu.snu.mist.core.task.migration.parameters.MigrationCommitTimeout;
 import edu.snu.mist.core.task.recovery.parameters.RecoveryThreadsNum;
 import org.apache.reef.tang.formats.CommandLine;
 
@@ -64,16 +76,35 @@ public final class MistCommandLineOptions {
         .registerShortNameOfClass(MqttSinkKeepAliveSec.class)
         .registerShortNameOfClass(MqttSourceClientNumPerBroker.class)
         .registerShortNameOfClass(MqttSinkClientNumPerBroker.class)
+        .registerShortNameOfClass(MqttIngestQueueCapacity.class)
+        .registerShortNameOfClass(MqttIngestOverflowPolicy.class)
+        .registerShortNameOfClass(MqttSinkPublishQueueCapacity.class)
+        .registerShortNameOfClass(MqttSinkRetryBufferSize.class)
+        .registerShortNameOfClass(MqttSinkCoalesceMessages.class)
+        .registerShortNameOfClass(MqttSinkOverflowPolicy.class)
         .registerShortNameOfClass(ProcessingTimeout.class)
         .registerShortNameOfClass(GroupPinningTime.class)
         .registerShortNameOfClass(GroupRebalancingPeriod.class)
+        .registerShortNameOfClass(NextGroupSelectorOption.class)
+        .registerShortNameOfClass(EventProcessorOption.class)
+        .registerShortNameOfClass(ImmutableEventFanOut.class)
+        .registerShortNameOfClass(FusedOperatorCodegen.class)
+        .registerShortNameOfClass(SourceEventQueueCapacity.class)
+        .registerShortNameOfClass(SourceEventBatchSize.class)
+        .registerShortNameOfClass(SourceBackpressurePolicy.class)
+        .registerShortNameOfClass(SourceBackpressureTimeout.class)
+        .registerShortNameOfClass(MetricsSamplingInterval.class)
+        .registerShortNameOfClass(MaxMigrationPauseTime.class)
+        .registerShortNameOfClass(MigrationCommitTimeout.class)
         .registerShortNameOfClass(PeriodicCheckpointPeriod.class)
+        .registerShortNameOfClass(CheckpointCompactionPeriod.class)
         .registerShortNameOfClass(UnderloadedTaskLoadThreshold.class)
         .registerShortNameOfClass(OverloadedTaskLoadThreshold.class)
         .registerShortNameOfClass(QueryAllocationOption.class)
         .registerShortNameOfClass(RecoveryThreadsNum.class)
         .registerShortNameOfClass(RecoverySchedulerOption.class)
         .registerShortNameOfClass(RecoveryUnitSize.class)
+        .registerShortNameOfClass(GroupMigrationTimeout.class)
         .registerShortNameOfClass(DynamicScalingOption.class)
         .registerShortNameOfClass(DynamicScalingPeriod.class)
         .registerShortNameOfClass(IdleTaskLoadThreshold.class)
@@ -82,6 +113,7 @@ public final class MistCommandLineOptions {
         .registerShortNameOfClass(ScaleInGracePeriod.class)
         .registerShortNameOfClass(ScaleInIdleTaskRatio.class)
         .registerShortNameOfClass(ScaleOutGracePeriod.class)
-        .registerShortNameOfClass(ScaleOutOverloadedTaskRatio.class);
+        .registerShortNameOfClass(ScaleOutOverloadedTaskRatio.class)
+        .registerShortNameOfClass(ScaleOutRegistrationTimeout.class);
   }
 }
@@ -19,6 +19,7 @@ import edu.snu.mist.core.master.lb.parameters.*;
 import edu.snu.mist.core.master.lb.scaling.DoNothingDynamicScalingManager;
 import edu.snu.mist.core.master.lb.scaling.DynamicScalingManager;
 import edu.snu.mist.core.master.lb.scaling.PeriodicDynamicScalingManager;
+import edu.snu.mist.core.master.migration.parameters.GroupMigrationTimeout;
 import edu.snu.mist.core.master.recovery.parameters.RecoveryUnitSize;
 import edu.snu.mist.core.parameters.*;
 import edu.snu.mist.core.master.lb.allocation.*;
@@ -98,6 +99,11 @@ public final class MistMasterConfigs implements MistConfigs {
    */
   private final int recoveryUnitSize;
 
+  /**
+   * The maximum waiting time for the result of a group migration.
+   */
+  private final long groupMigrationTimeout;
+
   // Start of variables for dynamic scaling in/out
 
   /**
@@ -143,6 +149,11 @@ public final class MistMasterConfigs implements MistConfigs {
    */
   private final double scaleOutOverloadedTaskRatio;
 
+  /**
+   * The maximum waiting time for a new task to be registered when scaling out.
+   */
+  private final long scaleOutRegistrationTimeout;
+
   @Inject
   private MistMasterConfigs(
       @Parameter(NumTasks.class) final int numTasks,
@@ -156,6 +167,7 @@ public final class MistMasterConfigs implements MistConfigs {
       @Parameter(QueryAllocationOption.class) final String queryAllocationOption,
       @Parameter(RecoverySchedulerOption.class) final String recoverySchedulerOption,
       @Parameter(RecoveryUnitSize.class) final int recoveryUnitSize,
+      @Parameter(GroupMigrationTimeout.class) final long groupMigrationTimeout,
       @Parameter(DynamicScalingOption.class) final String dynamicScalingOption,
       @Parameter(DynamicScalingPeriod.class) final long dynamicScalingPeriod,
       @Parameter(MaxTaskNum.class) final int maxTaskNum,
@@ -163,7 +175,8 @@ public final class MistMasterConfigs implements MistConfigs {
       @Parameter(ScaleInGracePeriod.class) final long scaleInGracePeriod,
       @Parameter(ScaleInIdleTaskRatio.class) final double scaleInIdleTaskRatio,
       @Parameter(ScaleOutGracePeriod.class) final long scaleOutGracePeriod,
-      @Parameter(ScaleOutOverloadedTaskRatio.class) final double scaleOutOverloadedTaskRatio) {
+      @Parameter(ScaleOutOverloadedTaskRatio.class) final double scaleOutOverloadedTaskRatio,
+      @Parameter(ScaleOutRegistrationTimeout.class) final long scaleOutRegistrationTimeout) {
     this.numTasks = numTasks;
     this.taskMemSize = taskMemSize;
     this.numTaskCores = numTaskCores;
@@ -175,6 +188,7 @@ public final class MistMasterConfigs implements MistConfigs {
     this.queryAllocationOption = queryAllocationOption;
     this.recoverySchedulerOption = recoverySchedulerOption;
     this.recoveryUnitSize = recoveryUnitSize;
+    this.groupMigrationTimeout = groupMigrationTimeout;
     // Parameters for dynamic scale-in/out
     this.dynamicScalingOption = dynamicScalingOption;
     this.dynamicScalingPeriod = dynamicScalingPeriod;
@@ -184,6 +198,7 @@ public final class MistMasterConfigs implements MistConfigs {
     this.scaleInIdleTaskRatio = scaleInIdleTaskRatio;
     this.scaleOutGracePeriod = scaleOutGracePeriod;
     this.scaleOutOverloadedTaskRatio = scaleOutOverloadedTaskRatio;
+    this.scaleOutRegistrationTimeout = scaleOutRegistrationTimeout;
   }
 
   private Class<? extends QueryAllocationManager> getQueryAllocationImplClass() {
@@ -223,6 +238,7 @@ public final class MistMasterConfigs implements MistConfigs {
     jcb.bindNamedParameter(UnderloadedTaskLoadThreshold.class, String.valueOf(underloadedTaskThreshold));
     jcb.bindNamedParameter(OverloadedTaskLoadThreshold.class, String.valueOf(overloadedTaskThreshold));
     jcb.bindNamedParameter(RecoveryUnitSize.class, String.valueOf(recoveryUnitSize));
+    jcb.bindNamedParameter(GroupMigrationTimeout.class, String.valueOf(groupMigrationTimeout));
     jcb.bindNamedParameter(DynamicScalingPeriod.class, String.valueOf(dynamicScalingPeriod));
     jcb.bindNamedParameter(MaxTaskNum.class, String.valueOf(maxTaskNum));
     jcb.bindNamedParameter(MinTaskNum.class, String.valueOf(minTaskNum));
@@ -230,6 +246,7 @@ public final class MistMasterConfigs implements MistConfigs {
     jcb.bindNamedParameter(ScaleInIdleTaskRatio.class, String.valueOf(scaleInIdleTaskRatio));
     jcb.bindNamedParameter(ScaleOutGracePeriod.class, String.valueOf(scaleOutGracePeriod));
     jcb.bindNamedParameter(ScaleOutOverloadedTaskRatio.class, String.valueOf(scaleOutOverloadedTaskRatio));
+    jcb.bindNamedParameter(ScaleOutRegistrationTimeout.class, String.valueOf(scaleOutRegistrationTimeout));
 
     // Implementations.
     jcb.bindImplementation(QueryAllocationManager.class, getQueryAllocationImplClass());
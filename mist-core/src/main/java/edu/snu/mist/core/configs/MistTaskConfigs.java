@@ -15,17 +15,36 @@
  */
 package edu.snu.mist.core.configs;
 
+import edu.snu.mist.core.parameters.CheckpointCompactionPeriod;
+import edu.snu.mist.core.parameters.FusedOperatorCodegen;
+import edu.snu.mist.core.parameters.ImmutableEventFanOut;
+import edu.snu.mist.core.parameters.SourceBackpressurePolicy;
+import edu.snu.mist.core.parameters.SourceBackpressureTimeout;
+import edu.snu.mist.core.parameters.SourceEventBatchSize;
+import edu.snu.mist.core.parameters.SourceEventQueueCapacity;
 import edu.snu.mist.core.rpc.DefaultClientToTaskMessageImpl;
 import edu.snu.mist.core.rpc.DefaultMasterToTaskMessageImpl;
+import edu.snu.mist.core.shared.parameters.MqttIngestOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttIngestQueueCapacity;
 import edu.snu.mist.core.shared.parameters.MqttSinkClientNumPerBroker;
+import edu.snu.mist.core.shared.parameters.MqttSinkCoalesceMessages;
 import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.MqttSinkPublishQueueCapacity;
+import edu.snu.mist.core.shared.parameters.MqttSinkOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttSinkRetryBufferSize;
 import edu.snu.mist.core.shared.parameters.MqttSourceClientNumPerBroker;
 import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.*;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultNumEventProcessors;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.EventProcessorOption;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupRebalancingPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.NextGroupSelectorOption;
 import edu.snu.mist.core.task.groupaware.parameters.GroupPinningTime;
 import edu.snu.mist.core.task.groupaware.parameters.ProcessingTimeout;
+import edu.snu.mist.core.task.metrics.parameters.MetricsSamplingInterval;
+import edu.snu.mist.core.task.migration.parameters.MaxMigrationPauseTime;
+import edu.snu.mist.core.task.migration.parameters.MigrationCommitTimeout;
 import edu.snu.mist.core.task.recovery.parameters.RecoveryThreadsNum;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.MasterToTaskMessage;
@@ -66,6 +85,36 @@ public final class MistTaskConfigs implements MistConfigs {
    */
   private final int mqttSinkClientNumPerBroker;
 
+  /**
+   * The capacity of the ingest queue of a mqtt source client.
+   */
+  private final int mqttIngestQueueCapacity;
+
+  /**
+   * The overflow policy of the ingest queue of a mqtt source client.
+   */
+  private final String mqttIngestOverflowPolicy;
+
+  /**
+   * The capacity of the publish queue of a mqtt broker.
+   */
+  private final int mqttSinkPublishQueueCapacity;
+
+  /**
+   * The size of the retry buffer of a mqtt publish queue.
+   */
+  private final int mqttSinkRetryBufferSize;
+
+  /**
+   * Whether the mqtt publish queues coalesce the waiting messages of the same sink.
+   */
+  private final boolean mqttSinkCoalesceMessages;
+
+  /**
+   * The policy for the mqtt sink messages when the publish queue is full.
+   */
+  private final String mqttSinkOverflowPolicy;
+
   /**
    * Group rebalancing period.
    */
@@ -86,32 +135,154 @@ public final class MistTaskConfigs implements MistConfigs {
    */
   private final long checkpointPeriod;
 
+  /**
+   * The number of delta checkpoints between full checkpoints.
+   */
+  private final int checkpointCompactionPeriod;
+
   /**
    * The number of threads used for task-side recovery.
    */
   private final int recoveryThreadsNum;
 
+  /**
+   * The next group selector option.
+   */
+  private final String nextGroupSelectorOption;
+
+  /**
+   * The event processor option.
+   */
+  private final String eventProcessorOption;
+
+  /**
+   * True if the events are shared by the downstream operators without copying.
+   */
+  private final boolean immutableEventFanOut;
+
+  /**
+   * The number of events per latency sample of the operators and sinks.
+   */
+  private final int metricsSamplingInterval;
+
+  /**
+   * The maximum pause time of a migrating group before the hand-over.
+   */
+  private final long maxMigrationPauseTime;
+
+  /**
+   * The maximum time that a prepared migrating group waits for the commit.
+   */
+  private final long migrationCommitTimeout;
+
+  /**
+   * True if the fused operators generate specialized pipelines.
+   */
+  private final boolean fusedOperatorCodegen;
+
+  /**
+   * The capacity of the event queue of a source.
+   */
+  private final int sourceEventQueueCapacity;
+
+  /**
+   * The maximum number of events that are drained at once from the event queue of a source.
+   */
+  private final int sourceEventBatchSize;
+
+  /**
+   * The back-pressure policy of the source event queue.
+   */
+  private final String sourceBackpressurePolicy;
+
+  /**
+   * The back-pressure timeout of the source event queue.
+   */
+  private final long sourceBackpressureTimeout;
+
   @Inject
   private MistTaskConfigs(@Parameter(DefaultNumEventProcessors.class) final int numEventProcessors,
                           @Parameter(MqttSourceKeepAliveSec.class) final int mqttSourceKeepAliveSec,
                           @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec,
                           @Parameter(MqttSourceClientNumPerBroker.class) final int mqttSourceClientNumPerBroker,
                           @Parameter(MqttSinkClientNumPerBroker.class) final int mqttSinkClientNumPerBroker,
+                          @Parameter(MqttIngestQueueCapacity.class) final int mqttIngestQueueCapacity,
+                          @Parameter(MqttIngestOverflowPolicy.class) final String mqttIngestOverflowPolicy,
+                          @Parameter(MqttSinkPublishQueueCapacity.class) final int mqttSinkPublishQueueCapacity,
+                          @Parameter(MqttSinkRetryBufferSize.class) final int mqttSinkRetryBufferSize,
+                          @Parameter(MqttSinkCoalesceMessages.class) final boolean mqttSinkCoalesceMessages,
+                          @Parameter(MqttSinkOverflowPolicy.class) final String mqttSinkOverflowPolicy,
                           @Parameter(GroupRebalancingPeriod.class) final long rebalancingPeriod,
                           @Parameter(ProcessingTimeout.class) final long processingTimeout,
                           @Parameter(GroupPinningTime.class) final long groupPinningTime,
                           @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
-                          @Parameter(RecoveryThreadsNum.class) final int recoveryThreadsNum) {
+                          @Parameter(CheckpointCompactionPeriod.class) final int checkpointCompactionPeriod,
+                          @Parameter(RecoveryThreadsNum.class) final int recoveryThreadsNum,
+                          @Parameter(NextGroupSelectorOption.class) final String nextGroupSelectorOption,
+                          @Parameter(EventProcessorOption.class) final String eventProcessorOption,
+                          @Parameter(ImmutableEventFanOut.class) final boolean immutableEventFanOut,
+                          @Parameter(MetricsSamplingInterval.class) final int metricsSamplingInterval,
+                          @Parameter(MaxMigrationPauseTime.class) final long maxMigrationPauseTime,
+                          @Parameter(MigrationCommitTimeout.class) final long migrationCommitTimeout,
+                          @Parameter(FusedOperatorCodegen.class) final boolean fusedOperatorCodegen,
+                          @Parameter(SourceEventQueueCapacity.class) final int sourceEventQueueCapacity,
+                          @Parameter(SourceEventBatchSize.class) final int sourceEventBatchSize,
+                          @Parameter(SourceBackpressurePolicy.class) final String sourceBackpressurePolicy,
+                          @Parameter(SourceBackpressureTimeout.class) final long sourceBackpressureTimeout) {
     this.numEventProcessors = numEventProcessors;
     this.rebalancingPeriod = rebalancingPeriod;
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
     this.mqttSourceClientNumPerBroker = mqttSourceClientNumPerBroker;
     this.mqttSinkClientNumPerBroker = mqttSinkClientNumPerBroker;
+    this.mqttIngestQueueCapacity = mqttIngestQueueCapacity;
+    this.mqttIngestOverflowPolicy = mqttIngestOverflowPolicy;
+    this.mqttSinkPublishQueueCapacity = mqttSinkPublishQueueCapacity;
+    this.mqttSinkRetryBufferSize = mqttSinkRetryBufferSize;
+    this.mqttSinkCoalesceMessages = mqttSinkCoalesceMessages;
+    this.mqttSinkOverflowPolicy = mqttSinkOverflowPolicy;
     this.groupPinningTime = groupPinningTime;
     this.processingTimeout = processingTimeout;
     this.checkpointPeriod = checkpointPeriod;
+    this.checkpointCompactionPeriod = checkpointCompactionPeriod;
     this.recoveryThreadsNum = recoveryThreadsNum;
+    this.nextGroupSelectorOption = nextGroupSelectorOption;
+    this.eventProcessorOption = eventProcessorOption;
+    this.immutableEventFanOut = immutableEventFanOut;
+    this.metricsSamplingInterval = metricsSamplingInterval;
+    this.maxMigrationPauseTime = maxMigrationPauseTime;
+    this.migrationCommitTimeout = migrationCommitTimeout;
+    this.fusedOperatorCodegen = fusedOperatorCodegen;
+    this.sourceEventQueueCapacity = sourceEventQueueCapacity;
+    this.sourceEventBatchSize = sourceEventBatchSize;
+    this.sourceBackpressurePolicy = sourceBackpressurePolicy;
+    this.sourceBackpressureTimeout = sourceBackpressureTimeout;
+  }
+
+  private Class<? extends NextGroupSelectorFactory> getNextGroupSelectorFactoryImplClass() {
+    if (nextGroupSelectorOption.equals("queue")) {
+      return BlockingQueueGroupSelectorFactory.class;
+    } else if (nextGroupSelectorOption.equals("stealing")) {
+      return WorkStealingGroupSelectorFactory.class;
+    } else {
+      throw new IllegalArgumentException("Invalid next group selector option!");
+    }
+  }
+
+  private Class<? extends EventProcessorFactory> getEventProcessorFactoryImplClass() {
+    if (eventProcessorOption.equals("affinity")) {
+      if (nextGroupSelectorOption.equals("stealing")) {
+        // Affinity event processors skip the groups assigned to other event processors,
+        // so they cannot process the stolen groups
+        throw new IllegalArgumentException(
+            "The stealing next group selector requires the default event processor option!");
+      }
+      return AffinityEventProcessorFactory.class;
+    } else if (eventProcessorOption.equals("default")) {
+      return DefaultEventProcessorFactory.class;
+    } else {
+      throw new IllegalArgumentException("Invalid event processor option!");
+    }
   }
 
   /**
@@ -127,15 +298,35 @@ public final class MistTaskConfigs implements MistConfigs {
     jcb.bindNamedParameter(MqttSinkKeepAliveSec.class, Integer.toString(mqttSinkKeepAliveSec));
     jcb.bindNamedParameter(MqttSourceClientNumPerBroker.class, Integer.toString(mqttSourceClientNumPerBroker));
     jcb.bindNamedParameter(MqttSinkClientNumPerBroker.class, Integer.toString(mqttSinkClientNumPerBroker));
+    jcb.bindNamedParameter(MqttIngestQueueCapacity.class, Integer.toString(mqttIngestQueueCapacity));
+    jcb.bindNamedParameter(MqttIngestOverflowPolicy.class, mqttIngestOverflowPolicy);
+    jcb.bindNamedParameter(MqttSinkPublishQueueCapacity.class, Integer.toString(mqttSinkPublishQueueCapacity));
+    jcb.bindNamedParameter(MqttSinkRetryBufferSize.class, Integer.toString(mqttSinkRetryBufferSize));
+    jcb.bindNamedParameter(MqttSinkCoalesceMessages.class, Boolean.toString(mqttSinkCoalesceMessages));
+    jcb.bindNamedParameter(MqttSinkOverflowPolicy.class, mqttSinkOverflowPolicy);
     jcb.bindNamedParameter(GroupRebalancingPeriod.class, Long.toString(rebalancingPeriod));
     jcb.bindNamedParameter(ProcessingTimeout.class, Long.toString(processingTimeout));
     jcb.bindNamedParameter(GroupPinningTime.class, Long.toString(groupPinningTime));
     jcb.bindNamedParameter(PeriodicCheckpointPeriod.class, Long.toString(checkpointPeriod));
+    jcb.bindNamedParameter(CheckpointCompactionPeriod.class, Integer.toString(checkpointCompactionPeriod));
     jcb.bindNamedParameter(RecoveryThreadsNum.class, Integer.toString(recoveryThreadsNum));
+    jcb.bindNamedParameter(NextGroupSelectorOption.class, nextGroupSelectorOption);
+    jcb.bindNamedParameter(EventProcessorOption.class, eventProcessorOption);
+    jcb.bindNamedParameter(ImmutableEventFanOut.class, Boolean.toString(immutableEventFanOut));
+    jcb.bindNamedParameter(MetricsSamplingInterval.class, Integer.toString(metricsSamplingInterval));
+    jcb.bindNamedParameter(MaxMigrationPauseTime.class, Long.toString(maxMigrationPauseTime));
+    jcb.bindNamedParameter(MigrationCommitTimeout.class, Long.toString(migrationCommitTimeout));
+    jcb.bindNamedParameter(FusedOperatorCodegen.class, Boolean.toString(fusedOperatorCodegen));
+    jcb.bindNamedParameter(SourceEventQueueCapacity.class, Integer.toString(sourceEventQueueCapacity));
+    jcb.bindNamedParameter(SourceEventBatchSize.class, Integer.toString(sourceEventBatchSize));
+    jcb.bindNamedParameter(SourceBackpressurePolicy.class, sourceBackpressurePolicy);
+    jcb.bindNamedParameter(SourceBackpressureTimeout.class, Long.toString(sourceBackpressureTimeout));
 
     // Implementation
     jcb.bindImplementation(ClientToTaskMessage.class, DefaultClientToTaskMessageImpl.class);
     jcb.bindImplementation(MasterToTaskMessage.class, DefaultMasterToTaskMessageImpl.class);
+    jcb.bindImplementation(NextGroupSelectorFactory.class, getNextGroupSelectorFactoryImplClass());
+    jcb.bindImplementation(EventProcessorFactory.class, getEventProcessorFactoryImplClass());
     return jcb.build();
   }
 }
@@ -43,6 +43,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -118,7 +119,7 @@ public final class DefaultTaskRequestorImpl implements TaskRequestor {
   /**
    * The countdown latch for synchronization.
    */
-  private CountDownLatch countDownLatch;
+  private volatile CountDownLatch countDownLatch;
 
   @Inject
   private DefaultTaskRequestorImpl(
@@ -150,32 +151,54 @@ public final class DefaultTaskRequestorImpl implements TaskRequestor {
 
   @Override
   public synchronized void setupTaskAndConn(final int taskNum) throws AvroRemoteException, InterruptedException {
-
-    final Configuration commonConf
-        = Configurations.merge(commonConfigs.getConfiguration(), taskConfigs.getConfiguration());
-
     for (int i = 0; i < taskNum; i++) {
-      final String taskId = TASK_ID_PREFIX + taskIdIndex;
-      // Set task id for each task.
-      final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
-      jcb.bindNamedParameter(TaskId.class, taskId);
-      final String serializedConf = confSerializer.toString(Configurations.merge(commonConf, jcb.build()));
-      final TaskRequest taskRequest = TaskRequest.newBuilder()
-          .setTaskId(taskId)
-          .setTaskCpuNum(numTaskCores)
-          .setTaskMemSize(taskMemSize)
-          .setNewRatio(newRatio)
-          .setReservedCodeCacheSize(reservedCodeCacheSize)
-          .setSerializedTaskConfiguration(serializedConf)
-          .build();
-      taskIdIndex += 1;
-      LOG.log(Level.INFO, "Requesting for a task to the driver... Task ID = {0}", taskId);
-      proxyToDriver.requestNewTask(taskRequest);
-      countDownLatch = new CountDownLatch(1);
+      requestNewTask();
       countDownLatch.await();
     }
   }
 
+  @Override
+  public synchronized boolean setupTaskAndConn(final int taskNum, final long timeout)
+      throws AvroRemoteException, InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeout;
+    for (int i = 0; i < taskNum; i++) {
+      requestNewTask();
+      final long remainingTime = deadline - System.currentTimeMillis();
+      if (remainingTime <= 0 || !countDownLatch.await(remainingTime, TimeUnit.MILLISECONDS)) {
+        // The task might be allocated later, and then it is used as a normal task.
+        LOG.log(Level.WARNING, "{0} of {1} tasks are allocated within {2} ms", new Object[]{i, taskNum, timeout});
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Requests a new task to the driver.
+   * The countdown latch is created before the request, so that the allocation is not missed.
+   */
+  private void requestNewTask() throws AvroRemoteException {
+    final Configuration commonConf
+        = Configurations.merge(commonConfigs.getConfiguration(), taskConfigs.getConfiguration());
+    final String taskId = TASK_ID_PREFIX + taskIdIndex;
+    // Set task id for each task.
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(TaskId.class, taskId);
+    final String serializedConf = confSerializer.toString(Configurations.merge(commonConf, jcb.build()));
+    final TaskRequest taskRequest = TaskRequest.newBuilder()
+        .setTaskId(taskId)
+        .setTaskCpuNum(numTaskCores)
+        .setTaskMemSize(taskMemSize)
+        .setNewRatio(newRatio)
+        .setReservedCodeCacheSize(reservedCodeCacheSize)
+        .setSerializedTaskConfiguration(serializedConf)
+        .build();
+    taskIdIndex += 1;
+    LOG.log(Level.INFO, "Requesting for a task to the driver... Task ID = {0}", taskId);
+    countDownLatch = new CountDownLatch(1);
+    proxyToDriver.requestNewTask(taskRequest);
+  }
+
   @Override
   public synchronized void recoverTaskConn() {
 
@@ -30,6 +30,14 @@ public interface TaskRequestor {
    */
   void setupTaskAndConn(int taskNum) throws AvroRemoteException, InterruptedException;
 
+  /**
+   * requests tasks to the driver and waits until all the tasks are allocated or the timeout elapses.
+   * @param taskNum the number of tasks
+   * @param timeout the maximum waiting time in milliseconds
+   * @return true if all the tasks are allocated within the timeout
+   */
+  boolean setupTaskAndConn(int taskNum, long timeout) throws AvroRemoteException, InterruptedException;
+
   /**
    * Recover the connection to running tasks. Used in master recovery process.
    * Note: This method is blocking.
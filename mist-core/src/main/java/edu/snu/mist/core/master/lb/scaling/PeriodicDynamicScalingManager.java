@@ -119,6 +119,11 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
    */
   private final ScaleInManager scaleInManager;
 
+  /**
+   * The scale-out manager.
+   */
+  private final ScaleOutManager scaleOutManager;
+
   /**
    * The shared lock for synchronizing recovery process.
    */
@@ -137,6 +142,7 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
       @Parameter(ScaleInIdleTaskRatio.class) final double scaleInIdleTaskRatio,
       @Parameter(ScaleOutOverloadedTaskRatio.class) final double scaleOutOverloadedTaskRatio,
       final ScaleInManager scaleInManager,
+      final ScaleOutManager scaleOutManager,
       final RecoveryLock recoveryLock) {
     this.taskStatsMap = taskStatsMap;
     this.dynamicScalingPeriod = dynamicScalingPeriod;
@@ -153,6 +159,7 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
     this.lastMeasuredTimestamp = System.currentTimeMillis();
     this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
     this.scaleInManager = scaleInManager;
+    this.scaleOutManager = scaleOutManager;
     this.recoveryLock = recoveryLock;
   }
 
@@ -163,7 +170,7 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
         overloadedTaskNum += 1;
       }
     }
-    final double overloadedTaskRatio = overloadedTaskNum / taskStatsMap.getTaskList().size();
+    final double overloadedTaskRatio = (double) overloadedTaskNum / taskStatsMap.getTaskList().size();
     return overloadedTaskRatio > scaleOutOverloadedTaskRatio;
   }
 
@@ -174,7 +181,7 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
         idleTaskNum += 1;
       }
     }
-    final double idleTaskRatio = idleTaskNum / taskStatsMap.getTaskList().size();
+    final double idleTaskRatio = (double) idleTaskNum / taskStatsMap.getTaskList().size();
     return idleTaskRatio > scaleInIdleTaskRatio;
   }
 
@@ -199,8 +206,10 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
         overloadedTimeElapsed += lastMeasuredTimestamp - oldTimeStamp;
         if (overloadedTimeElapsed > scaleOutGracePeriod && taskStatsMap.getTaskList().size() < maxTaskNum
             && recoveryLock.tryLock()) {
+          LOG.log(Level.INFO, "Start scaling-out...");
           try {
-            // TODO: [MIST-1130] Perform automatic scale-out.
+            scaleOutManager.scaleOut();
+            // Initialize the overloadedTimeElapsed.
             overloadedTimeElapsed = 0;
           } catch (final Exception e) {
             e.printStackTrace();
@@ -244,6 +253,7 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
   @Override
   public void close() throws Exception {
     scaleInManager.close();
+    scaleOutManager.close();
     scheduledExecutorService.shutdown();
     scheduledExecutorService.awaitTermination(6000, TimeUnit.MILLISECONDS);
   }
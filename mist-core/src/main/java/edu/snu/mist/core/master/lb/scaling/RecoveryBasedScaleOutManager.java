@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.master.lb.scaling;
+
+import edu.snu.mist.core.master.ProxyToTaskMap;
+import edu.snu.mist.core.master.TaskRequestor;
+import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.lb.parameters.OverloadedTaskLoadThreshold;
+import edu.snu.mist.core.master.lb.parameters.ScaleOutRegistrationTimeout;
+import edu.snu.mist.core.master.recovery.RecoveryScheduler;
+import edu.snu.mist.formats.avro.GroupStats;
+import edu.snu.mist.formats.avro.MasterToTaskMessage;
+import edu.snu.mist.formats.avro.TaskStats;
+import org.apache.avro.AvroRemoteException;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The scale-out manager which adds a new task and moves the groups of the overloaded tasks
+ * by checkpointing them in the overloaded tasks and recovering them in the new task through the recovery scheduler.
+ * Both the allocation and the registration of the new task are bounded by the registration timeout,
+ * as the recovery lock is held during the scale-out.
+ */
+public final class RecoveryBasedScaleOutManager implements ScaleOutManager {
+
+  private static final Logger LOG = Logger.getLogger(RecoveryBasedScaleOutManager.class.getName());
+
+  /**
+   * The interval for checking whether the new task is registered.
+   */
+  private static final long REGISTRATION_CHECK_INTERVAL = 100L;
+
+  /**
+   * The task requestor.
+   */
+  private final TaskRequestor taskRequestor;
+
+  /**
+   * The shared taskStatsMap.
+   */
+  private final TaskStatsMap taskStatsMap;
+
+  /**
+   * The shared proxy to task map.
+   */
+  private final ProxyToTaskMap proxyToTaskMap;
+
+  /**
+   * The shared recovery scheduler.
+   */
+  private final RecoveryScheduler recoveryScheduler;
+
+  /**
+   * The load threshold for determining overloaded task.
+   */
+  private final double overloadedTaskLoadThreshold;
+
+  /**
+   * The maximum waiting time for the new task to be registered.
+   */
+  private final long registrationTimeout;
+
+  @Inject
+  private RecoveryBasedScaleOutManager(
+      final TaskRequestor taskRequestor,
+      final TaskStatsMap taskStatsMap,
+      final ProxyToTaskMap proxyToTaskMap,
+      final RecoveryScheduler recoveryScheduler,
+      @Parameter(OverloadedTaskLoadThreshold.class) final double overloadedTaskLoadThreshold,
+      @Parameter(ScaleOutRegistrationTimeout.class) final long registrationTimeout) {
+    this.taskRequestor = taskRequestor;
+    this.taskStatsMap = taskStatsMap;
+    this.proxyToTaskMap = proxyToTaskMap;
+    this.recoveryScheduler = recoveryScheduler;
+    this.overloadedTaskLoadThreshold = overloadedTaskLoadThreshold;
+    this.registrationTimeout = registrationTimeout;
+  }
+
+  /**
+   * Selects the groups to be moved from the overloaded tasks.
+   * The groups of the most overloaded task are considered first, and the groups with higher load are chosen first
+   * until the task is not overloaded anymore.
+   * The total load of the chosen groups is kept below the threshold, so that a single new task could receive them.
+   * @param taskStatsEntries the stats of the tasks
+   * @param overloadedTaskLoadThreshold the load threshold for determining overloaded task
+   * @return the map of a task id and the ids of the groups to be moved from the task
+   */
+  static Map<String, List<String>> selectMovingGroups(final Collection<Map.Entry<String, TaskStats>> taskStatsEntries,
+                                                      final double overloadedTaskLoadThreshold) {
+    final List<Map.Entry<String, TaskStats>> overloadedTasks = new ArrayList<>();
+    for (final Map.Entry<String, TaskStats> entry : taskStatsEntries) {
+      if (entry.getValue().getTaskLoad() > overloadedTaskLoadThreshold) {
+        overloadedTasks.add(entry);
+      }
+    }
+    overloadedTasks.sort((t1, t2) -> Double.compare(t2.getValue().getTaskLoad(), t1.getValue().getTaskLoad()));
+
+    final Map<String, List<String>> movingGroups = new HashMap<>();
+    double totalMovingLoad = 0.0;
+    for (final Map.Entry<String, TaskStats> entry : overloadedTasks) {
+      final List<Map.Entry<String, GroupStats>> groups = new ArrayList<>(
+          entry.getValue().getGroupStatsMap().entrySet());
+      groups.sort((g1, g2) -> Double.compare(g2.getValue().getGroupLoad(), g1.getValue().getGroupLoad()));
+      double taskLoad = entry.getValue().getTaskLoad();
+      final List<String> groupIdList = new ArrayList<>();
+      for (final Map.Entry<String, GroupStats> group : groups) {
+        if (taskLoad <= overloadedTaskLoadThreshold) {
+          break;
+        }
+        final double groupLoad = group.getValue().getGroupLoad();
+        if (totalMovingLoad + groupLoad < overloadedTaskLoadThreshold) {
+          groupIdList.add(group.getKey());
+          taskLoad -= groupLoad;
+          totalMovingLoad += groupLoad;
+        }
+      }
+      if (!groupIdList.isEmpty()) {
+        movingGroups.put(entry.getKey(), groupIdList);
+      }
+    }
+    return movingGroups;
+  }
+
+  /**
+   * Waits until a task which is not in the existing tasks is registered and reachable.
+   * @return the id of the new task, or null if no task is registered within the timeout
+   */
+  private String waitForNewTask(final Set<String> existingTasks,
+                                final long deadline) throws InterruptedException {
+    while (System.currentTimeMillis() < deadline) {
+      for (final String taskId : taskStatsMap.getTaskList()) {
+        if (!existingTasks.contains(taskId) && proxyToTaskMap.get(taskId) != null) {
+          return taskId;
+        }
+      }
+      Thread.sleep(REGISTRATION_CHECK_INTERVAL);
+    }
+    return null;
+  }
+
+  @Override
+  public boolean scaleOut() throws AvroRemoteException, InterruptedException {
+    final Set<String> existingTasks = new HashSet<>(taskStatsMap.getTaskList());
+    final long deadline = System.currentTimeMillis() + registrationTimeout;
+    if (!taskRequestor.setupTaskAndConn(1, registrationTimeout)) {
+      LOG.log(Level.WARNING, "The new task is not allocated within {0} ms", registrationTimeout);
+      return false;
+    }
+    final String newTaskId = waitForNewTask(existingTasks, deadline);
+    if (newTaskId == null) {
+      LOG.log(Level.WARNING, "The new task is not registered within {0} ms", registrationTimeout);
+      return false;
+    }
+    LOG.log(Level.INFO, "Task {0} is added for scaling-out", newTaskId);
+
+    // Checkpoint and remove the groups in the overloaded tasks, and then recover them in the new task.
+    // The total load of the moving groups is below the threshold, so the new task is not overloaded by them.
+    final Map<String, GroupStats> movingGroupStats = new HashMap<>();
+    for (final Map.Entry<String, List<String>> entry
+        : selectMovingGroups(taskStatsMap.entrySet(), overloadedTaskLoadThreshold).entrySet()) {
+      final String taskId = entry.getKey();
+      final MasterToTaskMessage proxyToTask = proxyToTaskMap.get(taskId);
+      final TaskStats taskStats = taskStatsMap.get(taskId);
+      if (proxyToTask == null || taskStats == null) {
+        continue;
+      }
+      final List<String> removedGroupIdList = proxyToTask.checkpointAndRemoveGroups(entry.getValue());
+      LOG.log(Level.INFO, "Groups {0} are removed from task {1}", new Object[]{removedGroupIdList, taskId});
+      for (final String groupId : removedGroupIdList) {
+        final GroupStats groupStats = taskStats.getGroupStatsMap().remove(groupId);
+        if (groupStats != null) {
+          movingGroupStats.put(groupId, groupStats);
+        }
+      }
+    }
+    if (!movingGroupStats.isEmpty()) {
+      recoveryScheduler.recover(movingGroupStats, newTaskId);
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws Exception {
+    // Do nothing.
+  }
+}
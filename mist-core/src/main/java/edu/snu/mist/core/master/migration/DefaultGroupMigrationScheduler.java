@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.master.migration;
+
+import edu.snu.mist.core.master.ProxyToTaskMap;
+import edu.snu.mist.core.master.TaskAddressInfo;
+import edu.snu.mist.core.master.TaskAddressInfoMap;
+import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.migration.parameters.GroupMigrationTimeout;
+import edu.snu.mist.formats.avro.GroupMigrationResult;
+import edu.snu.mist.formats.avro.GroupStats;
+import edu.snu.mist.formats.avro.MasterToTaskMessage;
+import edu.snu.mist.formats.avro.MigrationDestination;
+import edu.snu.mist.formats.avro.TaskStats;
+import org.apache.avro.AvroRemoteException;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The default group migration scheduler.
+ * It asks the source task to start the migration, and waits for the result reported by the source task.
+ */
+public final class DefaultGroupMigrationScheduler implements GroupMigrationScheduler {
+
+  private static final Logger LOG = Logger.getLogger(DefaultGroupMigrationScheduler.class.getName());
+
+  /**
+   * The shared task stats map.
+   */
+  private final TaskStatsMap taskStatsMap;
+
+  /**
+   * The shared proxy to task map.
+   */
+  private final ProxyToTaskMap proxyToTaskMap;
+
+  /**
+   * The shared task address info map.
+   */
+  private final TaskAddressInfoMap taskAddressInfoMap;
+
+  /**
+   * The maximum waiting time for the result of a migration.
+   */
+  private final long migrationTimeout;
+
+  /**
+   * The results of the ongoing migrations.
+   */
+  private final ConcurrentMap<String, CompletableFuture<GroupMigrationResult>> ongoingMigrations;
+
+  @Inject
+  private DefaultGroupMigrationScheduler(
+      final TaskStatsMap taskStatsMap,
+      final ProxyToTaskMap proxyToTaskMap,
+      final TaskAddressInfoMap taskAddressInfoMap,
+      @Parameter(GroupMigrationTimeout.class) final long migrationTimeout) {
+    this.taskStatsMap = taskStatsMap;
+    this.proxyToTaskMap = proxyToTaskMap;
+    this.taskAddressInfoMap = taskAddressInfoMap;
+    this.migrationTimeout = migrationTimeout;
+    this.ongoingMigrations = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public boolean migrate(final String groupId, final String sourceTaskId, final String destinationTaskId)
+      throws AvroRemoteException, InterruptedException {
+    final MasterToTaskMessage proxyToSource = proxyToTaskMap.get(sourceTaskId);
+    final TaskAddressInfo destinationAddress = taskAddressInfoMap.get(destinationTaskId);
+    if (proxyToSource == null || destinationAddress == null) {
+      LOG.log(Level.WARNING, "Cannot migrate group {0} from task {1} to task {2}",
+          new Object[]{groupId, sourceTaskId, destinationTaskId});
+      return false;
+    }
+    final CompletableFuture<GroupMigrationResult> future = new CompletableFuture<>();
+    if (ongoingMigrations.putIfAbsent(groupId, future) != null) {
+      LOG.log(Level.WARNING, "Group {0} is already migrating", groupId);
+      return false;
+    }
+
+    try {
+      final MigrationDestination destination = MigrationDestination.newBuilder()
+          .setTaskId(destinationTaskId)
+          .setTaskHostname(destinationAddress.getHostname())
+          .setMasterToTaskPort(destinationAddress.getMasterToTaskPort())
+          .build();
+      if (!proxyToSource.startGroupMigration(groupId, destination)) {
+        return false;
+      }
+      final GroupMigrationResult result = future.get(migrationTimeout, TimeUnit.MILLISECONDS);
+      LOG.log(Level.INFO, "Migration of group {0} from task {1} to task {2}: success = {3}, pause time = {4} ms",
+          new Object[]{groupId, sourceTaskId, destinationTaskId, result.getIsSuccess(), result.getPauseTime()});
+      if (result.getIsSuccess()) {
+        // The destination task registers the group by itself, so it is only removed from the source task.
+        final TaskStats sourceTaskStats = taskStatsMap.get(sourceTaskId);
+        if (sourceTaskStats != null) {
+          final GroupStats groupStats = sourceTaskStats.getGroupStatsMap().remove(groupId);
+          if (groupStats != null) {
+            sourceTaskStats.setTaskLoad(sourceTaskStats.getTaskLoad() - groupStats.getGroupLoad());
+          }
+        }
+      }
+      return result.getIsSuccess();
+    } catch (final ExecutionException | TimeoutException e) {
+      LOG.log(Level.WARNING, "Migration of group {0} has not finished: {1}", new Object[]{groupId, e.toString()});
+      return false;
+    } finally {
+      ongoingMigrations.remove(groupId);
+    }
+  }
+
+  @Override
+  public void finishMigration(final GroupMigrationResult result) {
+    final CompletableFuture<GroupMigrationResult> future = ongoingMigrations.get(result.getGroupId());
+    if (future != null) {
+      future.complete(result);
+    }
+  }
+}
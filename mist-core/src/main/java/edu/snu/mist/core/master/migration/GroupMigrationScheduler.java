@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.master.migration;
+
+import edu.snu.mist.formats.avro.GroupMigrationResult;
+import org.apache.avro.AvroRemoteException;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+/**
+ * The interface for master-side group migration scheduler,
+ * which moves a running group from a task to another task without checkpointing and recovering it.
+ */
+@DefaultImplementation(DefaultGroupMigrationScheduler.class)
+public interface GroupMigrationScheduler {
+
+  /**
+   * Migrate the group and wait until the migration finishes.
+   * The source task pauses the group, sends its states and queued events to the destination task,
+   * and resumes the group in the destination task.
+   * @param groupId the id of the migrating group
+   * @param sourceTaskId the id of the task which has the group
+   * @param destinationTaskId the id of the task which receives the group
+   * @return true if the group is migrated
+   */
+  boolean migrate(String groupId, String sourceTaskId, String destinationTaskId)
+      throws AvroRemoteException, InterruptedException;
+
+  /**
+   * Notify the result of a migration reported by the source task.
+   * @param result the result of the migration
+   */
+  void finishMigration(GroupMigrationResult result);
+}
@@ -92,6 +92,11 @@ public final class DistributedRecoveryScheduler implements RecoveryScheduler {
    */
   private int recoveryUnitSize;
 
+  /**
+   * The id of the task which recovers all the groups, or null if the groups are distributed.
+   */
+  private volatile String designatedTaskId;
+
   @Inject
   private DistributedRecoveryScheduler(
       final TaskStatsMap taskStatsMap,
@@ -119,6 +124,41 @@ public final class DistributedRecoveryScheduler implements RecoveryScheduler {
     performRecovery(failedGroups);
   }
 
+  @Override
+  public void recover(final Map<String, GroupStats> groups, final String taskId)
+      throws AvroRemoteException, InterruptedException {
+    assert recoveryLock.isHeldByCurrentThread();
+    if (groups.isEmpty()) {
+      return;
+    }
+    final MasterToTaskMessage proxyToTask = proxyToTaskMap.get(taskId);
+    if (proxyToTask == null) {
+      throw new IllegalStateException("There is no proxy to the designated recovery task " + taskId);
+    }
+    LOG.log(Level.INFO, "Start recovery on groups {0} in task {1}", new Object[]{groups.keySet(), taskId});
+    synchronized (this) {
+      recoveryGroups.putAll(groups);
+      designatedTaskId = taskId;
+      isRecoveryOngoing.set(true);
+    }
+    try {
+      proxyToTask.startTaskSideRecovery();
+      conditionLock.lock();
+      try {
+        while (isRecoveryOngoing.get()) {
+          recoveryFinished.await();
+        }
+      } finally {
+        conditionLock.unlock();
+      }
+    } finally {
+      synchronized (this) {
+        designatedTaskId = null;
+        isRecoveryOngoing.set(false);
+      }
+    }
+  }
+
   private void performRecovery(final Map<String, GroupStats> failedGroups)
       throws AvroRemoteException, InterruptedException {
     LOG.log(Level.INFO, "Start distributed recovery on failed groups: {0}", failedGroups.keySet());
@@ -168,6 +208,14 @@ public final class DistributedRecoveryScheduler implements RecoveryScheduler {
       return new ArrayList<>();
     } else {
       final Set<String> allocatedGroups = new HashSet<>();
+      if (designatedTaskId != null) {
+        // The designated task recovers all the groups, as their total load has been checked by the caller.
+        if (designatedTaskId.equals(taskHostname)) {
+          allocatedGroups.addAll(recoveryGroups.keySet());
+          recoveryGroups.clear();
+        }
+        return new ArrayList<>(allocatedGroups);
+      }
       final double vLoad = taskStatsMap.get(taskHostname).getTaskLoad();
       final Iterator<Map.Entry<String, GroupStats>> recoveryGroupIterator = recoveryGroups.entrySet().iterator();
       while (recoveryGroupIterator.hasNext() && vLoad < overloadedTaskThreshold
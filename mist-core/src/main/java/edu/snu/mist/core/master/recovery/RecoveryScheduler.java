@@ -33,6 +33,15 @@ public interface RecoveryScheduler {
    */
   void recover(Map<String, GroupStats> failedGroups) throws AvroRemoteException, InterruptedException;
 
+  /**
+   * Start the recovery process in the designated task and wait until the recovery process finished.
+   * All the groups are recovered in the task regardless of the load of the other tasks.
+   * Note that the thread calling this method should hold the lock - if not, it will throw an exception.
+   * @param groups The information of the groups to be recovered
+   * @param taskId The id of the task which recovers the groups
+   */
+  void recover(Map<String, GroupStats> groups, String taskId) throws AvroRemoteException, InterruptedException;
+
   /**
    * Allocate the recovering groups to the designated MistTask when task requests the list of groups to recover.
    * @param taskHostname
@@ -94,11 +94,22 @@ public final class SingleNodeRecoveryScheduler implements RecoveryScheduler {
     // Check whether current thread is holding a lock.
     assert recoveryLock.isHeldByCurrentThread();
     // Start the recovery process.
-    performRecovery(failedGroups);
+    performRecovery(failedGroups, null);
   }
 
-  private void performRecovery(final Map<String, GroupStats> failedGroups) throws AvroRemoteException,
-      InterruptedException {
+  @Override
+  public void recover(final Map<String, GroupStats> groups, final String taskId)
+      throws AvroRemoteException, InterruptedException {
+    assert recoveryLock.isHeldByCurrentThread();
+    performRecovery(groups, taskId);
+  }
+
+  /**
+   * @param designatedTaskId the id of the task which recovers the groups,
+   *                         or null if the task with the least load recovers them
+   */
+  private void performRecovery(final Map<String, GroupStats> failedGroups,
+                               final String designatedTaskId) throws AvroRemoteException, InterruptedException {
     if (failedGroups.isEmpty()) {
       LOG.log(Level.INFO, "No groups to recover...");
       return;
@@ -112,16 +123,21 @@ public final class SingleNodeRecoveryScheduler implements RecoveryScheduler {
     MasterToTaskMessage proxyToRecoveryTask;
     String recoveryTaskId = "";
     try {
-      // Select the newly allocated task with the least load for recovery
-      double minLoad = Double.MAX_VALUE;
       proxyToRecoveryTask = null;
-      for (final Map.Entry<String, MasterToTaskMessage> entry : proxyToTaskMap.entrySet()) {
-        final String taskId = entry.getKey();
-        final double taskLoad = taskStatsMap.get(taskId).getTaskLoad();
-        if (taskLoad < minLoad) {
-          minLoad = taskLoad;
-          recoveryTaskId = entry.getKey();
-          proxyToRecoveryTask = entry.getValue();
+      if (designatedTaskId != null) {
+        recoveryTaskId = designatedTaskId;
+        proxyToRecoveryTask = proxyToTaskMap.get(designatedTaskId);
+      } else {
+        // Select the newly allocated task with the least load for recovery
+        double minLoad = Double.MAX_VALUE;
+        for (final Map.Entry<String, MasterToTaskMessage> entry : proxyToTaskMap.entrySet()) {
+          final String taskId = entry.getKey();
+          final double taskLoad = taskStatsMap.get(taskId).getTaskLoad();
+          if (taskLoad < minLoad) {
+            minLoad = taskLoad;
+            recoveryTaskId = entry.getKey();
+            proxyToRecoveryTask = entry.getValue();
+          }
         }
       }
       LOG.log(Level.INFO, "Recovery Task ID = {0}", recoveryTaskId);
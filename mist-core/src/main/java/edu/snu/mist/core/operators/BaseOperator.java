@@ -15,8 +15,10 @@
  */
 package edu.snu.mist.core.operators;
 
+import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.OutputEmitter;
 
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -34,4 +36,21 @@ public abstract class BaseOperator implements Operator {
   public void setOutputEmitter(final OutputEmitter emitter) {
     this.outputEmitter = emitter;
   }
+
+  @Override
+  public OutputEmitter getOutputEmitter() {
+    return outputEmitter;
+  }
+
+  /**
+   * Processes the batch one by one.
+   * Operators that can process a batch at once (e.g., stateless operators) override this method.
+   * @param dataList list of data
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> dataList) {
+    for (final MistDataEvent data : dataList) {
+      processLeftData(data);
+    }
+  }
 }
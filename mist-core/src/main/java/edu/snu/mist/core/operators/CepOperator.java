@@ -23,18 +23,26 @@ import edu.snu.mist.common.cep.CepEventContiguity;
 import edu.snu.mist.common.cep.CepEventPattern;
 import edu.snu.mist.core.operators.parameters.CepEventPatterns;
 import edu.snu.mist.core.operators.parameters.WindowTime;
-import edu.snu.mist.common.types.Tuple2;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * This operator applies complex event pattern to the the data received and emit the matched patterns.
+ * The event pattern list is compiled into an NFA whose states are the event patterns.
+ * Each partial match (run) points the last node of a shared match buffer,
+ * in which a node has an event, the state of the event, and the pointer to the previous node.
+ * Runs that branch from the same partial match share the nodes of the common prefix,
+ * so advancing a run does not copy the matched events,
+ * and the output is materialized only when a run reaches a final state.
  * @param <T> the type of user-defined event
  */
 public final class CepOperator<T> extends OneStreamOperator {
@@ -55,16 +63,25 @@ public final class CepOperator<T> extends OneStreamOperator {
   private final int minFinalStateIndex;
 
   /**
-   * For each state, calculate min state's index and max state's index to proceed.
+   * For each state, min state's index and max state's index to proceed.
    * The proceed index of state 1 in following example is (1, 4).
    * 1(loop)---2(optional)---3(optional)---4
+   * The index is -1 if there is no state to proceed.
    */
-  private final List<Tuple2<Integer, Integer>> proceedIndexList;
+  private final int[] minProceedIndex;
+  private final int[] maxProceedIndex;
 
   /**
-   * List of event stacks which are the candidates of matched pattern until current input.
+   * Runs which are the candidates of matched pattern until current input.
+   * The runs are ordered by the first event time only if the inputs are ordered by timestamp,
+   * so the timed out runs are searched in all the runs.
    */
-  private final List<EventStack<T>> matchedEventStackList;
+  private List<CepRun<T>> runs;
+
+  /**
+   * A reusable list for the runs after processing the current input.
+   */
+  private List<CepRun<T>> nextRuns;
 
   /**
    * Window time of cep query.
@@ -97,7 +114,8 @@ public final class CepOperator<T> extends OneStreamOperator {
 
     // Set window time.
     this.windowTime = windowTime;
-    this.matchedEventStackList = new ArrayList<>();
+    this.runs = new ArrayList<>();
+    this.nextRuns = new ArrayList<>();
 
     // Find minimum index of final state.
     for (int eventIndex = eventPatternList.size() - 1; true; eventIndex--) {
@@ -110,8 +128,9 @@ public final class CepOperator<T> extends OneStreamOperator {
       }
     }
 
-    // Initialize proceed index list.
-    this.proceedIndexList = new ArrayList<>();
+    // Initialize proceed indices.
+    this.minProceedIndex = new int[eventPatternList.size()];
+    this.maxProceedIndex = new int[eventPatternList.size()];
     for (int eventIndex = 0; eventIndex < eventPatternList.size(); eventIndex++) {
       int minIndex;
       int maxIndex;
@@ -143,8 +162,8 @@ public final class CepOperator<T> extends OneStreamOperator {
       } else if (maxIndex >= eventPatternList.size()) {
         maxIndex = minIndex;
       }
-      final Tuple2<Integer, Integer> proceedIndexTup = new Tuple2<>(minIndex, maxIndex);
-      this.proceedIndexList.add(proceedIndexTup);
+      this.minProceedIndex[eventIndex] = minIndex;
+      this.maxProceedIndex[eventIndex] = maxIndex;
     }
   }
 
@@ -154,190 +173,197 @@ public final class CepOperator<T> extends OneStreamOperator {
     final T input = (T) data.getValue();
     final long timeStamp = data.getTimestamp();
 
-    // Save the index of delete stack.
-    final List<EventStack<T>> newMatchedEventStackList = new ArrayList<>();
-    for (int iterStackIndex = 0; iterStackIndex < matchedEventStackList.size(); iterStackIndex++) {
-      final EventStack<T> stack = matchedEventStackList.get(iterStackIndex);
+    // Discard the runs that are timed out.
+    pruneTimedOutRuns(timeStamp);
 
-      // Flag whether discard original event stack or not.
-      boolean isDiscard = true;
+    nextRuns.clear();
+    for (final CepRun<T> run : runs) {
 
-      if (stack.getFirstEventTime() + windowTime >= timeStamp) {
-        final int stateIndex = stack.getStack().peek().getIndex();
-        final int minProceedIndex = (int) proceedIndexList.get(stateIndex).get(0);
-        final int maxProceedIndex = (int) proceedIndexList.get(stateIndex).get(1);
+      // Flag whether discard original run or not.
+      boolean isDiscard = true;
 
-        // Current state is final state and has no transition condition.
-        if (minProceedIndex == -1 && maxProceedIndex == -1) {
-          continue;
-        }
+      final int stateIndex = run.stateIndex;
+      final int minIndex = minProceedIndex[stateIndex];
+      final int maxIndex = maxProceedIndex[stateIndex];
 
-        // Current state.
-        final CepEventPattern<T> currEventPattern = eventPatternList.get(stateIndex);
+      // Current state is final state and has no transition condition.
+      if (minIndex == -1 && maxIndex == -1) {
+        continue;
+      }
 
-        for (int proceedIndex = minProceedIndex; proceedIndex <= maxProceedIndex; proceedIndex++) {
+      // Current state.
+      final CepEventPattern<T> currEventPattern = eventPatternList.get(stateIndex);
 
-          // If the current state is loop state.
-          if (proceedIndex == stateIndex && proceedIndex != 0) {
-            if (currEventPattern.isRepeated() && !stack.getStack().peek().isStopped()) {
+      for (int proceedIndex = minIndex; proceedIndex <= maxIndex; proceedIndex++) {
 
-              // Current looping state's iteration times.
-              final int times = stack.getStack().peek().getlist().size();
+        // If the current state is loop state.
+        if (proceedIndex == stateIndex && proceedIndex != 0) {
+          if (currEventPattern.isRepeated()) {
 
-              // Stop condition is triggered.
-              if (currEventPattern.getStopCondition().test(input)) {
-                stack.getStack().peek().setStopped();
+            // Current looping state's iteration times.
+            final int times = run.times;
 
-                // If the current event does not satisfy the min times, continue the iteration.
-                if (times < currEventPattern.getMinRepetition()) {
-                  continue;
-                }
+            // Stop condition is triggered, so the run cannot stay at the current state with this input.
+            if (currEventPattern.getStopCondition().test(input)) {
+              continue;
 
-              } else if (currEventPattern.getCondition().test(input)) {
-                // If the current continguity is strict, but the stack does not include the last event,
-                // then it would be eliminated.
-                if (currEventPattern.getInnerContiguity() == CepEventContiguity.STRICT
-                    && !stack.isIncludingLast()) {
-                  continue;
-                }
+            } else if (currEventPattern.getCondition().test(input)) {
+              // If the current continguity is strict, but the run does not include the last event,
+              // then it would be eliminated.
+              if (currEventPattern.getInnerContiguity() == CepEventContiguity.STRICT
+                  && !run.includeLast) {
+                continue;
+              }
 
-                // If current entry satisfies times condition.
-                if (currEventPattern.getMaxRepetition() == -1
-                    || times < currEventPattern.getMaxRepetition()) {
-                  final EventStack<T> newStack = new EventStack<>(stack.getFirstEventTime());
-                  newStack.setStack(stack.deepCopy().getStack());
-                  newStack.getStack().peek().addEvent(input);
-                  newMatchedEventStackList.add(newStack);
-
-                  // Emit the final state's stack.
-                  if (proceedIndex >= minFinalStateIndex && newStack.isEmitted()) {
-                    emit(data, newStack);
-                  }
-
-                  // If the current contiguity is NDR, then the stack should not be discarded.
-                  if (currEventPattern.getInnerContiguity()
-                      == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
-                    isDiscard = false;
-                  }
-                }
+              // If current entry satisfies times condition.
+              if (currEventPattern.getMaxRepetition() == -1
+                  || times < currEventPattern.getMaxRepetition()) {
+                final CepRun<T> newRun = new CepRun<>(run.firstEventTime, stateIndex, times + 1,
+                    new CepMatchNode<>(input, stateIndex, run.lastNode));
+                nextRuns.add(newRun);
 
-                // If the current input does not satisfy the transition condition.
-              } else {
-                if (currEventPattern.getInnerContiguity() == CepEventContiguity.STRICT) {
-                  stack.getStack().peek().setStopped();
+                // Emit the final state's run.
+                if (proceedIndex >= minFinalStateIndex) {
+                  emit(data, newRun);
                 }
 
-                // If transition condition of relaxed contiguity is not satisfied,
-                // the current original stack should not be discarded.
-                if (currEventPattern.getInnerContiguity() == CepEventContiguity.RELAXED ||
-                    currEventPattern.getInnerContiguity()
-                        == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+                // If the current contiguity is NDR, then the run should not be discarded.
+                if (currEventPattern.getInnerContiguity()
+                    == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
                   isDiscard = false;
                 }
               }
+
+              // If the current input does not satisfy the transition condition.
+            } else {
+              // If transition condition of relaxed contiguity is not satisfied,
+              // the current original run should not be discarded.
+              if (currEventPattern.getInnerContiguity() == CepEventContiguity.RELAXED ||
+                  currEventPattern.getInnerContiguity()
+                      == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+                isDiscard = false;
+              }
             }
-          } else {
-            final CepEventPattern<T> cepEventPattern = eventPatternList.get(proceedIndex);
-            final int times = stack.getStack().peek().getlist().size();
+          }
+        } else {
+          final CepEventPattern<T> cepEventPattern = eventPatternList.get(proceedIndex);
 
-            if (cepEventPattern.getCondition().test(input)) {
+          if (cepEventPattern.getCondition().test(input)) {
 
-              // If the current continguity is strict, but the stack does not include the last event,
-              // then it would be eliminated.
-              if (cepEventPattern.getContiguity() == CepEventContiguity.STRICT
-                  && !stack.isIncludingLast()) {
-                continue;
-              }
+            // If the current continguity is strict, but the run does not include the last event,
+            // then it would be eliminated.
+            if (cepEventPattern.getContiguity() == CepEventContiguity.STRICT
+                && !run.includeLast) {
+              continue;
+            }
 
-              final EventStack<T> newStack = new EventStack<>(stack.getFirstEventTime());
-              newStack.setStack(stack.deepCopy().getStack());
-              final EventStackEntry<T> newEntry = new EventStackEntry<>(proceedIndex);
-              newEntry.addEvent(input);
-              newStack.getStack().push(newEntry);
-              newMatchedEventStackList.add(newStack);
+            final CepRun<T> newRun = new CepRun<>(run.firstEventTime, proceedIndex, 1,
+                new CepMatchNode<>(input, proceedIndex, run.lastNode));
+            nextRuns.add(newRun);
 
-              // Emit the stack at the final state.
-              if (proceedIndex >= minFinalStateIndex) {
-                emit(data, newStack);
-              }
-              // Do not discard the stack of ndr contiguity.
-              if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
-                isDiscard = false;
-              }
-            } else {
-              // If transition condition of ndr contiguity is not satisfied,
-              // the current original stack should not be discarded.
-              if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
-                isDiscard = false;
-              }
+            // Emit the run at the final state.
+            if (proceedIndex >= minFinalStateIndex) {
+              emit(data, newRun);
+            }
+            // Do not discard the run of ndr contiguity.
+            if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+              isDiscard = false;
+            }
+          } else {
+            // If transition condition of ndr contiguity is not satisfied,
+            // the current original run should not be discarded.
+            if (cepEventPattern.getContiguity() == CepEventContiguity.NON_DETERMINISTIC_RELAXED) {
+              isDiscard = false;
             }
           }
         }
       }
 
-      // Check whether current stack should be discard or not.
+      // Check whether current run should be discard or not.
+      // The run does not change afterwards, so it is kept without copying.
       if (!isDiscard) {
-        final EventStack<T> newStack = stack.deepCopy();
-        newStack.setIncludeLast(false);
-        if (!stack.isEmitted()) {
-          newStack.setAlreadyEmitted();
-        }
-        newMatchedEventStackList.add(newStack);
+        run.includeLast = false;
+        nextRuns.add(run);
       }
     }
 
 
     // The condition for initial state to first state.
-    final int minProceedIndex = (int) proceedIndexList.get(0).get(0);
-    final int maxProceedIndex = (int) proceedIndexList.get(0).get(1);
-    for (int proceedIndex = minProceedIndex; proceedIndex <= maxProceedIndex; proceedIndex++) {
+    for (int proceedIndex = minProceedIndex[0]; proceedIndex <= maxProceedIndex[0]; proceedIndex++) {
       final CepEventPattern<T> cepEventPattern = eventPatternList.get(proceedIndex);
       if (cepEventPattern.getCondition().test(input)) {
-        final EventStack<T> newStack = new EventStack<>(timeStamp);
-        final EventStackEntry<T> newEntry = new EventStackEntry<>(proceedIndex);
-        newEntry.addEvent(input);
-        newStack.getStack().push(newEntry);
-        newMatchedEventStackList.add(newStack);
+        final CepRun<T> newRun = new CepRun<>(timeStamp, proceedIndex, 1,
+            new CepMatchNode<>(input, proceedIndex, null));
+        nextRuns.add(newRun);
 
-        // If final state, emit the stack.
+        // If final state, emit the run.
         if (proceedIndex >= minFinalStateIndex) {
-          emit(data, newStack);
+          emit(data, newRun);
         }
       }
     }
 
-    // Update matched event stack list.
-    matchedEventStackList.clear();
-    matchedEventStackList.addAll(newMatchedEventStackList);
+    // Update the runs.
+    final List<CepRun<T>> tmp = runs;
+    runs = nextRuns;
+    nextRuns = tmp;
+    nextRuns.clear();
   }
 
   @Override
   public void processLeftWatermark(final MistWatermarkEvent input) {
+    // The runs that are timed out before the watermark cannot be matched by the following inputs.
+    pruneTimedOutRuns(input.getTimestamp());
     outputEmitter.emitWatermark(input);
   }
 
   /**
-   * Emit the event stack which is in final state.
-   * @param input      current mist data event
-   * @param eventStack event stack
+   * Discard all the runs whose window ends before the time.
+   * @param time current event time
    */
-  private void emit(final MistDataEvent input, final EventStack<T> eventStack) {
+  private void pruneTimedOutRuns(final long time) {
+    int numRuns = 0;
+    for (int runIndex = 0; runIndex < runs.size(); runIndex++) {
+      final CepRun<T> run = runs.get(runIndex);
+      if (run.firstEventTime + windowTime >= time) {
+        runs.set(numRuns, run);
+        numRuns++;
+      }
+    }
+    runs.subList(numRuns, runs.size()).clear();
+  }
+
+  /**
+   * Emit the run which is in final state.
+   * The output is materialized by following the nodes of the match buffer.
+   * @param input current mist data event
+   * @param run   run at the final state
+   */
+  private void emit(final MistDataEvent input, final CepRun<T> run) {
 
-    final Map<String, List<T>> output = new HashMap<>();
     final long timeStamp = input.getTimestamp();
 
-    // Check whether current event stack satisfies the loop condition.
-    final int finalStateIndex = eventStack.getStack().peek().getIndex();
-    final EventStackEntry<T> finalEntry = eventStack.getStack().peek();
-    final int times = finalEntry.getlist().size();
-    final CepEventPattern<T> finalState = eventPatternList.get(finalStateIndex);
+    // Check whether current run satisfies the loop condition.
+    final int times = run.times;
+    final CepEventPattern<T> finalState = eventPatternList.get(run.stateIndex);
     if (!finalState.isRepeated()
         || (times >= finalState.getMinRepetition()
         && (finalState.getMaxRepetition() == -1 || times <= finalState.getMaxRepetition()))) {
 
       // Make an output data.
-      for (final EventStackEntry<T> iterEntry : eventStack.getStack()) {
-        output.put(eventPatternList.get(iterEntry.getIndex()).getEventPatternName(), iterEntry.getlist());
+      // The nodes are visited in the reverse order, so the event lists are reversed at the end.
+      final Map<String, List<T>> output = new HashMap<>();
+      for (CepMatchNode<T> node = run.lastNode; node != null; node = node.previous) {
+        final String name = eventPatternList.get(node.stateIndex).getEventPatternName();
+        List<T> events = output.get(name);
+        if (events == null) {
+          events = new ArrayList<>();
+          output.put(name, events);
+        }
+        events.add(node.event);
+      }
+      for (final List<T> events : output.values()) {
+        Collections.reverse(events);
       }
 
       if (LOG.isLoggable(Level.FINE)) {
@@ -345,7 +371,6 @@ public final class CepOperator<T> extends OneStreamOperator {
             new Object[]{this.getClass().getName(), input, output});
       }
       outputEmitter.emitData(new MistDataEvent(output, timeStamp));
-      eventStack.setAlreadyEmitted();
     }
   }
 
@@ -353,4 +378,61 @@ public final class CepOperator<T> extends OneStreamOperator {
   public void processLeftCheckpoint(final MistCheckpointEvent input) {
     outputEmitter.emitCheckpoint(input);
   }
-}
\ No newline at end of file
+
+  /**
+   * A node of the shared match buffer.
+   * The nodes are immutable, so they are shared by the runs that have the same prefix.
+   */
+  private static final class CepMatchNode<T> {
+    private final T event;
+    private final int stateIndex;
+    private final CepMatchNode<T> previous;
+
+    CepMatchNode(final T event, final int stateIndex, final CepMatchNode<T> previous) {
+      this.event = event;
+      this.stateIndex = stateIndex;
+      this.previous = previous;
+    }
+  }
+
+  /**
+   * A partial match of the pattern.
+   */
+  private static final class CepRun<T> {
+    /**
+     * The first event time to discard timed out runs.
+     */
+    private final long firstEventTime;
+
+    /**
+     * The current state.
+     */
+    private final int stateIndex;
+
+    /**
+     * The number of events at the current state.
+     */
+    private final int times;
+
+    /**
+     * The last node of this run.
+     */
+    private final CepMatchNode<T> lastNode;
+
+    /**
+     * Checks whether this run includes the last event or not.
+     */
+    private boolean includeLast;
+
+    CepRun(final long firstEventTime,
+           final int stateIndex,
+           final int times,
+           final CepMatchNode<T> lastNode) {
+      this.firstEventTime = firstEventTime;
+      this.stateIndex = stateIndex;
+      this.times = times;
+      this.lastNode = lastNode;
+      this.includeLast = true;
+    }
+  }
+}
@@ -25,6 +25,8 @@ import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,6 +42,11 @@ public final class FilterOperator<I> extends OneStreamOperator {
    */
   private final MISTPredicate<I> filterFunc;
 
+  /**
+   * A reusable buffer for the filtered batch.
+   */
+  private final List<MistDataEvent> filteredBatch;
+
   @Inject
   private FilterOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
@@ -50,6 +57,14 @@ public final class FilterOperator<I> extends OneStreamOperator {
   @Inject
   public FilterOperator(final MISTPredicate<I> filterFunc) {
     this.filterFunc = filterFunc;
+    this.filteredBatch = new ArrayList<>();
+  }
+
+  /**
+   * @return the filter function
+   */
+  public MISTPredicate<I> getFilterFunc() {
+    return filterFunc;
   }
 
   /**
@@ -69,6 +84,28 @@ public final class FilterOperator<I> extends OneStreamOperator {
     }
   }
 
+  /**
+   * Filters the batch and emits the passed inputs as a batch.
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> dataList) {
+    filteredBatch.clear();
+    for (final MistDataEvent input : dataList) {
+      if (filterFunc.test((I)input.getValue())) {
+        filteredBatch.add(input);
+      }
+    }
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} Filters {1}", new Object[]{FilterOperator.class, filteredBatch});
+    }
+
+    if (!filteredBatch.isEmpty()) {
+      outputEmitter.emitDataBatch(filteredBatch);
+    }
+    filteredBatch.clear();
+  }
+
   @Override
   public void processLeftWatermark(final MistWatermarkEvent input) {
     outputEmitter.emitWatermark(input);
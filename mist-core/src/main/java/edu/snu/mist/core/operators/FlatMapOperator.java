@@ -25,6 +25,7 @@ import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -40,6 +41,11 @@ public final class FlatMapOperator<I, O> extends OneStreamOperator {
    */
   private final MISTFunction<I, List<O>> flatMapFunc;
 
+  /**
+   * A reusable buffer for the flattened batch.
+   */
+  private final List<MistDataEvent> flattenedBatch;
+
   @Inject
   private FlatMapOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
@@ -50,6 +56,7 @@ public final class FlatMapOperator<I, O> extends OneStreamOperator {
   @Inject
   public FlatMapOperator(final MISTFunction<I, List<O>> flatMapFunc) {
     this.flatMapFunc = flatMapFunc;
+    this.flattenedBatch = new ArrayList<>();
   }
 
 
@@ -68,10 +75,36 @@ public final class FlatMapOperator<I, O> extends OneStreamOperator {
 
     for (final O output : outputs) {
       final MistDataEvent event = new MistDataEvent(output, input.getTimestamp());
+      event.setIngestionTime(input.getIngestionTime());
       outputEmitter.emitData(event);
     }
   }
 
+  /**
+   * FlatMaps the batch and emits all the outputs as a batch.
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> dataList) {
+    flattenedBatch.clear();
+    for (final MistDataEvent input : dataList) {
+      for (final O output : flatMapFunc.apply((I)input.getValue())) {
+        final MistDataEvent event = new MistDataEvent(output, input.getTimestamp());
+        event.setIngestionTime(input.getIngestionTime());
+        flattenedBatch.add(event);
+      }
+    }
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} FlatMaps a batch to {1}",
+          new Object[]{FlatMapOperator.class, flattenedBatch});
+    }
+
+    if (!flattenedBatch.isEmpty()) {
+      outputEmitter.emitDataBatch(flattenedBatch);
+    }
+    flattenedBatch.clear();
+  }
+
   @Override
   public void processLeftWatermark(final MistWatermarkEvent input) {
     outputEmitter.emitWatermark(input);
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.codegen.PipelineGenerator;
+import edu.snu.mist.core.operators.codegen.PipelineStage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This operator applies a chain of stateless operations (map, filter and flatMap) back-to-back.
+ * The values are passed between the user-defined functions directly,
+ * so no intermediate events and output emitters are created for the chain.
+ * An input event is reused for its output unless the chain has flatMaps, which create new events as FlatMapOperator.
+ * The operations can be applied by a pipeline that is specialized for the functions, instead of the interpretation.
+ */
+public final class FusedOperator extends OneStreamOperator {
+  private static final Logger LOG = Logger.getLogger(FusedOperator.class.getName());
+
+  /**
+   * The types of the operations. They are one of MAP, FILTER and FLAT_MAP.
+   */
+  private final ConfValues.OperatorType[] types;
+
+  /**
+   * The user-defined functions of the operations.
+   */
+  private final Object[] udfs;
+
+  /**
+   * A reusable buffer for the outputs.
+   */
+  private final List<MistDataEvent> outputs;
+
+  /**
+   * The specialized pipeline of the operations, or null if the operations are interpreted.
+   */
+  private final PipelineStage pipeline;
+
+  /**
+   * @param types the types of the operations in the order of application
+   * @param udfs the user-defined functions of the operations
+   */
+  public FusedOperator(final List<ConfValues.OperatorType> types,
+                       final List<Object> udfs) {
+    this(types, udfs, false);
+  }
+
+  /**
+   * @param types the types of the operations in the order of application
+   * @param udfs the user-defined functions of the operations
+   * @param generatePipeline true if a specialized pipeline is generated for the operations
+   */
+  public FusedOperator(final List<ConfValues.OperatorType> types,
+                       final List<Object> udfs,
+                       final boolean generatePipeline) {
+    if (types.size() != udfs.size() || types.isEmpty()) {
+      throw new IllegalArgumentException("Invalid operations: " + types);
+    }
+    for (final ConfValues.OperatorType type : types) {
+      if (type != ConfValues.OperatorType.MAP && type != ConfValues.OperatorType.FILTER
+          && type != ConfValues.OperatorType.FLAT_MAP) {
+        throw new IllegalArgumentException("Stateful operations cannot be fused: " + type);
+      }
+    }
+    this.types = types.toArray(new ConfValues.OperatorType[types.size()]);
+    this.udfs = udfs.toArray();
+    this.outputs = new ArrayList<>();
+    this.pipeline = generatePipeline ? generatePipeline(types, udfs, outputs) : null;
+  }
+
+  /**
+   * Generates a specialized pipeline, or returns null if it fails so that the operations are interpreted.
+   */
+  private static PipelineStage generatePipeline(final List<ConfValues.OperatorType> types,
+                                                final List<Object> udfs,
+                                                final List<MistDataEvent> outputs) {
+    try {
+      return PipelineGenerator.generate(types, udfs, outputs);
+    } catch (final Exception e) {
+      LOG.log(Level.WARNING, "Failed to generate a pipeline for " + types + ", so it is interpreted", e);
+      return null;
+    }
+  }
+
+  /**
+   * @return true if the operations are applied by a specialized pipeline
+   */
+  public boolean isPipelineGenerated() {
+    return pipeline != null;
+  }
+
+  /**
+   * Applies all the operations to the input and adds the output events to the outputs.
+   */
+  private void apply(final MistDataEvent input) {
+    final int numPrevOutputs = outputs.size();
+    if (pipeline != null) {
+      pipeline.accept(input.getValue(), input, input.getTimestamp());
+    } else {
+      apply(input.getValue(), 0, input, input.getTimestamp());
+    }
+    // The events created by flat map operations take the ingestion time of the input
+    for (int i = numPrevOutputs; i < outputs.size(); i++) {
+      outputs.get(i).setIngestionTime(input.getIngestionTime());
+    }
+  }
+
+  /**
+   * @return the predicate of the first operation if it is a filter, otherwise null
+   */
+  public MISTPredicate<?> getLeadingFilterFunc() {
+    return types[0] == ConfValues.OperatorType.FILTER ? (MISTPredicate<?>) udfs[0] : null;
+  }
+
+  /**
+   * Applies the operations from the index to the value and adds the output events to the outputs.
+   * @param value the value
+   * @param from the index of the first operation to apply
+   * @param input the input event that can be reused for the output, or null if a new event should be created
+   * @param timestamp the timestamp of the input
+   */
+  private void apply(final Object value, final int from, final MistDataEvent input, final long timestamp) {
+    Object current = value;
+    for (int i = from; i < types.length; i++) {
+      switch (types[i]) {
+        case MAP:
+          current = ((MISTFunction) udfs[i]).apply(current);
+          break;
+        case FILTER:
+          if (!((MISTPredicate) udfs[i]).test(current)) {
+            return;
+          }
+          break;
+        default:
+          for (final Object output : (List) ((MISTFunction) udfs[i]).apply(current)) {
+            apply(output, i + 1, null, timestamp);
+          }
+          return;
+      }
+    }
+    if (input == null) {
+      outputs.add(new MistDataEvent(current, timestamp));
+    } else {
+      input.setValue(current);
+      outputs.add(input);
+    }
+  }
+
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    outputs.clear();
+    apply(input);
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} processes {1} to {2}", new Object[]{FusedOperator.class, input, outputs});
+    }
+
+    for (final MistDataEvent output : outputs) {
+      outputEmitter.emitData(output);
+    }
+    outputs.clear();
+  }
+
+  /**
+   * Applies the operations to the batch and emits all the outputs as a batch.
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> dataList) {
+    outputs.clear();
+    for (final MistDataEvent input : dataList) {
+      apply(input);
+    }
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} processes a batch to {1}", new Object[]{FusedOperator.class, outputs});
+    }
+
+    if (!outputs.isEmpty()) {
+      outputEmitter.emitDataBatch(outputs);
+    }
+    outputs.clear();
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent input) {
+    outputEmitter.emitWatermark(input);
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent input) {
+    outputEmitter.emitCheckpoint(input);
+  }
+}
@@ -20,6 +20,7 @@ import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTBiPredicate;
+import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.core.operators.parameters.SerializedUdf;
 import edu.snu.mist.common.types.Tuple2;
 import edu.snu.mist.common.windows.WindowData;
@@ -28,15 +29,21 @@ import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * This operator joins a pair of inputs in two streams that satisfies the user-defined predicate maintaining the window.
  * The two input stream has been unified to a form of Tuple2 that has data at one side and has null at the other side.
+ * If key extracting functions are given instead of the predicate, it joins the inputs that have the same key
+ * by building a hash table on the smaller side and probing it with the other side.
  * @param <T> the type of the first input stream data
  * @param <U> the type of the second input stream data
  */
@@ -48,24 +55,120 @@ public final class JoinOperator<T, U> extends OneStreamOperator {
    */
   private final MISTBiPredicate<T, U> joinBiPredicate;
 
+  /**
+   * The function that extracts the join key from the first input, or null if the predicate is used.
+   */
+  private final MISTFunction<T, ?> firstKeyFunc;
+
+  /**
+   * The function that extracts the join key from the second input, or null if the predicate is used.
+   */
+  private final MISTFunction<U, ?> secondKeyFunc;
+
   @Inject
   private JoinOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
       final ClassLoader classLoader) throws IOException, ClassNotFoundException {
-    this(SerializeUtils.deserializeFromString(serializedObject, classLoader));
+    this((MISTBiPredicate<T, U>) SerializeUtils.deserializeFromString(serializedObject, classLoader));
   }
 
   @Inject
   public JoinOperator(final MISTBiPredicate<T, U> joinBiPredicate) {
     this.joinBiPredicate = joinBiPredicate;
+    this.firstKeyFunc = null;
+    this.secondKeyFunc = null;
+  }
+
+  /**
+   * Creates an equi-join operator.
+   * @param firstKeyFunc the function that extracts the join key from the first input
+   * @param secondKeyFunc the function that extracts the join key from the second input
+   */
+  public JoinOperator(final MISTFunction<T, ?> firstKeyFunc,
+                      final MISTFunction<U, ?> secondKeyFunc) {
+    this.joinBiPredicate = null;
+    this.firstKeyFunc = firstKeyFunc;
+    this.secondKeyFunc = secondKeyFunc;
+  }
+
+  /**
+   * Tests the inputs with user-defined predicate.
+   */
+  private void nestedLoopJoin(final Collection<T> firstInputList,
+                              final Collection<U> secondInputList,
+                              final Collection<Tuple2<T, U>> outputList) {
+    final Iterator<T> firstInputIterator = firstInputList.iterator();
+    while (firstInputIterator.hasNext()) {
+      final T firstInput = firstInputIterator.next();
+      final Iterator<U> secondInputIterator = secondInputList.iterator();
+      while (secondInputIterator.hasNext()) {
+        final U secondInput = secondInputIterator.next();
+        if (joinBiPredicate.test(firstInput, secondInput)) {
+          outputList.add(new Tuple2<>(firstInput, secondInput));
+        }
+      }
+    }
+  }
+
+  /**
+   * Joins the inputs that have the same key with a hash table built on the smaller side.
+   * The outputs have the same order as the nested loop join.
+   */
+  private void hashJoin(final List<T> firstInputList,
+                        final List<U> secondInputList,
+                        final Collection<Tuple2<T, U>> outputList) {
+    if (secondInputList.size() <= firstInputList.size()) {
+      // Builds the hash table on the second inputs and probes it with the first inputs
+      final Map<Object, List<U>> hashTable = new HashMap<>();
+      for (final U secondInput : secondInputList) {
+        hashTable.computeIfAbsent(secondKeyFunc.apply(secondInput), k -> new ArrayList<>()).add(secondInput);
+      }
+      for (final T firstInput : firstInputList) {
+        final List<U> matches = hashTable.get(firstKeyFunc.apply(firstInput));
+        if (matches != null) {
+          for (final U secondInput : matches) {
+            outputList.add(new Tuple2<>(firstInput, secondInput));
+          }
+        }
+      }
+    } else {
+      // Builds the hash table on the first inputs and probes it with the second inputs
+      final Map<Object, List<Integer>> hashTable = new HashMap<>();
+      for (int i = 0; i < firstInputList.size(); i++) {
+        hashTable.computeIfAbsent(firstKeyFunc.apply(firstInputList.get(i)), k -> new ArrayList<>()).add(i);
+      }
+      final List<List<U>> matchesOfFirstInputs = new ArrayList<>(firstInputList.size());
+      for (int i = 0; i < firstInputList.size(); i++) {
+        matchesOfFirstInputs.add(null);
+      }
+      for (final U secondInput : secondInputList) {
+        final List<Integer> matches = hashTable.get(secondKeyFunc.apply(secondInput));
+        if (matches != null) {
+          for (final int index : matches) {
+            if (matchesOfFirstInputs.get(index) == null) {
+              matchesOfFirstInputs.set(index, new ArrayList<>());
+            }
+            matchesOfFirstInputs.get(index).add(secondInput);
+          }
+        }
+      }
+      for (int i = 0; i < firstInputList.size(); i++) {
+        final List<U> matches = matchesOfFirstInputs.get(i);
+        if (matches != null) {
+          for (final U secondInput : matches) {
+            outputList.add(new Tuple2<>(firstInputList.get(i), secondInput));
+          }
+        }
+      }
+    }
   }
 
   @Override
   public void processLeftData(final MistDataEvent input) {
     try {
       final WindowData<Tuple2<T, U>> windowData = (WindowData)input.getValue();
-      final Collection<T> firstInputList = new LinkedList<>();
-      final Collection<U> secondInputList = new LinkedList<>();
+      final List<T> firstInputList = new ArrayList<>();
+      final List<U> secondInputList = new ArrayList<>();
       final Collection<Tuple2<T, U>> outputList = new LinkedList<>();
 
       // Classifies input collection into two input data lists
@@ -79,17 +182,10 @@ public final class JoinOperator<T, U> extends OneStreamOperator {
         }
       }
 
-      // Tests the inputs with user-defined predicate
-      final Iterator<T> firstInputIterator = firstInputList.iterator();
-      while (firstInputIterator.hasNext()) {
-        final T firstInput = firstInputIterator.next();
-        final Iterator<U> secondInputIterator = secondInputList.iterator();
-        while (secondInputIterator.hasNext()) {
-          final U secondInput = secondInputIterator.next();
-          if (joinBiPredicate.test(firstInput, secondInput)) {
-            outputList.add(new Tuple2<>(firstInput, secondInput));
-          }
-        }
+      if (joinBiPredicate != null) {
+        nestedLoopJoin(firstInputList, secondInputList, outputList);
+      } else {
+        hashJoin(firstInputList, secondInputList, outputList);
       }
 
       // Emits windowed data
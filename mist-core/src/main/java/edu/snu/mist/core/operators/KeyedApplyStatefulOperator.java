@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.ObjenesisInstantiationStrategy;
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.keyed.KeyedState;
+import edu.snu.mist.core.operators.keyed.KeyedStateUtils;
+import edu.snu.mist.core.operators.keyed.KeyedTimers;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This operator applies the user-defined stateful operation to the inputs of each key separately.
+ * Only the state of the function (ApplyStatefulFunction.getCurrentState()) is kept per key,
+ * and the function is switched to the state of the input key before it is updated,
+ * so a single keyed query can replace the queries that apply the same operation to the inputs of each key.
+ * The state of a key is evicted if the key has no input during the idle timeout.
+ * The function is initialized only once, and each new key starts from a deep copy of the initial state,
+ * so the keys never share a mutable state even if initialize() reuses or clears the previous state object.
+ * The function should keep the object given by setFunctionState() as its state, and return it by getCurrentState().
+ * @param <K> the type of key
+ * @param <IN> the type of input data
+ * @param <OUT> the type of output data
+ */
+public final class KeyedApplyStatefulOperator<K, IN, OUT> extends OneStreamStateHandlerOperator {
+
+  private static final Logger LOG = Logger.getLogger(KeyedApplyStatefulOperator.class.getName());
+
+  /**
+   * The function that extracts the key from the input.
+   */
+  private final MISTFunction<IN, K> keyFunc;
+
+  /**
+   * The user-defined ApplyStatefulFunction.
+   */
+  private final ApplyStatefulFunction<IN, OUT> applyStatefulFunction;
+
+  /**
+   * The class of key, or null if it is unknown.
+   */
+  private final Class<?> keyType;
+
+  /**
+   * The idle timeout of the keys. The keys are never evicted if it is not positive.
+   */
+  private final long idleTimeout;
+
+  /**
+   * The states of the keys.
+   */
+  private KeyedState<K, KeyEntry> states;
+
+  /**
+   * The timers for evicting the idle keys.
+   */
+  private final KeyedTimers<K> idleTimers;
+
+  /**
+   * True if the function is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * The state of the initialized function.
+   */
+  private Object initialState;
+
+  /**
+   * The cloner for the initial state and the checkpoints.
+   */
+  private final Cloner cloner;
+
+  /**
+   * @param keyFunc the function that extracts the key from the input
+   * @param applyStatefulFunction the user-defined ApplyStatefulFunction
+   * @param keyType the class of key, or null if it is unknown
+   * @param idleTimeout the idle timeout of the keys, or 0 if the keys are never evicted
+   */
+  public KeyedApplyStatefulOperator(final MISTFunction<IN, K> keyFunc,
+                                    final ApplyStatefulFunction<IN, OUT> applyStatefulFunction,
+                                    final Class<?> keyType,
+                                    final long idleTimeout) {
+    super();
+    this.keyFunc = keyFunc;
+    this.applyStatefulFunction = applyStatefulFunction;
+    this.keyType = keyType;
+    this.idleTimeout = idleTimeout;
+    this.states = KeyedStateUtils.newKeyedState(keyType);
+    this.idleTimers = new KeyedTimers<>();
+    this.initialized = false;
+    this.cloner = new Cloner(new ObjenesisInstantiationStrategy());
+  }
+
+  /**
+   * @return a new copy of the initial state of the function
+   */
+  private Object newInitialState() {
+    if (!initialized) {
+      applyStatefulFunction.initialize();
+      initialState = cloner.deepClone(applyStatefulFunction.getCurrentState());
+      initialized = true;
+    }
+    return cloner.deepClone(initialState);
+  }
+
+  /**
+   * Evicts the keys that have no input during the idle timeout before the current time.
+   */
+  private void evictIdleKeys(final long currentTime) {
+    for (K key = idleTimers.pollExpired(currentTime); key != null; key = idleTimers.pollExpired(currentTime)) {
+      final KeyEntry entry = states.get(key);
+      final long deadline = entry.lastTimestamp + idleTimeout;
+      if (deadline < currentTime) {
+        states.remove(key);
+      } else {
+        idleTimers.register(key, deadline);
+      }
+    }
+  }
+
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    final long timestamp = input.getTimestamp();
+    if (idleTimeout > 0) {
+      evictIdleKeys(timestamp);
+    }
+
+    final IN value = (IN) input.getValue();
+    final K key = keyFunc.apply(value);
+    KeyEntry entry = states.get(key);
+    if (entry == null) {
+      applyStatefulFunction.setFunctionState(newInitialState());
+      entry = new KeyEntry();
+      states.put(key, entry);
+      if (idleTimeout > 0) {
+        idleTimers.register(key, timestamp + idleTimeout);
+      }
+    } else {
+      applyStatefulFunction.setFunctionState(entry.state);
+    }
+    applyStatefulFunction.update(value);
+    final OUT output = applyStatefulFunction.produceResult();
+    entry.state = applyStatefulFunction.getCurrentState();
+    entry.lastTimestamp = timestamp;
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} updates the state of key {1} to {2} with input {3}, and generates {4}",
+          new Object[]{this.getClass().getName(), key, entry.state, input, output});
+    }
+
+    input.setValue(new Tuple2<>(key, output));
+    updateLatestEventTimestamp(timestamp);
+    outputEmitter.emitData(input);
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    if (idleTimeout > 0) {
+      evictIdleKeys(input.getTimestamp());
+    }
+    updateLatestEventTimestamp(input.getTimestamp());
+    outputEmitter.emitWatermark(input);
+  }
+
+  @Override
+  public Map<String, Object> getStateSnapshot() {
+    final Map<String, Object> stateMap = new HashMap<>();
+    stateMap.put("keyedApplyStatefulOperatorState", cloner.deepClone(states.toHashMap()));
+    return stateMap;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setState(final Map<String, Object> loadedState) {
+    final Map<K, KeyEntry> loadedStates = (Map<K, KeyEntry>) loadedState.get("keyedApplyStatefulOperatorState");
+    states = KeyedStateUtils.newKeyedState(keyType);
+    idleTimers.clear();
+    for (final Map.Entry<K, KeyEntry> entry : loadedStates.entrySet()) {
+      states.put(entry.getKey(), entry.getValue());
+      if (idleTimeout > 0) {
+        idleTimers.register(entry.getKey(), entry.getValue().lastTimestamp + idleTimeout);
+      }
+    }
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent input) {
+    checkpointMap.put(latestTimestampBeforeCheckpoint, getStateSnapshot());
+    outputEmitter.emitCheckpoint(input);
+  }
+
+  /**
+   * The state of a key and the timestamp of its latest input.
+   */
+  private static final class KeyEntry implements Serializable {
+    private Object state;
+    private long lastTimestamp;
+  }
+}
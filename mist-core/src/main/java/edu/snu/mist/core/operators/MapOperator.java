@@ -25,6 +25,7 @@ import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -68,6 +69,22 @@ public final class MapOperator<I, O> extends OneStreamOperator {
     outputEmitter.emitData(data);
   }
 
+  /**
+   * Maps the inputs to the outputs in place and emits them as a batch.
+   */
+  @Override
+  public void processLeftDataBatch(final List<MistDataEvent> dataList) {
+    for (final MistDataEvent data : dataList) {
+      data.setValue(mapFunc.apply((I)data.getValue()));
+    }
+
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} maps a batch to {1}", new Object[]{MapOperator.class, dataList});
+    }
+
+    outputEmitter.emitDataBatch(dataList);
+  }
+
   @Override
   public void processLeftWatermark(final MistWatermarkEvent watermark) {
     outputEmitter.emitWatermark(watermark);
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+
+/**
+ * This is an interface of operators that receive events from more than two upstreams.
+ * The upstreams are identified by the input index of the edges.
+ * The left upstream is the input 0 and the right upstreams are numbered from 1.
+ */
+public interface MultiStreamOperator extends Operator {
+
+  /**
+   * @return the number of upstreams
+   */
+  int getNumInputs();
+
+  /**
+   * Process data of an upstream.
+   * @param inputIndex the index of the upstream
+   * @param data data
+   */
+  void processData(final int inputIndex, final MistDataEvent data);
+
+  /**
+   * Process watermark of an upstream.
+   * @param inputIndex the index of the upstream
+   * @param watermark watermark
+   */
+  void processWatermark(final int inputIndex, final MistWatermarkEvent watermark);
+
+  /**
+   * Process checkpoint of an upstream.
+   * @param inputIndex the index of the upstream
+   * @param checkpoint checkpoint
+   */
+  void processCheckpoint(final int inputIndex, final MistCheckpointEvent checkpoint);
+}
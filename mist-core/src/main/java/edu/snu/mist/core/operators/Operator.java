@@ -19,6 +19,9 @@ import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.core.OutputEmittable;
+import edu.snu.mist.core.OutputEmitter;
+
+import java.util.List;
 
 /**
  * This is an interface of mist physical operator which runs actual computation.
@@ -32,6 +35,15 @@ public interface Operator extends OutputEmittable {
    */
   void processLeftData(final MistDataEvent data);
 
+  /**
+   * Process a batch of data of left upstream.
+   * The data in the list have the same order as they arrived,
+   * and no watermark or checkpoint exists between them.
+   * The list can be reused by the caller after this method returns, so it should not be retained.
+   * @param dataList list of data
+   */
+  void processLeftDataBatch(final List<MistDataEvent> dataList);
+
   /**
    * Process data of right upstream.
    * @param data data
@@ -61,4 +73,9 @@ public interface Operator extends OutputEmittable {
    * @param checkpoint checkpoint
    */
   void processRightCheckpoint(final MistCheckpointEvent checkpoint);
-}
\ No newline at end of file
+
+  /**
+   * @return the output emitter which forwards outputs to next operators
+   */
+  OutputEmitter getOutputEmitter();
+}
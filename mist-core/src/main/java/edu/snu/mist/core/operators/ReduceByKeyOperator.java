@@ -21,7 +21,11 @@ import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.functions.MISTBiFunction;
+import edu.snu.mist.core.operators.keyed.CopyOnWriteKeyedState;
+import edu.snu.mist.core.operators.keyed.KeyedState;
+import edu.snu.mist.core.operators.keyed.KeyedStateUtils;
 import edu.snu.mist.core.operators.parameters.KeyIndex;
 import edu.snu.mist.core.operators.parameters.SerializedUdf;
 import edu.snu.mist.common.types.Tuple2;
@@ -37,10 +41,14 @@ import java.util.logging.Logger;
 
 /**
  * This operator reduces the value by key.
+ * The key-value state is updated in place, so processing an event does not copy the whole state.
+ * Depending on the output mode, it emits either an immutable snapshot of the whole state (FULL_MAP)
+ * or only the updated key-value pair (UPDATED_PAIR).
+ * The FULL_MAP snapshot shares the unchanged parts with the state, so it is not a copy of the whole state.
  * @param <K> key type
  * @param <V> value type
  * TODO[MIST-#]: Support non-serializable key and value.
- * Currently, we use HashMap instead of Map because HashMap is serializable, but Map isn't.
+ * Currently, we use HashMap instead of Map for the state snapshot because HashMap is serializable, but Map isn't.
  * This can be changed to Map when we support non-serializable state.
  */
 public final class ReduceByKeyOperator<K extends Serializable, V extends Serializable>
@@ -57,10 +65,25 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
    */
   private final int keyIndex;
 
+  /**
+   * The output mode.
+   */
+  private final ConfValues.ReduceByKeyOutputMode outputMode;
+
   /**
    * KeyValue state.
    */
-  private HashMap<K, V> state;
+  private final KeyedState<K, V> state;
+
+  /**
+   * The state that takes the snapshots in the FULL_MAP mode, or null in the UPDATED_PAIR mode.
+   */
+  private final CopyOnWriteKeyedState<K, V> snapshotState;
+
+  /**
+   * The cloner for the checkpoints.
+   */
+  private final Cloner cloner;
 
   @Inject
   private ReduceByKeyOperator(
@@ -77,64 +100,82 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
   @Inject
   public ReduceByKeyOperator(@Parameter(KeyIndex.class) final int keyIndex,
                              final MISTBiFunction<V, V, V> reduceFunc) {
+    this(keyIndex, reduceFunc, null, ConfValues.ReduceByKeyOutputMode.FULL_MAP);
+  }
+
+  /**
+   * @param keyIndex index of key
+   * @param reduceFunc reduce function
+   * @param keyType the class of key. Integer and Long keys are kept as primitives. It can be null if unknown
+   * @param outputMode output mode
+   */
+  public ReduceByKeyOperator(final int keyIndex,
+                             final MISTBiFunction<V, V, V> reduceFunc,
+                             final Class<?> keyType,
+                             final ConfValues.ReduceByKeyOutputMode outputMode) {
     super();
     this.reduceFunc = reduceFunc;
     this.keyIndex = keyIndex;
-    this.state = createInitialState();
-  }
-
-  private HashMap<K, V> createInitialState() {
-    return new HashMap<>();
+    this.outputMode = outputMode;
+    if (outputMode == ConfValues.ReduceByKeyOutputMode.FULL_MAP) {
+      this.snapshotState = KeyedStateUtils.newSnapshotKeyedState();
+      this.state = snapshotState;
+    } else {
+      this.snapshotState = null;
+      this.state = KeyedStateUtils.newKeyedState(keyType);
+    }
+    this.cloner = new Cloner(new ObjenesisInstantiationStrategy());
   }
 
   /**
    * Reduces the value by key.
-   * It creates a new map whenever it updates the state.
-   * This produces immutable output.
-   * @param input input tuple
-   * @param st previous state
-   * @return output
+   * It updates the state in place.
+   * @param key key
+   * @param val value
+   * @return the updated value of the key
    */
-  @SuppressWarnings("unchecked")
-  private HashMap<K, V> updateState(final Tuple2 input, final HashMap<K, V> st) {
-    final HashMap<K, V> newState = new HashMap<>(st);
-    final K key = (K)input.get(keyIndex);
-    final V val = (V)input.get(1 - keyIndex);
-    final V oldVal = newState.get(key);
-    if (oldVal == null) {
-      newState.put(key, val);
-    } else {
-      newState.put(key, reduceFunc.apply(oldVal, val));
-    }
-    return newState;
+  private V updateState(final K key, final V val) {
+    final V oldVal = state.get(key);
+    final V newVal = oldVal == null ? val : reduceFunc.apply(oldVal, val);
+    state.put(key, newVal);
+    return newVal;
   }
 
   /**
-   * The state and the generated output are the same, so just emits the state.
-   * @param finalState state
+   * Generates the output according to the output mode.
+   * As the state is mutable, the FULL_MAP mode emits an immutable snapshot of the state.
+   * @param key the updated key
+   * @param val the updated value
    * @return output
    */
-  private HashMap<K, V> generateOutput(final HashMap<K, V> finalState) {
-    return finalState;
+  private Object generateOutput(final K key, final V val) {
+    if (outputMode == ConfValues.ReduceByKeyOutputMode.UPDATED_PAIR) {
+      return new Tuple2<>(key, val);
+    } else {
+      return snapshotState.snapshot();
+    }
   }
 
+  @SuppressWarnings("unchecked")
   @Override
   public void processLeftData(final MistDataEvent input) {
     if (isEarlierThanRecoveredTimestamp(input)) {
       return;
     }
-    final HashMap<K, V> intermediateState = updateState((Tuple2)input.getValue(), state);
-    final HashMap<K, V> output = generateOutput(intermediateState);
+    final Tuple2 tuple = (Tuple2)input.getValue();
+    final K key = (K)tuple.get(keyIndex);
+    final V val = (V)tuple.get(1 - keyIndex);
+    final V updatedVal = updateState(key, val);
+    final Object output = generateOutput(key, updatedVal);
 
     if (LOG.isLoggable(Level.FINE)) {
-      LOG.log(Level.FINE, "{0} updates the state {1} with input {2} to {3}, and generates {4}",
-          new Object[]{this.getClass().getName(), state, input, intermediateState, output});
+      LOG.log(Level.FINE, "{0} updates the key {1} with input {2} to {3}, and generates {4}",
+          new Object[]{this.getClass().getName(), key, input, updatedVal, output});
     }
 
     input.setValue(output);
     updateLatestEventTimestamp(input.getTimestamp());
     outputEmitter.emitData(input);
-    state = intermediateState;
   }
 
   @Override
@@ -148,15 +189,21 @@ public final class ReduceByKeyOperator<K extends Serializable, V extends Seriali
 
   @Override
   public Map<String, Object> getStateSnapshot() {
+    final HashMap<K, V> clonedState = new HashMap<>();
+    state.forEach((key, value) -> clonedState.put(cloner.deepClone(key), cloner.deepClone(value)));
     final Map<String, Object> stateMap = new HashMap<>();
-    stateMap.put("reduceByKeyState", new Cloner(new ObjenesisInstantiationStrategy()).deepClone(state));
+    stateMap.put("reduceByKeyState", clonedState);
     return stateMap;
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public void setState(final Map<String, Object> loadedState) {
-    state = (HashMap<K, V>)loadedState.get("reduceByKeyState");
+    final Map<K, V> loadedMap = (Map<K, V>)loadedState.get("reduceByKeyState");
+    state.clear();
+    for (final Map.Entry<K, V> entry : loadedMap.entrySet()) {
+      state.put(entry.getKey(), entry.getValue());
+    }
   }
 
   @Override
@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.ObjenesisInstantiationStrategy;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This operator incrementally joins two streams that have the same key within a time window.
+ * The left upstream is the first stream and the right upstream is the second stream.
+ * Each side keeps a hash table of the inputs received during the window.
+ * When an input arrives, it is inserted to the hash table of its side and probes the hash table of the other side,
+ * so the matched pairs are emitted as soon as possible instead of at the end of the window.
+ * Two inputs are joined if the difference of their timestamps is not larger than the window time.
+ *
+ * The inputs of a side are evicted by the progress of the other side,
+ * which is the latest watermark of the other stream, or its latest data timestamp until it receives a watermark.
+ * So the inputs of a stream can arrive later than its previous inputs, but not earlier than its latest watermark,
+ * and a lagging stream can still be joined with the inputs of the other stream.
+ * @param <T> the type of the first input stream data
+ * @param <U> the type of the second input stream data
+ */
+public final class SymmetricHashJoinOperator<T, U> extends TwoStreamStateHandlerOperator {
+  private static final Logger LOG = Logger.getLogger(SymmetricHashJoinOperator.class.getName());
+
+  /**
+   * The function that extracts the join key from the first input.
+   */
+  private final MISTFunction<T, ?> firstKeyFunc;
+
+  /**
+   * The function that extracts the join key from the second input.
+   */
+  private final MISTFunction<U, ?> secondKeyFunc;
+
+  /**
+   * The window time in which two inputs can be joined.
+   */
+  private final long windowTime;
+
+  /**
+   * The first inputs that are not evicted.
+   */
+  private final JoinSide<T> firstSide;
+
+  /**
+   * The second inputs that are not evicted.
+   */
+  private final JoinSide<U> secondSide;
+
+  /**
+   * The latest data timestamps of two streams.
+   */
+  private long latestLeftDataTimestamp;
+  private long latestRightDataTimestamp;
+
+  /**
+   * The latest watermarks of two streams.
+   */
+  private long latestLeftWatermark;
+  private long latestRightWatermark;
+
+  /**
+   * The latest emitted watermark.
+   */
+  private long emittedWatermark;
+
+  public SymmetricHashJoinOperator(final MISTFunction<T, ?> firstKeyFunc,
+                                   final MISTFunction<U, ?> secondKeyFunc,
+                                   final long windowTime) {
+    super();
+    this.firstKeyFunc = firstKeyFunc;
+    this.secondKeyFunc = secondKeyFunc;
+    this.windowTime = windowTime;
+    this.firstSide = new JoinSide<>();
+    this.secondSide = new JoinSide<>();
+    this.latestLeftDataTimestamp = Long.MIN_VALUE;
+    this.latestRightDataTimestamp = Long.MIN_VALUE;
+    this.latestLeftWatermark = Long.MIN_VALUE;
+    this.latestRightWatermark = Long.MIN_VALUE;
+    this.emittedWatermark = Long.MIN_VALUE;
+  }
+
+  /**
+   * Gets the progress of a stream.
+   * The following inputs of the stream are not earlier than the progress.
+   */
+  private static long getProgress(final long latestDataTimestamp, final long latestWatermark) {
+    return latestWatermark == Long.MIN_VALUE ? latestDataTimestamp : latestWatermark;
+  }
+
+  /**
+   * Evicts the inputs that cannot be joined with the inputs of the other stream arriving later.
+   */
+  private void evict() {
+    final long leftProgress = getProgress(latestLeftDataTimestamp, latestLeftWatermark);
+    final long rightProgress = getProgress(latestRightDataTimestamp, latestRightWatermark);
+    if (rightProgress != Long.MIN_VALUE) {
+      firstSide.evictBefore(rightProgress - windowTime);
+    }
+    if (leftProgress != Long.MIN_VALUE) {
+      secondSide.evictBefore(leftProgress - windowTime);
+    }
+  }
+
+  /**
+   * Gets the value of the data as the input of the first stream.
+   * The value is produced by the upstream operator of the first stream, whose output type is the type
+   * of the first stream in the logical plan, so the cast is safe.
+   */
+  @SuppressWarnings("unchecked")
+  private T getLeftInput(final MistDataEvent input) {
+    return (T) input.getValue();
+  }
+
+  /**
+   * Gets the value of the data as the input of the second stream.
+   * The value is produced by the upstream operator of the second stream, whose output type is the type
+   * of the second stream in the logical plan, so the cast is safe.
+   */
+  @SuppressWarnings("unchecked")
+  private U getRightInput(final MistDataEvent input) {
+    return (U) input.getValue();
+  }
+
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    final long timestamp = input.getTimestamp();
+    final T value = getLeftInput(input);
+    final Object key = firstKeyFunc.apply(value);
+    firstSide.insert(key, value, timestamp);
+    for (final JoinEntry<U> match : secondSide.get(key)) {
+      if (Math.abs(timestamp - match.timestamp) <= windowTime) {
+        emit(new Tuple2<>(value, match.value), Math.max(timestamp, match.timestamp));
+      }
+    }
+    latestLeftDataTimestamp = Math.max(latestLeftDataTimestamp, timestamp);
+    updateLatestEventTimestamp(timestamp);
+    evict();
+  }
+
+  @Override
+  public void processRightData(final MistDataEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    final long timestamp = input.getTimestamp();
+    final U value = getRightInput(input);
+    final Object key = secondKeyFunc.apply(value);
+    secondSide.insert(key, value, timestamp);
+    for (final JoinEntry<T> match : firstSide.get(key)) {
+      if (Math.abs(timestamp - match.timestamp) <= windowTime) {
+        emit(new Tuple2<>(match.value, value), Math.max(timestamp, match.timestamp));
+      }
+    }
+    latestRightDataTimestamp = Math.max(latestRightDataTimestamp, timestamp);
+    updateLatestEventTimestamp(timestamp);
+    evict();
+  }
+
+  private void emit(final Tuple2<T, U> output, final long timestamp) {
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} joins {1}", new Object[]{this.getClass().getName(), output});
+    }
+    outputEmitter.emitData(new MistDataEvent(output, timestamp));
+  }
+
+  /**
+   * Emits the minimum watermark of two streams if it is advanced.
+   */
+  private void emitMinimumWatermark(final MistWatermarkEvent watermark) {
+    final long minimumWatermark = Math.min(latestLeftWatermark, latestRightWatermark);
+    if (minimumWatermark > emittedWatermark) {
+      emittedWatermark = minimumWatermark;
+      outputEmitter.emitWatermark(minimumWatermark == watermark.getTimestamp()
+          ? watermark : new MistWatermarkEvent(minimumWatermark));
+    }
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent watermark) {
+    if (isEarlierThanRecoveredTimestamp(watermark)) {
+      return;
+    }
+    latestLeftWatermark = Math.max(latestLeftWatermark, watermark.getTimestamp());
+    updateLatestEventTimestamp(watermark.getTimestamp());
+    evict();
+    emitMinimumWatermark(watermark);
+  }
+
+  @Override
+  public void processRightWatermark(final MistWatermarkEvent watermark) {
+    if (isEarlierThanRecoveredTimestamp(watermark)) {
+      return;
+    }
+    latestRightWatermark = Math.max(latestRightWatermark, watermark.getTimestamp());
+    updateLatestEventTimestamp(watermark.getTimestamp());
+    evict();
+    emitMinimumWatermark(watermark);
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent checkpoint) {
+    checkpointMap.put(latestTimestampBeforeCheckpoint, getStateSnapshot());
+    outputEmitter.emitCheckpoint(checkpoint);
+  }
+
+  @Override
+  public void processRightCheckpoint(final MistCheckpointEvent checkpoint) {
+    checkpointMap.put(latestTimestampBeforeCheckpoint, getStateSnapshot());
+    outputEmitter.emitCheckpoint(checkpoint);
+  }
+
+  @Override
+  public Map<String, Object> getStateSnapshot() {
+    final Cloner cloner = new Cloner(new ObjenesisInstantiationStrategy());
+    final Map<String, Object> stateMap = new HashMap<>();
+    stateMap.put("firstInputs", cloner.deepClone(firstSide.getValues()));
+    stateMap.put("firstTimestamps", firstSide.getTimestamps());
+    stateMap.put("secondInputs", cloner.deepClone(secondSide.getValues()));
+    stateMap.put("secondTimestamps", secondSide.getTimestamps());
+    stateMap.put("latestLeftDataTimestamp", latestLeftDataTimestamp);
+    stateMap.put("latestRightDataTimestamp", latestRightDataTimestamp);
+    stateMap.put("latestLeftWatermark", latestLeftWatermark);
+    stateMap.put("latestRightWatermark", latestRightWatermark);
+    stateMap.put("emittedWatermark", emittedWatermark);
+    return stateMap;
+  }
+
+  // The loaded state is the snapshot produced by getStateSnapshot, so the casts of its values are safe
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setState(final Map<String, Object> loadedState) {
+    final List<T> firstInputs = (List<T>) loadedState.get("firstInputs");
+    final List<Long> firstTimestamps = (List<Long>) loadedState.get("firstTimestamps");
+    final List<U> secondInputs = (List<U>) loadedState.get("secondInputs");
+    final List<Long> secondTimestamps = (List<Long>) loadedState.get("secondTimestamps");
+    firstSide.clear();
+    for (int i = 0; i < firstInputs.size(); i++) {
+      final T value = firstInputs.get(i);
+      firstSide.insert(firstKeyFunc.apply(value), value, firstTimestamps.get(i));
+    }
+    secondSide.clear();
+    for (int i = 0; i < secondInputs.size(); i++) {
+      final U value = secondInputs.get(i);
+      secondSide.insert(secondKeyFunc.apply(value), value, secondTimestamps.get(i));
+    }
+    latestLeftDataTimestamp = (long) loadedState.get("latestLeftDataTimestamp");
+    latestRightDataTimestamp = (long) loadedState.get("latestRightDataTimestamp");
+    latestLeftWatermark = (long) loadedState.get("latestLeftWatermark");
+    latestRightWatermark = (long) loadedState.get("latestRightWatermark");
+    emittedWatermark = (long) loadedState.get("emittedWatermark");
+  }
+
+  /**
+   * @return the number of inputs that are not evicted
+   */
+  int numberOfStoredInputs() {
+    return firstSide.size() + secondSide.size();
+  }
+
+  /**
+   * An input with its timestamp.
+   */
+  private static final class JoinEntry<V> {
+    private final Object key;
+    private final V value;
+    private final long timestamp;
+
+    JoinEntry(final Object key, final V value, final long timestamp) {
+      this.key = key;
+      this.value = value;
+      this.timestamp = timestamp;
+    }
+  }
+
+  /**
+   * The hash table of one side.
+   * The entries are also kept in the order of timestamp for the eviction.
+   */
+  private static final class JoinSide<V> {
+    private final Map<Object, Deque<JoinEntry<V>>> hashTable = new HashMap<>();
+    private final PriorityQueue<JoinEntry<V>> timestampOrder =
+        new PriorityQueue<>((x, y) -> Long.compare(x.timestamp, y.timestamp));
+
+    void insert(final Object key, final V value, final long timestamp) {
+      final JoinEntry<V> entry = new JoinEntry<>(key, value, timestamp);
+      hashTable.computeIfAbsent(key, k -> new ArrayDeque<>()).add(entry);
+      timestampOrder.add(entry);
+    }
+
+    Iterable<JoinEntry<V>> get(final Object key) {
+      final Deque<JoinEntry<V>> entries = hashTable.get(key);
+      return entries == null ? Collections.<JoinEntry<V>>emptyList() : entries;
+    }
+
+    /**
+     * Evicts the entries that have smaller timestamp than the given timestamp.
+     */
+    void evictBefore(final long timestamp) {
+      while (!timestampOrder.isEmpty() && timestampOrder.peek().timestamp < timestamp) {
+        final JoinEntry<V> entry = timestampOrder.poll();
+        final Deque<JoinEntry<V>> entries = hashTable.get(entry.key);
+        final Iterator<JoinEntry<V>> itr = entries.iterator();
+        while (itr.hasNext()) {
+          if (itr.next() == entry) {
+            itr.remove();
+            break;
+          }
+        }
+        if (entries.isEmpty()) {
+          hashTable.remove(entry.key);
+        }
+      }
+    }
+
+    /**
+     * @return the values of the entries, in the same order as {@link #getTimestamps()}
+     */
+    ArrayList<V> getValues() {
+      final ArrayList<V> values = new ArrayList<>(timestampOrder.size());
+      for (final JoinEntry<V> entry : timestampOrder) {
+        values.add(entry.value);
+      }
+      return values;
+    }
+
+    ArrayList<Long> getTimestamps() {
+      final ArrayList<Long> timestamps = new ArrayList<>(timestampOrder.size());
+      for (final JoinEntry<V> entry : timestampOrder) {
+        timestamps.add(entry.timestamp);
+      }
+      return timestamps;
+    }
+
+    void clear() {
+      hashTable.clear();
+      timestampOrder.clear();
+    }
+
+    int size() {
+      return timestampOrder.size();
+    }
+  }
+}
@@ -21,224 +21,266 @@ import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 
 import javax.inject.Inject;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayDeque;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Union operator which unifies two upstreams.
+ * Union operator which unifies two or more upstreams.
  * We suppose the upstream events are always ordered.
  *
- * This operator has two queues: leftUpstreamQueue and rightUpstreamQueue.
- * Each queue contains MistDataEvent and MistWatermarkEvent.
- * The operator drains events from the queues to the next operator until watermark timestamp.
+ * This operator has a queue for each upstream, which contains MistDataEvent and MistCheckpointEvent.
+ * The operator merges the queues by timestamp and drains events to the next operator until the minimum watermark,
+ * which is the minimum of the latest data or watermark timestamps among the upstreams.
+ * The events are drained only when the minimum watermark advances, so a data that arrives after the minimum watermark
+ * is just queued.
+ * The operator is processed by only one event processor at once, so the queues are not synchronized.
  */
-public final class UnionOperator extends TwoStreamOperator {
+public final class UnionOperator extends TwoStreamOperator implements MultiStreamOperator {
   private static final Logger LOG = Logger.getLogger(UnionOperator.class.getName());
 
-  private final Queue<MistEvent> leftUpstreamQueue;
-  private final Queue<MistEvent> rightUpstreamQueue;
-  private final MistWatermarkEvent defaultWatermark;
-  private MistWatermarkEvent latestLeftWatermark;
-  private MistWatermarkEvent latestRightWatermark;
-  private long recentLeftTimestamp;
-  private long recentRightTimestamp;
+  /**
+   * The default number of upstreams.
+   */
+  private static final int DEFAULT_NUM_INPUTS = 2;
+
+  /**
+   * The upstreams. The left upstream is the input 0 and the right upstream is the input 1.
+   */
+  private final UnionInput[] inputs;
+
+  /**
+   * The minimum watermark among the upstreams.
+   */
+  private long minimumWatermark;
+
+  /**
+   * The timestamp of the latest emitted watermark.
+   */
+  private long emittedWatermark;
 
   @Inject
   public UnionOperator() {
-    this.leftUpstreamQueue = new LinkedBlockingQueue<>();
-    this.rightUpstreamQueue = new LinkedBlockingQueue<>();
-    defaultWatermark = new MistWatermarkEvent(0L);
-    this.latestLeftWatermark = defaultWatermark;
-    this.latestRightWatermark = defaultWatermark;
-    this.recentLeftTimestamp = 0L;
-    this.recentRightTimestamp = 0L;
+    this(DEFAULT_NUM_INPUTS);
   }
 
+  public UnionOperator(final int numInputs) {
+    if (numInputs < DEFAULT_NUM_INPUTS) {
+      throw new IllegalArgumentException("Union operator should have at least two upstreams: " + numInputs);
+    }
+    this.inputs = new UnionInput[numInputs];
+    for (int i = 0; i < numInputs; i++) {
+      inputs[i] = new UnionInput();
+    }
+    this.minimumWatermark = 0L;
+    this.emittedWatermark = 0L;
+  }
+
+  @Override
+  public int getNumInputs() {
+    return inputs.length;
+  }
 
   /**
-   * Peek the timestamp of the first event.
-   * @param queue queue
-   * @return timestamp
+   * Updates the bound of the upstream and recalculates the minimum watermark
+   * only when the upstream was one of the slowest upstreams.
+   * @param input the upstream whose data or watermark timestamp is updated
+   * @return true if the minimum watermark is advanced
    */
-  private long peekTimestamp(final Queue<MistEvent> queue) {
-    return queue.peek().getTimestamp();
+  private boolean updateBound(final UnionInput input) {
+    final long prevBound = input.bound;
+    input.bound = Math.max(input.recentTimestamp, input.watermarkTimestamp);
+    if (prevBound != minimumWatermark || input.bound == prevBound) {
+      return false;
+    }
+    long minimum = Long.MAX_VALUE;
+    for (final UnionInput in : inputs) {
+      minimum = Math.min(minimum, in.bound);
+    }
+    if (minimum > minimumWatermark) {
+      minimumWatermark = minimum;
+      return true;
+    }
+    return false;
   }
 
   /**
-   * Emits events which have less timestamp than the required timestamp from the queue .
-   * @param queue queue
-   * @param timestamp timestamp
+   * Emits the checkpoint events at the head of the queue.
+   * The checkpoint events of the upstreams do not have to be ordered because they are the same.
+   * @param input upstream
    */
-  private void drainUntilTimestamp(final Queue<MistEvent> queue, final long timestamp) {
-    // The events in the queue is ordered by timestamp, so just peeks one by one
-    while (!queue.isEmpty() && peekTimestamp(queue) <= timestamp) {
-      final MistDataEvent event = (MistDataEvent) queue.poll();
-      outputEmitter.emitData(event);
+  private void drainCheckpoints(final UnionInput input) {
+    while (!input.queue.isEmpty() && input.queue.peek().isCheckpoint()) {
+      outputEmitter.emitCheckpoint((MistCheckpointEvent) input.queue.poll());
     }
   }
 
   /**
-   * Emits events which have less timestamp than the minimum watermark
-   * calculated from the leftUpstreamQueue, currentLeftWatermark, rightUpstreamQueue, and currentRightWatermark.
-   * This method is not thread-safe now. Therefore, only one event processor have to process union operation at once.
+   * Emits events which have less timestamp than the minimum watermark in the order of timestamp.
+   * The head of each queue is always a data event because the checkpoint events at the head are emitted eagerly.
+   * This method is not thread-safe. Therefore, only one event processor have to process union operation at once.
    */
   private void drainUntilMinimumWatermark() {
-    final long leftWatermarkTimestamp = latestLeftWatermark.getTimestamp();
-    final long rightWatermarkTimestamp = latestRightWatermark.getTimestamp();
-    final long timestamp = getMinimumWatermark(leftWatermarkTimestamp, rightWatermarkTimestamp);
-
     if (LOG.isLoggable(Level.FINE)) {
       LOG.log(Level.FINE, "{0} drains inputs until timestamp {1}",
-          new Object[]{this.getClass().getName(), timestamp});
-    }
-
-    // The events in the queue is ordered by timestamp, so just peeks one by one
-    while (!leftUpstreamQueue.isEmpty() && !rightUpstreamQueue.isEmpty()) {
-      // Drain any checkpoint events first.
-      // The left and right checkpoint events do not have to be ordered because they are the same.
-      if (leftUpstreamQueue.peek().isCheckpoint()) {
-        final MistCheckpointEvent event = (MistCheckpointEvent) leftUpstreamQueue.poll();
-        outputEmitter.emitCheckpoint(event);
-      } else if (rightUpstreamQueue.peek().isCheckpoint()) {
-        final MistCheckpointEvent event = (MistCheckpointEvent) rightUpstreamQueue.poll();
-        outputEmitter.emitCheckpoint(event);
-      } else {
-        // Pick minimum timestamp from left and right queue.
-        long leftTs = peekTimestamp(leftUpstreamQueue);
-        long rightTs = peekTimestamp(rightUpstreamQueue);
-
-        // End of the drain
-        if (leftTs > timestamp && rightTs > timestamp) {
-          return;
-        }
+          new Object[]{this.getClass().getName(), minimumWatermark});
+    }
 
-        if (leftTs <= rightTs) {
-          final MistDataEvent event = (MistDataEvent) leftUpstreamQueue.poll();
-          outputEmitter.emitData(event);
-        } else {
-          final MistDataEvent event = (MistDataEvent) rightUpstreamQueue.poll();
-          outputEmitter.emitData(event);
+    while (true) {
+      // Pick the upstream which has the minimum timestamp at the head
+      UnionInput minInput = null;
+      long minTimestamp = minimumWatermark;
+      for (final UnionInput input : inputs) {
+        if (!input.queue.isEmpty()) {
+          final long timestamp = input.queue.peek().getTimestamp();
+          if (timestamp < minTimestamp || (minInput == null && timestamp == minTimestamp)) {
+            minInput = input;
+            minTimestamp = timestamp;
+          }
         }
       }
-    }
 
-    // If one of the upstreamQueues is not empty, then drain events from the queue
-    if (!(leftUpstreamQueue.isEmpty() && rightUpstreamQueue.isEmpty())) {
-      if (leftUpstreamQueue.isEmpty()) {
-        // Drain from right upstream queue.
-        drainUntilTimestamp(rightUpstreamQueue, timestamp);
-      } else {
-        // Drain from left upstream queue.
-        drainUntilTimestamp(leftUpstreamQueue, timestamp);
+      // End of the drain
+      if (minInput == null) {
+        break;
       }
+      outputEmitter.emitData((MistDataEvent) minInput.queue.poll());
+      drainCheckpoints(minInput);
     }
 
-    emitWatermarkUntilTimestamp(leftWatermarkTimestamp, rightWatermarkTimestamp, timestamp);
+    emitWatermarkUntilMinimumWatermark();
   }
 
   /**
-   * Gets the minimum timestamp to drain.
-   * We supposed that all MistDataEvents are arrived in-orderly,
-   * but a data that has larger timestamp than a watermark could arrived faster than the watermark.
-   * Therefore, we need to find the larger timestamp between the data and watermark in a single direction respectively,
-   * and compare them to find minimum watermark.
-   * @return the minimum timestamp to drain
+   * Emits the largest pending watermark that does not exceed the minimum watermark.
    */
-  private long getMinimumWatermark(final long leftWatermarkTimestamp, final long rightWatermarkTimestamp) {
-    return Math.min(
-        Math.max(recentLeftTimestamp, leftWatermarkTimestamp), Math.max(recentRightTimestamp, rightWatermarkTimestamp));
-  }
-
-  /**
-   * Compares two recent watermarks with calculated minimum watermark and emits them.
-   * @param leftWatermarkTimestamp the timestamp of current left watermark
-   * @param rightWatermarkTimestamp the timestamp of current right watermark
-   * @param minimumWatermark the calculated minimum watermark
-   */
-  private void emitWatermarkUntilTimestamp(final long leftWatermarkTimestamp,
-                                           final long rightWatermarkTimestamp,
-                                           final long minimumWatermark) {
-    if (latestLeftWatermark != defaultWatermark && leftWatermarkTimestamp <= minimumWatermark) {
-      outputEmitter.emitWatermark(latestLeftWatermark);
-      latestLeftWatermark = defaultWatermark;
-    }
-    if (latestRightWatermark != defaultWatermark && rightWatermarkTimestamp <= minimumWatermark) {
-      outputEmitter.emitWatermark(latestRightWatermark);
-      latestRightWatermark = defaultWatermark;
+  private void emitWatermarkUntilMinimumWatermark() {
+    MistWatermarkEvent watermark = null;
+    for (final UnionInput input : inputs) {
+      if (input.pendingWatermark != null && input.watermarkTimestamp <= minimumWatermark) {
+        if (watermark == null || watermark.getTimestamp() < input.watermarkTimestamp) {
+          watermark = input.pendingWatermark;
+        }
+        input.pendingWatermark = null;
+      }
     }
-  }
-
-  @Override
-  public void processLeftData(final MistDataEvent event) {
-    final long timestamp = event.getTimestamp();
-    if (recentLeftTimestamp > timestamp) {
-      throw new RuntimeException("The upstream events should be ordered by timestamp.");
+    if (watermark != null && watermark.getTimestamp() > emittedWatermark) {
+      emittedWatermark = watermark.getTimestamp();
+      outputEmitter.emitWatermark(watermark);
     }
-    LOG.log(Level.FINE, "{0} gets left data {1}", new Object[]{this.getClass().getName(), event});
-    recentLeftTimestamp = timestamp;
-    leftUpstreamQueue.add(event);
-
-    // Drain events until the minimum watermark.
-    drainUntilMinimumWatermark();
   }
 
   @Override
-  public void processRightData(final MistDataEvent event) {
+  public void processData(final int inputIndex, final MistDataEvent event) {
+    final UnionInput input = inputs[inputIndex];
     final long timestamp = event.getTimestamp();
-    if (recentRightTimestamp > timestamp) {
+    if (input.recentTimestamp > timestamp) {
       throw new RuntimeException("The upstream events should be ordered by timestamp.");
     }
 
     if (LOG.isLoggable(Level.FINE)) {
-      LOG.log(Level.FINE, "{0} gets right data {1}", new Object[]{this.getClass().getName(), event});
+      LOG.log(Level.FINE, "{0} gets data {1} from input {2}",
+          new Object[]{this.getClass().getName(), event, inputIndex});
     }
 
-    recentRightTimestamp = timestamp;
-    rightUpstreamQueue.add(event);
+    input.recentTimestamp = timestamp;
+    input.queue.add(event);
 
-    // Drain events until the minimum watermark.
-    drainUntilMinimumWatermark();
+    // Drain events if the minimum watermark is advanced or the data is already behind the minimum watermark.
+    if (updateBound(input) || timestamp <= minimumWatermark) {
+      drainUntilMinimumWatermark();
+    }
   }
 
   @Override
-  public void processLeftWatermark(final MistWatermarkEvent event) {
+  public void processWatermark(final int inputIndex, final MistWatermarkEvent event) {
     if (LOG.isLoggable(Level.FINE)) {
-      LOG.log(Level.FINE, "{0} gets left watermark {1}", new Object[]{this.getClass().getName(), event});
+      LOG.log(Level.FINE, "{0} gets watermark {1} from input {2}",
+          new Object[]{this.getClass().getName(), event, inputIndex});
     }
 
-    if (latestLeftWatermark.getTimestamp() < event.getTimestamp()) {
-      latestLeftWatermark = event;
+    final UnionInput input = inputs[inputIndex];
+    if (input.watermarkTimestamp < event.getTimestamp()) {
+      input.watermarkTimestamp = event.getTimestamp();
+      input.pendingWatermark = event;
 
-      // Drain events until the minimum watermark.
-      drainUntilMinimumWatermark();
+      if (updateBound(input)) {
+        drainUntilMinimumWatermark();
+      } else if (event.getTimestamp() <= minimumWatermark) {
+        emitWatermarkUntilMinimumWatermark();
+      }
     }
   }
 
   @Override
-  public void processRightWatermark(final MistWatermarkEvent event) {
-    if (LOG.isLoggable(Level.FINE)) {
-      LOG.log(Level.FINE, "{0} gets right watermark {1}", new Object[]{this.getClass().getName(), event});
+  public void processCheckpoint(final int inputIndex, final MistCheckpointEvent checkpoint) {
+    final UnionInput input = inputs[inputIndex];
+    if (input.queue.isEmpty()) {
+      outputEmitter.emitCheckpoint(checkpoint);
+    } else {
+      input.queue.add(checkpoint);
     }
+  }
 
-    if (latestRightWatermark.getTimestamp() < event.getTimestamp()) {
-      latestRightWatermark = event;
+  @Override
+  public void processLeftData(final MistDataEvent event) {
+    processData(0, event);
+  }
 
-      // Drain events until the minimum watermark.
-      drainUntilMinimumWatermark();
-    }
+  @Override
+  public void processRightData(final MistDataEvent event) {
+    processData(1, event);
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent event) {
+    processWatermark(0, event);
+  }
+
+  @Override
+  public void processRightWatermark(final MistWatermarkEvent event) {
+    processWatermark(1, event);
   }
 
   @Override
   public void processLeftCheckpoint(final MistCheckpointEvent input) {
-    leftUpstreamQueue.add(input);
-    drainUntilMinimumWatermark();
+    processCheckpoint(0, input);
   }
 
   @Override
   public void processRightCheckpoint(final MistCheckpointEvent input) {
-    rightUpstreamQueue.add(input);
-    drainUntilMinimumWatermark();
+    processCheckpoint(1, input);
+  }
+
+  /**
+   * The state of an upstream.
+   */
+  private static final class UnionInput {
+    /**
+     * The queued events of the upstream.
+     */
+    private final ArrayDeque<MistEvent> queue = new ArrayDeque<>();
+
+    /**
+     * The timestamp of the latest data.
+     */
+    private long recentTimestamp = 0L;
+
+    /**
+     * The timestamp of the latest watermark.
+     */
+    private long watermarkTimestamp = 0L;
+
+    /**
+     * The latest watermark which is not emitted yet.
+     */
+    private MistWatermarkEvent pendingWatermark = null;
+
+    /**
+     * The timestamp until which the upstream does not send data anymore.
+     * A data that has larger timestamp than a watermark could arrive faster than the watermark,
+     * so it is the larger one between the latest data and watermark timestamps.
+     */
+    private long bound = 0L;
   }
-}
\ No newline at end of file
+}
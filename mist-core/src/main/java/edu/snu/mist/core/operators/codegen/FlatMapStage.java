@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.codegen;
+
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.core.MistDataEvent;
+
+import java.util.List;
+
+/**
+ * The template of flatMap stages.
+ * The outputs of a flatMap are passed without the input event, so new events are created for them.
+ */
+public final class FlatMapStage extends PipelineStage {
+
+  /**
+   * The flatMap function.
+   */
+  private final MISTFunction func;
+
+  /**
+   * The next stage.
+   */
+  private final PipelineStage next;
+
+  public FlatMapStage(final Object udf, final PipelineStage next) {
+    this.func = (MISTFunction) udf;
+    this.next = next;
+  }
+
+  @Override
+  public void accept(final Object value, final MistDataEvent input, final long timestamp) {
+    final List outputs = (List) func.apply(value);
+    for (final Object output : outputs) {
+      next.accept(output, null, timestamp);
+    }
+  }
+}
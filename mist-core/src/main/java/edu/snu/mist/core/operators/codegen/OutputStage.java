@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.codegen;
+
+import edu.snu.mist.core.MistDataEvent;
+
+import java.util.List;
+
+/**
+ * The last stage of a pipeline, which adds the output events to the buffer of the fused operator.
+ */
+public final class OutputStage extends PipelineStage {
+
+  /**
+   * The buffer of the output events.
+   */
+  private final List<MistDataEvent> outputs;
+
+  public OutputStage(final List<MistDataEvent> outputs) {
+    this.outputs = outputs;
+  }
+
+  @Override
+  public void accept(final Object value, final MistDataEvent input, final long timestamp) {
+    if (input == null) {
+      outputs.add(new MistDataEvent(value, timestamp));
+    } else {
+      input.setValue(value);
+      outputs.add(input);
+    }
+  }
+}
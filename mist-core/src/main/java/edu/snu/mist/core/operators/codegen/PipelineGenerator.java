@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.codegen;
+
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.core.MistDataEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class generates a specialized pipeline for a chain of stateless operations.
+ * Each stage of the pipeline is an instance of a class that is defined at runtime
+ * from the bytecode of a stage template, so the call sites to the user-defined function and the next stage
+ * are monomorphic in every stage and the JIT compiler can inline the whole chain into the fused operator.
+ * The classes are cached by the template, the class of the function, and the class of the next stage,
+ * so the queries that fuse the same functions share the classes.
+ * The cache of a function class is attached to the class itself through a ClassValue,
+ * so it does not keep the class loader of an application alive after the application is unloaded.
+ */
+public final class PipelineGenerator {
+
+  /**
+   * The bytecode of the stage templates.
+   */
+  private static final ConcurrentMap<Class<?>, byte[]> TEMPLATE_BYTECODE = new ConcurrentHashMap<>();
+
+  /**
+   * The specialized stage classes of each function class, keyed by the template and the class of the next stage.
+   */
+  private static final ClassValue<ConcurrentMap<List<Class<?>>, Class<?>>> STAGE_CLASSES =
+      new ClassValue<ConcurrentMap<List<Class<?>>, Class<?>>>() {
+        @Override
+        protected ConcurrentMap<List<Class<?>>, Class<?>> computeValue(final Class<?> udfClass) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  /**
+   * Generates a pipeline that applies the operations in order and adds the outputs to the buffer.
+   * @param types the types of the operations. They are one of MAP, FILTER and FLAT_MAP
+   * @param udfs the user-defined functions of the operations
+   * @param outputs the buffer of the output events
+   * @return the first stage of the pipeline
+   */
+  public static PipelineStage generate(final List<ConfValues.OperatorType> types,
+                                       final List<Object> udfs,
+                                       final List<MistDataEvent> outputs)
+      throws IOException, ReflectiveOperationException {
+    PipelineStage stage = new OutputStage(outputs);
+    for (int i = types.size() - 1; i >= 0; i--) {
+      final Class<?> template = getTemplate(types.get(i));
+      final Object udf = udfs.get(i);
+      final Class<?> stageClass = getStageClass(template, udf.getClass(), stage.getClass());
+      stage = (PipelineStage) stageClass.getConstructor(Object.class, PipelineStage.class).newInstance(udf, stage);
+    }
+    return stage;
+  }
+
+  private static Class<?> getTemplate(final ConfValues.OperatorType type) {
+    switch (type) {
+      case MAP:
+        return MapStage.class;
+      case FILTER:
+        return FilterStage.class;
+      case FLAT_MAP:
+        return FlatMapStage.class;
+      default:
+        throw new IllegalArgumentException("Stateful operations cannot be fused: " + type);
+    }
+  }
+
+  /**
+   * Gets the class that specializes the template for the function and the next stage.
+   */
+  private static Class<?> getStageClass(final Class<?> template,
+                                        final Class<?> udfClass,
+                                        final Class<?> nextClass) throws IOException {
+    final ConcurrentMap<List<Class<?>>, Class<?>> stageClasses = STAGE_CLASSES.get(udfClass);
+    final List<Class<?>> key = Arrays.asList(template, nextClass);
+    final Class<?> stageClass = stageClasses.get(key);
+    if (stageClass != null) {
+      return stageClass;
+    }
+    final StageClassLoader classLoader = new StageClassLoader(template.getName(), getBytecode(template));
+    try {
+      final Class<?> newClass = classLoader.loadClass(template.getName());
+      final Class<?> prevClass = stageClasses.putIfAbsent(key, newClass);
+      return prevClass == null ? newClass : prevClass;
+    } catch (final ClassNotFoundException e) {
+      throw new IOException("Cannot define a stage of " + template.getName(), e);
+    }
+  }
+
+  private static byte[] getBytecode(final Class<?> template) throws IOException {
+    final byte[] cached = TEMPLATE_BYTECODE.get(template);
+    if (cached != null) {
+      return cached;
+    }
+    final String resource = template.getName().replace('.', '/') + ".class";
+    try (final InputStream in = template.getClassLoader().getResourceAsStream(resource)) {
+      if (in == null) {
+        throw new IOException("Cannot find the bytecode of " + template.getName());
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[4096];
+      int length = in.read(buffer);
+      while (length >= 0) {
+        out.write(buffer, 0, length);
+        length = in.read(buffer);
+      }
+      final byte[] bytecode = out.toByteArray();
+      TEMPLATE_BYTECODE.putIfAbsent(template, bytecode);
+      return bytecode;
+    }
+  }
+
+  /**
+   * A class loader that defines its own copy of a stage template.
+   * The other classes are loaded from the class loader of the templates.
+   */
+  private static final class StageClassLoader extends ClassLoader {
+    private final String className;
+    private final byte[] bytecode;
+
+    StageClassLoader(final String className, final byte[] bytecode) {
+      super(PipelineStage.class.getClassLoader());
+      this.className = className;
+      this.bytecode = bytecode;
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+      if (!name.equals(className)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        final Class<?> loadedClass = findLoadedClass(name);
+        final Class<?> result = loadedClass == null ? defineClass(name, bytecode, 0, bytecode.length) : loadedClass;
+        if (resolve) {
+          resolveClass(result);
+        }
+        return result;
+      }
+    }
+  }
+
+  private PipelineGenerator() {
+  }
+}
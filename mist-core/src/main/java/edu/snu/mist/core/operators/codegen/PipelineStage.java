@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.codegen;
+
+import edu.snu.mist.core.MistDataEvent;
+
+/**
+ * A stage of a specialized pipeline that applies an operation to a value and passes the result to the next stage.
+ * The stages are public because the specialized classes are defined in different class loaders.
+ */
+public abstract class PipelineStage {
+
+  /**
+   * Applies the operation to the value and passes the result to the next stage.
+   * @param value the value
+   * @param input the input event that can be reused for the output, or null if a new event should be created
+   * @param timestamp the timestamp of the input
+   */
+  public abstract void accept(Object value, MistDataEvent input, long timestamp);
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.keyed;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * This keyed state provides immutable snapshots of the whole state without copying it for every update.
+ * The keys are partitioned into buckets, and a snapshot shares the buckets with the state.
+ * After a snapshot is taken, an update copies only the bucket array and the bucket of the key,
+ * so the cost of an update is proportional to the square root of the number of keys, not to the number of keys.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class CopyOnWriteKeyedState<K, V> implements KeyedState<K, V> {
+
+  /**
+   * The initial number of buckets. It should be a power of two.
+   */
+  private static final int INITIAL_NUM_BUCKETS = 8;
+
+  /**
+   * The buckets are doubled when the average number of keys in a bucket exceeds this ratio of the number of buckets.
+   */
+  private static final int RESIZE_RATIO = 2;
+
+  /**
+   * The buckets. They can be shared with the snapshots.
+   */
+  private HashMap<K, V>[] buckets;
+
+  /**
+   * True if the bucket is owned by the state and can be updated in place.
+   */
+  private boolean[] ownedBuckets;
+
+  /**
+   * True if the bucket array is shared with the latest snapshot.
+   */
+  private boolean shared;
+
+  /**
+   * The latest snapshot, or null if the state is updated after the latest snapshot.
+   */
+  private Snapshot<K, V> latestSnapshot;
+
+  /**
+   * The number of bits of the bucket index.
+   */
+  private int bucketBits;
+
+  /**
+   * The number of keys.
+   */
+  private int size;
+
+  public CopyOnWriteKeyedState() {
+    allocate(INITIAL_NUM_BUCKETS);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void allocate(final int numBuckets) {
+    this.buckets = new HashMap[numBuckets];
+    for (int i = 0; i < numBuckets; i++) {
+      buckets[i] = new HashMap<>();
+    }
+    this.ownedBuckets = new boolean[numBuckets];
+    Arrays.fill(ownedBuckets, true);
+    this.bucketBits = Integer.numberOfTrailingZeros(numBuckets);
+    this.shared = false;
+    this.latestSnapshot = null;
+    this.size = 0;
+  }
+
+  /**
+   * Finds the bucket of the key from the upper bits of its hash,
+   * so the keys of a bucket are still spread in the hash map of the bucket.
+   */
+  private static int bucketIndex(final Object key, final int bucketBits) {
+    final int h = key == null ? 0 : key.hashCode();
+    return ((h ^ (h >>> 16)) * 0x9E3779B9) >>> (32 - bucketBits);
+  }
+
+  /**
+   * Gets the bucket of the key that can be updated in place.
+   */
+  private HashMap<K, V> getOwnedBucket(final K key) {
+    if (shared) {
+      buckets = buckets.clone();
+      ownedBuckets = new boolean[buckets.length];
+      shared = false;
+    }
+    latestSnapshot = null;
+    final int index = bucketIndex(key, bucketBits);
+    if (!ownedBuckets[index]) {
+      buckets[index] = new HashMap<>(buckets[index]);
+      ownedBuckets[index] = true;
+    }
+    return buckets[index];
+  }
+
+  @Override
+  public V get(final K key) {
+    return buckets[bucketIndex(key, bucketBits)].get(key);
+  }
+
+  @Override
+  public void put(final K key, final V value) {
+    final HashMap<K, V> bucket = getOwnedBucket(key);
+    final int bucketSize = bucket.size();
+    bucket.put(key, value);
+    size += bucket.size() - bucketSize;
+    if (size > RESIZE_RATIO * buckets.length * buckets.length) {
+      resize(buckets.length * 2);
+    }
+  }
+
+  @Override
+  public V remove(final K key) {
+    if (!buckets[bucketIndex(key, bucketBits)].containsKey(key)) {
+      return null;
+    }
+    size -= 1;
+    return getOwnedBucket(key).remove(key);
+  }
+
+  private void resize(final int numBuckets) {
+    final HashMap<K, V>[] oldBuckets = buckets;
+    allocate(numBuckets);
+    for (final HashMap<K, V> bucket : oldBuckets) {
+      for (final Map.Entry<K, V> entry : bucket.entrySet()) {
+        buckets[bucketIndex(entry.getKey(), bucketBits)].put(entry.getKey(), entry.getValue());
+      }
+      size += bucket.size();
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    allocate(INITIAL_NUM_BUCKETS);
+  }
+
+  @Override
+  public void forEach(final BiConsumer<? super K, ? super V> action) {
+    for (final HashMap<K, V> bucket : buckets) {
+      bucket.forEach(action);
+    }
+  }
+
+  @Override
+  public HashMap<K, V> toHashMap() {
+    final HashMap<K, V> map = new HashMap<>();
+    forEach(map::put);
+    return map;
+  }
+
+  /**
+   * Takes an immutable snapshot of the state. It does not copy the state.
+   * @return an unmodifiable map that is not affected by further updates
+   */
+  public Map<K, V> snapshot() {
+    if (latestSnapshot == null) {
+      latestSnapshot = new Snapshot<>(buckets, bucketBits, size);
+      shared = true;
+    }
+    return latestSnapshot;
+  }
+
+  /**
+   * An immutable snapshot that shares the buckets with the state.
+   * It is serialized as a HashMap.
+   */
+  private static final class Snapshot<K, V> extends AbstractMap<K, V> implements Serializable {
+    private final HashMap<K, V>[] buckets;
+    private final int bucketBits;
+    private final int size;
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    Snapshot(final HashMap<K, V>[] buckets, final int bucketBits, final int size) {
+      this.buckets = buckets;
+      this.bucketBits = bucketBits;
+      this.size = size;
+    }
+
+    @Override
+    public V get(final Object key) {
+      return buckets[bucketIndex(key, bucketBits)].get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return buckets[bucketIndex(key, bucketBits)].containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      if (entrySet == null) {
+        entrySet = new AbstractSet<Map.Entry<K, V>>() {
+          @Override
+          public Iterator<Map.Entry<K, V>> iterator() {
+            return new SnapshotIterator<>(buckets);
+          }
+
+          @Override
+          public int size() {
+            return size;
+          }
+        };
+      }
+      return entrySet;
+    }
+
+    private Object writeReplace() {
+      return new HashMap<>(this);
+    }
+  }
+
+  /**
+   * An iterator over the immutable entries of the buckets.
+   */
+  private static final class SnapshotIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+    private final HashMap<K, V>[] buckets;
+    private int bucketIndex;
+    private Iterator<Map.Entry<K, V>> bucketIterator;
+
+    SnapshotIterator(final HashMap<K, V>[] buckets) {
+      this.buckets = buckets;
+      this.bucketIndex = 0;
+      this.bucketIterator = buckets[0].entrySet().iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!bucketIterator.hasNext()) {
+        if (bucketIndex + 1 >= buckets.length) {
+          return false;
+        }
+        bucketIndex += 1;
+        bucketIterator = buckets[bucketIndex].entrySet().iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Map.Entry<K, V> entry = bucketIterator.next();
+      return new AbstractMap.SimpleImmutableEntry<>(entry);
+    }
+  }
+}
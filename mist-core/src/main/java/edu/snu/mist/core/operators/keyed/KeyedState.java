@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.keyed;
+
+import java.util.HashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * This is an interface of key-value states which are updated in place.
+ * Unlike the immutable HashMap state, updating a value does not copy the whole state,
+ * so operators should materialize a snapshot via toHashMap() only when it is really needed.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface KeyedState<K, V> {
+
+  /**
+   * Gets the value of the key.
+   * @param key key
+   * @return value, or null if the key does not exist
+   */
+  V get(K key);
+
+  /**
+   * Puts the value of the key.
+   * @param key key
+   * @param value value
+   */
+  void put(K key, V value);
+
+  /**
+   * Removes the key.
+   * @param key key
+   * @return the removed value, or null if the key does not exist
+   */
+  V remove(K key);
+
+  /**
+   * @return the number of keys
+   */
+  int size();
+
+  /**
+   * Removes all the keys.
+   */
+  void clear();
+
+  /**
+   * Performs the action for each key-value pair without creating a snapshot.
+   * The state should not be updated by the action.
+   * @param action the action
+   */
+  void forEach(BiConsumer<? super K, ? super V> action);
+
+  /**
+   * Creates a snapshot of the current state.
+   * The returned map is not affected by further updates.
+   * @return a new hash map that contains all the key-value pairs
+   */
+  HashMap<K, V> toHashMap();
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.keyed;
+
+/**
+ * This class provides static methods for creating keyed states.
+ */
+public final class KeyedStateUtils {
+
+  private KeyedStateUtils() {
+    // do nothing
+  }
+
+  /**
+   * Creates a new keyed state that is specialized to the key type.
+   * Integer and Long keys are kept as primitives, and the other keys (e.g., String) are kept in a hash map.
+   * @param keyType the class of key, or null if it is unknown
+   * @param <K> key type
+   * @param <V> value type
+   * @return a new keyed state
+   */
+  public static <K, V> KeyedState<K, V> newKeyedState(final Class<?> keyType) {
+    if (Integer.class.equals(keyType) || Long.class.equals(keyType)) {
+      return new PrimitiveKeyedState<>(keyType);
+    } else {
+      return new ObjectKeyedState<>();
+    }
+  }
+
+  /**
+   * Creates a new keyed state that takes immutable snapshots of the whole state without copying it.
+   * @param <K> key type
+   * @param <V> value type
+   * @return a new copy-on-write keyed state
+   */
+  public static <K, V> CopyOnWriteKeyedState<K, V> newSnapshotKeyedState() {
+    return new CopyOnWriteKeyedState<>();
+  }
+
+  /**
+   * Gets the class of key from its name.
+   * @param keyTypeName the class name of key, or null if it is unknown
+   * @return the class of key, or null if the class is unknown
+   */
+  public static Class<?> getKeyType(final String keyTypeName) {
+    if (keyTypeName == null) {
+      return null;
+    }
+    try {
+      return Class.forName(keyTypeName);
+    } catch (final ClassNotFoundException e) {
+      // Keys of user-defined classes are kept in the hash map.
+      return null;
+    }
+  }
+}
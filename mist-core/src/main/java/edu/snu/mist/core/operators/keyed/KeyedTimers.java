@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.keyed;
+
+import java.util.PriorityQueue;
+
+/**
+ * This is a queue of per-key timers ordered by their times.
+ * The timers of the same time are ordered by their registration.
+ * A key should have at most one timer in the queue.
+ * The owner keeps the actual deadline of each key and registers the key again if the timer expires before the deadline,
+ * so extending the deadline of a key (e.g., on every input of a session) does not touch the queue.
+ * @param <K> key type
+ */
+public final class KeyedTimers<K> {
+
+  /**
+   * The timers ordered by their times.
+   */
+  private final PriorityQueue<Timer<K>> queue;
+
+  /**
+   * The sequence number of the next timer.
+   */
+  private long sequence;
+
+  public KeyedTimers() {
+    this.queue = new PriorityQueue<>();
+    this.sequence = 0L;
+  }
+
+  /**
+   * Registers a timer of the key.
+   * @param key key
+   * @param time the time of the timer
+   */
+  public void register(final K key, final long time) {
+    queue.add(new Timer<>(key, time, sequence));
+    sequence += 1;
+  }
+
+  /**
+   * Removes the earliest timer that is expired at the current time.
+   * A timer is expired if its time is earlier than the current time.
+   * @param currentTime current time
+   * @return the key of the expired timer, or null if there is no expired timer
+   */
+  public K pollExpired(final long currentTime) {
+    final Timer<K> timer = queue.peek();
+    if (timer == null || timer.time >= currentTime) {
+      return null;
+    }
+    queue.poll();
+    return timer.key;
+  }
+
+  /**
+   * @return the number of timers
+   */
+  public int size() {
+    return queue.size();
+  }
+
+  /**
+   * Removes all the timers.
+   */
+  public void clear() {
+    queue.clear();
+  }
+
+  /**
+   * A timer of a key.
+   */
+  private static final class Timer<K> implements Comparable<Timer<K>> {
+    private final K key;
+    private final long time;
+    private final long sequence;
+
+    Timer(final K key, final long time, final long sequence) {
+      this.key = key;
+      this.time = time;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(final Timer<K> o) {
+      final int result = Long.compare(time, o.time);
+      return result != 0 ? result : Long.compare(sequence, o.sequence);
+    }
+  }
+}
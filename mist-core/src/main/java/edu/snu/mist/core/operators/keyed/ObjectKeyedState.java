@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.keyed;
+
+import java.util.HashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * This keyed state keeps arbitrary object keys in a HashMap.
+ * It is used for String keys and the other non-primitive keys.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class ObjectKeyedState<K, V> implements KeyedState<K, V> {
+
+  /**
+   * The map that holds the state.
+   */
+  private final HashMap<K, V> map;
+
+  public ObjectKeyedState() {
+    this.map = new HashMap<>();
+  }
+
+  @Override
+  public V get(final K key) {
+    return map.get(key);
+  }
+
+  @Override
+  public void put(final K key, final V value) {
+    map.put(key, value);
+  }
+
+  @Override
+  public V remove(final K key) {
+    return map.remove(key);
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public void clear() {
+    map.clear();
+  }
+
+  @Override
+  public void forEach(final BiConsumer<? super K, ? super V> action) {
+    map.forEach(action);
+  }
+
+  @Override
+  public HashMap<K, V> toHashMap() {
+    return new HashMap<>(map);
+  }
+}
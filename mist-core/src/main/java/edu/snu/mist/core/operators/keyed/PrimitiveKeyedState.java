@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.keyed;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * This keyed state keeps Integer or Long keys as primitive longs in an open-addressing hash table.
+ * It does not create boxed keys and map entries for each key,
+ * so it reduces the memory footprint and gc pressure of states with many integral keys.
+ * @param <K> key type (Integer or Long)
+ * @param <V> value type
+ */
+public final class PrimitiveKeyedState<K, V> implements KeyedState<K, V> {
+
+  /**
+   * The default capacity of the table. It should be a power of two.
+   */
+  private static final int DEFAULT_CAPACITY = 16;
+
+  /**
+   * The table is resized when the number of keys exceeds this ratio of the capacity.
+   */
+  private static final float LOAD_FACTOR = 0.5f;
+
+  /**
+   * True if the keys are Integer, false if the keys are Long.
+   */
+  private final boolean intKey;
+
+  /**
+   * The keys of the table.
+   */
+  private long[] keys;
+
+  /**
+   * The values of the table. A null value represents an empty slot.
+   */
+  private Object[] values;
+
+  /**
+   * The number of keys.
+   */
+  private int size;
+
+  /**
+   * The number of keys that triggers resizing.
+   */
+  private int threshold;
+
+  /**
+   * @param keyType the class of key. It should be Integer or Long
+   */
+  public PrimitiveKeyedState(final Class<?> keyType) {
+    if (keyType.equals(Integer.class)) {
+      this.intKey = true;
+    } else if (keyType.equals(Long.class)) {
+      this.intKey = false;
+    } else {
+      throw new IllegalArgumentException("Invalid key type for primitive keyed state: " + keyType);
+    }
+    allocate(DEFAULT_CAPACITY);
+  }
+
+  private void allocate(final int capacity) {
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+    this.threshold = (int)(capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * Mixes the bits of the key (finalizer of MurmurHash3) to avoid clustering of sequential keys.
+   */
+  private static int hash(final long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int)h;
+  }
+
+  private static long toLong(final Object key) {
+    return ((Number)key).longValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  private K toKey(final long key) {
+    if (intKey) {
+      return (K)Integer.valueOf((int)key);
+    } else {
+      return (K)Long.valueOf(key);
+    }
+  }
+
+  /**
+   * Finds the slot of the key.
+   * @return the index of the slot that contains the key, or the empty slot where the key should be inserted
+   */
+  private int findSlot(final long key) {
+    final int mask = keys.length - 1;
+    int index = hash(key) & mask;
+    while (values[index] != null && keys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V get(final K key) {
+    return (V)values[findSlot(toLong(key))];
+  }
+
+  @Override
+  public void put(final K key, final V value) {
+    if (value == null) {
+      remove(key);
+      return;
+    }
+    final long k = toLong(key);
+    final int index = findSlot(k);
+    if (values[index] == null) {
+      keys[index] = k;
+      values[index] = value;
+      size += 1;
+      if (size > threshold) {
+        resize(keys.length * 2);
+      }
+    } else {
+      values[index] = value;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V remove(final K key) {
+    final int mask = keys.length - 1;
+    int index = findSlot(toLong(key));
+    final V removed = (V)values[index];
+    if (removed == null) {
+      return null;
+    }
+    values[index] = null;
+    size -= 1;
+    // Shift back the following entries of the probing sequence to fill the hole.
+    int next = (index + 1) & mask;
+    while (values[next] != null) {
+      final int ideal = hash(keys[next]) & mask;
+      if (((next - ideal) & mask) >= ((next - index) & mask)) {
+        keys[index] = keys[next];
+        values[index] = values[next];
+        values[next] = null;
+        index = next;
+      }
+      next = (next + 1) & mask;
+    }
+    return removed;
+  }
+
+  private void resize(final int capacity) {
+    final long[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != null) {
+        final int index = findSlot(oldKeys[i]);
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void forEach(final BiConsumer<? super K, ? super V> action) {
+    for (int i = 0; i < keys.length; i++) {
+      if (values[i] != null) {
+        action.accept(toKey(keys[i]), (V)values[i]);
+      }
+    }
+  }
+
+  @Override
+  public HashMap<K, V> toHashMap() {
+    final HashMap<K, V> map = new HashMap<>();
+    forEach(map::put);
+    return map;
+  }
+}
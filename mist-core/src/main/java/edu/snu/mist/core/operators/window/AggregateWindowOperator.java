@@ -20,6 +20,7 @@ import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.functions.MISTBiFunction;
 import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.core.operators.OneStreamOperator;
 import edu.snu.mist.core.operators.parameters.SerializedUdf;
@@ -33,6 +34,8 @@ import java.util.logging.Logger;
 /**
  * This operator apply user-defined operation to the WindowData received from window operator.
  * It can use the start and end information of WindowData also.
+ * If it is created with an associative reduce function, it reduces the data in the window
+ * by combining the partial aggregates of the shared slices that the window operator makes.
  * @param <IN> the type of input data
  * @param <OUT> the type of output data
  */
@@ -45,11 +48,16 @@ public final class AggregateWindowOperator<IN, OUT>
    */
   private final MISTFunction<WindowData<IN>, OUT> aggregateFunc;
 
+  /**
+   * The associative function that reduces the data in the window, or null if aggregateFunc is used.
+   */
+  private final MISTBiFunction<IN, IN, IN> reduceFunc;
+
   @Inject
   private AggregateWindowOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
       final ClassLoader classLoader) throws IOException, ClassNotFoundException {
-    this(SerializeUtils.deserializeFromString(serializedObject, classLoader));
+    this((MISTFunction<WindowData<IN>, OUT>) SerializeUtils.deserializeFromString(serializedObject, classLoader));
   }
 
   /**
@@ -58,13 +66,47 @@ public final class AggregateWindowOperator<IN, OUT>
   @Inject
   public AggregateWindowOperator(final MISTFunction<WindowData<IN>, OUT> aggregateFunc) {
     this.aggregateFunc = aggregateFunc;
+    this.reduceFunc = null;
+  }
+
+  /**
+   * @param reduceFunc the associative function that reduces the data in the WindowData
+   */
+  public AggregateWindowOperator(final MISTBiFunction<IN, IN, IN> reduceFunc) {
+    this.aggregateFunc = null;
+    this.reduceFunc = reduceFunc;
+  }
+
+  /**
+   * Reduces the data in the window.
+   * @param windowData window data
+   * @return the reduced value, or null if the window is empty
+   */
+  private IN reduce(final WindowData<IN> windowData) {
+    if (windowData instanceof SlicedWindowData) {
+      return ((SlicedWindowData<IN>) windowData).reduce(reduceFunc);
+    }
+    IN result = null;
+    for (final IN data : windowData.getDataCollection()) {
+      result = result == null ? data : reduceFunc.apply(result, data);
+    }
+    return result;
   }
 
   @Override
   public void processLeftData(final MistDataEvent input) {
     try {
       final WindowData<IN> windowData = (WindowData<IN>) input.getValue();
-      final OUT operationResult = aggregateFunc.apply(windowData);
+      final Object operationResult;
+      if (reduceFunc == null) {
+        operationResult = aggregateFunc.apply(windowData);
+      } else {
+        operationResult = reduce(windowData);
+        if (operationResult == null) {
+          // an empty window does not have the reduced value
+          return;
+        }
+      }
 
       if (LOG.isLoggable(Level.FINE)) {
         LOG.log(Level.FINE, "{0} aggregates the input window {1} which started at {2} and ended at {3}, " +
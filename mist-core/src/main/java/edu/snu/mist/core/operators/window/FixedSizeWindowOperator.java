@@ -30,6 +30,10 @@ import java.util.logging.Logger;
  * This abstract class represents a basic operator makes windows and emits a collection of data.
  * When a sub-class receives a watermark or data, it requests FixedSizeWindowOperator to
  * reorganize the queue to have available windows and put the watermark or data into the windows.
+ * The inputs are stored once in slices that are shared by overlapping windows,
+ * and each window is assembled from its slices when it is emitted.
+ * A new slice begins whenever a window is created or emitted,
+ * so that the memory and the cost of putting an input do not depend on the number of overlapping windows.
  * @param <T> the type of data
  */
 abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator {
@@ -54,7 +58,28 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
   /**
    * The queue of windows in this operator.
    */
-  private final Queue<Window<T>> windowQueue;
+  private final Queue<WindowBoundary> windowQueue;
+
+  /**
+   * The slices that are contained in the windows of the window queue.
+   */
+  private final Deque<WindowSlice<T>> slices;
+
+  /**
+   * The id of the first slice in the slice queue.
+   */
+  private long firstSliceId;
+
+  /**
+   * True if the last slice can receive inputs.
+   */
+  private boolean lastSliceOpen;
+
+  /**
+   * The slice that was created last. It may be already removed from the slice queue.
+   * A new slice maintains its partial aggregate with the function that this slice was aggregated with.
+   */
+  private WindowSlice<T> latestSlice;
 
   protected FixedSizeWindowOperator(final int windowSize,
                                     final int windowEmissionInterval) {
@@ -62,7 +87,19 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
     this.windowSize = windowSize;
     this.windowEmissionInterval = windowEmissionInterval;
     this.windowQueue = new LinkedList<>();
+    this.slices = new ArrayDeque<>();
     this.windowCreationPoint = Long.MIN_VALUE;
+    this.firstSliceId = 0L;
+    this.lastSliceOpen = false;
+    this.latestSlice = null;
+  }
+
+  /**
+   * Adds a new window that contains the inputs received from now on.
+   */
+  private void addWindow(final long start, final long size) {
+    lastSliceOpen = false;
+    windowQueue.add(new WindowBoundary(start, size, firstSliceId + slices.size()));
   }
 
   /**
@@ -77,8 +114,7 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
         windowCreationPoint = currentEventPoint;
       } else {
         do {
-          final Window<T> window = new WindowImpl<>(currentEventPoint, temporalWindowSize);
-          windowQueue.add(window);
+          addWindow(currentEventPoint, temporalWindowSize);
           temporalWindowSize += windowEmissionInterval;
         } while (temporalWindowSize <= windowSize);
         windowCreationPoint = currentEventPoint + temporalWindowSize - windowSize;
@@ -86,8 +122,7 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
     }
     // Checks the window creation time is elapsed
     while (windowCreationPoint <= currentEventPoint) {
-      final Window<T> window = new WindowImpl<>(windowCreationPoint, windowSize);
-      windowQueue.add(window);
+      addWindow(windowCreationPoint, windowSize);
       windowCreationPoint += windowEmissionInterval;
     }
   }
@@ -98,32 +133,82 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
    */
   protected void emitElapsedWindow(final long currentEventPoint) {
     // Checks the window emission time is elapsed
-    while (!windowQueue.isEmpty() && ((Window) windowQueue.peek()).getEnd() < currentEventPoint) {
-      final Window<T> window = windowQueue.poll();
-      outputEmitter.emitData(new MistDataEvent(window, window.getLatestTimestamp()));
-      final MistWatermarkEvent latestWatermark = window.getLatestWatermark();
+    while (!windowQueue.isEmpty() && windowQueue.peek().getEnd() < currentEventPoint) {
+      // The slices of the emitted window should not receive inputs anymore
+      lastSliceOpen = false;
+      final WindowBoundary window = windowQueue.poll();
+      final List<WindowSlice<T>> windowSlices = new ArrayList<>();
+      long latestTimestamp = 0L;
+      MistWatermarkEvent latestWatermark = new MistWatermarkEvent(0L);
+      final Iterator<WindowSlice<T>> itr = slices.iterator();
+      for (long sliceId = firstSliceId; itr.hasNext(); sliceId++) {
+        final WindowSlice<T> slice = itr.next();
+        if (sliceId >= window.getFirstSliceId()) {
+          windowSlices.add(slice);
+          if (slice.hasData()) {
+            latestTimestamp = slice.getLatestTimestamp();
+          } else if (latestTimestamp < slice.getLatestTimestamp()) {
+            latestTimestamp = slice.getLatestTimestamp();
+          }
+          final MistWatermarkEvent sliceWatermark = slice.getLatestWatermark();
+          if (sliceWatermark != null && latestWatermark.getTimestamp() < sliceWatermark.getTimestamp()) {
+            latestWatermark = sliceWatermark;
+          }
+        }
+      }
+      removeUnusedSlices();
+
+      outputEmitter.emitData(new MistDataEvent(
+          new SlicedWindowData<>(window.getStart(), window.getEnd(), windowSlices), latestTimestamp));
       if (latestWatermark.getTimestamp() != 0L) {
         outputEmitter.emitWatermark(latestWatermark);
       }
     }
   }
 
+  /**
+   * Removes the slices that are not contained in any window.
+   */
+  private void removeUnusedSlices() {
+    final long lastSliceId = firstSliceId + slices.size();
+    final long firstUsedSliceId = windowQueue.isEmpty() ? lastSliceId : windowQueue.peek().getFirstSliceId();
+    while (firstSliceId < firstUsedSliceId) {
+      slices.poll();
+      firstSliceId += 1;
+    }
+  }
+
+  /**
+   * Gets the slice that receives inputs.
+   * @return the last slice, or null if there is no window to put inputs
+   */
+  private WindowSlice<T> getOpenSlice() {
+    if (windowQueue.isEmpty()) {
+      return null;
+    }
+    if (!lastSliceOpen) {
+      latestSlice = new WindowSlice<>(latestSlice == null ? null : latestSlice.getPartialAggregateFunc());
+      slices.add(latestSlice);
+      lastSliceOpen = true;
+    }
+    return latestSlice;
+  }
+
   /**
    * Puts input data into available windows.
    * @param input the input data
    */
   protected void putData(final MistDataEvent input) {
-    // Iterates the windowQueue and puts the input MistEvent into some windows
-    final Iterator<Window<T>> itr = windowQueue.iterator();
-    while (itr.hasNext()) {
-      final Window<T> window = itr.next();
-
+    final WindowSlice<T> slice = getOpenSlice();
+    if (slice != null) {
       if (LOG.isLoggable(Level.FINE)) {
-        LOG.log(Level.FINE, "{0} puts input data {1} into window {2}",
-            new Object[]{this.getClass().getName(), input, window});
+        LOG.log(Level.FINE, "{0} puts input data {1} into the windows {2}",
+            new Object[]{this.getClass().getName(), input, windowQueue});
       }
-
-      window.putData(input);
+      // The input is the output of the upstream operator, whose type is the type of the windows
+      @SuppressWarnings("unchecked")
+      final T data = (T) input.getValue();
+      slice.putData(data, input.getTimestamp());
     }
   }
 
@@ -132,19 +217,26 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
    * @param input the input watermark
    */
   protected void putWatermark(final MistWatermarkEvent input) {
-    // Iterates the windowQueue and puts the input MistEvent into some windows
-    final Iterator<Window<T>> itr = windowQueue.iterator();
-    while (itr.hasNext()) {
-      final Window<T> window = itr.next();
-      window.putWatermark(input);
+    final WindowSlice<T> slice = getOpenSlice();
+    if (slice != null) {
+      slice.putWatermark(input);
     }
   }
 
   @Override
   public Map<String, Object> getStateSnapshot() {
     final Map<String, Object> stateMap = new HashMap<>();
+    final List<WindowSlice<T>> sliceList = new ArrayList<>(slices.size());
+    for (final WindowSlice<T> slice : slices) {
+      // The partial aggregates are not the state of this operator
+      sliceList.add(new WindowSlice<>(slice));
+    }
+    final Cloner cloner = new Cloner(new ObjenesisInstantiationStrategy());
     stateMap.put("windowCreationPoint", windowCreationPoint);
-    stateMap.put("windowQueue", new Cloner(new ObjenesisInstantiationStrategy()).deepClone(windowQueue));
+    stateMap.put("windowQueue", new LinkedList<>(windowQueue));
+    stateMap.put("slices", cloner.deepClone(sliceList));
+    stateMap.put("firstSliceId", firstSliceId);
+    stateMap.put("lastSliceOpen", lastSliceOpen);
     return stateMap;
   }
 
@@ -152,7 +244,51 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
   @Override
   public void setState(final Map<String, Object> loadedState) {
     windowCreationPoint = (long)loadedState.get("windowCreationPoint");
-    windowQueue.addAll((Queue<Window<T>>)loadedState.get("windowQueue"));
+    windowQueue.clear();
+    slices.clear();
+    if (loadedState.containsKey("slices")) {
+      windowQueue.addAll((Queue<WindowBoundary>)loadedState.get("windowQueue"));
+      slices.addAll((List<WindowSlice<T>>)loadedState.get("slices"));
+      firstSliceId = (long)loadedState.get("firstSliceId");
+      lastSliceOpen = (boolean)loadedState.get("lastSliceOpen");
+    } else {
+      // The state was checkpointed in the former format, in which each window holds its own copy of the data
+      setWindows((Queue<Window<T>>)loadedState.get("windowQueue"));
+    }
+    latestSlice = slices.peekLast();
+  }
+
+  /**
+   * Splits the windows that hold their own data into the window boundaries and the slices.
+   * A window holds the inputs received after it was created, so the data of a window is a suffix of
+   * the data of the previous window, and the rest of the previous window becomes a slice.
+   * The timestamps of a slice are those of the window that it begins,
+   * which gives the same timestamps and watermarks of the emitted windows.
+   * @param windows the windows in the order of creation
+   */
+  private void setWindows(final Queue<Window<T>> windows) {
+    firstSliceId = 0L;
+    lastSliceOpen = false;
+    final Iterator<Window<T>> itr = windows.iterator();
+    Window<T> window = itr.hasNext() ? itr.next() : null;
+    while (window != null) {
+      final Window<T> nextWindow = itr.hasNext() ? itr.next() : null;
+      windowQueue.add(new WindowBoundary(
+          window.getStart(), window.getEnd() - window.getStart() + 1, firstSliceId + slices.size()));
+      final List<T> data = new ArrayList<>(window.getDataCollection());
+      final int numNextData = nextWindow == null ? 0 : nextWindow.getDataCollection().size();
+      final List<T> sliceData = new ArrayList<>(data.subList(0, data.size() - numNextData));
+      final MistWatermarkEvent watermark = window.getLatestWatermark();
+      final boolean hasWatermark = watermark != null && watermark.getTimestamp() != 0L;
+      final boolean receivedWatermark = hasWatermark &&
+          (nextWindow == null || !watermark.equals(nextWindow.getLatestWatermark()));
+      if (!sliceData.isEmpty() || receivedWatermark) {
+        slices.add(new WindowSlice<>(sliceData, !sliceData.isEmpty(), window.getLatestTimestamp(),
+            hasWatermark ? watermark : null));
+        lastSliceOpen = nextWindow == null;
+      }
+      window = nextWindow;
+    }
   }
 
   @Override
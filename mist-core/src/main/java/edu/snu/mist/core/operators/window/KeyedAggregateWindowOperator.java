@@ -0,0 +1,450 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.window;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.ObjenesisInstantiationStrategy;
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.common.windows.WindowData;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.OneStreamStateHandlerOperator;
+import edu.snu.mist.core.operators.keyed.KeyedState;
+import edu.snu.mist.core.operators.keyed.KeyedStateUtils;
+import edu.snu.mist.core.operators.keyed.KeyedTimers;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This operator makes time or session windows for each key, and aggregates each window by the user-defined function.
+ * It emits a tuple of the key and the aggregated result when a window of the key is closed.
+ * The timestamp of the output is the end of the time window, or the latest timestamp of the session,
+ * so the outputs are emitted in the order of their timestamps.
+ * A key only keeps the timestamps and the values of its inputs that are not emitted yet, and a timer
+ * that fires when its earliest window is closed, so the keys that have no input do not cost any processing.
+ * A key is evicted when all of its windows are emitted.
+ * The time windows are aligned to the multiples of the window interval, so all the keys share the window boundaries.
+ * Empty windows do not produce any output.
+ * The windows that end before the latest timestamp of the inputs and watermarks are closed.
+ * An out-of-order input is inserted into the windows of its key that are still open,
+ * and it is dropped only if all of its windows are closed, so a closed window is never emitted again.
+ * @param <K> the type of key
+ * @param <IN> the type of input data
+ * @param <OUT> the type of the aggregated result
+ */
+public final class KeyedAggregateWindowOperator<K, IN, OUT> extends OneStreamStateHandlerOperator {
+  private static final Logger LOG = Logger.getLogger(KeyedAggregateWindowOperator.class.getName());
+
+  /**
+   * The function that extracts the key from the input.
+   */
+  private final MISTFunction<IN, K> keyFunc;
+
+  /**
+   * The function that aggregates the data in a window.
+   */
+  private final MISTFunction<WindowData<IN>, OUT> aggregateFunc;
+
+  /**
+   * The class of key, or null if it is unknown.
+   */
+  private final Class<?> keyType;
+
+  /**
+   * True if the windows are session windows, false if the windows are time windows.
+   */
+  private final boolean session;
+
+  /**
+   * The size of the time windows.
+   */
+  private final long windowSize;
+
+  /**
+   * The interval of the time windows, or the gap of the session windows.
+   */
+  private final long windowInterval;
+
+  /**
+   * The windows of the keys.
+   */
+  private KeyedState<K, KeyWindows> windows;
+
+  /**
+   * The timers that fire when the earliest windows of the keys are closed.
+   */
+  private final KeyedTimers<K> timers;
+
+  /**
+   * The latest timestamp of the inputs and watermarks. The windows that end before it are closed.
+   */
+  private long currentTime;
+
+  /**
+   * @param keyFunc the function that extracts the key from the input
+   * @param aggregateFunc the function that aggregates the data in a window
+   * @param keyType the class of key, or null if it is unknown
+   * @param windowType TIME_WINDOW or SESSION_WINDOW
+   * @param windowSize the size of the time windows. It is ignored for the session windows
+   * @param windowInterval the interval of the time windows, or the gap of the session windows
+   */
+  public KeyedAggregateWindowOperator(final MISTFunction<IN, K> keyFunc,
+                                      final MISTFunction<WindowData<IN>, OUT> aggregateFunc,
+                                      final Class<?> keyType,
+                                      final ConfValues.OperatorType windowType,
+                                      final long windowSize,
+                                      final long windowInterval) {
+    super();
+    if (windowType == ConfValues.OperatorType.SESSION_WINDOW) {
+      this.session = true;
+    } else if (windowType == ConfValues.OperatorType.TIME_WINDOW) {
+      this.session = false;
+      if (windowSize <= 0 || windowInterval <= 0) {
+        throw new IllegalArgumentException("Invalid time window: " + windowSize + ", " + windowInterval);
+      }
+    } else {
+      throw new IllegalArgumentException("Keyed windows should be time or session windows: " + windowType);
+    }
+    this.keyFunc = keyFunc;
+    this.aggregateFunc = aggregateFunc;
+    this.keyType = keyType;
+    this.windowSize = windowSize;
+    this.windowInterval = windowInterval;
+    this.windows = KeyedStateUtils.newKeyedState(keyType);
+    this.timers = new KeyedTimers<>();
+    this.currentTime = Long.MIN_VALUE;
+  }
+
+  /**
+   * @return the index of the earliest time window that ends at or after the timestamp
+   */
+  private long getFirstWindowIndex(final long timestamp) {
+    return -Math.floorDiv(windowSize - 1 - timestamp, windowInterval);
+  }
+
+  /**
+   * @return the inclusive end of the time window of the index
+   */
+  private long getWindowEnd(final long windowIndex) {
+    return windowIndex * windowInterval + windowSize - 1;
+  }
+
+  /**
+   * @return the index of the earliest open time window that contains the timestamp,
+   * or Long.MIN_VALUE if the timestamp is not in any open time window
+   */
+  private long getFirstOpenWindowIndex(final long timestamp, final long earliestWindowIndex) {
+    long windowIndex = Math.max(getFirstWindowIndex(timestamp), earliestWindowIndex);
+    if (currentTime != Long.MIN_VALUE) {
+      windowIndex = Math.max(windowIndex, getFirstWindowIndex(currentTime));
+    }
+    return windowIndex * windowInterval <= timestamp ? windowIndex : Long.MIN_VALUE;
+  }
+
+  /**
+   * @return the time when the timer of the key should be fired
+   */
+  private long getDeadline(final KeyWindows keyWindows) {
+    return session ? keyWindows.getLatestTimestamp() + windowInterval : getWindowEnd(keyWindows.windowIndex);
+  }
+
+  /**
+   * Registers the timer of the key at its deadline.
+   */
+  private void schedule(final K key, final KeyWindows keyWindows) {
+    keyWindows.timerTime = getDeadline(keyWindows);
+    timers.register(key, keyWindows.timerTime);
+  }
+
+  /**
+   * Emits the windows that are closed before the current time in the order of their deadlines.
+   */
+  private void emitClosedWindows(final long time) {
+    currentTime = Math.max(currentTime, time);
+    for (K key = timers.pollExpired(currentTime); key != null; key = timers.pollExpired(currentTime)) {
+      final KeyWindows keyWindows = windows.get(key);
+      if (session) {
+        emitSession(key, keyWindows);
+      } else {
+        emitTimeWindows(key, keyWindows);
+      }
+    }
+  }
+
+  private void emitSession(final K key, final KeyWindows keyWindows) {
+    if (getDeadline(keyWindows) != keyWindows.timerTime) {
+      // The session has been extended
+      schedule(key, keyWindows);
+      return;
+    }
+    final long start = keyWindows.getTimestamp(0);
+    final long latestTimestamp = keyWindows.getLatestTimestamp();
+    emit(key, keyWindows.getData(keyWindows.size()), start, latestTimestamp - start + 1, latestTimestamp);
+    windows.remove(key);
+  }
+
+  /**
+   * Emits the earliest window of the key, and schedules the next window.
+   * Only one window is emitted at a time, so the windows of the keys are emitted in the order of their ends.
+   */
+  private void emitTimeWindows(final K key, final KeyWindows keyWindows) {
+    if (keyWindows.size() > 0 && getWindowEnd(keyWindows.windowIndex) < currentTime) {
+      final long start = keyWindows.windowIndex * windowInterval;
+      final long end = getWindowEnd(keyWindows.windowIndex);
+      final int count = keyWindows.countUntil(end);
+      if (count > 0) {
+        emit(key, keyWindows.getData(count), start, windowSize, end);
+      }
+      // The data before the next window are not used anymore
+      keyWindows.windowIndex += 1;
+      keyWindows.removeData(keyWindows.countUntil(keyWindows.windowIndex * windowInterval - 1));
+      if (keyWindows.size() > 0) {
+        keyWindows.windowIndex = Math.max(keyWindows.windowIndex, getFirstWindowIndex(keyWindows.getTimestamp(0)));
+      }
+    }
+    if (keyWindows.size() == 0) {
+      windows.remove(key);
+    } else {
+      schedule(key, keyWindows);
+    }
+  }
+
+  private void emit(final K key, final List<IN> data, final long start, final long size, final long timestamp) {
+    final WindowData<IN> windowData = new WindowImpl<>(start, size, data);
+    final OUT result = aggregateFunc.apply(windowData);
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} aggregates the window of key {1} which started at {2} and ended at {3}, " +
+              "and generates {4}",
+          new Object[]{this.getClass().getName(), key, windowData.getStart(), windowData.getEnd(), result});
+    }
+    outputEmitter.emitData(new MistDataEvent(new Tuple2<>(key, result), timestamp));
+  }
+
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    final long timestamp = input.getTimestamp();
+    emitClosedWindows(timestamp);
+    updateLatestEventTimestamp(timestamp);
+
+    final IN value = (IN) input.getValue();
+    final K key = keyFunc.apply(value);
+    final KeyWindows keyWindows = windows.get(key);
+    if (keyWindows == null) {
+      // A new session is closed if it ends before the current time
+      final long windowIndex = session ? (timestamp + windowInterval >= currentTime ? 0 : Long.MIN_VALUE)
+          : getFirstOpenWindowIndex(timestamp, Long.MIN_VALUE);
+      if (windowIndex != Long.MIN_VALUE) {
+        final KeyWindows newWindows = new KeyWindows(windowIndex);
+        newWindows.addData(value, timestamp);
+        windows.put(key, newWindows);
+        schedule(key, newWindows);
+        return;
+      }
+    } else if (session ? timestamp + windowInterval >= keyWindows.getTimestamp(0)
+        : getFirstOpenWindowIndex(timestamp, keyWindows.windowIndex) != Long.MIN_VALUE) {
+      // The input belongs to the open session or time windows of the key, even if it is out of order
+      keyWindows.insertData(value, timestamp);
+      return;
+    }
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} drops the input {1} of key {2} because its windows are closed",
+          new Object[]{this.getClass().getName(), input, key});
+    }
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    emitClosedWindows(input.getTimestamp());
+    updateLatestEventTimestamp(input.getTimestamp());
+    outputEmitter.emitWatermark(input);
+  }
+
+  @Override
+  public Map<String, Object> getStateSnapshot() {
+    final Map<String, Object> stateMap = new HashMap<>();
+    stateMap.put("keyedWindows", new Cloner(new ObjenesisInstantiationStrategy()).deepClone(windows.toHashMap()));
+    stateMap.put("keyedWindowsCurrentTime", currentTime);
+    return stateMap;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setState(final Map<String, Object> loadedState) {
+    final Map<K, KeyWindows> loadedWindows = (Map<K, KeyWindows>) loadedState.get("keyedWindows");
+    windows = KeyedStateUtils.newKeyedState(keyType);
+    timers.clear();
+    final Long loadedCurrentTime = (Long) loadedState.get("keyedWindowsCurrentTime");
+    currentTime = loadedCurrentTime == null ? Long.MIN_VALUE : loadedCurrentTime;
+    for (final Map.Entry<K, KeyWindows> entry : loadedWindows.entrySet()) {
+      windows.put(entry.getKey(), entry.getValue());
+      schedule(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent input) {
+    checkpointMap.put(latestTimestampBeforeCheckpoint, getStateSnapshot());
+    outputEmitter.emitCheckpoint(input);
+  }
+
+  /**
+   * The inputs of a key that are not emitted yet, in the order of their timestamps.
+   * The values and the timestamps are kept in circular arrays instead of events.
+   */
+  private static final class KeyWindows implements Serializable {
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * The index of the earliest time window that is not emitted yet.
+     */
+    private long windowIndex;
+
+    /**
+     * The time of the registered timer.
+     */
+    private long timerTime;
+    private Object[] values;
+    private long[] timestamps;
+    private int head;
+    private int size;
+
+    KeyWindows(final long windowIndex) {
+      this.windowIndex = windowIndex;
+      this.values = new Object[INITIAL_CAPACITY];
+      this.timestamps = new long[INITIAL_CAPACITY];
+      this.head = 0;
+      this.size = 0;
+    }
+
+    int size() {
+      return size;
+    }
+
+    long getTimestamp(final int index) {
+      return timestamps[(head + index) % timestamps.length];
+    }
+
+    long getLatestTimestamp() {
+      return getTimestamp(size - 1);
+    }
+
+    void addData(final Object value, final long timestamp) {
+      if (size == values.length) {
+        final Object[] newValues = new Object[values.length * 2];
+        final long[] newTimestamps = new long[values.length * 2];
+        for (int i = 0; i < size; i++) {
+          newValues[i] = values[(head + i) % values.length];
+          newTimestamps[i] = timestamps[(head + i) % values.length];
+        }
+        values = newValues;
+        timestamps = newTimestamps;
+        head = 0;
+      }
+      final int tail = (head + size) % values.length;
+      values[tail] = value;
+      timestamps[tail] = timestamp;
+      size += 1;
+    }
+
+    /**
+     * Inserts the data after the data whose timestamps are not later than the timestamp.
+     */
+    void insertData(final Object value, final long timestamp) {
+      addData(value, timestamp);
+      int index = size - 1;
+      while (index > 0 && getTimestamp(index - 1) > timestamp) {
+        final int to = (head + index) % values.length;
+        final int from = (head + index - 1) % values.length;
+        values[to] = values[from];
+        timestamps[to] = timestamps[from];
+        index -= 1;
+      }
+      final int position = (head + index) % values.length;
+      values[position] = value;
+      timestamps[position] = timestamp;
+    }
+
+    /**
+     * @return the number of the data whose timestamps are not later than the timestamp
+     */
+    int countUntil(final long timestamp) {
+      int count = 0;
+      while (count < size && getTimestamp(count) <= timestamp) {
+        count += 1;
+      }
+      return count;
+    }
+
+    /**
+     * @return the first data of the count
+     */
+    <T> List<T> getData(final int count) {
+      final List<T> data = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        data.add((T) values[(head + i) % values.length]);
+      }
+      return data;
+    }
+
+    /**
+     * Removes the first data of the count.
+     */
+    void removeData(final int count) {
+      for (int i = 0; i < count; i++) {
+        values[(head + i) % values.length] = null;
+      }
+      head = (head + count) % values.length;
+      size -= count;
+      if (size == 0) {
+        head = 0;
+        if (values.length > INITIAL_CAPACITY) {
+          values = new Object[INITIAL_CAPACITY];
+          timestamps = new long[INITIAL_CAPACITY];
+        }
+      } else if (size < values.length / 4 && values.length > INITIAL_CAPACITY) {
+        shrink();
+      }
+    }
+
+    private void shrink() {
+      final int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(size) * 2);
+      final Object[] newValues = new Object[capacity];
+      final long[] newTimestamps = new long[capacity];
+      for (int i = 0; i < size; i++) {
+        newValues[i] = values[(head + i) % values.length];
+        newTimestamps[i] = timestamps[(head + i) % values.length];
+      }
+      values = newValues;
+      timestamps = newTimestamps;
+      head = 0;
+    }
+  }
+}
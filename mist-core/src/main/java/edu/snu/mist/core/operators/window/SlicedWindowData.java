@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.window;
+
+import edu.snu.mist.common.functions.MISTBiFunction;
+import edu.snu.mist.common.windows.WindowData;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class represents the window data that is assembled from the shared slices at emission time.
+ * The data collection is materialized only when it is requested.
+ * @param <T> the type of data in this window
+ */
+public final class SlicedWindowData<T> implements WindowData<T>, Serializable {
+
+  /**
+   * The slices that are included in this window.
+   */
+  private final List<WindowSlice<T>> slices;
+
+  /**
+   * The start time or count.
+   */
+  private final long start;
+
+  /**
+   * The end time or count.
+   */
+  private final long end;
+
+  /**
+   * The materialized data collection.
+   */
+  private List<T> dataCollection;
+
+  SlicedWindowData(final long start,
+                   final long end,
+                   final List<WindowSlice<T>> slices) {
+    this.start = start;
+    this.end = end;
+    this.slices = slices;
+  }
+
+  @Override
+  public Collection<T> getDataCollection() {
+    if (dataCollection == null) {
+      int size = 0;
+      for (final WindowSlice<T> slice : slices) {
+        size += slice.getDataList().size();
+      }
+      dataCollection = new ArrayList<>(size);
+      for (final WindowSlice<T> slice : slices) {
+        dataCollection.addAll(slice.getDataList());
+      }
+    }
+    return dataCollection;
+  }
+
+  @Override
+  public long getStart() {
+    return start;
+  }
+
+  @Override
+  public long getEnd() {
+    return end;
+  }
+
+  /**
+   * Reduces the data in this window by combining the partial aggregates of the slices.
+   * @param reduceFunc associative reduce function
+   * @return the reduced value, or null if the window is empty
+   */
+  public T reduce(final MISTBiFunction<T, T, T> reduceFunc) {
+    T result = null;
+    for (final WindowSlice<T> slice : slices) {
+      final T partial = slice.getPartialAggregate(reduceFunc);
+      if (partial != null) {
+        result = result == null ? partial : reduceFunc.apply(result, partial);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final SlicedWindowData<?> that = (SlicedWindowData<?>) o;
+    return start == that.start && end == that.end && getDataCollection().equals(that.getDataCollection());
+  }
+
+  @Override
+  public int hashCode() {
+    int result = (int) (start ^ (start >>> 32));
+    result = 31 * result + (int) (end ^ (end >>> 32));
+    result = 31 * result + getDataCollection().hashCode();
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "SlicedWindowData{start=" + start + ", end=" + end + ", data=" + getDataCollection() + "}";
+  }
+}
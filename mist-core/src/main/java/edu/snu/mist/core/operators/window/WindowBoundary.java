@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.window;
+
+import java.io.Serializable;
+
+/**
+ * This class represents the boundary of a window that consists of slices.
+ * The window does not hold data, but it points the first slice that it contains.
+ */
+final class WindowBoundary implements Serializable {
+
+  /**
+   * The start time or count.
+   */
+  private final long start;
+
+  /**
+   * The end time or count.
+   */
+  private final long end;
+
+  /**
+   * The id of the first slice that the window contains.
+   */
+  private final long firstSliceId;
+
+  WindowBoundary(final long start,
+                 final long size,
+                 final long firstSliceId) {
+    this.start = start;
+    this.end = start + size - 1;
+    this.firstSliceId = firstSliceId;
+  }
+
+  long getStart() {
+    return start;
+  }
+
+  long getEnd() {
+    return end;
+  }
+
+  long getFirstSliceId() {
+    return firstSliceId;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final WindowBoundary that = (WindowBoundary) o;
+    return start == that.start && end == that.end && firstSliceId == that.firstSliceId;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = (int) (start ^ (start >>> 32));
+    result = 31 * result + (int) (end ^ (end >>> 32));
+    result = 31 * result + (int) (firstSliceId ^ (firstSliceId >>> 32));
+    return result;
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.window;
+
+import edu.snu.mist.common.functions.MISTBiFunction;
+import edu.snu.mist.core.MistWatermarkEvent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a slice of the input stream that is shared by overlapping windows.
+ * A slice contains the consecutive inputs received between two window creation or emission points,
+ * so each input is stored only once regardless of the number of windows that contain it.
+ * A slice is sealed once it is included in an emitted window, and does not receive inputs anymore.
+ * The partial aggregate of a slice is maintained as the data are put
+ * if the previous slice was aggregated with a reduce function.
+ * @param <T> the type of data collected in this slice
+ */
+final class WindowSlice<T> implements Serializable {
+
+  /**
+   * The data in this slice.
+   */
+  private final List<T> dataList;
+
+  /**
+   * True if this slice received any data.
+   */
+  private boolean hasData;
+
+  /**
+   * The timestamp of the latest data, or the latest watermark after the data.
+   */
+  private long latestTimestamp;
+
+  /**
+   * The latest watermark in this slice, or null if there was not any watermark.
+   */
+  private MistWatermarkEvent latestWatermark;
+
+  /**
+   * The partial aggregate of the data in this slice.
+   */
+  private transient T partialAggregate;
+
+  /**
+   * The function that produced the partial aggregate, or null if there is no partial aggregate.
+   */
+  private transient MISTBiFunction<T, T, T> partialAggregateFunc;
+
+  /**
+   * The number of data that are reduced into the partial aggregate.
+   */
+  private transient int numAggregatedData;
+
+  /**
+   * Creates an empty slice.
+   * @param partialAggregateFunc the function that reduces the data as they are put,
+   *                             or null if the data are reduced when the partial aggregate is requested
+   */
+  WindowSlice(final MISTBiFunction<T, T, T> partialAggregateFunc) {
+    this(new ArrayList<>(), false, Long.MIN_VALUE, null);
+    this.partialAggregateFunc = partialAggregateFunc;
+  }
+
+  /**
+   * Creates a slice that shares the inputs of the given slice without the partial aggregate.
+   * @param slice the slice to copy
+   */
+  WindowSlice(final WindowSlice<T> slice) {
+    this(slice.dataList, slice.hasData, slice.latestTimestamp, slice.latestWatermark);
+  }
+
+  /**
+   * Creates a slice that has the data.
+   * @param dataList the data
+   * @param hasData true if the slice received any data
+   * @param latestTimestamp the timestamp of the latest data, or the latest watermark after the data
+   * @param latestWatermark the latest watermark, or null if there was not any watermark
+   */
+  WindowSlice(final List<T> dataList,
+              final boolean hasData,
+              final long latestTimestamp,
+              final MistWatermarkEvent latestWatermark) {
+    this.dataList = dataList;
+    this.hasData = hasData;
+    this.latestTimestamp = latestTimestamp;
+    this.latestWatermark = latestWatermark;
+    this.partialAggregateFunc = null;
+    this.numAggregatedData = 0;
+  }
+
+  void putData(final T data, final long timestamp) {
+    hasData = true;
+    latestTimestamp = timestamp;
+    dataList.add(data);
+    if (partialAggregateFunc != null) {
+      aggregate();
+    }
+  }
+
+  void putWatermark(final MistWatermarkEvent event) {
+    final long timestamp = event.getTimestamp();
+    if (latestTimestamp < timestamp) {
+      latestTimestamp = timestamp;
+    }
+    if (latestWatermark == null || latestWatermark.getTimestamp() < timestamp) {
+      latestWatermark = event;
+    }
+  }
+
+  List<T> getDataList() {
+    return dataList;
+  }
+
+  boolean hasData() {
+    return hasData;
+  }
+
+  long getLatestTimestamp() {
+    return latestTimestamp;
+  }
+
+  MistWatermarkEvent getLatestWatermark() {
+    return latestWatermark;
+  }
+
+  /**
+   * Gets the function that the partial aggregate is maintained with.
+   * @return the function, or null if there is no partial aggregate
+   */
+  MISTBiFunction<T, T, T> getPartialAggregateFunc() {
+    return partialAggregateFunc;
+  }
+
+  /**
+   * Reduces the data that are not reduced yet into the partial aggregate.
+   */
+  private void aggregate() {
+    for (; numAggregatedData < dataList.size(); numAggregatedData++) {
+      final T data = dataList.get(numAggregatedData);
+      partialAggregate = partialAggregate == null ? data : partialAggregateFunc.apply(partialAggregate, data);
+    }
+  }
+
+  /**
+   * Gets the partial aggregate of this slice.
+   * Once it is requested, the slice maintains the partial aggregate with the function as data are put,
+   * so each data is reduced once for each aggregate function.
+   * @param reduceFunc associative reduce function
+   * @return the partial aggregate, or null if there is no data
+   */
+  T getPartialAggregate(final MISTBiFunction<T, T, T> reduceFunc) {
+    if (partialAggregateFunc != reduceFunc) {
+      partialAggregate = null;
+      partialAggregateFunc = reduceFunc;
+      numAggregatedData = 0;
+    }
+    aggregate();
+    return partialAggregate;
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The number of delta checkpoints of a group that are written before they are compacted into a full checkpoint.
+ * If it is 0, every checkpoint is written as a full checkpoint without delta checkpoints.
+ */
+@NamedParameter(doc = "The number of delta checkpoints between full checkpoints",
+    short_name = "checkpoint_compaction_period", default_value = "10")
+public final class CheckpointCompactionPeriod implements Name<Integer> {
+  // empty
+}
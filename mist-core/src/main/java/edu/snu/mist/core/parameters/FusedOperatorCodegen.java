@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * If it is true, a specialized pipeline is generated for each fused operator when the query starts,
+ * so the JIT compiler can inline the user-defined functions of the operator end to end.
+ * It defines classes at runtime, which occupy the metaspace and the code cache of the task.
+ */
+@NamedParameter(doc = "True if the fused operators generate specialized pipelines",
+    short_name = "fused_codegen", default_value = "false")
+public final class FusedOperatorCodegen implements Name<Boolean> {
+  // empty
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * If it is true, an event forwarded to multiple downstream operators is shared without copying.
+ * Some operators (e.g., map and reduceByKey) reuse their input events for the outputs,
+ * so it should be enabled only when the shared events are not reused by such operators.
+ */
+@NamedParameter(doc = "True if the events are shared by the downstream operators without copying",
+    short_name = "immutable_events", default_value = "false")
+public final class ImmutableEventFanOut implements Name<Boolean> {
+  // empty
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The policy for the data events that cannot be queued within the back-pressure timeout
+ * because the event queue of a source is full.
+ * block: the source keeps waiting until the queue has space.
+ * drop: the data events are dropped. The watermarks and checkpoints are never dropped.
+ */
+@NamedParameter(doc = "The back-pressure policy of the source event queue (block or drop)",
+    short_name = "source_backpressure_policy", default_value = "block")
+public final class SourceBackpressurePolicy implements Name<String> {
+  // empty
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The time in milliseconds for which a source waits for space in its full event queue
+ * before the back-pressure policy is applied. With the drop policy, 0 drops the data events without waiting.
+ */
+@NamedParameter(doc = "The back-pressure timeout of the source event queue in milliseconds",
+    short_name = "source_backpressure_timeout", default_value = "100")
+public final class SourceBackpressureTimeout implements Name<Long> {
+  // empty
+}
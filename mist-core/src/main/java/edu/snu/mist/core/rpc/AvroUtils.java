@@ -15,14 +15,22 @@
  */
 package edu.snu.mist.core.rpc;
 
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.ipc.NettyServer;
 import org.apache.avro.ipc.NettyTransceiver;
 import org.apache.avro.ipc.Server;
 import org.apache.avro.ipc.specific.SpecificRequestor;
 import org.apache.avro.ipc.specific.SpecificResponder;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 
 /**
  * Utillization method class for avro setup.
@@ -63,4 +71,36 @@ public final class AvroUtils {
     final NettyTransceiver nettyTransceiver = new NettyTransceiver(serverAddress);
     return SpecificRequestor.getClient(messageClass, nettyTransceiver);
   }
-}
\ No newline at end of file
+
+  /**
+   * A helper method for serializing an avro record into bytes.
+   * @param record The avro record.
+   * @param recordClass The class of the record.
+   * @param <T> The class type of the record.
+   * @return The serialized record.
+   */
+  public static <T extends SpecificRecord> ByteBuffer serialize(
+      final T record,
+      final Class<T> recordClass) throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
+    new SpecificDatumWriter<>(recordClass).write(record, encoder);
+    encoder.flush();
+    return ByteBuffer.wrap(outputStream.toByteArray());
+  }
+
+  /**
+   * A helper method for deserializing an avro record from bytes.
+   * @param serializedRecord The serialized record.
+   * @param recordClass The class of the record.
+   * @param <T> The class type of the record.
+   * @return The deserialized record.
+   */
+  public static <T extends SpecificRecord> T deserialize(
+      final ByteBuffer serializedRecord,
+      final Class<T> recordClass) throws IOException {
+    final byte[] bytes = new byte[serializedRecord.remaining()];
+    serializedRecord.duplicate().get(bytes);
+    return new SpecificDatumReader<>(recordClass).read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+}
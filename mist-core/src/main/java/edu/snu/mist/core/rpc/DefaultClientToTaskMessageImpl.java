@@ -16,7 +16,9 @@
 package edu.snu.mist.core.rpc;
 
 import edu.snu.mist.core.task.QueryManager;
+import edu.snu.mist.core.task.metrics.QueryMetricsRegistry;
 import edu.snu.mist.formats.avro.AvroDag;
+import edu.snu.mist.formats.avro.AvroQueryMetrics;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.QueryControlResult;
 import org.apache.avro.AvroRemoteException;
@@ -29,6 +31,7 @@ import java.util.logging.Logger;
  * It creates the query id and returns it to users.
  * Also, it submits the tuple of queryId and logical plan to QueryManager in order to execute the query,
  * or submits the queryId to delete, stop and resume the corresponding query.
+ * The metrics of the running queries can also be pulled.
  */
 public final class DefaultClientToTaskMessageImpl implements ClientToTaskMessage {
   private static final Logger LOG = Logger.getLogger(DefaultClientToTaskMessageImpl.class.getName());
@@ -37,9 +40,16 @@ public final class DefaultClientToTaskMessageImpl implements ClientToTaskMessage
    */
   private final QueryManager queryManager;
 
+  /**
+   * The registry of the query metrics.
+   */
+  private final QueryMetricsRegistry queryMetricsRegistry;
+
   @Inject
-  private DefaultClientToTaskMessageImpl(final QueryManager queryManager) {
+  private DefaultClientToTaskMessageImpl(final QueryManager queryManager,
+                                         final QueryMetricsRegistry queryMetricsRegistry) {
     this.queryManager = queryManager;
+    this.queryMetricsRegistry = queryMetricsRegistry;
   }
 
   @Override
@@ -51,4 +61,9 @@ public final class DefaultClientToTaskMessageImpl implements ClientToTaskMessage
   public QueryControlResult deleteQueries(final String groupId, final String queryId) throws AvroRemoteException {
     return queryManager.delete(groupId, queryId);
   }
+
+  @Override
+  public AvroQueryMetrics getQueryMetrics(final String queryId) throws AvroRemoteException {
+    return queryMetricsRegistry.getAvroQueryMetrics(queryId);
+  }
 }
@@ -15,25 +15,50 @@
  */
 package edu.snu.mist.core.rpc;
 
+import edu.snu.mist.core.task.checkpointing.CheckpointManager;
+import edu.snu.mist.core.task.migration.GroupMigrationManager;
 import edu.snu.mist.core.task.recovery.RecoveryManager;
+import edu.snu.mist.formats.avro.ForwardedSourceEvents;
 import edu.snu.mist.formats.avro.MasterToTaskMessage;
+import edu.snu.mist.formats.avro.MigratingGroup;
+import edu.snu.mist.formats.avro.MigrationDestination;
 import org.apache.avro.AvroRemoteException;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * The default master-to-task message implementation.
  */
 public final class DefaultMasterToTaskMessageImpl implements MasterToTaskMessage {
 
+  private static final Logger LOG = Logger.getLogger(DefaultMasterToTaskMessageImpl.class.getName());
+
   /**
    * The recovery manager.
    */
   private final RecoveryManager recoveryManager;
 
+  /**
+   * The checkpoint manager.
+   */
+  private final CheckpointManager checkpointManager;
+
+  /**
+   * The group migration manager.
+   */
+  private final GroupMigrationManager groupMigrationManager;
+
   @Inject
-  private DefaultMasterToTaskMessageImpl(final RecoveryManager recoveryManager) {
+  private DefaultMasterToTaskMessageImpl(final RecoveryManager recoveryManager,
+                                         final CheckpointManager checkpointManager,
+                                         final GroupMigrationManager groupMigrationManager) {
     this.recoveryManager = recoveryManager;
+    this.checkpointManager = checkpointManager;
+    this.groupMigrationManager = groupMigrationManager;
   }
 
   @Override
@@ -41,4 +66,42 @@ public final class DefaultMasterToTaskMessageImpl implements MasterToTaskMessage
     recoveryManager.startRecovery();
     return null;
   }
-}
\ No newline at end of file
+
+  @Override
+  public List<String> checkpointAndRemoveGroups(final List<String> groupIdList) throws AvroRemoteException {
+    final List<String> removedGroupIdList = new ArrayList<>();
+    for (final String groupId : groupIdList) {
+      // The group is removed only if its states are checkpointed, so that another task could recover it.
+      if (checkpointManager.checkpointGroup(groupId)) {
+        checkpointManager.deleteGroup(groupId);
+        removedGroupIdList.add(groupId);
+      } else {
+        LOG.log(Level.WARNING, "Failed to checkpoint group {0}, so it is not removed", groupId);
+      }
+    }
+    return removedGroupIdList;
+  }
+
+  @Override
+  public boolean startGroupMigration(final String groupId, final MigrationDestination destination)
+      throws AvroRemoteException {
+    return groupMigrationManager.startMigration(groupId, destination);
+  }
+
+  @Override
+  public boolean prepareMigratingGroup(final MigratingGroup migratingGroup) throws AvroRemoteException {
+    return groupMigrationManager.prepareGroup(migratingGroup);
+  }
+
+  @Override
+  public boolean commitMigratingGroup(final String groupId,
+                                     final List<ForwardedSourceEvents> forwardedEvents) throws AvroRemoteException {
+    return groupMigrationManager.commitGroup(groupId, forwardedEvents);
+  }
+
+  @Override
+  public Void abortMigratingGroup(final String groupId) throws AvroRemoteException {
+    groupMigrationManager.abortGroup(groupId);
+    return null;
+  }
+}
@@ -19,9 +19,11 @@ import edu.snu.mist.core.master.ProxyToTaskMap;
 import edu.snu.mist.core.master.TaskAddressInfo;
 import edu.snu.mist.core.master.TaskAddressInfoMap;
 import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.migration.GroupMigrationScheduler;
 import edu.snu.mist.core.master.recovery.RecoveryScheduler;
 import edu.snu.mist.core.parameters.DriverHostname;
 import edu.snu.mist.core.parameters.MasterToDriverPort;
+import edu.snu.mist.formats.avro.GroupMigrationResult;
 import edu.snu.mist.formats.avro.GroupStats;
 import edu.snu.mist.formats.avro.MasterToDriverMessage;
 import edu.snu.mist.formats.avro.MasterToTaskMessage;
@@ -76,6 +78,11 @@ public final class DefaultTaskToMasterMessageImpl implements TaskToMasterMessage
    */
   private final RecoveryScheduler recoveryScheduler;
 
+  /**
+   * The group migration scheduler.
+   */
+  private final GroupMigrationScheduler groupMigrationScheduler;
+
   /**
    * The proxy to driver.
    */
@@ -89,6 +96,7 @@ public final class DefaultTaskToMasterMessageImpl implements TaskToMasterMessage
   @Inject
   private DefaultTaskToMasterMessageImpl(final TaskStatsMap taskStatsMap,
                                          final RecoveryScheduler recoveryScheduler,
+                                         final GroupMigrationScheduler groupMigrationScheduler,
                                          final TaskAddressInfoMap taskAddressInfoMap,
                                          final ProxyToTaskMap proxyToTaskMap,
                                          @Parameter(DriverHostname.class) final String driverHostname,
@@ -97,6 +105,7 @@ public final class DefaultTaskToMasterMessageImpl implements TaskToMasterMessage
     this.taskStatsMap = taskStatsMap;
     this.appGroupCounterMap = new ConcurrentHashMap<>();
     this.recoveryScheduler = recoveryScheduler;
+    this.groupMigrationScheduler = groupMigrationScheduler;
     this.taskAddressInfoMap = taskAddressInfoMap;
     this.proxyToTaskMap = proxyToTaskMap;
     this.proxyToDriver = AvroUtils.createAvroProxy(MasterToDriverMessage.class, new InetSocketAddress(driverHostname,
@@ -158,6 +167,12 @@ public final class DefaultTaskToMasterMessageImpl implements TaskToMasterMessage
         .build();
   }
 
+  @Override
+  public Void finishGroupMigration(final GroupMigrationResult result) throws AvroRemoteException {
+    groupMigrationScheduler.finishMigration(result);
+    return null;
+  }
+
   private final class SaveTaskInfoRunner implements Runnable {
 
     private MasterToDriverMessage proxyToDriver;
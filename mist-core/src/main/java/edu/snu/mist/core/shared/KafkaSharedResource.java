@@ -15,47 +15,237 @@
  */
 package edu.snu.mist.core.shared;
 
+import edu.snu.mist.core.sources.KafkaDataGenerator;
+import edu.snu.mist.core.sources.KafkaSharedConsumer;
 import edu.snu.mist.core.sources.parameters.NumKafkaThreads;
+import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * This class is shared by multiple kafka data generators
- * in order to share a thread pool among kafka sources to reduce the number of I/O threads.
+ * in order to share kafka consumers and a small number of poller threads among kafka sources.
+ * The data generators that consume the same topic with the same configuration share a kafka consumer,
+ * and each poller thread polls multiple consumers in turn.
+ * Therefore, the number of kafka sources is not limited by the number of threads.
  */
 public final class KafkaSharedResource implements AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(KafkaSharedResource.class.getName());
 
   /**
-   * The default timeout for consumer polling represented in milliseconds.
+   * The maximum time for which a poller thread waits for the records of its consumers at once.
    */
-  private static final int DEFAULT_POLL_TIMEOUT = 2000;
+  private static final long MAX_POLL_TIMEOUT = 100;
 
   /**
-   * The executor service used to restrict the number of threads for kafka sources.
+   * The time for which a poller thread sleeps when it has no consumer.
    */
-  private ExecutorService executorService;
+  private static final long IDLE_SLEEP_MILLIS = 100;
+
+  /**
+   * The maximum number of poller threads.
+   */
+  private final int threads;
+
+  /**
+   * The checkpoint period in milliseconds. If it is larger than 0, the offsets are committed after the checkpoints.
+   */
+  private final long checkpointPeriod;
+
+  /**
+   * The function that creates a kafka consumer from the configuration.
+   */
+  private final Function<Map<String, Object>, Consumer<?, ?>> consumerFactory;
+
+  /**
+   * The shared consumers identified by the topic and the configuration.
+   */
+  private final Map<String, KafkaSharedConsumer<?, ?>> consumerMap;
+
+  /**
+   * The poller threads.
+   */
+  private final List<Poller> pollers;
+
+  /**
+   * The executor service that runs the poller threads.
+   */
+  private final ExecutorService executorService;
+
+  /**
+   * True if this resource is closed.
+   */
+  private volatile boolean closed;
 
   /**
    * @param threads the number of I/O threads
+   * @param checkpointPeriod the checkpoint period
    */
   @Inject
-  private KafkaSharedResource(@Parameter(NumKafkaThreads.class) final int threads) {
-    this.executorService = Executors.newFixedThreadPool(threads);
+  private KafkaSharedResource(@Parameter(NumKafkaThreads.class) final int threads,
+                              @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod) {
+    this(threads, checkpointPeriod, KafkaConsumer::new);
   }
 
-  public ExecutorService getExecutorService() {
-    return executorService;
+  public KafkaSharedResource(final int threads,
+                             final long checkpointPeriod,
+                             final Function<Map<String, Object>, Consumer<?, ?>> consumerFactory) {
+    this.threads = threads;
+    this.checkpointPeriod = checkpointPeriod;
+    this.consumerFactory = consumerFactory;
+    this.consumerMap = new HashMap<>();
+    this.pollers = new ArrayList<>();
+    this.executorService = Executors.newFixedThreadPool(threads,
+        new DefaultThreadFactory(KafkaSharedResource.class.getName() + "-Poller"));
+    this.closed = false;
   }
 
-  public int getPollTimeout() {
-    return DEFAULT_POLL_TIMEOUT;
+  /**
+   * Let the data generator receive the records of the topic through the shared consumer.
+   * If the checkpoint period is larger than 0, the offsets of the records are committed after the checkpoints
+   * that cover them, instead of the auto commit of the kafka consumer.
+   * @param topic the kafka topic
+   * @param kafkaConsumerConf the kafka consumer configuration
+   * @param dataGenerator the data generator
+   * @return the shared consumer
+   */
+  // The consumers are identified by the topic and the configuration including the deserializers,
+  // so a shared consumer always has the key and value types of the data generators subscribing it.
+  @SuppressWarnings("unchecked")
+  public synchronized <K, V> KafkaSharedConsumer<K, V> subscribe(final String topic,
+                                                               final Map<String, Object> kafkaConsumerConf,
+                                                               final KafkaDataGenerator<K, V> dataGenerator) {
+    if (closed) {
+      throw new IllegalStateException("The kafka shared resource is closed");
+    }
+    final String key = getConsumerKey(topic, kafkaConsumerConf);
+    KafkaSharedConsumer<K, V> sharedConsumer = (KafkaSharedConsumer<K, V>) consumerMap.get(key);
+    if (sharedConsumer == null) {
+      final Map<String, Object> consumerConf = new HashMap<>(kafkaConsumerConf);
+      if (checkpointPeriod > 0) {
+        consumerConf.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+      }
+      sharedConsumer = new KafkaSharedConsumer<>(
+          (Consumer<K, V>) consumerFactory.apply(consumerConf), topic, checkpointPeriod > 0);
+      consumerMap.put(key, sharedConsumer);
+      getPoller().add(sharedConsumer);
+    }
+    sharedConsumer.register(dataGenerator);
+    return sharedConsumer;
+  }
+
+  /**
+   * Stop emitting the records to the data generator.
+   * The shared consumer is closed when it has no data generator.
+   * @param sharedConsumer the shared consumer
+   * @param dataGenerator the data generator
+   */
+  public synchronized <K, V> void unsubscribe(final KafkaSharedConsumer<K, V> sharedConsumer,
+                                              final KafkaDataGenerator<K, V> dataGenerator) {
+    if (sharedConsumer.unregister(dataGenerator)) {
+      consumerMap.values().remove(sharedConsumer);
+      sharedConsumer.markClosed();
+    }
+  }
+
+  /**
+   * The consumers having the same topic and configuration are shared.
+   */
+  private static String getConsumerKey(final String topic, final Map<String, Object> kafkaConsumerConf) {
+    final Map<String, String> sortedConf = new TreeMap<>();
+    kafkaConsumerConf.forEach((key, value) -> sortedConf.put(key, String.valueOf(value)));
+    return topic + "/" + sortedConf;
+  }
+
+  /**
+   * Get the poller having the least consumers. A new poller is started until the number of pollers reaches
+   * the number of threads.
+   */
+  private Poller getPoller() {
+    if (pollers.size() < threads) {
+      final Poller poller = new Poller();
+      pollers.add(poller);
+      executorService.submit(poller);
+      return poller;
+    }
+    Poller leastLoaded = pollers.get(0);
+    for (final Poller poller : pollers) {
+      if (poller.consumers.size() < leastLoaded.consumers.size()) {
+        leastLoaded = poller;
+      }
+    }
+    return leastLoaded;
+  }
+
+  /**
+   * @return the number of the shared consumers
+   */
+  public synchronized int getNumConsumers() {
+    return consumerMap.size();
   }
 
   @Override
   public void close() throws Exception {
+    synchronized (this) {
+      closed = true;
+      consumerMap.values().forEach(KafkaSharedConsumer::markClosed);
+      consumerMap.clear();
+    }
     executorService.shutdown();
   }
+
+  /**
+   * A poller thread that polls its consumers in turn.
+   */
+  private final class Poller implements Runnable {
+    private final List<KafkaSharedConsumer<?, ?>> consumers = new CopyOnWriteArrayList<>();
+
+    void add(final KafkaSharedConsumer<?, ?> consumer) {
+      consumers.add(consumer);
+    }
+
+    @Override
+    public void run() {
+      while (!closed || !consumers.isEmpty()) {
+        if (consumers.isEmpty()) {
+          try {
+            Thread.sleep(IDLE_SLEEP_MILLIS);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          continue;
+        }
+        final long timeout = Math.max(1, MAX_POLL_TIMEOUT / consumers.size());
+        for (final KafkaSharedConsumer<?, ?> consumer : consumers) {
+          try {
+            if (consumer.isClosed()) {
+              consumers.remove(consumer);
+              consumer.close();
+            } else {
+              consumer.poll(timeout);
+            }
+          } catch (final Exception e) {
+            LOG.log(Level.SEVERE, "Failed to poll the kafka consumer", e);
+          }
+        }
+      }
+    }
+  }
 }
@@ -16,9 +16,17 @@
 package edu.snu.mist.core.shared;
 
 import edu.snu.mist.core.shared.parameters.MaxInflightMqttEventNum;
+import edu.snu.mist.core.shared.parameters.MqttIngestOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttIngestQueueCapacity;
+import edu.snu.mist.core.shared.parameters.MqttSinkCoalesceMessages;
 import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.MqttSinkPublishQueueCapacity;
+import edu.snu.mist.core.shared.parameters.MqttSinkOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttSinkRetryBufferSize;
 import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
+import edu.snu.mist.core.sinks.MQTTPublishQueue;
 import edu.snu.mist.core.sources.MQTTDataGenerator;
+import edu.snu.mist.core.sources.MQTTIngestQueue;
 import edu.snu.mist.core.sources.MQTTSubscribeClient;
 import org.apache.reef.tang.annotations.Parameter;
 import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
@@ -28,6 +36,8 @@ import org.eclipse.paho.client.mqttv3.MqttException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -53,16 +63,43 @@ public final class MQTTNoSharedResource implements MQTTResource {
 
   private final int mqttSourceKeepAliveSec;
 
+  private final int mqttIngestQueueCapacity;
+
+  private final MQTTIngestQueue.OverflowPolicy mqttIngestOverflowPolicy;
+
   private final int mqttSinkKeepAliveSec;
 
+  private final int mqttSinkPublishQueueCapacity;
+
+  private final int mqttSinkRetryBufferSize;
+
+  private final boolean mqttSinkCoalesceMessages;
+
+  private final MQTTPublishQueue.OverflowPolicy mqttSinkOverflowPolicy;
+
+  private final List<MQTTPublishQueue> publishQueues;
+
   @Inject
   private MQTTNoSharedResource(
       @Parameter(MaxInflightMqttEventNum.class) final int maxInflightMqttEventNumParam,
       @Parameter(MqttSourceKeepAliveSec.class) final int mqttSourceKeepAliveSec,
-      @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec) {
+      @Parameter(MqttIngestQueueCapacity.class) final int mqttIngestQueueCapacity,
+      @Parameter(MqttIngestOverflowPolicy.class) final String mqttIngestOverflowPolicy,
+      @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec,
+      @Parameter(MqttSinkPublishQueueCapacity.class) final int mqttSinkPublishQueueCapacity,
+      @Parameter(MqttSinkRetryBufferSize.class) final int mqttSinkRetryBufferSize,
+      @Parameter(MqttSinkCoalesceMessages.class) final boolean mqttSinkCoalesceMessages,
+      @Parameter(MqttSinkOverflowPolicy.class) final String mqttSinkOverflowPolicy) {
     this.maxInflightMqttEventNum = maxInflightMqttEventNumParam;
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
+    this.mqttIngestQueueCapacity = mqttIngestQueueCapacity;
+    this.mqttIngestOverflowPolicy = MQTTIngestQueue.OverflowPolicy.of(mqttIngestOverflowPolicy);
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
+    this.mqttSinkPublishQueueCapacity = mqttSinkPublishQueueCapacity;
+    this.mqttSinkRetryBufferSize = mqttSinkRetryBufferSize;
+    this.mqttSinkCoalesceMessages = mqttSinkCoalesceMessages;
+    this.mqttSinkOverflowPolicy = MQTTPublishQueue.OverflowPolicy.of(mqttSinkOverflowPolicy);
+    this.publishQueues = new CopyOnWriteArrayList<>();
     this.sourceClientCounter = new AtomicInteger(0);
     this.sinkClientCounter = new AtomicInteger(0);
   }
@@ -82,7 +119,8 @@ public final class MQTTNoSharedResource implements MQTTResource {
   @Override
   public MQTTDataGenerator getDataGenerator(final String brokerURI, final String topic) {
     final MQTTSubscribeClient client = new MQTTSubscribeClient(brokerURI, MQTT_SUBSCRIBER_ID_PREFIX +
-        sourceClientCounter.getAndIncrement(), mqttSourceKeepAliveSec);
+        sourceClientCounter.getAndIncrement(), mqttSourceKeepAliveSec, mqttIngestQueueCapacity,
+        mqttIngestOverflowPolicy);
    return client.connectToTopic(topic);
   }
 
@@ -92,7 +130,21 @@ public final class MQTTNoSharedResource implements MQTTResource {
   }
 
   @Override
-  public void close() throws Exception {
+  public MQTTPublishQueue.Channel openPublishChannel(final String brokerURI, final String topic)
+      throws MqttException, IOException {
+    // The queues of the closed sinks are closed, too
+    publishQueues.removeIf(MQTTPublishQueue::isClosing);
+    final MQTTPublishQueue publishQueue = new MQTTPublishQueue(MQTT_PUBLISHER_ID_PREFIX + "QUEUE_"
+        + sinkClientCounter.getAndIncrement(), brokerURI, this, mqttSinkPublishQueueCapacity,
+        maxInflightMqttEventNum, mqttSinkRetryBufferSize, mqttSinkCoalesceMessages, mqttSinkOverflowPolicy);
+    publishQueues.add(publishQueue);
+    publishQueue.start();
+    return publishQueue.openChannel(topic);
+  }
 
+  @Override
+  public void close() throws Exception {
+    publishQueues.forEach(MQTTPublishQueue::close);
+    publishQueues.clear();
   }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.shared;
 
+import edu.snu.mist.core.sinks.MQTTPublishQueue;
 import edu.snu.mist.core.sources.MQTTDataGenerator;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
@@ -34,4 +35,15 @@ public interface MQTTResource extends AutoCloseable {
   MQTTDataGenerator getDataGenerator(String brokerURI, String topic);
 
   void deleteMqttSinkClient(String brokerURI, String topic, IMqttAsyncClient client);
+
+  /**
+   * Open a channel of the publish queue of the mqtt sinks with the target broker.
+   * The publish queue is closed when its last channel is closed.
+   * @param brokerURI the mqtt broker uri
+   * @param topic the topic of the sink
+   * @return the channel of the started publish queue
+   * @throws MqttException if the sink client cannot connect to the broker
+   */
+  MQTTPublishQueue.Channel openPublishChannel(String brokerURI, String topic)
+      throws MqttException, IOException;
 }
@@ -17,12 +17,22 @@ package edu.snu.mist.core.shared;
 
 import edu.snu.mist.core.parameters.TaskId;
 import edu.snu.mist.core.shared.parameters.MaxInflightMqttEventNum;
+import edu.snu.mist.core.shared.parameters.MqttIngestOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttIngestQueueCapacity;
 import edu.snu.mist.core.shared.parameters.MqttSinkClientNumPerBroker;
+import edu.snu.mist.core.shared.parameters.MqttSinkCoalesceMessages;
 import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.MqttSinkOverflowPolicy;
+import edu.snu.mist.core.shared.parameters.MqttSinkPublishQueueCapacity;
+import edu.snu.mist.core.shared.parameters.MqttSinkRetryBufferSize;
 import edu.snu.mist.core.shared.parameters.MqttSourceClientNumPerBroker;
 import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
+import edu.snu.mist.core.sinks.MQTTPublishQueue;
 import edu.snu.mist.core.sources.MQTTDataGenerator;
+import edu.snu.mist.core.sources.MQTTIngestQueue;
 import edu.snu.mist.core.sources.MQTTSubscribeClient;
+import edu.snu.mist.core.sources.MQTTTopicTrie;
+import edu.snu.mist.core.task.metrics.QueryMetricsRegistry;
 import org.apache.reef.tang.annotations.Parameter;
 import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
 import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
@@ -57,6 +67,16 @@ public final class MQTTSharedResource implements MQTTResource {
    */
   public static final String MQTT_SUBSCRIBER_ID_PREFIX = "MIST_MQTT_SUBSCRIBER_";
 
+  /**
+   * The JMX type of the metrics of the publish queues.
+   */
+  public static final String PUBLISH_QUEUE_METRICS_TYPE = "MqttPublishQueue";
+
+  /**
+   * The JMX type of the metrics of the subscribe clients.
+   */
+  public static final String SUBSCRIBE_CLIENT_METRICS_TYPE = "MqttSubscribeClient";
+
   /**
    * The map containing topic-subscriber information.
    */
@@ -87,6 +107,11 @@ public final class MQTTSharedResource implements MQTTResource {
    */
   private final Map<IMqttAsyncClient, Integer> publisherSinkNumMap;
 
+  /**
+   * The map containing broker-publish queue information.
+   */
+  private final Map<String, MQTTPublishQueue> brokerPublishQueueMap;
+
   /**
    * The number of maximum mqtt sources per client.
    */
@@ -117,11 +142,46 @@ public final class MQTTSharedResource implements MQTTResource {
    */
   private final int mqttSourceKeepAliveSec;
 
+  /**
+   * The capacity of the ingest queue of a mqtt source client.
+   */
+  private final int mqttIngestQueueCapacity;
+
+  /**
+   * The overflow policy of the ingest queue of a mqtt source client.
+   */
+  private final MQTTIngestQueue.OverflowPolicy mqttIngestOverflowPolicy;
+
   /**
    * Mqtt sink keep-alive time in seconds.
    */
   private final int mqttSinkKeepAliveSec;
 
+  /**
+   * The capacity of the publish queue of a broker.
+   */
+  private final int mqttSinkPublishQueueCapacity;
+
+  /**
+   * The size of the retry buffer of a publish queue.
+   */
+  private final int mqttSinkRetryBufferSize;
+
+  /**
+   * Whether the publish queues coalesce the waiting messages of the same sink.
+   */
+  private final boolean mqttSinkCoalesceMessages;
+
+  /**
+   * The policy for the sink messages when the publish queue is full.
+   */
+  private final MQTTPublishQueue.OverflowPolicy mqttSinkOverflowPolicy;
+
+  /**
+   * The registry which exports the metrics of the publish queues.
+   */
+  private final QueryMetricsRegistry metricsRegistry;
+
   /**
    * The hostname of this MistTask.
    */
@@ -138,12 +198,20 @@ public final class MQTTSharedResource implements MQTTResource {
       @Parameter(MqttSinkClientNumPerBroker.class) final int mqttSinkClientNumPerBrokerParam,
       @Parameter(MaxInflightMqttEventNum.class) final int maxInflightMqttEventNumParam,
       @Parameter(MqttSourceKeepAliveSec.class) final int mqttSourceKeepAliveSec,
+      @Parameter(MqttIngestQueueCapacity.class) final int mqttIngestQueueCapacity,
+      @Parameter(MqttIngestOverflowPolicy.class) final String mqttIngestOverflowPolicy,
       @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec,
-      @Parameter(TaskId.class) final String taskId) {
+      @Parameter(MqttSinkPublishQueueCapacity.class) final int mqttSinkPublishQueueCapacity,
+      @Parameter(MqttSinkRetryBufferSize.class) final int mqttSinkRetryBufferSize,
+      @Parameter(MqttSinkCoalesceMessages.class) final boolean mqttSinkCoalesceMessages,
+      @Parameter(MqttSinkOverflowPolicy.class) final String mqttSinkOverflowPolicy,
+      @Parameter(TaskId.class) final String taskId,
+      final QueryMetricsRegistry metricsRegistry) {
     this.brokerSubscriberMap = new HashMap<>();
     this.subscriberSourceNumMap = new HashMap<>();
     this.brokerPublisherMap = new HashMap<>();
     this.publisherSinkNumMap = new HashMap<>();
+    this.brokerPublishQueueMap = new HashMap<>();
     this.topicPublisherMap = new HashMap<>();
     this.topicSubscriberMap = new HashMap<>();
     this.subscriberLock = new ReentrantLock();
@@ -152,8 +220,15 @@ public final class MQTTSharedResource implements MQTTResource {
     this.mqttSinkClientNumPerBroker = mqttSinkClientNumPerBrokerParam;
     this.maxInflightMqttEventNum = maxInflightMqttEventNumParam;
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
+    this.mqttIngestQueueCapacity = mqttIngestQueueCapacity;
+    this.mqttIngestOverflowPolicy = MQTTIngestQueue.OverflowPolicy.of(mqttIngestOverflowPolicy);
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
+    this.mqttSinkPublishQueueCapacity = mqttSinkPublishQueueCapacity;
+    this.mqttSinkRetryBufferSize = mqttSinkRetryBufferSize;
+    this.mqttSinkCoalesceMessages = mqttSinkCoalesceMessages;
+    this.mqttSinkOverflowPolicy = MQTTPublishQueue.OverflowPolicy.of(mqttSinkOverflowPolicy);
     this.taskId = taskId;
+    this.metricsRegistry = metricsRegistry;
   }
 
   /**
@@ -225,6 +300,37 @@ public final class MQTTSharedResource implements MQTTResource {
     this.publisherLock.unlock();
   }
 
+  @Override
+  public MQTTPublishQueue.Channel openPublishChannel(final String brokerURI, final String topic)
+      throws MqttException, IOException {
+    while (true) {
+      final MQTTPublishQueue publishQueue;
+      this.publisherLock.lock();
+      try {
+        final MQTTPublishQueue existingQueue = brokerPublishQueueMap.get(brokerURI);
+        if (existingQueue == null || existingQueue.isClosing()) {
+          // The queue is closed when its last sink is closed, so a new queue is created for the broker
+          publishQueue = new MQTTPublishQueue(MQTT_PUBLISHER_ID_PREFIX + taskId + brokerURI, brokerURI, this,
+              mqttSinkPublishQueueCapacity, maxInflightMqttEventNum, mqttSinkRetryBufferSize,
+              mqttSinkCoalesceMessages, mqttSinkOverflowPolicy);
+          brokerPublishQueueMap.put(brokerURI, publishQueue);
+          // The metrics of the closed queue of the broker are replaced
+          metricsRegistry.registerResource(PUBLISH_QUEUE_METRICS_TYPE, brokerURI, publishQueue);
+          publishQueue.start();
+        } else {
+          publishQueue = existingQueue;
+        }
+      } finally {
+        this.publisherLock.unlock();
+      }
+      // The client is connected outside the lock, because getMqttSinkClient acquires it
+      final MQTTPublishQueue.Channel channel = publishQueue.openChannel(topic);
+      if (channel != null) {
+        return channel;
+      }
+    }
+  }
+
   /**
    * A helper function which creates create sink client. Should be called with publisherLock acquired.
    * @param brokerURI broker URI
@@ -274,8 +380,10 @@ public final class MQTTSharedResource implements MQTTResource {
       // Initialize the client list...
       final List<MQTTSubscribeClient> newSubscribeClientList = new ArrayList<>();
       for (int i = 0; i < this.mqttSourceClientNumPerBroker; i++) {
-        final MQTTSubscribeClient subscribeClient = new MQTTSubscribeClient(brokerURI, MQTT_SUBSCRIBER_ID_PREFIX +
-            taskId + brokerURI + "_" + i, mqttSourceKeepAliveSec);
+        final String clientId = MQTT_SUBSCRIBER_ID_PREFIX + taskId + brokerURI + "_" + i;
+        final MQTTSubscribeClient subscribeClient = new MQTTSubscribeClient(brokerURI, clientId,
+            mqttSourceKeepAliveSec, mqttIngestQueueCapacity, mqttIngestOverflowPolicy);
+        metricsRegistry.registerResource(SUBSCRIBE_CLIENT_METRICS_TYPE, clientId, subscribeClient);
         subscriberSourceNumMap.put(subscribeClient, 0);
         newSubscribeClientList.add(subscribeClient);
       }
@@ -299,12 +407,15 @@ public final class MQTTSharedResource implements MQTTResource {
         return gen;
       } else {
         // This is a new group.
-        int minSourceNum = Integer.MAX_VALUE;
-        MQTTSubscribeClient client = null;
-        for (final MQTTSubscribeClient mqttSubcribeClient: subscribeClientList) {
-          if (minSourceNum > subscriberSourceNumMap.get(mqttSubcribeClient)) {
-            minSourceNum = subscriberSourceNumMap.get(mqttSubcribeClient);
-            client = mqttSubcribeClient;
+        // The client that subscribes a topic covering this topic can share the subscription.
+        MQTTSubscribeClient client = findCoveringClient(myTopicSubscriberMap, topic);
+        if (client == null) {
+          int minSourceNum = Integer.MAX_VALUE;
+          for (final MQTTSubscribeClient mqttSubcribeClient: subscribeClientList) {
+            if (minSourceNum > subscriberSourceNumMap.get(mqttSubcribeClient)) {
+              minSourceNum = subscriberSourceNumMap.get(mqttSubcribeClient);
+              client = mqttSubcribeClient;
+            }
           }
         }
         subscriberSourceNumMap.replace(client, subscriberSourceNumMap.get(client) + 1);
@@ -316,12 +427,30 @@ public final class MQTTSharedResource implements MQTTResource {
     }
   }
 
+  /**
+   * Find the client that subscribes a topic covering the topic.
+   * @param myTopicSubscriberMap the map that has the topics of the broker and their clients
+   * @param topic topic
+   * @return the client, or null if the topic is not covered by the other topics
+   */
+  private MQTTSubscribeClient findCoveringClient(final Map<String, MQTTSubscribeClient> myTopicSubscriberMap,
+                                                 final String topic) {
+    for (final Map.Entry<String, MQTTSubscribeClient> entry : myTopicSubscriberMap.entrySet()) {
+      if (MQTTTopicTrie.covers(entry.getKey(), topic)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
   @Override
   public void close() throws Exception {
     // TODO: [MIST-489] Deal with close and connection problem in MQTT source
     brokerSubscriberMap.forEach(
         (brokerURI, subClientList) -> subClientList.forEach(subClient -> subClient.disconnect())
     );
+    brokerPublishQueueMap.forEach((address, publishQueue) -> publishQueue.close());
+    brokerPublishQueueMap.clear();
     brokerPublisherMap.forEach((address, mqttAsyncClientList) -> mqttAsyncClientList.forEach(MqttAsyncClient -> {
           try {
             MqttAsyncClient.disconnect();
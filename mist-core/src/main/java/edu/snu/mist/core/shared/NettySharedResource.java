@@ -16,9 +16,11 @@
 package edu.snu.mist.core.shared;
 
 import edu.snu.mist.common.NettyMessageForwarder;
+import edu.snu.mist.common.stream.binarymessage.NettyBinaryMessageChannelInitializer;
 import edu.snu.mist.core.sources.parameters.NumNettyThreads;
 import edu.snu.mist.common.stream.textmessage.NettyTextMessageChannelInitializer;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
@@ -50,6 +52,11 @@ public final class NettySharedResource implements AutoCloseable {
    */
   private ConcurrentMap<Channel, EventHandler<String>> channelMap;
 
+  /**
+   * Map of channel and handler for the length-prefixed binary channels.
+   */
+  private ConcurrentMap<Channel, EventHandler<ByteBuf>> binaryChannelMap;
+
   /**
    * An identifier factory.
    */
@@ -65,6 +72,12 @@ public final class NettySharedResource implements AutoCloseable {
    */
   private Bootstrap clientBootstrap;
 
+  /**
+   * Netty client bootstrap for the length-prefixed binary channels.
+   * It shares the event loop group with the text client bootstrap.
+   */
+  private Bootstrap binaryClientBootstrap;
+
   /**
    * @param identifierFactory an identifier factory
    * @param threads the number of I/O threads
@@ -80,7 +93,14 @@ public final class NettySharedResource implements AutoCloseable {
     this.clientBootstrap = new Bootstrap();
     this.clientBootstrap.group(clientWorkerGroup)
         .channel(NioSocketChannel.class)
-        .handler(new NettyTextMessageChannelInitializer(() -> new NettyMessageForwarder(channelMap)))
+        .handler(new NettyTextMessageChannelInitializer(() -> new NettyMessageForwarder<>(channelMap)))
+        .option(ChannelOption.SO_REUSEADDR, true)
+        .option(ChannelOption.SO_KEEPALIVE, true);
+    this.binaryChannelMap = new ConcurrentHashMap<>();
+    this.binaryClientBootstrap = new Bootstrap();
+    this.binaryClientBootstrap.group(clientWorkerGroup)
+        .channel(NioSocketChannel.class)
+        .handler(new NettyBinaryMessageChannelInitializer(() -> new NettyMessageForwarder<>(binaryChannelMap)))
         .option(ChannelOption.SO_REUSEADDR, true)
         .option(ChannelOption.SO_KEEPALIVE, true);
     this.identifierFactory = identifierFactory;
@@ -94,6 +114,14 @@ public final class NettySharedResource implements AutoCloseable {
     return channelMap;
   }
 
+  public Bootstrap getBinaryClientBootstrap() {
+    return binaryClientBootstrap;
+  }
+
+  public ConcurrentMap<Channel, EventHandler<ByteBuf>> getBinaryChannelMap() {
+    return binaryChannelMap;
+  }
+
   @Override
   public void close() throws Exception {
     clientWorkerGroup.shutdownGracefully();
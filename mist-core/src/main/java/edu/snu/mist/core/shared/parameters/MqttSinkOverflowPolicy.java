@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.shared.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The policy for the mqtt sink messages when the publish queue is full.
+ * block: the sink waits until the queue has space.
+ * drop: the messages are dropped.
+ */
+@NamedParameter(doc = "The policy for the mqtt sink messages when the publish queue is full (block or drop)",
+    short_name = "mqtt_sink_overflow_policy", default_value = "drop")
+public final class MqttSinkOverflowPolicy implements Name<String> {
+}
@@ -0,0 +1,662 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+import edu.snu.mist.core.shared.MQTTResource;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A publish queue between the mqtt sinks of a broker and the mqtt clients.
+ * Each sink opens a channel of the queue, and the channels are visited in round-robin,
+ * so a sink having many messages does not delay the others.
+ * A dedicated publisher thread drains the queue and publishes the messages asynchronously.
+ * The number of messages waiting for the acknowledgement is limited by the in-flight window.
+ * The messages that failed to be published are kept in a bounded retry buffer and published again,
+ * after the publisher thread reconnects the client.
+ * A channel waits for its messages to be published when it is closed,
+ * and the queue is closed after its waiting messages are published when the last channel is closed.
+ */
+public final class MQTTPublishQueue implements AutoCloseable, MQTTPublishQueueMXBean {
+  private static final Logger LOG = Logger.getLogger(MQTTPublishQueue.class.getName());
+
+  /**
+   * The policy for the messages that are offered when the queue is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The sink waits until the queue has space, and the message is dropped if the offer timeout elapses.
+     */
+    BLOCK,
+    /**
+     * The messages are dropped.
+     */
+    DROP;
+
+    /**
+     * @param option the option string (block or drop)
+     * @return the overflow policy
+     */
+    public static OverflowPolicy of(final String option) {
+      switch (option) {
+        case "block":
+          return BLOCK;
+        case "drop":
+          return DROP;
+        default:
+          throw new IllegalArgumentException("Invalid mqtt sink overflow policy: " + option);
+      }
+    }
+  }
+
+  /**
+   * The time for which the publisher thread waits for new messages or in-flight window.
+   */
+  private static final long IDLE_WAIT_MILLIS = 10;
+
+  /**
+   * The time for which the publisher thread waits before it reconnects the client.
+   */
+  private static final long RECONNECT_BACKOFF_MILLIS = 1000;
+
+  /**
+   * The maximum time for which closing a channel or the queue waits for the pending messages to be published.
+   */
+  private static final long CLOSE_TIMEOUT_MILLIS = 10000;
+
+  /**
+   * The maximum time for which a sink waits for space in the BLOCK policy,
+   * so a stalled broker does not block the event processor thread indefinitely.
+   */
+  private static final long OFFER_TIMEOUT_MILLIS = 1000;
+
+  /**
+   * The name of the publisher thread.
+   */
+  private final String name;
+
+  /**
+   * The broker uri.
+   */
+  private final String brokerURI;
+
+  /**
+   * The mqtt resource that provides the clients.
+   */
+  private final MQTTResource resource;
+
+  /**
+   * The waiting messages of the channels which have any.
+   * The channels are visited in round-robin, so a channel having many messages does not delay the others.
+   */
+  private final LinkedHashMap<Channel, Deque<MqttMessage>> channelQueueMap;
+
+  /**
+   * The open channels.
+   */
+  private final Set<Channel> channels;
+
+  /**
+   * The number of the channels whose clients are connecting.
+   */
+  private int numConnectingChannels;
+
+  /**
+   * The messages that failed to be published.
+   */
+  private final Deque<PendingMessage> retryBuffer;
+
+  /**
+   * The maximum number of the waiting messages.
+   */
+  private final int capacity;
+
+  /**
+   * The maximum number of the messages in the retry buffer.
+   */
+  private final int retryBufferSize;
+
+  /**
+   * If it is true, a new message of a channel replaces the waiting messages of the channel.
+   */
+  private final boolean coalesce;
+
+  /**
+   * The policy for the messages that are offered when the queue is full.
+   */
+  private final OverflowPolicy overflowPolicy;
+
+  /**
+   * The maximum number of messages published but not acknowledged yet.
+   */
+  private final int maxInflight;
+
+  /**
+   * The in-flight window.
+   */
+  private final Semaphore inflightWindow;
+
+  /**
+   * The number of the waiting messages.
+   */
+  private int size;
+
+  /**
+   * The number of the messages which are accepted but not published or dropped yet.
+   */
+  private int numPendingMessages;
+
+  /**
+   * The number of dropped messages.
+   */
+  private final AtomicLong numDroppedMessages;
+
+  /**
+   * The number of coalesced messages.
+   */
+  private final AtomicLong numCoalescedMessages;
+
+  /**
+   * The number of messages that failed to be published.
+   */
+  private final AtomicLong numFailedMessages;
+
+  /**
+   * The publisher thread.
+   */
+  private Thread publisherThread;
+
+  /**
+   * True if the queue does not accept new channels and messages.
+   */
+  private boolean closing;
+
+  /**
+   * True if the publisher thread should stop.
+   */
+  private volatile boolean closed;
+
+  public MQTTPublishQueue(final String name,
+                          final String brokerURI,
+                          final MQTTResource resource,
+                          final int capacity,
+                          final int maxInflight,
+                          final int retryBufferSize,
+                          final boolean coalesce,
+                          final OverflowPolicy overflowPolicy) {
+    if (capacity <= 0 || maxInflight <= 0 || retryBufferSize < 0) {
+      throw new IllegalArgumentException("The capacity and the in-flight window of a publish queue should be "
+          + "positive, and the retry buffer size should not be negative");
+    }
+    this.name = name;
+    this.brokerURI = brokerURI;
+    this.resource = resource;
+    this.channelQueueMap = new LinkedHashMap<>();
+    this.channels = new HashSet<>();
+    this.numConnectingChannels = 0;
+    this.retryBuffer = new ArrayDeque<>();
+    this.capacity = capacity;
+    this.retryBufferSize = retryBufferSize;
+    this.coalesce = coalesce;
+    this.overflowPolicy = overflowPolicy;
+    this.maxInflight = maxInflight;
+    this.inflightWindow = new Semaphore(maxInflight);
+    this.size = 0;
+    this.numPendingMessages = 0;
+    this.numDroppedMessages = new AtomicLong(0);
+    this.numCoalescedMessages = new AtomicLong(0);
+    this.numFailedMessages = new AtomicLong(0);
+    this.closing = false;
+    this.closed = false;
+  }
+
+  /**
+   * Start the publisher thread if it is not started.
+   */
+  public synchronized void start() {
+    if (publisherThread == null && !closed) {
+      publisherThread = new Thread(this::publish, name);
+      publisherThread.setDaemon(true);
+      publisherThread.start();
+    }
+  }
+
+  /**
+   * Open a channel of a sink.
+   * The client of the topic is connected on the caller thread, so an unreachable broker fails the sink creation.
+   * @param topic the topic of the sink
+   * @return the channel, or null if the queue is being closed
+   * @throws MqttException if the client cannot connect to the broker
+   */
+  public Channel openChannel(final String topic) throws MqttException, IOException {
+    synchronized (this) {
+      if (closing) {
+        return null;
+      }
+      // The queue is not closed while the client is connecting
+      numConnectingChannels += 1;
+    }
+    Channel channel = null;
+    try {
+      channel = new Channel(topic, resource.getMqttSinkClient(brokerURI, topic));
+      return channel;
+    } finally {
+      synchronized (this) {
+        numConnectingChannels -= 1;
+        if (channel != null) {
+          channels.add(channel);
+        }
+      }
+      if (channel == null) {
+        closeIfUnused();
+      }
+    }
+  }
+
+  /**
+   * Enqueue the message of the channel.
+   * When the queue is full, the caller waits until the queue has space in the BLOCK policy,
+   * or the message is dropped in the DROP policy.
+   * The message is also dropped if the queue does not have space until the offer timeout elapses.
+   */
+  private synchronized void offer(final Channel channel, final MqttMessage message) {
+    if (closing) {
+      drop();
+      return;
+    }
+    final Deque<MqttMessage> waitingMessages = channelQueueMap.get(channel);
+    if (coalesce && waitingMessages != null && !waitingMessages.isEmpty()) {
+      final int numCoalesced = waitingMessages.size();
+      numCoalescedMessages.addAndGet(numCoalesced);
+      size -= numCoalesced;
+      waitingMessages.clear();
+      complete(channel, numCoalesced);
+    }
+    if (size >= capacity) {
+      final boolean hasSpace = overflowPolicy == OverflowPolicy.BLOCK
+          && awaitUntil(() -> size < capacity || closing, OFFER_TIMEOUT_MILLIS);
+      if (!hasSpace || closing) {
+        drop();
+        return;
+      }
+    }
+    Deque<MqttMessage> channelQueue = channelQueueMap.get(channel);
+    if (channelQueue == null) {
+      channelQueue = new ArrayDeque<>();
+      channelQueueMap.put(channel, channelQueue);
+    }
+    channelQueue.add(message);
+    size += 1;
+    channel.numPendingMessages += 1;
+    numPendingMessages += 1;
+    notifyAll();
+  }
+
+  private void drop() {
+    if (numDroppedMessages.getAndIncrement() == 0) {
+      LOG.log(Level.WARNING, "The publish queue of {0} is full or closed, so the messages are dropped", name);
+    }
+  }
+
+  /**
+   * Mark the messages of the channel as published or dropped.
+   */
+  private synchronized void complete(final Channel channel, final int num) {
+    channel.numPendingMessages -= num;
+    numPendingMessages -= num;
+    notifyAll();
+  }
+
+  /**
+   * Take the next message to publish. The failed messages are published first.
+   * @return the next message, or null if there is no message
+   */
+  private synchronized PendingMessage poll() {
+    final PendingMessage retried = retryBuffer.poll();
+    if (retried != null) {
+      return retried;
+    }
+    final Iterator<Map.Entry<Channel, Deque<MqttMessage>>> iterator = channelQueueMap.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<Channel, Deque<MqttMessage>> entry = iterator.next();
+      final Channel channel = entry.getKey();
+      final Deque<MqttMessage> channelQueue = entry.getValue();
+      final MqttMessage message = channelQueue.poll();
+      // Move the channel to the end for round-robin, and remove it if it has no message
+      iterator.remove();
+      if (message == null) {
+        continue;
+      }
+      if (!channelQueue.isEmpty()) {
+        channelQueueMap.put(channel, channelQueue);
+      }
+      size -= 1;
+      // Wake up the sinks waiting for space
+      notifyAll();
+      return new PendingMessage(channel, message);
+    }
+    return null;
+  }
+
+  /**
+   * Keep the failed message to publish it again.
+   * When the retry buffer is full, the oldest failed message is dropped.
+   * The failed message is dropped if the retry buffer size is zero.
+   */
+  private synchronized void retry(final PendingMessage pendingMessage) {
+    numFailedMessages.incrementAndGet();
+    if (retryBufferSize == 0) {
+      numDroppedMessages.incrementAndGet();
+      complete(pendingMessage.channel, 1);
+      return;
+    }
+    if (retryBuffer.size() >= retryBufferSize) {
+      final PendingMessage dropped = retryBuffer.poll();
+      numDroppedMessages.incrementAndGet();
+      complete(dropped.channel, 1);
+    }
+    retryBuffer.add(pendingMessage);
+    notifyAll();
+  }
+
+  /**
+   * Wait for new messages.
+   */
+  private synchronized void awaitMessages() throws InterruptedException {
+    if (size == 0 && retryBuffer.isEmpty() && !closed) {
+      wait(IDLE_WAIT_MILLIS);
+    }
+  }
+
+  /**
+   * Wait until the condition holds or the timeout elapses. It should be called with the monitor held.
+   * @return true if the condition holds
+   */
+  private boolean awaitUntil(final BooleanSupplier condition, final long timeoutMillis) {
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (!condition.getAsBoolean()) {
+      final long remainingTime = deadline - System.currentTimeMillis();
+      if (remainingTime <= 0) {
+        return false;
+      }
+      try {
+        wait(remainingTime);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Publish the messages until the queue is closed.
+   */
+  private void publish() {
+    while (!closed) {
+      try {
+        if (!inflightWindow.tryAcquire(IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+          continue;
+        }
+        final PendingMessage pendingMessage = poll();
+        if (pendingMessage == null) {
+          inflightWindow.release();
+          awaitMessages();
+          continue;
+        }
+        publish(pendingMessage);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final Exception e) {
+        LOG.log(Level.SEVERE, "Failed to publish a message to " + brokerURI, e);
+      }
+    }
+  }
+
+  /**
+   * Publish the message asynchronously. The in-flight permit is released when the publish is completed.
+   */
+  private void publish(final PendingMessage pendingMessage) throws InterruptedException {
+    final Channel channel = pendingMessage.channel;
+    final IMqttAsyncClient client;
+    try {
+      client = getClient(channel);
+    } catch (final MqttException | IOException e) {
+      inflightWindow.release();
+      retry(pendingMessage);
+      Thread.sleep(RECONNECT_BACKOFF_MILLIS);
+      return;
+    }
+    try {
+      client.publish(channel.topic, pendingMessage.message, null, new IMqttActionListener() {
+        @Override
+        public void onSuccess(final IMqttToken asyncActionToken) {
+          inflightWindow.release();
+          complete(channel, 1);
+        }
+
+        @Override
+        public void onFailure(final IMqttToken asyncActionToken, final Throwable exception) {
+          inflightWindow.release();
+          retry(pendingMessage);
+        }
+      });
+    } catch (final MqttException e) {
+      inflightWindow.release();
+      retry(pendingMessage);
+      LOG.log(Level.SEVERE, "Reconnecting sink client of topic " + channel.topic + ", uri: " + brokerURI);
+      reconnect(client);
+      Thread.sleep(RECONNECT_BACKOFF_MILLIS);
+    }
+  }
+
+  /**
+   * Get the client of the channel. It is only called by the publisher thread.
+   */
+  private IMqttAsyncClient getClient(final Channel channel) throws MqttException, IOException {
+    if (channel.client == null) {
+      channel.client = resource.getMqttSinkClient(brokerURI, channel.topic);
+    }
+    return channel.client;
+  }
+
+  /**
+   * Delete the failed client, so the channels using it get a new client at the next publish.
+   */
+  private void reconnect(final IMqttAsyncClient client) {
+    final List<Channel> openChannels;
+    synchronized (this) {
+      openChannels = new ArrayList<>(channels);
+    }
+    final Set<String> deletedTopics = new HashSet<>();
+    for (final Channel channel : openChannels) {
+      if (channel.client == client) {
+        if (deletedTopics.add(channel.topic)) {
+          resource.deleteMqttSinkClient(brokerURI, channel.topic, client);
+        }
+        channel.client = null;
+      }
+    }
+  }
+
+  /**
+   * Close the channel after its pending messages are published, or the close timeout elapses.
+   * The queue is closed when the last channel is closed.
+   */
+  private void closeChannel(final Channel channel) {
+    synchronized (this) {
+      if (!channels.contains(channel)) {
+        return;
+      }
+      if (!awaitUntil(() -> channel.numPendingMessages == 0, CLOSE_TIMEOUT_MILLIS)) {
+        LOG.log(Level.WARNING, "{0} messages of topic {1} are not published before closing the sink",
+            new Object[]{channel.numPendingMessages, channel.topic});
+      }
+      channels.remove(channel);
+    }
+    closeIfUnused();
+  }
+
+  private void closeIfUnused() {
+    synchronized (this) {
+      if (!channels.isEmpty() || numConnectingChannels > 0 || closing) {
+        return;
+      }
+      closing = true;
+    }
+    close();
+  }
+
+  /**
+   * @return true if the queue does not accept new channels
+   */
+  public synchronized boolean isClosing() {
+    return closing;
+  }
+
+  /**
+   * @return the number of messages waiting in the queue, including the failed messages
+   */
+  public synchronized int size() {
+    return size + retryBuffer.size();
+  }
+
+  /**
+   * @return the number of messages published but not acknowledged yet
+   */
+  @Override
+  public int getNumInflightMessages() {
+    return maxInflight - inflightWindow.availablePermits();
+  }
+
+  /**
+   * @return the number of messages dropped because the queue or the retry buffer was full
+   */
+  @Override
+  public long getNumDroppedMessages() {
+    return numDroppedMessages.get();
+  }
+
+  /**
+   * @return the number of messages replaced by the newer messages of the same channel
+   */
+  @Override
+  public long getNumCoalescedMessages() {
+    return numCoalescedMessages.get();
+  }
+
+  /**
+   * @return the number of publish failures
+   */
+  @Override
+  public long getNumFailedMessages() {
+    return numFailedMessages.get();
+  }
+
+  /**
+   * Close the queue after the pending messages are published, or the close timeout elapses.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closing = true;
+    notifyAll();
+    if (publisherThread != null && !awaitUntil(() -> numPendingMessages == 0, CLOSE_TIMEOUT_MILLIS)) {
+      LOG.log(Level.WARNING, "{0} messages are not published before closing the publish queue of {1}",
+          new Object[]{numPendingMessages, name});
+    }
+    closed = true;
+    notifyAll();
+  }
+
+  /**
+   * A channel of a sink, which keeps the order of the messages of the sink.
+   */
+  public final class Channel implements AutoCloseable {
+    /**
+     * The topic of the sink.
+     */
+    private final String topic;
+
+    /**
+     * The client of the topic, or null if it should be reconnected.
+     */
+    private volatile IMqttAsyncClient client;
+
+    /**
+     * The number of the messages which are accepted but not published or dropped yet.
+     */
+    private int numPendingMessages;
+
+    private Channel(final String topic, final IMqttAsyncClient client) {
+      this.topic = topic;
+      this.client = client;
+      this.numPendingMessages = 0;
+    }
+
+    /**
+     * Enqueue the message.
+     * @param message the message
+     */
+    public void offer(final MqttMessage message) {
+      MQTTPublishQueue.this.offer(this, message);
+    }
+
+    /**
+     * Close the channel after its pending messages are published.
+     */
+    @Override
+    public void close() {
+      closeChannel(this);
+    }
+  }
+
+  /**
+   * A message with its channel.
+   */
+  private static final class PendingMessage {
+    private final Channel channel;
+    private final MqttMessage message;
+
+    PendingMessage(final Channel channel, final MqttMessage message) {
+      this.channel = channel;
+      this.message = message;
+    }
+  }
+}
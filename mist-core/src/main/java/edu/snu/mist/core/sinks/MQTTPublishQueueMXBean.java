@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+/**
+ * The JMX interface of the metrics of a mqtt publish queue.
+ */
+public interface MQTTPublishQueueMXBean {
+
+  /**
+   * @return the number of messages published but not acknowledged yet
+   */
+  int getNumInflightMessages();
+
+  /**
+   * @return the number of messages dropped because the queue or the retry buffer was full
+   */
+  long getNumDroppedMessages();
+
+  /**
+   * @return the number of messages replaced by the newer messages of the same channel
+   */
+  long getNumCoalescedMessages();
+
+  /**
+   * @return the number of publish failures
+   */
+  long getNumFailedMessages();
+}
@@ -19,86 +19,39 @@ import edu.snu.mist.core.shared.MQTTResource;
 import edu.snu.mist.core.sources.parameters.MQTTBrokerURI;
 import edu.snu.mist.core.sources.parameters.MQTTTopic;
 import org.apache.reef.tang.annotations.Parameter;
-import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.logging.Logger;
-import java.util.logging.Level;
 
 /**
  * This class publishes MQTT messages to MQTT broker.
+ * The messages are enqueued to the publish queue of the broker and published asynchronously,
+ * so the latency of the broker does not delay the event processor.
+ * Closing the sink waits for its enqueued messages to be published.
  */
 public final class MqttSink implements Sink<MqttMessage> {
-  private static final Logger LOG = Logger.getLogger(MqttSink.class.getName());
   /**
-   * MQTT publisher client.
+   * The channel of the publish queue of the broker.
    */
-  private IMqttAsyncClient mqttClient;
-
-  /**
-   * MQTT shared resource.
-   */
-  private final MQTTResource resource;
-
-  /**
-   * MQTT broker uri.
-   */
-  private final String brokerURI;
-  /**
-   * MQTT topic.
-   */
-  private final String topic;
+  private final MQTTPublishQueue.Channel publishChannel;
 
   @Inject
   public MqttSink(
       @Parameter(MQTTBrokerURI.class) final String brokerURI,
       @Parameter(MQTTTopic.class) final String topic,
       final MQTTResource sharedResource) throws IOException, MqttException {
-    this.brokerURI = brokerURI;
-    this.topic = topic;
-    this.mqttClient = sharedResource.getMqttSinkClient(brokerURI, topic);
-    this.resource = sharedResource;
+    this.publishChannel = sharedResource.openPublishChannel(brokerURI, topic);
   }
 
   @Override
   public void close() throws Exception {
-    // TODO:[MIST-494] Safely close MQTT publisher client.
+    publishChannel.close();
   }
 
-
   @Override
   public void handle(final MqttMessage input) {
-    try {
-      mqttClient.publish(topic, input);
-    } catch (final MqttException e) {
-      // Reconnect!
-      e.printStackTrace();
-      LOG.log(Level.SEVERE, "Reconnecting sink client of topic " + topic + ", uri: " + brokerURI);
-      resource.deleteMqttSinkClient(brokerURI, topic, mqttClient);
-      reconnect();
-      handle(input);
-    }
-  }
-
-  /**
-   * Reconnect mqtt sink client.
-   */
-  private void reconnect() {
-    try {
-      mqttClient = resource.getMqttSinkClient(brokerURI, topic);
-    } catch (MqttException e) {
-      try {
-        Thread.sleep(1000);
-      } catch (InterruptedException e1) {
-        e1.printStackTrace();
-      }
-      reconnect();
-    } catch (IOException e) {
-      e.printStackTrace();
-    }
+    publishChannel.offer(input);
   }
 }
-
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+import edu.snu.mist.core.shared.NettySharedResource;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class sends length-prefixed binary data stream via Netty.
+ * The outputs are not flushed one by one.
+ * They are batched and written to the channel at once
+ * when the pending bytes exceed the flush size or when the flush interval elapses.
+ */
+public final class NettyBinarySink implements Sink<byte[]> {
+
+  /**
+   * Netty channel.
+   */
+  private final Channel channel;
+
+  /**
+   * The number of pending bytes that triggers the flush.
+   */
+  private final int flushSize;
+
+  /**
+   * The outputs that are not written to the channel yet.
+   */
+  private List<byte[]> pending;
+
+  /**
+   * The number of the pending bytes.
+   */
+  private int pendingBytes;
+
+  /**
+   * The periodic flush task.
+   */
+  private final ScheduledFuture<?> flushTask;
+
+  public NettyBinarySink(
+      final String serverAddress,
+      final int port,
+      final int flushSize,
+      final long flushInterval,
+      final NettySharedResource sharedResource) {
+    final Bootstrap clientBootstrap = sharedResource.getBinaryClientBootstrap();
+    final ChannelFuture channelFuture = clientBootstrap.connect(serverAddress, port);
+    channelFuture.awaitUninterruptibly();
+    assert channelFuture.isDone();
+    if (!channelFuture.isSuccess()) {
+      final StringBuilder sb = new StringBuilder("A connection failed at Sink - ");
+      sb.append(channelFuture.cause());
+      throw new RuntimeException(sb.toString());
+    }
+    this.channel = channelFuture.channel();
+    this.flushSize = flushSize;
+    this.pending = new ArrayList<>();
+    this.pendingBytes = 0;
+    this.flushTask = channel.eventLoop().scheduleWithFixedDelay(
+        this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Takes the pending outputs.
+   * @return the pending outputs, or null if there is no pending output
+   */
+  private synchronized List<byte[]> takePending() {
+    if (pending.isEmpty()) {
+      return null;
+    }
+    final List<byte[]> outputs = pending;
+    pending = new ArrayList<>();
+    pendingBytes = 0;
+    return outputs;
+  }
+
+  /**
+   * Writes the pending outputs to the channel and flushes them with a single system call.
+   */
+  private void flush() {
+    final List<byte[]> outputs = takePending();
+    if (outputs != null) {
+      for (final byte[] output : outputs) {
+        channel.write(Unpooled.wrappedBuffer(output));
+      }
+      channel.flush();
+    }
+  }
+
+  @Override
+  public void handle(final byte[] input) {
+    final boolean full;
+    synchronized (this) {
+      pending.add(input);
+      pendingBytes += input.length;
+      full = pendingBytes >= flushSize;
+    }
+    if (full) {
+      channel.eventLoop().execute(this::flush);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    flushTask.cancel(false);
+    channel.eventLoop().submit(this::flush).awaitUninterruptibly();
+    channel.close();
+  }
+}
@@ -18,6 +18,8 @@ package edu.snu.mist.core.sources;
 import edu.snu.mist.core.OutputEmittable;
 import edu.snu.mist.core.OutputEmitter;
 
+import java.util.List;
+
 /**
  * This interface represents the event source of Source class.
  * It receives input data from DataGenerator and generates watermark or data.
@@ -31,6 +33,12 @@ public interface EventGenerator<T> extends OutputEmittable, AutoCloseable {
    */
   void emitData(T input);
 
+  /**
+   * Receives a batch of data from data source and emits them in order.
+   * @param inputs the inputs passed from data source
+   */
+  void emitDataBatch(List<T> inputs);
+
   /**
    * Start the event generator.
    */
@@ -40,4 +48,10 @@ public interface EventGenerator<T> extends OutputEmittable, AutoCloseable {
    * Gets the emitter of this EventGenerator.
    */
   OutputEmitter getOutputEmitter();
+
+  /**
+   * Sets the listener that is notified when this EventGenerator emits a checkpoint event.
+   * @param listener the checkpoint listener
+   */
+  void setCheckpointListener(SourceCheckpointListener listener);
 }
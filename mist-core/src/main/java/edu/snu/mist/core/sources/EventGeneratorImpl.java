@@ -24,8 +24,8 @@ import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -77,26 +77,45 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
   protected final TimeUnit timeUnit;
 
   /**
-   * The scheduler for periodic watermark emission.
+   * The timer for periodic watermark and checkpoint emission.
    */
-  protected final ScheduledExecutorService scheduler;
+  protected final PeriodicEventTimer timer;
 
   /**
-   * The result of the checkpoint service execution.
+   * The registration of the checkpoint emission.
    */
-  protected ScheduledFuture checkpointResult;
+  protected PeriodicEventTimer.Registration checkpointResult;
+
+  /**
+   * The listener of the checkpoint emission, or null if there is none.
+   */
+  private volatile SourceCheckpointListener checkpointListener;
+
+  /**
+   * The timestamp of the latest data event.
+   * It is read only when there is a checkpoint listener, which emits the inputs while holding the lock of this.
+   */
+  private long latestDataTimestamp;
 
   @Inject
   public EventGeneratorImpl(final MISTFunction<I, Tuple<V, Long>> extractTimestampFunc,
                             @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
                             final TimeUnit timeUnit,
                             final ScheduledExecutorService scheduler) {
+    this(extractTimestampFunc, checkpointPeriod, timeUnit, PeriodicEventTimer.getSharedTimer(scheduler));
+  }
+
+  public EventGeneratorImpl(final MISTFunction<I, Tuple<V, Long>> extractTimestampFunc,
+                            final long checkpointPeriod,
+                            final TimeUnit timeUnit,
+                            final PeriodicEventTimer timer) {
     this.extractTimestampFunc = extractTimestampFunc;
     this.started = new AtomicBoolean(false);
     this.latestWatermarkTimestamp = 0L;
+    this.latestDataTimestamp = Long.MIN_VALUE;
     this.checkpointPeriod = checkpointPeriod;
     this.timeUnit = timeUnit;
-    this.scheduler = scheduler;
+    this.timer = timer;
   }
 
   @Override
@@ -120,18 +139,31 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
    */
   protected void startRemain() {
     if (checkpointPeriod != 0) {
-      checkpointResult = scheduler.scheduleAtFixedRate(new Runnable() {
+      checkpointResult = timer.register(new Runnable() {
         public void run() {
-          outputEmitter.emitCheckpoint(new MistCheckpointEvent());
+          synchronized (EventGeneratorImpl.this) {
+            final SourceCheckpointListener listener = checkpointListener;
+            if (listener != null) {
+              listener.onCheckpointEmitted(latestDataTimestamp);
+            }
+            outputEmitter.emitCheckpoint(new MistCheckpointEvent());
+          }
         }
-      }, checkpointPeriod, checkpointPeriod, timeUnit);
+      }, checkpointPeriod, timeUnit);
     }
   }
 
   @Override
   public void close() {
     if (checkpointResult != null) {
-      checkpointResult.cancel(true);
+      checkpointResult.cancel();
+    }
+  }
+
+  @Override
+  public void emitDataBatch(final List<I> inputs) {
+    for (final I input : inputs) {
+      emitData(input);
     }
   }
 
@@ -139,13 +171,26 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
    * Extracts the data and timestamp for MistDataEvent to generate and generate MistDataEvent.
    * If there is a timestamp extractor, then use it.
    * If not, just use current time.
+   * The event is stamped with the ingestion time for measuring the end-to-end latency.
    * @param input the input from DataGenerator
    * @return the MistDataEvent consists of the timestamp and input object without it
    */
   protected MistDataEvent generateEvent(final I input) {
+    final MistDataEvent event = generateEventWithoutIngestionTime(input);
+    if (event != null) {
+      event.setIngestionTime(System.nanoTime());
+    }
+    return event;
+  }
+
+  /**
+   * Generates MistDataEvent without the ingestion time, or returns null if the input is late.
+   */
+  private MistDataEvent generateEventWithoutIngestionTime(final I input) {
     if (extractTimestampFunc == null) {
       long currentTimestamp = getCurrentTimestamp();
       if (currentTimestamp > latestWatermarkTimestamp) {
+        latestDataTimestamp = currentTimestamp;
         return new MistDataEvent(input, currentTimestamp);
       } else {
         return null;
@@ -157,6 +202,7 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
           throw new IllegalArgumentException("Timestamp extraction from input data is failed. Data is " +
                   extractionResult.getKey().toString() + ", timestamp is " + extractionResult.getValue().toString());
         }
+        latestDataTimestamp = extractionResult.getValue();
         return new MistDataEvent(extractionResult.getKey(), extractionResult.getValue());
       } else {
         LOG.log(Level.INFO, "Late data: The data timestamp was later than the latest watermark timestamp.");
@@ -170,6 +216,11 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
     this.outputEmitter = emitter;
   }
 
+  @Override
+  public void setCheckpointListener(final SourceCheckpointListener listener) {
+    this.checkpointListener = listener;
+  }
+
   /**
    * Gets current time in synchronized block.
    * @return the current time
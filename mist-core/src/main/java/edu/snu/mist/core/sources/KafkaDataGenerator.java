@@ -20,24 +20,30 @@ import edu.snu.mist.core.shared.KafkaSharedResource;
 import edu.snu.mist.core.sources.parameters.KafkaTopic;
 import edu.snu.mist.core.sources.parameters.SerializedKafkaConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class receives data stream via Kafka.
+ * The data generators that consume the same topic with the same configuration share a kafka consumer
+ * of the kafka shared resource, and the partitions of the topic are distributed over them.
+ * The records are emitted to the event generator in batches.
+ * The offsets of the emitted records are recorded at each checkpoint event,
+ * and they become committable when a checkpoint of the group covers the checkpoint event.
  * @param <K> the type of kafka record's key
  * @param <V> the type of kafka record's value
  */
-public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRecord<K, V>> {
+public final class KafkaDataGenerator<K, V>
+    implements DataGenerator<ConsumerRecord<K, V>>, SourceCheckpointListener {
 
   /**
    * A flag for start.
@@ -54,31 +60,43 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
    */
   private final String topic;
 
-  /**
-   * The timeout for consumer polling represented in milliseconds.
-   */
-  private final int pollTimeout;
-
   /**
    * The KafkaConsumer configuration.
    */
   private final Map<String, Object> kafkaConsumerConf;
 
   /**
-   * The actual KafkaConsumer which subscribes the target topic.
+   * The kafka shared resource that manages the shared consumers.
    */
-  private KafkaConsumer<K, V> consumer;
+  private final KafkaSharedResource kafkaSharedResource;
 
   /**
-   * The executor service used to restrict the number of threads for kafka sources.
+   * The shared consumer which subscribes the target topic.
    */
-  private final ExecutorService executorService;
+  private volatile KafkaSharedConsumer<K, V> sharedConsumer;
 
   /**
    * Event generator which is the destination of fetched data.
    */
   private EventGenerator<ConsumerRecord<K, V>> eventGenerator;
 
+  /**
+   * The offsets following the records emitted to this data generator.
+   */
+  private final Map<TopicPartition, Long> emittedOffsets;
+
+  /**
+   * The offsets following the records covered by the completed checkpoints.
+   * The offset of a partition is the first emitted offset until a checkpoint covers the records of the partition.
+   */
+  private final Map<TopicPartition, Long> checkpointedOffsets;
+
+  /**
+   * The emitted offsets at the checkpoint events that are not covered by a completed checkpoint yet.
+   * The key is the timestamp of the latest data event before the checkpoint event.
+   */
+  private final TreeMap<Long, Map<TopicPartition, Long>> pendingOffsets;
+
   @Inject
   private KafkaDataGenerator(
       @Parameter(KafkaTopic.class) final String topic,
@@ -97,8 +115,10 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
     this.closed = new AtomicBoolean(false);
     this.topic = topic;
     this.kafkaConsumerConf = kafkaConsumerConf;
-    this.executorService = kafkaSharedResource.getExecutorService();
-    this.pollTimeout = kafkaSharedResource.getPollTimeout();
+    this.kafkaSharedResource = kafkaSharedResource;
+    this.emittedOffsets = new HashMap<>();
+    this.checkpointedOffsets = new HashMap<>();
+    this.pendingOffsets = new TreeMap<>();
   }
 
   @Override
@@ -106,29 +126,7 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
     if (started.compareAndSet(false, true)) {
       if (eventGenerator != null) {
         try {
-          // TODO: [MIST-355] support topic having multiple partitions in kafka source
-          consumer = new KafkaConsumer<>(kafkaConsumerConf);
-          final Collection<String> topicCollection = new LinkedList<>();
-          topicCollection.add(topic);
-          consumer.subscribe(topicCollection);
-
-          executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-              try {
-                while (!closed.get()) {
-                  final ConsumerRecords<K, V> consumerRecords = consumer.poll(pollTimeout);
-                  for (final ConsumerRecord<K, V> record : consumerRecords) {
-                    eventGenerator.emitData(record);
-                  }
-                }
-              } catch (final Exception e) {
-                e.printStackTrace();
-              } finally {
-                consumer.close();
-              }
-            }
-          });
+          sharedConsumer = kafkaSharedResource.subscribe(topic, kafkaConsumerConf, this);
         } catch (final Exception e) {
           e.printStackTrace();
           throw new RuntimeException("Failed to construct kafka consumer", e);
@@ -137,13 +135,85 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
     }
   }
 
+  /**
+   * Emit the records of a partition. It is called by the poller thread of the shared consumer.
+   * The records are emitted while holding the lock of the event generator,
+   * so the recorded offsets are ordered with the checkpoint events.
+   * @param partition the partition of the records
+   * @param records the records
+   */
+  void emitBatch(final TopicPartition partition, final List<ConsumerRecord<K, V>> records) {
+    if (!closed.get()) {
+      synchronized (eventGenerator) {
+        eventGenerator.emitDataBatch(records);
+        synchronized (this) {
+          checkpointedOffsets.putIfAbsent(partition, records.get(0).offset());
+          emittedOffsets.put(partition, records.get(records.size() - 1).offset() + 1);
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void onCheckpointEmitted(final long latestDataTimestamp) {
+    pendingOffsets.put(latestDataTimestamp, new HashMap<>(emittedOffsets));
+  }
+
+  @Override
+  public void onCheckpointCompleted(final long checkpointTimestamp) {
+    synchronized (this) {
+      final NavigableMap<Long, Map<TopicPartition, Long>> coveredOffsets =
+          pendingOffsets.headMap(checkpointTimestamp, true);
+      if (coveredOffsets.isEmpty()) {
+        return;
+      }
+      checkpointedOffsets.putAll(coveredOffsets.lastEntry().getValue());
+      coveredOffsets.clear();
+    }
+    if (sharedConsumer != null) {
+      sharedConsumer.requestCommit();
+    }
+  }
+
+  /**
+   * Collect the offsets of the partitions for the commit.
+   * If there are records not covered by a checkpoint, the offset of the first one is collected as uncovered.
+   * Otherwise, the offset following the emitted records is collected as covered.
+   * @param coveredOffsets the largest offsets of the partitions whose records are all covered
+   * @param uncoveredOffsets the smallest offsets of the first uncovered records
+   */
+  synchronized void collectCheckpointedOffsets(final Map<TopicPartition, Long> coveredOffsets,
+                                               final Map<TopicPartition, Long> uncoveredOffsets) {
+    for (final Map.Entry<TopicPartition, Long> entry : checkpointedOffsets.entrySet()) {
+      final long checkpointedOffset = entry.getValue();
+      if (checkpointedOffset < emittedOffsets.get(entry.getKey())) {
+        uncoveredOffsets.merge(entry.getKey(), checkpointedOffset, Math::min);
+      } else {
+        coveredOffsets.merge(entry.getKey(), checkpointedOffset, Math::max);
+      }
+    }
+  }
+
+  /**
+   * Collect the offsets following the emitted records.
+   * @param offsets the largest offsets of the partitions
+   */
+  synchronized void collectEmittedOffsets(final Map<TopicPartition, Long> offsets) {
+    for (final Map.Entry<TopicPartition, Long> entry : emittedOffsets.entrySet()) {
+      offsets.merge(entry.getKey(), entry.getValue(), Math::max);
+    }
+  }
+
   @Override
   public void close() {
-    closed.compareAndSet(false, true);
+    if (closed.compareAndSet(false, true) && sharedConsumer != null) {
+      kafkaSharedResource.unsubscribe(sharedConsumer, this);
+    }
   }
 
   @Override
-  public void setEventGenerator(final EventGenerator eventGenerator) {
+  public void setEventGenerator(final EventGenerator<ConsumerRecord<K, V>> eventGenerator) {
     this.eventGenerator = eventGenerator;
+    eventGenerator.setCheckpointListener(this);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A kafka consumer shared by the kafka data generators that consume the same topic with the same configuration.
+ * The partitions of the topic are distributed over the data generators,
+ * so each record is emitted to only one data generator as if the data generators were separate consumers
+ * of the consumer group.
+ * A partition is assigned to a data generator by rendezvous hashing,
+ * so it moves only when its data generator is unregistered or a new data generator takes it.
+ * The records of a poll are emitted to each data generator as a batch.
+ * If the offsets are committed by MIST, the offset of a partition is committed only up to the records
+ * that are covered by the completed checkpoints of all the data generators which have received the partition.
+ * The consumer is only accessed by the poller thread of the shared resource, because it is not thread-safe.
+ * @param <K> the type of kafka record's key
+ * @param <V> the type of kafka record's value
+ */
+public final class KafkaSharedConsumer<K, V> {
+  private static final Logger LOG = Logger.getLogger(KafkaSharedConsumer.class.getName());
+
+  /**
+   * The kafka consumer.
+   */
+  private final Consumer<K, V> consumer;
+
+  /**
+   * The data generators that receive the records.
+   */
+  private final List<KafkaDataGenerator<K, V>> dataGenerators;
+
+  /**
+   * The identifiers of the data generators, which are the seeds of the partition assignment.
+   */
+  private final Map<KafkaDataGenerator<K, V>, Long> dataGeneratorIds;
+
+  /**
+   * The identifier of the next registered data generator.
+   */
+  private long nextDataGeneratorId;
+
+  /**
+   * True if the offsets are committed by MIST instead of the auto commit of the kafka consumer.
+   */
+  private final boolean commitOffsets;
+
+  /**
+   * The offsets following the records emitted to the unregistered data generators.
+   */
+  private final Map<TopicPartition, Long> retiredOffsets;
+
+  /**
+   * The committed offsets. The offsets are never committed backwards.
+   */
+  private final Map<TopicPartition, Long> committedOffsets;
+
+  /**
+   * True if a checkpoint has been completed since the last commit.
+   */
+  private volatile boolean commitRequested;
+
+  /**
+   * True if the consumer is closed.
+   */
+  private volatile boolean closed;
+
+  public KafkaSharedConsumer(final Consumer<K, V> consumer,
+                             final String topic,
+                             final boolean commitOffsets) {
+    this.consumer = consumer;
+    this.dataGenerators = new CopyOnWriteArrayList<>();
+    this.dataGeneratorIds = new ConcurrentHashMap<>();
+    this.nextDataGeneratorId = 0;
+    this.commitOffsets = commitOffsets;
+    this.retiredOffsets = new HashMap<>();
+    this.committedOffsets = new HashMap<>();
+    this.commitRequested = false;
+    this.closed = false;
+    consumer.subscribe(Collections.singletonList(topic));
+  }
+
+  /**
+   * Add the data generator to the receivers of the records.
+   */
+  public synchronized void register(final KafkaDataGenerator<K, V> dataGenerator) {
+    dataGeneratorIds.put(dataGenerator, nextDataGeneratorId++);
+    dataGenerators.add(dataGenerator);
+  }
+
+  /**
+   * Remove the data generator from the receivers of the records.
+   * The records emitted to the data generator do not need to be checkpointed any more,
+   * as its query has been removed.
+   * @return true if there is no data generator left
+   */
+  public synchronized boolean unregister(final KafkaDataGenerator<K, V> dataGenerator) {
+    dataGenerator.collectEmittedOffsets(retiredOffsets);
+    dataGenerators.remove(dataGenerator);
+    dataGeneratorIds.remove(dataGenerator);
+    commitRequested = true;
+    return dataGenerators.isEmpty();
+  }
+
+  /**
+   * Request the commit of the offsets after a checkpoint of a data generator is completed.
+   */
+  void requestCommit() {
+    commitRequested = true;
+  }
+
+  /**
+   * Poll the records and emit them to the data generators. It is called by the poller thread.
+   * @param timeout the poll timeout in milliseconds
+   * @return the number of the polled records
+   */
+  public int poll(final long timeout) {
+    final ConsumerRecords<K, V> consumerRecords = consumer.poll(timeout);
+    if (!consumerRecords.isEmpty()) {
+      final List<KafkaDataGenerator<K, V>> receivers = new ArrayList<>(dataGenerators);
+      if (!receivers.isEmpty()) {
+        for (final TopicPartition partition : consumerRecords.partitions()) {
+          final List<ConsumerRecord<K, V>> records = consumerRecords.records(partition);
+          selectReceiver(receivers, partition).emitBatch(partition, records);
+        }
+      }
+    }
+    if (commitOffsets && commitRequested) {
+      commitRequested = false;
+      final Map<TopicPartition, OffsetAndMetadata> offsets = getCommittableOffsets();
+      if (!offsets.isEmpty()) {
+        consumer.commitAsync(offsets, (committed, exception) -> {
+          if (exception != null) {
+            LOG.log(Level.WARNING, "Failed to commit kafka offsets " + committed, exception);
+          }
+        });
+      }
+    }
+    return consumerRecords.count();
+  }
+
+  /**
+   * Select the receiver of the partition by rendezvous hashing.
+   * The receiver having the highest weight for the partition is selected.
+   */
+  private KafkaDataGenerator<K, V> selectReceiver(final List<KafkaDataGenerator<K, V>> receivers,
+                                                  final TopicPartition partition) {
+    KafkaDataGenerator<K, V> selected = null;
+    long maxWeight = Long.MIN_VALUE;
+    for (final KafkaDataGenerator<K, V> receiver : receivers) {
+      final Long id = dataGeneratorIds.get(receiver);
+      if (id == null) {
+        // The receiver has been unregistered after the receivers were copied
+        continue;
+      }
+      final long weight = mix(id * 31 + partition.hashCode());
+      if (selected == null || weight > maxWeight) {
+        selected = receiver;
+        maxWeight = weight;
+      }
+    }
+    return selected == null ? receivers.get(0) : selected;
+  }
+
+  /**
+   * The finalization mix of MurmurHash3, which spreads the weights of the similar seeds.
+   */
+  private static long mix(final long seed) {
+    long h = seed;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb93fe53ec4b9L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Get the offsets that can be committed.
+   * The offset of a partition is the first record that is not covered by a completed checkpoint
+   * among the data generators receiving the partition, or the next record if all the records are covered.
+   * The offsets that are not larger than the committed ones are excluded.
+   */
+  private synchronized Map<TopicPartition, OffsetAndMetadata> getCommittableOffsets() {
+    final Map<TopicPartition, Long> coveredOffsets = new HashMap<>(retiredOffsets);
+    final Map<TopicPartition, Long> uncoveredOffsets = new HashMap<>();
+    for (final KafkaDataGenerator<K, V> dataGenerator : dataGenerators) {
+      dataGenerator.collectCheckpointedOffsets(coveredOffsets, uncoveredOffsets);
+    }
+    final Map<TopicPartition, Long> offsets = new HashMap<>(coveredOffsets);
+    offsets.putAll(uncoveredOffsets);
+    final Map<TopicPartition, OffsetAndMetadata> committableOffsets = new HashMap<>();
+    for (final Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+      final Long committedOffset = committedOffsets.get(entry.getKey());
+      if (committedOffset == null || committedOffset < entry.getValue()) {
+        committedOffsets.put(entry.getKey(), entry.getValue());
+        committableOffsets.put(entry.getKey(), new OffsetAndMetadata(entry.getValue()));
+      }
+    }
+    return committableOffsets;
+  }
+
+  /**
+   * Mark this consumer as closed. The poller thread closes the consumer.
+   */
+  public void markClosed() {
+    closed = true;
+  }
+
+  /**
+   * @return true if the consumer is marked as closed
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Commit the checkpointed offsets and close the consumer. It is called by the poller thread.
+   */
+  public void close() {
+    try {
+      if (commitOffsets) {
+        final Map<TopicPartition, OffsetAndMetadata> offsets = getCommittableOffsets();
+        if (!offsets.isEmpty()) {
+          consumer.commitSync(offsets);
+        }
+      }
+    } catch (final Exception e) {
+      LOG.log(Level.WARNING, "Failed to commit kafka offsets before closing the consumer", e);
+    } finally {
+      consumer.close();
+    }
+  }
+}
@@ -17,6 +17,7 @@ package edu.snu.mist.core.sources;
 
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -70,6 +71,17 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
     }
   }
 
+  /**
+   * Emit the given MQTT messages toward the EventGenerator at once.
+   * This function would be called by MQTTSubscribeClient with the messages of a batch drained from its ingest queue.
+   * @param messages the messages to emit
+   */
+  void emitDataBatch(final List<MqttMessage> messages) {
+    if (!closed.get() && eventGenerator != null) {
+      eventGenerator.emitDataBatch(messages);
+    }
+  }
+
   @Override
   public void start() {
     if (started.compareAndSet(false, true)) {
@@ -79,12 +91,14 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
 
   @Override
   public void close() {
-    closed.compareAndSet(false, true);
+    if (closed.compareAndSet(false, true)) {
+      subClient.disconnectFromTopic(topic, this);
+    }
     // TODO: [MIST-489] Deal with close and connection problem in MQTT source
   }
 
   @Override
-  public void setEventGenerator(final EventGenerator eventGenerator) {
+  public void setEventGenerator(final EventGenerator<MqttMessage> eventGenerator) {
     this.eventGenerator = eventGenerator;
   }
 }
\ No newline at end of file
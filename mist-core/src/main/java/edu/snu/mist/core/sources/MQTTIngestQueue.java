@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import edu.snu.mist.core.task.MpscArrayQueue;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A bounded queue between the callback thread of a mqtt client and the data generators.
+ * The callback thread only enqueues the arrived messages,
+ * and a dispatcher thread drains them in batches and hands each batch to the data generators at once.
+ * Therefore, a slow data generator does not block the connection of the client.
+ * When the queue is full, the arrived messages are handled by the overflow policy.
+ */
+public final class MQTTIngestQueue implements AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(MQTTIngestQueue.class.getName());
+
+  /**
+   * The policy for the messages that arrive when the queue is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The callback thread waits until the queue has space.
+     */
+    BLOCK,
+    /**
+     * The messages are dropped.
+     */
+    DROP,
+    /**
+     * The messages are kept in an unbounded overflow queue.
+     */
+    SPILL;
+
+    /**
+     * @param option the option string (block, drop or spill)
+     * @return the overflow policy
+     */
+    public static OverflowPolicy of(final String option) {
+      switch (option) {
+        case "block":
+          return BLOCK;
+        case "drop":
+          return DROP;
+        case "spill":
+          return SPILL;
+        default:
+          throw new IllegalArgumentException("Invalid mqtt ingest overflow policy: " + option);
+      }
+    }
+  }
+
+  /**
+   * The maximum number of messages that are drained at once.
+   */
+  private static final int BATCH_SIZE = 256;
+
+  /**
+   * The time for which the dispatcher thread waits for new messages.
+   */
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  /**
+   * The time for which the callback thread waits for space in the BLOCK policy.
+   */
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  /**
+   * The name of the dispatcher thread.
+   */
+  private final String name;
+
+  /**
+   * The bounded queue of the messages.
+   */
+  private final MpscArrayQueue<IngestedMessage> queue;
+
+  /**
+   * The overflow queue used in the SPILL policy.
+   * When it is not empty, the arrived messages are also added to it in order to keep the arrival order.
+   */
+  private final Queue<IngestedMessage> overflowQueue;
+
+  /**
+   * The overflow policy.
+   */
+  private final OverflowPolicy overflowPolicy;
+
+  /**
+   * The function that sends a batch of the drained messages to the data generators.
+   * The batch list is reused by the dispatcher thread, so the function should not keep it.
+   */
+  private final Consumer<List<IngestedMessage>> dispatcher;
+
+  /**
+   * The number of dropped messages.
+   */
+  private final AtomicLong numDroppedMessages;
+
+  /**
+   * The number of spilled messages.
+   */
+  private final AtomicLong numSpilledMessages;
+
+  /**
+   * The dispatcher thread.
+   */
+  private volatile Thread dispatcherThread;
+
+  /**
+   * True if the dispatcher thread is parked because the queue is empty.
+   */
+  private final AtomicBoolean idle;
+
+  /**
+   * True if the queue is closed.
+   */
+  private volatile boolean closed;
+
+  MQTTIngestQueue(final String name,
+                  final int capacity,
+                  final OverflowPolicy overflowPolicy,
+                  final Consumer<List<IngestedMessage>> dispatcher) {
+    this.name = name;
+    this.queue = new MpscArrayQueue<>(capacity);
+    this.overflowQueue = new ConcurrentLinkedQueue<>();
+    this.overflowPolicy = overflowPolicy;
+    this.dispatcher = dispatcher;
+    this.numDroppedMessages = new AtomicLong(0);
+    this.numSpilledMessages = new AtomicLong(0);
+    this.idle = new AtomicBoolean(false);
+    this.closed = false;
+  }
+
+  /**
+   * Start the dispatcher thread if it is not started.
+   */
+  public synchronized void start() {
+    if (dispatcherThread == null && !closed) {
+      dispatcherThread = new Thread(this::dispatch, name);
+      dispatcherThread.setDaemon(true);
+      dispatcherThread.start();
+    }
+  }
+
+  /**
+   * Enqueue the arrived message. It is called by the callback thread of the mqtt client.
+   * @param topic the topic of the message
+   * @param message the message
+   */
+  public void offer(final String topic, final MqttMessage message) {
+    final IngestedMessage ingestedMessage = new IngestedMessage(topic, message);
+    switch (overflowPolicy) {
+      case BLOCK:
+        while (!queue.offer(ingestedMessage)) {
+          if (closed) {
+            return;
+          }
+          wakeUpDispatcher();
+          LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        break;
+      case DROP:
+        if (!queue.offer(ingestedMessage)) {
+          if (numDroppedMessages.getAndIncrement() == 0) {
+            LOG.log(Level.WARNING, "The ingest queue of {0} is full, so the messages are dropped", name);
+          }
+          return;
+        }
+        break;
+      case SPILL:
+        if (!overflowQueue.isEmpty() || !queue.offer(ingestedMessage)) {
+          overflowQueue.add(ingestedMessage);
+          numSpilledMessages.incrementAndGet();
+        }
+        break;
+      default:
+        throw new RuntimeException("Unknown overflow policy: " + overflowPolicy);
+    }
+    wakeUpDispatcher();
+  }
+
+  private void wakeUpDispatcher() {
+    if (idle.get() && idle.compareAndSet(true, false)) {
+      LockSupport.unpark(dispatcherThread);
+    }
+  }
+
+  /**
+   * Drain the messages in batches and send them to the data generators.
+   * The messages in the bounded queue are older than those in the overflow queue.
+   */
+  private void dispatch() {
+    final List<IngestedMessage> batch = new ArrayList<>(BATCH_SIZE);
+    while (!closed) {
+      batch.clear();
+      if (queue.drain(batch, BATCH_SIZE) == 0) {
+        while (batch.size() < BATCH_SIZE) {
+          final IngestedMessage spilled = overflowQueue.poll();
+          if (spilled == null) {
+            break;
+          }
+          batch.add(spilled);
+        }
+      }
+
+      if (batch.isEmpty()) {
+        idle.set(true);
+        // Check again, because a message can be enqueued before the idle flag is set
+        if (queue.isEmpty() && overflowQueue.isEmpty() && !closed) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        idle.set(false);
+        continue;
+      }
+
+      try {
+        dispatcher.accept(batch);
+      } catch (final Exception e) {
+        LOG.log(Level.SEVERE, "Failed to dispatch a batch of " + batch.size() + " messages", e);
+      }
+    }
+  }
+
+  /**
+   * @return the number of messages waiting in the queue, including the spilled messages
+   */
+  public int size() {
+    return queue.size() + overflowQueue.size();
+  }
+
+  /**
+   * @return the number of messages dropped because the queue was full
+   */
+  public long getNumDroppedMessages() {
+    return numDroppedMessages.get();
+  }
+
+  /**
+   * @return the number of messages spilled to the overflow queue because the queue was full
+   */
+  public long getNumSpilledMessages() {
+    return numSpilledMessages.get();
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (dispatcherThread != null) {
+      LockSupport.unpark(dispatcherThread);
+    }
+  }
+
+  /**
+   * A message with its topic.
+   */
+  static final class IngestedMessage {
+    private final String topic;
+    private final MqttMessage message;
+
+    IngestedMessage(final String topic, final MqttMessage message) {
+      this.topic = topic;
+      this.message = message;
+    }
+
+    String getTopic() {
+      return topic;
+    }
+
+    MqttMessage getMessage() {
+      return message;
+    }
+  }
+}
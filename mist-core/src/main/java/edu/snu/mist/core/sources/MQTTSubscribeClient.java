@@ -17,20 +17,22 @@ package edu.snu.mist.core.sources;
 
 import org.eclipse.paho.client.mqttv3.*;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ConcurrentMap;
+import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * This class represents MQTT clients implemented with eclipse Paho.
  * It will subscribe a MQTT broker and send the received data toward appropriate DataGenerator.
+ * The topics of the DataGenerators can have wildcards, and a received message is sent to
+ * all the DataGenerators whose topics match the topic of the message.
+ * A topic is not subscribed to the broker if it is covered by another subscribed topic,
+ * so the DataGenerators of the topics that are covered by a wildcard topic share a subscription.
+ * The received messages are sent to the DataGenerators through an ingest queue,
+ * so a slow DataGenerator does not block the callback thread of the Paho client.
+ * The messages drained from the ingest queue are handed to each DataGenerator as a batch.
  */
-public final class MQTTSubscribeClient implements MqttCallback {
+public final class MQTTSubscribeClient implements MqttCallback, MQTTSubscribeClientMXBean {
   private static final Logger LOG = Logger.getLogger(MQTTSubscribeClient.class.getName());
 
   /**
@@ -50,9 +52,9 @@ public final class MQTTSubscribeClient implements MqttCallback {
    */
   private String clientId;
   /**
-   * The map coupling MQTT topic name and list of MQTTDataGenerators.
+   * The trie coupling MQTT topic filters and MQTTDataGenerators.
    */
-  private final ConcurrentMap<String, Queue<MQTTDataGenerator>> dataGeneratorListMap;
+  private final MQTTTopicTrie<MQTTDataGenerator> dataGeneratorTrie;
   /**
    * The lock used when a DataGenerator want to start subscription.
    */
@@ -64,24 +66,35 @@ public final class MQTTSubscribeClient implements MqttCallback {
   private final int mqttSourceKeepAliveSec;
 
   /**
-   * Topics to subscribe.
+   * Topics subscribed to the broker.
    */
   private final List<String> topics;
 
+  /**
+   * The queue of the received messages.
+   */
+  private final MQTTIngestQueue ingestQueue;
+
   /**
    * Construct a client connected with target MQTT broker.
    * @param brokerURI the URI of broker to connect
+   * @param ingestQueueCapacity the capacity of the ingest queue
+   * @param overflowPolicy the policy for the messages that arrive when the ingest queue is full
    */
   public MQTTSubscribeClient(final String brokerURI,
                              final String clientId,
-                             final int mqttSourceKeepAliveSec) {
+                             final int mqttSourceKeepAliveSec,
+                             final int ingestQueueCapacity,
+                             final MQTTIngestQueue.OverflowPolicy overflowPolicy) {
     this.started = false;
     this.brokerURI = brokerURI;
     this.clientId = clientId;
-    this.dataGeneratorListMap = new ConcurrentHashMap<>();
+    this.dataGeneratorTrie = new MQTTTopicTrie<>();
     this.subscribeLock = new Object();
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
     this.topics = new LinkedList<>();
+    this.ingestQueue = new MQTTIngestQueue(clientId + "_ingest", ingestQueueCapacity, overflowPolicy,
+        this::dispatch);
   }
 
   /**
@@ -89,20 +102,25 @@ public final class MQTTSubscribeClient implements MqttCallback {
    * When the start() method of the DataGenerator is called, the client will start to subscribe the requested topic.
    * If a DataGenerator having topic of connected broker is requested multiple-time,
    * already constructed DataGenerator will be returned.
-   * @param topic the topic of connected broker to subscribe
+   * @param topic the topic of connected broker to subscribe, which can have wildcards
    * @return requested MQTTDataGenerator connected with the target broker and topic
    */
   public MQTTDataGenerator connectToTopic(final String topic) {
-    Queue<MQTTDataGenerator> dataGeneratorList = dataGeneratorListMap.get(topic);
-    if (dataGeneratorList == null) {
-      dataGeneratorList = new ConcurrentLinkedQueue<>();
-      dataGeneratorListMap.putIfAbsent(topic, dataGeneratorList);
-    }
     final MQTTDataGenerator dataGenerator = new MQTTDataGenerator(this, topic);
-    dataGeneratorListMap.get(topic).add(dataGenerator);
+    dataGeneratorTrie.add(topic, dataGenerator);
     return dataGenerator;
   }
 
+  /**
+   * Stop sending the received data to the DataGenerator.
+   * @param topic the topic of the DataGenerator
+   * @param dataGenerator the DataGenerator
+   */
+  void disconnectFromTopic(final String topic, final MQTTDataGenerator dataGenerator) {
+    dataGeneratorTrie.remove(topic, dataGenerator);
+  }
+
+
   /**
    * Connect to client.
    */
@@ -135,17 +153,28 @@ public final class MQTTSubscribeClient implements MqttCallback {
 
   /**
    * Start to subscribe a topic.
+   * If the topic is covered by a subscribed topic, it is not subscribed to the broker.
+   * The subscribed topics covered by the topic are unsubscribed,
+   * because the broker can send a message multiple times for the overlapping subscriptions.
    */
   void subscribe(final String topic) {
     synchronized (subscribeLock) {
+      for (final String subscribedTopic : topics) {
+        if (MQTTTopicTrie.covers(subscribedTopic, topic)) {
+          return;
+        }
+      }
+
       if (!started) {
+        ingestQueue.start();
         connect();
         started = true;
       }
 
       try {
         topics.add(topic);
-        client.subscribe(topic, 0);
+        client.subscribe(topic, 0).waitForCompletion();
+        unsubscribeCoveredTopics(topic);
       } catch (final MqttException e) {
         LOG.log(Level.SEVERE, "MQTT exception for subscribing {0}... {1}...{2}",
             new Object[] {topic, e, clientId});
@@ -165,6 +194,20 @@ public final class MQTTSubscribeClient implements MqttCallback {
     }
   }
 
+  /**
+   * Unsubscribe the subscribed topics that are covered by the topic.
+   */
+  private void unsubscribeCoveredTopics(final String topic) throws MqttException {
+    final Iterator<String> iterator = topics.iterator();
+    while (iterator.hasNext()) {
+      final String subscribedTopic = iterator.next();
+      if (!subscribedTopic.equals(topic) && MQTTTopicTrie.covers(topic, subscribedTopic)) {
+        iterator.remove();
+        client.unsubscribe(subscribedTopic);
+      }
+    }
+  }
+
   /**
    * Resubscribe topics.
    */
@@ -200,6 +243,22 @@ public final class MQTTSubscribeClient implements MqttCallback {
    */
   public void disconnect() {
     // TODO: [MIST-489] Deal with close and connection problem in MQTT source
+    ingestQueue.close();
+  }
+
+  @Override
+  public int getIngestQueueSize() {
+    return ingestQueue.size();
+  }
+
+  @Override
+  public long getNumDroppedMessages() {
+    return ingestQueue.getNumDroppedMessages();
+  }
+
+  @Override
+  public long getNumSpilledMessages() {
+    return ingestQueue.getNumSpilledMessages();
   }
 
   @Override
@@ -209,9 +268,25 @@ public final class MQTTSubscribeClient implements MqttCallback {
 
   @Override
   public void messageArrived(final String topic, final MqttMessage message) {
-    final Queue<MQTTDataGenerator> dataGeneratorList = dataGeneratorListMap.get(topic);
-    if (dataGeneratorList != null) {
-      dataGeneratorList.forEach(dataGenerator -> dataGenerator.emitData(message));
+    ingestQueue.offer(topic, message);
+  }
+
+  /**
+   * Send the drained messages to the DataGenerators whose topics match the topics of the messages.
+   * The messages are grouped by the DataGenerators in the arrival order,
+   * and each DataGenerator receives its messages of the batch at once.
+   * It is called by the dispatcher thread of the ingest queue.
+   */
+  private void dispatch(final List<MQTTIngestQueue.IngestedMessage> batch) {
+    final Map<MQTTDataGenerator, List<MqttMessage>> dataGeneratorMessages = new IdentityHashMap<>();
+    for (final MQTTIngestQueue.IngestedMessage ingestedMessage : batch) {
+      for (final MQTTDataGenerator dataGenerator : dataGeneratorTrie.match(ingestedMessage.getTopic())) {
+        dataGeneratorMessages.computeIfAbsent(dataGenerator, key -> new ArrayList<>())
+            .add(ingestedMessage.getMessage());
+      }
+    }
+    for (final Map.Entry<MQTTDataGenerator, List<MqttMessage>> entry : dataGeneratorMessages.entrySet()) {
+      entry.getKey().emitDataBatch(entry.getValue());
     }
   }
 
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+/**
+ * The JMX interface of the metrics of a mqtt subscribe client.
+ */
+public interface MQTTSubscribeClientMXBean {
+
+  /**
+   * @return the number of received messages waiting in the ingest queue
+   */
+  int getIngestQueueSize();
+
+  /**
+   * @return the number of received messages dropped because the ingest queue was full
+   */
+  long getNumDroppedMessages();
+
+  /**
+   * @return the number of received messages spilled because the ingest queue was full
+   */
+  long getNumSpilledMessages();
+}
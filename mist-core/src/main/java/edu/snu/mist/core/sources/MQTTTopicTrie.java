@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A trie of MQTT topic filters, which finds the values of the filters that match a topic name.
+ * The filters can have the single-level wildcard (+) and the multi-level wildcard (#).
+ * The matched values are cached per topic name, and the cache is invalidated when the filters are changed.
+ * The filters are changed rarely compared to the lookups, so the lookups are not blocked by each other.
+ * @param <T> the type of the values
+ */
+public final class MQTTTopicTrie<T> {
+
+  /**
+   * The separator of the topic levels.
+   */
+  private static final char LEVEL_SEPARATOR = '/';
+
+  /**
+   * The single-level wildcard.
+   */
+  private static final String SINGLE_LEVEL_WILDCARD = "+";
+
+  /**
+   * The multi-level wildcard.
+   */
+  private static final String MULTI_LEVEL_WILDCARD = "#";
+
+  /**
+   * The maximum number of the cached topic names.
+   */
+  private static final int MAX_CACHE_SIZE = 65536;
+
+  /**
+   * The root node of the trie.
+   */
+  private final Node<T> root;
+
+  /**
+   * The cache of the matched values per topic name.
+   * It is replaced with a new map when the filters are changed,
+   * so a lookup that runs concurrently with the change does not cache a stale result.
+   */
+  private volatile Map<String, List<T>> matchCache;
+
+  public MQTTTopicTrie() {
+    this.root = new Node<>();
+    this.matchCache = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Add the value of the topic filter.
+   * @param filter topic filter
+   * @param value value
+   */
+  public synchronized void add(final String filter, final T value) {
+    Node<T> node = root;
+    for (final String level : split(filter)) {
+      node = node.children.computeIfAbsent(level, l -> new Node<>());
+    }
+    node.values.add(value);
+    matchCache = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Remove the value of the topic filter.
+   * @param filter topic filter
+   * @param value value
+   * @return true if the value is removed
+   */
+  public synchronized boolean remove(final String filter, final T value) {
+    Node<T> node = root;
+    for (final String level : split(filter)) {
+      node = node.children.get(level);
+      if (node == null) {
+        return false;
+      }
+    }
+    final boolean removed = node.values.remove(value);
+    if (removed) {
+      matchCache = new ConcurrentHashMap<>();
+    }
+    return removed;
+  }
+
+  /**
+   * Find the values of the filters that match the topic name.
+   * @param topic topic name without wildcards
+   * @return the matched values
+   */
+  public List<T> match(final String topic) {
+    final Map<String, List<T>> cache = matchCache;
+    final List<T> cached = cache.get(topic);
+    if (cached != null) {
+      return cached;
+    }
+    final List<T> result = new ArrayList<>();
+    final List<String> levels = split(topic);
+    // Wildcards do not match the topic names beginning with $
+    collect(root, levels, 0, !topic.isEmpty() && topic.charAt(0) == '$', result);
+    final List<T> matched = result.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(result);
+    if (cache.size() >= MAX_CACHE_SIZE) {
+      cache.clear();
+    }
+    cache.put(topic, matched);
+    return matched;
+  }
+
+  private void collect(final Node<T> node,
+                       final List<String> levels,
+                       final int depth,
+                       final boolean reserved,
+                       final List<T> result) {
+    final boolean wildcardAllowed = !(reserved && depth == 0);
+    if (wildcardAllowed) {
+      // The multi-level wildcard also matches the parent level
+      final Node<T> multi = node.children.get(MULTI_LEVEL_WILDCARD);
+      if (multi != null) {
+        result.addAll(multi.values);
+      }
+    }
+    if (depth == levels.size()) {
+      result.addAll(node.values);
+      return;
+    }
+    final Node<T> exact = node.children.get(levels.get(depth));
+    if (exact != null) {
+      collect(exact, levels, depth + 1, reserved, result);
+    }
+    if (wildcardAllowed) {
+      final Node<T> single = node.children.get(SINGLE_LEVEL_WILDCARD);
+      if (single != null) {
+        collect(single, levels, depth + 1, reserved, result);
+      }
+    }
+  }
+
+  /**
+   * Check whether all the topic names that match the second filter also match the first filter.
+   * @param filter the first topic filter
+   * @param other the second topic filter
+   * @return true if the first filter covers the second filter
+   */
+  public static boolean covers(final String filter, final String other) {
+    final List<String> levels = split(filter);
+    final List<String> otherLevels = split(other);
+    for (int i = 0; i < levels.size(); i++) {
+      final String level = levels.get(i);
+      if (level.equals(MULTI_LEVEL_WILDCARD)) {
+        return !(i == 0 && isReserved(otherLevels));
+      }
+      if (i == otherLevels.size()) {
+        return false;
+      }
+      final String otherLevel = otherLevels.get(i);
+      if (level.equals(SINGLE_LEVEL_WILDCARD)) {
+        if (otherLevel.equals(MULTI_LEVEL_WILDCARD) || (i == 0 && isReserved(otherLevels))) {
+          return false;
+        }
+      } else if (!level.equals(otherLevel)) {
+        return false;
+      }
+    }
+    return levels.size() == otherLevels.size();
+  }
+
+  private static boolean isReserved(final List<String> levels) {
+    return !levels.isEmpty() && levels.get(0).startsWith("$");
+  }
+
+  private static List<String> split(final String topic) {
+    final List<String> levels = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i < topic.length(); i++) {
+      if (topic.charAt(i) == LEVEL_SEPARATOR) {
+        levels.add(topic.substring(start, i));
+        start = i + 1;
+      }
+    }
+    levels.add(topic.substring(start));
+    return levels;
+  }
+
+  /**
+   * A node of the trie, which represents a level of the topic filters.
+   */
+  private static final class Node<T> {
+    private final Map<String, Node<T>> children = new ConcurrentHashMap<>();
+    private final Queue<T> values = new ConcurrentLinkedQueue<>();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.core.shared.NettySharedResource;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import org.apache.reef.wake.EventHandler;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class receives length-prefixed binary data stream via Netty.
+ * Each frame is handed to the user-defined deserializer as a slice of the pooled receive buffer,
+ * so the frame is not copied before the deserialization.
+ * The slice is released after the deserializer returns, so the deserializer should not retain it.
+ * @param <T> the type of the deserialized data
+ */
+public final class NettyBinaryDataGenerator<T> implements DataGenerator<T> {
+
+  /**
+   * Started to receive data stream.
+   */
+  private final AtomicBoolean started;
+
+  /**
+   * Map of netty channel and data stream handler.
+   */
+  private final ConcurrentMap<Channel, EventHandler<ByteBuf>> channelMap;
+
+  /**
+   * Netty client bootstrap.
+   */
+  private final Bootstrap clientBootstrap;
+
+  /**
+   * Socket address for data stream server.
+   */
+  private final SocketAddress serverSocketAddress;
+
+  /**
+   * The function that deserializes a frame into an input.
+   */
+  private final MISTFunction<ByteBuf, T> deserializer;
+
+  /**
+   * Netty channel.
+   */
+  private Channel channel;
+
+  /**
+   * Event generator which is the destination of fetching data.
+   */
+  private EventGenerator<T> eventGenerator;
+
+  public NettyBinaryDataGenerator(
+      final String serverAddr,
+      final int port,
+      final MISTFunction<ByteBuf, T> deserializer,
+      final NettySharedResource resource) {
+    this.clientBootstrap = resource.getBinaryClientBootstrap();
+    this.channelMap = resource.getBinaryChannelMap();
+    this.deserializer = deserializer;
+    this.started = new AtomicBoolean(false);
+    this.serverSocketAddress = new InetSocketAddress(serverAddr, port);
+  }
+
+  @Override
+  public void start() {
+    if (started.compareAndSet(false, true)) {
+      if (eventGenerator != null) {
+        // register the data stream handler
+        final ChannelFuture channelFuture = clientBootstrap.connect(serverSocketAddress);
+        channelFuture.awaitUninterruptibly();
+        assert channelFuture.isDone();
+        if (!channelFuture.isSuccess()) {
+          final StringBuilder sb = new StringBuilder("A connection failed at Source - ");
+          sb.append(channelFuture.cause());
+          throw new RuntimeException(sb.toString());
+        }
+        channel = channelFuture.channel();
+        channelMap.putIfAbsent(channel, (frame) ->
+            eventGenerator.emitData(deserializer.apply(frame)));
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (channel != null) {
+      channelMap.remove(channel);
+      channel.close();
+    }
+  }
+
+  @Override
+  public void setEventGenerator(final EventGenerator<T> eventGenerator) {
+    this.eventGenerator = eventGenerator;
+  }
+}
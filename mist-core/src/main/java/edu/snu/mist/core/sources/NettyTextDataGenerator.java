@@ -64,7 +64,7 @@ public final class NettyTextDataGenerator implements DataGenerator<String> {
   /**
    * Event generator which is the destination of fetching data.
    */
-  private EventGenerator eventGenerator;
+  private EventGenerator<String> eventGenerator;
 
   @Inject
   public NettyTextDataGenerator(
@@ -107,7 +107,7 @@ public final class NettyTextDataGenerator implements DataGenerator<String> {
   }
 
   @Override
-  public void setEventGenerator(final EventGenerator eventGenerator) {
+  public void setEventGenerator(final EventGenerator<String> eventGenerator) {
     this.eventGenerator = eventGenerator;
   }
 }
@@ -28,8 +28,9 @@ import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -51,9 +52,9 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
   private final long expectedDelay;
 
   /**
-   * The result of service execution.
+   * The registration of the watermark emission.
    */
-  private ScheduledFuture result;
+  private PeriodicEventTimer.Registration result;
 
   @Inject
   private PeriodicEventGenerator(
@@ -84,7 +85,20 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
                                 @Parameter(PeriodicWatermarkDelay.class) final long expectedDelay,
                                 final TimeUnit timeUnit,
                                 final ScheduledExecutorService scheduler) {
-    super(extractTimestampFunc, checkpointPeriod, timeUnit, scheduler);
+    this(extractTimestampFunc, period, checkpointPeriod, expectedDelay, timeUnit,
+        PeriodicEventTimer.getSharedTimer(scheduler));
+  }
+
+  /**
+   * Creates a periodic event generator that shares the timer with other event generators.
+   */
+  public PeriodicEventGenerator(final MISTFunction<I, Tuple<V, Long>> extractTimestampFunc,
+                                final long period,
+                                final long checkpointPeriod,
+                                final long expectedDelay,
+                                final TimeUnit timeUnit,
+                                final PeriodicEventTimer timer) {
+    super(extractTimestampFunc, checkpointPeriod, timeUnit, timer);
     if (period <= 0L || checkpointPeriod < 0L || expectedDelay < 0L) {
       throw new RuntimeException("The period " + period + " should be larger than 0," +
           " the checkpoint period " + checkpointPeriod + " should be larger than or equal to 0," +
@@ -96,18 +110,18 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
 
   @Override
   protected void startRemain() {
-    result = scheduler.scheduleAtFixedRate(new Runnable() {
+    result = timer.register(new Runnable() {
       public void run() {
         latestWatermarkTimestamp = getCurrentTimestamp() - expectedDelay;
         outputEmitter.emitWatermark(new MistWatermarkEvent(latestWatermarkTimestamp));
       }
-    }, period, period, timeUnit);
+    }, period, timeUnit);
     super.startRemain();
   }
 
   @Override
   public void close() {
-    result.cancel(true);
+    result.cancel();
     super.close();
   }
 
@@ -118,4 +132,22 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
       outputEmitter.emitData(newInputEvent);
     }
   }
+
+  /**
+   * Emits the data events of the inputs as a batch, because the periodic watermarks are not in the inputs.
+   * @param inputs the inputs passed from data source
+   */
+  @Override
+  public void emitDataBatch(final List<I> inputs) {
+    final List<MistDataEvent> dataBatch = new ArrayList<>(inputs.size());
+    for (final I input : inputs) {
+      final MistDataEvent newInputEvent = generateEvent(input);
+      if (newInputEvent != null) {
+        dataBatch.add(newInputEvent);
+      }
+    }
+    if (!dataBatch.isEmpty()) {
+      outputEmitter.emitDataBatch(dataBatch);
+    }
+  }
 }
@@ -0,0 +1,375 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import edu.snu.mist.core.task.ScheduledExecutorServiceWrapper;
+
+import javax.inject.Inject;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class coalesces the periodic tasks of event generators, such as watermark and checkpoint emission.
+ * The tasks that have the same period and the same phase, which is the initial delay modulo the period,
+ * are grouped into a bucket, and each bucket registers only one task to the scheduler.
+ * The ticks of a bucket are aligned to the multiples of the period plus the phase,
+ * so the buckets of the same period and phase tick at the same time even if they are re-created.
+ * When a bucket ticks, it hands the due tasks off to the scheduler as one batch, so the tick itself stays on time.
+ * A task is first run at the first tick after its initial delay, which comes within a period after the delay,
+ * and a task is skipped at a tick if its previous run has not finished yet.
+ * The tasks that wait behind a slow task in a batch are added to the batch of the next tick as well,
+ * and run by the batch that reaches them first, so a slow task does not hold back the other tasks.
+ */
+public final class PeriodicEventTimer {
+
+  private static final Logger LOG = Logger.getLogger(PeriodicEventTimer.class.getName());
+
+  /**
+   * The state of a task that is not in a batch.
+   */
+  private static final int IDLE = 0;
+
+  /**
+   * The state of a task that waits in a batch.
+   */
+  private static final int PENDING = 1;
+
+  /**
+   * The state of a task that is running.
+   */
+  private static final int RUNNING = 2;
+
+  /**
+   * The timers shared by the event generators that are created with a scheduler, keyed by the scheduler.
+   * The timers are weakly referenced, so a timer is removed when no event generator uses it.
+   */
+  private static final Map<ScheduledExecutorService, WeakReference<PeriodicEventTimer>> SHARED_TIMERS =
+      new WeakHashMap<>();
+
+  /**
+   * The scheduler that fires the buckets and runs the tasks.
+   */
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * The buckets of tasks, keyed by the period and the phase.
+   */
+  private final ConcurrentHashMap<BucketKey, Bucket> buckets;
+
+  @Inject
+  private PeriodicEventTimer(final ScheduledExecutorServiceWrapper schedulerWrapper) {
+    this(schedulerWrapper.getScheduler());
+  }
+
+  public PeriodicEventTimer(final ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler;
+    this.buckets = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Gets the timer that is shared by all the callers with the same scheduler.
+   * @param scheduler scheduler
+   * @return the shared timer
+   */
+  public static synchronized PeriodicEventTimer getSharedTimer(final ScheduledExecutorService scheduler) {
+    final WeakReference<PeriodicEventTimer> reference = SHARED_TIMERS.get(scheduler);
+    final PeriodicEventTimer sharedTimer = reference == null ? null : reference.get();
+    if (sharedTimer != null) {
+      return sharedTimer;
+    }
+    final PeriodicEventTimer newTimer = new PeriodicEventTimer(scheduler);
+    SHARED_TIMERS.put(scheduler, new WeakReference<>(newTimer));
+    return newTimer;
+  }
+
+  /**
+   * Registers a task that is run periodically after the first period.
+   * @param task task
+   * @param period period of the task
+   * @param timeUnit time unit of the period
+   * @return the registration that is used for cancelling the task
+   */
+  public Registration register(final Runnable task, final long period, final TimeUnit timeUnit) {
+    return register(task, period, period, timeUnit);
+  }
+
+  /**
+   * Registers a task that is run periodically after the initial delay.
+   * @param task task
+   * @param initialDelay initial delay of the task
+   * @param period period of the task
+   * @param timeUnit time unit of the delay and the period
+   * @return the registration that is used for cancelling the task
+   */
+  public Registration register(final Runnable task,
+                               final long initialDelay,
+                               final long period,
+                               final TimeUnit timeUnit) {
+    if (period <= 0L || initialDelay < 0L) {
+      throw new IllegalArgumentException("The period " + period + " should be larger than 0 and " +
+          "the initial delay " + initialDelay + " should be larger than or equal to 0");
+    }
+    final long periodNanos = timeUnit.toNanos(period);
+    final long delayNanos = timeUnit.toNanos(initialDelay);
+    final BucketKey key = new BucketKey(periodNanos, delayNanos % periodNanos);
+    final Registration registration = new Registration(task, key, System.nanoTime() + delayNanos);
+    while (true) {
+      final Bucket bucket = buckets.computeIfAbsent(key, Bucket::new);
+      if (bucket.add(registration)) {
+        return registration;
+      }
+      // The bucket was closed because it became empty, so retry with a new bucket.
+    }
+  }
+
+  /**
+   * Gets the number of buckets that are scheduled.
+   * @return the number of buckets
+   */
+  public int getNumberOfBuckets() {
+    return buckets.size();
+  }
+
+  /**
+   * Unregisters the task.
+   * The bucket is closed and cancelled when it has no task.
+   */
+  private void unregister(final Registration registration) {
+    final Bucket bucket = buckets.get(registration.key);
+    if (bucket != null && bucket.remove(registration)) {
+      buckets.remove(registration.key, bucket);
+    }
+  }
+
+  /**
+   * Gets the latest tick time of the bucket that is not after the time.
+   */
+  private static long floorTick(final long time, final BucketKey key) {
+    return time - Math.floorMod(time - key.phaseNanos, key.periodNanos);
+  }
+
+  /**
+   * The period and the phase of a bucket in nanoseconds.
+   */
+  private static final class BucketKey {
+    private final long periodNanos;
+    private final long phaseNanos;
+
+    BucketKey(final long periodNanos, final long phaseNanos) {
+      this.periodNanos = periodNanos;
+      this.phaseNanos = phaseNanos;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final BucketKey that = (BucketKey) o;
+      return periodNanos == that.periodNanos && phaseNanos == that.phaseNanos;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(periodNanos) + Long.hashCode(phaseNanos);
+    }
+  }
+
+  /**
+   * The tasks that have the same period and phase.
+   */
+  private final class Bucket implements Runnable {
+    /**
+     * The period and the phase.
+     */
+    private final BucketKey key;
+
+    /**
+     * The registered tasks.
+     */
+    private final Map<Registration, Boolean> registrations;
+
+    /**
+     * The result of the scheduled tick.
+     */
+    private ScheduledFuture<?> future;
+
+    /**
+     * True if the bucket is cancelled.
+     */
+    private boolean closed;
+
+    Bucket(final BucketKey key) {
+      this.key = key;
+      this.registrations = new ConcurrentHashMap<>();
+      this.closed = false;
+    }
+
+    /**
+     * Adds the registration and schedules the tick if it is the first one.
+     * @return false if the bucket is already closed
+     */
+    synchronized boolean add(final Registration registration) {
+      if (closed) {
+        return false;
+      }
+      registrations.put(registration, true);
+      if (future == null) {
+        final long now = System.nanoTime();
+        final long initialDelay = Math.floorMod(key.phaseNanos - now, key.periodNanos);
+        future = scheduler.scheduleAtFixedRate(this, initialDelay, key.periodNanos, TimeUnit.NANOSECONDS);
+      }
+      return true;
+    }
+
+    /**
+     * Removes the registration and cancels the tick if the bucket becomes empty.
+     * @return true if the bucket is closed
+     */
+    synchronized boolean remove(final Registration registration) {
+      registrations.remove(registration);
+      if (registrations.isEmpty() && !closed) {
+        closed = true;
+        if (future != null) {
+          future.cancel(false);
+        }
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void run() {
+      final long tick = floorTick(System.nanoTime(), key);
+      final List<Registration> batch = new ArrayList<>();
+      for (final Registration registration : registrations.keySet()) {
+        if (registration.prepare(tick)) {
+          batch.add(registration);
+        }
+      }
+      if (batch.isEmpty()) {
+        return;
+      }
+      try {
+        scheduler.execute(() -> runBatch(batch));
+      } catch (final RuntimeException e) {
+        for (final Registration registration : batch) {
+          registration.state.compareAndSet(PENDING, IDLE);
+        }
+        LOG.log(Level.WARNING, "Periodic tasks of period " + key.periodNanos + " ns cannot be submitted", e);
+      }
+    }
+
+    /**
+     * Runs the tasks of the batch one by one.
+     */
+    private void runBatch(final List<Registration> batch) {
+      for (final Registration registration : batch) {
+        registration.runTask();
+      }
+    }
+  }
+
+  /**
+   * A task registered to the timer.
+   */
+  public final class Registration {
+    /**
+     * The task.
+     */
+    private final Runnable task;
+
+    /**
+     * The key of the bucket.
+     */
+    private final BucketKey key;
+
+    /**
+     * The time in nanoseconds when the initial delay of the task elapses.
+     */
+    private final long startNanos;
+
+    /**
+     * The state of the task, which is IDLE, PENDING or RUNNING.
+     */
+    private final AtomicInteger state;
+
+    /**
+     * True if the task is cancelled.
+     */
+    private volatile boolean cancelled;
+
+    private Registration(final Runnable task, final BucketKey key, final long startNanos) {
+      this.task = task;
+      this.key = key;
+      this.startNanos = startNanos;
+      this.state = new AtomicInteger(IDLE);
+      this.cancelled = false;
+    }
+
+    /**
+     * Checks whether the task should be added to the batch of the tick.
+     * It is true if the initial delay has elapsed and the task is not running.
+     * A task that still waits in the batch of a previous tick is added again.
+     */
+    private boolean prepare(final long tick) {
+      if (cancelled || tick - startNanos < 0) {
+        return false;
+      }
+      return state.compareAndSet(IDLE, PENDING) || state.get() == PENDING;
+    }
+
+    /**
+     * Runs the task unless it is cancelled or another batch has taken it.
+     */
+    private void runTask() {
+      if (!state.compareAndSet(PENDING, RUNNING)) {
+        return;
+      }
+      try {
+        if (!cancelled) {
+          task.run();
+        }
+      } catch (final RuntimeException e) {
+        // A failure of a task should not stop the other tasks in the batch.
+        LOG.log(Level.WARNING, "Periodic task " + task + " failed", e);
+      } finally {
+        state.set(IDLE);
+      }
+    }
+
+    /**
+     * Cancels the task.
+     */
+    public void cancel() {
+      cancelled = true;
+      unregister(this);
+    }
+  }
+}
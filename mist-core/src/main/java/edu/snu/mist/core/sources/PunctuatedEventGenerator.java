@@ -97,7 +97,21 @@ public final class PunctuatedEventGenerator<I, V> extends EventGeneratorImpl<I,
       @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
       final TimeUnit timeUnit,
       final ScheduledExecutorService scheduler) {
-    super(extractTimestampFunc, checkpointPeriod, timeUnit, scheduler);
+    this(extractTimestampFunc, isWatermark, parseTimestamp, checkpointPeriod, timeUnit,
+        PeriodicEventTimer.getSharedTimer(scheduler));
+  }
+
+  /**
+   * Creates a punctuated event generator that shares the timer with other event generators.
+   */
+  public PunctuatedEventGenerator(
+      final MISTFunction<I, Tuple<V, Long>> extractTimestampFunc,
+      final MISTPredicate<I> isWatermark,
+      final WatermarkTimestampFunction<I> parseTimestamp,
+      final long checkpointPeriod,
+      final TimeUnit timeUnit,
+      final PeriodicEventTimer timer) {
+    super(extractTimestampFunc, checkpointPeriod, timeUnit, timer);
     this.isWatermark = isWatermark;
     this.parseTimestamp = parseTimestamp;
   }
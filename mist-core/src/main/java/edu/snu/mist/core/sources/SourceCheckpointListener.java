@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+/**
+ * This interface is implemented by the data generators that acknowledge the inputs to the external system
+ * only after the events of the inputs are covered by a checkpoint, such as the kafka data generator.
+ */
+public interface SourceCheckpointListener {
+
+  /**
+   * Called when the event generator emits a checkpoint event, before the checkpoint event is emitted.
+   * It is called while holding the lock of the event generator,
+   * so the inputs emitted while holding the same lock are ordered with the checkpoint event.
+   * @param latestDataTimestamp the timestamp of the latest data event emitted before the checkpoint event
+   */
+  void onCheckpointEmitted(long latestDataTimestamp);
+
+  /**
+   * Called when a checkpoint of the group that contains the source has been written.
+   * The states of the events whose timestamps are not larger than the checkpoint timestamp are recovered from it.
+   * @param checkpointTimestamp the timestamp of the checkpoint
+   */
+  void onCheckpointCompleted(long checkpointTimestamp);
+}
@@ -49,6 +49,12 @@ public final class ConfigVertex {
    */
   private final Map<String, String> configuration;
 
+  /**
+   * The fingerprint of the configuration.
+   * It is computed once, as the configuration is not changed after the vertex is created.
+   */
+  private final int configurationFingerprint;
+
   public ConfigVertex(final String id,
                       final ExecutionVertex.Type type,
                       final Map<String, String> configuration,
@@ -57,6 +63,7 @@ public final class ConfigVertex {
     this.id = id;
     this.type = type;
     this.configuration = configuration;
+    this.configurationFingerprint = configuration == null ? 0 : configuration.hashCode();
     this.state = new HashMap<>();
     if (state != null) {
       this.state.putAll(state);
@@ -82,6 +89,14 @@ public final class ConfigVertex {
     return configuration;
   }
 
+  /**
+   * Gets the fingerprint of the configuration.
+   * The vertices that have the same configuration have the same fingerprint.
+   */
+  public int getConfigurationFingerprint() {
+    return configurationFingerprint;
+  }
+
   public Map<String, Object> getState() {
     return state;
   }
@@ -124,7 +124,7 @@ public final class DefaultConfigDagGeneratorImpl implements ConfigDagGenerator {
       final ConfigVertex deserializedSrcVertex = deserializedVertices.get(srcIndex);
       final ConfigVertex deserializedDstVertex = deserializedVertices.get(dstIndex);
       configDag.addEdge(deserializedSrcVertex, deserializedDstVertex,
-          new MISTEdge(edge.getDirection(), edge.getBranchIndex()));
+          new MISTEdge(edge.getDirection(), edge.getBranchIndex(), edge.getInputIndex()));
     }
 
     return configDag;
@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.task.metrics.VertexMetrics;
 
 import java.util.Map;
 
@@ -29,11 +30,24 @@ public final class DefaultPhysicalOperatorImpl extends BasePhysicalVertex implem
    */
   private final Operator operator;
 
+  /**
+   * The metrics of the operator.
+   */
+  private final VertexMetrics metrics;
+
   public DefaultPhysicalOperatorImpl(final String id,
                                      final Map<String, String> configuration,
                                      final Operator operator) {
+    this(id, configuration, operator, new VertexMetrics());
+  }
+
+  public DefaultPhysicalOperatorImpl(final String id,
+                                     final Map<String, String> configuration,
+                                     final Operator operator,
+                                     final VertexMetrics metrics) {
     super(id, configuration);
     this.operator = operator;
+    this.metrics = metrics;
   }
 
   @Override
@@ -41,6 +55,11 @@ public final class DefaultPhysicalOperatorImpl extends BasePhysicalVertex implem
     return operator;
   }
 
+  @Override
+  public VertexMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
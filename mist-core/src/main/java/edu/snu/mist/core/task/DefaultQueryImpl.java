@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.metrics.QueryMetrics;
 
 import javax.inject.Inject;
 import java.util.Iterator;
@@ -73,6 +74,11 @@ public final class DefaultQueryImpl implements Query {
    */
   private final AtomicReference<QueryStatus> queryStatus = new AtomicReference<>(QueryStatus.READY);
 
+  /**
+   * The metrics of the query.
+   */
+  private final QueryMetrics metrics;
+
   @Inject
   public DefaultQueryImpl(final String identifier) {
     this.id = identifier;
@@ -80,6 +86,7 @@ public final class DefaultQueryImpl implements Query {
     this.queryLoad = 0;
     this.numActiveSources = new AtomicInteger();
     this.group = new AtomicReference<>();
+    this.metrics = new QueryMetrics(identifier);
   }
 
   @Override
@@ -116,6 +123,7 @@ public final class DefaultQueryImpl implements Query {
    */
   @Override
   public int processAllEvent() {
+    final long startTime = System.nanoTime();
     int numProcessedEvent = 0;
     SourceOutputEmitter sourceOutputEmitter = activeSourceQueue.poll();
     while (sourceOutputEmitter != null) {
@@ -123,6 +131,7 @@ public final class DefaultQueryImpl implements Query {
       numProcessedEvent += sourceOutputEmitter.processAllEvent();
       sourceOutputEmitter = activeSourceQueue.poll();
     }
+    metrics.recordProcessing(numProcessedEvent, System.nanoTime() - startTime);
     return numProcessedEvent;
   }
 
@@ -162,6 +171,11 @@ public final class DefaultQueryImpl implements Query {
     return totalProcessingEvent;
   }
 
+  @Override
+  public QueryMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public String getId() {
     return id;
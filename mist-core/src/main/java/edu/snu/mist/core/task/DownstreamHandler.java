@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.operators.MultiStreamOperator;
+import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.task.metrics.VertexMetrics;
+import edu.snu.mist.formats.avro.Direction;
+
+import java.util.List;
+
+/**
+ * A handler that forwards the events of an output emitter to a downstream vertex.
+ * The type of the vertex and the direction of the edge are resolved when the handler is created,
+ * so the handler directly calls the operator or the sink.
+ * The handler also records the metrics of the downstream vertex.
+ */
+public abstract class DownstreamHandler {
+
+  /**
+   * The index of the edge. It is used for emitting data to a specific branch.
+   */
+  private final int index;
+
+  DownstreamHandler(final int index) {
+    this.index = index;
+  }
+
+  /**
+   * Create a handler that forwards the events to the vertex.
+   * @param vertex downstream vertex
+   * @param edge edge to the downstream vertex
+   * @return downstream handler
+   */
+  public static DownstreamHandler of(final ExecutionVertex vertex, final MISTEdge edge) {
+    switch (vertex.getType()) {
+      case OPERATOR: {
+        final PhysicalOperator physicalOperator = (PhysicalOperator) vertex;
+        final Operator operator = physicalOperator.getOperator();
+        final VertexMetrics metrics = physicalOperator.getMetrics();
+        if (operator instanceof MultiStreamOperator && edge.getInputIndex() > 1) {
+          return new MultiStreamOperatorHandler(edge.getIndex(), metrics, (MultiStreamOperator) operator,
+              edge.getInputIndex());
+        } else if (edge.getDirection() == Direction.LEFT) {
+          return new LeftOperatorHandler(edge.getIndex(), metrics, operator);
+        } else {
+          return new RightOperatorHandler(edge.getIndex(), metrics, operator);
+        }
+      }
+      case SINK: {
+        final PhysicalSink<?> physicalSink = (PhysicalSink<?>) vertex;
+        return new SinkHandler<>(edge.getIndex(), physicalSink.getMetrics(), physicalSink.getSink());
+      }
+      default:
+        throw new RuntimeException("Unknown type: " + vertex.getType());
+    }
+  }
+
+  /**
+   * @return the index of the edge
+   */
+  public final int getIndex() {
+    return index;
+  }
+
+  /**
+   * A sink only reads the value of a data event, so the event does not need to be copied for the sink.
+   * @return true if the downstream vertex is a sink
+   */
+  public abstract boolean isSink();
+
+  public abstract void processData(MistDataEvent data);
+
+  /**
+   * Process a batch of data. The list can be reused after this method returns.
+   * @param dataList list of data
+   */
+  public abstract void processDataBatch(List<MistDataEvent> dataList);
+
+  public abstract void processWatermark(MistWatermarkEvent watermark);
+
+  public abstract void processCheckpoint(MistCheckpointEvent checkpoint);
+
+  /**
+   * A handler for an operator. It counts the data and records the service time of the sampled data.
+   * The service time excludes the time spent by the downstream operators that are called by the operator.
+   */
+  private abstract static class OperatorHandler extends DownstreamHandler {
+    private final VertexMetrics metrics;
+    private final Operator operator;
+
+    OperatorHandler(final int index, final VertexMetrics metrics, final Operator operator) {
+      super(index);
+      this.metrics = metrics;
+      this.operator = operator;
+    }
+
+    /**
+     * Starts measuring the time spent by the downstream operators.
+     * @return the output emitter that measures the time, or null if the time cannot be measured
+     */
+    private OperatorOutputEmitter startDownstreamTiming() {
+      final OutputEmitter outputEmitter = operator.getOutputEmitter();
+      if (outputEmitter instanceof OperatorOutputEmitter) {
+        final OperatorOutputEmitter operatorOutputEmitter = (OperatorOutputEmitter) outputEmitter;
+        operatorOutputEmitter.startTiming();
+        return operatorOutputEmitter;
+      }
+      return null;
+    }
+
+    /**
+     * Gets the service time of the operator.
+     * @param elapsedTime the time spent by the operator and the downstream operators
+     * @param outputEmitter the output emitter that measured the time spent by the downstream operators
+     */
+    private static long getServiceTime(final long elapsedTime, final OperatorOutputEmitter outputEmitter) {
+      return outputEmitter == null ? elapsedTime : elapsedTime - outputEmitter.stopTiming();
+    }
+
+    @Override
+    public final boolean isSink() {
+      return false;
+    }
+
+    abstract void forwardData(MistDataEvent data);
+
+    abstract void forwardDataBatch(List<MistDataEvent> dataList);
+
+    @Override
+    public final void processData(final MistDataEvent data) {
+      if (metrics.countAndSample(1)) {
+        final OperatorOutputEmitter outputEmitter = startDownstreamTiming();
+        final long startTime = System.nanoTime();
+        forwardData(data);
+        metrics.record(getServiceTime(System.nanoTime() - startTime, outputEmitter));
+      } else {
+        forwardData(data);
+      }
+    }
+
+    @Override
+    public final void processDataBatch(final List<MistDataEvent> dataList) {
+      final int size = dataList.size();
+      if (metrics.countAndSample(size)) {
+        final OperatorOutputEmitter outputEmitter = startDownstreamTiming();
+        final long startTime = System.nanoTime();
+        forwardDataBatch(dataList);
+        // Records the service time per data
+        metrics.record(getServiceTime(System.nanoTime() - startTime, outputEmitter) / size);
+      } else {
+        forwardDataBatch(dataList);
+      }
+    }
+  }
+
+  /**
+   * A handler for the left upstream of an operator.
+   */
+  private static final class LeftOperatorHandler extends OperatorHandler {
+    private final Operator operator;
+
+    LeftOperatorHandler(final int index, final VertexMetrics metrics, final Operator operator) {
+      super(index, metrics, operator);
+      this.operator = operator;
+    }
+
+    @Override
+    void forwardData(final MistDataEvent data) {
+      operator.processLeftData(data);
+    }
+
+    @Override
+    void forwardDataBatch(final List<MistDataEvent> dataList) {
+      operator.processLeftDataBatch(dataList);
+    }
+
+    @Override
+    public void processWatermark(final MistWatermarkEvent watermark) {
+      operator.processLeftWatermark(watermark);
+    }
+
+    @Override
+    public void processCheckpoint(final MistCheckpointEvent checkpoint) {
+      operator.processLeftCheckpoint(checkpoint);
+    }
+  }
+
+  /**
+   * A handler for the right upstream of an operator.
+   */
+  private static final class RightOperatorHandler extends OperatorHandler {
+    private final Operator operator;
+
+    RightOperatorHandler(final int index, final VertexMetrics metrics, final Operator operator) {
+      super(index, metrics, operator);
+      this.operator = operator;
+    }
+
+    @Override
+    void forwardData(final MistDataEvent data) {
+      operator.processRightData(data);
+    }
+
+    @Override
+    void forwardDataBatch(final List<MistDataEvent> dataList) {
+      for (final MistDataEvent data : dataList) {
+        operator.processRightData(data);
+      }
+    }
+
+    @Override
+    public void processWatermark(final MistWatermarkEvent watermark) {
+      operator.processRightWatermark(watermark);
+    }
+
+    @Override
+    public void processCheckpoint(final MistCheckpointEvent checkpoint) {
+      operator.processRightCheckpoint(checkpoint);
+    }
+  }
+
+  /**
+   * A handler for an upstream of an operator that has more than two upstreams.
+   * The left and right upstreams of the operator are handled by the left and right handlers.
+   */
+  private static final class MultiStreamOperatorHandler extends OperatorHandler {
+    private final MultiStreamOperator operator;
+    private final int inputIndex;
+
+    MultiStreamOperatorHandler(final int index,
+                               final VertexMetrics metrics,
+                               final MultiStreamOperator operator,
+                               final int inputIndex) {
+      super(index, metrics, operator);
+      this.operator = operator;
+      this.inputIndex = inputIndex;
+    }
+
+    @Override
+    void forwardData(final MistDataEvent data) {
+      operator.processData(inputIndex, data);
+    }
+
+    @Override
+    void forwardDataBatch(final List<MistDataEvent> dataList) {
+      for (final MistDataEvent data : dataList) {
+        operator.processData(inputIndex, data);
+      }
+    }
+
+    @Override
+    public void processWatermark(final MistWatermarkEvent watermark) {
+      operator.processWatermark(inputIndex, watermark);
+    }
+
+    @Override
+    public void processCheckpoint(final MistCheckpointEvent checkpoint) {
+      operator.processCheckpoint(inputIndex, checkpoint);
+    }
+  }
+
+  /**
+   * A handler for a sink. Sinks do not handle watermarks and checkpoints.
+   * It records the end-to-end latency of the sampled data, which is the time since the source generated the data.
+   * The data that are not generated by a source, such as the results of windows, are not recorded.
+   * @param <I> the type of the sink input
+   */
+  private static final class SinkHandler<I> extends DownstreamHandler {
+    private final VertexMetrics metrics;
+    private final Sink<I> sink;
+
+    SinkHandler(final int index, final VertexMetrics metrics, final Sink<I> sink) {
+      super(index);
+      this.metrics = metrics;
+      this.sink = sink;
+    }
+
+    @Override
+    public boolean isSink() {
+      return true;
+    }
+
+    private void recordLatency(final MistDataEvent data) {
+      final long ingestionTime = data.getIngestionTime();
+      if (ingestionTime != MistDataEvent.NO_INGESTION_TIME) {
+        metrics.record(System.nanoTime() - ingestionTime);
+      }
+    }
+
+    /**
+     * Gets the value of the data as the input of the sink.
+     * The value is produced by the upstream vertex of the sink, whose output type is the input type of the sink
+     * in the logical plan, so the cast is safe.
+     */
+    @SuppressWarnings("unchecked")
+    private I getInput(final MistDataEvent data) {
+      return (I) data.getValue();
+    }
+
+    @Override
+    public void processData(final MistDataEvent data) {
+      sink.handle(getInput(data));
+      if (metrics.countAndSample(1)) {
+        recordLatency(data);
+      }
+    }
+
+    @Override
+    public void processDataBatch(final List<MistDataEvent> dataList) {
+      for (final MistDataEvent data : dataList) {
+        sink.handle(getInput(data));
+      }
+      if (!dataList.isEmpty() && metrics.countAndSample(dataList.size())) {
+        recordLatency(dataList.get(dataList.size() - 1));
+      }
+    }
+
+    @Override
+    public void processWatermark(final MistWatermarkEvent watermark) {
+      // do nothing for sink because sink does not handle watermarks
+    }
+
+    @Override
+    public void processCheckpoint(final MistCheckpointEvent checkpoint) {
+      // do nothing for sink because sink does not handle checkpoints
+    }
+  }
+}
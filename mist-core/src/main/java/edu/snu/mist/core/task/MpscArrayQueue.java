@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded multi-producer single-consumer queue backed by a ring buffer.
+ * Multiple source threads can offer events concurrently,
+ * while only one event processor drains the events at a time.
+ * The capacity is rounded up to the power of two in order to use a bit mask for the slot index.
+ * @param <E> element type
+ */
+public final class MpscArrayQueue<E> {
+
+  /**
+   * The ring buffer.
+   */
+  private final AtomicReferenceArray<E> buffer;
+
+  /**
+   * Mask for calculating the slot index.
+   */
+  private final int mask;
+
+  /**
+   * The capacity of the ring buffer.
+   */
+  private final int capacity;
+
+  /**
+   * The index of the next slot that a producer claims.
+   */
+  private final AtomicLong producerIndex;
+
+  /**
+   * The index of the next slot that the consumer reads.
+   * It is only updated by the consumer.
+   */
+  private volatile long consumerIndex;
+
+  public MpscArrayQueue(final int requestedCapacity) {
+    if (requestedCapacity <= 0) {
+      throw new IllegalArgumentException("The capacity should be positive: " + requestedCapacity);
+    }
+    this.capacity = requestedCapacity > (1 << 30) ? 1 << 30 : nextPowerOfTwo(requestedCapacity);
+    this.mask = capacity - 1;
+    this.buffer = new AtomicReferenceArray<>(capacity);
+    this.producerIndex = new AtomicLong(0);
+    this.consumerIndex = 0;
+  }
+
+  private static int nextPowerOfTwo(final int value) {
+    return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  /**
+   * Inserts the element if the queue is not full.
+   * This method can be called by multiple producers.
+   * @param element element (not null)
+   * @return true if the element is inserted, false if the queue is full
+   */
+  public boolean offer(final E element) {
+    if (element == null) {
+      throw new NullPointerException("Null element cannot be inserted");
+    }
+
+    long index;
+    do {
+      index = producerIndex.get();
+      if (index - consumerIndex >= capacity) {
+        return false;
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+
+    // The consumer spins until the claimed slot is filled
+    buffer.lazySet((int) index & mask, element);
+    return true;
+  }
+
+  /**
+   * Moves at most limit elements to the output list in the insertion order.
+   * This method should be called by a single consumer.
+   * @param output output list
+   * @param limit maximum number of elements to drain
+   * @return the number of drained elements
+   */
+  public int drain(final List<E> output, final int limit) {
+    final long start = consumerIndex;
+    final long available = producerIndex.get() - start;
+    final int num = (int) Math.min(available, limit);
+    for (int i = 0; i < num; i++) {
+      final int slot = (int) (start + i) & mask;
+      E element = buffer.get(slot);
+      while (element == null) {
+        // The producer claimed the slot but has not filled it yet
+        Thread.yield();
+        element = buffer.get(slot);
+      }
+      buffer.lazySet(slot, null);
+      output.add(element);
+    }
+    consumerIndex = start + num;
+    return num;
+  }
+
+  /**
+   * Copies the elements in the queue to the output list in the insertion order without removing them.
+   * This method should be called by the consumer, or while the consumer does not drain the queue.
+   * @param output output list
+   * @return the number of copied elements
+   */
+  public int copyTo(final List<E> output) {
+    final long start = consumerIndex;
+    final int num = (int) (producerIndex.get() - start);
+    for (int i = 0; i < num; i++) {
+      final int slot = (int) (start + i) & mask;
+      E element = buffer.get(slot);
+      while (element == null) {
+        // The producer claimed the slot but has not filled it yet
+        Thread.yield();
+        element = buffer.get(slot);
+      }
+      output.add(element);
+    }
+    return num;
+  }
+
+  /**
+   * @return the number of elements in the queue
+   */
+  public int size() {
+    final long size = producerIndex.get() - consumerIndex;
+    return size < 0 ? 0 : (int) size;
+  }
+
+  /**
+   * @return true if the queue does not have any element
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return the capacity of the queue
+   */
+  public int capacity() {
+    return capacity;
+  }
+}
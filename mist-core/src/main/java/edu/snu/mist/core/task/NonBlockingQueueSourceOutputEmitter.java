@@ -20,158 +20,434 @@ import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.graph.MISTEdge;
-import edu.snu.mist.formats.avro.Direction;
+import edu.snu.mist.core.task.metrics.VertexMetrics;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * This emitter enqueues events to the source event queue.
+ * The queue is a bounded MPSC ring buffer, and the event processor drains the events in batches.
+ * Consecutive data events in a batch are forwarded to the next operators with a single batch call.
+ * When the queue is full, the source waits for space with a bounded back-off,
+ * and the back-pressure policy decides what happens to the data events that cannot be queued within the timeout.
+ * It records the queueing delay between the scheduling of this emitter and the processing of the queued events.
  *  @param <I>
  */
-public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutputEmitter {
+public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutputEmitter, RoutingOutputEmitter {
+  private static final Logger LOG = Logger.getLogger(NonBlockingQueueSourceOutputEmitter.class.getName());
+
+  /**
+   * The policy for the data events that cannot be queued within the back-pressure timeout.
+   */
+  public enum BackpressurePolicy {
+    /**
+     * The source keeps waiting until the queue has space.
+     */
+    BLOCK,
+    /**
+     * The data events are dropped.
+     */
+    DROP;
+
+    /**
+     * @param option the option string (block or drop)
+     * @return the back-pressure policy
+     */
+    public static BackpressurePolicy of(final String option) {
+      switch (option) {
+        case "block":
+          return BLOCK;
+        case "drop":
+          return DROP;
+        default:
+          throw new IllegalArgumentException("Invalid source back-pressure policy: " + option);
+      }
+    }
+  }
+
+  /**
+   * The default capacity of the event queue.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+  /**
+   * The default maximum number of events that are drained at once.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 256;
+
+  /**
+   * The default back-pressure timeout in milliseconds.
+   */
+  public static final long DEFAULT_BACKPRESSURE_TIMEOUT = 100;
+
+  /**
+   * The minimum and maximum time for which the source waits for space in the full queue at once.
+   */
+  private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
 
   /**
    * A queue for events.
    */
-  private final Queue<MistEvent> queue;
+  private final MpscArrayQueue<MistEvent> queue;
 
   /**
-   * Next operators.
+   * The routing table of next operators.
    */
-  private final Map<ExecutionVertex, MISTEdge> nextOperators;
+  private final OutputRoutingTable routingTable;
 
   /**
-   * Number of events.
+   * True if this emitter is inserted to the active source queue of the query and waits for being processed.
    */
-  private final AtomicInteger numEvents;
+  private final AtomicBoolean scheduled;
 
   /**
    * Query that contains this source.
    */
   private final Query query;
 
+  /**
+   * The maximum number of events that are drained at once.
+   */
+  private final int batchSize;
+
+  /**
+   * A reusable buffer for the drained events.
+   * It is only accessed by the event processor that processes this source.
+   */
+  private final List<MistEvent> drainedEvents;
+
+  /**
+   * A reusable buffer for the consecutive data events.
+   */
+  private final List<MistDataEvent> dataBatch;
+
+  /**
+   * The metrics of the source.
+   */
+  private final VertexMetrics metrics;
+
+  /**
+   * The time when this emitter is inserted to the active source queue of the query.
+   */
+  private volatile long scheduledTime;
+
+  /**
+   * True if the emitted events are held instead of being queued.
+   */
+  private volatile boolean holding;
+
+  /**
+   * The number of the events that are being emitted.
+   */
+  private final AtomicInteger emittingEvents;
+
+  /**
+   * The events that are emitted while holding.
+   */
+  private final List<MistEvent> heldEvents;
+
+  /**
+   * The back-pressure policy.
+   */
+  private final BackpressurePolicy backpressurePolicy;
+
+  /**
+   * The time for which the source waits for space before the back-pressure policy is applied.
+   */
+  private final long backpressureTimeoutNanos;
+
+  /**
+   * The number of the data events dropped by the back-pressure policy.
+   */
+  private final AtomicLong numDroppedEvents;
 
   public NonBlockingQueueSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
                                              final Query query) {
-    this.queue = new ConcurrentLinkedQueue<>();
-    this.nextOperators = nextOperators;
+    this(nextOperators, query, false);
+  }
+
+  public NonBlockingQueueSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                             final Query query,
+                                             final boolean immutableEvents) {
+    this(nextOperators, query, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, immutableEvents);
+  }
+
+  public NonBlockingQueueSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                             final Query query,
+                                             final int queueCapacity,
+                                             final int batchSize) {
+    this(nextOperators, query, queueCapacity, batchSize, false);
+  }
+
+  public NonBlockingQueueSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                             final Query query,
+                                             final int queueCapacity,
+                                             final int batchSize,
+                                             final boolean immutableEvents) {
+    this(nextOperators, query, queueCapacity, batchSize, immutableEvents,
+        BackpressurePolicy.BLOCK, DEFAULT_BACKPRESSURE_TIMEOUT);
+  }
+
+  /**
+   * @param nextOperators the next operators of the source
+   * @param query the query that contains the source
+   * @param queueCapacity the capacity of the event queue
+   * @param batchSize the maximum number of events that are drained at once
+   * @param immutableEvents true if the events are shared by the downstream operators without copying
+   * @param backpressurePolicy the policy for the data events that cannot be queued within the timeout
+   * @param backpressureTimeout the back-pressure timeout in milliseconds
+   */
+  public NonBlockingQueueSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                             final Query query,
+                                             final int queueCapacity,
+                                             final int batchSize,
+                                             final boolean immutableEvents,
+                                             final BackpressurePolicy backpressurePolicy,
+                                             final long backpressureTimeout) {
+    this.queue = new MpscArrayQueue<>(queueCapacity);
+    this.routingTable = new OutputRoutingTable(nextOperators, immutableEvents);
     this.query = query;
-    this.numEvents = new AtomicInteger();
+    this.scheduled = new AtomicBoolean(false);
+    this.batchSize = batchSize;
+    this.drainedEvents = new ArrayList<>(batchSize);
+    this.dataBatch = new ArrayList<>(batchSize);
+    this.metrics = new VertexMetrics();
+    this.holding = false;
+    this.emittingEvents = new AtomicInteger(0);
+    this.heldEvents = new ArrayList<>();
+    this.backpressurePolicy = backpressurePolicy;
+    this.backpressureTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(backpressureTimeout);
+    this.numDroppedEvents = new AtomicLong(0);
+  }
+
+  @Override
+  public void updateRoutes(final Map<ExecutionVertex, MISTEdge> nextOperators) {
+    routingTable.update(nextOperators);
   }
 
   @Override
   public int processAllEvent() {
+    // The oldest queued event has waited at most since this emitter was scheduled
+    if (scheduled.get()) {
+      metrics.record(System.nanoTime() - scheduledTime);
+    }
     int numProcessedEvent = 0;
-    MistEvent event = queue.poll();
-    while (event != null) {
-      numEvents.decrementAndGet();
+    while (true) {
+      drainedEvents.clear();
+      final int n = queue.drain(drainedEvents, batchSize);
+      if (n == 0) {
+        // Events that are enqueued after the drain should be processed by the next schedule
+        scheduled.set(false);
+        if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+          schedule();
+        }
+        break;
+      }
 
-      for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
-        process(event, entry.getValue().getDirection(), (PhysicalOperator)entry.getKey());
+      for (final MistEvent event : drainedEvents) {
+        if (event.isData()) {
+          dataBatch.add((MistDataEvent) event);
+        } else {
+          // Watermarks and checkpoints should not overtake the preceding data
+          flushDataBatch();
+          if (event.isCheckpoint()) {
+            routingTable.routeCheckpoint((MistCheckpointEvent) event);
+          } else {
+            routingTable.routeWatermark((MistWatermarkEvent) event);
+          }
+        }
       }
-      numProcessedEvent += 1;
-      event = queue.poll();
+      flushDataBatch();
+      numProcessedEvent += n;
     }
+    drainedEvents.clear();
+    metrics.count(numProcessedEvent);
     return numProcessedEvent;
   }
 
-  private void process(final MistEvent event,
-                       final Direction direction,
-                       final PhysicalOperator operator) {
-    try {
-      if (event.isData()) {
-        if (direction == Direction.LEFT) {
-          operator.getOperator().processLeftData((MistDataEvent) event);
-        } else {
-          operator.getOperator().processRightData((MistDataEvent) event);
-        }
-      } else if (event.isCheckpoint()) {
-        if (direction == Direction.LEFT) {
-          operator.getOperator().processLeftCheckpoint((MistCheckpointEvent) event);
-        } else {
-          operator.getOperator().processRightCheckpoint((MistCheckpointEvent) event);
-        }
-      } else  {
-        if (direction == Direction.LEFT) {
-          operator.getOperator().processLeftWatermark((MistWatermarkEvent) event);
-        } else {
-          operator.getOperator().processRightWatermark((MistWatermarkEvent) event);
-        }
-      }
-    } catch (final NullPointerException e) {
-      throw new RuntimeException(e);
+  /**
+   * Insert this emitter to the query.
+   */
+  private void schedule() {
+    scheduledTime = System.nanoTime();
+    query.insert(this);
+  }
+
+  /**
+   * @return the metrics of the source
+   */
+  public VertexMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * @return the number of the data events dropped by the back-pressure policy
+   */
+  public long getNumDroppedEvents() {
+    return numDroppedEvents.get();
+  }
+
+  /**
+   * Forward the pending data events to the next operators.
+   */
+  private void flushDataBatch() {
+    if (dataBatch.isEmpty()) {
+      return;
     }
+
+    routingTable.routeDataBatch(dataBatch);
+    dataBatch.clear();
   }
 
   @Override
   public int numberOfEvents() {
-    return numEvents.get();
+    return queue.size();
   }
 
   @Override
-  public Query getQuery() {
-    return query;
+  public List<MistEvent> getQueuedEvents() {
+    final List<MistEvent> queuedEvents = new ArrayList<>(queue.size());
+    queue.copyTo(queuedEvents);
+    return queuedEvents;
   }
 
+  @Override
+  public void holdEvents() {
+    holding = true;
+    // Wait for the events that are being queued without seeing the flag
+    while (emittingEvents.get() != 0) {
+      Thread.yield();
+    }
+  }
 
   @Override
-  public void emitData(final MistDataEvent data) {
-    try {
-      //System.out.println("Event is added at sourceOutputEmitter: " + data.getValue() + ", # events: " + n);
-      queue.add(data);
-      final int n = numEvents.getAndIncrement();
-      if (n == 0) {
-        query.insert(this);
+  public void releaseHeldEvents() {
+    synchronized (heldEvents) {
+      for (final MistEvent event : heldEvents) {
+        // The held events have already been accepted, so they are not dropped
+        offer(event, false);
       }
-    } catch (final Exception e) {
-      throw new RuntimeException(e);
+      heldEvents.clear();
+      holding = false;
     }
   }
 
   @Override
-  public void emitData(final MistDataEvent data, final int index) {
-    try {
-      // source output emitter does not emit data according to the index
-      //System.out.println("Event is added at sourceOutputEmitter: " + data.getValue() + ", # events: " + n);
-      queue.add(data);
-      final int n = numEvents.getAndIncrement();
-
-      if (n == 0) {
-        query.insert(this);
-      }
-    } catch (final Exception e) {
-      throw new RuntimeException(e);
+  public List<MistEvent> takeHeldEvents() {
+    synchronized (heldEvents) {
+      final List<MistEvent> events = new ArrayList<>(heldEvents);
+      heldEvents.clear();
+      return events;
     }
   }
 
   @Override
-  public void emitWatermark(final MistWatermarkEvent watermark) {
+  public Query getQuery() {
+    return query;
+  }
+
+  /**
+   * Enqueue the event, or hold it if this emitter is holding the events.
+   * @param event event
+   */
+  private void enqueue(final MistEvent event) {
+    emittingEvents.incrementAndGet();
     try {
-      queue.add(watermark);
-      final int n = numEvents.getAndIncrement();
+      if (holding) {
+        synchronized (heldEvents) {
+          // The held events may have been released while waiting for the lock
+          if (holding) {
+            heldEvents.add(event);
+            return;
+          }
+        }
+      }
+      offer(event, event.isData());
+    } finally {
+      emittingEvents.decrementAndGet();
+    }
+  }
 
-      if (n == 0) {
-        query.insert(this);
+  /**
+   * Put the event into the queue and insert this emitter to the query if it is not scheduled.
+   * If the queue is full, it waits until the event processor drains the queue.
+   * @param event event
+   * @param droppable true if the event can be dropped by the back-pressure policy
+   */
+  private void offer(final MistEvent event, final boolean droppable) {
+    if (!queue.offer(event) && !offerUnderBackpressure(event, droppable)) {
+      return;
+    }
+    if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+      schedule();
+    }
+  }
+
+  /**
+   * Wait for space in the full queue with an exponential back-off, instead of spinning on the source thread.
+   * The emitter is already scheduled while the queue is not empty, so the event processor keeps draining it.
+   * @param event event
+   * @param droppable true if the event can be dropped by the back-pressure policy
+   * @return true if the event is queued, false if it is dropped
+   */
+  private boolean offerUnderBackpressure(final MistEvent event, final boolean droppable) {
+    final long startTime = System.nanoTime();
+    long parkNanos = MIN_PARK_NANOS;
+    boolean timedOut = false;
+    while (!queue.offer(event)) {
+      if (!timedOut && System.nanoTime() - startTime >= backpressureTimeoutNanos) {
+        timedOut = true;
+        if (droppable && backpressurePolicy == BackpressurePolicy.DROP) {
+          if (numDroppedEvents.getAndIncrement() == 0) {
+            LOG.log(Level.WARNING, "The event queue of a source in query {0} is full, so the data events are dropped",
+                query.getId());
+          }
+          return false;
+        }
+        LOG.log(Level.WARNING, "The event queue of a source in query {0} has been full for {1} ms",
+            new Object[]{query.getId(), TimeUnit.NANOSECONDS.toMillis(backpressureTimeoutNanos)});
       }
-    } catch (final Exception e) {
-      throw new RuntimeException(e);
+      LockSupport.parkNanos(parkNanos);
+      parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
     }
+    return true;
   }
 
   @Override
-  public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
-    try {
-      queue.add(checkpoint);
-      final int n = numEvents.getAndIncrement();
+  public void emitData(final MistDataEvent data) {
+    enqueue(data);
+  }
 
-      if (n == 0) {
-        query.insert(this);
-      }
-    } catch (final Exception e) {
-      throw new RuntimeException(e);
+  @Override
+  public void emitData(final MistDataEvent data, final int index) {
+    // source output emitter does not emit data according to the index
+    enqueue(data);
+  }
+
+  @Override
+  public void emitDataBatch(final List<MistDataEvent> dataList) {
+    for (final MistDataEvent data : dataList) {
+      enqueue(data);
     }
   }
-}
\ No newline at end of file
+
+  @Override
+  public void emitWatermark(final MistWatermarkEvent watermark) {
+    enqueue(watermark);
+  }
+
+  @Override
+  public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+    enqueue(checkpoint);
+  }
+}
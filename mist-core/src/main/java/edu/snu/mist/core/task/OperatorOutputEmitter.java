@@ -18,106 +18,68 @@ package edu.snu.mist.core.task;
 import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
-import edu.snu.mist.core.OutputEmitter;
 import edu.snu.mist.common.graph.MISTEdge;
-import edu.snu.mist.formats.avro.Direction;
 
+import java.util.List;
 import java.util.Map;
 
 /**
  * This emitter forwards current OperatorChain's outputs as next OperatorChains' inputs.
+ * The next operators are compiled into a routing table, which should be updated
+ * by updateRoutes() when the edges of the operator are changed.
+ * While the service time of the operator is measured, the emitter measures the time spent
+ * by the next operators, so that it is excluded from the service time.
  */
-public final class OperatorOutputEmitter implements OutputEmitter {
+public final class OperatorOutputEmitter implements RoutingOutputEmitter {
 
   /**
-   * Next Operators.
+   * The routing table of next operators.
    */
-  private final Map<ExecutionVertex, MISTEdge> nextOperators;
+  private final OutputRoutingTable routingTable;
+
+  /**
+   * True if the time spent by the next operators is measured.
+   */
+  private boolean timing;
+
+  /**
+   * The time spent by the next operators in nanoseconds since the timing started.
+   */
+  private long downstreamNanos;
 
   public OperatorOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators) {
-    this.nextOperators = nextOperators;
+    this(nextOperators, false);
   }
 
   /**
-   * Send data events to the next operator chain if the next vertex is an operator chain,
-   * otherwise send the events to the sink.
-   * @param output data output
-   * @param direction direction of upstream
-   * @param nextVertex next vertex (operator chain or sink)
+   * @param nextOperators next operators
+   * @param immutableEvents true if the outputs are shared by the next operators without copying
    */
-  private void sendData(final MistDataEvent output,
-                        final Direction direction,
-                        final ExecutionVertex nextVertex) {
-    switch (nextVertex.getType()) {
-      case OPERATOR: {
-        if (direction == Direction.LEFT) {
-          ((PhysicalOperator) nextVertex).getOperator().processLeftData(output);
-        } else {
-          ((PhysicalOperator) nextVertex).getOperator().processRightData(output);
-        }
-        break;
-      }
-      case SINK: {
-        ((PhysicalSink)nextVertex).getSink().handle(output.getValue());
-        break;
-      }
-      default:
-        throw new RuntimeException("Unknown type: " + nextVertex.getType());
-    }
+  public OperatorOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                               final boolean immutableEvents) {
+    this.routingTable = new OutputRoutingTable(nextOperators, immutableEvents);
   }
 
   /**
-   * Send watermarks to the next operator chain if the next vertex is an operator chain.
-   * @param watermark watermark
-   * @param direction direction of upstream
-   * @param nextVertex next vertex (operator chain or sink)
+   * Starts measuring the time spent by the next operators.
    */
-  private void sendWatermark(final MistWatermarkEvent watermark,
-                             final Direction direction,
-                             final ExecutionVertex nextVertex) {
-    switch (nextVertex.getType()) {
-      case OPERATOR: {
-        if (direction == Direction.LEFT) {
-          ((PhysicalOperator) nextVertex).getOperator().processLeftWatermark(watermark);
-        } else {
-          ((PhysicalOperator) nextVertex).getOperator().processRightWatermark(watermark);
-        }
-        break;
-      }
-      case SINK: {
-        // do nothing for sink because sink does not handle watermarks
-        break;
-      }
-      default:
-        throw new RuntimeException("Unknown type: " + nextVertex.getType());
-    }
+  void startTiming() {
+    timing = true;
+    downstreamNanos = 0L;
   }
 
   /**
-   * Send checkpoints to the next operator chain if the next vertex is an operator chain.
-   * @param checkpoint checkpoint
-   * @param direction direction of upstream
-   * @param nextVertex next vertex (operator chain or sink)
+   * Stops measuring the time spent by the next operators.
+   * @return the time spent by the next operators in nanoseconds since the timing started
    */
-  private void sendCheckpoint(final MistCheckpointEvent checkpoint,
-                              final Direction direction,
-                              final ExecutionVertex nextVertex) {
-    switch (nextVertex.getType()) {
-      case OPERATOR: {
-        if (direction == Direction.LEFT) {
-          ((PhysicalOperator) nextVertex).getOperator().processLeftCheckpoint(checkpoint);
-        } else {
-          ((PhysicalOperator) nextVertex).getOperator().processRightCheckpoint(checkpoint);
-        }
-        break;
-      }
-      case SINK: {
-        // do nothing for sink because sink does not handle checkpoints
-        break;
-      }
-      default:
-        throw new RuntimeException("Unknown type: " + nextVertex.getType());
-    }
+  long stopTiming() {
+    timing = false;
+    return downstreamNanos;
+  }
+
+  @Override
+  public void updateRoutes(final Map<ExecutionVertex, MISTEdge> nextOperators) {
+    routingTable.update(nextOperators);
   }
 
   /**
@@ -130,67 +92,45 @@ public final class OperatorOutputEmitter implements OutputEmitter {
    */
   @Override
   public void emitData(final MistDataEvent output) {
-    // Optimization: do not create new MistEvent and reuse it if it has one downstream operator chain.
-    if (nextOperators.size() == 1) {
-      for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
-          nextOperators.entrySet()) {
-        final Direction direction = nextChain.getValue().getDirection();
-        sendData(output, direction, nextChain.getKey());
-      }
+    if (timing) {
+      final long startTime = System.nanoTime();
+      routingTable.routeData(output);
+      downstreamNanos += System.nanoTime() - startTime;
     } else {
-      for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
-          nextOperators.entrySet()) {
-        final MistDataEvent event = new MistDataEvent(output.getValue(), output.getTimestamp());
-        final Direction direction = nextChain.getValue().getDirection();
-        sendData(event, direction, nextChain.getKey());
-      }
+      routingTable.routeData(output);
     }
   }
 
   @Override
   public void emitData(final MistDataEvent output, final int index) {
-    // Optimization: do not create new MistEvent and reuse it if it has one downstream operator chain.
-    if (nextOperators.size() == 1) {
-      for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
-          nextOperators.entrySet()) {
-        final MISTEdge edge = nextChain.getValue();
-        final int edgeIndex = edge.getIndex();
-        if (edgeIndex == index) {
-          // send the data only if the index of this edge is equal to the target index
-          sendData(output, edge.getDirection(), nextChain.getKey());
-        }
-      }
+    // send the data only to the edges whose index is equal to the target index
+    if (timing) {
+      final long startTime = System.nanoTime();
+      routingTable.routeData(output, index);
+      downstreamNanos += System.nanoTime() - startTime;
     } else {
-      for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
-          nextOperators.entrySet()) {
-        final MISTEdge edge = nextChain.getValue();
-        final int edgeIndex = edge.getIndex();
-        if (edgeIndex == index) {
-          // send the data only if the index of this edge is equal to the target index
-          final MistDataEvent event = new MistDataEvent(output.getValue(), output.getTimestamp());
-          sendData(event, edge.getDirection(), nextChain.getKey());
-        }
-      }
+      routingTable.routeData(output, index);
     }
   }
 
   @Override
-  public void emitWatermark(final MistWatermarkEvent output) {
-    // Watermark is not changed, so we just forward watermark to next operator chains.
-    for (final Map.Entry<ExecutionVertex, MISTEdge> nextQuery :
-        nextOperators.entrySet()) {
-      final Direction direction = nextQuery.getValue().getDirection();
-      sendWatermark(output, direction, nextQuery.getKey());
+  public void emitDataBatch(final List<MistDataEvent> outputs) {
+    if (timing) {
+      final long startTime = System.nanoTime();
+      routingTable.routeDataBatch(outputs);
+      downstreamNanos += System.nanoTime() - startTime;
+    } else {
+      routingTable.routeDataBatch(outputs);
     }
   }
 
+  @Override
+  public void emitWatermark(final MistWatermarkEvent output) {
+    routingTable.routeWatermark(output);
+  }
+
   @Override
   public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
-    // Checkpoint is not changed, so we just forward it to the next operator chains.
-    for (final Map.Entry<ExecutionVertex, MISTEdge> nextQuery :
-        nextOperators.entrySet()) {
-      final Direction direction = nextQuery.getValue().getDirection();
-      sendCheckpoint(checkpoint, direction, nextQuery.getKey());
-    }
+    routingTable.routeCheckpoint(checkpoint);
   }
 }
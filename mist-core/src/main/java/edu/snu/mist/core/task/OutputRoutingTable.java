@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.predicates.RuleBasedCCPredicate;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.operators.FusedOperator;
+import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.formats.avro.Direction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A routing table that forwards the outputs of a vertex to the downstream vertices.
+ * It compiles the outgoing edges of the vertex into an immutable array of downstream handlers,
+ * so that the emitters do not iterate the edge map and check the vertex types for every event.
+ * The edges are kept by the execution dag and modified when queries are merged or deleted,
+ * so update() should be called with the edges after the modification. It atomically replaces the array.
+ *
+ * When the outputs are forwarded to multiple operators, each operator receives a copy of the event,
+ * because operators can modify their input events, except the last one which receives the original event.
+ * In the immutable-event mode, all the operators receive the same event.
+ *
+ * When many queries of rule-based filters are merged, their filters share the upstream vertex.
+ * If the downstream vertices have multiple filters of rule-based comparison predicates,
+ * the predicates are indexed by a PredicateIndex, and the data is forwarded only to the filters it can pass.
+ */
+public final class OutputRoutingTable {
+
+  /**
+   * The minimum number of the filters for building a predicate index.
+   */
+  private static final int MIN_INDEXED_FILTERS = 2;
+
+  /**
+   * True if the events are not copied for the downstream operators.
+   */
+  private final boolean immutableEvents;
+
+  /**
+   * The compiled routes of the edges.
+   */
+  private volatile Routes routes;
+
+  /**
+   * A reusable buffer for copying a batch. It is only accessed by the thread that processes the vertex.
+   */
+  private final List<MistDataEvent> copiedBatch;
+
+  /**
+   * A reusable buffer for the positions of the handlers that receive the data.
+   * It is only accessed by the thread that processes the vertex.
+   */
+  private int[] targets;
+
+  public OutputRoutingTable(final Map<ExecutionVertex, MISTEdge> edges,
+                            final boolean immutableEvents) {
+    this.immutableEvents = immutableEvents;
+    this.copiedBatch = new ArrayList<>();
+    this.targets = new int[0];
+    update(edges);
+  }
+
+  /**
+   * Compile the edges and replace the handlers.
+   * @param edges the outgoing edges of the vertex
+   */
+  public void update(final Map<ExecutionVertex, MISTEdge> edges) {
+    final List<DownstreamHandler> compiled = new ArrayList<>(edges.size());
+    final Map<Integer, RuleBasedCCPredicate> indexablePredicates = new HashMap<>();
+    for (final Map.Entry<ExecutionVertex, MISTEdge> edge : edges.entrySet()) {
+      final RuleBasedCCPredicate predicate = getIndexablePredicate(edge.getKey(), edge.getValue());
+      if (predicate != null) {
+        indexablePredicates.put(compiled.size(), predicate);
+      }
+      compiled.add(DownstreamHandler.of(edge.getKey(), edge.getValue()));
+    }
+    routes = new Routes(compiled.toArray(new DownstreamHandler[compiled.size()]),
+        indexablePredicates.size() >= MIN_INDEXED_FILTERS ? indexablePredicates : null);
+  }
+
+  /**
+   * Gets the predicate of the downstream vertex if it is a filter of an indexable rule-based comparison predicate,
+   * or a fused operator that starts with such a filter.
+   * @return the predicate, or null if the vertex is not such a filter
+   */
+  private static RuleBasedCCPredicate getIndexablePredicate(final ExecutionVertex vertex, final MISTEdge edge) {
+    if (vertex.getType() != ExecutionVertex.Type.OPERATOR || edge.getDirection() != Direction.LEFT) {
+      return null;
+    }
+    final Operator operator = ((PhysicalOperator) vertex).getOperator();
+    final MISTPredicate<?> predicate;
+    if (operator instanceof FilterOperator) {
+      predicate = ((FilterOperator<?>) operator).getFilterFunc();
+    } else if (operator instanceof FusedOperator) {
+      // A fused operator that starts with a filter drops the data that does not pass the filter
+      predicate = ((FusedOperator) operator).getLeadingFilterFunc();
+    } else {
+      return null;
+    }
+    if (predicate instanceof RuleBasedCCPredicate && PredicateIndex.isIndexable((RuleBasedCCPredicate) predicate)) {
+      return (RuleBasedCCPredicate) predicate;
+    }
+    return null;
+  }
+
+  /**
+   * @return the number of downstream vertices
+   */
+  public int size() {
+    return routes.handlers.length;
+  }
+
+  /**
+   * @return true if the filters of the downstream vertices are indexed
+   */
+  boolean isIndexed() {
+    return routes.index != null;
+  }
+
+  private boolean shareEvent(final DownstreamHandler handler) {
+    return immutableEvents || handler.isSink();
+  }
+
+  /**
+   * Forward the data to the downstream vertices.
+   * @param data data
+   */
+  public void routeData(final MistDataEvent data) {
+    final Routes current = routes;
+    if (current.index != null) {
+      routeIndexedData(current, data);
+      return;
+    }
+    final DownstreamHandler[] handlers = current.handlers;
+    final int last = handlers.length - 1;
+    for (int i = 0; i < last; i++) {
+      final DownstreamHandler handler = handlers[i];
+      handler.processData(shareEvent(handler) ? data : data.copy());
+    }
+    if (last >= 0) {
+      handlers[last].processData(data);
+    }
+  }
+
+  /**
+   * Finds the positions of the handlers that should receive the data when the filters are indexed.
+   * @return the number of the found positions in the targets
+   */
+  private int findTargets(final Routes current, final MistDataEvent data, final boolean includeUnindexed) {
+    if (targets.length < current.handlers.length) {
+      targets = new int[current.handlers.length];
+    }
+    int count = 0;
+    if (includeUnindexed) {
+      System.arraycopy(current.unindexedPositions, 0, targets, 0, current.unindexedPositions.length);
+      count = current.unindexedPositions.length;
+    }
+    if (data.getValue() instanceof Map) {
+      return current.index.match((Map<?, ?>) data.getValue(), targets, count);
+    } else {
+      // The filters will fail with the data, as they do without the index.
+      System.arraycopy(current.indexedPositions, 0, targets, count, current.indexedPositions.length);
+      return count + current.indexedPositions.length;
+    }
+  }
+
+  /**
+   * Forward the data to the downstream vertices that are not indexed and the filters that the data can pass.
+   */
+  private void routeIndexedData(final Routes current, final MistDataEvent data) {
+    final DownstreamHandler[] handlers = current.handlers;
+    final int last = findTargets(current, data, true) - 1;
+    for (int i = 0; i < last; i++) {
+      final DownstreamHandler handler = handlers[targets[i]];
+      handler.processData(shareEvent(handler) ? data : data.copy());
+    }
+    if (last >= 0) {
+      handlers[targets[last]].processData(data);
+    }
+  }
+
+  /**
+   * Forward the data to the downstream vertices whose edge index is equal to the index.
+   * @param data data
+   * @param index the index of the edges
+   */
+  public void routeData(final MistDataEvent data, final int index) {
+    final DownstreamHandler[] current = routes.handlers;
+    int last = current.length - 1;
+    while (last >= 0 && current[last].getIndex() != index) {
+      last -= 1;
+    }
+    for (int i = 0; i < last; i++) {
+      final DownstreamHandler handler = current[i];
+      if (handler.getIndex() == index) {
+        handler.processData(shareEvent(handler) ? data : data.copy());
+      }
+    }
+    if (last >= 0) {
+      current[last].processData(data);
+    }
+  }
+
+  /**
+   * Forward the batch of data to the downstream vertices.
+   * When the filters are indexed, each data is forwarded to the filters that it can pass,
+   * and the batch is forwarded to the other vertices.
+   * @param dataList list of data
+   */
+  public void routeDataBatch(final List<MistDataEvent> dataList) {
+    final Routes current = routes;
+    final DownstreamHandler[] handlers = current.handlers;
+    final int[] positions;
+    if (current.index != null) {
+      for (final MistDataEvent data : dataList) {
+        final int count = findTargets(current, data, false);
+        for (int i = 0; i < count; i++) {
+          final DownstreamHandler handler = handlers[targets[i]];
+          handler.processData(shareEvent(handler) ? data : data.copy());
+        }
+      }
+      positions = current.unindexedPositions;
+    } else {
+      positions = current.allPositions;
+    }
+
+    final int last = positions.length - 1;
+    for (int i = 0; i < last; i++) {
+      final DownstreamHandler handler = handlers[positions[i]];
+      if (shareEvent(handler)) {
+        handler.processDataBatch(dataList);
+      } else {
+        copiedBatch.clear();
+        for (final MistDataEvent data : dataList) {
+          copiedBatch.add(data.copy());
+        }
+        handler.processDataBatch(copiedBatch);
+      }
+    }
+    copiedBatch.clear();
+    if (last >= 0) {
+      handlers[positions[last]].processDataBatch(dataList);
+    }
+  }
+
+  /**
+   * Forward the watermark to the downstream vertices. Watermarks are not modified, so they are not copied.
+   * @param watermark watermark
+   */
+  public void routeWatermark(final MistWatermarkEvent watermark) {
+    for (final DownstreamHandler handler : routes.handlers) {
+      handler.processWatermark(watermark);
+    }
+  }
+
+  /**
+   * Forward the checkpoint to the downstream vertices.
+   * @param checkpoint checkpoint
+   */
+  public void routeCheckpoint(final MistCheckpointEvent checkpoint) {
+    for (final DownstreamHandler handler : routes.handlers) {
+      handler.processCheckpoint(checkpoint);
+    }
+  }
+
+  /**
+   * The compiled handlers and the index of the filters among them.
+   */
+  private static final class Routes {
+    /**
+     * The handlers of the edges.
+     */
+    private final DownstreamHandler[] handlers;
+
+    /**
+     * The index of the filters, whose ids are the positions of the handlers. It is null if it is not built.
+     */
+    private final PredicateIndex index;
+
+    /**
+     * The positions of all the handlers.
+     */
+    private final int[] allPositions;
+
+    /**
+     * The positions of the handlers that are indexed and not indexed.
+     */
+    private final int[] indexedPositions;
+    private final int[] unindexedPositions;
+
+    Routes(final DownstreamHandler[] handlers,
+           final Map<Integer, RuleBasedCCPredicate> indexedPredicates) {
+      this.handlers = handlers;
+      this.allPositions = new int[handlers.length];
+      for (int i = 0; i < handlers.length; i++) {
+        allPositions[i] = i;
+      }
+      if (indexedPredicates == null) {
+        this.index = null;
+        this.indexedPositions = new int[0];
+        this.unindexedPositions = allPositions;
+      } else {
+        this.index = new PredicateIndex(indexedPredicates);
+        this.indexedPositions = new int[indexedPredicates.size()];
+        this.unindexedPositions = new int[handlers.length - indexedPredicates.size()];
+        int indexed = 0;
+        int unindexed = 0;
+        for (int i = 0; i < handlers.length; i++) {
+          if (indexedPredicates.containsKey(i)) {
+            indexedPositions[indexed] = i;
+            indexed += 1;
+          } else {
+            unindexedPositions[unindexed] = i;
+            unindexed += 1;
+          }
+        }
+      }
+    }
+  }
+}
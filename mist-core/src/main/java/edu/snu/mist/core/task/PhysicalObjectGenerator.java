@@ -24,27 +24,31 @@ import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.functions.MISTPredicate;
 import edu.snu.mist.common.functions.WatermarkTimestampFunction;
 import edu.snu.mist.core.operators.*;
+import edu.snu.mist.core.operators.keyed.KeyedStateUtils;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
 import edu.snu.mist.core.operators.window.*;
+import edu.snu.mist.core.parameters.FusedOperatorCodegen;
 import edu.snu.mist.core.shared.KafkaSharedResource;
 import edu.snu.mist.core.shared.MQTTResource;
 import edu.snu.mist.core.shared.NettySharedResource;
 import edu.snu.mist.core.sinks.MqttSink;
+import edu.snu.mist.core.sinks.NettyBinarySink;
 import edu.snu.mist.core.sinks.NettyTextSink;
 import edu.snu.mist.core.sinks.Sink;
 import edu.snu.mist.core.sources.*;
 import edu.snu.mist.common.types.Tuple2;
+import io.netty.buffer.ByteBuf;
 import org.apache.reef.io.network.util.StringIdentifierFactory;
 import org.apache.reef.tang.annotations.Parameter;
 import org.eclipse.paho.client.mqttv3.MqttException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -54,9 +58,9 @@ import java.util.concurrent.TimeUnit;
 public final class PhysicalObjectGenerator implements AutoCloseable {
 
   /**
-   * Scheduled executor for event generators.
+   * The shared timer for event generators.
    */
-  private final ScheduledExecutorService scheduler;
+  private final PeriodicEventTimer eventTimer;
 
   /**
    * Time unit for watermarks.
@@ -88,19 +92,26 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
    */
   private final StringIdentifierFactory identifierFactory;
 
+  /**
+   * True if the fused operators generate specialized pipelines.
+   */
+  private final boolean fusedOperatorCodegen;
+
   @Inject
-  private PhysicalObjectGenerator(final ScheduledExecutorServiceWrapper schedulerWrapper,
+  private PhysicalObjectGenerator(final PeriodicEventTimer eventTimer,
                                   final KafkaSharedResource kafkaSharedResource,
                                   final NettySharedResource nettySharedResource,
                                   final MQTTResource mqttSharedResource,
                                   @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
-                                  final StringIdentifierFactory identifierFactory) {
-    this.scheduler = schedulerWrapper.getScheduler();
+                                  final StringIdentifierFactory identifierFactory,
+                                  @Parameter(FusedOperatorCodegen.class) final boolean fusedOperatorCodegen) {
+    this.eventTimer = eventTimer;
     this.kafkaSharedResource = kafkaSharedResource;
     this.nettySharedResource = nettySharedResource;
     this.mqttSharedResource = mqttSharedResource;
     this.checkpointPeriod = checkpointPeriod;
     this.identifierFactory = identifierFactory;
+    this.fusedOperatorCodegen = fusedOperatorCodegen;
   }
 
   /**
@@ -130,7 +141,7 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
       final long period = Long.valueOf(conf.get(ConfKeys.Watermark.PERIODIC_WATERMARK_PERIOD.name()));
       final long delay = Long.valueOf(conf.get(ConfKeys.Watermark.PERIODIC_WATERMARK_DELAY.name()));
       return new PeriodicEventGenerator(
-          timestampExtractFunc, period, checkpointPeriod, delay, watermarkTimeUnit, scheduler);
+          timestampExtractFunc, period, checkpointPeriod, delay, watermarkTimeUnit, eventTimer);
     } else if (type.equals(ConfValues.EventGeneratorType.PUNCTUATED_EVENT_GEN.name())) {
       // punctuated event generator
       final MISTPredicate watermarkPredicate = SerializeUtils.deserializeFromString(
@@ -138,7 +149,7 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
       final WatermarkTimestampFunction tf = SerializeUtils.deserializeFromString(
           conf.get(ConfKeys.Watermark.TIMESTAMP_PARSE_OBJECT.name()), classLoader);
       return new PunctuatedEventGenerator(
-          timestampExtractFunc, watermarkPredicate, tf, checkpointPeriod, watermarkTimeUnit, scheduler);
+          timestampExtractFunc, watermarkPredicate, tf, checkpointPeriod, watermarkTimeUnit, eventTimer);
     } else {
       throw new RuntimeException("Invalid event generator: " + type);
     }
@@ -150,8 +161,7 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
    * @param classLoader external class loader
    * @return data generator
    */
-  @SuppressWarnings("unchecked")
-  public DataGenerator newDataGenerator(
+  public DataGenerator<?> newDataGenerator(
       final Map<String, String> conf,
       final ClassLoader classLoader) throws IOException, ClassNotFoundException {
     final String type = conf.get(ConfKeys.SourceConf.SOURCE_TYPE.name());
@@ -161,12 +171,19 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
       final String topic = conf.get(ConfKeys.KafkaSourceConf.KAFKA_TOPIC.name());
       final Map<String, Object> kafkaConsumerConf = SerializeUtils.deserializeFromString(
           conf.get(ConfKeys.KafkaSourceConf.KAFKA_CONSUMER_CONFIG.name()), classLoader);
-      return new KafkaDataGenerator(topic, kafkaConsumerConf, kafkaSharedResource);
+      return new KafkaDataGenerator<>(topic, kafkaConsumerConf, kafkaSharedResource);
     } else if (type.equals(ConfValues.SourceType.NETTY.name())) {
       // netty source
       final String addr = conf.get(ConfKeys.NettySourceConf.SOURCE_ADDR.name());
       final int port = Integer.valueOf(conf.get(ConfKeys.NettySourceConf.SOURCE_PORT.name()));
       return new NettyTextDataGenerator(addr, port, nettySharedResource);
+    } else if (type.equals(ConfValues.SourceType.NETTY_BINARY.name())) {
+      // length-prefixed binary netty source
+      final String addr = conf.get(ConfKeys.NettySourceConf.SOURCE_ADDR.name());
+      final int port = Integer.valueOf(conf.get(ConfKeys.NettySourceConf.SOURCE_PORT.name()));
+      final MISTFunction<ByteBuf, ?> deserializer = SerializeUtils.deserializeFromString(
+          conf.get(ConfKeys.NettySourceConf.DESERIALIZE_FUNC.name()), classLoader);
+      return new NettyBinaryDataGenerator<>(addr, port, deserializer, nettySharedResource);
     } else if (type.equals(ConfValues.SourceType.MQTT.name())) {
       // mqtt source
       final String brokerURI = conf.get(ConfKeys.MQTTSourceConf.MQTT_SRC_BROKER_URI.name());
@@ -226,11 +243,17 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
       final int keyFieldNum = Integer.valueOf(conf.get(ConfKeys.ReduceByKeyOperator.KEY_INDEX.name()));
       final MISTBiFunction reduceFunc =
           getObject(conf, ConfKeys.ReduceByKeyOperator.MIST_BI_FUNC.name(), classLoader);
-      return new ReduceByKeyOperator(keyFieldNum, reduceFunc);
+      final Class<?> keyType =
+          KeyedStateUtils.getKeyType(conf.get(ConfKeys.ReduceByKeyOperator.KEY_TYPE.name()));
+      final String outputModeString = conf.get(ConfKeys.ReduceByKeyOperator.OUTPUT_MODE.name());
+      final ConfValues.ReduceByKeyOutputMode outputMode = outputModeString == null
+          ? ConfValues.ReduceByKeyOutputMode.FULL_MAP : ConfValues.ReduceByKeyOutputMode.valueOf(outputModeString);
+      return new ReduceByKeyOperator(keyFieldNum, reduceFunc, keyType, outputMode);
 
     } else if (type.equals(ConfValues.OperatorType.UNION.name())) {
 
-      return new UnionOperator();
+      final String numInputs = conf.get(ConfKeys.UnionOperator.NUM_INPUTS.name());
+      return numInputs == null ? new UnionOperator() : new UnionOperator(Integer.valueOf(numInputs));
 
     } else if (type.equals(ConfValues.OperatorType.TIME_WINDOW.name())) {
 
@@ -253,14 +276,66 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
 
       return new JoinOperator(getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader));
 
+    } else if (type.equals(ConfValues.OperatorType.HASH_JOIN.name())) {
+
+      return new JoinOperator(
+          getObject(conf, ConfKeys.JoinOperator.FIRST_KEY_FUNC.name(), classLoader),
+          getObject(conf, ConfKeys.JoinOperator.SECOND_KEY_FUNC.name(), classLoader));
+
+    } else if (type.equals(ConfValues.OperatorType.SYMMETRIC_HASH_JOIN.name())) {
+
+      final long windowTime = Long.valueOf(conf.get(ConfKeys.JoinOperator.JOIN_WINDOW_TIME.name()));
+      return new SymmetricHashJoinOperator(
+          getObject(conf, ConfKeys.JoinOperator.FIRST_KEY_FUNC.name(), classLoader),
+          getObject(conf, ConfKeys.JoinOperator.SECOND_KEY_FUNC.name(), classLoader),
+          windowTime);
+
     } else if (type.equals(ConfValues.OperatorType.AGGREGATE_WINDOW.name())) {
 
-      return new AggregateWindowOperator(getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader));
+      return new AggregateWindowOperator(
+          (MISTFunction) getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader));
 
     } else if (type.equals(ConfValues.OperatorType.APPLY_STATEFUL_WINDOW.name())) {
 
       return new ApplyStatefulWindowOperator(getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader));
 
+    } else if (type.equals(ConfValues.OperatorType.REDUCE_WINDOW.name())) {
+
+      return new AggregateWindowOperator(
+          (MISTBiFunction) getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader));
+
+    } else if (type.equals(ConfValues.OperatorType.KEYED_APPLY_STATEFUL.name())) {
+
+      final String idleTimeout = conf.get(ConfKeys.KeyedOperator.IDLE_TIMEOUT.name());
+      return new KeyedApplyStatefulOperator(
+          getObject(conf, ConfKeys.KeyedOperator.KEY_FUNC.name(), classLoader),
+          getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader),
+          KeyedStateUtils.getKeyType(conf.get(ConfKeys.KeyedOperator.KEY_TYPE.name())),
+          idleTimeout == null ? 0L : Long.valueOf(idleTimeout));
+
+    } else if (type.equals(ConfValues.OperatorType.KEYED_AGGREGATE_WINDOW.name())) {
+
+      return new KeyedAggregateWindowOperator(
+          getObject(conf, ConfKeys.KeyedOperator.KEY_FUNC.name(), classLoader),
+          getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader),
+          KeyedStateUtils.getKeyType(conf.get(ConfKeys.KeyedOperator.KEY_TYPE.name())),
+          ConfValues.OperatorType.valueOf(conf.get(ConfKeys.KeyedOperator.WINDOW_TYPE.name())),
+          Long.valueOf(conf.get(ConfKeys.WindowOperator.WINDOW_SIZE.name())),
+          Long.valueOf(conf.get(ConfKeys.WindowOperator.WINDOW_INTERVAL.name())));
+
+    } else if (type.equals(ConfValues.OperatorType.FUSED.name())) {
+
+      final List<ConfValues.OperatorType> types = new ArrayList<>();
+      for (final String fusedType : conf.get(ConfKeys.FusedOperator.OP_TYPE_LIST.name()).split(",")) {
+        types.add(ConfValues.OperatorType.valueOf(fusedType));
+      }
+      final List<String> udfStrings = getObject(conf, ConfKeys.FusedOperator.UDF_LIST_STRING.name(), classLoader);
+      final List<Object> udfs = new ArrayList<>(udfStrings.size());
+      for (final String udfString : udfStrings) {
+        udfs.add(SerializeUtils.deserializeFromString(udfString, classLoader));
+      }
+      return new FusedOperator(types, udfs, fusedOperatorCodegen);
+
     } else {
       throw new RuntimeException("Invalid operator: " + type);
     }
@@ -290,6 +365,14 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
       final int serverPort = Integer.valueOf(conf.get(ConfKeys.NettySink.SINK_PORT.name()));
       return (Sink<T>)new NettyTextSink(serverAddress, serverPort, nettySharedResource, identifierFactory);
 
+    } else if (type.equals(ConfValues.SinkType.NETTY_BINARY.name())) {
+
+      final String serverAddress = conf.get(ConfKeys.NettySink.SINK_ADDRESS.name());
+      final int serverPort = Integer.valueOf(conf.get(ConfKeys.NettySink.SINK_PORT.name()));
+      final int flushSize = Integer.valueOf(conf.get(ConfKeys.NettySink.FLUSH_SIZE.name()));
+      final long flushInterval = Long.valueOf(conf.get(ConfKeys.NettySink.FLUSH_INTERVAL.name()));
+      return (Sink<T>)new NettyBinarySink(serverAddress, serverPort, flushSize, flushInterval, nettySharedResource);
+
     } else if (type.equals(ConfValues.SinkType.MQTT.name())) {
 
       final String brokerURI = conf.get(ConfKeys.MqttSink.MQTT_SINK_BROKER_URI.name());
@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.task.metrics.VertexMetrics;
 
 /**
  * This interface represents a physical operator that contains the actual object of the operator.
@@ -28,4 +29,10 @@ public interface PhysicalOperator extends PhysicalVertex, ExecutionVertex {
    * @return operator
    */
   Operator getOperator();
+
+  /**
+   * Get the metrics of the operator.
+   * @return metrics
+   */
+  VertexMetrics getMetrics();
 }
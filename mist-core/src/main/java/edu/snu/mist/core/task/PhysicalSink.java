@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.task.metrics.VertexMetrics;
 
 /**
  * This is a physical sink interface that is used in MistTask.
@@ -27,4 +28,10 @@ public interface PhysicalSink<I> extends PhysicalVertex, ExecutionVertex {
    * @return sink
    */
   Sink<I> getSink();
+
+  /**
+   * Get the metrics of the sink.
+   * @return metrics
+   */
+  VertexMetrics getMetrics();
 }
\ No newline at end of file
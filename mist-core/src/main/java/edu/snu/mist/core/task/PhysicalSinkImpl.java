@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.task.metrics.VertexMetrics;
 
 import java.util.Map;
 
@@ -26,17 +27,35 @@ public final class PhysicalSinkImpl<I> extends BasePhysicalVertex implements Phy
 
   private final Sink<I> sink;
 
+  /**
+   * The metrics of the sink.
+   */
+  private final VertexMetrics metrics;
+
   public PhysicalSinkImpl(final String sinkId,
                           final Map<String, String> configuration,
                           final Sink<I> sink) {
+    this(sinkId, configuration, sink, new VertexMetrics());
+  }
+
+  public PhysicalSinkImpl(final String sinkId,
+                          final Map<String, String> configuration,
+                          final Sink<I> sink,
+                          final VertexMetrics metrics) {
     super(sinkId, configuration);
     this.sink = sink;
+    this.metrics = metrics;
   }
 
   public Sink<I> getSink() {
     return sink;
   }
 
+  @Override
+  public VertexMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public Type getType() {
     return Type.SINK;
@@ -56,7 +75,7 @@ public final class PhysicalSinkImpl<I> extends BasePhysicalVertex implements Phy
       return false;
     }
 
-    final PhysicalSinkImpl<I> that = (PhysicalSinkImpl<I>) o;
+    final PhysicalSinkImpl<?> that = (PhysicalSinkImpl<?>) o;
 
     if (!id.equals(that.id)) {
       return false;
@@ -18,6 +18,8 @@ package edu.snu.mist.core.task;
 import edu.snu.mist.core.OutputEmittable;
 import edu.snu.mist.core.sources.EventGenerator;
 
+import java.util.Map;
+
 /**
  * Source receives input stream.
  * It has DataGenerator that fetches input data from external systems, such as kafka and HDFS,
@@ -33,6 +35,21 @@ public interface PhysicalSource extends AutoCloseable, OutputEmittable, Physical
    */
   void start();
 
+  /**
+   * Starts the source of a migrated query after the old task has handed over the query.
+   * The events queued in the old source and the forwarded events are emitted before the new inputs.
+   * @param forwardedState the serialized source state which has the events
+   *                       that the old source received after the query was snapshotted
+   */
+  void startAfterMigration(Map<String, Object> forwardedState);
+
+  /**
+   * Notifies the source that a checkpoint of its group has been written,
+   * so the data generator can acknowledge the inputs covered by the checkpoint to the external system.
+   * @param checkpointTimestamp the timestamp of the checkpoint
+   */
+  void checkpointCompleted(long checkpointTimestamp);
+
   /**
    * Gets the current EventGenerator.
    */
@@ -15,10 +15,16 @@
  */
 package edu.snu.mist.core.task;
 
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.core.OutputEmitter;
 import edu.snu.mist.core.sources.DataGenerator;
 import edu.snu.mist.core.sources.EventGenerator;
+import edu.snu.mist.core.sources.SourceCheckpointListener;
+import edu.snu.mist.core.task.migration.QueuedSourceEvents;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,16 +43,76 @@ public final class PhysicalSourceImpl<T> extends BasePhysicalVertex implements P
    */
   private final EventGenerator<T> eventGenerator;
 
+  /**
+   * The serialized state that has the events queued in the source of a migrated query.
+   * It is null if the query is not migrated. A migrated source starts only after the old task hands over the query,
+   * and emits the queued events before the new inputs.
+   */
+  private Map<String, Object> queuedState;
+
+  /**
+   * The class loader for deserializing the events of a migrated query.
+   */
+  private final ClassLoader classLoader;
+
   public PhysicalSourceImpl(final String sourceId,
                             final Map<String, String> configuration,
                             final DataGenerator<T> dataGenerator, final EventGenerator<T> eventGenerator) {
+    this(sourceId, configuration, dataGenerator, eventGenerator, null, null);
+  }
+
+  public PhysicalSourceImpl(final String sourceId,
+                            final Map<String, String> configuration,
+                            final DataGenerator<T> dataGenerator, final EventGenerator<T> eventGenerator,
+                            final Map<String, Object> queuedState,
+                            final ClassLoader classLoader) {
     super(sourceId, configuration);
     this.dataGenerator = dataGenerator;
     this.eventGenerator = eventGenerator;
+    this.queuedState = queuedState;
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * Emits the events in the serialized source state to the output emitter.
+   */
+  private void emitEvents(final Map<String, Object> serializedState) {
+    final OutputEmitter outputEmitter = eventGenerator.getOutputEmitter();
+    final List<MistEvent> events =
+        QueuedSourceEvents.fromState(StateSerializer.deserializeStateMap(serializedState, classLoader));
+    for (final MistEvent event : events) {
+      if (event.isData()) {
+        outputEmitter.emitData((MistDataEvent) event);
+      } else {
+        outputEmitter.emitWatermark((MistWatermarkEvent) event);
+      }
+    }
   }
 
   @Override
   public void start() {
+    if (queuedState != null) {
+      // The old task still runs the query until it hands over the query
+      return;
+    }
+    startGenerators();
+  }
+
+  @Override
+  public void startAfterMigration(final Map<String, Object> forwardedState) {
+    if (queuedState == null) {
+      throw new IllegalStateException("Source " + id + " is not migrated");
+    }
+    emitEvents(queuedState);
+    emitEvents(forwardedState);
+    queuedState = null;
+    startGenerators();
+  }
+
+  /**
+   * Starts the data and event generators.
+   */
+  private void startGenerators() {
     if (dataGenerator != null && eventGenerator != null) {
       dataGenerator.setEventGenerator(eventGenerator);
       eventGenerator.start();
@@ -57,6 +123,13 @@ public final class PhysicalSourceImpl<T> extends BasePhysicalVertex implements P
     }
   }
 
+  @Override
+  public void checkpointCompleted(final long checkpointTimestamp) {
+    if (dataGenerator instanceof SourceCheckpointListener) {
+      ((SourceCheckpointListener) dataGenerator).onCheckpointCompleted(checkpointTimestamp);
+    }
+  }
+
   @Override
   public EventGenerator getEventGenerator() {
     return eventGenerator;
@@ -0,0 +1,335 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.predicates.RuleBasedCCPredicate;
+import edu.snu.mist.common.predicates.RuleBasedEQPredicate;
+import edu.snu.mist.common.predicates.RuleBasedGEPredicate;
+import edu.snu.mist.common.predicates.RuleBasedGTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedLEPredicate;
+import edu.snu.mist.common.predicates.RuleBasedLTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedNEQPredicate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the rule-based comparison predicates of the filters that share an upstream vertex.
+ * Instead of testing all the predicates for an input, it finds the predicates that the input can satisfy.
+ * EQ and NEQ predicates are hashed by their values, and GT, GE, LT and LE predicates are sorted by their values,
+ * so the cost for an input is logarithmic in the number of predicates, plus the number of found predicates.
+ *
+ * The index is conservative. When the field of the input is null, or has a different type from a range predicate,
+ * the predicates are found without comparison, so the filters test them and behave as they do without the index.
+ */
+final class PredicateIndex {
+
+  /**
+   * The indexes of the fields.
+   */
+  private final FieldIndex[] fieldIndexes;
+
+  /**
+   * @param predicates the predicates with their ids, which are returned by match()
+   */
+  PredicateIndex(final Map<Integer, RuleBasedCCPredicate> predicates) {
+    final Map<String, List<Map.Entry<Integer, RuleBasedCCPredicate>>> fieldPredicates = new LinkedHashMap<>();
+    for (final Map.Entry<Integer, RuleBasedCCPredicate> entry : predicates.entrySet()) {
+      if (!isIndexable(entry.getValue())) {
+        throw new IllegalArgumentException("The predicate cannot be indexed: " + entry.getValue());
+      }
+      fieldPredicates.computeIfAbsent(entry.getValue().getField(), field -> new ArrayList<>()).add(entry);
+    }
+    this.fieldIndexes = new FieldIndex[fieldPredicates.size()];
+    int i = 0;
+    for (final Map.Entry<String, List<Map.Entry<Integer, RuleBasedCCPredicate>>> entry
+        : fieldPredicates.entrySet()) {
+      fieldIndexes[i] = new FieldIndex(entry.getKey(), entry.getValue());
+      i += 1;
+    }
+  }
+
+  /**
+   * Checks whether the predicate can be indexed.
+   * A range predicate can be indexed if its value is a type that RuleBasedCCPredicate can compare.
+   * @param predicate predicate
+   * @return true if the predicate can be indexed
+   */
+  static boolean isIndexable(final RuleBasedCCPredicate predicate) {
+    final Object value = predicate.getValue();
+    if (predicate.getField() == null || value == null) {
+      return false;
+    } else if (predicate instanceof RuleBasedEQPredicate || predicate instanceof RuleBasedNEQPredicate) {
+      return true;
+    } else if (predicate instanceof RuleBasedGTPredicate || predicate instanceof RuleBasedGEPredicate
+        || predicate instanceof RuleBasedLTPredicate || predicate instanceof RuleBasedLEPredicate) {
+      return value instanceof Double || value instanceof Integer || value instanceof Long || value instanceof String;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Finds the predicates that the input can satisfy. Each id is found at most once.
+   * @param input the input of the filters
+   * @param output the array where the ids of the found predicates are stored
+   * @param offset the position of the output where the first id is stored
+   * @return the position of the output after the last stored id
+   */
+  int match(final Map<?, ?> input, final int[] output, final int offset) {
+    int position = offset;
+    for (final FieldIndex fieldIndex : fieldIndexes) {
+      position = fieldIndex.match(input.get(fieldIndex.field), output, position);
+    }
+    return position;
+  }
+
+  /**
+   * Copies the ids in the range to the output.
+   */
+  private static int append(final int[] ids, final int from, final int to, final int[] output, final int position) {
+    if (from >= to) {
+      return position;
+    }
+    System.arraycopy(ids, from, output, position, to - from);
+    return position + to - from;
+  }
+
+  /**
+   * Casts the value of a range predicate or an input to a comparable.
+   * The values in a range index have the same type, which is one of the comparable types accepted by isIndexable(),
+   * and an input is compared only with the range index of its type, so the values are comparable with each other.
+   */
+  @SuppressWarnings("unchecked")
+  private static Comparable<Object> toComparable(final Object value) {
+    return (Comparable<Object>) value;
+  }
+
+  private static int[] toArray(final List<Integer> ids) {
+    final int[] result = new int[ids.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = ids.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * The index of the predicates on a field.
+   */
+  private static final class FieldIndex {
+    /**
+     * The field name.
+     */
+    private final String field;
+
+    /**
+     * The ids of all the predicates on the field, which are found when the field is null.
+     */
+    private final int[] allIds;
+
+    /**
+     * The ids of the EQ predicates per value.
+     */
+    private final Map<Object, int[]> eqIds;
+
+    /**
+     * The ids of the NEQ predicates, which are grouped by value.
+     */
+    private final int[] neqIds;
+
+    /**
+     * The range of each value in neqIds.
+     */
+    private final Map<Object, int[]> neqRanges;
+
+    /**
+     * The range predicates per value type.
+     */
+    private final Map<Class<?>, RangeIndex> rangeIndexes;
+
+    FieldIndex(final String field, final List<Map.Entry<Integer, RuleBasedCCPredicate>> predicates) {
+      this.field = field;
+      final List<Integer> all = new ArrayList<>(predicates.size());
+      final Map<Object, List<Integer>> eq = new HashMap<>();
+      final Map<Object, List<Integer>> neq = new LinkedHashMap<>();
+      final Map<Class<?>, List<Map.Entry<Integer, RuleBasedCCPredicate>>> ranges = new HashMap<>();
+      for (final Map.Entry<Integer, RuleBasedCCPredicate> entry : predicates) {
+        final RuleBasedCCPredicate predicate = entry.getValue();
+        all.add(entry.getKey());
+        if (predicate instanceof RuleBasedEQPredicate) {
+          eq.computeIfAbsent(predicate.getValue(), value -> new ArrayList<>()).add(entry.getKey());
+        } else if (predicate instanceof RuleBasedNEQPredicate) {
+          neq.computeIfAbsent(predicate.getValue(), value -> new ArrayList<>()).add(entry.getKey());
+        } else {
+          ranges.computeIfAbsent(predicate.getValue().getClass(), type -> new ArrayList<>()).add(entry);
+        }
+      }
+
+      this.allIds = toArray(all);
+      this.eqIds = new HashMap<>();
+      for (final Map.Entry<Object, List<Integer>> entry : eq.entrySet()) {
+        eqIds.put(entry.getKey(), toArray(entry.getValue()));
+      }
+      final List<Integer> neqList = new ArrayList<>();
+      this.neqRanges = new HashMap<>();
+      for (final Map.Entry<Object, List<Integer>> entry : neq.entrySet()) {
+        neqRanges.put(entry.getKey(), new int[]{neqList.size(), neqList.size() + entry.getValue().size()});
+        neqList.addAll(entry.getValue());
+      }
+      this.neqIds = toArray(neqList);
+      this.rangeIndexes = new HashMap<>();
+      for (final Map.Entry<Class<?>, List<Map.Entry<Integer, RuleBasedCCPredicate>>> entry : ranges.entrySet()) {
+        rangeIndexes.put(entry.getKey(), new RangeIndex(entry.getValue()));
+      }
+    }
+
+    int match(final Object value, final int[] output, final int offset) {
+      if (value == null) {
+        return append(allIds, 0, allIds.length, output, offset);
+      }
+      int position = offset;
+      final int[] eq = eqIds.get(value);
+      if (eq != null) {
+        position = append(eq, 0, eq.length, output, position);
+      }
+      // NEQ predicates except the ones that have the same value
+      final int[] excluded = neqRanges.get(value);
+      if (excluded == null) {
+        position = append(neqIds, 0, neqIds.length, output, position);
+      } else {
+        position = append(neqIds, 0, excluded[0], output, position);
+        position = append(neqIds, excluded[1], neqIds.length, output, position);
+      }
+      for (final Map.Entry<Class<?>, RangeIndex> entry : rangeIndexes.entrySet()) {
+        if (entry.getKey().equals(value.getClass())) {
+          position = entry.getValue().match(toComparable(value), output, position);
+        } else {
+          position = entry.getValue().matchAll(output, position);
+        }
+      }
+      return position;
+    }
+  }
+
+  /**
+   * The GT, GE, LT and LE predicates on a field whose values have the same type.
+   */
+  private static final class RangeIndex {
+    private final SortedValues gt;
+    private final SortedValues ge;
+    private final SortedValues lt;
+    private final SortedValues le;
+
+    RangeIndex(final List<Map.Entry<Integer, RuleBasedCCPredicate>> predicates) {
+      final List<Map.Entry<Integer, RuleBasedCCPredicate>> gtList = new ArrayList<>();
+      final List<Map.Entry<Integer, RuleBasedCCPredicate>> geList = new ArrayList<>();
+      final List<Map.Entry<Integer, RuleBasedCCPredicate>> ltList = new ArrayList<>();
+      final List<Map.Entry<Integer, RuleBasedCCPredicate>> leList = new ArrayList<>();
+      for (final Map.Entry<Integer, RuleBasedCCPredicate> entry : predicates) {
+        if (entry.getValue() instanceof RuleBasedGTPredicate) {
+          gtList.add(entry);
+        } else if (entry.getValue() instanceof RuleBasedGEPredicate) {
+          geList.add(entry);
+        } else if (entry.getValue() instanceof RuleBasedLTPredicate) {
+          ltList.add(entry);
+        } else {
+          leList.add(entry);
+        }
+      }
+      this.gt = new SortedValues(gtList);
+      this.ge = new SortedValues(geList);
+      this.lt = new SortedValues(ltList);
+      this.le = new SortedValues(leList);
+    }
+
+    int match(final Comparable<Object> value, final int[] output, final int offset) {
+      int position = offset;
+      // input > predicate value
+      position = append(gt.ids, 0, gt.lowerBound(value), output, position);
+      // input >= predicate value
+      position = append(ge.ids, 0, ge.upperBound(value), output, position);
+      // input < predicate value
+      position = append(lt.ids, lt.upperBound(value), lt.ids.length, output, position);
+      // input <= predicate value
+      return append(le.ids, le.lowerBound(value), le.ids.length, output, position);
+    }
+
+    int matchAll(final int[] output, final int offset) {
+      int position = offset;
+      position = append(gt.ids, 0, gt.ids.length, output, position);
+      position = append(ge.ids, 0, ge.ids.length, output, position);
+      position = append(lt.ids, 0, lt.ids.length, output, position);
+      return append(le.ids, 0, le.ids.length, output, position);
+    }
+  }
+
+  /**
+   * The ids of predicates sorted by their values.
+   */
+  private static final class SortedValues {
+    private final Object[] values;
+    private final int[] ids;
+
+    SortedValues(final List<Map.Entry<Integer, RuleBasedCCPredicate>> predicates) {
+      final List<Map.Entry<Integer, RuleBasedCCPredicate>> sorted = new ArrayList<>(predicates);
+      sorted.sort(Comparator.comparing(entry -> toComparable(entry.getValue().getValue())));
+      this.values = new Object[sorted.size()];
+      this.ids = new int[sorted.size()];
+      for (int i = 0; i < sorted.size(); i++) {
+        values[i] = sorted.get(i).getValue().getValue();
+        ids[i] = sorted.get(i).getKey();
+      }
+    }
+
+    /**
+     * @return the first position whose value is greater than or equal to the value
+     */
+    int lowerBound(final Comparable<Object> value) {
+      int low = 0;
+      int high = values.length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (value.compareTo(values[mid]) > 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * @return the first position whose value is greater than the value
+     */
+    int upperBound(final Comparable<Object> value) {
+      int low = 0;
+      int high = values.length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (value.compareTo(values[mid]) >= 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.metrics.QueryMetrics;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -67,6 +68,12 @@ public interface Query {
    */
   AtomicLong getProcessingEvent();
 
+  /**
+   * Get the metrics of the query.
+   * @return query metrics
+   */
+  QueryMetrics getMetrics();
+
   /**
    * Set the query load.
    */
@@ -18,6 +18,7 @@ package edu.snu.mist.core.task;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.OutputEmitter;
 
 import java.util.Iterator;
 import java.util.Map;
@@ -37,6 +38,31 @@ public final class QueryStarterUtils {
    */
   public static void setUpOutputEmitters(final ExecutionDag submittedExecutionDag,
                                          final Query query) {
+    setUpOutputEmitters(submittedExecutionDag, query, false);
+  }
+
+  /**
+   * Sets the OutputEmitters of the sources, operators and sinks.
+   * @param submittedExecutionDag the dag of the submitted query
+   * @param immutableEvents true if the events are shared by the downstream operators without copying
+   */
+  public static void setUpOutputEmitters(final ExecutionDag submittedExecutionDag,
+                                         final Query query,
+                                         final boolean immutableEvents) {
+    setUpOutputEmitters(submittedExecutionDag, query, immutableEvents, null);
+  }
+
+  /**
+   * Sets the OutputEmitters of the sources, operators and sinks.
+   * @param submittedExecutionDag the dag of the submitted query
+   * @param immutableEvents true if the events are shared by the downstream operators without copying
+   * @param sourceOutputEmitterFactory the factory of the source output emitters,
+   *                                   or null if the emitters use the default parameters
+   */
+  public static void setUpOutputEmitters(final ExecutionDag submittedExecutionDag,
+                                         final Query query,
+                                         final boolean immutableEvents,
+                                         final SourceOutputEmitterFactory sourceOutputEmitterFactory) {
     final DAG<ExecutionVertex, MISTEdge> dag = submittedExecutionDag.getDag();
     final Iterator<ExecutionVertex> iterator = GraphUtils.topologicalSort(dag);
     while (iterator.hasNext()) {
@@ -46,7 +72,9 @@ public final class QueryStarterUtils {
           final PhysicalSource source = (PhysicalSource)executionVertex;
           final Map<ExecutionVertex, MISTEdge> nextOps = dag.getEdges(source);
           // Sets output emitters
-          source.setOutputEmitter(new NonBlockingQueueSourceOutputEmitter<>(nextOps, query));
+          source.setOutputEmitter(sourceOutputEmitterFactory == null
+              ? new NonBlockingQueueSourceOutputEmitter<>(nextOps, query, immutableEvents)
+              : sourceOutputEmitterFactory.newSourceOutputEmitter(nextOps, query, immutableEvents));
           break;
         }
         case OPERATOR: {
@@ -54,7 +82,7 @@ public final class QueryStarterUtils {
           final Map<ExecutionVertex, MISTEdge> edges =
               dag.getEdges(operator);
           // Sets output emitters and operator chain manager for operator.
-          operator.getOperator().setOutputEmitter(new OperatorOutputEmitter(edges));
+          operator.getOperator().setOutputEmitter(new OperatorOutputEmitter(edges, immutableEvents));
           break;
         }
         case SINK: {
@@ -65,4 +93,30 @@ public final class QueryStarterUtils {
       }
     }
   }
+
+  /**
+   * Updates the routes of the output emitter of the vertex after its outgoing edges are changed.
+   * @param executionVertex execution vertex
+   * @param dag the dag that contains the vertex
+   * @return true if the output emitter of the vertex is updated
+   */
+  public static boolean updateOutputRoutes(final ExecutionVertex executionVertex,
+                                           final DAG<ExecutionVertex, MISTEdge> dag) {
+    final OutputEmitter outputEmitter;
+    switch (executionVertex.getType()) {
+      case SOURCE:
+        outputEmitter = ((PhysicalSource) executionVertex).getSourceOutputEmitter();
+        break;
+      case OPERATOR:
+        outputEmitter = ((PhysicalOperator) executionVertex).getOperator().getOutputEmitter();
+        break;
+      default:
+        return false;
+    }
+    if (outputEmitter instanceof RoutingOutputEmitter) {
+      ((RoutingOutputEmitter) outputEmitter).updateRoutes(dag.getEdges(executionVertex));
+      return true;
+    }
+    return false;
+  }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.OutputEmitter;
+
+import java.util.Map;
+
+/**
+ * This is an output emitter that forwards the outputs through an OutputRoutingTable.
+ */
+public interface RoutingOutputEmitter extends OutputEmitter {
+
+  /**
+   * Update the routing table after the outgoing edges of the vertex are changed.
+   * @param nextOperators the outgoing edges of the vertex
+   */
+  void updateRoutes(Map<ExecutionVertex, MISTEdge> nextOperators);
+}
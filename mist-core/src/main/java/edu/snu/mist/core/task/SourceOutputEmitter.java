@@ -15,8 +15,11 @@
  */
 package edu.snu.mist.core.task;
 
+import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.OutputEmitter;
 
+import java.util.List;
+
 /**
  * This interface forwards the emitted output as a input of next operators.
  */
@@ -34,6 +37,30 @@ public interface SourceOutputEmitter extends OutputEmitter {
    */
   int numberOfEvents();
 
+  /**
+   * Get the events that are in the queue without removing them.
+   * This should be called while the query is not processed.
+   * @return the events in the queue
+   */
+  List<MistEvent> getQueuedEvents();
+
+  /**
+   * Hold the events that are emitted after this call instead of putting them into the queue.
+   * When this method returns, no event is being put into the queue, so the queued events do not change.
+   */
+  void holdEvents();
+
+  /**
+   * Put the held events into the queue and stop holding the events.
+   */
+  void releaseHeldEvents();
+
+  /**
+   * Remove and return the held events. The events emitted after this call are still held.
+   * @return the held events in the emission order
+   */
+  List<MistEvent> takeHeldEvents();
+
   /**
    * Get the query that holds this source.
    */
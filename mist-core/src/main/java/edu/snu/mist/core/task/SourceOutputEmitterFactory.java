@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.parameters.SourceBackpressurePolicy;
+import edu.snu.mist.core.parameters.SourceBackpressureTimeout;
+import edu.snu.mist.core.parameters.SourceEventBatchSize;
+import edu.snu.mist.core.parameters.SourceEventQueueCapacity;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.Map;
+
+/**
+ * This class creates the source output emitters with the configured queue and back-pressure parameters.
+ */
+public final class SourceOutputEmitterFactory {
+
+  /**
+   * The capacity of the event queue of a source.
+   */
+  private final int queueCapacity;
+
+  /**
+   * The maximum number of events that are drained at once.
+   */
+  private final int batchSize;
+
+  /**
+   * The back-pressure policy.
+   */
+  private final NonBlockingQueueSourceOutputEmitter.BackpressurePolicy backpressurePolicy;
+
+  /**
+   * The back-pressure timeout in milliseconds.
+   */
+  private final long backpressureTimeout;
+
+  @Inject
+  private SourceOutputEmitterFactory(@Parameter(SourceEventQueueCapacity.class) final int queueCapacity,
+                                     @Parameter(SourceEventBatchSize.class) final int batchSize,
+                                     @Parameter(SourceBackpressurePolicy.class) final String backpressurePolicy,
+                                     @Parameter(SourceBackpressureTimeout.class) final long backpressureTimeout) {
+    this.queueCapacity = queueCapacity;
+    this.batchSize = batchSize;
+    this.backpressurePolicy = NonBlockingQueueSourceOutputEmitter.BackpressurePolicy.of(backpressurePolicy);
+    this.backpressureTimeout = backpressureTimeout;
+  }
+
+  /**
+   * Creates a source output emitter.
+   * @param nextOperators the next operators of the source
+   * @param query the query that contains the source
+   * @param immutableEvents true if the events are shared by the downstream operators without copying
+   * @return source output emitter
+   */
+  public SourceOutputEmitter newSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                                    final Query query,
+                                                    final boolean immutableEvents) {
+    return new NonBlockingQueueSourceOutputEmitter<>(nextOperators, query, queueCapacity, batchSize,
+        immutableEvents, backpressurePolicy, backpressureTimeout);
+  }
+}
@@ -28,11 +28,20 @@ import java.util.logging.Logger;
 /**
  * This class is used to serialize the states of operators.
  * The states must be ensured that they implement the Serializable interface.
+ * The states are stored as raw bytes of java serialization.
+ * The states that were encoded into Base64 strings by the previous versions can still be deserialized.
  */
 public final class StateSerializer {
 
   private static final Logger LOG = Logger.getLogger(StateSerializer.class.getName());
 
+  /**
+   * The first two bytes of a java serialization stream.
+   * A Base64 encoded state never starts with these bytes.
+   */
+  private static final byte STREAM_MAGIC_FIRST = (byte) 0xAC;
+  private static final byte STREAM_MAGIC_SECOND = (byte) 0xED;
+
   /**
    * Receives a Map<String, Object>, serializes the values, and returns it.
    * @param stateMap
@@ -68,8 +77,7 @@ public final class StateSerializer {
    */
   private static ByteBuffer serializeState(final Object obj) throws RuntimeException {
     try {
-      final String serializedString = SerializeUtils.serializeToString((Serializable) obj);
-      return ByteBuffer.wrap(serializedString.getBytes());
+      return ByteBuffer.wrap(SerializeUtils.serializeToBytes((Serializable) obj));
     } catch (final IOException e) {
       LOG.log(Level.SEVERE, "An exception occured while serializing the state.");
       e.printStackTrace();
@@ -116,7 +124,10 @@ public final class StateSerializer {
     final byte[] bytes = new byte[byteBuffer.remaining()];
     byteBuffer.get(bytes);
     try {
-      if (classLoader != null) {
+      if (bytes.length >= 2 && bytes[0] == STREAM_MAGIC_FIRST && bytes[1] == STREAM_MAGIC_SECOND) {
+        return SerializeUtils.deserializeFromBytes(bytes, classLoader);
+      } else if (classLoader != null) {
+        // The state was encoded into a Base64 string.
         return SerializeUtils.deserializeFromString(new String(bytes), classLoader);
       } else {
         return SerializeUtils.deserializeFromString(new String(bytes));
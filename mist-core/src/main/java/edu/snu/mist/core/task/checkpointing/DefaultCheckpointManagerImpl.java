@@ -18,7 +18,6 @@ package edu.snu.mist.core.task.checkpointing;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
 import edu.snu.mist.core.task.Query;
 import edu.snu.mist.core.task.QueryManager;
-import edu.snu.mist.core.task.QueryRemover;
 import edu.snu.mist.core.task.groupaware.ApplicationInfo;
 import edu.snu.mist.core.task.groupaware.ApplicationMap;
 import edu.snu.mist.core.task.groupaware.Group;
@@ -36,6 +35,7 @@ import org.apache.reef.tang.annotations.Parameter;
 import javax.inject.Inject;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -162,11 +162,13 @@ public final class DefaultCheckpointManagerImpl implements CheckpointManager {
           new Object[] {groupId});
       return;
     }
-    final QueryRemover remover = group.getApplicationInfo().getQueryRemover();
-    for (final Query query : group.getQueries()) {
-      remover.deleteQuery(query.getId());
+    // The queries are deleted through the query manager, so that their metrics are unregistered as well.
+    final QueryManager queryManager = queryManagerFuture.get();
+    for (final Query query : new ArrayList<>(group.getQueries())) {
+      queryManager.delete(groupId, query.getId());
     }
     applicationMap.remove(groupId);
+    checkpointStore.removeGroup(groupId);
     tableModifierFuture.get().addEvent(
         new WritingEvent(WritingEvent.EventType.GROUP_REMOVE, group));
   }
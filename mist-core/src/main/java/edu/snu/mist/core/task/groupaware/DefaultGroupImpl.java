@@ -322,6 +322,11 @@ final class DefaultGroupImpl implements Group {
 
   @Override
   public GroupCheckpoint checkpoint() {
+    return checkpoint(new HashMap<>());
+  }
+
+  @Override
+  public GroupCheckpoint checkpoint(final Map<String, Map<String, Long>> previousTimestamps) {
     final Map<String, QueryCheckpoint> queryCheckpointMap = new HashMap<>();
     final GroupMinimumLatestWatermarkTimeStamp groupTimestamp = new GroupMinimumLatestWatermarkTimeStamp();
 
@@ -332,21 +337,33 @@ final class DefaultGroupImpl implements Group {
       final String queryId = query.getId();
       LOG.log(Level.INFO, "query with id {0} is being checkpointed", new Object[]{queryId});
       queryCheckpointMap.put(queryId,
-          getQueryCheckpoint(queryIdConfigDagMap.get(queryId), groupTimestamp));
+          getQueryCheckpoint(queryIdConfigDagMap.get(queryId), groupTimestamp, previousTimestamps.get(queryId)));
+    }
+
+    // The queries deleted since the previous checkpoint should be removed from the merged checkpoint.
+    final List<String> removedQueries = new ArrayList<>();
+    for (final String queryId : previousTimestamps.keySet()) {
+      if (!queryCheckpointMap.containsKey(queryId)) {
+        removedQueries.add(queryId);
+      }
     }
 
     return GroupCheckpoint.newBuilder()
         .setCheckpointTimestamp(groupTimestamp.getValue())
         .setGroupId(groupId)
         .setQueryCheckpointMap(queryCheckpointMap)
+        .setRemovedQueries(removedQueries)
         .build();
   }
 
   /**
    * Get the checkpoint data for the query.
+   * The vertices whose checkpoint timestamps are same as the previous ones are skipped.
+   * @param previousVertexTimestamps the previous checkpoint timestamps of the vertices, or null if there is none
    */
   private QueryCheckpoint getQueryCheckpoint(final DAG<ConfigVertex, MISTEdge> configDag,
-                                             final GroupMinimumLatestWatermarkTimeStamp groupTimestamp) {
+                                             final GroupMinimumLatestWatermarkTimeStamp groupTimestamp,
+                                             final Map<String, Long> previousVertexTimestamps) {
 
     // Find the minimum of the available checkpoint timestamps for the group.
     // Replaying will start from this timestamp, if this ConfigDag is used for recovery.
@@ -366,8 +383,10 @@ final class DefaultGroupImpl implements Group {
     }
 
     final Map<String, StateWithTimestamp> stateWithTimestampMap = new HashMap<>();
+    final Set<String> vertexIds = new HashSet<>();
 
     for (final ConfigVertex cv : configDag.getVertices()) {
+      vertexIds.add(cv.getId());
       final ExecutionVertex ev = configExecutionVertexMap.get(cv);
       Map<String, Object> state = null;
       Long checkpointTimestamp = 0L;
@@ -376,7 +395,12 @@ final class DefaultGroupImpl implements Group {
         if (op instanceof StateHandler) {
           final StateHandler stateHandler = (StateHandler) op;
           checkpointTimestamp = stateHandler.getMaxAvailableTimestamp(groupTimestamp.getValue());
-          if (checkpointTimestamp == null) {
+          final Long previousTimestamp = getPreviousTimestamp(previousVertexTimestamps, cv.getId());
+          if (previousTimestamp != null
+              && (checkpointTimestamp == null || checkpointTimestamp.equals(previousTimestamp))) {
+            // There is no new state since the previous checkpoint.
+            continue;
+          } else if (checkpointTimestamp == null) {
             state = new HashMap<>();
             checkpointTimestamp = 0L;
           } else {
@@ -384,17 +408,37 @@ final class DefaultGroupImpl implements Group {
           }
         }
       }
+      if (state == null && getPreviousTimestamp(previousVertexTimestamps, cv.getId()) != null) {
+        // The stateless vertex has already been checkpointed.
+        continue;
+      }
       stateWithTimestampMap.put(cv.getId(), StateWithTimestamp.newBuilder()
           .setVertexState(state)
           .setCheckpointTimestamp(checkpointTimestamp)
           .build());
     }
 
+    // The vertices removed since the previous checkpoint should be removed from the merged checkpoint.
+    final List<String> removedVertices = new ArrayList<>();
+    if (previousVertexTimestamps != null) {
+      for (final String vertexId : previousVertexTimestamps.keySet()) {
+        if (!vertexIds.contains(vertexId)) {
+          removedVertices.add(vertexId);
+        }
+      }
+    }
+
     return QueryCheckpoint.newBuilder()
         .setQueryState(stateWithTimestampMap)
+        .setRemovedVertices(removedVertices)
         .build();
   }
 
+  private static Long getPreviousTimestamp(final Map<String, Long> previousVertexTimestamps,
+                                          final String vertexId) {
+    return previousVertexTimestamps == null ? null : previousVertexTimestamps.get(vertexId);
+  }
+
   /**
    * This class serves as a wrapper for the Long class.
    * Its performance is better than that of an AtomicLong class or volatile long type
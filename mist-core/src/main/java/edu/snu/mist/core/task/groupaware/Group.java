@@ -24,6 +24,7 @@ import edu.snu.mist.formats.avro.GroupCheckpoint;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -173,4 +174,12 @@ public interface Group extends AutoCloseable {
    * Get a checkpoint of this group.
    */
   GroupCheckpoint checkpoint();
+
+  /**
+   * Get a delta checkpoint of this group.
+   * The checkpoint only contains the vertex states whose checkpoint timestamps are different from
+   * the previous checkpoint timestamps, so the unchanged states are not serialized again.
+   * @param previousTimestamps the map of query id to the map of vertex id to the previous checkpoint timestamp
+   */
+  GroupCheckpoint checkpoint(Map<String, Map<String, Long>> previousTimestamps);
 }
\ No newline at end of file
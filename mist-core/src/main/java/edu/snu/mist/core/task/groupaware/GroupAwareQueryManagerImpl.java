@@ -28,6 +28,7 @@ import edu.snu.mist.core.task.groupaware.parameters.ApplicationIdentifier;
 import edu.snu.mist.core.task.groupaware.parameters.JarFilePath;
 import edu.snu.mist.core.task.merging.ConfigExecutionVertexMap;
 import edu.snu.mist.core.task.merging.QueryIdConfigDagMap;
+import edu.snu.mist.core.task.metrics.QueryMetricsRegistry;
 import edu.snu.mist.core.task.stores.QueryInfoStore;
 import edu.snu.mist.formats.avro.AvroDag;
 import edu.snu.mist.formats.avro.QueryCheckpoint;
@@ -41,6 +42,8 @@ import org.apache.reef.tang.exceptions.InjectionException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Level;
@@ -120,6 +123,11 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
    */
   private final CheckpointManager checkpointManager;
 
+  /**
+   * The registry of the query metrics.
+   */
+  private final QueryMetricsRegistry queryMetricsRegistry;
+
   /**
    * Default query manager in MistTask.
    */
@@ -137,7 +145,8 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
                                      final GroupMap groupMap,
                                      @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
                                      final GroupIdRequestor groupIdRequestor,
-                                     final CheckpointManager checkpointManager) {
+                                     final CheckpointManager checkpointManager,
+                                     final QueryMetricsRegistry queryMetricsRegistry) {
     this.scheduler = schedulerWrapper.getScheduler();
     this.planStore = planStore;
     this.eventProcessorManager = eventProcessorManager;
@@ -152,6 +161,7 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
     this.checkpointPeriod = checkpointPeriod;
     this.checkpointManager = checkpointManager;
     this.groupIdRequestor = groupIdRequestor;
+    this.queryMetricsRegistry = queryMetricsRegistry;
   }
 
   /**
@@ -241,6 +251,19 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
         new Tuple<>(applicationInfo, query)));
     // Start the submitted dag
     applicationInfo.getQueryStarter().start(queryId, query, configDag, applicationInfo.getJarFilePath());
+    // Export the metrics of the query
+    final ConfigExecutionVertexMap configExecutionVertexMap = applicationInfo.getConfigExecutionVertexMap();
+    query.getMetrics().setVertexSupplier(() -> {
+      final Collection<ExecutionVertex> vertices = new ArrayList<>();
+      for (final ConfigVertex configVertex : configDag.getVertices()) {
+        final ExecutionVertex executionVertex = configExecutionVertexMap.get(configVertex);
+        if (executionVertex != null) {
+          vertices.add(executionVertex);
+        }
+      }
+      return vertices;
+    });
+    queryMetricsRegistry.register(query.getMetrics());
     return query;
   }
 
@@ -298,6 +321,7 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
   @Override
   public QueryControlResult delete(final String groupId, final String queryId) {
     groupMap.get(groupId).getApplicationInfo().getQueryRemover().deleteQuery(queryId);
+    queryMetricsRegistry.unregister(queryId);
     final QueryControlResult queryControlResult = new QueryControlResult();
     queryControlResult.setQueryId(queryId);
     queryControlResult.setIsSuccess(true);
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupEvent;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This schedules groups by using a lock-free deque per event processor.
+ * The owner takes the groups from the head of its deque, and an idle event processor steals the groups
+ * from the head of the other deques, so the group that waits the longest is processed first.
+ * A stolen group is still assigned to the event processor of the victim,
+ * so this selector should be used with event processors that process any group they select
+ * (i.e., DefaultEventProcessor).
+ */
+public final class WorkStealingGroupSelector implements NextGroupSelector {
+
+  /**
+   * The maximum time that an idle owner parks before it re-scans the deques.
+   * The owner is unparked when a group is scheduled, so this is only a safety net.
+   */
+  private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  /**
+   * The time to wait before re-scanning the deques when only the groups being processed are found.
+   */
+  private static final long BUSY_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  /**
+   * The groups scheduled to this selector.
+   */
+  private final Deque<Group> deque;
+
+  /**
+   * The factory that keeps the selectors that can be stolen from.
+   */
+  private final WorkStealingGroupSelectorFactory factory;
+
+  /**
+   * The thread that selects groups from this selector.
+   */
+  private volatile Thread owner;
+
+  /**
+   * True if the owner is parked or about to park.
+   */
+  private volatile boolean idle;
+
+  WorkStealingGroupSelector(final WorkStealingGroupSelectorFactory factory) {
+    this.deque = new ConcurrentLinkedDeque<>();
+    this.factory = factory;
+  }
+
+  @Override
+  public Group getNextExecutableGroup() {
+    owner = Thread.currentThread();
+    while (true) {
+      final Group group = selectGroup();
+      if (group != null) {
+        return group;
+      }
+
+      // Announce that this selector is idle and re-scan the deques
+      // in order not to miss a group that was scheduled before the announcement
+      idle = true;
+      factory.addIdleSelector(this);
+      final Group recheckedGroup = selectGroup();
+      if (recheckedGroup == null) {
+        LockSupport.parkNanos(this, MAX_IDLE_NANOS);
+      }
+      idle = false;
+      factory.removeIdleSelector(this);
+
+      if (Thread.interrupted()) {
+        throw new RuntimeException(new InterruptedException("Interrupted while waiting for a group"));
+      }
+      if (recheckedGroup != null) {
+        return recheckedGroup;
+      }
+    }
+  }
+
+  /**
+   * Select a group from the own deque, or steal one from the other selectors.
+   * @return a group whose status is changed to processing, or null if there is no executable group
+   */
+  private Group selectGroup() {
+    while (true) {
+      boolean busyGroupFound = false;
+
+      Group group = deque.pollFirst();
+      if (group != null) {
+        if (group.setProcessingFromReady()) {
+          return group;
+        }
+        // The group is being processed by another event processor
+        deque.addLast(group);
+        busyGroupFound = true;
+      }
+
+      final List<WorkStealingGroupSelector> victims = factory.getSelectors();
+      final int size = victims.size();
+      final int start = size == 0 ? 0 : ThreadLocalRandom.current().nextInt(size);
+      for (int i = 0; i < size; i++) {
+        final WorkStealingGroupSelector victim = victims.get((start + i) % size);
+        if (victim == this) {
+          continue;
+        }
+        group = victim.deque.pollFirst();
+        if (group != null) {
+          if (group.setProcessingFromReady()) {
+            return group;
+          }
+          victim.deque.addLast(group);
+          busyGroupFound = true;
+        }
+      }
+
+      if (!busyGroupFound) {
+        return null;
+      }
+      // Retry until the group that is being processed becomes ready
+      LockSupport.parkNanos(this, BUSY_RETRY_NANOS);
+    }
+  }
+
+  /**
+   * Unpark the owner if it waits for a group.
+   * @return true if the owner was idle
+   */
+  boolean wakeUp() {
+    final Thread thread = owner;
+    if (idle && thread != null) {
+      LockSupport.unpark(thread);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Reschedule the group if it is not miss.
+   * If the owner is busy, one of the idle selectors is woken up to steal the group.
+   */
+  @Override
+  public void reschedule(final Group groupInfo, final boolean miss) {
+    if (!miss) {
+      deque.addLast(groupInfo);
+      if (!wakeUp()) {
+        factory.wakeUpIdleSelector();
+      }
+    }
+  }
+
+  @Override
+  public void reschedule(final Collection<Group> groupInfos) {
+    for (final Group groupInfo : groupInfos) {
+      reschedule(groupInfo, false);
+    }
+  }
+
+  @Override
+  public boolean removeDispatchedGroup(final Group group) {
+    return deque.remove(group);
+  }
+
+  /**
+   * Get the number of groups that are scheduled to this selector.
+   * @return the number of scheduled groups
+   */
+  int numberOfScheduledGroups() {
+    return deque.size();
+  }
+
+  @Override
+  public void onNext(final GroupEvent groupEvent) {
+  }
+
+  /**
+   * Close the selector and hand over the remaining groups to the other selectors.
+   */
+  @Override
+  public void close() throws Exception {
+    factory.removeSelector(this);
+    final List<WorkStealingGroupSelector> selectors = factory.getSelectors();
+    if (!selectors.isEmpty()) {
+      Group group = deque.pollFirst();
+      int i = 0;
+      while (group != null) {
+        selectors.get(i % selectors.size()).reschedule(group, false);
+        i += 1;
+        group = deque.pollFirst();
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Work-stealing group selector factory.
+ * It keeps the created selectors so that an idle selector can steal groups from the others.
+ */
+public final class WorkStealingGroupSelectorFactory implements NextGroupSelectorFactory {
+
+  /**
+   * The selectors that are not closed.
+   */
+  private final List<WorkStealingGroupSelector> selectors;
+
+  /**
+   * The selectors whose owners wait for a group.
+   */
+  private final Queue<WorkStealingGroupSelector> idleSelectors;
+
+  @Inject
+  private WorkStealingGroupSelectorFactory() {
+    this.selectors = new CopyOnWriteArrayList<>();
+    this.idleSelectors = new ConcurrentLinkedQueue<>();
+  }
+
+  @Override
+  public NextGroupSelector newInstance() {
+    final WorkStealingGroupSelector selector = new WorkStealingGroupSelector(this);
+    selectors.add(selector);
+    return selector;
+  }
+
+  /**
+   * Get the selectors that are not closed.
+   * @return selectors
+   */
+  List<WorkStealingGroupSelector> getSelectors() {
+    return selectors;
+  }
+
+  void removeSelector(final WorkStealingGroupSelector selector) {
+    selectors.remove(selector);
+    idleSelectors.remove(selector);
+  }
+
+  void addIdleSelector(final WorkStealingGroupSelector selector) {
+    idleSelectors.add(selector);
+  }
+
+  void removeIdleSelector(final WorkStealingGroupSelector selector) {
+    idleSelectors.remove(selector);
+  }
+
+  /**
+   * Wake up an idle selector in order to steal a newly scheduled group.
+   */
+  void wakeUpIdleSelector() {
+    WorkStealingGroupSelector selector = idleSelectors.poll();
+    while (selector != null) {
+      if (selector.wakeUp()) {
+        return;
+      }
+      selector = idleSelectors.poll();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The option of the event processor.
+ * "affinity" pins each event processor to a core and processes only the groups assigned to it,
+ * and "default" processes any group selected by the next group selector.
+ * The "stealing" next group selector requires the "default" event processor.
+ */
+@NamedParameter(doc = "The event processor option (affinity or default)",
+    short_name = "event_processor", default_value = "affinity")
+public final class EventProcessorOption implements Name<String> {
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The option of the next group selector.
+ * "queue" selects groups from a blocking queue per event processor,
+ * and "stealing" lets idle event processors steal groups from the busy ones.
+ */
+@NamedParameter(doc = "The next group selector option (queue or stealing)",
+    short_name = "group_selector", default_value = "queue")
+public final class NextGroupSelectorOption implements Name<String> {
+}
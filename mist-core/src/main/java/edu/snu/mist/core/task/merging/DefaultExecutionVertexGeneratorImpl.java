@@ -19,6 +19,10 @@ import edu.snu.mist.core.operators.StateHandler;
 import edu.snu.mist.core.sources.DataGenerator;
 import edu.snu.mist.core.sources.EventGenerator;
 import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.metrics.VertexMetrics;
+import edu.snu.mist.core.task.metrics.parameters.MetricsSamplingInterval;
+import edu.snu.mist.core.task.migration.QueuedSourceEvents;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.formats.AvroConfigurationSerializer;
 
 import javax.inject.Inject;
@@ -38,13 +42,21 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
   private final PhysicalObjectGenerator physicalObjectGenerator;
   private final AvroConfigurationSerializer avroConfigurationSerializer;
 
+  /**
+   * The number of events per latency sample of the operators and sinks.
+   */
+  private final int metricsSamplingInterval;
+
   @Inject
   private DefaultExecutionVertexGeneratorImpl(final IdGenerator idGenerator,
                                               final AvroConfigurationSerializer avroConfigurationSerializer,
-                                              final PhysicalObjectGenerator physicalObjectGenerator) {
+                                              final PhysicalObjectGenerator physicalObjectGenerator,
+                                              @Parameter(MetricsSamplingInterval.class)
+                                              final int metricsSamplingInterval) {
     this.idGenerator = idGenerator;
     this.avroConfigurationSerializer = avroConfigurationSerializer;
     this.physicalObjectGenerator = physicalObjectGenerator;
+    this.metricsSamplingInterval = metricsSamplingInterval;
   }
 
   @Override
@@ -55,19 +67,14 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
     switch (configVertex.getType()) {
       case SOURCE: {
         final Map<String, String> conf = configVertex.getConfiguration();
-        // Create an event generator
-        final EventGenerator eventGenerator = physicalObjectGenerator.newEventGenerator(conf, classLoader);
         // Create a data generator
-        final DataGenerator dataGenerator = physicalObjectGenerator.newDataGenerator(conf, classLoader);
-        // Create a source
-        final String id = idGenerator.generateSourceId();
-        return new PhysicalSourceImpl<>(id, conf, dataGenerator, eventGenerator);
+        return newSource(configVertex, physicalObjectGenerator.newDataGenerator(conf, classLoader), classLoader);
       }
       case OPERATOR: {
         final String operatorId = idGenerator.generateOperatorId();
         final Map<String, String> conf = configVertex.getConfiguration();
         final PhysicalOperator operator = new DefaultPhysicalOperatorImpl(operatorId, conf,
-            physicalObjectGenerator.newOperator(conf, classLoader));
+            physicalObjectGenerator.newOperator(conf, classLoader), new VertexMetrics(metricsSamplingInterval));
         if (configVertex.getState().size() != 0) {
           ((StateHandler) operator.getOperator()).setState(
               StateSerializer.deserializeStateMap(configVertex.getState(), classLoader));
@@ -81,11 +88,31 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
       case SINK:
         final Map<String, String> conf = configVertex.getConfiguration();
         final String id = idGenerator.generateSinkId();
-        final PhysicalSink sink = new PhysicalSinkImpl<>(id, conf,
-            physicalObjectGenerator.newSink(conf, classLoader));
+        final PhysicalSink<?> sink = new PhysicalSinkImpl<>(id, conf,
+            physicalObjectGenerator.newSink(conf, classLoader), new VertexMetrics(metricsSamplingInterval));
         return sink;
       default:
         throw new IllegalArgumentException("Invalid vertex type: " + configVertex.getType());
     }
   }
+
+  /**
+   * Generates a source with the data generator and a new event generator for the type of the generated data.
+   * @param <T> data type
+   */
+  private <T> PhysicalSource newSource(final ConfigVertex configVertex,
+                                       final DataGenerator<T> dataGenerator,
+                                       final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+    final Map<String, String> conf = configVertex.getConfiguration();
+    // Create an event generator
+    final EventGenerator<T> eventGenerator = physicalObjectGenerator.newEventGenerator(conf, classLoader);
+    // Create a source
+    final String id = idGenerator.generateSourceId();
+    if (QueuedSourceEvents.hasQueuedEvents(configVertex)) {
+      // The source of a migrated query emits the events that were queued in the old source before new inputs
+      return new PhysicalSourceImpl<>(id, conf, dataGenerator, eventGenerator,
+          configVertex.getState(), classLoader);
+    }
+    return new PhysicalSourceImpl<>(id, conf, dataGenerator, eventGenerator);
+  }
 }
\ No newline at end of file
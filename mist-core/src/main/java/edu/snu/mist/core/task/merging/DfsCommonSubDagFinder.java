@@ -18,17 +18,27 @@ package edu.snu.mist.core.task.merging;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.migration.QueuedSourceEvents;
 
 import javax.inject.Inject;
-import java.util.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * This algorithm finds the common sub-dag between submitted dag and execution dag in DFS order.
  */
 final class DfsCommonSubDagFinder implements CommonSubDagFinder {
 
+  /**
+   * The index of the sources and the children of the execution vertices.
+   */
+  private final ExecutionVertexIndex executionVertexIndex;
+
   @Inject
-  private DfsCommonSubDagFinder() {
+  private DfsCommonSubDagFinder(final ExecutionVertexIndex executionVertexIndex) {
+    this.executionVertexIndex = executionVertexIndex;
   }
 
   /**
@@ -45,9 +55,12 @@ final class DfsCommonSubDagFinder implements CommonSubDagFinder {
     final Set<ConfigVertex> visited = new HashSet<>(submittedDag.numberOfVertices());
     final Set<ConfigVertex> markedVertices = new HashSet<>();
 
-    final Set<ExecutionVertex> sourcesInExecutionDag = executionDag.getDag().getRootVertices();
     for (final ConfigVertex submitVertex : submittedDag.getRootVertices()) {
-      final ExecutionVertex sameVertex = findSameVertex(sourcesInExecutionDag, submitVertex);
+      if (QueuedSourceEvents.hasQueuedEvents(submitVertex)) {
+        // The source of a migrated query is not shared
+        continue;
+      }
+      final ExecutionVertex sameVertex = executionVertexIndex.findSource(executionDag, submitVertex);
       if (sameVertex != null) {
         // do dfs search
         dfsSearch(executionDag, submittedDag, markedVertices, sameVertex, submitVertex, vertexMap, visited);
@@ -92,10 +105,7 @@ final class DfsCommonSubDagFinder implements CommonSubDagFinder {
     // We should compare each child node with the child nodes of the execution dag
     for (final Map.Entry<ConfigVertex, MISTEdge> entry :
         submittedDag.getEdges(currSubmitDagVertex).entrySet()) {
-      final Map<ExecutionVertex, MISTEdge> childNodesOfExecutionDag =
-          executionDag.getDag().getEdges(currExecutionDagVertex);
-      final ExecutionVertex sameVertex =
-          findSameVertex(childNodesOfExecutionDag.keySet(), entry.getKey());
+      final ExecutionVertex sameVertex = findSameChild(executionDag, currExecutionDagVertex, entry.getKey());
       if (sameVertex != null) {
         // First, we need to check if the vertex has union or join operator
         // dfs search
@@ -105,34 +115,19 @@ final class DfsCommonSubDagFinder implements CommonSubDagFinder {
   }
 
   /**
-   * Find a same execution vertex from the set of vertices.
-   * @param vertices a set of vertices
-   * @param v vertex to be found in the set of vertices
+   * Find a same child of the execution vertex by looking up the index.
+   * Only the operators are shared.
+   * @param executionDag execution dag
+   * @param parent parent vertex of the execution dag
+   * @param v vertex to be found in the children of the parent
    * @return same vertex with v
    */
-  private ExecutionVertex findSameVertex(final Collection<ExecutionVertex> vertices, final ConfigVertex v) {
-    switch (v.getType()) {
-      case OPERATOR:
-        for (final ExecutionVertex vertex : vertices) {
-          if (vertex.getType() == ExecutionVertex.Type.OPERATOR) {
-            if (v.getConfiguration().equals(((PhysicalOperator)vertex).getConfiguration())) {
-              return vertex;
-            }
-          }
-        }
-        break;
-      case SOURCE:
-        for (final ExecutionVertex vertex : vertices) {
-          if (vertex.getType() == ExecutionVertex.Type.SOURCE) {
-            final PhysicalSource vertexSource = (PhysicalSource)vertex;
-            if (vertexSource.getConfiguration().equals(v.getConfiguration())) {
-              return vertex;
-            }
-          }
-        }
-      default:
-        return null;
+  private ExecutionVertex findSameChild(final ExecutionDag executionDag,
+                                       final ExecutionVertex parent,
+                                       final ConfigVertex v) {
+    if (v.getType() != ExecutionVertex.Type.OPERATOR) {
+      return null;
     }
-    return null;
+    return executionVertexIndex.findChild(executionDag, parent, v);
   }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.merging;
+
+import edu.snu.mist.core.task.ConfigVertex;
+import edu.snu.mist.core.task.ExecutionDag;
+import edu.snu.mist.core.task.ExecutionVertex;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This indexes the sources and the children of execution vertices by their configurations,
+ * so the common sub-dag finder can find the same vertex without scanning all the sources or children.
+ * The index is updated when the vertices and edges are added to the execution dags,
+ * and the entries of the removed vertices are lazily discarded during the lookup.
+ */
+public final class ExecutionVertexIndex {
+
+  /**
+   * The sources indexed by their configurations.
+   */
+  private final Map<VertexKey, List<ExecutionVertex>> sourceIndex;
+
+  /**
+   * The children of the execution vertices indexed by their configurations.
+   */
+  private final Map<ExecutionVertex, Map<VertexKey, List<ExecutionVertex>>> childIndex;
+
+  @Inject
+  private ExecutionVertexIndex() {
+    this.sourceIndex = new ConcurrentHashMap<>();
+    this.childIndex = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Adds the source to the index.
+   * @param configVertex the config vertex of the source
+   * @param source the execution vertex of the source
+   */
+  public void addSource(final ConfigVertex configVertex, final ExecutionVertex source) {
+    addVertex(sourceIndex, new VertexKey(configVertex), source);
+  }
+
+  /**
+   * Adds the child of the execution vertex to the index.
+   * @param parent the parent execution vertex
+   * @param configVertex the config vertex of the child
+   * @param child the child execution vertex
+   */
+  public void addChild(final ExecutionVertex parent,
+                       final ConfigVertex configVertex,
+                       final ExecutionVertex child) {
+    final Map<VertexKey, List<ExecutionVertex>> children =
+        childIndex.computeIfAbsent(parent, p -> new ConcurrentHashMap<>());
+    addVertex(children, new VertexKey(configVertex), child);
+  }
+
+  /**
+   * Removes the execution vertex and its children from the index.
+   * The vertex is lazily removed from the children of its parents.
+   * @param configVertex the config vertex of the removed vertex
+   * @param vertex the removed execution vertex
+   */
+  public void removeVertex(final ConfigVertex configVertex, final ExecutionVertex vertex) {
+    childIndex.remove(vertex);
+    if (vertex.getType() == ExecutionVertex.Type.SOURCE) {
+      final List<ExecutionVertex> sources = sourceIndex.get(new VertexKey(configVertex));
+      if (sources != null) {
+        synchronized (sources) {
+          sources.remove(vertex);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the source in the execution dag that has the same configuration with the config vertex.
+   * @param executionDag execution dag
+   * @param configVertex config vertex of a source
+   * @return the same source, or null if there is no such source
+   */
+  public ExecutionVertex findSource(final ExecutionDag executionDag, final ConfigVertex configVertex) {
+    final List<ExecutionVertex> candidates = sourceIndex.get(new VertexKey(configVertex));
+    if (candidates != null) {
+      synchronized (candidates) {
+        for (final ExecutionVertex candidate : candidates) {
+          if (executionDag.getDag().hasVertex(candidate)) {
+            return candidate;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the child of the execution vertex that has the same configuration with the config vertex.
+   * @param executionDag execution dag that contains the parent
+   * @param parent parent execution vertex
+   * @param configVertex config vertex of a child
+   * @return the same child, or null if there is no such child
+   */
+  public ExecutionVertex findChild(final ExecutionDag executionDag,
+                                   final ExecutionVertex parent,
+                                   final ConfigVertex configVertex) {
+    final Map<VertexKey, List<ExecutionVertex>> children = childIndex.get(parent);
+    if (children == null) {
+      return null;
+    }
+    final List<ExecutionVertex> candidates = children.get(new VertexKey(configVertex));
+    if (candidates != null) {
+      synchronized (candidates) {
+        final Iterator<ExecutionVertex> iterator = candidates.iterator();
+        while (iterator.hasNext()) {
+          final ExecutionVertex candidate = iterator.next();
+          if (executionDag.getDag().isAdjacent(parent, candidate)) {
+            return candidate;
+          }
+          // The child has been removed from the parent.
+          iterator.remove();
+        }
+      }
+    }
+    return null;
+  }
+
+  private static void addVertex(final Map<VertexKey, List<ExecutionVertex>> index,
+                                final VertexKey key,
+                                final ExecutionVertex vertex) {
+    final List<ExecutionVertex> vertices = index.computeIfAbsent(key, k -> new ArrayList<>(1));
+    synchronized (vertices) {
+      if (!vertices.contains(vertex)) {
+        vertices.add(vertex);
+      }
+    }
+  }
+
+  /**
+   * The key of the index, which consists of the type and the configuration of a vertex.
+   * The fingerprint of the configuration is compared first to avoid comparing the whole configurations.
+   * The key is built from config vertices, because the lookups are made with the vertices of the submitted dags,
+   * which have no execution vertices yet.
+   */
+  private static final class VertexKey {
+    private final ExecutionVertex.Type type;
+    private final Map<String, String> configuration;
+    private final int fingerprint;
+
+    VertexKey(final ConfigVertex configVertex) {
+      this.type = configVertex.getType();
+      this.configuration = configVertex.getConfiguration();
+      this.fingerprint = configVertex.getConfigurationFingerprint();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final VertexKey that = (VertexKey) o;
+      return fingerprint == that.fingerprint && type == that.type && configuration.equals(that.configuration);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * type.hashCode() + fingerprint;
+    }
+  }
+}
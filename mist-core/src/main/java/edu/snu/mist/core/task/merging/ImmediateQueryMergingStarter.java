@@ -19,8 +19,11 @@ import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.parameters.ImmutableEventFanOut;
 import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.codeshare.ClassLoaderProvider;
+import edu.snu.mist.core.task.migration.QueuedSourceEvents;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -81,11 +84,26 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
    */
   private final ExecutionVertexDagMap executionVertexDagMap;
 
+  /**
+   * The index of the sources and the children of the execution vertices.
+   */
+  private final ExecutionVertexIndex executionVertexIndex;
+
   /**
    * The list of jar file paths.
    */
   private final List<String> groupJarFilePaths;
 
+  /**
+   * True if the events are shared by the downstream operators without copying.
+   */
+  private final boolean immutableEvents;
+
+  /**
+   * The factory of the source output emitters.
+   */
+  private final SourceOutputEmitterFactory sourceOutputEmitterFactory;
+
   @Inject
   private ImmediateQueryMergingStarter(final CommonSubDagFinder commonSubDagFinder,
                                        final SrcAndDagMap<Map<String, String>> srcAndDagMap,
@@ -95,7 +113,10 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
                                        final ExecutionVertexCountMap executionVertexCountMap,
                                        final ClassLoaderProvider classLoaderProvider,
                                        final ExecutionVertexGenerator executionVertexGenerator,
-                                       final ExecutionVertexDagMap executionVertexDagMap) {
+                                       final ExecutionVertexDagMap executionVertexDagMap,
+                                       final ExecutionVertexIndex executionVertexIndex,
+                                       final SourceOutputEmitterFactory sourceOutputEmitterFactory,
+                                       @Parameter(ImmutableEventFanOut.class) final boolean immutableEvents) {
     this.commonSubDagFinder = commonSubDagFinder;
     this.srcAndDagMap = srcAndDagMap;
     this.queryIdConfigDagMap = queryIdConfigDagMap;
@@ -105,7 +126,10 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
     this.configExecutionVertexMap = configExecutionVertexMap;
     this.executionVertexCountMap = executionVertexCountMap;
     this.executionVertexDagMap = executionVertexDagMap;
+    this.executionVertexIndex = executionVertexIndex;
     this.groupJarFilePaths = new CopyOnWriteArrayList<>();
+    this.immutableEvents = immutableEvents;
+    this.sourceOutputEmitterFactory = sourceOutputEmitterFactory;
   }
 
   @Override
@@ -136,12 +160,14 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
       if (mergeableDags.size() == 0) {
         final ExecutionDag executionDag = generate(submittedDag, urls, classLoader);
         // Set up the output emitters of the submitted DAG
-        QueryStarterUtils.setUpOutputEmitters(executionDag, query);
+        QueryStarterUtils.setUpOutputEmitters(executionDag, query, immutableEvents, sourceOutputEmitterFactory);
 
-        for (final ExecutionVertex source : executionDag.getDag().getRootVertices()) {
+        for (final ConfigVertex source : submittedDag.getRootVertices()) {
           // Start the source
-          final PhysicalSource src = (PhysicalSource) source;
-          srcAndDagMap.put(src.getConfiguration(), executionDag);
+          final PhysicalSource src = (PhysicalSource) configExecutionVertexMap.get(source);
+          if (!QueuedSourceEvents.hasQueuedEvents(source)) {
+            srcAndDagMap.put(src.getConfiguration(), executionDag);
+          }
           src.start();
         }
 
@@ -171,8 +197,10 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
           }
 
           // Update the execution dag of the execution vertex
+          // and let the output emitter forward the events through the edges of the sharable dag
           for (final ExecutionVertex ev : executionDag.getDag().getVertices()) {
             executionVertexDagMap.put(ev, sharableExecutionDag);
+            QueryStarterUtils.updateOutputRoutes(ev, sharableExecutionDag.getDag());
           }
         }
       }
@@ -190,6 +218,7 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
         if (subDagMap.get(source) == null) {
           executionVertex = executionVertexGenerator.generate(source, urls, classLoader);
           sharableExecutionDag.getDag().addVertex(executionVertex);
+          executionVertexIndex.addSource(source, executionVertex);
           executionVertexCountMap.put(executionVertex, 1);
           executionVertexDagMap.put(executionVertex, sharableExecutionDag);
         } else {
@@ -202,12 +231,15 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
           dfsMerge(subDagMap, visited, executionVertex,
               child.getValue(), child.getKey(), sharableExecutionDag, submittedDag, urls, classLoader);
         }
+        QueryStarterUtils.updateOutputRoutes(executionVertex, sharableExecutionDag.getDag());
       }
 
       // If there are sources that are not shared, start them
       for (final ConfigVertex source : submittedDag.getRootVertices()) {
         if (!subDagMap.containsKey(source)) {
-          srcAndDagMap.put(source.getConfiguration(), sharableExecutionDag);
+          if (!QueuedSourceEvents.hasQueuedEvents(source)) {
+            srcAndDagMap.put(source.getConfiguration(), sharableExecutionDag);
+          }
           ((PhysicalSource)configExecutionVertexMap.get(source)).start();
         }
       }
@@ -243,6 +275,7 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
     }
     configExecutionVertexMap.put(currVertex, currExecutionVertex);
     executionDag.getDag().addEdge(parent, currExecutionVertex, parentEdge);
+    executionVertexIndex.addChild(parent, currVertex, currExecutionVertex);
   }
 
   /**
@@ -262,6 +295,7 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
       executionVertexCountMap.put(currExecutionVertex, 1);
       executionVertexDagMap.put(currExecutionVertex, executionDag);
       executionDag.getDag().addVertex(currExecutionVertex);
+      executionVertexIndex.addSource(source, currExecutionVertex);
       // do dfs creation
       for (final Map.Entry<ConfigVertex, MISTEdge> edges : configDag.getEdges(source).entrySet()) {
         final ConfigVertex childVertex = edges.getKey();
@@ -295,7 +329,9 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
                         final URL[] urls,
                         final ClassLoader classLoader) throws IOException, ClassNotFoundException {
     if (visited.contains(currentVertex)) {
-      executionDag.getDag().addEdge(parent, configExecutionVertexMap.get(currentVertex), parentEdge);
+      final ExecutionVertex visitedVertex = configExecutionVertexMap.get(currentVertex);
+      executionDag.getDag().addEdge(parent, visitedVertex, parentEdge);
+      executionVertexIndex.addChild(parent, currentVertex, visitedVertex);
       return;
     }
 
@@ -304,8 +340,9 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
 
     // Traverse in DFS order
     ExecutionVertex correspondingVertex = subDagMap.get(currentVertex);
+    final boolean created = correspondingVertex == null;
 
-    if (correspondingVertex == null) {
+    if (created) {
       // it is not shared, so we need to create it
       correspondingVertex = executionVertexGenerator.generate(currentVertex, urls, classLoader);
       executionDag.getDag().addVertex(correspondingVertex);
@@ -333,18 +370,17 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
     // We need to integrate ExecutionVertex and PhysicalVertex
     // The output emitter of the current vertex of the execution dag needs to be updated
     if (outputEmitterUpdateNeeded) {
-      if (correspondingVertex.getType() == ExecutionVertex.Type.SOURCE) {
-        final PhysicalSource s = (PhysicalSource) correspondingVertex;
-        final SourceOutputEmitter sourceOutputEmitter = s.getSourceOutputEmitter();
-        s.setOutputEmitter(new NonBlockingQueueSourceOutputEmitter<>(
-            executionDag.getDag().getEdges(correspondingVertex), sourceOutputEmitter.getQuery()));
-      } else if (correspondingVertex.getType() == ExecutionVertex.Type.OPERATOR) {
+      if (created && correspondingVertex.getType() == ExecutionVertex.Type.OPERATOR) {
         ((PhysicalOperator)correspondingVertex).getOperator().setOutputEmitter(
-            new OperatorOutputEmitter(executionDag.getDag().getEdges(correspondingVertex)));
+            new OperatorOutputEmitter(executionDag.getDag().getEdges(correspondingVertex), immutableEvents));
+      } else {
+        // The emitter of the shared vertex keeps forwarding the events in its queue with the new routes
+        QueryStarterUtils.updateOutputRoutes(correspondingVertex, executionDag.getDag());
       }
     }
 
     executionDag.getDag().addEdge(parent, correspondingVertex, parentEdge);
+    executionVertexIndex.addChild(parent, currentVertex, correspondingVertex);
   }
 
   /**
@@ -376,6 +412,10 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
     final Set<ConfigVertex> sources = configDag.getRootVertices();
     final Map<Map<String, String>, ExecutionDag> mergeableDags = new HashMap<>(sources.size());
     for (final ConfigVertex source : sources) {
+      if (QueuedSourceEvents.hasQueuedEvents(source)) {
+        // The source of a migrated query is not merged, so its queued events only reach the migrated query
+        continue;
+      }
       final Map<String, String> srcConf = source.getConfiguration();
       final ExecutionDag executionDag = srcAndDagMap.get(srcConf);
       if (executionDag != null) {
@@ -21,8 +21,7 @@ import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.QueryRemover;
 
 import javax.inject.Inject;
-import java.util.Collection;
-import java.util.Map;
+import java.util.*;
 
 /**
  * This removes the query from MIST.
@@ -63,19 +62,26 @@ public final class MergeAwareQueryRemover implements QueryRemover {
    */
   private final ExecutionVertexDagMap executionVertexDagMap;
 
+  /**
+   * The index of the sources and the children of the execution vertices.
+   */
+  private final ExecutionVertexIndex executionVertexIndex;
+
   @Inject
   private MergeAwareQueryRemover(final QueryIdConfigDagMap queryIdConfigDagMap,
                                  final SrcAndDagMap<Map<String, String>> srcAndDagMap,
                                  final ExecutionDags executionDags,
                                  final ExecutionVertexCountMap executionVertexCountMap,
                                  final ConfigExecutionVertexMap configExecutionVertexMap,
-                                 final ExecutionVertexDagMap executionVertexDagMap) {
+                                 final ExecutionVertexDagMap executionVertexDagMap,
+                                 final ExecutionVertexIndex executionVertexIndex) {
     this.srcAndDagMap = srcAndDagMap;
     this.queryIdConfigDagMap = queryIdConfigDagMap;
     this.configExecutionVertexMap = configExecutionVertexMap;
     this.executionVertexCountMap = executionVertexCountMap;
     this.executionDags = executionDags;
     this.executionVertexDagMap = executionVertexDagMap;
+    this.executionVertexIndex = executionVertexIndex;
   }
 
   /**
@@ -89,36 +95,71 @@ public final class MergeAwareQueryRemover implements QueryRemover {
     synchronized (srcAndDagMap) {
       // Delete the query plan from queryIdConfigDagMap
       final DAG<ConfigVertex, MISTEdge> configDag = queryIdConfigDagMap.remove(queryId);
-      // Delete vertices
+      // Find the vertices that are not shared with other queries
       final Collection<ConfigVertex> vertices = configDag.getVertices();
+      final Set<ConfigVertex> removedVertices = new HashSet<>();
+      for (final ConfigVertex vertex : vertices) {
+        final ExecutionVertex executionVertex = configExecutionVertexMap.get(vertex);
+        if (executionVertexCountMap.get(executionVertex) == 1) {
+          removedVertices.add(vertex);
+        }
+      }
+
+      // The parents of the removed vertices that remain in the execution dags.
+      // A removed vertex is used only by this query, so its parents are the vertices of its parents in the query.
+      final Set<ExecutionVertex> parents = new HashSet<>();
+      for (final ConfigVertex vertex : vertices) {
+        if (!removedVertices.contains(vertex)) {
+          for (final ConfigVertex child : configDag.getEdges(vertex).keySet()) {
+            if (removedVertices.contains(child)) {
+              parents.add(configExecutionVertexMap.get(vertex));
+              break;
+            }
+          }
+        }
+      }
+
+      // Delete the vertices from the execution dags
+      final List<PhysicalSource> removedSources = new ArrayList<>();
       for (final ConfigVertex vertex : vertices) {
         final ExecutionVertex executionVertex = configExecutionVertexMap.remove(vertex);
-        final int refCount = executionVertexCountMap.get(executionVertex);
-        if (refCount == 1) {
-          // Delete it from the execution dag
+        if (removedVertices.contains(vertex)) {
           final ExecutionDag executionDag = executionVertexDagMap.remove(executionVertex);
           executionDag.getDag().removeVertex(executionVertex);
+          executionVertexIndex.removeVertex(vertex, executionVertex);
           executionVertexCountMap.remove(executionVertex);
 
-          // Stop if it is source
           if (executionVertex.getType() == ExecutionVertex.Type.SOURCE) {
             final PhysicalSource src = (PhysicalSource)executionVertex;
-            srcAndDagMap.remove(src.getConfiguration());
-            try {
-              src.close();
-            } catch (Exception e) {
-              e.printStackTrace();
+            // The source of a migrated query is not registered, so another dag may have the same configuration
+            if (srcAndDagMap.get(src.getConfiguration()) == executionDag) {
+              srcAndDagMap.remove(src.getConfiguration());
             }
+            removedSources.add(src);
           }
 
           // Remove the executionDag if the size is 0
           if (executionDag.getDag().numberOfVertices() == 0) {
             executionDags.remove(executionDag);
           }
-
         } else {
           // Decrease the reference count
-          executionVertexCountMap.put(executionVertex, refCount - 1);
+          executionVertexCountMap.put(executionVertex, executionVertexCountMap.get(executionVertex) - 1);
+        }
+      }
+
+      // The edges to the deleted vertices are removed, so the output routes of their parents should be updated
+      // before the deleted vertices are torn down
+      for (final ExecutionVertex parent : parents) {
+        QueryStarterUtils.updateOutputRoutes(parent, executionVertexDagMap.get(parent).getDag());
+      }
+
+      // Stop the sources
+      for (final PhysicalSource src : removedSources) {
+        try {
+          src.close();
+        } catch (Exception e) {
+          e.printStackTrace();
         }
       }
     }
@@ -39,11 +39,18 @@ public final class NoMergingQueryStarter implements QueryStarter {
    */
   private final DagGenerator dagGenerator;
 
+  /**
+   * The factory of the source output emitters.
+   */
+  private final SourceOutputEmitterFactory sourceOutputEmitterFactory;
+
   @Inject
   private NoMergingQueryStarter(final ExecutionPlanDagMap executionPlanDagMap,
-                                final DagGenerator dagGenerator) {
+                                final DagGenerator dagGenerator,
+                                final SourceOutputEmitterFactory sourceOutputEmitterFactory) {
     this.executionPlanDagMap = executionPlanDagMap;
     this.dagGenerator = dagGenerator;
+    this.sourceOutputEmitterFactory = sourceOutputEmitterFactory;
   }
 
   /**
@@ -59,7 +66,7 @@ public final class NoMergingQueryStarter implements QueryStarter {
 
     final ExecutionDag submittedExecutionDag = dagGenerator.generate(configDag, jarFilePaths);
     executionPlanDagMap.put(queryId, submittedExecutionDag);
-    QueryStarterUtils.setUpOutputEmitters(submittedExecutionDag, query);
+    QueryStarterUtils.setUpOutputEmitters(submittedExecutionDag, query, false, sourceOutputEmitterFactory);
     // starts to receive input data stream from the sources
     final DAG<ExecutionVertex, MISTEdge> dag = submittedExecutionDag.getDag();
     for (final ExecutionVertex source : dag.getRootVertices()) {
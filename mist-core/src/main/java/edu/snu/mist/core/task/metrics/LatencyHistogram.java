@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of non-negative values such as latencies in nanoseconds.
+ * Like HdrHistogram, each power of two is divided into linear sub-buckets,
+ * so the recorded values are kept with a bounded relative error (1/8) in a small, constant memory.
+ * Recording a value does not allocate, and the histogram can be read by other threads while it is recorded.
+ */
+public final class LatencyHistogram {
+
+  /**
+   * The number of bits of the sub-bucket index.
+   */
+  private static final int SUB_BUCKET_BITS = 3;
+
+  /**
+   * The number of sub-buckets in a power of two.
+   */
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * The largest power of two that is tracked. Larger values are recorded as the largest trackable value.
+   */
+  private static final int MAX_MAGNITUDE = 42;
+
+  /**
+   * The largest trackable value (about 73 minutes in nanoseconds).
+   */
+  static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+  /**
+   * The counts of the buckets.
+   */
+  private final AtomicLongArray counts;
+
+  /**
+   * The total number of the recorded values.
+   */
+  private final AtomicLong totalCount;
+
+  /**
+   * The sum of the recorded values.
+   */
+  private final AtomicLong sum;
+
+  /**
+   * The maximum recorded value.
+   */
+  private final AtomicLong max;
+
+  public LatencyHistogram() {
+    this.counts = new AtomicLongArray(bucketIndex(MAX_VALUE) + 1);
+    this.totalCount = new AtomicLong();
+    this.sum = new AtomicLong();
+    this.max = new AtomicLong();
+  }
+
+  /**
+   * The values smaller than the number of sub-buckets have their own buckets.
+   * Otherwise, the bucket is determined by the magnitude and the most significant bits below the leading one.
+   * @param value value
+   * @return the index of the bucket
+   */
+  static int bucketIndex(final long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+    return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  /**
+   * @param index the index of the bucket
+   * @return the largest value that is recorded in the bucket
+   */
+  static long highestValueInBucket(final int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKET_COUNT - 1;
+    final long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  /**
+   * Records a value. Negative values are recorded as zero.
+   * @param value value
+   */
+  public void record(final long value) {
+    final long v = Math.min(Math.max(value, 0L), MAX_VALUE);
+    counts.incrementAndGet(bucketIndex(v));
+    totalCount.incrementAndGet();
+    sum.addAndGet(v);
+    long currMax = max.get();
+    while (v > currMax && !max.compareAndSet(currMax, v)) {
+      currMax = max.get();
+    }
+  }
+
+  /**
+   * @return the number of the recorded values
+   */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * @return the mean of the recorded values, or 0 if no value is recorded
+   */
+  public double getMean() {
+    final long count = totalCount.get();
+    return count == 0 ? 0.0 : (double) sum.get() / count;
+  }
+
+  /**
+   * @return the maximum recorded value
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Gets the value at the percentile.
+   * The result is the highest value that is equivalent to the recorded values in the same bucket.
+   * @param percentile percentile between 0 and 100
+   * @return the value at the percentile, or 0 if no value is recorded
+   */
+  public long getValueAtPercentile(final double percentile) {
+    final long count = totalCount.get();
+    if (count == 0) {
+      return 0L;
+    }
+    final long targetCount = Math.max(1L, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+    long accumulated = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      accumulated += counts.get(i);
+      if (accumulated >= targetCount) {
+        return Math.min(highestValueInBucket(i), max.get());
+      }
+    }
+    return max.get();
+  }
+}
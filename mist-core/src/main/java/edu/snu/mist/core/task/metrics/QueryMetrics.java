@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.core.task.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The metrics of a query.
+ * It accumulates the processed events and the busy time of the query,
+ * and collects the metrics of the vertices of the query when they are read.
+ */
+public final class QueryMetrics implements QueryMetricsMXBean {
+
+  /**
+   * The query id.
+   */
+  private final String queryId;
+
+  /**
+   * The total number of processed events.
+   */
+  private final LongAdder numProcessedEvents;
+
+  /**
+   * The total time spent on processing the query.
+   */
+  private final LongAdder busyTimeNanos;
+
+  /**
+   * The supplier of the execution vertices of the query.
+   * The vertices can be shared with other queries when the queries are merged.
+   */
+  private volatile Supplier<Collection<ExecutionVertex>> vertexSupplier;
+
+  public QueryMetrics(final String queryId) {
+    this.queryId = queryId;
+    this.numProcessedEvents = new LongAdder();
+    this.busyTimeNanos = new LongAdder();
+    this.vertexSupplier = Collections::emptyList;
+  }
+
+  /**
+   * Records a processing of the query.
+   * @param numEvents the number of processed events
+   * @param elapsedNanos the elapsed time in nanoseconds
+   */
+  public void recordProcessing(final int numEvents, final long elapsedNanos) {
+    numProcessedEvents.add(numEvents);
+    busyTimeNanos.add(elapsedNanos);
+  }
+
+  /**
+   * Sets the supplier of the execution vertices of the query.
+   * @param supplier supplier
+   */
+  public void setVertexSupplier(final Supplier<Collection<ExecutionVertex>> supplier) {
+    this.vertexSupplier = supplier;
+  }
+
+  @Override
+  public String getQueryId() {
+    return queryId;
+  }
+
+  @Override
+  public long getNumProcessedEvents() {
+    return numProcessedEvents.sum();
+  }
+
+  @Override
+  public long getBusyTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(busyTimeNanos.sum());
+  }
+
+  @Override
+  public List<VertexMetricsSnapshot> getVertexMetrics() {
+    final List<VertexMetricsSnapshot> snapshots = new ArrayList<>();
+    for (final ExecutionVertex vertex : vertexSupplier.get()) {
+      final VertexMetrics metrics = getMetrics(vertex);
+      if (metrics != null) {
+        snapshots.add(VertexMetricsSnapshot.of(vertex.getIdentifier(), vertex.getType().name(), metrics));
+      }
+    }
+    return snapshots;
+  }
+
+  /**
+   * @param vertex execution vertex
+   * @return the metrics of the vertex, or null if the vertex does not record metrics
+   */
+  private static VertexMetrics getMetrics(final ExecutionVertex vertex) {
+    switch (vertex.getType()) {
+      case SOURCE: {
+        final SourceOutputEmitter emitter = ((PhysicalSource) vertex).getSourceOutputEmitter();
+        return emitter instanceof NonBlockingQueueSourceOutputEmitter
+            ? ((NonBlockingQueueSourceOutputEmitter) emitter).getMetrics() : null;
+      }
+      case OPERATOR:
+        return ((PhysicalOperator) vertex).getMetrics();
+      case SINK:
+        return ((PhysicalSink) vertex).getMetrics();
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.util.List;
+
+/**
+ * The JMX interface of the metrics of a query.
+ */
+public interface QueryMetricsMXBean {
+
+  /**
+   * @return the query id
+   */
+  String getQueryId();
+
+  /**
+   * @return the total number of events processed by the query
+   */
+  long getNumProcessedEvents();
+
+  /**
+   * @return the total time that event processors spent on the query in milliseconds
+   */
+  long getBusyTimeMillis();
+
+  /**
+   * @return the metrics of the sources, operators and sinks of the query
+   */
+  List<VertexMetricsSnapshot> getVertexMetrics();
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.formats.avro.AvroQueryMetrics;
+import edu.snu.mist.formats.avro.AvroVertexMetrics;
+
+import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This registry keeps the metrics of the running queries.
+ * The metrics are exported via JMX (edu.snu.mist:type=Query,name=[query id]),
+ * and can be pulled by the clients via the client-to-task RPC.
+ * The metrics of the resources shared by the queries, such as the mqtt clients,
+ * are also exported via JMX (edu.snu.mist:type=[resource type],name=[resource name]).
+ */
+public final class QueryMetricsRegistry {
+
+  private static final Logger LOG = Logger.getLogger(QueryMetricsRegistry.class.getName());
+
+  /**
+   * The JMX domain of the query metrics.
+   */
+  private static final String JMX_DOMAIN = "edu.snu.mist";
+
+  /**
+   * The JMX type of the query metrics.
+   */
+  private static final String QUERY_TYPE = "Query";
+
+  /**
+   * The map of query id and metrics.
+   */
+  private final ConcurrentMap<String, QueryMetrics> metricsMap;
+
+  /**
+   * The MBean server.
+   */
+  private final MBeanServer mBeanServer;
+
+  @Inject
+  private QueryMetricsRegistry() {
+    this.metricsMap = new ConcurrentHashMap<>();
+    this.mBeanServer = ManagementFactory.getPlatformMBeanServer();
+  }
+
+  private ObjectName getObjectName(final String type, final String name) throws JMException {
+    return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+  }
+
+  /**
+   * Registers the metrics of a query.
+   * A failure of the JMX registration does not affect the query.
+   * @param metrics query metrics
+   */
+  public void register(final QueryMetrics metrics) {
+    final String queryId = metrics.getQueryId();
+    if (metricsMap.put(queryId, metrics) != null) {
+      unregisterMBean(QUERY_TYPE, queryId);
+    }
+    registerMBean(QUERY_TYPE, queryId, metrics);
+  }
+
+  /**
+   * Unregisters the metrics of a query.
+   * @param queryId query id
+   */
+  public void unregister(final String queryId) {
+    if (metricsMap.remove(queryId) != null) {
+      unregisterMBean(QUERY_TYPE, queryId);
+    }
+  }
+
+  /**
+   * Registers the metrics of a resource shared by the queries.
+   * The metrics of the resource that has the same type and name are replaced.
+   * A failure of the JMX registration does not affect the resource.
+   * @param type resource type
+   * @param name resource name
+   * @param mxBean the MXBean of the resource metrics
+   */
+  public void registerResource(final String type, final String name, final Object mxBean) {
+    unregisterMBean(type, name);
+    registerMBean(type, name, mxBean);
+  }
+
+  /**
+   * Unregisters the metrics of a resource shared by the queries.
+   * @param type resource type
+   * @param name resource name
+   */
+  public void unregisterResource(final String type, final String name) {
+    unregisterMBean(type, name);
+  }
+
+  private void registerMBean(final String type, final String name, final Object mxBean) {
+    try {
+      mBeanServer.registerMBean(mxBean, getObjectName(type, name));
+    } catch (final JMException e) {
+      LOG.log(Level.WARNING, "Failed to register the metrics of {0} {1} to JMX: {2}",
+          new Object[]{type, name, e.toString()});
+    }
+  }
+
+  private void unregisterMBean(final String type, final String name) {
+    try {
+      final ObjectName objectName = getObjectName(type, name);
+      if (mBeanServer.isRegistered(objectName)) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (final JMException e) {
+      LOG.log(Level.WARNING, "Failed to unregister the metrics of {0} {1} from JMX: {2}",
+          new Object[]{type, name, e.toString()});
+    }
+  }
+
+  /**
+   * @param queryId query id
+   * @return the metrics of the query, or null if the query is not registered
+   */
+  public QueryMetrics get(final String queryId) {
+    return metricsMap.get(queryId);
+  }
+
+  /**
+   * Takes a snapshot of the metrics of a query for the RPC.
+   * @param queryId query id
+   * @return the metrics of the query, or null if the query is not registered
+   */
+  public AvroQueryMetrics getAvroQueryMetrics(final String queryId) {
+    final QueryMetrics metrics = metricsMap.get(queryId);
+    if (metrics == null) {
+      return null;
+    }
+    final List<AvroVertexMetrics> vertices = new ArrayList<>();
+    for (final VertexMetricsSnapshot snapshot : metrics.getVertexMetrics()) {
+      vertices.add(AvroVertexMetrics.newBuilder()
+          .setVertexId(snapshot.getVertexId())
+          .setVertexType(snapshot.getVertexType())
+          .setNumEvents(snapshot.getNumEvents())
+          .setNumSamples(snapshot.getNumSamples())
+          .setMeanLatency(snapshot.getMeanLatency())
+          .setMedianLatency(snapshot.getMedianLatency())
+          .setP99Latency(snapshot.getP99Latency())
+          .setMaxLatency(snapshot.getMaxLatency())
+          .build());
+    }
+    return AvroQueryMetrics.newBuilder()
+        .setQueryId(queryId)
+        .setNumProcessedEvents(metrics.getNumProcessedEvents())
+        .setBusyTimeMillis(metrics.getBusyTimeMillis())
+        .setVertices(vertices)
+        .build();
+  }
+}
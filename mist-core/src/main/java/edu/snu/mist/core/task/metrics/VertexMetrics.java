@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a source, an operator or a sink, which are recorded on the event processing path.
+ * The events are always counted, and only every n-th event is timed to keep the overhead low.
+ * The meaning of the latency histogram depends on the type of the vertex:
+ * - source: the queueing delay between the scheduling of the source and the processing of its queued events
+ * - operator: the service time of the operator, which excludes the time spent by the chained downstream operators
+ * - sink: the end-to-end latency from the generation of the event at the source to the sink
+ * All the latencies are recorded in nanoseconds.
+ */
+public final class VertexMetrics {
+
+  /**
+   * The default number of events per sample.
+   */
+  public static final int DEFAULT_SAMPLING_INTERVAL = 64;
+
+  /**
+   * The number of events per sample. The sampling is disabled if it is not positive.
+   */
+  private final int samplingInterval;
+
+  /**
+   * The number of processed events.
+   */
+  private final LongAdder numEvents;
+
+  /**
+   * The number of events since the latest sample.
+   * It is only a hint for the sampling, so it is not synchronized.
+   */
+  private int numEventsSinceSample;
+
+  /**
+   * The latency histogram.
+   */
+  private final LatencyHistogram latency;
+
+  public VertexMetrics() {
+    this(DEFAULT_SAMPLING_INTERVAL);
+  }
+
+  public VertexMetrics(final int samplingInterval) {
+    this.samplingInterval = samplingInterval;
+    this.numEvents = new LongAdder();
+    this.numEventsSinceSample = 0;
+    this.latency = new LatencyHistogram();
+  }
+
+  /**
+   * Counts the events and decides whether the events should be timed.
+   * @param num the number of events
+   * @return true if the latency of the events should be recorded
+   */
+  public boolean countAndSample(final int num) {
+    numEvents.add(num);
+    if (samplingInterval <= 0) {
+      return false;
+    }
+    numEventsSinceSample += num;
+    if (numEventsSinceSample >= samplingInterval) {
+      numEventsSinceSample = 0;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Counts the events without sampling.
+   * @param num the number of events
+   */
+  public void count(final int num) {
+    numEvents.add(num);
+  }
+
+  /**
+   * Records a latency.
+   * @param latencyNanos latency in nanoseconds
+   */
+  public void record(final long latencyNanos) {
+    latency.record(latencyNanos);
+  }
+
+  /**
+   * @return the number of processed events
+   */
+  public long getNumEvents() {
+    return numEvents.sum();
+  }
+
+  /**
+   * @return the latency histogram
+   */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of the metrics of a vertex, which is exported via JMX and the client-to-task RPC.
+ * The latencies are in nanoseconds. See VertexMetrics for the meaning of the latency of each vertex type.
+ */
+public final class VertexMetricsSnapshot {
+
+  private final String vertexId;
+  private final String vertexType;
+  private final long numEvents;
+  private final long numSamples;
+  private final double meanLatency;
+  private final long medianLatency;
+  private final long p99Latency;
+  private final long maxLatency;
+
+  @ConstructorProperties({"vertexId", "vertexType", "numEvents", "numSamples",
+      "meanLatency", "medianLatency", "p99Latency", "maxLatency"})
+  public VertexMetricsSnapshot(final String vertexId,
+                               final String vertexType,
+                               final long numEvents,
+                               final long numSamples,
+                               final double meanLatency,
+                               final long medianLatency,
+                               final long p99Latency,
+                               final long maxLatency) {
+    this.vertexId = vertexId;
+    this.vertexType = vertexType;
+    this.numEvents = numEvents;
+    this.numSamples = numSamples;
+    this.meanLatency = meanLatency;
+    this.medianLatency = medianLatency;
+    this.p99Latency = p99Latency;
+    this.maxLatency = maxLatency;
+  }
+
+  /**
+   * Takes a snapshot of the vertex metrics.
+   * @param vertexId vertex id
+   * @param vertexType vertex type
+   * @param metrics vertex metrics
+   * @return snapshot
+   */
+  public static VertexMetricsSnapshot of(final String vertexId,
+                                         final String vertexType,
+                                         final VertexMetrics metrics) {
+    final LatencyHistogram latency = metrics.getLatency();
+    return new VertexMetricsSnapshot(vertexId, vertexType, metrics.getNumEvents(), latency.getCount(),
+        latency.getMean(), latency.getValueAtPercentile(50.0), latency.getValueAtPercentile(99.0), latency.getMax());
+  }
+
+  public String getVertexId() {
+    return vertexId;
+  }
+
+  public String getVertexType() {
+    return vertexType;
+  }
+
+  public long getNumEvents() {
+    return numEvents;
+  }
+
+  public long getNumSamples() {
+    return numSamples;
+  }
+
+  public double getMeanLatency() {
+    return meanLatency;
+  }
+
+  public long getMedianLatency() {
+    return medianLatency;
+  }
+
+  public long getP99Latency() {
+    return p99Latency;
+  }
+
+  public long getMaxLatency() {
+    return maxLatency;
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Every n-th event of an operator is timed to record the service time histogram.
+ * The events are always counted, and the timing is disabled if it is not positive.
+ */
+@NamedParameter(doc = "The number of events per service time sample of an operator (0 disables the sampling)",
+    short_name = "metrics_sampling_interval", default_value = "64")
+public final class MetricsSamplingInterval implements Name<Integer> {
+  // empty
+}
@@ -0,0 +1,775 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.operators.StateHandler;
+import edu.snu.mist.core.parameters.MasterHostname;
+import edu.snu.mist.core.parameters.TaskId;
+import edu.snu.mist.core.parameters.TaskToMasterPort;
+import edu.snu.mist.core.rpc.AvroUtils;
+import edu.snu.mist.core.task.ConfigVertex;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.core.task.PhysicalSource;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.QueryManager;
+import edu.snu.mist.core.task.SourceOutputEmitter;
+import edu.snu.mist.core.task.StateSerializer;
+import edu.snu.mist.core.task.checkpointing.CheckpointManager;
+import edu.snu.mist.core.task.groupaware.ApplicationInfo;
+import edu.snu.mist.core.task.groupaware.ApplicationMap;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupMap;
+import edu.snu.mist.core.task.merging.ConfigExecutionVertexMap;
+import edu.snu.mist.core.task.migration.parameters.MaxMigrationPauseTime;
+import edu.snu.mist.core.task.migration.parameters.MigrationCommitTimeout;
+import edu.snu.mist.core.task.stores.GroupCheckpointStore;
+import edu.snu.mist.formats.avro.AvroDag;
+import edu.snu.mist.formats.avro.ForwardedSourceEvents;
+import edu.snu.mist.formats.avro.GroupMigrationResult;
+import edu.snu.mist.formats.avro.MasterToTaskMessage;
+import edu.snu.mist.formats.avro.MigratingGroup;
+import edu.snu.mist.formats.avro.MigratingQuery;
+import edu.snu.mist.formats.avro.MigrationDestination;
+import edu.snu.mist.formats.avro.QueryCheckpoint;
+import edu.snu.mist.formats.avro.StateWithTimestamp;
+import edu.snu.mist.formats.avro.TaskToMasterMessage;
+import org.apache.avro.AvroRemoteException;
+import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The default group migration manager.
+ * The group is handed over with a two-phase protocol, so it runs in exactly one task.
+ * The source task holds the events of the sources, pauses the queries of the group,
+ * and sends the current states of the operators and the events queued in the sources to the destination task.
+ * The destination task prepares the queries with the states, but does not start their sources.
+ * After the destination task confirms the preparation, the source task checkpoints the group, closes its sources,
+ * and commits the migration with the events that the sources have held since the snapshot.
+ * The destination task then starts the sources, which emit the queued and the held events before new inputs.
+ * The source task removes the group only after the destination task acknowledges the commit.
+ * If the commit is not acknowledged, the source task recovers the group from the checkpoint,
+ * and the destination task aborts the prepared queries when the commit timeout elapses.
+ * If the group cannot be paused and prepared within the maximum pause time,
+ * the destination task aborts the prepared queries and the group is resumed in the source task.
+ */
+public final class DefaultGroupMigrationManagerImpl implements GroupMigrationManager {
+
+  private static final Logger LOG = Logger.getLogger(DefaultGroupMigrationManagerImpl.class.getName());
+
+  /**
+   * The maximum number of attempts to commit a prepared migration.
+   */
+  private static final int MAX_COMMIT_ATTEMPTS = 3;
+
+  /**
+   * The id of this task.
+   */
+  private final String taskId;
+
+  /**
+   * The maximum pause time of a migrating group before the hand-over.
+   */
+  private final long maxPauseTime;
+
+  /**
+   * The maximum time that a prepared group waits for the commit.
+   */
+  private final long commitTimeout;
+
+  /**
+   * The map of the groups in this task.
+   */
+  private final GroupMap groupMap;
+
+  /**
+   * The map of the applications in this task.
+   */
+  private final ApplicationMap applicationMap;
+
+  /**
+   * The store which has the query plans of the groups.
+   */
+  private final GroupCheckpointStore checkpointStore;
+
+  /**
+   * The checkpoint manager for removing the migrated groups.
+   */
+  private final CheckpointManager checkpointManager;
+
+  /**
+   * The query manager for creating the migrating queries. Use InjectionFuture to avoid cyclic injection.
+   */
+  private final InjectionFuture<QueryManager> queryManagerFuture;
+
+  /**
+   * The proxy to master for reporting the results of migrations.
+   */
+  private final TaskToMasterMessage proxyToMaster;
+
+  /**
+   * The proxies to the destination tasks.
+   */
+  private final ConcurrentMap<String, MasterToTaskMessage> proxyToTaskMap;
+
+  /**
+   * The ids of the groups that are migrating from this task.
+   */
+  private final Set<String> migratingGroups;
+
+  /**
+   * The groups that are migrating to this task and wait for the commit.
+   */
+  private final Map<String, PreparedGroup> preparedGroups;
+
+  /**
+   * The ids of the groups that are aborted before they are prepared.
+   */
+  private final Set<String> abortedGroups;
+
+  /**
+   * The ids of the groups that have migrated to this task.
+   * A retried commit of these groups is acknowledged again, so the source task does not recover them.
+   */
+  private final Set<String> committedGroups;
+
+  /**
+   * The executor service for running migrations.
+   */
+  private final ExecutorService executorService;
+
+  /**
+   * The executor service for sending the preparation requests, which should finish before the deadline.
+   */
+  private final ExecutorService prepareExecutorService;
+
+  /**
+   * The executor service for aborting the prepared groups that are not committed within the commit timeout.
+   */
+  private final ScheduledExecutorService commitTimeoutExecutorService;
+
+  @Inject
+  private DefaultGroupMigrationManagerImpl(
+      @Parameter(MasterHostname.class) final String masterHostAddress,
+      @Parameter(TaskToMasterPort.class) final int taskToMasterPort,
+      @Parameter(TaskId.class) final String taskId,
+      @Parameter(MaxMigrationPauseTime.class) final long maxPauseTime,
+      @Parameter(MigrationCommitTimeout.class) final long commitTimeout,
+      final GroupMap groupMap,
+      final ApplicationMap applicationMap,
+      final GroupCheckpointStore checkpointStore,
+      final CheckpointManager checkpointManager,
+      final InjectionFuture<QueryManager> queryManagerFuture) throws IOException {
+    this.taskId = taskId;
+    this.maxPauseTime = maxPauseTime;
+    this.commitTimeout = commitTimeout;
+    this.groupMap = groupMap;
+    this.applicationMap = applicationMap;
+    this.checkpointStore = checkpointStore;
+    this.checkpointManager = checkpointManager;
+    this.queryManagerFuture = queryManagerFuture;
+    this.proxyToMaster = AvroUtils.createAvroProxy(TaskToMasterMessage.class,
+        new InetSocketAddress(masterHostAddress, taskToMasterPort));
+    this.proxyToTaskMap = new ConcurrentHashMap<>();
+    this.migratingGroups = ConcurrentHashMap.newKeySet();
+    this.preparedGroups = new HashMap<>();
+    this.abortedGroups = new HashSet<>();
+    this.committedGroups = new HashSet<>();
+    this.executorService = Executors.newSingleThreadExecutor();
+    this.prepareExecutorService = Executors.newCachedThreadPool();
+    this.commitTimeoutExecutorService = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @Override
+  public boolean startMigration(final String groupId, final MigrationDestination destination) {
+    final Group group = groupMap.get(groupId);
+    if (group == null) {
+      LOG.log(Level.WARNING, "There is no such group {0}.", groupId);
+      return false;
+    }
+    if (!migratingGroups.add(groupId)) {
+      LOG.log(Level.WARNING, "Group {0} is already migrating.", groupId);
+      return false;
+    }
+    executorService.submit(new MigrationRunner(group, destination));
+    return true;
+  }
+
+  @Override
+  public synchronized boolean prepareGroup(final MigratingGroup migratingGroup) {
+    final String groupId = migratingGroup.getGroupId();
+    final QueryManager queryManager = queryManagerFuture.get();
+    final List<String> createdQueryIds = new ArrayList<>();
+    for (final MigratingQuery migratingQuery : migratingGroup.getQueries()) {
+      try {
+        final AvroDag avroDag = AvroUtils.deserialize(migratingQuery.getSerializedDag(), AvroDag.class);
+        final QueryCheckpoint queryCheckpoint =
+            AvroUtils.deserialize(migratingQuery.getSerializedCheckpoint(), QueryCheckpoint.class);
+        if (!queryManager.createQueryWithCheckpoint(avroDag, queryCheckpoint).getIsSuccess()) {
+          break;
+        }
+        createdQueryIds.add(avroDag.getQueryId());
+      } catch (final IOException e) {
+        LOG.log(Level.SEVERE, "Failed to read the migrating query {0}: {1}",
+            new Object[]{migratingQuery.getQueryId(), e.toString()});
+        break;
+      }
+    }
+
+    final PreparedGroup preparedGroup = new PreparedGroup(migratingGroup.getAppId(), createdQueryIds);
+    if (createdQueryIds.size() != migratingGroup.getQueries().size() || abortedGroups.remove(groupId)) {
+      // The group keeps running in the source task, so the created queries should not run here.
+      deleteQueries(preparedGroup);
+      return false;
+    }
+    committedGroups.remove(groupId);
+    preparedGroups.put(groupId, preparedGroup);
+    commitTimeoutExecutorService.schedule(() -> abortIfNotCommitted(groupId, preparedGroup),
+        commitTimeout, TimeUnit.MILLISECONDS);
+    LOG.log(Level.INFO, "Group {0} is prepared for the migration from task {1}",
+        new Object[]{groupId, migratingGroup.getSourceTaskId()});
+    return true;
+  }
+
+  @Override
+  public synchronized boolean commitGroup(final String groupId, final List<ForwardedSourceEvents> forwardedEvents) {
+    final PreparedGroup preparedGroup = preparedGroups.remove(groupId);
+    if (preparedGroup == null) {
+      if (committedGroups.contains(groupId)) {
+        // The acknowledgement of the previous commit has been lost
+        return true;
+      }
+      LOG.log(Level.WARNING, "Group {0} is not prepared.", groupId);
+      return false;
+    }
+    committedGroups.add(groupId);
+    // The forwarded events of the sources in each query. The sources are distinguished by their configurations.
+    final Map<String, Map<Map<String, String>, ByteBuffer>> forwardedStateMap = new HashMap<>();
+    for (final ForwardedSourceEvents events : forwardedEvents) {
+      forwardedStateMap.computeIfAbsent(events.getQueryId(), k -> new HashMap<>())
+          .put(events.getSourceConfiguration(), events.getSerializedState());
+    }
+
+    final ApplicationInfo applicationInfo = applicationMap.get(preparedGroup.appId);
+    for (final String queryId : preparedGroup.queryIds) {
+      final Map<Map<String, String>, ByteBuffer> sourceStateMap =
+          forwardedStateMap.getOrDefault(queryId, Collections.emptyMap());
+      for (final ConfigVertex source : applicationInfo.getQueryIdConfigDagMap().get(queryId).getRootVertices()) {
+        final ByteBuffer serializedState = sourceStateMap.get(source.getConfiguration());
+        Map<String, Object> forwardedState = Collections.emptyMap();
+        if (serializedState != null) {
+          try {
+            forwardedState = AvroUtils.deserialize(serializedState, StateWithTimestamp.class).getVertexState();
+          } catch (final IOException e) {
+            LOG.log(Level.SEVERE, "Failed to read the forwarded events of query {0}: {1}",
+                new Object[]{queryId, e.toString()});
+          }
+        }
+        ((PhysicalSource) applicationInfo.getConfigExecutionVertexMap().get(source))
+            .startAfterMigration(forwardedState);
+      }
+    }
+    LOG.log(Level.INFO, "Group {0} has migrated to this task", groupId);
+    return true;
+  }
+
+  @Override
+  public synchronized void abortGroup(final String groupId) {
+    final PreparedGroup preparedGroup = preparedGroups.remove(groupId);
+    if (preparedGroup == null) {
+      // The preparation has not arrived yet, so it is rejected when it arrives
+      abortedGroups.add(groupId);
+    } else {
+      deleteQueries(preparedGroup);
+    }
+    LOG.log(Level.INFO, "Migration of group {0} is aborted", groupId);
+  }
+
+  /**
+   * Aborts the prepared group if the source task has not committed it within the commit timeout.
+   * The created queries are deleted with their sources, which have not started.
+   */
+  private synchronized void abortIfNotCommitted(final String groupId, final PreparedGroup preparedGroup) {
+    if (preparedGroups.get(groupId) == preparedGroup) {
+      preparedGroups.remove(groupId);
+      deleteQueries(preparedGroup);
+      LOG.log(Level.WARNING, "Group {0} has not been committed within {1} ms, so its migration is aborted",
+          new Object[]{groupId, commitTimeout});
+    }
+  }
+
+  /**
+   * Deletes the queries of the group that does not migrate to this task.
+   */
+  private void deleteQueries(final PreparedGroup preparedGroup) {
+    if (preparedGroup.queryIds.isEmpty()) {
+      return;
+    }
+    final QueryManager queryManager = queryManagerFuture.get();
+    final ApplicationInfo applicationInfo = applicationMap.get(preparedGroup.appId);
+    for (final String queryId : preparedGroup.queryIds) {
+      queryManager.delete(applicationInfo.getGroups().get(0).getGroupId(), queryId);
+    }
+  }
+
+  /**
+   * Gets the proxy to the master-to-task server of the destination task.
+   */
+  private MasterToTaskMessage getProxyToTask(final MigrationDestination destination) throws IOException {
+    MasterToTaskMessage proxyToTask = proxyToTaskMap.get(destination.getTaskId());
+    if (proxyToTask == null) {
+      proxyToTask = AvroUtils.createAvroProxy(MasterToTaskMessage.class,
+          new InetSocketAddress(destination.getTaskHostname(), destination.getMasterToTaskPort()));
+      proxyToTaskMap.put(destination.getTaskId(), proxyToTask);
+    }
+    return proxyToTask;
+  }
+
+  /**
+   * Gets the queries in the group.
+   */
+  private static List<Query> getQueries(final Group group) {
+    final List<Query> queries = group.getQueries();
+    synchronized (queries) {
+      return new ArrayList<>(queries);
+    }
+  }
+
+  /**
+   * Gets the sources of the queries.
+   */
+  private static List<MigratingSource> getSources(final Group group, final List<Query> queries) {
+    final ApplicationInfo applicationInfo = group.getApplicationInfo();
+    final List<MigratingSource> sources = new ArrayList<>();
+    for (final Query query : queries) {
+      for (final ConfigVertex cv : applicationInfo.getQueryIdConfigDagMap().get(query.getId()).getRootVertices()) {
+        final PhysicalSource source = (PhysicalSource) applicationInfo.getConfigExecutionVertexMap().get(cv);
+        sources.add(new MigratingSource(query.getId(), cv.getConfiguration(), source));
+      }
+    }
+    return sources;
+  }
+
+  /**
+   * Holds the events of the sources, so the queued events do not change after the snapshot.
+   * A source can be shared by the queries, and the duplicate calls have no effect.
+   */
+  private static void holdEvents(final List<MigratingSource> sources) {
+    for (final MigratingSource source : sources) {
+      source.emitter.holdEvents();
+    }
+  }
+
+  /**
+   * Puts the held events into the queues of the sources.
+   */
+  private static void releaseHeldEvents(final List<MigratingSource> sources) {
+    for (final MigratingSource source : sources) {
+      source.emitter.releaseHeldEvents();
+    }
+  }
+
+  /**
+   * Closes the sources, so that no event arrives after this.
+   * The queries of the sources are not removed until the destination task acknowledges the commit.
+   */
+  private static void closeSources(final List<MigratingSource> sources) {
+    final Map<PhysicalSource, Boolean> closedSources = new IdentityHashMap<>();
+    for (final MigratingSource source : sources) {
+      if (closedSources.put(source.source, true) == null) {
+        try {
+          source.source.close();
+        } catch (final Exception e) {
+          LOG.log(Level.WARNING, "Failed to close source {0}: {1}",
+              new Object[]{source.source.getIdentifier(), e.toString()});
+        }
+      }
+    }
+  }
+
+  /**
+   * Takes the events that the sources have held since the snapshot.
+   * This should be called after the sources are closed, so that no event is emitted after this.
+   */
+  private static List<ForwardedSourceEvents> takeHeldEvents(final List<MigratingSource> sources) throws IOException {
+    final Map<SourceOutputEmitter, ByteBuffer> serializedStateMap = new HashMap<>();
+    final List<ForwardedSourceEvents> forwardedEvents = new ArrayList<>(sources.size());
+    for (final MigratingSource source : sources) {
+      ByteBuffer serializedState = serializedStateMap.get(source.emitter);
+      if (serializedState == null) {
+        final StateWithTimestamp state = StateWithTimestamp.newBuilder()
+            .setVertexState(StateSerializer.serializeStateMap(
+                QueuedSourceEvents.toState(source.emitter.takeHeldEvents())))
+            .setCheckpointTimestamp(0L)
+            .build();
+        serializedState = AvroUtils.serialize(state, StateWithTimestamp.class);
+        serializedStateMap.put(source.emitter, serializedState);
+      }
+      forwardedEvents.add(ForwardedSourceEvents.newBuilder()
+          .setQueryId(source.queryId)
+          .setSourceConfiguration(source.configuration)
+          .setSerializedState(serializedState.duplicate())
+          .build());
+    }
+    return forwardedEvents;
+  }
+
+  /**
+   * Pauses the queries, so the event processors skip them.
+   * A query that is being processed is paused after the processing finishes.
+   * @return true if all the queries are paused before the deadline
+   */
+  private static boolean pause(final List<Query> queries, final List<Query> pausedQueries, final long deadline) {
+    for (final Query query : queries) {
+      while (!query.setProcessingFromReady()) {
+        if (System.currentTimeMillis() > deadline) {
+          return false;
+        }
+        Thread.yield();
+      }
+      pausedQueries.add(query);
+    }
+    return true;
+  }
+
+  /**
+   * Resumes the paused queries.
+   * The event processors have dropped the queries while they are paused, so they are inserted to the group again.
+   */
+  private static void resume(final Group group, final List<Query> pausedQueries) {
+    for (final Query query : pausedQueries) {
+      query.setReady();
+      group.insert(query);
+    }
+  }
+
+  /**
+   * Recovers the group from its checkpoint, as its sources are closed.
+   * The queries are deleted first, and created again with the checkpointed states and new sources.
+   * The held events that arrived after the checkpoint are not recovered unless the sources replay them.
+   */
+  private void recover(final Group group) {
+    final String groupId = group.getGroupId();
+    final QueryManager queryManager = queryManagerFuture.get();
+    for (final Query query : getQueries(group)) {
+      queryManager.delete(groupId, query.getId());
+    }
+    try {
+      checkpointManager.recoverGroup(groupId);
+    } catch (final IOException e) {
+      LOG.log(Level.SEVERE, "Failed to recover group {0}: {1}", new Object[]{groupId, e.toString()});
+    }
+  }
+
+  /**
+   * Takes the current states of the stateful operators and the queued events of the sources in the query.
+   * The checkpoint timestamps are zero, so the operators in the destination task do not skip any events.
+   */
+  private static QueryCheckpoint snapshotQuery(final DAG<ConfigVertex, MISTEdge> configDag,
+                                               final ConfigExecutionVertexMap configExecutionVertexMap) {
+    final Map<String, StateWithTimestamp> stateWithTimestampMap = new HashMap<>();
+    for (final ConfigVertex cv : configDag.getVertices()) {
+      final ExecutionVertex ev = configExecutionVertexMap.get(cv);
+      Map<String, Object> state = null;
+      if (ev.getType() == ExecutionVertex.Type.SOURCE) {
+        state = QueuedSourceEvents.toState(((PhysicalSource) ev).getSourceOutputEmitter().getQueuedEvents());
+      } else if (ev.getType() == ExecutionVertex.Type.OPERATOR) {
+        final Operator op = ((PhysicalOperator) ev).getOperator();
+        if (op instanceof StateHandler) {
+          state = ((StateHandler) op).getStateSnapshot();
+        }
+      }
+      if (state != null) {
+        stateWithTimestampMap.put(cv.getId(), StateWithTimestamp.newBuilder()
+            .setVertexState(StateSerializer.serializeStateMap(state))
+            .setCheckpointTimestamp(0L)
+            .build());
+      }
+    }
+    return QueryCheckpoint.newBuilder()
+        .setQueryState(stateWithTimestampMap)
+        .build();
+  }
+
+  /**
+   * Creates the migrating group with the query plans, the operator states, and the queued events.
+   */
+  private MigratingGroup snapshotGroup(final Group group, final List<AvroDag> avroDags) throws IOException {
+    final ApplicationInfo applicationInfo = group.getApplicationInfo();
+    final List<MigratingQuery> migratingQueries = new ArrayList<>(avroDags.size());
+    for (final AvroDag avroDag : avroDags) {
+      final QueryCheckpoint queryCheckpoint = snapshotQuery(
+          applicationInfo.getQueryIdConfigDagMap().get(avroDag.getQueryId()),
+          applicationInfo.getConfigExecutionVertexMap());
+      migratingQueries.add(MigratingQuery.newBuilder()
+          .setQueryId(avroDag.getQueryId())
+          .setSerializedDag(AvroUtils.serialize(avroDag, AvroDag.class))
+          .setSerializedCheckpoint(AvroUtils.serialize(queryCheckpoint, QueryCheckpoint.class))
+          .build());
+    }
+    return MigratingGroup.newBuilder()
+        .setGroupId(group.getGroupId())
+        .setAppId(applicationInfo.getApplicationId())
+        .setSourceTaskId(taskId)
+        .setQueries(migratingQueries)
+        .build();
+  }
+
+  /**
+   * Sends the migrating group to the destination task and waits for the preparation until the deadline.
+   * @return true if the destination task has prepared the group, false if it has failed to prepare the group,
+   *         or null if the result is unknown
+   */
+  private Boolean prepare(final MasterToTaskMessage proxyToDestination,
+                          final MigratingGroup migratingGroup,
+                          final long deadline) throws InterruptedException {
+    final String groupId = migratingGroup.getGroupId();
+    final Future<Boolean> future =
+        prepareExecutorService.submit(() -> proxyToDestination.prepareMigratingGroup(migratingGroup));
+    try {
+      return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      LOG.log(Level.WARNING, "Group {0} could not be handed over within {1} ms",
+          new Object[]{groupId, maxPauseTime});
+      // The request is not interrupted, as it would break the connection to the destination task.
+      // The destination task may prepare the group after the deadline, so the migration is aborted afterwards.
+      prepareExecutorService.submit(() -> {
+        try {
+          if (!Boolean.FALSE.equals(getResult(future))) {
+            abort(proxyToDestination, groupId);
+          }
+        } catch (final InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      return null;
+    } catch (final ExecutionException e) {
+      LOG.log(Level.SEVERE, "Failed to prepare group {0}: {1}", new Object[]{groupId, e.getCause().toString()});
+      abort(proxyToDestination, groupId);
+      return null;
+    }
+  }
+
+  /**
+   * Waits for the result of the preparation.
+   * @return the result, or null if the request has failed
+   */
+  private static Boolean getResult(final Future<Boolean> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (final ExecutionException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Aborts the migration, so the destination task removes the group if it has prepared it.
+   */
+  private static void abort(final MasterToTaskMessage proxyToDestination, final String groupId) {
+    try {
+      proxyToDestination.abortMigratingGroup(groupId);
+    } catch (final AvroRemoteException e) {
+      LOG.log(Level.SEVERE, "Failed to abort the migration of group {0}: {1}", new Object[]{groupId, e.toString()});
+    }
+  }
+
+  /**
+   * Commits the migration, so the destination task starts the sources of the group.
+   * @return true if the destination task has started the group
+   */
+  private static boolean commit(final MasterToTaskMessage proxyToDestination,
+                                final String groupId,
+                                final List<ForwardedSourceEvents> forwardedEvents) {
+    for (int i = 0; i < MAX_COMMIT_ATTEMPTS; i++) {
+      try {
+        return proxyToDestination.commitMigratingGroup(groupId, forwardedEvents);
+      } catch (final AvroRemoteException e) {
+        LOG.log(Level.WARNING, "Failed to commit the migration of group {0}: {1}",
+            new Object[]{groupId, e.toString()});
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A source of the migrating group.
+   */
+  private static final class MigratingSource {
+
+    private final String queryId;
+
+    private final Map<String, String> configuration;
+
+    private final PhysicalSource source;
+
+    private final SourceOutputEmitter emitter;
+
+    private MigratingSource(final String queryId,
+                            final Map<String, String> configuration,
+                            final PhysicalSource source) {
+      this.queryId = queryId;
+      this.configuration = configuration;
+      this.source = source;
+      this.emitter = source.getSourceOutputEmitter();
+    }
+  }
+
+  /**
+   * The queries of a group that are prepared in this task.
+   */
+  private static final class PreparedGroup {
+
+    private final String appId;
+
+    private final List<String> queryIds;
+
+    private PreparedGroup(final String appId, final List<String> queryIds) {
+      this.appId = appId;
+      this.queryIds = queryIds;
+    }
+  }
+
+  /**
+   * A runnable class which migrates a group to the destination task.
+   */
+  private final class MigrationRunner implements Runnable {
+
+    private final Group group;
+
+    private final MigrationDestination destination;
+
+    private MigrationRunner(final Group group, final MigrationDestination destination) {
+      this.group = group;
+      this.destination = destination;
+    }
+
+    @Override
+    public void run() {
+      final String groupId = group.getGroupId();
+      final List<Query> pausedQueries = new ArrayList<>();
+      List<MigratingSource> sources = Collections.emptyList();
+      MasterToTaskMessage proxyToDestination = null;
+      Boolean isPrepared = false;
+      long pauseStartTime = System.currentTimeMillis();
+      try {
+        final List<Query> queries = getQueries(group);
+        final List<String> queryIds = new ArrayList<>(queries.size());
+        for (final Query query : queries) {
+          queryIds.add(query.getId());
+        }
+        // The query plans and the connection do not change, so they are prepared before pausing the group.
+        final List<AvroDag> avroDags = checkpointStore.loadSavedQueries(queryIds);
+        proxyToDestination = getProxyToTask(destination);
+        sources = getSources(group, queries);
+
+        pauseStartTime = System.currentTimeMillis();
+        final long deadline = pauseStartTime + maxPauseTime;
+        // The events that arrive after the snapshot are held, and forwarded to the destination task
+        holdEvents(sources);
+        if (!pause(queries, pausedQueries, deadline)) {
+          LOG.log(Level.WARNING, "Group {0} could not be paused within {1} ms", new Object[]{groupId, maxPauseTime});
+        } else {
+          final MigratingGroup migratingGroup = snapshotGroup(group, avroDags);
+          isPrepared = prepare(proxyToDestination, migratingGroup, deadline);
+        }
+      } catch (final Exception e) {
+        LOG.log(Level.SEVERE, "Failed to migrate group {0}: {1}", new Object[]{groupId, e.toString()});
+      }
+
+      if (isPrepared != null && isPrepared && !checkpointManager.checkpointGroup(groupId)) {
+        LOG.log(Level.WARNING, "Group {0} could not be checkpointed before the hand-over", groupId);
+        abort(proxyToDestination, groupId);
+        isPrepared = false;
+      }
+
+      boolean isSuccess = false;
+      if (isPrepared != null && isPrepared) {
+        // The group is checkpointed, so it can be recovered in this task if the destination task does not start it.
+        // The sources are closed, so the held events are all the events after the snapshot.
+        closeSources(sources);
+        try {
+          isSuccess = commit(proxyToDestination, groupId, takeHeldEvents(sources));
+        } catch (final IOException e) {
+          LOG.log(Level.SEVERE, "Failed to forward the held events of group {0}: {1}",
+              new Object[]{groupId, e.toString()});
+          isSuccess = commit(proxyToDestination, groupId, Collections.emptyList());
+        }
+        if (isSuccess) {
+          // The destination task has started the group, so the group is removed from this task.
+          checkpointManager.deleteGroup(groupId);
+        } else {
+          LOG.log(Level.SEVERE, "Task {0} has not started group {1}, so it is recovered from the checkpoint",
+              new Object[]{destination.getTaskId(), groupId});
+          recover(group);
+        }
+      } else {
+        resume(group, pausedQueries);
+        releaseHeldEvents(sources);
+      }
+      final long pauseTime = System.currentTimeMillis() - pauseStartTime;
+      LOG.log(Level.INFO, "Migration of group {0} to task {1}: success = {2}, pause time = {3} ms",
+          new Object[]{groupId, destination.getTaskId(), isSuccess, pauseTime});
+      migratingGroups.remove(groupId);
+
+      try {
+        proxyToMaster.finishGroupMigration(GroupMigrationResult.newBuilder()
+            .setGroupId(groupId)
+            .setSourceTaskId(taskId)
+            .setDestinationTaskId(destination.getTaskId())
+            .setIsSuccess(isSuccess)
+            .setPauseTime(pauseTime)
+            .build());
+      } catch (final AvroRemoteException e) {
+        LOG.log(Level.SEVERE, "Failed to report the migration of group {0}: {1}", new Object[]{groupId, e.toString()});
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    executorService.shutdown();
+    executorService.awaitTermination(60000, TimeUnit.MILLISECONDS);
+    prepareExecutorService.shutdownNow();
+    commitTimeoutExecutorService.shutdownNow();
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.formats.avro.ForwardedSourceEvents;
+import edu.snu.mist.formats.avro.MigratingGroup;
+import edu.snu.mist.formats.avro.MigrationDestination;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+import java.util.List;
+
+/**
+ * The interface for classes which migrate the groups of this task to another task and receive the groups migrating
+ * from another task, without checkpointing them to the disk.
+ */
+@DefaultImplementation(DefaultGroupMigrationManagerImpl.class)
+public interface GroupMigrationManager extends AutoCloseable {
+
+  /**
+   * Start to migrate the group to the destination task.
+   * The result of the migration is reported to the master when the migration finishes.
+   * @param groupId the id of the migrating group
+   * @param destination the destination task
+   * @return true if the migration is started
+   */
+  boolean startMigration(String groupId, MigrationDestination destination);
+
+  /**
+   * Create the queries of the group migrating from another task with their states and queued events.
+   * The sources of the queries do not start until the source task commits the migration.
+   * @param migratingGroup the migrating group
+   * @return true if all the queries are created
+   */
+  boolean prepareGroup(MigratingGroup migratingGroup);
+
+  /**
+   * Start the sources of the prepared group after the source task has removed the group.
+   * @param groupId the id of the migrating group
+   * @param forwardedEvents the events that the source task received after it had snapshotted the group
+   * @return true if the group is prepared in this task
+   */
+  boolean commitGroup(String groupId, List<ForwardedSourceEvents> forwardedEvents);
+
+  /**
+   * Remove the prepared queries of the group, because the group keeps running in the source task.
+   * @param groupId the id of the migrating group
+   */
+  void abortGroup(String groupId);
+}
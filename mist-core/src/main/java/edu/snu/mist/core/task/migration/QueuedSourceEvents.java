@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.task.ConfigVertex;
+import edu.snu.mist.core.task.ExecutionVertex;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The data and watermark events that are queued in a source but not processed yet.
+ * They are carried as the state of the source vertex when a group migrates to another task,
+ * so the new source emits them before receiving new inputs.
+ * The values of the data events should be serializable.
+ */
+public final class QueuedSourceEvents implements Serializable {
+
+  /**
+   * The key of the queued events in the source vertex state.
+   */
+  public static final String STATE_KEY = "queuedSourceEvents";
+
+  /**
+   * The values of the events. The value of a watermark is null.
+   */
+  private final ArrayList<Object> values;
+
+  /**
+   * The timestamps of the events.
+   */
+  private final long[] timestamps;
+
+  /**
+   * True if the event is a watermark.
+   */
+  private final boolean[] watermarks;
+
+  private QueuedSourceEvents(final List<MistEvent> events) {
+    this.values = new ArrayList<>(events.size());
+    this.timestamps = new long[events.size()];
+    this.watermarks = new boolean[events.size()];
+    int i = 0;
+    for (final MistEvent event : events) {
+      if (event.isData()) {
+        values.add(((MistDataEvent) event).getValue());
+      } else {
+        values.add(null);
+        watermarks[i] = true;
+      }
+      timestamps[i] = event.getTimestamp();
+      i += 1;
+    }
+  }
+
+  /**
+   * Creates the source vertex state with the queued events.
+   * The checkpoint events are not included, because they only trigger the checkpointing of the current task.
+   * @param queuedEvents the queued events in the insertion order
+   * @return the source vertex state
+   */
+  public static Map<String, Object> toState(final List<MistEvent> queuedEvents) {
+    final List<MistEvent> events = new ArrayList<>(queuedEvents.size());
+    for (final MistEvent event : queuedEvents) {
+      if (!event.isCheckpoint()) {
+        events.add(event);
+      }
+    }
+    final Map<String, Object> state = new HashMap<>();
+    state.put(STATE_KEY, new QueuedSourceEvents(events));
+    return state;
+  }
+
+  /**
+   * Checks whether the source vertex belongs to a migrated query and carries the events queued in the old source.
+   * Such a source is not merged with the running sources, so that the queued events only reach the migrated query.
+   * @param sourceVertex the configuration vertex of the source
+   * @return true if the vertex has the queued events
+   */
+  public static boolean hasQueuedEvents(final ConfigVertex sourceVertex) {
+    return sourceVertex.getType() == ExecutionVertex.Type.SOURCE && sourceVertex.getState().containsKey(STATE_KEY);
+  }
+
+  /**
+   * Gets the queued events from the deserialized source vertex state.
+   * @param state the source vertex state
+   * @return the queued events in the insertion order, or an empty list if the state does not have them
+   */
+  public static List<MistEvent> fromState(final Map<String, Object> state) {
+    final QueuedSourceEvents queuedSourceEvents = (QueuedSourceEvents) state.get(STATE_KEY);
+    if (queuedSourceEvents == null) {
+      return Collections.emptyList();
+    }
+    final List<MistEvent> events = new ArrayList<>(queuedSourceEvents.timestamps.length);
+    for (int i = 0; i < queuedSourceEvents.timestamps.length; i++) {
+      if (queuedSourceEvents.watermarks[i]) {
+        events.add(new MistWatermarkEvent(queuedSourceEvents.timestamps[i]));
+      } else {
+        events.add(new MistDataEvent(queuedSourceEvents.values.get(i), queuedSourceEvents.timestamps[i]));
+      }
+    }
+    return events;
+  }
+}
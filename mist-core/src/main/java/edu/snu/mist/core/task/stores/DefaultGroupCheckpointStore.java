@@ -17,14 +17,18 @@ package edu.snu.mist.core.task.stores;
 
 import edu.snu.mist.core.operators.Operator;
 import edu.snu.mist.core.operators.StateHandler;
+import edu.snu.mist.core.parameters.CheckpointCompactionPeriod;
 import edu.snu.mist.core.parameters.SharedStorePath;
 import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
 import edu.snu.mist.core.task.ExecutionDag;
 import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalSource;
 import edu.snu.mist.core.task.groupaware.Group;
 import edu.snu.mist.formats.avro.AvroDag;
 import edu.snu.mist.formats.avro.CheckpointResult;
 import edu.snu.mist.formats.avro.GroupCheckpoint;
+import edu.snu.mist.formats.avro.QueryCheckpoint;
+import edu.snu.mist.formats.avro.StateWithTimestamp;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.io.DatumReader;
@@ -40,13 +44,24 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * This store writes a full checkpoint of a group, and then appends delta checkpoints which only contain
+ * the vertex states that have been changed since the previous checkpoint.
+ * After a number of delta checkpoints, a new full checkpoint is taken from the live states of the group
+ * so that the previous full and delta checkpoints are compacted.
+ * The full and delta checkpoints are merged when the checkpoint is loaded.
+ */
 public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
 
   private static final Logger LOG = Logger.getLogger(DefaultGroupCheckpointStore.class.getName());
@@ -73,9 +88,22 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
    */
   private final DatumReader<GroupCheckpoint> groupCheckpointDatumReader;
 
+  /**
+   * The number of delta checkpoints between full checkpoints.
+   */
+  private final int compactionPeriod;
+
+  /**
+   * The map of group id to the information about the written checkpoints.
+   */
+  private final Map<String, CheckpointHistory> historyMap;
+
   @Inject
-  private DefaultGroupCheckpointStore(@Parameter(SharedStorePath.class) final String tmpFolderpath) {
+  private DefaultGroupCheckpointStore(@Parameter(SharedStorePath.class) final String tmpFolderpath,
+                                      @Parameter(CheckpointCompactionPeriod.class) final int compactionPeriod) {
     this.tmpFolderPath = tmpFolderpath;
+    this.compactionPeriod = compactionPeriod;
+    this.historyMap = new ConcurrentHashMap<>();
     this.avroDagDatumWriter = new SpecificDatumWriter<>(AvroDag.class);
     this.avroDagDatumReader = new SpecificDatumReader<>(AvroDag.class);
     this.groupCheckpointDatumWriter = new SpecificDatumWriter<>(GroupCheckpoint.class);
@@ -88,6 +116,12 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
     return new File(tmpFolderPath, sb.toString());
   }
 
+  private File getGroupCheckpointDeltaFile(final String groupId) {
+    final StringBuilder sb = new StringBuilder(groupId);
+    sb.append(".checkpoint.delta");
+    return new File(tmpFolderPath, sb.toString());
+  }
+
   private File getQueryStoreFile(final String queryId) {
     final StringBuilder sb = new StringBuilder(queryId);
     sb.append(".query");
@@ -136,28 +170,40 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
   public CheckpointResult checkpointGroupStates(final Tuple<String, Group> tuple) {
     final String groupId = tuple.getKey();
     final Group group = tuple.getValue();
-    final GroupCheckpoint checkpoint = group.checkpoint();
-    try {
-      // Write the file.
-      final File storedFile = getGroupCheckpointFile(groupId);
-      if (storedFile.exists()) {
-        storedFile.delete();
-        LOG.log(Level.INFO, "Checkpoint deleted for groupId: {0}", groupId);
+    final CheckpointHistory history = historyMap.computeIfAbsent(groupId, id -> new CheckpointHistory());
+    final GroupCheckpoint checkpoint;
+    synchronized (history) {
+      // After a number of delta checkpoints, a full checkpoint is taken from the live states of the group
+      // to compact the full and delta checkpoints.
+      final boolean isFull = !history.hasFullCheckpoint || compactionPeriod == 0
+          || history.numDeltas >= compactionPeriod;
+      checkpoint = isFull ? group.checkpoint() : group.checkpoint(history.timestamps);
+      try {
+        if (isFull) {
+          // The delta checkpoints of the previous full checkpoint are deleted after the new one is written.
+          writeFullCheckpoint(groupId, checkpoint);
+          history.clear();
+          history.hasFullCheckpoint = true;
+          LOG.log(Level.INFO, "Checkpoint completed for groupId: {0}", groupId);
+        } else {
+          appendDeltaCheckpoint(groupId, checkpoint);
+          history.numDeltas += 1;
+          LOG.log(Level.INFO, "Delta checkpoint completed for groupId: {0}", groupId);
+        }
+        history.update(checkpoint);
+      } catch (final Exception e) {
+        e.printStackTrace();
+        // The next checkpoint should be a full checkpoint, as the written files might be broken.
+        history.clear();
+        return CheckpointResult.newBuilder()
+            .setIsSuccess(false)
+            .setMsg("Unsuccessful in checkpointing group " + tuple.getKey())
+            .setPathToCheckpoint("")
+            .build();
       }
-      final DataFileWriter<GroupCheckpoint> dataFileWriter = new DataFileWriter<>(groupCheckpointDatumWriter);
-      dataFileWriter.create(checkpoint.getSchema(), storedFile);
-      dataFileWriter.append(checkpoint);
-      dataFileWriter.close();
-      LOG.log(Level.INFO, "Checkpoint completed for groupId: {0}", groupId);
-    } catch (final Exception e) {
-      e.printStackTrace();
-      return CheckpointResult.newBuilder()
-          .setIsSuccess(false)
-          .setMsg("Unsuccessful in checkpointing group " + tuple.getKey())
-          .setPathToCheckpoint("")
-          .build();
     }
-    // Delete all the unnecessary states within the stateMaps of stateful operators.
+    // Delete all the unnecessary states within the stateMaps of stateful operators,
+    // and let the sources acknowledge the inputs covered by the checkpoint.
     for (final ExecutionDag ed : group.getExecutionDags().values()) {
       for (final ExecutionVertex ev : ed.getDag().getVertices()) {
         if (ev.getType() == ExecutionVertex.Type.OPERATOR) {
@@ -166,6 +212,8 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
             final StateHandler stateHandler = (StateHandler) op;
             stateHandler.removeOldStates(checkpoint.getCheckpointTimestamp());
           }
+        } else if (ev.getType() == ExecutionVertex.Type.SOURCE) {
+          ((PhysicalSource) ev).checkpointCompleted(checkpoint.getCheckpointTimestamp());
         }
       }
     }
@@ -177,6 +225,48 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
         .build();
   }
 
+  /**
+   * Writes a full checkpoint of the group and deletes the delta checkpoints.
+   * The full checkpoint is written to a temporary file first, so the previous checkpoint remains if the writing fails.
+   * The delta checkpoints are deleted after the full checkpoint is written,
+   * which is safe when the full checkpoint already contains them.
+   * If the deletion does not happen, the delta checkpoints are ignored during the loading,
+   * as they are not newer than the full checkpoint.
+   */
+  private void writeFullCheckpoint(final String groupId, final GroupCheckpoint checkpoint) throws IOException {
+    final File storedFile = getGroupCheckpointFile(groupId);
+    final File tmpFile = new File(storedFile.getPath() + ".tmp");
+    final DataFileWriter<GroupCheckpoint> dataFileWriter = new DataFileWriter<>(groupCheckpointDatumWriter);
+    dataFileWriter.create(checkpoint.getSchema(), tmpFile);
+    dataFileWriter.append(checkpoint);
+    dataFileWriter.close();
+    Files.move(tmpFile.toPath(), storedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    deleteDeltaCheckpoints(groupId);
+  }
+
+  private void deleteDeltaCheckpoints(final String groupId) {
+    final File deltaFile = getGroupCheckpointDeltaFile(groupId);
+    if (deltaFile.exists()) {
+      deltaFile.delete();
+      LOG.log(Level.INFO, "Delta checkpoints deleted for groupId: {0}", groupId);
+    }
+  }
+
+  /**
+   * Appends a delta checkpoint of the group to the delta checkpoint file.
+   */
+  private void appendDeltaCheckpoint(final String groupId, final GroupCheckpoint checkpoint) throws IOException {
+    final File deltaFile = getGroupCheckpointDeltaFile(groupId);
+    final DataFileWriter<GroupCheckpoint> dataFileWriter = new DataFileWriter<>(groupCheckpointDatumWriter);
+    if (deltaFile.exists()) {
+      dataFileWriter.appendTo(deltaFile);
+    } else {
+      dataFileWriter.create(checkpoint.getSchema(), deltaFile);
+    }
+    dataFileWriter.append(checkpoint);
+    dataFileWriter.close();
+  }
+
   @Override
   public GroupCheckpoint loadSavedGroupState(final String groupId) throws IOException {
     // Load the file.
@@ -184,14 +274,61 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
     final DataFileReader<GroupCheckpoint> dataFileReader = new DataFileReader<>(storedFile, groupCheckpointDatumReader);
     GroupCheckpoint mgc = null;
     mgc = dataFileReader.next(mgc);
+    dataFileReader.close();
     if (mgc != null) {
       LOG.log(Level.INFO, "Checkpoint file found. groupId is " + groupId);
+      // Apply the delta checkpoints in the written order.
+      // The delta checkpoints that are not newer than the full checkpoint are left from the previous full checkpoint.
+      final File deltaFile = getGroupCheckpointDeltaFile(groupId);
+      if (deltaFile.exists()) {
+        final DataFileReader<GroupCheckpoint> deltaFileReader =
+            new DataFileReader<>(deltaFile, groupCheckpointDatumReader);
+        while (deltaFileReader.hasNext()) {
+          final GroupCheckpoint delta = deltaFileReader.next();
+          if (delta.getCheckpointTimestamp() > mgc.getCheckpointTimestamp()) {
+            mergeDeltaCheckpoint(mgc, delta);
+          }
+        }
+        deltaFileReader.close();
+      }
     } else {
       LOG.log(Level.WARNING, "Checkpoint file not found or error during loading. groupId is " + groupId);
     }
     return mgc;
   }
 
+  /**
+   * Merges the delta checkpoint into the checkpoint.
+   */
+  private static void mergeDeltaCheckpoint(final GroupCheckpoint checkpoint, final GroupCheckpoint delta) {
+    final Map<String, QueryCheckpoint> queryCheckpointMap = checkpoint.getQueryCheckpointMap();
+    for (final String removedQueryId : delta.getRemovedQueries()) {
+      queryCheckpointMap.remove(removedQueryId);
+    }
+    for (final Map.Entry<String, QueryCheckpoint> entry : delta.getQueryCheckpointMap().entrySet()) {
+      final QueryCheckpoint queryCheckpoint = queryCheckpointMap.get(entry.getKey());
+      if (queryCheckpoint == null) {
+        queryCheckpointMap.put(entry.getKey(), entry.getValue());
+      } else {
+        final Map<String, StateWithTimestamp> queryState = queryCheckpoint.getQueryState();
+        queryState.keySet().removeAll(entry.getValue().getRemovedVertices());
+        queryState.putAll(entry.getValue().getQueryState());
+      }
+    }
+    checkpoint.setCheckpointTimestamp(delta.getCheckpointTimestamp());
+  }
+
+  @Override
+  public void removeGroup(final String groupId) {
+    // The checkpoint files are kept, as the group can be recovered from them after the deletion.
+    final CheckpointHistory history = historyMap.remove(groupId);
+    if (history != null) {
+      synchronized (history) {
+        history.clear();
+      }
+    }
+  }
+
   @Override
   public List<String> loadSaveGroupQueryInfo(final String groupId) throws IOException {
     final File groupQueryInfoFile = getGroupQueryInfoFile(groupId);
@@ -230,4 +367,41 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
     }
     return savedQueries;
   }
-}
\ No newline at end of file
+
+  /**
+   * The information about the checkpoints of a group which have been written.
+   */
+  private static final class CheckpointHistory {
+    /**
+     * The map of query id to the map of vertex id to the written checkpoint timestamp.
+     */
+    private final Map<String, Map<String, Long>> timestamps = new HashMap<>();
+
+    /**
+     * Whether there is a full checkpoint that the delta checkpoints are based on.
+     */
+    private boolean hasFullCheckpoint = false;
+
+    /**
+     * The number of delta checkpoints written after the full checkpoint.
+     */
+    private int numDeltas = 0;
+
+    void update(final GroupCheckpoint checkpoint) {
+      timestamps.keySet().removeAll(checkpoint.getRemovedQueries());
+      for (final Map.Entry<String, QueryCheckpoint> entry : checkpoint.getQueryCheckpointMap().entrySet()) {
+        final Map<String, Long> vertexTimestamps = timestamps.computeIfAbsent(entry.getKey(), id -> new HashMap<>());
+        vertexTimestamps.keySet().removeAll(entry.getValue().getRemovedVertices());
+        for (final Map.Entry<String, StateWithTimestamp> vertexEntry : entry.getValue().getQueryState().entrySet()) {
+          vertexTimestamps.put(vertexEntry.getKey(), vertexEntry.getValue().getCheckpointTimestamp());
+        }
+      }
+    }
+
+    void clear() {
+      timestamps.clear();
+      hasFullCheckpoint = false;
+      numDeltas = 0;
+    }
+  }
+}
@@ -42,6 +42,13 @@ public interface GroupCheckpointStore {
    */
   GroupCheckpoint loadSavedGroupState(String groupId) throws IOException;
 
+  /**
+   * Removes the information about the checkpoints of the deleted group.
+   * The written checkpoints are not deleted.
+   * @param groupId groupId
+   */
+  void removeGroup(String groupId);
+
   /**
    * Load a saved group query info.
    * @param groupId groupId.
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.master.lb.scaling;
+
+import edu.snu.mist.core.master.ProxyToTaskMap;
+import edu.snu.mist.core.master.TaskRequestor;
+import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.lb.parameters.ScaleOutRegistrationTimeout;
+import edu.snu.mist.core.master.recovery.RecoveryScheduler;
+import edu.snu.mist.formats.avro.GroupStats;
+import edu.snu.mist.formats.avro.MasterToTaskMessage;
+import edu.snu.mist.formats.avro.TaskStats;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The class for testing the group selection of the recovery-based scale-out manager.
+ */
+public final class RecoveryBasedScaleOutManagerTest {
+
+  private static final double OVERLOADED_THRESHOLD = 0.8;
+
+  private static void addGroup(final TaskStats taskStats, final String groupId, final double groupLoad) {
+    taskStats.getGroupStatsMap().put(groupId, GroupStats.newBuilder()
+        .setGroupId(groupId)
+        .setAppId("app")
+        .setGroupQueryNum(1)
+        .setGroupLoad(groupLoad)
+        .build());
+  }
+
+  /**
+   * Tests that the highest-load groups are moved until the overloaded task is not overloaded anymore.
+   */
+  @Test
+  public void testSelectMovingGroups() throws InjectionException {
+    final TaskStatsMap taskStatsMap = Tang.Factory.getTang().newInjector().getInstance(TaskStatsMap.class);
+    taskStatsMap.addTask("task1");
+    taskStatsMap.addTask("task2");
+    final TaskStats task1Stats = taskStatsMap.get("task1");
+    task1Stats.setTaskLoad(1.0);
+    addGroup(task1Stats, "g1", 0.1);
+    addGroup(task1Stats, "g2", 0.15);
+    addGroup(task1Stats, "g3", 0.05);
+    addGroup(task1Stats, "g4", 0.7);
+    final TaskStats task2Stats = taskStatsMap.get("task2");
+    task2Stats.setTaskLoad(0.5);
+    addGroup(task2Stats, "g5", 0.5);
+
+    final Map<String, List<String>> result =
+        RecoveryBasedScaleOutManager.selectMovingGroups(taskStatsMap.entrySet(), OVERLOADED_THRESHOLD);
+    // g4 alone makes task1 not overloaded.
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(Arrays.asList("g4"), result.get("task1"));
+  }
+
+  /**
+   * Tests that the total load of the moved groups does not exceed the threshold.
+   */
+  @Test
+  public void testSelectMovingGroupsWithinCapacity() throws InjectionException {
+    final TaskStatsMap taskStatsMap = Tang.Factory.getTang().newInjector().getInstance(TaskStatsMap.class);
+    taskStatsMap.addTask("task1");
+    taskStatsMap.addTask("task2");
+    final TaskStats task1Stats = taskStatsMap.get("task1");
+    task1Stats.setTaskLoad(1.4);
+    addGroup(task1Stats, "g1", 0.6);
+    addGroup(task1Stats, "g2", 0.3);
+    addGroup(task1Stats, "g3", 0.5);
+    final TaskStats task2Stats = taskStatsMap.get("task2");
+    task2Stats.setTaskLoad(1.0);
+    addGroup(task2Stats, "g4", 0.1);
+    addGroup(task2Stats, "g5", 0.9);
+
+    final Map<String, List<String>> result =
+        RecoveryBasedScaleOutManager.selectMovingGroups(taskStatsMap.entrySet(), OVERLOADED_THRESHOLD);
+    // task1 is more overloaded, so its groups are chosen first: g1 and g3 exceed the capacity together.
+    Assert.assertEquals(Arrays.asList("g1"), result.get("task1"));
+    // g5 does not fit in the remaining capacity, but g4 does.
+    Assert.assertEquals(Arrays.asList("g4"), result.get("task2"));
+  }
+
+  /**
+   * Tests that the groups moved from the overloaded task are recovered in the new task.
+   */
+  @Test
+  public void testScaleOut() throws Exception {
+    final TaskRequestor taskRequestor = mock(TaskRequestor.class);
+    final RecoveryScheduler recoveryScheduler = mock(RecoveryScheduler.class);
+    final Injector injector = newInjector(taskRequestor, recoveryScheduler);
+    final TaskStatsMap taskStatsMap = injector.getInstance(TaskStatsMap.class);
+    final ProxyToTaskMap proxyToTaskMap = injector.getInstance(ProxyToTaskMap.class);
+
+    final MasterToTaskMessage proxyToTask1 = mock(MasterToTaskMessage.class);
+    taskStatsMap.addTask("task1");
+    proxyToTaskMap.addNewProxy("task1", proxyToTask1);
+    final TaskStats task1Stats = taskStatsMap.get("task1");
+    task1Stats.setTaskLoad(1.0);
+    addGroup(task1Stats, "g1", 0.1);
+    addGroup(task1Stats, "g2", 0.5);
+    when(proxyToTask1.checkpointAndRemoveGroups(Arrays.asList("g2"))).thenReturn(Arrays.asList("g2"));
+
+    // The new task is registered during the allocation.
+    final MasterToTaskMessage proxyToTask2 = mock(MasterToTaskMessage.class);
+    doAnswer(invocation -> {
+      taskStatsMap.addTask("task2");
+      proxyToTaskMap.addNewProxy("task2", proxyToTask2);
+      return true;
+    }).when(taskRequestor).setupTaskAndConn(eq(1), anyLong());
+
+    final ScaleOutManager scaleOutManager = injector.getInstance(RecoveryBasedScaleOutManager.class);
+    Assert.assertTrue(scaleOutManager.scaleOut());
+
+    final ArgumentCaptor<Map> movingGroups = ArgumentCaptor.forClass(Map.class);
+    verify(recoveryScheduler).recover(movingGroups.capture(), eq("task2"));
+    Assert.assertEquals(1, movingGroups.getValue().size());
+    Assert.assertTrue(movingGroups.getValue().containsKey("g2"));
+    Assert.assertFalse(task1Stats.getGroupStatsMap().containsKey("g2"));
+    Assert.assertTrue(task1Stats.getGroupStatsMap().containsKey("g1"));
+  }
+
+  /**
+   * Tests that no group is moved if the new task is not allocated within the registration timeout.
+   */
+  @Test
+  public void testScaleOutTimeout() throws Exception {
+    final TaskRequestor taskRequestor = mock(TaskRequestor.class);
+    final RecoveryScheduler recoveryScheduler = mock(RecoveryScheduler.class);
+    final Injector injector = newInjector(taskRequestor, recoveryScheduler);
+    final TaskStatsMap taskStatsMap = injector.getInstance(TaskStatsMap.class);
+    final ProxyToTaskMap proxyToTaskMap = injector.getInstance(ProxyToTaskMap.class);
+
+    final MasterToTaskMessage proxyToTask1 = mock(MasterToTaskMessage.class);
+    taskStatsMap.addTask("task1");
+    proxyToTaskMap.addNewProxy("task1", proxyToTask1);
+    final TaskStats task1Stats = taskStatsMap.get("task1");
+    task1Stats.setTaskLoad(1.0);
+    addGroup(task1Stats, "g1", 0.5);
+    when(taskRequestor.setupTaskAndConn(eq(1), anyLong())).thenReturn(false);
+
+    final ScaleOutManager scaleOutManager = injector.getInstance(RecoveryBasedScaleOutManager.class);
+    Assert.assertFalse(scaleOutManager.scaleOut());
+    verify(proxyToTask1, never()).checkpointAndRemoveGroups(any());
+    verify(recoveryScheduler, never()).recover(anyMap(), anyString());
+  }
+
+  private static Injector newInjector(final TaskRequestor taskRequestor,
+                                      final RecoveryScheduler recoveryScheduler) {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(ScaleOutRegistrationTimeout.class, "1000");
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    injector.bindVolatileInstance(TaskRequestor.class, taskRequestor);
+    injector.bindVolatileInstance(RecoveryScheduler.class, recoveryScheduler);
+    return injector;
+  }
+}
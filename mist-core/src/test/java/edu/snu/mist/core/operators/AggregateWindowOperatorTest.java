@@ -15,17 +15,23 @@
  */
 package edu.snu.mist.core.operators;
 
+import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.common.functions.MISTBiFunction;
 import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.core.operators.window.AggregateWindowOperator;
+import edu.snu.mist.core.operators.window.TimeWindowOperator;
 import edu.snu.mist.common.windows.WindowData;
 import edu.snu.mist.core.operators.window.WindowImpl;
 import edu.snu.mist.core.utils.OutputBufferEmitter;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -68,4 +74,125 @@ public final class AggregateWindowOperatorTest {
     Assert.assertEquals(2, result.size());
     Assert.assertEquals(watermarkEvent, result.get(1));
   }
+
+  /**
+   * Test AggregateWindowOperator with an associative reduce function.
+   * It sums up the values in the sliding windows that share the slices,
+   * and compares the results with the sums of the data collections.
+   */
+  @Test
+  public void testReduceWindowOperator() {
+    final List<MistEvent> windows = new LinkedList<>();
+    final TimeWindowOperator<Integer> timeWindowOperator = new TimeWindowOperator<>(1000, 100);
+    timeWindowOperator.setOutputEmitter(new OutputBufferEmitter(windows));
+    for (int i = 0; i < 100; i++) {
+      timeWindowOperator.processLeftData(new MistDataEvent(i, 1000L + i * 37));
+    }
+    timeWindowOperator.processLeftWatermark(new MistWatermarkEvent(10000L));
+
+    final MISTBiFunction<Integer, Integer, Integer> reduceFunc = (x, y) -> x + y;
+    final MISTFunction<WindowData<Integer>, Integer> aggregateFunc = (windowData) -> {
+      int sum = 0;
+      for (final Integer value : windowData.getDataCollection()) {
+        sum += value;
+      }
+      return sum;
+    };
+    final List<MistEvent> reduceResult = new LinkedList<>();
+    final AggregateWindowOperator<Integer, Integer> reduceWindowOperator =
+        new AggregateWindowOperator<>(reduceFunc);
+    reduceWindowOperator.setOutputEmitter(new OutputBufferEmitter(reduceResult));
+    final List<MistEvent> aggregateResult = new LinkedList<>();
+    final AggregateWindowOperator<Integer, Integer> aggregateWindowOperator =
+        new AggregateWindowOperator<>(aggregateFunc);
+    aggregateWindowOperator.setOutputEmitter(new OutputBufferEmitter(aggregateResult));
+
+    final List<MistEvent> expected = new ArrayList<>();
+    for (final MistEvent event : windows) {
+      if (event.isData()) {
+        final MistDataEvent window = (MistDataEvent) event;
+        reduceWindowOperator.processLeftData(new MistDataEvent(window.getValue(), window.getTimestamp()));
+        if (!((WindowData) window.getValue()).getDataCollection().isEmpty()) {
+          aggregateWindowOperator.processLeftData(new MistDataEvent(window.getValue(), window.getTimestamp()));
+        }
+      }
+    }
+    expected.addAll(aggregateResult);
+    Assert.assertTrue(expected.size() > 10);
+    Assert.assertEquals(expected, reduceResult);
+  }
+
+  /**
+   * Test AggregateWindowOperator with an associative reduce function that receives the windows directly.
+   * After the first window is reduced, the slices should reduce the data as they are put,
+   * and the reduced values should be the sums of the data collections.
+   */
+  @Test
+  public void testIncrementalReduceWindowOperator() {
+    final boolean[] emitting = new boolean[1];
+    final int[] numReducesOnPut = new int[1];
+    final MISTBiFunction<Integer, Integer, Integer> reduceFunc = (x, y) -> {
+      if (!emitting[0]) {
+        numReducesOnPut[0] += 1;
+      }
+      return x + y;
+    };
+    final List<MistEvent> reduceResult = new LinkedList<>();
+    final AggregateWindowOperator<Integer, Integer> reduceWindowOperator =
+        new AggregateWindowOperator<>(reduceFunc);
+    reduceWindowOperator.setOutputEmitter(new OutputBufferEmitter(reduceResult));
+
+    final List<Integer> expected = new ArrayList<>();
+    final TimeWindowOperator<Integer> timeWindowOperator = new TimeWindowOperator<>(1000, 100);
+    timeWindowOperator.setOutputEmitter(new OutputEmitter() {
+      @Override
+      public void emitData(final MistDataEvent data) {
+        final Collection<Integer> dataCollection = ((WindowData<Integer>) data.getValue()).getDataCollection();
+        if (!dataCollection.isEmpty()) {
+          int sum = 0;
+          for (final Integer value : dataCollection) {
+            sum += value;
+          }
+          expected.add(sum);
+        }
+        emitting[0] = true;
+        reduceWindowOperator.processLeftData(data);
+        emitting[0] = false;
+      }
+
+      @Override
+      public void emitData(final MistDataEvent data, final int index) {
+        emitData(data);
+      }
+
+      @Override
+      public void emitDataBatch(final List<MistDataEvent> dataList) {
+        for (final MistDataEvent data : dataList) {
+          emitData(data);
+        }
+      }
+
+      @Override
+      public void emitWatermark(final MistWatermarkEvent watermark) {
+        // do nothing
+      }
+
+      @Override
+      public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+        // do nothing
+      }
+    });
+    for (int i = 0; i < 100; i++) {
+      timeWindowOperator.processLeftData(new MistDataEvent(i, 1000L + i * 37));
+    }
+    timeWindowOperator.processLeftWatermark(new MistWatermarkEvent(10000L));
+
+    final List<Integer> result = new ArrayList<>();
+    for (final MistEvent event : reduceResult) {
+      result.add((Integer) ((MistDataEvent) event).getValue());
+    }
+    Assert.assertTrue(expected.size() > 10);
+    Assert.assertEquals(expected, result);
+    Assert.assertTrue(numReducesOnPut[0] > 0);
+  }
 }
@@ -17,6 +17,7 @@ package edu.snu.mist.core.operators;
 
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.cep.CepEventContiguity;
 import edu.snu.mist.common.cep.CepEventPattern;
 import edu.snu.mist.common.functions.MISTPredicate;
@@ -33,6 +34,7 @@ import java.util.Map;
 public class CepOperatorTest {
 
   private final MISTPredicate<CepExampleClass> conditionA = s -> s.getName().equals("A");
+  private final MISTPredicate<CepExampleClass> conditionB = s -> s.getName().equals("B");
   private final Class exampleClassType = CepExampleClass.class;
   private final CepEventContiguity strictContiguity = CepEventContiguity.STRICT;
   private final CepEventContiguity ndrContiguity = CepEventContiguity.NON_DETERMINISTIC_RELAXED;
@@ -250,6 +252,109 @@ public class CepOperatorTest {
     Assert.assertEquals(4, a14.getAge());
   }
 
+  /**
+   * Create a cep operator for the pattern: A --(NDR)-- B.
+   * @param windowTime window time
+   * @param result the list that collects the outputs
+   */
+  private CepOperator<CepExampleClass> createSequenceCepOperator(final long windowTime,
+                                                                final List<MistEvent> result) {
+    final CepEventPattern<CepExampleClass> event1 = new CepEventPattern.Builder<CepExampleClass>()
+        .setName("first")
+        .setCondition(conditionA)
+        .setClass(exampleClassType)
+        .setContiguity(ndrContiguity)
+        .build();
+    final CepEventPattern<CepExampleClass> event2 = new CepEventPattern.Builder<CepExampleClass>()
+        .setName("second")
+        .setCondition(conditionB)
+        .setClass(exampleClassType)
+        .setContiguity(ndrContiguity)
+        .build();
+
+    final List<CepEventPattern<CepExampleClass>> exampleEventSequence = new ArrayList<>();
+    exampleEventSequence.add(event1);
+    exampleEventSequence.add(event2);
+
+    final CepOperator<CepExampleClass> cepOperator = new CepOperator<>(exampleEventSequence, windowTime);
+    cepOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    return cepOperator;
+  }
+
+  /**
+   * Test for cep operator with overlapping matches and window time.
+   * Window time: 2L
+   * Pattern: A --(NDR)-- B
+   * Input: A1(1L), A2(2L), B3(3L), B4(4L)
+   * Result: A1-B3, A2-B3, A2-B4 (A1 is timed out at B4)
+   */
+  @Test
+  public void testCepOperatorOverlappingMatchesWithTimeout() {
+    final List<MistEvent> result = new LinkedList<>();
+    final CepOperator<CepExampleClass> cepOperator = createSequenceCepOperator(2L, result);
+
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("A", 1), 1L));
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("A", 2), 2L));
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("B", 3), 3L));
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("B", 4), 4L));
+
+    Assert.assertEquals(3, result.size());
+    final int[][] expected = {{1, 3}, {2, 3}, {2, 4}};
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i][0], getCepExampleClass(result, i, "first", 0).getAge());
+      Assert.assertEquals(expected[i][1], getCepExampleClass(result, i, "second", 0).getAge());
+      Assert.assertEquals(expected[i][1], ((MistDataEvent) result.get(i)).getTimestamp());
+    }
+  }
+
+  /**
+   * Test for cep operator with the runs that are timed out but not at the head of the runs.
+   * Window time: 5L
+   * Pattern: A --(NDR)-- B
+   * Input: A1(10L), A2(1L), B3(12L), B4(16L)
+   * Result: A1-B3 (A2 is timed out at B3, and A1 is timed out at B4)
+   */
+  @Test
+  public void testCepOperatorOutOfOrderTimeout() {
+    final List<MistEvent> result = new LinkedList<>();
+    final CepOperator<CepExampleClass> cepOperator = createSequenceCepOperator(5L, result);
+
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("A", 1), 10L));
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("A", 2), 1L));
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("B", 3), 12L));
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("B", 4), 16L));
+
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(1, getCepExampleClass(result, 0, "first", 0).getAge());
+    Assert.assertEquals(3, getCepExampleClass(result, 0, "second", 0).getAge());
+  }
+
+  /**
+   * Test whether the watermark discards the runs that are timed out before the watermark.
+   * Window time: 5L
+   * Pattern: A --(NDR)-- B
+   * Input: A1(1L), A2(5L), Watermark(7L), B3(4L)
+   * Result: A2-B3 (A1 is timed out at the watermark)
+   */
+  @Test
+  public void testCepOperatorWatermarkTimeout() {
+    final List<MistEvent> result = new LinkedList<>();
+    final CepOperator<CepExampleClass> cepOperator = createSequenceCepOperator(5L, result);
+
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("A", 1), 1L));
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("A", 2), 5L));
+    cepOperator.processLeftWatermark(new MistWatermarkEvent(7L));
+    Assert.assertEquals(1, result.size());
+    Assert.assertFalse(result.get(0).isData());
+
+    // The late input would also match A1 if A1 had not been discarded by the watermark
+    cepOperator.processLeftData(new MistDataEvent(new CepExampleClass("B", 3), 4L));
+
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(2, getCepExampleClass(result, 1, "first", 0).getAge());
+    Assert.assertEquals(3, getCepExampleClass(result, 1, "second", 0).getAge());
+  }
+
   /**
    * Test for cep operator with both strict & non-deterministic contiguity.
    * Pattern: A --(Strict)-- A --(NDR) -- A
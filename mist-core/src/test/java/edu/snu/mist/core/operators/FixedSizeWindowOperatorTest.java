@@ -115,6 +115,7 @@ public final class FixedSizeWindowOperatorTest {
 
   /**
    * Test getting state of the TimeWindowOperator.
+   * The overlapping windows should share the slice that contains the input.
    */
   @Test
   public void testTimeWindowOperatorGetState() throws InterruptedException {
@@ -139,18 +140,35 @@ public final class FixedSizeWindowOperatorTest {
     expectedWindowQueue.add(expectedWindow2);
     final long expectedWindowCreationPoint = d4.getTimestamp() + emissionInterval;
 
+    // The state in which each window holds its own data is loaded into another operator,
+    // so that it is compared with the sliced state.
+    final Map<String, Object> expectedStateMap = new HashMap<>();
+    expectedStateMap.put("windowQueue", expectedWindowQueue);
+    expectedStateMap.put("windowCreationPoint", expectedWindowCreationPoint);
+    final TimeWindowOperator<Integer> expectedOperator =
+        new TimeWindowOperator<>(windowSize, emissionInterval);
+    expectedOperator.setState(expectedStateMap);
+
     // Get the current TimeWindowOperator's state.
     final Map<String, Object> operatorState = timeWindowOperator.getStateSnapshot();
-    final Queue<Window<Integer>> windowQueue = (Queue<Window<Integer>>)operatorState.get("windowQueue");
+    final Collection<?> slices = (Collection<?>)operatorState.get("slices");
     final long windowCreationPoint = (long)operatorState.get("windowCreationPoint");
 
     // Compare the expected and original operator's state.
-    Assert.assertEquals(expectedWindowQueue, windowQueue);
+    Assert.assertEquals(expectedOperator.getStateSnapshot().get("windowQueue"), operatorState.get("windowQueue"));
     Assert.assertEquals(expectedWindowCreationPoint, windowCreationPoint);
+    // d4 and w2 are stored once in a slice.
+    Assert.assertEquals(1, slices.size());
+    // The operators emit the same windows.
+    final List<MistEvent> inputs = Arrays.asList(new MistWatermarkEvent(3000L));
+    final List<MistEvent> expectedResult = process(expectedOperator, inputs);
+    Assert.assertEquals(4, expectedResult.size());
+    Assert.assertEquals(expectedResult, process(timeWindowOperator, inputs));
   }
 
   /**
    * Test setting state of the TimeWindowOperator.
+   * The state in which each window holds its own data should be loaded.
    */
   @Test
   public void testTimeWindowOperatorSetState() throws InterruptedException {
@@ -175,14 +193,25 @@ public final class FixedSizeWindowOperatorTest {
         new TimeWindowOperator<>(windowSize, emissionInterval);
     timeWindowOperator.setState(loadStateMap);
 
-    // Get the current TimeWindowOperator's state.
+    // Compare the set operator with the operator that received the same inputs.
+    final TimeWindowOperator<Integer> originalOperator =
+        new TimeWindowOperator<>(windowSize, emissionInterval);
+    originalOperator.processLeftData(d4);
+    originalOperator.processLeftWatermark(w2);
+    final Map<String, Object> originalState = originalOperator.getStateSnapshot();
     final Map<String, Object> operatorState = timeWindowOperator.getStateSnapshot();
-    final Queue<Window<Integer>> windowQueue = (Queue<Window<Integer>>)operatorState.get("windowQueue");
-    final long windowCreationPoint = (long)operatorState.get("windowCreationPoint");
+    Assert.assertEquals(originalState.get("windowQueue"), operatorState.get("windowQueue"));
+    Assert.assertEquals(expectedWindowCreationPoint, operatorState.get("windowCreationPoint"));
+    Assert.assertEquals(originalState.get("firstSliceId"), operatorState.get("firstSliceId"));
+    Assert.assertEquals(originalState.get("lastSliceOpen"), operatorState.get("lastSliceOpen"));
 
-    // Compare the original and the set operator.
-    Assert.assertEquals(expectedWindowQueue, windowQueue);
-    Assert.assertEquals(expectedWindowCreationPoint, windowCreationPoint);
+    // The state of the sliced format should be loaded as well.
+    final TimeWindowOperator<Integer> slicedStateOperator =
+        new TimeWindowOperator<>(windowSize, emissionInterval);
+    slicedStateOperator.setState(originalState);
+    Assert.assertEquals(originalState.get("windowQueue"), slicedStateOperator.getStateSnapshot().get("windowQueue"));
+    Assert.assertEquals(process(originalOperator, Arrays.asList(d10)),
+        process(slicedStateOperator, Arrays.asList(d10)));
 
     // Test if the operator can properly process data.
     final List<MistEvent> result = new LinkedList<>();
@@ -195,6 +224,7 @@ public final class FixedSizeWindowOperatorTest {
         result.get(0), expectedResult1, d4.getTimestamp(), emissionInterval, w2.getTimestamp());
     Assert.assertEquals(result.get(1), w2);
   }
+
   /**
    * Test TimeWindowOperator creating hopping window.
    * It receives some continuous data stream and groups them as a collection.
@@ -337,20 +367,38 @@ public final class FixedSizeWindowOperatorTest {
     final long expectedWindowCreationPoint = 2L + emissionInterval;
     final long expectedCount = 3L;
 
+    // The state in which each window holds its own data is loaded into another operator,
+    // so that it is compared with the sliced state.
+    final Map<String, Object> expectedStateMap = new HashMap<>();
+    expectedStateMap.put("windowQueue", expectedWindowQueue);
+    expectedStateMap.put("windowCreationPoint", expectedWindowCreationPoint);
+    expectedStateMap.put("count", expectedCount);
+    final CountWindowOperator<Integer> expectedOperator =
+        new CountWindowOperator<>(windowSize, emissionInterval);
+    expectedOperator.setState(expectedStateMap);
+
     // Get the current CountWindowOperator's state.
     final Map<String, Object> operatorState = countWindowOperator.getStateSnapshot();
-    final Queue<Window<Integer>> windowQueue = (LinkedList<Window<Integer>>)operatorState.get("windowQueue");
+    final Collection<?> slices = (Collection<?>)operatorState.get("slices");
     final long windowCreationPoint = (long)operatorState.get("windowCreationPoint");
     final long count = (long)operatorState.get("count");
 
     // Compare the expected and original operator's state.
-    Assert.assertEquals(expectedWindowQueue, windowQueue);
+    Assert.assertEquals(expectedOperator.getStateSnapshot().get("windowQueue"), operatorState.get("windowQueue"));
     Assert.assertEquals(expectedWindowCreationPoint, windowCreationPoint);
     Assert.assertEquals(expectedCount, count);
+    // The second window is created when d2 arrives, so d1 and d2 are stored in different slices.
+    Assert.assertEquals(2, slices.size());
+    // The operators emit the same windows.
+    final List<MistEvent> inputs = Arrays.asList(d3, d4, d5, d6, d7);
+    final List<MistEvent> expectedResult = process(expectedOperator, inputs);
+    Assert.assertEquals(2, expectedResult.size());
+    Assert.assertEquals(expectedResult, process(countWindowOperator, inputs));
   }
 
   /**
    * Test setting state of the CountWindowOperator.
+   * The state in which each window holds its own data should be loaded.
    */
   @Test
   public void testCountWindowOperatorSetState() throws InterruptedException {
@@ -376,14 +424,26 @@ public final class FixedSizeWindowOperatorTest {
         new CountWindowOperator<>(windowSize, emissionInterval);
     countWindowOperator.setState(loadStateMap);
 
-    // Compare the original and the set operator.
+    // Compare the set operator with the operator that received the same inputs.
+    final CountWindowOperator<Integer> originalOperator =
+        new CountWindowOperator<>(windowSize, emissionInterval);
+    originalOperator.processLeftData(d1);
+    originalOperator.processLeftData(d2);
+    final Map<String, Object> originalState = originalOperator.getStateSnapshot();
     final Map<String, Object> operatorState = countWindowOperator.getStateSnapshot();
-    final Queue<Window<Integer>> windowQueue = (Queue<Window<Integer>>)operatorState.get("windowQueue");
-    final long windowCreationPoint = (long)operatorState.get("windowCreationPoint");
-    final long count = (long)operatorState.get("count");
-    Assert.assertEquals(expectedWindowQueue, windowQueue);
-    Assert.assertEquals(expectedWindowCreationPoint, windowCreationPoint);
-    Assert.assertEquals(expectedCount, count);
+    Assert.assertEquals(originalState.get("windowQueue"), operatorState.get("windowQueue"));
+    Assert.assertEquals(expectedWindowCreationPoint, operatorState.get("windowCreationPoint"));
+    Assert.assertEquals(expectedCount, operatorState.get("count"));
+    Assert.assertEquals(originalState.get("firstSliceId"), operatorState.get("firstSliceId"));
+    Assert.assertEquals(originalState.get("lastSliceOpen"), operatorState.get("lastSliceOpen"));
+
+    // The state of the sliced format should be loaded as well.
+    final CountWindowOperator<Integer> slicedStateOperator =
+        new CountWindowOperator<>(windowSize, emissionInterval);
+    slicedStateOperator.setState(originalState);
+    Assert.assertEquals(originalState.get("windowQueue"), slicedStateOperator.getStateSnapshot().get("windowQueue"));
+    Assert.assertEquals(process(originalOperator, Arrays.asList(d3)),
+        process(slicedStateOperator, Arrays.asList(d3)));
 
     // Test if the operator can properly process data.
     final List<MistEvent> result = new LinkedList<>();
@@ -450,4 +510,23 @@ public final class FixedSizeWindowOperatorTest {
         result.get(2), expectedResult2, emissionInterval + 1L, windowSize, d8.getTimestamp());
     Assert.assertEquals(w3, result.get(3));
   }
+
+  /**
+   * Processes the inputs with the operator.
+   * @param operator the operator
+   * @param inputs the data and watermarks
+   * @return the outputs of the operator
+   */
+  private static List<MistEvent> process(final OneStreamOperator operator, final List<MistEvent> inputs) {
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+    for (final MistEvent input : inputs) {
+      if (input.isData()) {
+        operator.processLeftData((MistDataEvent) input);
+      } else {
+        operator.processLeftWatermark((MistWatermarkEvent) input);
+      }
+    }
+    return result;
+  }
 }
@@ -15,21 +15,26 @@
  */
 package edu.snu.mist.core.operators;
 
+import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.functions.MISTBiPredicate;
+import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.types.Tuple2;
 import edu.snu.mist.core.utils.OutputBufferEmitter;
 import edu.snu.mist.common.windows.WindowData;
 import edu.snu.mist.core.operators.window.WindowImpl;
+import edu.snu.mist.core.task.StateSerializer;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 public final class JoinOperatorTest {
 
@@ -84,4 +89,195 @@ public final class JoinOperatorTest {
     Assert.assertEquals(2, result.size());
     Assert.assertEquals(watermarkEvent, result.get(1));
   }
+
+  /**
+   * Tests the hash join of JoinOperator.
+   * It should produce the same pairs in the same order as the predicate join,
+   * regardless of the side that the hash table is built on.
+   */
+  @Test
+  public void testHashJoinOperator() {
+    final MISTBiPredicate<Tuple2<String, Integer>, Tuple2<Integer, Long>> joinPredicate =
+        (tuple1, tuple2) -> tuple1.get(1).equals(tuple2.get(0));
+    final MISTFunction<Tuple2<String, Integer>, Object> firstKeyFunc = tuple -> tuple.get(1);
+    final MISTFunction<Tuple2<Integer, Long>, Object> secondKeyFunc = tuple -> tuple.get(0);
+
+    // the first side is larger at first, and then the second side is larger
+    for (final int numSecondInputs : new int[]{20, 200}) {
+      final WindowImpl<Integer> window = new WindowImpl<>(0L, 1000L);
+      for (int i = 0; i < 100; i++) {
+        window.putData(new MistDataEvent(new Tuple2<>(new Tuple2<>("s" + i, i % 7), null), i));
+      }
+      for (int i = 0; i < numSecondInputs; i++) {
+        window.putData(new MistDataEvent(new Tuple2<>(null, new Tuple2<>(i % 11, (long) i)), i));
+      }
+
+      final List<MistEvent> expected = new LinkedList<>();
+      final JoinOperator<Tuple2<String, Integer>, Tuple2<Integer, Long>> predicateJoinOperator =
+          new JoinOperator<>(joinPredicate);
+      predicateJoinOperator.setOutputEmitter(new OutputBufferEmitter(expected));
+      predicateJoinOperator.processLeftData(new MistDataEvent(window, 100L));
+
+      final List<MistEvent> result = new LinkedList<>();
+      final JoinOperator<Tuple2<String, Integer>, Tuple2<Integer, Long>> hashJoinOperator =
+          new JoinOperator<>(firstKeyFunc, secondKeyFunc);
+      hashJoinOperator.setOutputEmitter(new OutputBufferEmitter(result));
+      hashJoinOperator.processLeftData(new MistDataEvent(window, 100L));
+
+      final Collection expectedPairs = ((WindowData) ((MistDataEvent) expected.get(0)).getValue()).getDataCollection();
+      final Collection resultPairs = ((WindowData) ((MistDataEvent) result.get(0)).getValue()).getDataCollection();
+      Assert.assertFalse(expectedPairs.isEmpty());
+      Assert.assertEquals(new ArrayList<>(expectedPairs), new ArrayList<>(resultPairs));
+    }
+  }
+
+  /**
+   * Tests SymmetricHashJoinOperator.
+   * It emits the pairs as soon as they are matched, and evicts the inputs older than the window time.
+   */
+  @Test
+  public void testSymmetricHashJoinOperator() {
+    final SymmetricHashJoinOperator<Tuple2<String, Integer>, Tuple2<Integer, Long>> joinOperator =
+        new SymmetricHashJoinOperator<>(tuple -> tuple.get(1), tuple -> tuple.get(0), 100L);
+    final List<MistEvent> result = new LinkedList<>();
+    joinOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("Hello", 1), 10L));
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("MIST", 2), 20L));
+    Assert.assertEquals(0, result.size());
+
+    joinOperator.processRightData(new MistDataEvent(new Tuple2<>(1, 3000L), 30L));
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(new MistDataEvent(new Tuple2<>(new Tuple2<>("Hello", 1), new Tuple2<>(1, 3000L)), 30L),
+        result.get(0));
+
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("SNUCMS", 1), 40L));
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(new MistDataEvent(new Tuple2<>(new Tuple2<>("SNUCMS", 1), new Tuple2<>(1, 3000L)), 40L),
+        result.get(1));
+
+    // {Hello, 1} and {MIST, 2} are evicted
+    joinOperator.processRightData(new MistDataEvent(new Tuple2<>(2, 5000L), 125L));
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(3, joinOperator.numberOfStoredInputs());
+
+    // watermark is emitted when both streams advance
+    joinOperator.processLeftWatermark(new MistWatermarkEvent(130L));
+    Assert.assertEquals(2, result.size());
+    final MistWatermarkEvent watermarkEvent = new MistWatermarkEvent(140L);
+    joinOperator.processRightWatermark(watermarkEvent);
+    Assert.assertEquals(3, result.size());
+    Assert.assertEquals(new MistWatermarkEvent(130L), result.get(2));
+  }
+
+  /**
+   * Tests SymmetricHashJoinOperator with the inputs that arrive later than the inputs of the same stream.
+   * An input is joined with the inputs whose timestamps are within the window time before or after it,
+   * and the inputs are kept until the other stream passes them by the window time.
+   */
+  @Test
+  public void testSymmetricHashJoinLateArrival() {
+    final SymmetricHashJoinOperator<Tuple2<String, Integer>, Tuple2<Integer, Long>> joinOperator =
+        new SymmetricHashJoinOperator<>(tuple -> tuple.get(1), tuple -> tuple.get(0), 100L);
+    final List<MistEvent> result = new LinkedList<>();
+    joinOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    joinOperator.processLeftWatermark(new MistWatermarkEvent(50L));
+    joinOperator.processRightWatermark(new MistWatermarkEvent(50L));
+    Assert.assertEquals(1, result.size());
+
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("Hello", 1), 100L));
+    joinOperator.processRightData(new MistDataEvent(new Tuple2<>(1, 1000L), 250L));
+    Assert.assertEquals(1, result.size());
+
+    // {Late, 1} arrives late, and it is 180 earlier than {1, 1000}
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("Late", 1), 70L));
+    Assert.assertEquals(1, result.size());
+
+    // {1, 2000} arrives late, but it is joined with {Hello, 1} and {Late, 1}
+    joinOperator.processRightData(new MistDataEvent(new Tuple2<>(1, 2000L), 160L));
+    Assert.assertEquals(3, result.size());
+    Assert.assertTrue(result.contains(
+        new MistDataEvent(new Tuple2<>(new Tuple2<>("Hello", 1), new Tuple2<>(1, 2000L)), 160L)));
+    Assert.assertTrue(result.contains(
+        new MistDataEvent(new Tuple2<>(new Tuple2<>("Late", 1), new Tuple2<>(1, 2000L)), 160L)));
+    Assert.assertEquals(4, joinOperator.numberOfStoredInputs());
+
+    // {Late, 1} is evicted as the right stream passes 170
+    joinOperator.processRightWatermark(new MistWatermarkEvent(200L));
+    Assert.assertEquals(3, joinOperator.numberOfStoredInputs());
+    // {1, 2000} is evicted as the left stream passes 260
+    joinOperator.processLeftWatermark(new MistWatermarkEvent(300L));
+    Assert.assertEquals(2, joinOperator.numberOfStoredInputs());
+    Assert.assertEquals(new MistWatermarkEvent(200L), result.get(result.size() - 1));
+  }
+
+  /**
+   * Tests SymmetricHashJoinOperator with a stream lagging behind the other stream.
+   * The inputs of the leading stream are kept until the lagging stream catches up with them.
+   */
+  @Test
+  public void testSymmetricHashJoinLaggingSide() {
+    final SymmetricHashJoinOperator<Tuple2<String, Integer>, Tuple2<Integer, Long>> joinOperator =
+        new SymmetricHashJoinOperator<>(tuple -> tuple.get(1), tuple -> tuple.get(0), 100L);
+    final List<MistEvent> result = new LinkedList<>();
+    joinOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("Hello", 1), 10L));
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("MIST", 1), 500L));
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("SNUCMS", 1), 1000L));
+    Assert.assertEquals(3, joinOperator.numberOfStoredInputs());
+
+    joinOperator.processRightData(new MistDataEvent(new Tuple2<>(1, 1000L), 50L));
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(new MistDataEvent(new Tuple2<>(new Tuple2<>("Hello", 1), new Tuple2<>(1, 1000L)), 50L),
+        result.get(0));
+    // {1, 1000} cannot be joined with the left inputs arriving later
+    Assert.assertEquals(3, joinOperator.numberOfStoredInputs());
+
+    // {Hello, 1} is evicted as the right stream passes 110
+    joinOperator.processRightData(new MistDataEvent(new Tuple2<>(1, 2000L), 450L));
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(new MistDataEvent(new Tuple2<>(new Tuple2<>("MIST", 1), new Tuple2<>(1, 2000L)), 500L),
+        result.get(1));
+    Assert.assertEquals(2, joinOperator.numberOfStoredInputs());
+  }
+
+  /**
+   * Tests whether SymmetricHashJoinOperator restores the stored inputs from a checkpointed state.
+   */
+  @Test
+  public void testSymmetricHashJoinCheckpoint() {
+    final MISTFunction<Tuple2<String, Integer>, Integer> firstKeyFunc = tuple -> (Integer) tuple.get(1);
+    final MISTFunction<Tuple2<Integer, Long>, Integer> secondKeyFunc = tuple -> (Integer) tuple.get(0);
+    final SymmetricHashJoinOperator<Tuple2<String, Integer>, Tuple2<Integer, Long>> joinOperator =
+        new SymmetricHashJoinOperator<>(firstKeyFunc, secondKeyFunc, 100L);
+    final List<MistEvent> result = new LinkedList<>();
+    joinOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("Hello", 1), 10L));
+    joinOperator.processRightData(new MistDataEvent(new Tuple2<>(2, 1000L), 20L));
+    joinOperator.processLeftCheckpoint(new MistCheckpointEvent());
+    // {MIST, 1} is not included in the checkpointed state
+    joinOperator.processLeftData(new MistDataEvent(new Tuple2<>("MIST", 1), 30L));
+    Assert.assertEquals(0, result.size());
+    Assert.assertEquals(3, joinOperator.numberOfStoredInputs());
+
+    final Map<String, Object> checkpointedState = StateSerializer.deserializeStateMap(
+        StateSerializer.serializeStateMap(joinOperator.getOperatorState(20L)));
+    final SymmetricHashJoinOperator<Tuple2<String, Integer>, Tuple2<Integer, Long>> restoredOperator =
+        new SymmetricHashJoinOperator<>(firstKeyFunc, secondKeyFunc, 100L);
+    final List<MistEvent> restoredResult = new LinkedList<>();
+    restoredOperator.setOutputEmitter(new OutputBufferEmitter(restoredResult));
+    restoredOperator.setState(checkpointedState);
+    Assert.assertEquals(2, restoredOperator.numberOfStoredInputs());
+
+    restoredOperator.processRightData(new MistDataEvent(new Tuple2<>(1, 3000L), 40L));
+    restoredOperator.processLeftData(new MistDataEvent(new Tuple2<>("SNUCMS", 2), 50L));
+    Assert.assertEquals(2, restoredResult.size());
+    Assert.assertEquals(new MistDataEvent(new Tuple2<>(new Tuple2<>("Hello", 1), new Tuple2<>(1, 3000L)), 40L),
+        restoredResult.get(0));
+    Assert.assertEquals(new MistDataEvent(new Tuple2<>(new Tuple2<>("SNUCMS", 2), new Tuple2<>(2, 1000L)), 50L),
+        restoredResult.get(1));
+  }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.common.windows.WindowData;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.window.KeyedAggregateWindowOperator;
+import edu.snu.mist.core.utils.FindMaxIntFunction;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the keyed operators that keep separate states and windows for each key.
+ * The key of an input integer is its remainder of division by two.
+ */
+public final class KeyedOperatorTest {
+
+  private final MISTFunction<Integer, Integer> keyFunc = input -> input % 2;
+
+  private final MISTFunction<WindowData<Integer>, Integer> sumFunc = windowData -> {
+    int sum = 0;
+    for (final int data : windowData.getDataCollection()) {
+      sum += data;
+    }
+    return sum;
+  };
+
+  private void assertOutput(final MistEvent event, final int key, final int value, final long timestamp) {
+    Assert.assertTrue(event instanceof MistDataEvent);
+    Assert.assertEquals(new Tuple2<>(key, value), ((MistDataEvent) event).getValue());
+    Assert.assertEquals(timestamp, event.getTimestamp());
+  }
+
+  /**
+   * Test whether the keyed applyStateful operator finds the maximum value of each key
+   * and evicts the idle keys.
+   */
+  @Test
+  public void testKeyedApplyStatefulOperator() {
+    final KeyedApplyStatefulOperator<Integer, Integer, Integer> operator =
+        new KeyedApplyStatefulOperator<>(keyFunc, new FindMaxIntFunction(), Integer.class, 5L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(10, 0L));
+    operator.processLeftData(new MistDataEvent(21, 1L));
+    operator.processLeftData(new MistDataEvent(15, 2L));
+    operator.processLeftData(new MistDataEvent(33, 3L));
+    Assert.assertEquals(4, result.size());
+    assertOutput(result.get(0), 0, 10, 0L);
+    assertOutput(result.get(1), 1, 21, 1L);
+    assertOutput(result.get(2), 1, 21, 2L);
+    assertOutput(result.get(3), 1, 33, 3L);
+
+    // Both keys are idle for more than 5 ms, so their states are evicted
+    operator.processLeftData(new MistDataEvent(4, 10L));
+    assertOutput(result.get(4), 0, 4, 10L);
+    final Map<String, Object> snapshot = operator.getStateSnapshot();
+    Assert.assertEquals(1, ((Map) snapshot.get("keyedApplyStatefulOperatorState")).size());
+
+    // The recovered operator continues from the snapshot
+    final KeyedApplyStatefulOperator<Integer, Integer, Integer> recoveredOperator =
+        new KeyedApplyStatefulOperator<>(keyFunc, new FindMaxIntFunction(), Integer.class, 5L);
+    recoveredOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    recoveredOperator.setState(snapshot);
+    recoveredOperator.processLeftData(new MistDataEvent(2, 11L));
+    assertOutput(result.get(5), 0, 4, 11L);
+  }
+
+  /**
+   * An ApplyStatefulFunction that collects the inputs in a mutable list.
+   * The initialize() clears the list instead of creating a new list,
+   * so the list of a key is corrupted if the keys share the initial state.
+   */
+  private static final class CollectFunction implements ApplyStatefulFunction<Integer, List<Integer>> {
+    private List<Integer> state = new ArrayList<>();
+
+    @Override
+    public void initialize() {
+      state.clear();
+    }
+
+    @Override
+    public void update(final Integer input) {
+      state.add(input);
+    }
+
+    @Override
+    public Object getCurrentState() {
+      return state;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void setFunctionState(final Object loadedState) {
+      state = (List<Integer>) loadedState;
+    }
+
+    @Override
+    public List<Integer> produceResult() {
+      return new ArrayList<>(state);
+    }
+  }
+
+  /**
+   * Test whether the keys of the keyed applyStateful operator do not share a mutable state.
+   */
+  @Test
+  public void testKeyedApplyStatefulOperatorWithMutableState() {
+    final KeyedApplyStatefulOperator<Integer, Integer, List<Integer>> operator =
+        new KeyedApplyStatefulOperator<>(keyFunc, new CollectFunction(), Integer.class, 0L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(10, 0L));
+    operator.processLeftData(new MistDataEvent(21, 1L));
+    operator.processLeftData(new MistDataEvent(12, 2L));
+    operator.processLeftData(new MistDataEvent(23, 3L));
+    Assert.assertEquals(new Tuple2<>(0, Arrays.asList(10, 12)), ((MistDataEvent) result.get(2)).getValue());
+    Assert.assertEquals(new Tuple2<>(1, Arrays.asList(21, 23)), ((MistDataEvent) result.get(3)).getValue());
+  }
+
+  /**
+   * Test whether the keyed time window operator sums the values in the sliding windows of each key.
+   * The windows are [-5, 4], [0, 9], [5, 14], [10, 19].
+   */
+  @Test
+  public void testKeyedTimeWindowOperator() {
+    final KeyedAggregateWindowOperator<Integer, Integer, Integer> operator = new KeyedAggregateWindowOperator<>(
+        keyFunc, sumFunc, Integer.class, ConfValues.OperatorType.TIME_WINDOW, 10L, 5L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(1, 1L));
+    operator.processLeftData(new MistDataEvent(2, 3L));
+    Assert.assertEquals(0, result.size());
+
+    // The windows [-5, 4] are closed
+    operator.processLeftData(new MistDataEvent(3, 7L));
+    Assert.assertEquals(2, result.size());
+    assertOutput(result.get(0), 1, 1, 4L);
+    assertOutput(result.get(1), 0, 2, 4L);
+
+    // The windows [0, 9] are closed, and the key 0 does not have any data after that
+    operator.processLeftData(new MistDataEvent(5, 12L));
+    Assert.assertEquals(4, result.size());
+    assertOutput(result.get(2), 1, 4, 9L);
+    assertOutput(result.get(3), 0, 2, 9L);
+    Assert.assertEquals(1, ((Map) operator.getStateSnapshot().get("keyedWindows")).size());
+
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(30L);
+    operator.processLeftWatermark(watermark);
+    Assert.assertEquals(7, result.size());
+    assertOutput(result.get(4), 1, 8, 14L);
+    assertOutput(result.get(5), 1, 5, 19L);
+    Assert.assertEquals(watermark, result.get(6));
+    Assert.assertEquals(0, ((Map) operator.getStateSnapshot().get("keyedWindows")).size());
+  }
+
+  /**
+   * Test whether the keyed session window operator emits the sessions of the keys in the order of their ends.
+   */
+  @Test
+  public void testKeyedSessionWindowOperator() {
+    final KeyedAggregateWindowOperator<Integer, Integer, Integer> operator = new KeyedAggregateWindowOperator<>(
+        keyFunc, sumFunc, null, ConfValues.OperatorType.SESSION_WINDOW, 0L, 5L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(1, 1L));
+    operator.processLeftData(new MistDataEvent(2, 2L));
+    operator.processLeftData(new MistDataEvent(3, 4L));
+    Assert.assertEquals(0, result.size());
+
+    // The session of key 0 ends earlier than the extended session of key 1
+    operator.processLeftData(new MistDataEvent(5, 12L));
+    Assert.assertEquals(2, result.size());
+    assertOutput(result.get(0), 0, 2, 2L);
+    assertOutput(result.get(1), 1, 4, 4L);
+    Assert.assertEquals(1, ((Map) operator.getStateSnapshot().get("keyedWindows")).size());
+
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(30L);
+    operator.processLeftWatermark(watermark);
+    Assert.assertEquals(4, result.size());
+    assertOutput(result.get(2), 1, 5, 12L);
+    Assert.assertEquals(watermark, result.get(3));
+    Assert.assertEquals(0, ((Map) operator.getStateSnapshot().get("keyedWindows")).size());
+  }
+
+  /**
+   * Test whether the keyed time window operator inserts the out-of-order inputs into the open windows,
+   * and drops the inputs whose windows are all closed.
+   * The windows are [0, 9], [5, 14], [10, 19].
+   */
+  @Test
+  public void testKeyedTimeWindowOperatorWithLateData() {
+    final KeyedAggregateWindowOperator<Integer, Integer, Integer> operator = new KeyedAggregateWindowOperator<>(
+        keyFunc, sumFunc, Integer.class, ConfValues.OperatorType.TIME_WINDOW, 10L, 5L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(1, 6L));
+    // The window [0, 9] is closed
+    operator.processLeftData(new MistDataEvent(3, 13L));
+    Assert.assertEquals(1, result.size());
+    assertOutput(result.get(0), 1, 1, 9L);
+
+    // The late input is inserted into the open window [5, 14] of the key
+    operator.processLeftData(new MistDataEvent(5, 7L));
+    // The late input of a new key starts from the open window [5, 14]
+    operator.processLeftData(new MistDataEvent(2, 8L));
+    // All the windows of the late input are closed
+    operator.processLeftData(new MistDataEvent(7, 2L));
+    Assert.assertEquals(1, result.size());
+
+    operator.processLeftWatermark(new MistWatermarkEvent(30L));
+    Assert.assertEquals(5, result.size());
+    assertOutput(result.get(1), 1, 9, 14L);
+    assertOutput(result.get(2), 0, 2, 14L);
+    assertOutput(result.get(3), 1, 3, 19L);
+  }
+
+  /**
+   * Test whether the keyed session window operator inserts the out-of-order inputs into the open sessions,
+   * and drops the inputs whose sessions are closed.
+   */
+  @Test
+  public void testKeyedSessionWindowOperatorWithLateData() {
+    final KeyedAggregateWindowOperator<Integer, Integer, Integer> operator = new KeyedAggregateWindowOperator<>(
+        keyFunc, sumFunc, null, ConfValues.OperatorType.SESSION_WINDOW, 0L, 5L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(1, 1L));
+    // The session of key 1 is closed, and a new session starts
+    operator.processLeftData(new MistDataEvent(3, 10L));
+    Assert.assertEquals(1, result.size());
+    assertOutput(result.get(0), 1, 1, 1L);
+
+    // The late input extends the open session of the key backward
+    operator.processLeftData(new MistDataEvent(5, 7L));
+    // The session of the late input of a new key is already closed
+    operator.processLeftData(new MistDataEvent(2, 0L));
+    Assert.assertEquals(1, result.size());
+
+    operator.processLeftWatermark(new MistWatermarkEvent(30L));
+    Assert.assertEquals(3, result.size());
+    assertOutput(result.get(1), 1, 8, 10L);
+  }
+}
@@ -18,6 +18,7 @@ package edu.snu.mist.core.operators;
 import com.google.common.collect.ImmutableList;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.functions.MISTBiFunction;
 import edu.snu.mist.common.types.Tuple2;
 import edu.snu.mist.core.utils.OutputBufferEmitter;
@@ -103,6 +104,47 @@ public final class ReduceByKeyOperatorTest {
     Assert.assertEquals(expectedStream, result);
   }
 
+  /**
+   * Test whether reduceByKeyOperator emits only the updated key-value pairs in the UPDATED_PAIR mode.
+   * Input: a list of tuples: (1, 1), (2, 1), (1, 1), (3, 1), (1, 1)
+   * Expected outputs: (1, 1), (2, 1), (1, 2), (3, 1), (1, 3)
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testReduceByKeyOperatorUpdatedPairMode() throws InjectionException {
+    final List<MistDataEvent> inputStream = ImmutableList.of(
+        new MistDataEvent(new Tuple2<>(1, 1), 1L),
+        new MistDataEvent(new Tuple2<>(2, 1), 2L),
+        new MistDataEvent(new Tuple2<>(1, 1), 3L),
+        new MistDataEvent(new Tuple2<>(3, 1), 4L),
+        new MistDataEvent(new Tuple2<>(1, 1), 5L));
+
+    final List<MistEvent> expectedStream = ImmutableList.of(
+        new MistDataEvent(new Tuple2<>(1, 1), 1L),
+        new MistDataEvent(new Tuple2<>(2, 1), 2L),
+        new MistDataEvent(new Tuple2<>(1, 2), 3L),
+        new MistDataEvent(new Tuple2<>(3, 1), 4L),
+        new MistDataEvent(new Tuple2<>(1, 3), 5L));
+
+    final MISTBiFunction<Integer, Integer, Integer> countFunc = (oldVal, val) -> oldVal + val;
+    final ReduceByKeyOperator<Integer, Integer> countOperator = new ReduceByKeyOperator<>(
+        0, countFunc, Integer.class, ConfValues.ReduceByKeyOutputMode.UPDATED_PAIR);
+
+    final List<MistEvent> result = new LinkedList<>();
+    countOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    inputStream.stream().forEach(countOperator::processLeftData);
+    Assert.assertEquals(expectedStream, result);
+
+    // The state snapshot should contain the whole key-value map with Integer keys.
+    final Map<Integer, Integer> expectedOperatorState = new HashMap<>();
+    expectedOperatorState.put(1, 3);
+    expectedOperatorState.put(2, 1);
+    expectedOperatorState.put(3, 1);
+    final Map<Integer, Integer> operatorState =
+        (Map<Integer, Integer>)countOperator.getStateSnapshot().get("reduceByKeyState");
+    Assert.assertEquals(expectedOperatorState, operatorState);
+  }
+
   /**
    * Test getting state of the ReduceByKeyOperator.
    */
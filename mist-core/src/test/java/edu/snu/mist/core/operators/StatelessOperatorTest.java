@@ -16,6 +16,7 @@
 package edu.snu.mist.core.operators;
 
 import com.google.common.collect.ImmutableList;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.common.functions.MISTFunction;
@@ -26,6 +27,7 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -37,12 +39,24 @@ public final class StatelessOperatorTest {
   private void testStatelessOperator(final List<MistDataEvent> inputStream,
                                      final List<MistEvent> expected,
                                      final Operator operator) {
+    // copy the inputs for the batch processing because the operators can change the inputs in place
+    final List<MistDataEvent> batchInput = new ArrayList<>(inputStream.size());
+    inputStream.forEach(input -> batchInput.add(new MistDataEvent(input.getValue(), input.getTimestamp())));
+
     final List<MistEvent> result = new LinkedList<>();
     operator.setOutputEmitter(new OutputBufferEmitter(result));
     inputStream.stream().forEach(operator::processLeftData);
     LOG.info("expected: " + expected);
     LOG.info("result: " + result);
     Assert.assertEquals(expected, result);
+
+    // the batch processing should produce the same results
+    final List<MistEvent> batchResult = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(batchResult));
+    operator.processLeftDataBatch(batchInput.subList(0, 1));
+    operator.processLeftDataBatch(batchInput.subList(1, batchInput.size()));
+    LOG.info("batch result: " + batchResult);
+    Assert.assertEquals(expected, batchResult);
   }
 
   /**
@@ -132,4 +146,70 @@ public final class StatelessOperatorTest {
     final FlatMapOperator<String, String> flatMapOperator = new FlatMapOperator<>(flatMapFunc);
     testStatelessOperator(inputStream, expectedStream, flatMapOperator);
   }
+
+  /**
+   * Test fused operator.
+   * It splits the string by space, filters the words that are not "b", and maps the words to upper case.
+   */
+  @Test
+  public void testFusedOperator() throws InjectionException {
+    // input stream
+    final List<MistDataEvent> inputStream = ImmutableList.of(
+        new MistDataEvent("a b c", 1L),
+        new MistDataEvent("b", 2L),
+        new MistDataEvent("d e", 3L));
+    // expected output
+    final List<MistEvent> expectedStream = ImmutableList.of(
+        new MistDataEvent("A", 1L),
+        new MistDataEvent("C", 1L),
+        new MistDataEvent("D", 3L),
+        new MistDataEvent("E", 3L));
+
+    final MISTFunction<String, List<String>> flatMapFunc = (input) -> Arrays.asList(input.split(" "));
+    final MISTPredicate<String> filterFunc = (input) -> !input.equals("b");
+    final MISTFunction<String, String> mapFunc = String::toUpperCase;
+    final FusedOperator fusedOperator = new FusedOperator(
+        Arrays.asList(ConfValues.OperatorType.FLAT_MAP, ConfValues.OperatorType.FILTER, ConfValues.OperatorType.MAP),
+        Arrays.asList(flatMapFunc, filterFunc, mapFunc));
+    testStatelessOperator(inputStream, expectedStream, fusedOperator);
+  }
+
+  /**
+   * Test whether the fused operator with a generated pipeline produces the same outputs as the interpretation.
+   */
+  @Test
+  public void testGeneratedFusedOperator() throws InjectionException {
+    final List<MistDataEvent> inputStream = ImmutableList.of(
+        new MistDataEvent("a b c", 1L),
+        new MistDataEvent("b", 2L),
+        new MistDataEvent("d e", 3L));
+    final List<MistEvent> expectedStream = ImmutableList.of(
+        new MistDataEvent("A", 1L),
+        new MistDataEvent("C", 1L),
+        new MistDataEvent("D", 3L),
+        new MistDataEvent("E", 3L));
+
+    final MISTFunction<String, List<String>> flatMapFunc = (input) -> Arrays.asList(input.split(" "));
+    final MISTPredicate<String> filterFunc = (input) -> !input.equals("b");
+    final MISTFunction<String, String> mapFunc = String::toUpperCase;
+    final FusedOperator fusedOperator = new FusedOperator(
+        Arrays.asList(ConfValues.OperatorType.FLAT_MAP, ConfValues.OperatorType.FILTER, ConfValues.OperatorType.MAP),
+        Arrays.asList(flatMapFunc, filterFunc, mapFunc), true);
+    Assert.assertTrue(fusedOperator.isPipelineGenerated());
+    testStatelessOperator(inputStream, expectedStream, fusedOperator);
+
+    // Another pipeline with the same functions reuses the input events
+    final FusedOperator secondOperator = new FusedOperator(
+        Arrays.asList(ConfValues.OperatorType.FILTER, ConfValues.OperatorType.MAP),
+        Arrays.asList(filterFunc, mapFunc), true);
+    Assert.assertTrue(secondOperator.isPipelineGenerated());
+    final List<MistEvent> result = new LinkedList<>();
+    secondOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    final MistDataEvent input = new MistDataEvent("a", 1L);
+    secondOperator.processLeftData(input);
+    secondOperator.processLeftData(new MistDataEvent("b", 2L));
+    Assert.assertEquals(1, result.size());
+    Assert.assertSame(input, result.get(0));
+    Assert.assertEquals("A", input.getValue());
+  }
 }
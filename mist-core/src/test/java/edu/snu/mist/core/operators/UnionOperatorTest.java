@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.operators;
 
+import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
@@ -96,4 +97,69 @@ public final class UnionOperatorTest {
     Assert.assertEquals(9, result.size());
     Assert.assertEquals(lw2, result.get(8));
   }
+
+  /**
+   * Test union operation with more than two upstreams.
+   * It merges three streams into one in a single operator. (ordered by timestamp)
+   */
+  @Test
+  public void testMultiStreamUnionOperator() {
+    final MistDataEvent a = new MistDataEvent("a", 1L);
+    final MistDataEvent b = new MistDataEvent("b", 4L);
+    final MistDataEvent c = new MistDataEvent("c", 2L);
+    final MistDataEvent d = new MistDataEvent("d", 3L);
+    final MistDataEvent e = new MistDataEvent("e", 5L);
+    final MistWatermarkEvent w1 = new MistWatermarkEvent(3L);
+    final MistWatermarkEvent w2 = new MistWatermarkEvent(6L);
+    final MistWatermarkEvent w3 = new MistWatermarkEvent(7L);
+    final MistCheckpointEvent checkpoint = new MistCheckpointEvent();
+
+    final UnionOperator unionOperator = new UnionOperator(3);
+    Assert.assertEquals(3, unionOperator.getNumInputs());
+
+    final List<MistEvent> result = new LinkedList<>();
+    unionOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    // Test:
+    //  * Input0: --W:7--b-----a-->
+    //  * Input1: --W:6--d--c----->
+    //  * Input2: --W:3--e-------->
+    // Merged stream: --e--b--W:3--d--c--a--> (the checkpoint is not buffered by the emitter)
+    unionOperator.processData(0, a);
+    unionOperator.processData(1, c);
+    Assert.assertEquals(0, result.size());
+
+    // The minimum watermark is advanced to 1
+    unionOperator.processData(2, e);
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(a, result.get(0));
+
+    // The minimum watermark is advanced to 2
+    unionOperator.processData(0, b);
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(c, result.get(1));
+
+    // The minimum watermark is advanced to 3
+    unionOperator.processData(1, d);
+    Assert.assertEquals(3, result.size());
+    Assert.assertEquals(d, result.get(2));
+
+    // The checkpoint waits for the queued data of the upstream
+    unionOperator.processCheckpoint(0, checkpoint);
+
+    // The minimum watermark is not advanced, but the watermark can be emitted
+    unionOperator.processWatermark(2, w1);
+    Assert.assertEquals(4, result.size());
+    Assert.assertEquals(w1, result.get(3));
+
+    // The minimum watermark is advanced to 4
+    unionOperator.processWatermark(1, w2);
+    Assert.assertEquals(5, result.size());
+    Assert.assertEquals(b, result.get(4));
+
+    // The minimum watermark is advanced to 5
+    unionOperator.processWatermark(0, w3);
+    Assert.assertEquals(6, result.size());
+    Assert.assertEquals(e, result.get(5));
+  }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.keyed;
+
+import edu.snu.mist.common.SerializeUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public final class KeyedStateTest {
+
+  /**
+   * Test whether the keyed state is created according to the key type.
+   */
+  @Test
+  public void testKeyedStateCreation() {
+    Assert.assertTrue(KeyedStateUtils.newKeyedState(Integer.class) instanceof PrimitiveKeyedState);
+    Assert.assertTrue(KeyedStateUtils.newKeyedState(Long.class) instanceof PrimitiveKeyedState);
+    Assert.assertTrue(KeyedStateUtils.newKeyedState(String.class) instanceof ObjectKeyedState);
+    Assert.assertTrue(KeyedStateUtils.newKeyedState(null) instanceof ObjectKeyedState);
+  }
+
+  /**
+   * Test whether the primitive keyed state behaves the same as a hash map
+   * on random insertions and removals, which also trigger resizing of the table.
+   */
+  @Test
+  public void testPrimitiveKeyedState() {
+    final KeyedState<Long, Integer> state = new PrimitiveKeyedState<>(Long.class);
+    final Map<Long, Integer> expected = new HashMap<>();
+    final Random random = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      final long key = random.nextInt(1000) - 500;
+      if (random.nextInt(3) == 0) {
+        Assert.assertEquals(expected.remove(key), state.remove(key));
+      } else {
+        expected.put(key, i);
+        state.put(key, i);
+      }
+      Assert.assertEquals(expected.get(key), state.get(key));
+    }
+    Assert.assertEquals(expected.size(), state.size());
+    Assert.assertEquals(expected, state.toHashMap());
+
+    state.clear();
+    Assert.assertEquals(0, state.size());
+    Assert.assertNull(state.get(1L));
+  }
+
+  /**
+   * Test whether the copy-on-write keyed state behaves the same as a hash map,
+   * and its snapshots are not affected by further updates.
+   */
+  @Test
+  public void testCopyOnWriteKeyedState() {
+    final CopyOnWriteKeyedState<Long, Integer> state = KeyedStateUtils.newSnapshotKeyedState();
+    final Map<Long, Integer> expected = new HashMap<>();
+    final List<Map<Long, Integer>> snapshots = new ArrayList<>();
+    final List<Map<Long, Integer>> expectedSnapshots = new ArrayList<>();
+    final Random random = new Random(0);
+    for (int i = 0; i < 20000; i++) {
+      final long key = random.nextInt(1000) - 500;
+      if (random.nextInt(3) == 0) {
+        Assert.assertEquals(expected.remove(key), state.remove(key));
+      } else {
+        expected.put(key, i);
+        state.put(key, i);
+      }
+      Assert.assertEquals(expected.get(key), state.get(key));
+      if (i % 100 == 0) {
+        snapshots.add(state.snapshot());
+        expectedSnapshots.add(new HashMap<>(expected));
+      }
+    }
+    Assert.assertEquals(expected.size(), state.size());
+    Assert.assertEquals(expected, state.toHashMap());
+    Assert.assertEquals(expected, state.snapshot());
+    Assert.assertEquals(expectedSnapshots, snapshots);
+
+    final Map<Long, Integer> snapshot = state.snapshot();
+    state.clear();
+    Assert.assertEquals(0, state.size());
+    Assert.assertNull(state.get(1L));
+    Assert.assertEquals(expected, snapshot);
+  }
+
+  /**
+   * Test whether the snapshot of the copy-on-write keyed state is unmodifiable and serialized as a hash map.
+   */
+  @Test
+  public void testCopyOnWriteKeyedStateSnapshot() throws Exception {
+    final CopyOnWriteKeyedState<String, Integer> state = KeyedStateUtils.newSnapshotKeyedState();
+    state.put("a", 1);
+    state.put("b", 2);
+    final Map<String, Integer> snapshot = state.snapshot();
+    Assert.assertSame(snapshot, state.snapshot());
+    try {
+      snapshot.put("c", 3);
+      Assert.fail("The snapshot should be unmodifiable");
+    } catch (final UnsupportedOperationException e) {
+      // expected
+    }
+    try {
+      snapshot.entrySet().iterator().next().setValue(3);
+      Assert.fail("The entries of the snapshot should be unmodifiable");
+    } catch (final UnsupportedOperationException e) {
+      // expected
+    }
+
+    final Object deserialized = SerializeUtils.deserializeFromString(
+        SerializeUtils.serializeToString((Serializable) snapshot));
+    Assert.assertEquals(HashMap.class, deserialized.getClass());
+    Assert.assertEquals(snapshot, deserialized);
+  }
+}
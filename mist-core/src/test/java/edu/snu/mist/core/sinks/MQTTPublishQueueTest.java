@@ -0,0 +1,410 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+import edu.snu.mist.core.shared.MQTTResource;
+import edu.snu.mist.core.shared.MQTTSharedResource;
+import edu.snu.mist.core.task.metrics.QueryMetricsRegistry;
+import org.apache.reef.tang.Tang;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public final class MQTTPublishQueueTest {
+
+  private static final String BROKER_URI = "tcp://localhost:1883";
+
+  /**
+   * A publish request captured by the mock client.
+   */
+  private static final class Publish {
+    private final String topic;
+    private final MqttMessage message;
+    private final IMqttActionListener listener;
+
+    Publish(final String topic, final MqttMessage message, final IMqttActionListener listener) {
+      this.topic = topic;
+      this.message = message;
+      this.listener = listener;
+    }
+  }
+
+  /**
+   * Create a mock client that captures the publish requests without completing them.
+   */
+  private IMqttAsyncClient mockClient(final BlockingQueue<Publish> publishes,
+                                      final AtomicBoolean failNext) throws MqttException {
+    final IMqttAsyncClient client = mock(IMqttAsyncClient.class);
+    when(client.publish(anyString(), any(MqttMessage.class), any(), any(IMqttActionListener.class)))
+        .thenAnswer(invocation -> {
+          if (failNext.compareAndSet(true, false)) {
+            throw new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED);
+          }
+          final Object[] args = invocation.getArguments();
+          publishes.add(new Publish((String) args[0], (MqttMessage) args[1], (IMqttActionListener) args[3]));
+          return null;
+        });
+    return client;
+  }
+
+  private MQTTResource mockResource(final IMqttAsyncClient client) throws Exception {
+    final MQTTResource resource = mock(MQTTResource.class);
+    when(resource.getMqttSinkClient(eq(BROKER_URI), anyString())).thenReturn(client);
+    return resource;
+  }
+
+  private static String payload(final Publish publish) {
+    return new String(publish.message.getPayload());
+  }
+
+  private static MqttMessage message(final String payload) {
+    return new MqttMessage(payload.getBytes());
+  }
+
+  /**
+   * Acknowledge the next publish requests.
+   */
+  private static void acknowledge(final BlockingQueue<Publish> publishes, final int num) throws Exception {
+    for (int i = 0; i < num; i++) {
+      publishes.take().listener.onSuccess(null);
+    }
+  }
+
+  /**
+   * Test whether the number of messages not acknowledged is limited by the in-flight window.
+   */
+  @Test(timeout = 10000L)
+  public void testInflightWindow() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 100, 2, 10,
+        false, MQTTPublishQueue.OverflowPolicy.BLOCK)) {
+      publishQueue.start();
+      final MQTTPublishQueue.Channel channel = publishQueue.openChannel("topic");
+      for (int i = 0; i < 5; i++) {
+        channel.offer(message(String.valueOf(i)));
+      }
+
+      final Publish first = publishes.take();
+      final Publish second = publishes.take();
+      Assert.assertNull(publishes.poll(100, TimeUnit.MILLISECONDS));
+      Assert.assertEquals(2, publishQueue.getNumInflightMessages());
+      Assert.assertEquals(Arrays.asList("0", "1"), Arrays.asList(payload(first), payload(second)));
+
+      // Acknowledge a message, so the next message is published
+      first.listener.onSuccess(null);
+      final Publish third = publishes.take();
+      Assert.assertEquals("2", payload(third));
+      Assert.assertNull(publishes.poll(100, TimeUnit.MILLISECONDS));
+
+      second.listener.onSuccess(null);
+      third.listener.onSuccess(null);
+      acknowledge(publishes, 2);
+    }
+  }
+
+  /**
+   * Test whether the failed message is published again with a new client.
+   */
+  @Test(timeout = 10000L)
+  public void testRetryAfterFailure() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final IMqttAsyncClient client = mockClient(publishes, new AtomicBoolean(true));
+    final MQTTResource resource = mockResource(client);
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 100, 10, 10,
+        false, MQTTPublishQueue.OverflowPolicy.BLOCK)) {
+      publishQueue.start();
+      publishQueue.openChannel("topic").offer(message("a"));
+
+      final Publish publish = publishes.take();
+      Assert.assertEquals("a", payload(publish));
+      Assert.assertEquals(1, publishQueue.getNumFailedMessages());
+      verify(resource).deleteMqttSinkClient(BROKER_URI, "topic", client);
+      verify(resource, times(2)).getMqttSinkClient(BROKER_URI, "topic");
+
+      // The message that is not acknowledged is also published again
+      publish.listener.onFailure(null, new MqttException(MqttException.REASON_CODE_CONNECTION_LOST));
+      final Publish retried = publishes.take();
+      Assert.assertEquals("a", payload(retried));
+      Assert.assertEquals(2, publishQueue.getNumFailedMessages());
+      retried.listener.onSuccess(null);
+    }
+  }
+
+  /**
+   * Test whether the waiting messages of a sink are coalesced into the latest message.
+   */
+  @Test(timeout = 10000L)
+  public void testCoalesce() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 100, 10, 10,
+        true, MQTTPublishQueue.OverflowPolicy.BLOCK)) {
+      final MQTTPublishQueue.Channel channel1 = publishQueue.openChannel("t1");
+      final MQTTPublishQueue.Channel channel2 = publishQueue.openChannel("t2");
+      // The messages wait in the queue until the publisher thread starts
+      channel1.offer(message("a"));
+      channel1.offer(message("b"));
+      channel2.offer(message("c"));
+      Assert.assertEquals(2, publishQueue.size());
+      Assert.assertEquals(1, publishQueue.getNumCoalescedMessages());
+      publishQueue.start();
+
+      final Publish first = publishes.take();
+      final Publish second = publishes.take();
+      final List<String> published = Arrays.asList(first.topic + payload(first), second.topic + payload(second));
+      Assert.assertEquals(Arrays.asList("t1b", "t2c"), published);
+      first.listener.onSuccess(null);
+      second.listener.onSuccess(null);
+    }
+  }
+
+  /**
+   * Test whether the messages of the sinks publishing to the same topic are not coalesced with each other.
+   */
+  @Test(timeout = 10000L)
+  public void testCoalescePerSink() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 100, 10, 10,
+        true, MQTTPublishQueue.OverflowPolicy.BLOCK)) {
+      final MQTTPublishQueue.Channel channel1 = publishQueue.openChannel("topic");
+      final MQTTPublishQueue.Channel channel2 = publishQueue.openChannel("topic");
+      channel1.offer(message("a"));
+      channel2.offer(message("b"));
+      channel1.offer(message("c"));
+      Assert.assertEquals(2, publishQueue.size());
+      Assert.assertEquals(1, publishQueue.getNumCoalescedMessages());
+      publishQueue.start();
+
+      final Publish first = publishes.take();
+      final Publish second = publishes.take();
+      Assert.assertEquals(Arrays.asList("c", "b"), Arrays.asList(payload(first), payload(second)));
+      first.listener.onSuccess(null);
+      second.listener.onSuccess(null);
+    }
+  }
+
+  /**
+   * Test whether closing a channel waits until its messages are acknowledged,
+   * and the queue is closed when its last channel is closed.
+   */
+  @Test(timeout = 10000L)
+  public void testCloseFlushes() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 100, 10, 10,
+        false, MQTTPublishQueue.OverflowPolicy.BLOCK);
+    publishQueue.start();
+    final MQTTPublishQueue.Channel channel1 = publishQueue.openChannel("t1");
+    final MQTTPublishQueue.Channel channel2 = publishQueue.openChannel("t2");
+    for (int i = 0; i < 3; i++) {
+      channel1.offer(message(String.valueOf(i)));
+    }
+
+    final CountDownLatch closed = new CountDownLatch(1);
+    final Thread closer = new Thread(() -> {
+      channel1.close();
+      closed.countDown();
+    });
+    closer.start();
+    Assert.assertFalse(closed.await(200, TimeUnit.MILLISECONDS));
+
+    acknowledge(publishes, 3);
+    closed.await();
+    Assert.assertEquals(0, publishQueue.size());
+    Assert.assertFalse(publishQueue.isClosing());
+
+    // The queue is closed with the last channel
+    channel2.close();
+    Assert.assertTrue(publishQueue.isClosing());
+    Assert.assertNull(publishQueue.openChannel("t3"));
+  }
+
+  /**
+   * Test whether the sink waits until the queue has space in the block policy.
+   */
+  @Test(timeout = 10000L)
+  public void testBlockPolicy() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 1, 10, 10,
+        false, MQTTPublishQueue.OverflowPolicy.BLOCK)) {
+      final MQTTPublishQueue.Channel channel = publishQueue.openChannel("topic");
+      channel.offer(message("a"));
+
+      final CountDownLatch offered = new CountDownLatch(1);
+      final Thread sink = new Thread(() -> {
+        channel.offer(message("b"));
+        offered.countDown();
+      });
+      sink.start();
+      Assert.assertFalse(offered.await(200, TimeUnit.MILLISECONDS));
+
+      publishQueue.start();
+      offered.await();
+      acknowledge(publishes, 2);
+      Assert.assertEquals(0, publishQueue.getNumDroppedMessages());
+    }
+  }
+
+  /**
+   * Test whether the message is dropped when the queue does not have space until the offer timeout elapses
+   * in the block policy.
+   */
+  @Test(timeout = 10000L)
+  public void testBlockPolicyTimeout() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 1, 10, 10,
+        false, MQTTPublishQueue.OverflowPolicy.BLOCK)) {
+      final MQTTPublishQueue.Channel channel = publishQueue.openChannel("topic");
+      channel.offer(message("a"));
+      // The publisher thread is not started, so the queue does not have space
+      channel.offer(message("b"));
+      Assert.assertEquals(1, publishQueue.size());
+      Assert.assertEquals(1, publishQueue.getNumDroppedMessages());
+
+      publishQueue.start();
+      final Publish publish = publishes.take();
+      Assert.assertEquals("a", payload(publish));
+      publish.listener.onSuccess(null);
+    }
+  }
+
+  /**
+   * Test whether the failed message is dropped when the retry buffer size is zero.
+   */
+  @Test(timeout = 10000L)
+  public void testNoRetryBuffer() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 100, 10, 0,
+        false, MQTTPublishQueue.OverflowPolicy.DROP)) {
+      publishQueue.start();
+      final MQTTPublishQueue.Channel channel = publishQueue.openChannel("topic");
+      channel.offer(message("a"));
+      publishes.take().listener.onFailure(null, new MqttException(MqttException.REASON_CODE_CONNECTION_LOST));
+      Assert.assertEquals(1, publishQueue.getNumFailedMessages());
+      Assert.assertEquals(1, publishQueue.getNumDroppedMessages());
+      Assert.assertEquals(0, publishQueue.size());
+
+      // The dropped message is not published again
+      channel.offer(message("b"));
+      final Publish publish = publishes.take();
+      Assert.assertEquals("b", payload(publish));
+      publish.listener.onSuccess(null);
+    }
+  }
+
+  /**
+   * Test whether the metrics of the queue are exported via JMX.
+   */
+  @Test(timeout = 10000L)
+  public void testMetricsExport() throws Exception {
+    final MQTTResource resource = mockResource(mockClient(new LinkedBlockingQueue<>(), new AtomicBoolean(false)));
+    final QueryMetricsRegistry registry = Tang.Factory.getTang().newInjector()
+        .getInstance(QueryMetricsRegistry.class);
+    final ObjectName objectName = new ObjectName("edu.snu.mist:type=" + MQTTSharedResource.PUBLISH_QUEUE_METRICS_TYPE
+        + ",name=" + ObjectName.quote(BROKER_URI));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 1, 10, 10,
+        false, MQTTPublishQueue.OverflowPolicy.DROP)) {
+      registry.registerResource(MQTTSharedResource.PUBLISH_QUEUE_METRICS_TYPE, BROKER_URI, publishQueue);
+      final MQTTPublishQueue.Channel channel = publishQueue.openChannel("topic");
+      channel.offer(message("a"));
+      channel.offer(message("b"));
+      final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      Assert.assertEquals(1L, mBeanServer.getAttribute(objectName, "NumDroppedMessages"));
+      Assert.assertEquals(0L, mBeanServer.getAttribute(objectName, "NumFailedMessages"));
+      Assert.assertEquals(0, mBeanServer.getAttribute(objectName, "NumInflightMessages"));
+    } finally {
+      registry.unregisterResource(MQTTSharedResource.PUBLISH_QUEUE_METRICS_TYPE, BROKER_URI);
+    }
+    Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+  }
+
+  /**
+   * Test whether the messages are dropped when the queue is full in the drop policy.
+   */
+  @Test(timeout = 10000L)
+  public void testDropPolicy() throws Exception {
+    final BlockingQueue<Publish> publishes = new LinkedBlockingQueue<>();
+    final MQTTResource resource = mockResource(mockClient(publishes, new AtomicBoolean(false)));
+
+    try (final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 1, 10, 10,
+        false, MQTTPublishQueue.OverflowPolicy.DROP)) {
+      final MQTTPublishQueue.Channel channel = publishQueue.openChannel("topic");
+      channel.offer(message("a"));
+      channel.offer(message("b"));
+      Assert.assertEquals(1, publishQueue.size());
+      Assert.assertEquals(1, publishQueue.getNumDroppedMessages());
+
+      publishQueue.start();
+      final Publish publish = publishes.take();
+      Assert.assertEquals("a", payload(publish));
+      publish.listener.onSuccess(null);
+    }
+  }
+
+  /**
+   * Test whether opening a channel fails when the broker is unreachable.
+   */
+  @Test(timeout = 10000L)
+  public void testOpenChannelFailure() throws Exception {
+    final MQTTResource resource = mock(MQTTResource.class);
+    when(resource.getMqttSinkClient(eq(BROKER_URI), anyString()))
+        .thenThrow(new MqttException(MqttException.REASON_CODE_SERVER_CONNECT_ERROR));
+
+    final MQTTPublishQueue publishQueue = new MQTTPublishQueue("test", BROKER_URI, resource, 100, 10, 10,
+        false, MQTTPublishQueue.OverflowPolicy.BLOCK);
+    publishQueue.start();
+    try {
+      publishQueue.openChannel("topic");
+      Assert.fail("MqttException should be thrown");
+    } catch (final MqttException e) {
+      // The queue without channels is closed
+      Assert.assertTrue(publishQueue.isClosing());
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+import edu.snu.mist.common.stream.NettyChannelHandler;
+import edu.snu.mist.common.stream.binarymessage.NettyBinaryMessageOutputReceiver;
+import edu.snu.mist.core.shared.NettySharedResource;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.CharsetUtil;
+import junit.framework.Assert;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+public final class NettyBinarySinkTest {
+
+  private static final String SERVER_ADDR = "localhost";
+  private static final int SERVER_PORT = 12113;
+
+  private NettySharedResource nettySharedResource;
+
+  @Before
+  public void setUp() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    nettySharedResource = injector.getInstance(NettySharedResource.class);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    nettySharedResource.close();
+  }
+
+  /**
+   * Test whether the binary sink sends the outputs as length-prefixed frames.
+   * The flush size is larger than the outputs, so the outputs are sent by the periodic flush.
+   * @throws Exception
+   */
+  @Test(timeout = 10000L)
+  public void testPeriodicFlush() throws Exception {
+    testNettyBinarySink(1024 * 1024, 10);
+  }
+
+  /**
+   * Test whether the binary sink flushes the outputs when the pending bytes exceed the flush size.
+   * The flush interval is long enough, so the outputs are sent by the size-triggered flush.
+   * @throws Exception
+   */
+  @Test(timeout = 10000L)
+  public void testSizeTriggeredFlush() throws Exception {
+    testNettyBinarySink(1, 60 * 60 * 1000);
+  }
+
+  private void testNettyBinarySink(final int flushSize, final long flushInterval) throws Exception {
+    final List<String> outputStream = Arrays.asList(
+        "Lorem ipsum dolor sit amet, consectetur adipiscing elit.",
+        "In in leo nec erat fringilla mattis eu non massa.",
+        "Cras quis diam suscipit, commodo enim id, pulvinar nunc.");
+    final CountDownLatch countDownLatch = new CountDownLatch(outputStream.size());
+    final CountDownLatch channelCountDown = new CountDownLatch(1);
+    final List<String> received = new CopyOnWriteArrayList<>();
+    final NettyChannelHandler channelHandler =
+        new TestReceiverChannelHandler(channelCountDown, countDownLatch, received);
+
+    try (final NettyBinaryMessageOutputReceiver outputReceiver =
+             new NettyBinaryMessageOutputReceiver(SERVER_ADDR, SERVER_PORT, channelHandler)) {
+      final Sink<byte[]> sink =
+          new NettyBinarySink(SERVER_ADDR, SERVER_PORT, flushSize, flushInterval, nettySharedResource);
+
+      // Wait until the sink connects to output receiver
+      channelCountDown.await();
+      for (final String output : outputStream) {
+        sink.handle(output.getBytes(CharsetUtil.UTF_8));
+      }
+
+      // Wait until all data are sent to output receiver
+      countDownLatch.await();
+      Assert.assertEquals(outputStream, received);
+      sink.close();
+    }
+  }
+
+  /**
+   * A helper class for output receiver.
+   */
+  final class TestReceiverChannelHandler implements NettyChannelHandler {
+    private final CountDownLatch channelCountDown;
+    private final CountDownLatch countDownLatch;
+    private final List<String> received;
+
+    public TestReceiverChannelHandler(final CountDownLatch channelCountDown,
+                                      final CountDownLatch countDownLatch,
+                                      final List<String> received) {
+      this.channelCountDown = channelCountDown;
+      this.countDownLatch = countDownLatch;
+      this.received = received;
+    }
+
+    @Override
+    public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+      channelCountDown.countDown();
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+      received.add(((ByteBuf) msg).toString(CharsetUtil.UTF_8));
+      countDownLatch.countDown();
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+      // do nothing
+    }
+
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) throws Exception {
+      // do nothing
+    }
+  }
+}
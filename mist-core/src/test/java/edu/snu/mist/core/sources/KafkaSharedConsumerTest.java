@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.shared.KafkaSharedResource;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Test whether the kafka data generators share a kafka consumer of the kafka shared resource.
+ */
+public final class KafkaSharedConsumerTest {
+
+  private static final String TOPIC = "KafkaSharedConsumerTest";
+  private static final TopicPartition PARTITION0 = new TopicPartition(TOPIC, 0);
+  private static final TopicPartition PARTITION1 = new TopicPartition(TOPIC, 1);
+
+  private MockConsumer<String, String> consumer;
+  private Map<TopicPartition, OffsetAndMetadata> lastCommittedOffsets;
+  private List<Map<String, Object>> createdConfs;
+  private KafkaSharedResource kafkaSharedResource;
+
+  @Before
+  public void setUp() {
+    lastCommittedOffsets = new ConcurrentHashMap<>();
+    consumer = new MockConsumer<String, String>(OffsetResetStrategy.EARLIEST) {
+      @Override
+      public synchronized void commitSync(final Map<TopicPartition, OffsetAndMetadata> offsets) {
+        lastCommittedOffsets.putAll(offsets);
+        super.commitSync(offsets);
+      }
+
+      @Override
+      public synchronized void commitAsync(final Map<TopicPartition, OffsetAndMetadata> offsets,
+                                           final OffsetCommitCallback callback) {
+        lastCommittedOffsets.putAll(offsets);
+        super.commitAsync(offsets, callback);
+      }
+    };
+    createdConfs = new CopyOnWriteArrayList<>();
+    kafkaSharedResource = new KafkaSharedResource(1, 10, (conf) -> {
+      createdConfs.add(conf);
+      return consumer;
+    });
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    kafkaSharedResource.close();
+  }
+
+  /**
+   * Test whether the partitions are distributed over the data generators sharing a consumer,
+   * the records of a partition are emitted as a batch,
+   * and the offsets are committed only after the checkpoints covering the records are completed.
+   */
+  @Test(timeout = 10000L)
+  public void testSharedConsumer() throws Exception {
+    final Map<String, Object> kafkaConsumerConf = new HashMap<>();
+    kafkaConsumerConf.put("group.id", "SourceTestGroup");
+    final TestEventGenerator firstEventGenerator = new TestEventGenerator();
+    final TestEventGenerator secondEventGenerator = new TestEventGenerator();
+    final KafkaDataGenerator<String, String> firstDataGenerator =
+        new KafkaDataGenerator<>(TOPIC, kafkaConsumerConf, kafkaSharedResource);
+    final KafkaDataGenerator<String, String> secondDataGenerator =
+        new KafkaDataGenerator<>(TOPIC, kafkaConsumerConf, kafkaSharedResource);
+    firstDataGenerator.setEventGenerator(firstEventGenerator);
+    secondDataGenerator.setEventGenerator(secondEventGenerator);
+    firstDataGenerator.start();
+    secondDataGenerator.start();
+
+    // The data generators share a consumer whose offsets are committed by MIST
+    Assert.assertEquals(1, createdConfs.size());
+    Assert.assertEquals(1, kafkaSharedResource.getNumConsumers());
+    Assert.assertEquals("false", createdConfs.get(0).get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+    Assert.assertEquals(firstDataGenerator, firstEventGenerator.checkpointListener);
+
+    final Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+    beginningOffsets.put(PARTITION0, 0L);
+    beginningOffsets.put(PARTITION1, 0L);
+    consumer.rebalance(Arrays.asList(PARTITION0, PARTITION1));
+    consumer.updateBeginningOffsets(beginningOffsets);
+    consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 0L, "0", "a"));
+    consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 1L, "1", "b"));
+    consumer.addRecord(new ConsumerRecord<>(TOPIC, 1, 0L, "2", "c"));
+
+    while (firstEventGenerator.batches.size() + secondEventGenerator.batches.size() < 2) {
+      Thread.sleep(10);
+    }
+    final List<List<String>> batches = new ArrayList<>(firstEventGenerator.batches);
+    batches.addAll(secondEventGenerator.batches);
+    Assert.assertEquals(2, batches.size());
+    Assert.assertTrue(batches.contains(Arrays.asList("a", "b")));
+    Assert.assertTrue(batches.contains(Arrays.asList("c")));
+
+    // The records are not committed before a checkpoint covers them
+    Thread.sleep(100);
+    Assert.assertNull(consumer.committed(PARTITION0));
+    Assert.assertNull(consumer.committed(PARTITION1));
+
+    // {d} is emitted after the checkpoint events, so it is not covered by the checkpoint
+    firstEventGenerator.emitCheckpoint(100L);
+    secondEventGenerator.emitCheckpoint(100L);
+    final TestEventGenerator partition0Receiver =
+        firstEventGenerator.batches.contains(Arrays.asList("a", "b")) ? firstEventGenerator : secondEventGenerator;
+    consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 2L, "3", "d"));
+    while (!partition0Receiver.batches.contains(Arrays.asList("d"))) {
+      Thread.sleep(10);
+    }
+    firstDataGenerator.onCheckpointCompleted(100L);
+    secondDataGenerator.onCheckpointCompleted(100L);
+    while (consumer.committed(PARTITION0) == null || consumer.committed(PARTITION1) == null) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(2L, consumer.committed(PARTITION0).offset());
+    Assert.assertEquals(1L, consumer.committed(PARTITION1).offset());
+
+    // A partition stays in its data generator when the other data generator is closed
+    final KafkaDataGenerator<String, String> partition0DataGenerator =
+        partition0Receiver == firstEventGenerator ? firstDataGenerator : secondDataGenerator;
+    final KafkaDataGenerator<String, String> otherDataGenerator =
+        partition0Receiver == firstEventGenerator ? secondDataGenerator : firstDataGenerator;
+    otherDataGenerator.close();
+    Assert.assertEquals(1, kafkaSharedResource.getNumConsumers());
+    consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 3L, "4", "e"));
+    while (!partition0Receiver.batches.contains(Arrays.asList("e"))) {
+      Thread.sleep(10);
+    }
+
+    // The consumer is closed when all data generators are closed,
+    // and the records of the removed queries do not need to be replayed
+    partition0DataGenerator.close();
+    Assert.assertEquals(0, kafkaSharedResource.getNumConsumers());
+    while (!consumer.closed()) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(4L, lastCommittedOffsets.get(PARTITION0).offset());
+  }
+
+  /**
+   * Event generator that stores the values of the emitted batches.
+   */
+  private static final class TestEventGenerator implements EventGenerator<ConsumerRecord<String, String>> {
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private volatile SourceCheckpointListener checkpointListener;
+
+    /**
+     * Emit a checkpoint event as EventGeneratorImpl does.
+     */
+    synchronized void emitCheckpoint(final long latestDataTimestamp) {
+      checkpointListener.onCheckpointEmitted(latestDataTimestamp);
+    }
+
+    @Override
+    public void emitData(final ConsumerRecord<String, String> input) {
+      emitDataBatch(Arrays.asList(input));
+    }
+
+    @Override
+    public void emitDataBatch(final List<ConsumerRecord<String, String>> inputs) {
+      final List<String> values = new ArrayList<>();
+      inputs.forEach((input) -> values.add(input.value()));
+      batches.add(values);
+    }
+
+    @Override
+    public void start() {
+      // do nothing
+    }
+
+    @Override
+    public OutputEmitter getOutputEmitter() {
+      return null;
+    }
+
+    @Override
+    public void close() {
+      // do nothing
+    }
+
+    @Override
+    public void setOutputEmitter(final OutputEmitter emitter) {
+      // do nothing
+    }
+
+    @Override
+    public void setCheckpointListener(final SourceCheckpointListener listener) {
+      checkpointListener = listener;
+    }
+  }
+}
@@ -36,6 +36,7 @@ import org.junit.Test;
 import java.io.File;
 import java.net.InetSocketAddress;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
@@ -114,7 +115,7 @@ public final class KafkaSourceTest {
     kafkaProducerConf.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
 
     // create kafka source
-    final KafkaDataGenerator<Integer, String> kafkaDataGenerator =
+    final KafkaDataGenerator<String, String> kafkaDataGenerator =
         new KafkaDataGenerator<>(KAFKA_TOPIC, kafkaConsumerConf, kafkaSharedResource);
     final SourceTestEventGenerator<String, String> eventGenerator =
         new SourceTestEventGenerator<>(result, dataCountDownLatch);
@@ -277,6 +278,11 @@ public final class KafkaSourceTest {
       dataCountDownLatch.countDown();
     }
 
+    @Override
+    public void emitDataBatch(final List<ConsumerRecord<K, V>> inputs) {
+      inputs.forEach(this::emitData);
+    }
+
     @Override
     public void start() {
       // do nothing
@@ -296,5 +302,10 @@ public final class KafkaSourceTest {
     public void setOutputEmitter(final OutputEmitter emitter) {
       // do nothing
     }
+
+    @Override
+    public void setCheckpointListener(final SourceCheckpointListener listener) {
+      // do nothing
+    }
   }
 }
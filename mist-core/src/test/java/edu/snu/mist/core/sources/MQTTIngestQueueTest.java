@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import edu.snu.mist.core.shared.MQTTSharedResource;
+import edu.snu.mist.core.task.metrics.QueryMetricsRegistry;
+import org.apache.reef.tang.Tang;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public final class MQTTIngestQueueTest {
+
+  private static final int CAPACITY = 4;
+
+  /**
+   * Enqueue messages while the dispatcher thread is blocked by the first message,
+   * and return the topics of the dispatched messages.
+   */
+  private List<String> ingest(final MQTTIngestQueue.OverflowPolicy policy,
+                              final int numMessages,
+                              final long expectedDropped,
+                              final long expectedSpilled) throws InterruptedException {
+    final List<String> dispatched = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch firstDispatched = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch allDispatched = new CountDownLatch(numMessages - (int) expectedDropped);
+    final MQTTIngestQueue queue = new MQTTIngestQueue("test", CAPACITY, policy, batch -> {
+      firstDispatched.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      for (final MQTTIngestQueue.IngestedMessage ingestedMessage : batch) {
+        dispatched.add(ingestedMessage.getTopic());
+        allDispatched.countDown();
+      }
+    });
+    queue.start();
+
+    // The dispatcher thread holds the first message until the others are enqueued
+    queue.offer("0", new MqttMessage());
+    Assert.assertTrue(firstDispatched.await(10, TimeUnit.SECONDS));
+    for (int i = 1; i < numMessages; i++) {
+      queue.offer(Integer.toString(i), new MqttMessage());
+    }
+    Assert.assertEquals(expectedDropped, queue.getNumDroppedMessages());
+    Assert.assertEquals(expectedSpilled, queue.getNumSpilledMessages());
+    Assert.assertEquals(numMessages - 1 - expectedDropped, queue.size());
+
+    release.countDown();
+    Assert.assertTrue(allDispatched.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(0, queue.size());
+    queue.close();
+    return dispatched;
+  }
+
+  private static List<String> topics(final int from, final int to) {
+    final List<String> topics = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      topics.add(Integer.toString(i));
+    }
+    return topics;
+  }
+
+  /**
+   * Test whether the messages that arrive when the queue is full are dropped in the DROP policy.
+   */
+  @Test(timeout = 30000L)
+  public void testDropPolicy() throws InterruptedException {
+    final List<String> dispatched = ingest(MQTTIngestQueue.OverflowPolicy.DROP, 10, 5, 0);
+    Assert.assertEquals(topics(0, 5), dispatched);
+  }
+
+  /**
+   * Test whether the messages that arrive when the queue is full are kept in order in the SPILL policy.
+   */
+  @Test(timeout = 30000L)
+  public void testSpillPolicy() throws InterruptedException {
+    final List<String> dispatched = ingest(MQTTIngestQueue.OverflowPolicy.SPILL, 10, 0, 5);
+    Assert.assertEquals(topics(0, 10), dispatched);
+  }
+
+  /**
+   * Test whether the callback thread waits for space of the queue in the BLOCK policy.
+   */
+  @Test(timeout = 30000L)
+  public void testBlockPolicy() throws InterruptedException {
+    final List<String> dispatched = Collections.synchronizedList(new ArrayList<>());
+    final int numMessages = 1000;
+    final CountDownLatch allDispatched = new CountDownLatch(numMessages);
+    final MQTTIngestQueue queue = new MQTTIngestQueue("test", CAPACITY, MQTTIngestQueue.OverflowPolicy.BLOCK,
+        batch -> {
+          for (final MQTTIngestQueue.IngestedMessage ingestedMessage : batch) {
+            dispatched.add(ingestedMessage.getTopic());
+            allDispatched.countDown();
+          }
+        });
+    queue.start();
+    for (int i = 0; i < numMessages; i++) {
+      queue.offer(Integer.toString(i), new MqttMessage());
+    }
+    Assert.assertTrue(allDispatched.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(0, queue.getNumDroppedMessages());
+    Assert.assertEquals(topics(0, numMessages), dispatched);
+    queue.close();
+  }
+
+  /**
+   * Test whether the messages that are enqueued while the dispatcher thread is busy are handed off as one batch.
+   */
+  @Test(timeout = 30000L)
+  public void testBatchDispatch() throws InterruptedException {
+    final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch firstDispatched = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch secondDispatched = new CountDownLatch(1);
+    final MQTTIngestQueue queue = new MQTTIngestQueue("test", CAPACITY, MQTTIngestQueue.OverflowPolicy.DROP,
+        batch -> {
+          final List<String> topics = new ArrayList<>();
+          for (final MQTTIngestQueue.IngestedMessage ingestedMessage : batch) {
+            topics.add(ingestedMessage.getTopic());
+          }
+          batches.add(topics);
+          firstDispatched.countDown();
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          if (batches.size() == 2) {
+            secondDispatched.countDown();
+          }
+        });
+    queue.start();
+
+    queue.offer("0", new MqttMessage());
+    Assert.assertTrue(firstDispatched.await(10, TimeUnit.SECONDS));
+    for (int i = 1; i <= CAPACITY; i++) {
+      queue.offer(Integer.toString(i), new MqttMessage());
+    }
+    release.countDown();
+    Assert.assertTrue(secondDispatched.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(topics(0, 1), batches.get(0));
+    Assert.assertEquals(topics(1, CAPACITY + 1), batches.get(1));
+    queue.close();
+  }
+
+  /**
+   * Test whether the metrics of the ingest queue of a subscribe client are exported via JMX.
+   */
+  @Test(timeout = 30000L)
+  public void testMetricsExport() throws Exception {
+    final String clientId = "test_client";
+    final QueryMetricsRegistry registry = Tang.Factory.getTang().newInjector()
+        .getInstance(QueryMetricsRegistry.class);
+    final ObjectName objectName = new ObjectName("edu.snu.mist:type="
+        + MQTTSharedResource.SUBSCRIBE_CLIENT_METRICS_TYPE + ",name=" + ObjectName.quote(clientId));
+    // The ingest queue is not drained because the client does not subscribe any topic
+    final MQTTSubscribeClient client = new MQTTSubscribeClient("tcp://localhost:1883", clientId, 60, 1,
+        MQTTIngestQueue.OverflowPolicy.DROP);
+    try {
+      registry.registerResource(MQTTSharedResource.SUBSCRIBE_CLIENT_METRICS_TYPE, clientId, client);
+      client.messageArrived("topic", new MqttMessage());
+      client.messageArrived("topic", new MqttMessage());
+      final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      Assert.assertEquals(1, mBeanServer.getAttribute(objectName, "IngestQueueSize"));
+      Assert.assertEquals(1L, mBeanServer.getAttribute(objectName, "NumDroppedMessages"));
+      Assert.assertEquals(0L, mBeanServer.getAttribute(objectName, "NumSpilledMessages"));
+    } finally {
+      client.disconnect();
+      registry.unregisterResource(MQTTSharedResource.SUBSCRIBE_CLIENT_METRICS_TYPE, clientId);
+    }
+    Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+  }
+}
@@ -190,6 +190,11 @@ public final class MQTTSourceTest {
       dataCountDownLatch.countDown();
     }
 
+    @Override
+    public void emitDataBatch(final List<MqttMessage> inputs) {
+      inputs.forEach(this::emitData);
+    }
+
     @Override
     public void start() {
       // do nothing
@@ -209,5 +214,10 @@ public final class MQTTSourceTest {
     public void setOutputEmitter(final OutputEmitter emitter) {
       // do nothing
     }
+
+    @Override
+    public void setCheckpointListener(final SourceCheckpointListener listener) {
+      // do nothing
+    }
   }
 }
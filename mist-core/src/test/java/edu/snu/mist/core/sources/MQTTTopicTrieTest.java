@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public final class MQTTTopicTrieTest {
+
+  private static Set<String> match(final MQTTTopicTrie<String> trie, final String topic) {
+    return new HashSet<>(trie.match(topic));
+  }
+
+  /**
+   * Test whether the trie finds the filters with wildcards that match the topic names.
+   */
+  @Test
+  public void testWildcardMatch() {
+    final MQTTTopicTrie<String> trie = new MQTTTopicTrie<>();
+    trie.add("sensors/a/temp", "exact");
+    trie.add("sensors/+/temp", "single");
+    trie.add("sensors/#", "multi");
+    trie.add("#", "all");
+    trie.add("+/+", "twoLevels");
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList("exact", "single", "multi", "all")),
+        match(trie, "sensors/a/temp"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("single", "multi", "all")),
+        match(trie, "sensors/b/temp"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("multi", "all", "twoLevels")),
+        match(trie, "sensors/b"));
+    // the multi-level wildcard matches the parent level
+    Assert.assertEquals(new HashSet<>(Arrays.asList("multi", "all")), match(trie, "sensors"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("all")), match(trie, "devices/a/b"));
+    // the wildcards at the first level do not match the topic names beginning with $
+    Assert.assertEquals(Collections.emptySet(), match(trie, "$SYS/broker"));
+  }
+
+  /**
+   * Test whether the cached matches are invalidated when the filters are changed.
+   */
+  @Test
+  public void testCacheInvalidation() {
+    final MQTTTopicTrie<String> trie = new MQTTTopicTrie<>();
+    trie.add("sensors/+/temp", "first");
+    Assert.assertEquals(Collections.singletonList("first"), trie.match("sensors/a/temp"));
+
+    trie.add("sensors/a/temp", "second");
+    Assert.assertEquals(new HashSet<>(Arrays.asList("first", "second")), match(trie, "sensors/a/temp"));
+
+    Assert.assertTrue(trie.remove("sensors/+/temp", "first"));
+    Assert.assertFalse(trie.remove("sensors/+/temp", "first"));
+    Assert.assertEquals(Collections.singletonList("second"), trie.match("sensors/a/temp"));
+    Assert.assertEquals(Collections.emptyList(), trie.match("sensors/b/temp"));
+  }
+
+  /**
+   * Test whether the covering relation between two filters is correctly checked.
+   */
+  @Test
+  public void testCovers() {
+    Assert.assertTrue(MQTTTopicTrie.covers("sensors/a/temp", "sensors/a/temp"));
+    Assert.assertTrue(MQTTTopicTrie.covers("sensors/+/temp", "sensors/a/temp"));
+    Assert.assertTrue(MQTTTopicTrie.covers("sensors/#", "sensors/+/temp"));
+    Assert.assertTrue(MQTTTopicTrie.covers("sensors/#", "sensors"));
+    Assert.assertTrue(MQTTTopicTrie.covers("#", "sensors/#"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensors/a/temp", "sensors/+/temp"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensors/+/temp", "sensors/#"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensors/+", "sensors/a/temp"));
+    Assert.assertFalse(MQTTTopicTrie.covers("sensors/+/temp", "sensors/a"));
+    Assert.assertFalse(MQTTTopicTrie.covers("#", "$SYS/broker"));
+  }
+}
@@ -24,8 +24,11 @@ import edu.snu.mist.common.functions.MISTPredicate;
 import edu.snu.mist.common.functions.WatermarkTimestampFunction;
 import edu.snu.mist.core.shared.NettySharedResource;
 import edu.snu.mist.common.stream.NettyChannelHandler;
+import edu.snu.mist.common.stream.binarymessage.NettyBinaryMessageStreamGenerator;
 import edu.snu.mist.common.stream.textmessage.NettyTextMessageStreamGenerator;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.CharsetUtil;
 import junit.framework.Assert;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.io.network.util.StringIdentifierFactory;
@@ -120,7 +123,8 @@ public final class NettySourceTest {
         final WatermarkTimestampFunction<String> parseTsFunc =
             (input) -> Long.parseLong(input.toString().split(":")[1]);
         final EventGenerator<String> eventGenerator =
-            new PunctuatedEventGenerator<>(extractFunc, isWatermark, parseTsFunc, 0, null, null);
+            new PunctuatedEventGenerator<>(extractFunc, isWatermark, parseTsFunc, 0, null,
+                (ScheduledExecutorService) null);
         sources.add(new Tuple<>(dataGenerator, eventGenerator));
         dataGenerator.setEventGenerator(eventGenerator);
 
@@ -224,6 +228,50 @@ public final class NettySourceTest {
     }
   }
 
+  /**
+   * Test whether the created source using NettyBinaryDataGenerator receives length-prefixed frames
+   * correctly from netty server and deserializes them with the user-defined deserializer.
+   * @throws Exception
+   */
+  @Test(timeout = 4000L)
+  public void testNettyBinarySource() throws Exception {
+    final List<String> inputStream = Arrays.asList(
+        "Lorem ipsum dolor sit amet, consectetur adipiscing elit.",
+        "",
+        "Cras quis diam suscipit, commodo enim id, pulvinar nunc.");
+    final CountDownLatch dataCountDownLatch = new CountDownLatch(inputStream.size());
+    final CountDownLatch channelCountDown = new CountDownLatch(1);
+    // create netty server
+    try (final NettyBinaryMessageStreamGenerator binaryMessageStreamGenerator =
+             new NettyBinaryMessageStreamGenerator(SERVER_ADDR, SERVER_PORT,
+                 new TestChannelHandler(channelCountDown))) {
+      final MISTFunction<ByteBuf, String> deserializer = (frame) -> frame.toString(CharsetUtil.UTF_8);
+      final DataGenerator<String> dataGenerator =
+          new NettyBinaryDataGenerator<>(SERVER_ADDR, SERVER_PORT, deserializer, nettySharedResource);
+      final EventGenerator<String> eventGenerator =
+          new PeriodicEventGenerator<>(null, 100, 0, 100, TimeUnit.MILLISECONDS, scheduler);
+      dataGenerator.setEventGenerator(eventGenerator);
+
+      final List<String> receivedData = new LinkedList<>();
+      eventGenerator.setOutputEmitter(new SourceTestOutputEmitter<>(receivedData,
+          new LinkedList<>(), dataCountDownLatch, new CountDownLatch(0)));
+      eventGenerator.start();
+      dataGenerator.start();
+
+      // Wait until the source connects to stream generator
+      channelCountDown.await();
+      inputStream.forEach((input) -> binaryMessageStreamGenerator.write(input.getBytes(CharsetUtil.UTF_8)));
+      // Wait until all data are sent to source
+      dataCountDownLatch.await();
+
+      Assert.assertEquals(inputStream, receivedData);
+
+      // Closes
+      eventGenerator.close();
+      dataGenerator.close();
+    }
+  }
+
   /**
    * A test class for channel handler.
    */
@@ -286,6 +334,13 @@ public final class NettySourceTest {
       this.emitData(data);
     }
 
+    @Override
+    public void emitDataBatch(final List<MistDataEvent> dataBatch) {
+      for (final MistDataEvent data : dataBatch) {
+        this.emitData(data);
+      }
+    }
+
     @Override
     public void emitWatermark(final MistWatermarkEvent watermark) {
       watermarkList.add(watermark.getTimestamp());
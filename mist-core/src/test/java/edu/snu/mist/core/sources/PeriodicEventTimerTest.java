@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test whether the periodic event timer coalesces the periodic tasks correctly.
+ */
+public final class PeriodicEventTimerTest {
+
+  private ScheduledExecutorService scheduler;
+  private PeriodicEventTimer timer;
+
+  @Before
+  public void setUp() {
+    scheduler = Executors.newScheduledThreadPool(1);
+    timer = new PeriodicEventTimer(scheduler);
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Test whether the tasks with the same period share a bucket and all of them are run by a tick.
+   */
+  @Test(timeout = 5000L)
+  public void testCoalescedTasks() throws InterruptedException {
+    final int numTasks = 100;
+    final CountDownLatch latch = new CountDownLatch(numTasks);
+    final List<PeriodicEventTimer.Registration> registrations = new ArrayList<>();
+    for (int i = 0; i < numTasks; i++) {
+      final boolean[] fired = new boolean[1];
+      registrations.add(timer.register(() -> {
+        if (!fired[0]) {
+          fired[0] = true;
+          latch.countDown();
+        }
+      }, 10, TimeUnit.MILLISECONDS));
+    }
+    // The same period in a different unit uses the same bucket.
+    registrations.add(timer.register(() -> { }, 10000, TimeUnit.MICROSECONDS));
+    Assert.assertEquals(1, timer.getNumberOfBuckets());
+
+    registrations.add(timer.register(() -> { }, 20, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(2, timer.getNumberOfBuckets());
+
+    latch.await();
+
+    for (final PeriodicEventTimer.Registration registration : registrations) {
+      registration.cancel();
+    }
+    Assert.assertEquals(0, timer.getNumberOfBuckets());
+  }
+
+  /**
+   * Test whether a failed task does not prevent the other tasks in the bucket from running.
+   */
+  @Test(timeout = 5000L)
+  public void testFailedTask() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(3);
+    timer.register(() -> {
+      throw new RuntimeException("Failed task");
+    }, 10, TimeUnit.MILLISECONDS);
+    timer.register(latch::countDown, 10, TimeUnit.MILLISECONDS);
+    latch.await();
+  }
+
+  /**
+   * Test whether the tasks with the same period but different phases use different buckets.
+   */
+  @Test
+  public void testPhase() {
+    timer.register(() -> { }, 0, 100, TimeUnit.MILLISECONDS);
+    timer.register(() -> { }, 50, 100, TimeUnit.MILLISECONDS);
+    Assert.assertEquals(2, timer.getNumberOfBuckets());
+    // The initial delay 150 has the same phase as 50.
+    timer.register(() -> { }, 150, 100, TimeUnit.MILLISECONDS);
+    timer.register(() -> { }, 100, TimeUnit.MILLISECONDS);
+    Assert.assertEquals(2, timer.getNumberOfBuckets());
+  }
+
+  /**
+   * Test whether a task registered to a bucket that is about to tick is not run before its initial delay.
+   */
+  @Test(timeout = 5000L)
+  public void testInitialDelay() throws InterruptedException {
+    final CountDownLatch firstLatch = new CountDownLatch(1);
+    timer.register(firstLatch::countDown, 100, TimeUnit.MILLISECONDS);
+    firstLatch.await();
+    // The next tick of the bucket comes in about 20 milliseconds
+    Thread.sleep(80);
+    final CountDownLatch secondLatch = new CountDownLatch(1);
+    final long[] firedTime = new long[1];
+    final long registeredTime = System.nanoTime();
+    timer.register(() -> {
+      if (secondLatch.getCount() > 0) {
+        firedTime[0] = System.nanoTime();
+        secondLatch.countDown();
+      }
+    }, 100, TimeUnit.MILLISECONDS);
+    secondLatch.await();
+    Assert.assertTrue(firedTime[0] - registeredTime >= TimeUnit.MILLISECONDS.toNanos(100));
+  }
+
+  /**
+   * Test whether a blocked task does not delay the other tasks in the bucket
+   * and is not run again until its previous run finishes.
+   */
+  @Test(timeout = 5000L)
+  public void testBlockedTask() throws InterruptedException {
+    final ScheduledExecutorService multiThreadScheduler = Executors.newScheduledThreadPool(2);
+    try {
+      final PeriodicEventTimer multiThreadTimer = new PeriodicEventTimer(multiThreadScheduler);
+      final CountDownLatch blockLatch = new CountDownLatch(1);
+      final AtomicInteger blockedRuns = new AtomicInteger(0);
+      multiThreadTimer.register(() -> {
+        blockedRuns.incrementAndGet();
+        try {
+          blockLatch.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }, 10, TimeUnit.MILLISECONDS);
+      final CountDownLatch latch = new CountDownLatch(5);
+      multiThreadTimer.register(latch::countDown, 10, TimeUnit.MILLISECONDS);
+      latch.await();
+      Assert.assertEquals(1, blockedRuns.get());
+      blockLatch.countDown();
+    } finally {
+      multiThreadScheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Test whether the due tasks of a bucket are handed off to the scheduler as one batch.
+   */
+  @Test(timeout = 5000L)
+  public void testBatchedTasks() throws InterruptedException {
+    final ScheduledExecutorService multiThreadScheduler = Executors.newScheduledThreadPool(4);
+    try {
+      final PeriodicEventTimer multiThreadTimer = new PeriodicEventTimer(multiThreadScheduler);
+      final int numTasks = 50;
+      final CountDownLatch latch = new CountDownLatch(numTasks);
+      final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+      for (int i = 0; i < numTasks; i++) {
+        final AtomicBoolean fired = new AtomicBoolean(false);
+        multiThreadTimer.register(() -> {
+          if (fired.compareAndSet(false, true)) {
+            threads.add(Thread.currentThread());
+            latch.countDown();
+          }
+        }, 1, TimeUnit.SECONDS);
+      }
+      latch.await();
+      // The first runs of the tasks are in the batch of a tick, so they are run by a thread.
+      Assert.assertEquals(1, threads.size());
+    } finally {
+      multiThreadScheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Test whether the callers with the same scheduler share the timer.
+   */
+  @Test
+  public void testSharedTimer() {
+    final PeriodicEventTimer sharedTimer = PeriodicEventTimer.getSharedTimer(scheduler);
+    Assert.assertSame(sharedTimer, PeriodicEventTimer.getSharedTimer(scheduler));
+    Assert.assertNotSame(timer, sharedTimer);
+  }
+}
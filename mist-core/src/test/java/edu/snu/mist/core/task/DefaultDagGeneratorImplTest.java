@@ -20,9 +20,8 @@ import edu.snu.mist.client.MISTQuery;
 import edu.snu.mist.client.MISTQueryBuilder;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
-import edu.snu.mist.core.operators.FilterOperator;
 import edu.snu.mist.core.operators.FlatMapOperator;
-import edu.snu.mist.core.operators.MapOperator;
+import edu.snu.mist.core.operators.FusedOperator;
 import edu.snu.mist.core.operators.ReduceByKeyOperator;
 import edu.snu.mist.core.parameters.TaskHostname;
 import edu.snu.mist.core.sinks.NettyTextSink;
@@ -122,17 +121,16 @@ public final class DefaultDagGeneratorImplTest {
     final Map<ExecutionVertex, MISTEdge> nextOps = dag.getEdges(source);
     Assert.assertEquals(1, nextOps.size());
 
+    // The filter and the map are fused by the client
     final PhysicalOperator flatMapOp = (PhysicalOperator)nextOps.entrySet().iterator().next().getKey();
-    final PhysicalOperator filterOp = (PhysicalOperator)dag.getEdges(flatMapOp).entrySet().iterator().next().getKey();
-    final PhysicalOperator mapOp = (PhysicalOperator)dag.getEdges(filterOp).entrySet().iterator().next().getKey();
-    final PhysicalOperator reduceByKeyOp = (PhysicalOperator)dag.getEdges(mapOp)
+    final PhysicalOperator fusedOp = (PhysicalOperator)dag.getEdges(flatMapOp).entrySet().iterator().next().getKey();
+    final PhysicalOperator reduceByKeyOp = (PhysicalOperator)dag.getEdges(fusedOp)
         .entrySet().iterator().next().getKey();
     final PhysicalSink sink = (PhysicalSink)dag.getEdges(reduceByKeyOp)
         .entrySet().iterator().next().getKey();
 
     Assert.assertTrue(flatMapOp.getOperator() instanceof FlatMapOperator);
-    Assert.assertTrue(filterOp.getOperator() instanceof FilterOperator);
-    Assert.assertTrue(mapOp.getOperator() instanceof MapOperator);
+    Assert.assertTrue(fusedOp.getOperator() instanceof FusedOperator);
     Assert.assertTrue(reduceByKeyOp.getOperator() instanceof ReduceByKeyOperator);
     Assert.assertTrue(sink.getSink() instanceof NettyTextSink);
   }
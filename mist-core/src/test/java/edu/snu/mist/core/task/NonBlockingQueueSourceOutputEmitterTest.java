@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.MapOperator;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import edu.snu.mist.formats.avro.Direction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public final class NonBlockingQueueSourceOutputEmitterTest {
+
+  /**
+   * Test whether the ring buffer rejects the elements when it is full and keeps the insertion order.
+   */
+  @Test
+  public void testMpscArrayQueueBound() {
+    final MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+    Assert.assertEquals(4, queue.capacity());
+    for (int i = 0; i < 4; i++) {
+      Assert.assertTrue(queue.offer(i));
+    }
+    Assert.assertFalse(queue.offer(4));
+    Assert.assertEquals(4, queue.size());
+
+    final List<Integer> result = new ArrayList<>();
+    Assert.assertEquals(3, queue.drain(result, 3));
+    Assert.assertTrue(queue.offer(4));
+    Assert.assertEquals(2, queue.drain(result, 10));
+    Assert.assertTrue(queue.isEmpty());
+    Assert.assertEquals(0, queue.drain(result, 10));
+
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      expected.add(i);
+    }
+    Assert.assertEquals(expected, result);
+  }
+
+  /**
+   * Test whether the ring buffer keeps the order of each producer when multiple producers offer elements.
+   */
+  @Test
+  public void testMpscArrayQueueMultipleProducers() throws InterruptedException {
+    final int numProducers = 4;
+    final int numElements = 10000;
+    final MpscArrayQueue<int[]> queue = new MpscArrayQueue<>(64);
+    final CountDownLatch latch = new CountDownLatch(numProducers);
+    for (int i = 0; i < numProducers; i++) {
+      final int producerId = i;
+      new Thread(() -> {
+        for (int j = 0; j < numElements; j++) {
+          while (!queue.offer(new int[]{producerId, j})) {
+            Thread.yield();
+          }
+        }
+        latch.countDown();
+      }).start();
+    }
+
+    final int[] nextExpected = new int[numProducers];
+    final List<int[]> drained = new ArrayList<>();
+    int total = 0;
+    while (total < numProducers * numElements) {
+      drained.clear();
+      total += queue.drain(drained, 16);
+      for (final int[] element : drained) {
+        Assert.assertEquals(nextExpected[element[0]], element[1]);
+        nextExpected[element[0]] += 1;
+      }
+    }
+    latch.await();
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  /**
+   * Test whether the source output emitter forwards the data in batches
+   * and keeps the order between data and watermarks.
+   */
+  @Test
+  public void testBatchProcessing() {
+    final List<MistEvent> result = new LinkedList<>();
+    final MapOperator<Integer, Integer> mapOperator = new MapOperator<>((input) -> input * 10);
+    mapOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(new DefaultPhysicalOperatorImpl("map", null, mapOperator), new MISTEdge(Direction.LEFT));
+
+    final Query query = mock(Query.class);
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter =
+        new NonBlockingQueueSourceOutputEmitter<>(nextOperators, query, 8, 2);
+
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(3L);
+    emitter.emitData(new MistDataEvent(1, 1L));
+    emitter.emitData(new MistDataEvent(2, 2L));
+    emitter.emitData(new MistDataEvent(3, 3L));
+    emitter.emitWatermark(watermark);
+    emitter.emitData(new MistDataEvent(4, 4L));
+    // the query is notified only once until the events are processed
+    verify(query, times(1)).insert(emitter);
+    Assert.assertEquals(5, emitter.numberOfEvents());
+
+    Assert.assertEquals(5, emitter.processAllEvent());
+    Assert.assertEquals(0, emitter.numberOfEvents());
+
+    final List<MistEvent> expected = new LinkedList<>();
+    expected.add(new MistDataEvent(10, 1L));
+    expected.add(new MistDataEvent(20, 2L));
+    expected.add(new MistDataEvent(30, 3L));
+    expected.add(watermark);
+    expected.add(new MistDataEvent(40, 4L));
+    Assert.assertEquals(expected, result);
+
+    // the query should be notified again after the events are processed
+    emitter.emitData(new MistDataEvent(5, 5L));
+    verify(query, times(2)).insert(emitter);
+  }
+
+  /**
+   * Test whether the data events are dropped after the back-pressure timeout in the drop policy,
+   * while the watermarks are queued after the queue has space.
+   */
+  @Test(timeout = 10000)
+  public void testDropPolicy() throws InterruptedException {
+    final List<MistEvent> result = new LinkedList<>();
+    final Query query = mock(Query.class);
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = newEmitter(result, query,
+        NonBlockingQueueSourceOutputEmitter.BackpressurePolicy.DROP);
+
+    for (int i = 0; i < 6; i++) {
+      emitter.emitData(new MistDataEvent(i, i));
+    }
+    // The queue capacity is 4
+    Assert.assertEquals(4, emitter.numberOfEvents());
+    Assert.assertEquals(2, emitter.getNumDroppedEvents());
+
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(5L);
+    final Thread watermarkThread = new Thread(() -> emitter.emitWatermark(watermark));
+    watermarkThread.start();
+    // The watermark waits for space instead of being dropped
+    while (watermarkThread.getState() != Thread.State.TIMED_WAITING) {
+      Thread.sleep(1);
+    }
+    // The watermark can be enqueued while the waiting events are processed
+    final int numProcessedEvents = emitter.processAllEvent();
+    watermarkThread.join();
+    Assert.assertEquals(5, numProcessedEvents + emitter.processAllEvent());
+    Assert.assertEquals(2, emitter.getNumDroppedEvents());
+    Assert.assertEquals(watermark, result.get(result.size() - 1));
+  }
+
+  /**
+   * Test whether the source waits until the queue has space in the block policy.
+   */
+  @Test(timeout = 10000)
+  public void testBlockPolicy() throws InterruptedException {
+    final List<MistEvent> result = new LinkedList<>();
+    final Query query = mock(Query.class);
+    final NonBlockingQueueSourceOutputEmitter<Integer> emitter = newEmitter(result, query,
+        NonBlockingQueueSourceOutputEmitter.BackpressurePolicy.BLOCK);
+
+    final int numEvents = 100;
+    final Thread sourceThread = new Thread(() -> {
+      for (int i = 0; i < numEvents; i++) {
+        emitter.emitData(new MistDataEvent(i, i));
+      }
+    });
+    sourceThread.start();
+    int numProcessedEvents = 0;
+    while (numProcessedEvents < numEvents) {
+      numProcessedEvents += emitter.processAllEvent();
+      Thread.sleep(1);
+    }
+    sourceThread.join();
+    Assert.assertEquals(0, emitter.getNumDroppedEvents());
+    for (int i = 0; i < numEvents; i++) {
+      Assert.assertEquals(i, ((MistDataEvent) result.get(i)).getValue());
+    }
+  }
+
+  private static NonBlockingQueueSourceOutputEmitter<Integer> newEmitter(
+      final List<MistEvent> result,
+      final Query query,
+      final NonBlockingQueueSourceOutputEmitter.BackpressurePolicy policy) {
+    final MapOperator<Integer, Integer> mapOperator = new MapOperator<>((input) -> input);
+    mapOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(new DefaultPhysicalOperatorImpl("map", null, mapOperator), new MISTEdge(Direction.LEFT));
+    return new NonBlockingQueueSourceOutputEmitter<>(nextOperators, query, 4, 2, false, policy, 0);
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.predicates.RuleBasedEQPredicate;
+import edu.snu.mist.common.predicates.RuleBasedGTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedLEPredicate;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import edu.snu.mist.formats.avro.Direction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class OperatorOutputEmitterTest {
+
+  /**
+   * Add a filter operator that passes all the inputs to the result list.
+   */
+  private List<MistEvent> addNextOperator(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                          final String id,
+                                          final MISTEdge edge) {
+    return addNextFilter(nextOperators, id, edge, input -> true);
+  }
+
+  /**
+   * Add a filter operator that passes the inputs satisfying the predicate to the result list.
+   */
+  private <T> List<MistEvent> addNextFilter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                            final String id,
+                                            final MISTEdge edge,
+                                            final MISTPredicate<T> predicate) {
+    final List<MistEvent> result = new LinkedList<>();
+    final FilterOperator<T> operator = new FilterOperator<>(predicate);
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+    nextOperators.put(new DefaultPhysicalOperatorImpl(id, null, operator), edge);
+    return result;
+  }
+
+  /**
+   * Test whether the emitter copies the data for the next operators except the last one.
+   */
+  @Test
+  public void testFanOutCopy() {
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    final List<MistEvent> result1 = addNextOperator(nextOperators, "op1", new MISTEdge(Direction.LEFT));
+    final List<MistEvent> result2 = addNextOperator(nextOperators, "op2", new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextOperators);
+
+    final MistDataEvent data = new MistDataEvent(1, 1L);
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(2L);
+    emitter.emitData(data);
+    emitter.emitWatermark(watermark);
+
+    Assert.assertEquals(2, result1.size());
+    Assert.assertEquals(2, result2.size());
+    Assert.assertEquals(data, result1.get(0));
+    Assert.assertEquals(data, result2.get(0));
+    // only one of the next operators receives the original data
+    Assert.assertTrue((result1.get(0) == data) ^ (result2.get(0) == data));
+    Assert.assertSame(watermark, result1.get(1));
+    Assert.assertSame(watermark, result2.get(1));
+  }
+
+  /**
+   * Test whether the emitter shares the data in the immutable-event mode.
+   */
+  @Test
+  public void testImmutableEventFanOut() {
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    final List<MistEvent> result1 = addNextOperator(nextOperators, "op1", new MISTEdge(Direction.LEFT));
+    final List<MistEvent> result2 = addNextOperator(nextOperators, "op2", new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextOperators, true);
+
+    final List<MistDataEvent> batch = new ArrayList<>();
+    batch.add(new MistDataEvent(1, 1L));
+    batch.add(new MistDataEvent(2, 2L));
+    emitter.emitDataBatch(batch);
+
+    Assert.assertEquals(2, result1.size());
+    Assert.assertEquals(2, result2.size());
+    for (int i = 0; i < batch.size(); i++) {
+      Assert.assertSame(batch.get(i), result1.get(i));
+      Assert.assertSame(batch.get(i), result2.get(i));
+    }
+  }
+
+  /**
+   * Test whether the emitter forwards the data only to the edges that have the index.
+   */
+  @Test
+  public void testIndexedEmit() {
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    final List<MistEvent> result1 = addNextOperator(nextOperators, "op1", new MISTEdge(Direction.LEFT, 1));
+    final List<MistEvent> result2 = addNextOperator(nextOperators, "op2", new MISTEdge(Direction.LEFT, 2));
+    final List<MistEvent> result3 = addNextOperator(nextOperators, "op3", new MISTEdge(Direction.LEFT, 2));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextOperators);
+
+    final MistDataEvent data = new MistDataEvent(1, 1L);
+    emitter.emitData(data, 2);
+
+    Assert.assertEquals(0, result1.size());
+    Assert.assertEquals(1, result2.size());
+    Assert.assertEquals(1, result3.size());
+    Assert.assertTrue((result2.get(0) == data) ^ (result3.get(0) == data));
+  }
+
+  /**
+   * Test whether the emitter forwards the data to the added operator after the routes are updated.
+   */
+  @Test
+  public void testUpdateRoutes() {
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    final List<MistEvent> result1 = addNextOperator(nextOperators, "op1", new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextOperators);
+
+    final Map<ExecutionVertex, MISTEdge> addedOperators = new HashMap<>();
+    final List<MistEvent> result2 = addNextOperator(addedOperators, "op2", new MISTEdge(Direction.LEFT));
+    nextOperators.putAll(addedOperators);
+
+    emitter.emitData(new MistDataEvent(1, 1L));
+    Assert.assertEquals(1, result1.size());
+    Assert.assertEquals(0, result2.size());
+
+    emitter.updateRoutes(nextOperators);
+    emitter.emitData(new MistDataEvent(2, 2L));
+    Assert.assertEquals(2, result1.size());
+    Assert.assertEquals(1, result2.size());
+    Assert.assertEquals(new MistDataEvent(2, 2L), result2.get(0));
+  }
+
+  /**
+   * Test whether the emitter forwards the data only to the indexed filters that it can pass,
+   * and to all the other operators.
+   */
+  @Test
+  public void testPredicateIndexedFilters() {
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    final List<MistEvent> gtResult = addNextFilter(nextOperators, "gt", new MISTEdge(Direction.LEFT),
+        new RuleBasedGTPredicate("temp", 30));
+    final List<MistEvent> leResult = addNextFilter(nextOperators, "le", new MISTEdge(Direction.LEFT),
+        new RuleBasedLEPredicate("temp", 30));
+    final List<MistEvent> eqResult = addNextFilter(nextOperators, "eq", new MISTEdge(Direction.LEFT),
+        new RuleBasedEQPredicate("room", "a"));
+    final List<MistEvent> allResult = addNextOperator(nextOperators, "all", new MISTEdge(Direction.LEFT));
+    final OutputRoutingTable routingTable = new OutputRoutingTable(nextOperators, false);
+    Assert.assertTrue(routingTable.isIndexed());
+
+    final Map<String, Object> value1 = new HashMap<>();
+    value1.put("temp", 35);
+    value1.put("room", "a");
+    final Map<String, Object> value2 = new HashMap<>();
+    value2.put("temp", 30);
+    value2.put("room", "b");
+    routingTable.routeData(new MistDataEvent(value1, 1L));
+    final List<MistDataEvent> batch = new ArrayList<>();
+    batch.add(new MistDataEvent(value2, 2L));
+    batch.add(new MistDataEvent(value1, 3L));
+    routingTable.routeDataBatch(batch);
+
+    Assert.assertEquals(2, gtResult.size());
+    Assert.assertEquals(1L, gtResult.get(0).getTimestamp());
+    Assert.assertEquals(3L, gtResult.get(1).getTimestamp());
+    Assert.assertEquals(1, leResult.size());
+    Assert.assertEquals(2L, leResult.get(0).getTimestamp());
+    Assert.assertEquals(2, eqResult.size());
+    Assert.assertEquals(3, allResult.size());
+  }
+}
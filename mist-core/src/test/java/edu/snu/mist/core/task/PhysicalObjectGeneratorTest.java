@@ -38,7 +38,6 @@ import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.tang.formats.AvroConfigurationSerializer;
-import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -85,7 +84,7 @@ public final class PhysicalObjectGeneratorTest {
         .setHostAddress("localhost")
         .setHostPort(13666)
         .build().getConfiguration();
-    final DataGenerator<String> dataGenerator =
+    final DataGenerator<?> dataGenerator =
         generator.newDataGenerator(conf, classLoader);
     Assert.assertTrue(dataGenerator instanceof NettyTextDataGenerator);
   }
@@ -97,7 +96,7 @@ public final class PhysicalObjectGeneratorTest {
         .setTopic("localhost")
         .setConsumerConfig(kafkaConsumerConf)
         .build().getConfiguration();
-    final DataGenerator dataGenerator =
+    final DataGenerator<?> dataGenerator =
         generator.newDataGenerator(conf, classLoader);
     Assert.assertTrue(dataGenerator instanceof KafkaDataGenerator);
   }
@@ -108,7 +107,7 @@ public final class PhysicalObjectGeneratorTest {
         .setBrokerURI("tcp://localhost:12345")
         .setTopic("topic")
         .build().getConfiguration();
-    final DataGenerator<MqttMessage> dataGenerator =
+    final DataGenerator<?> dataGenerator =
         generator.newDataGenerator(conf, classLoader);
     Assert.assertTrue(dataGenerator instanceof MQTTDataGenerator);
 
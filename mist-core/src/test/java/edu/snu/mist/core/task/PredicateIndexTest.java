@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.predicates.RuleBasedCCPredicate;
+import edu.snu.mist.common.predicates.RuleBasedEQPredicate;
+import edu.snu.mist.common.predicates.RuleBasedGEPredicate;
+import edu.snu.mist.common.predicates.RuleBasedGTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedLEPredicate;
+import edu.snu.mist.common.predicates.RuleBasedLTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedNEQPredicate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public final class PredicateIndexTest {
+
+  private static final String[] FIELDS = {"temp", "humidity", "room"};
+
+  private static RuleBasedCCPredicate randomPredicate(final Random random) {
+    final String field = FIELDS[random.nextInt(FIELDS.length)];
+    final Object value = field.equals("room") ? String.valueOf((char) ('a' + random.nextInt(5)))
+        : (Object) random.nextInt(20);
+    switch (random.nextInt(6)) {
+      case 0:
+        return new RuleBasedEQPredicate(field, value);
+      case 1:
+        return new RuleBasedNEQPredicate(field, value);
+      case 2:
+        return new RuleBasedGTPredicate(field, value);
+      case 3:
+        return new RuleBasedGEPredicate(field, value);
+      case 4:
+        return new RuleBasedLTPredicate(field, value);
+      default:
+        return new RuleBasedLEPredicate(field, value);
+    }
+  }
+
+  /**
+   * Test whether the index finds exactly the predicates that the inputs satisfy.
+   */
+  @Test
+  public void testMatchSameAsPredicates() {
+    final Random random = new Random(7);
+    final Map<Integer, RuleBasedCCPredicate> predicates = new HashMap<>();
+    for (int i = 0; i < 300; i++) {
+      predicates.put(i, randomPredicate(random));
+    }
+    final PredicateIndex index = new PredicateIndex(predicates);
+    final int[] output = new int[predicates.size()];
+
+    for (int i = 0; i < 200; i++) {
+      final Map<String, Object> input = new HashMap<>();
+      input.put("temp", random.nextInt(22) - 1);
+      input.put("humidity", random.nextInt(22) - 1);
+      input.put("room", String.valueOf((char) ('a' + random.nextInt(6))));
+
+      final int count = index.match(input, output, 0);
+      final Set<Integer> found = new HashSet<>();
+      for (int j = 0; j < count; j++) {
+        Assert.assertTrue("Duplicated id " + output[j], found.add(output[j]));
+      }
+      final Set<Integer> expected = new HashSet<>();
+      for (final Map.Entry<Integer, RuleBasedCCPredicate> entry : predicates.entrySet()) {
+        if (entry.getValue().test(input)) {
+          expected.add(entry.getKey());
+        }
+      }
+      Assert.assertEquals(expected, found);
+    }
+  }
+
+  /**
+   * Test whether the index returns the predicates without comparison
+   * when the field is missing or has a different type from the predicate value.
+   */
+  @Test
+  public void testUncomparableInputs() {
+    final Map<Integer, RuleBasedCCPredicate> predicates = new HashMap<>();
+    predicates.put(0, new RuleBasedGTPredicate("temp", 10));
+    predicates.put(1, new RuleBasedEQPredicate("temp", 10));
+    predicates.put(2, new RuleBasedLTPredicate("room", "b"));
+    final PredicateIndex index = new PredicateIndex(predicates);
+    final int[] output = new int[predicates.size()];
+
+    final Map<String, Object> input = new HashMap<>();
+    input.put("temp", 10L);
+    int count = index.match(input, output, 0);
+    Arrays.sort(output, 0, count);
+    Assert.assertArrayEquals(new int[]{0, 2}, Arrays.copyOf(output, count));
+
+    input.put("temp", 11);
+    input.put("room", "a");
+    count = index.match(input, output, 0);
+    Arrays.sort(output, 0, count);
+    Assert.assertArrayEquals(new int[]{0, 2}, Arrays.copyOf(output, count));
+  }
+}
@@ -46,6 +46,7 @@ import org.apache.reef.tang.Tang;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -122,7 +123,7 @@ public final class QueryManagerTest {
     // Create source
     final TestDataGenerator dataGenerator = new TestDataGenerator(inputs);
     final EventGenerator eventGenerator =
-        new PunctuatedEventGenerator(null, input -> false, null, 0, null, null);
+        new PunctuatedEventGenerator(null, input -> false, null, 0, null, (ScheduledExecutorService) null);
     final PhysicalSource src = new PhysicalSourceImpl("testSource",
         new HashMap<>(), dataGenerator, eventGenerator);
 
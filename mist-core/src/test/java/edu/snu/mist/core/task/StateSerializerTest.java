@@ -15,12 +15,14 @@
  */
 package edu.snu.mist.core.task;
 
+import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.core.operators.window.Window;
 import edu.snu.mist.core.operators.window.WindowImpl;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
@@ -106,4 +108,21 @@ public final class StateSerializerTest {
     Assert.assertEquals(testWindow, deserializedWindow);
     Assert.assertEquals(testQueue, deserializedQueue);
   }
+
+  @Test
+  public void testBase64EncodedStates() throws Exception {
+    final HashMap<String, Integer> testMap = new HashMap<>();
+    testMap.put("Cheeseburgers", 6);
+
+    // The states are serialized into raw bytes, not Base64 strings.
+    final Map<String, Object> testStateMap = new HashMap<>();
+    testStateMap.put("testMap", testMap);
+    final ByteBuffer serializedState = (ByteBuffer) StateSerializer.serializeStateMap(testStateMap).get("testMap");
+    Assert.assertArrayEquals(SerializeUtils.serializeToBytes(testMap), serializedState.array());
+
+    // The states encoded into Base64 strings are still deserialized.
+    final Map<String, Object> base64StateMap = new HashMap<>();
+    base64StateMap.put("testMap", ByteBuffer.wrap(SerializeUtils.serializeToString(testMap).getBytes()));
+    Assert.assertEquals(testMap, StateSerializer.deserializeStateMap(base64StateMap).get("testMap"));
+  }
 }
@@ -158,6 +158,10 @@ public class GroupRecoveryTest {
 
     final ApplicationInfo appInfo = queryManager.createApplication(appId, Arrays.asList(""));
     queryManager.createGroup(appInfo);
+    // The group is added asynchronously, so wait for it before creating the query in the group
+    while (appInfo.getGroups().isEmpty()) {
+      sleep(100);
+    }
     queryManager.create(avroDag);
 
     // Wait until all sources connect to stream generator
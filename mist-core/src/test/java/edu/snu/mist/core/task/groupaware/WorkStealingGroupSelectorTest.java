@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware;
+
+import edu.snu.mist.core.task.groupaware.eventprocessor.NextGroupSelector;
+import edu.snu.mist.core.task.groupaware.eventprocessor.NextGroupSelectorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.WorkStealingGroupSelectorFactory;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class WorkStealingGroupSelectorTest {
+
+  private NextGroupSelectorFactory factory;
+
+  @Before
+  public void setUp() throws InjectionException {
+    factory = Tang.Factory.getTang().newInjector().getInstance(WorkStealingGroupSelectorFactory.class);
+  }
+
+  private Group createReadyGroup() {
+    final Group group = mock(Group.class);
+    when(group.setProcessingFromReady()).thenReturn(true);
+    return group;
+  }
+
+  /**
+   * Test if an idle selector steals the oldest group of another selector,
+   * and the owner selects the remaining groups in the scheduled order.
+   */
+  @Test
+  public void testStealGroups() {
+    final NextGroupSelector busySelector = factory.newInstance();
+    final NextGroupSelector idleSelector = factory.newInstance();
+    final Group group1 = createReadyGroup();
+    final Group group2 = createReadyGroup();
+    final Group group3 = createReadyGroup();
+
+    busySelector.reschedule(group1, false);
+    busySelector.reschedule(group2, false);
+    busySelector.reschedule(group3, false);
+
+    Assert.assertEquals(group1, idleSelector.getNextExecutableGroup());
+    Assert.assertEquals(group2, busySelector.getNextExecutableGroup());
+    Assert.assertEquals(group3, busySelector.getNextExecutableGroup());
+  }
+
+  /**
+   * Test if a selector waiting for a group is woken up when another selector receives a group.
+   */
+  @Test(timeout = 5000L)
+  public void testWakeUpIdleSelector() throws Exception {
+    final NextGroupSelector busySelector = factory.newInstance();
+    final NextGroupSelector idleSelector = factory.newInstance();
+    final Group group = createReadyGroup();
+
+    final CompletableFuture<Group> stolenGroup = CompletableFuture.supplyAsync(idleSelector::getNextExecutableGroup);
+    Thread.sleep(50);
+    busySelector.reschedule(group, false);
+    Assert.assertEquals(group, stolenGroup.get(1000, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Test if a group that is being processed by another event processor is not selected until it becomes ready.
+   */
+  @Test(timeout = 5000L)
+  public void testSkipProcessingGroup() {
+    final NextGroupSelector selector1 = factory.newInstance();
+    final NextGroupSelector selector2 = factory.newInstance();
+    final Group processingGroup = mock(Group.class);
+    when(processingGroup.setProcessingFromReady()).thenReturn(false, false, true);
+    final Group readyGroup = createReadyGroup();
+
+    selector1.reschedule(processingGroup, false);
+    selector1.reschedule(readyGroup, false);
+
+    Assert.assertEquals(readyGroup, selector1.getNextExecutableGroup());
+    Assert.assertEquals(processingGroup, selector2.getNextExecutableGroup());
+  }
+
+  /**
+   * Test if the groups of a closed selector are handed over to the remaining selectors.
+   */
+  @Test
+  public void testCloseSelector() throws Exception {
+    final NextGroupSelector closedSelector = factory.newInstance();
+    final NextGroupSelector remainingSelector = factory.newInstance();
+    final Group group = createReadyGroup();
+
+    closedSelector.reschedule(group, false);
+    Assert.assertTrue(closedSelector.removeDispatchedGroup(group));
+    closedSelector.reschedule(group, false);
+    closedSelector.close();
+
+    Assert.assertFalse(closedSelector.removeDispatchedGroup(group));
+    Assert.assertEquals(group, remainingSelector.getNextExecutableGroup());
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.merging;
+
+import edu.snu.mist.common.graph.AdjacentListDAG;
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.task.ConfigVertex;
+import edu.snu.mist.core.task.ExecutionDag;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.formats.avro.Direction;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test whether ExecutionVertexIndex finds the sources and the children by their configurations.
+ */
+public final class ExecutionVertexIndexTest {
+
+  private ExecutionVertexIndex index;
+
+  @Before
+  public void setUp() throws InjectionException {
+    index = Tang.Factory.getTang().newInjector().getInstance(ExecutionVertexIndex.class);
+  }
+
+  /**
+   * Creates a configuration that has a single entry.
+   */
+  private static Map<String, String> conf(final String key, final String value) {
+    final Map<String, String> configuration = new HashMap<>();
+    configuration.put(key, value);
+    return configuration;
+  }
+
+  /**
+   * Test whether the source is found only in the execution dag that contains it.
+   */
+  @Test
+  public void testFindSource() {
+    final ConfigVertex srcVertex1 = new ConfigVertex("src1", ExecutionVertex.Type.SOURCE, conf("topic", "a"));
+    final ConfigVertex srcVertex2 = new ConfigVertex("src2", ExecutionVertex.Type.SOURCE, conf("topic", "a"));
+    final ExecutionVertex source1 = new TestVertex("src1", ExecutionVertex.Type.SOURCE);
+    final ExecutionVertex source2 = new TestVertex("src2", ExecutionVertex.Type.SOURCE);
+    final ExecutionDag executionDag1 = new ExecutionDag(new AdjacentListDAG<>());
+    executionDag1.getDag().addVertex(source1);
+    final ExecutionDag executionDag2 = new ExecutionDag(new AdjacentListDAG<>());
+    executionDag2.getDag().addVertex(source2);
+    index.addSource(srcVertex1, source1);
+    index.addSource(srcVertex2, source2);
+
+    final ConfigVertex submitted = new ConfigVertex("src3", ExecutionVertex.Type.SOURCE, conf("topic", "a"));
+    Assert.assertEquals(source1, index.findSource(executionDag1, submitted));
+    Assert.assertEquals(source2, index.findSource(executionDag2, submitted));
+    // The configurations have the same hash code
+    Assert.assertNull(index.findSource(executionDag1,
+        new ConfigVertex("src4", ExecutionVertex.Type.SOURCE, conf("a", "topic"))));
+    Assert.assertNull(index.findSource(executionDag1,
+        new ConfigVertex("src5", ExecutionVertex.Type.SOURCE, conf("topic", "b"))));
+
+    index.removeVertex(srcVertex1, source1);
+    Assert.assertNull(index.findSource(executionDag1, submitted));
+    Assert.assertEquals(source2, index.findSource(executionDag2, submitted));
+  }
+
+  /**
+   * Test whether the child is found by the type and the configuration.
+   */
+  @Test
+  public void testFindChild() {
+    final ExecutionVertex source = new TestVertex("src", ExecutionVertex.Type.SOURCE);
+    final ExecutionVertex operator = new TestVertex("op", ExecutionVertex.Type.OPERATOR);
+    final ExecutionVertex sink = new TestVertex("sink", ExecutionVertex.Type.SINK);
+    final DAG<ExecutionVertex, MISTEdge> dag = new AdjacentListDAG<>();
+    dag.addVertex(source);
+    dag.addVertex(operator);
+    dag.addVertex(sink);
+    dag.addEdge(source, operator, new MISTEdge(Direction.LEFT));
+    dag.addEdge(operator, sink, new MISTEdge(Direction.LEFT));
+    final ExecutionDag executionDag = new ExecutionDag(dag);
+    index.addChild(source, new ConfigVertex("op", ExecutionVertex.Type.OPERATOR, conf("udf", "f")), operator);
+    index.addChild(operator, new ConfigVertex("sink", ExecutionVertex.Type.SINK, conf("udf", "f")), sink);
+
+    Assert.assertEquals(operator, index.findChild(executionDag, source,
+        new ConfigVertex("op2", ExecutionVertex.Type.OPERATOR, conf("udf", "f"))));
+    Assert.assertNull(index.findChild(executionDag, source,
+        new ConfigVertex("op3", ExecutionVertex.Type.OPERATOR, conf("udf", "g"))));
+    // The configurations have the same hash code
+    Assert.assertNull(index.findChild(executionDag, source,
+        new ConfigVertex("op4", ExecutionVertex.Type.OPERATOR, conf("f", "udf"))));
+    // The type is different
+    Assert.assertNull(index.findChild(executionDag, operator,
+        new ConfigVertex("op5", ExecutionVertex.Type.OPERATOR, conf("udf", "f"))));
+    Assert.assertNull(index.findChild(executionDag, sink,
+        new ConfigVertex("op6", ExecutionVertex.Type.OPERATOR, conf("udf", "f"))));
+
+    // The children of the removed vertex are removed
+    index.removeVertex(new ConfigVertex("src", ExecutionVertex.Type.SOURCE, conf("topic", "a")), source);
+    Assert.assertNull(index.findChild(executionDag, source,
+        new ConfigVertex("op7", ExecutionVertex.Type.OPERATOR, conf("udf", "f"))));
+  }
+
+  /**
+   * Test whether the child that is no longer adjacent to the parent is lazily removed from the index,
+   * and the other children with the same configuration are still found.
+   */
+  @Test
+  public void testLazyRemovalOfStaleChild() {
+    final ExecutionVertex source = new TestVertex("src", ExecutionVertex.Type.SOURCE);
+    final ExecutionVertex staleOperator = new TestVertex("op1", ExecutionVertex.Type.OPERATOR);
+    final ExecutionVertex operator = new TestVertex("op2", ExecutionVertex.Type.OPERATOR);
+    final DAG<ExecutionVertex, MISTEdge> dag = new AdjacentListDAG<>();
+    dag.addVertex(source);
+    dag.addVertex(staleOperator);
+    dag.addEdge(source, staleOperator, new MISTEdge(Direction.LEFT));
+    final ExecutionDag executionDag = new ExecutionDag(dag);
+    final ConfigVertex submitted = new ConfigVertex("op3", ExecutionVertex.Type.OPERATOR, conf("udf", "f"));
+    index.addChild(source, new ConfigVertex("op1", ExecutionVertex.Type.OPERATOR, conf("udf", "f")), staleOperator);
+    Assert.assertEquals(staleOperator, index.findChild(executionDag, source, submitted));
+
+    // The stale operator is removed from the dag without updating the index
+    dag.removeEdge(source, staleOperator);
+    dag.removeVertex(staleOperator);
+    dag.addVertex(operator);
+    dag.addEdge(source, operator, new MISTEdge(Direction.LEFT));
+    index.addChild(source, new ConfigVertex("op2", ExecutionVertex.Type.OPERATOR, conf("udf", "f")), operator);
+    Assert.assertEquals(operator, index.findChild(executionDag, source, submitted));
+
+    // The stale entry has been discarded by the lookup, so it is not found even if the edge is added again
+    dag.removeEdge(source, operator);
+    dag.addVertex(staleOperator);
+    dag.addEdge(source, staleOperator, new MISTEdge(Direction.LEFT));
+    Assert.assertNull(index.findChild(executionDag, source, submitted));
+    Assert.assertNull(index.findChild(executionDag, source, submitted));
+  }
+
+  /**
+   * An execution vertex that has only the type and the identifier.
+   */
+  private static final class TestVertex implements ExecutionVertex {
+    private final String id;
+    private final Type type;
+
+    TestVertex(final String id, final Type type) {
+      this.id = id;
+      this.type = type;
+    }
+
+    @Override
+    public Type getType() {
+      return type;
+    }
+
+    @Override
+    public String getIdentifier() {
+      return id;
+    }
+  }
+}
@@ -661,6 +661,16 @@ public final class ImmediateQueryMergingStarterTest {
       // do nothing
     }
 
+    @Override
+    public void startAfterMigration(final Map<String, Object> forwardedState) {
+      // do nothing
+    }
+
+    @Override
+    public void checkpointCompleted(final long checkpointTimestamp) {
+      // do nothing
+    }
+
     @Override
     public EventGenerator getEventGenerator() {
       return null;
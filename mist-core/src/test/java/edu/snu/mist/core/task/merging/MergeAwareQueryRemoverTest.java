@@ -38,6 +38,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -496,6 +497,8 @@ public final class MergeAwareQueryRemoverTest {
     executionVertexDagMap.put(physicalOp1, mergedExecutionDag);
     executionVertexDagMap.put(sink1, mergedExecutionDag);
     executionVertexDagMap.put(sink2, mergedExecutionDag);
+    // The operator sends its outputs to both sinks
+    physicalOp1.getOperator().setOutputEmitter(new OperatorOutputEmitter(dag.getEdges(physicalOp1)));
 
     // Remove query2
     queryRemover.deleteQuery(query2Id);
@@ -538,6 +541,11 @@ public final class MergeAwareQueryRemoverTest {
     final Map<ExecutionVertex, MISTEdge> oc1Edges = mergedExecutionDag.getDag().getEdges(physicalOp1);
     Assert.assertEquals(1, oc1Edges.size());
     Assert.assertEquals(sink1, oc1Edges.keySet().iterator().next());
+
+    // Check if the output routes of the operator are updated
+    physicalOp1.getOperator().processLeftData(new MistDataEvent("data"));
+    Assert.assertEquals(Arrays.asList("data"), result1);
+    Assert.assertTrue(result2.isEmpty());
   }
 
   /**
@@ -569,6 +577,16 @@ public final class MergeAwareQueryRemoverTest {
       // do nothing
     }
 
+    @Override
+    public void startAfterMigration(final Map<String, Object> forwardedState) {
+      // do nothing
+    }
+
+    @Override
+    public void checkpointCompleted(final long checkpointTimestamp) {
+      // do nothing
+    }
+
     @Override
     public EventGenerator getEventGenerator() {
       return null;
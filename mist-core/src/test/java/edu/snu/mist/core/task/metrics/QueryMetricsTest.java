@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.operators.MapOperator;
+import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import edu.snu.mist.formats.avro.AvroQueryMetrics;
+import edu.snu.mist.formats.avro.Direction;
+import org.apache.reef.tang.Tang;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A test class for LatencyHistogram, VertexMetrics and QueryMetrics.
+ */
+public final class QueryMetricsTest {
+
+  /**
+   * Test whether the histogram keeps the values within the relative error of the buckets.
+   */
+  @Test
+  public void testLatencyHistogram() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0L, histogram.getValueAtPercentile(99.0));
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+    histogram.record(-1L);
+
+    Assert.assertEquals(1001, histogram.getCount());
+    Assert.assertEquals(1000000L, histogram.getMax());
+    Assert.assertEquals(500000.0, histogram.getMean(), 1000.0);
+    final long median = histogram.getValueAtPercentile(50.0);
+    Assert.assertTrue(median >= 500000L && median <= 500000L * 9 / 8);
+    final long p99 = histogram.getValueAtPercentile(99.0);
+    Assert.assertTrue(p99 >= 990000L && p99 <= 1000000L);
+    Assert.assertEquals(0L, histogram.getValueAtPercentile(0.0));
+    Assert.assertEquals(1000000L, histogram.getValueAtPercentile(100.0));
+
+    // The buckets are continuous
+    for (long value = 0; value < 100000; value++) {
+      final int index = LatencyHistogram.bucketIndex(value);
+      Assert.assertTrue(value <= LatencyHistogram.highestValueInBucket(index));
+      Assert.assertTrue(index == 0 || value > LatencyHistogram.highestValueInBucket(index - 1));
+    }
+  }
+
+  /**
+   * Test whether the events are counted and sampled.
+   */
+  @Test
+  public void testVertexMetricsSampling() {
+    final VertexMetrics metrics = new VertexMetrics(4);
+    int numSamples = 0;
+    for (int i = 0; i < 10; i++) {
+      if (metrics.countAndSample(1)) {
+        numSamples += 1;
+      }
+    }
+    Assert.assertEquals(2, numSamples);
+    Assert.assertTrue(metrics.countAndSample(5));
+    Assert.assertEquals(15, metrics.getNumEvents());
+
+    final VertexMetrics disabled = new VertexMetrics(0);
+    Assert.assertFalse(disabled.countAndSample(100));
+    Assert.assertEquals(100, disabled.getNumEvents());
+  }
+
+  /**
+   * Creates a data event that is generated by a source at the ingestion time.
+   */
+  private static MistDataEvent newIngestedEvent(final Object value, final long ingestionTime) {
+    final MistDataEvent event = new MistDataEvent(value, 1L);
+    event.setIngestionTime(ingestionTime);
+    return event;
+  }
+
+  /**
+   * Test whether the service time of an operator excludes the time spent by the next operator.
+   */
+  @Test
+  public void testOperatorSelfTime() {
+    final long sleepMillis = 20L;
+    final List<MistEvent> result = new LinkedList<>();
+    final MapOperator<Integer, Integer> slowOperator = new MapOperator<>(input -> {
+      try {
+        Thread.sleep(sleepMillis);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return input;
+    });
+    slowOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    final VertexMetrics slowMetrics = new VertexMetrics(1);
+    final PhysicalOperator slowPhysicalOperator =
+        new DefaultPhysicalOperatorImpl("slow", null, slowOperator, slowMetrics);
+
+    final MapOperator<Integer, Integer> fastOperator = new MapOperator<>(input -> input + 1);
+    final Map<ExecutionVertex, MISTEdge> fastNextOperators = new HashMap<>();
+    fastNextOperators.put(slowPhysicalOperator, new MISTEdge(Direction.LEFT));
+    fastOperator.setOutputEmitter(new OperatorOutputEmitter(fastNextOperators));
+    final VertexMetrics fastMetrics = new VertexMetrics(1);
+    final PhysicalOperator fastPhysicalOperator =
+        new DefaultPhysicalOperatorImpl("fast", null, fastOperator, fastMetrics);
+
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(fastPhysicalOperator, new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextOperators);
+    emitter.emitData(new MistDataEvent(1, 1L));
+    emitter.emitDataBatch(Arrays.asList(new MistDataEvent(2, 1L), new MistDataEvent(3, 1L)));
+    Assert.assertEquals(3, result.size());
+
+    final long sleepNanos = TimeUnit.MILLISECONDS.toNanos(sleepMillis);
+    Assert.assertEquals(2, slowMetrics.getLatency().getCount());
+    Assert.assertTrue(slowMetrics.getLatency().getValueAtPercentile(0.0) >= sleepNanos);
+    Assert.assertEquals(2, fastMetrics.getLatency().getCount());
+    Assert.assertTrue(fastMetrics.getLatency().getMax() < sleepNanos);
+  }
+
+  /**
+   * Test whether the sink records the latency since the ingestion of the data,
+   * and skips the data that are not generated by a source.
+   */
+  @Test
+  public void testSinkLatency() {
+    final VertexMetrics metrics = new VertexMetrics(1);
+    final PhysicalSink<Integer> physicalSink =
+        new PhysicalSinkImpl<>("sink", null, mock(Sink.class), metrics);
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(physicalSink, new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextOperators);
+
+    final long ingestionDelay = TimeUnit.MILLISECONDS.toNanos(100);
+    final long beforeEmit = System.nanoTime();
+    emitter.emitData(newIngestedEvent(1, beforeEmit - ingestionDelay));
+    final long afterEmit = System.nanoTime();
+    emitter.emitData(new MistDataEvent(2, 1L));
+
+    Assert.assertEquals(2, metrics.getNumEvents());
+    Assert.assertEquals(1, metrics.getLatency().getCount());
+    final long latency = metrics.getLatency().getMax();
+    Assert.assertTrue(latency >= ingestionDelay);
+    // The histogram keeps the values within the relative error of 1/8
+    Assert.assertTrue(latency <= (afterEmit - beforeEmit + ingestionDelay) * 9 / 8);
+  }
+
+  /**
+   * Test whether the query metrics collect the metrics of the operators and sinks on the processing path,
+   * and are exported via JMX.
+   */
+  @Test
+  public void testQueryMetrics() throws Exception {
+    final List<MistEvent> result = new LinkedList<>();
+    final FilterOperator<Integer> operator = new FilterOperator<>(input -> input % 2 == 0);
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+    final PhysicalOperator physicalOperator =
+        new DefaultPhysicalOperatorImpl("op", null, operator, new VertexMetrics(1));
+    final PhysicalSink<Integer> physicalSink =
+        new PhysicalSinkImpl<>("sink", null, mock(Sink.class), new VertexMetrics(1));
+
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(physicalOperator, new MISTEdge(Direction.LEFT));
+    nextOperators.put(physicalSink, new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextOperators);
+    for (int i = 0; i < 10; i++) {
+      emitter.emitData(newIngestedEvent(i, System.nanoTime()));
+    }
+    emitter.emitDataBatch(Arrays.asList(newIngestedEvent(10, System.nanoTime()),
+        newIngestedEvent(11, System.nanoTime())));
+    Assert.assertEquals(6, result.size());
+
+    final QueryMetrics queryMetrics = new QueryMetrics("q1");
+    queryMetrics.setVertexSupplier(() -> Arrays.asList(physicalOperator, physicalSink));
+    queryMetrics.recordProcessing(12, 5000000L);
+    Assert.assertEquals(12, queryMetrics.getNumProcessedEvents());
+    Assert.assertEquals(5, queryMetrics.getBusyTimeMillis());
+
+    final List<VertexMetricsSnapshot> snapshots = queryMetrics.getVertexMetrics();
+    Assert.assertEquals(2, snapshots.size());
+    for (final VertexMetricsSnapshot snapshot : snapshots) {
+      Assert.assertEquals(12, snapshot.getNumEvents());
+      Assert.assertEquals(11, snapshot.getNumSamples());
+    }
+
+    final QueryMetricsRegistry registry = Tang.Factory.getTang().newInjector()
+        .getInstance(QueryMetricsRegistry.class);
+    final ObjectName objectName = new ObjectName("edu.snu.mist:type=Query,name=" + ObjectName.quote("q1"));
+    registry.register(queryMetrics);
+    try {
+      Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+      Assert.assertEquals(12L, ManagementFactory.getPlatformMBeanServer()
+          .getAttribute(objectName, "NumProcessedEvents"));
+      final AvroQueryMetrics avroQueryMetrics = registry.getAvroQueryMetrics("q1");
+      Assert.assertEquals(2, avroQueryMetrics.getVertices().size());
+      Assert.assertNull(registry.getAvroQueryMetrics("q2"));
+    } finally {
+      registry.unregister("q1");
+    }
+    Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+  }
+}
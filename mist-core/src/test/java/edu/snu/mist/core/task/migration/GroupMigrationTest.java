@@ -0,0 +1,557 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.common.graph.AdjacentListDAG;
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.master.ProxyToTaskMap;
+import edu.snu.mist.core.master.TaskAddressInfo;
+import edu.snu.mist.core.master.TaskAddressInfoMap;
+import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.migration.GroupMigrationScheduler;
+import edu.snu.mist.core.operators.OneStreamOperator;
+import edu.snu.mist.core.parameters.MasterHostname;
+import edu.snu.mist.core.parameters.TaskId;
+import edu.snu.mist.core.parameters.TaskToMasterPort;
+import edu.snu.mist.core.rpc.AvroUtils;
+import edu.snu.mist.core.rpc.DefaultMasterToTaskMessageImpl;
+import edu.snu.mist.core.sources.DataGenerator;
+import edu.snu.mist.core.sources.EventGenerator;
+import edu.snu.mist.core.sources.SourceCheckpointListener;
+import edu.snu.mist.core.task.ConfigVertex;
+import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
+import edu.snu.mist.core.task.DefaultQueryImpl;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.NonBlockingQueueSourceOutputEmitter;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.core.task.PhysicalSource;
+import edu.snu.mist.core.task.PhysicalSourceImpl;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.QueryManager;
+import edu.snu.mist.core.task.checkpointing.CheckpointManager;
+import edu.snu.mist.core.task.groupaware.ApplicationInfo;
+import edu.snu.mist.core.task.groupaware.ApplicationMap;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupMap;
+import edu.snu.mist.core.task.merging.ConfigExecutionVertexMap;
+import edu.snu.mist.core.task.merging.QueryIdConfigDagMap;
+import edu.snu.mist.core.task.migration.parameters.MaxMigrationPauseTime;
+import edu.snu.mist.core.task.migration.parameters.MigrationCommitTimeout;
+import edu.snu.mist.core.task.recovery.RecoveryManager;
+import edu.snu.mist.core.task.stores.GroupCheckpointStore;
+import edu.snu.mist.formats.avro.AvroDag;
+import edu.snu.mist.formats.avro.Direction;
+import edu.snu.mist.formats.avro.GroupMigrationResult;
+import edu.snu.mist.formats.avro.MasterToTaskMessage;
+import edu.snu.mist.formats.avro.QueryCheckpoint;
+import edu.snu.mist.formats.avro.QueryControlResult;
+import edu.snu.mist.formats.avro.TaskToMasterMessage;
+import org.apache.avro.ipc.Server;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the migration of a group between two tasks in this process.
+ * The tasks consume the same broker queue, so each input is delivered to the task that runs the source at the time,
+ * and the migration should neither lose nor duplicate the inputs.
+ */
+public final class GroupMigrationTest {
+
+  private static final String APP_ID = "app";
+  private static final String GROUP_ID = "group";
+  private static final String QUERY_ID = "query";
+  private static final String SOURCE_TASK_ID = "sourceTask";
+  private static final String DESTINATION_TASK_ID = "destinationTask";
+  private static final Map<String, String> SOURCE_CONF = Collections.singletonMap("source", "broker");
+  private static final Map<String, String> OPERATOR_CONF = Collections.singletonMap("operator", "collect");
+  private static final int NUM_INPUTS = 20000;
+
+  /**
+   * The broker which delivers the inputs to the running source.
+   */
+  private BlockingQueue<Integer> broker;
+
+  /**
+   * The inputs that are processed by the queries in both tasks.
+   */
+  private List<Integer> results;
+
+  private GroupMigrationScheduler scheduler;
+  private Server masterServer;
+  private TaskAddressInfoMap taskAddressInfoMap;
+  private ProxyToTaskMap proxyToTaskMap;
+  private List<TestTask> tasks;
+
+  @Before
+  public void setUp() throws Exception {
+    broker = new LinkedBlockingQueue<>();
+    results = Collections.synchronizedList(new ArrayList<>());
+    tasks = new ArrayList<>();
+
+    final Injector masterInjector = Tang.Factory.getTang().newInjector();
+    scheduler = masterInjector.getInstance(GroupMigrationScheduler.class);
+    taskAddressInfoMap = masterInjector.getInstance(TaskAddressInfoMap.class);
+    proxyToTaskMap = masterInjector.getInstance(ProxyToTaskMap.class);
+    masterInjector.getInstance(TaskStatsMap.class).addTask(SOURCE_TASK_ID);
+    final TaskToMasterMessage master = mock(TaskToMasterMessage.class);
+    doAnswer(invocation -> {
+      scheduler.finishMigration((GroupMigrationResult) invocation.getArguments()[0]);
+      return null;
+    }).when(master).finishGroupMigration(any(GroupMigrationResult.class));
+    masterServer = AvroUtils.createAvroServer(TaskToMasterMessage.class, master, new InetSocketAddress(0));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final TestTask task : tasks) {
+      task.close();
+    }
+    masterServer.close();
+  }
+
+  /**
+   * Tests whether the inputs are processed exactly once and in order
+   * when the group migrates while the inputs are arriving.
+   */
+  @Test(timeout = 60000)
+  public void testMigrationWithoutLossAndDuplication() throws Exception {
+    final TestTask sourceTask = new TestTask(SOURCE_TASK_ID, 1000L, 0L);
+    final TestTask destinationTask = new TestTask(DESTINATION_TASK_ID, 1000L, 0L);
+    sourceTask.startQuery();
+
+    final Thread producer = startProducer();
+    waitForResults(NUM_INPUTS / 4);
+    Assert.assertTrue(scheduler.migrate(GROUP_ID, SOURCE_TASK_ID, DESTINATION_TASK_ID));
+    producer.join();
+    waitForResults(NUM_INPUTS);
+
+    Assert.assertEquals(0, sourceTask.runningQueries.size());
+    Assert.assertEquals(1, destinationTask.runningQueries.size());
+    assertExactlyOnce();
+  }
+
+  /**
+   * Tests whether the group keeps running in the source task without losing the inputs
+   * when the destination task cannot prepare the group within the maximum pause time.
+   */
+  @Test(timeout = 60000)
+  public void testMigrationTimeout() throws Exception {
+    final TestTask sourceTask = new TestTask(SOURCE_TASK_ID, 200L, 0L);
+    final TestTask destinationTask = new TestTask(DESTINATION_TASK_ID, 200L, 1000L);
+    sourceTask.startQuery();
+
+    final Thread producer = startProducer();
+    waitForResults(NUM_INPUTS / 4);
+    Assert.assertFalse(scheduler.migrate(GROUP_ID, SOURCE_TASK_ID, DESTINATION_TASK_ID));
+    producer.join();
+    waitForResults(NUM_INPUTS);
+
+    Assert.assertEquals(1, sourceTask.runningQueries.size());
+    assertExactlyOnce();
+    // The destination task prepares the group after the deadline, and removes it when the migration is aborted
+    while (destinationTask.numCreatedQueries.get() == 0 || !destinationTask.runningQueries.isEmpty()) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(NUM_INPUTS, results.size());
+  }
+
+  /**
+   * Tests whether the source task keeps the group and recovers it from the checkpoint,
+   * when the destination task aborts the prepared group before the commit arrives.
+   */
+  @Test(timeout = 60000)
+  public void testCommitTimeout() throws Exception {
+    final TestTask sourceTask = new TestTask(SOURCE_TASK_ID, 1000L, 0L, 500L, 30000L);
+    final TestTask destinationTask = new TestTask(DESTINATION_TASK_ID, 1000L, 0L, 0L, 100L);
+    sourceTask.startQuery();
+
+    final Thread producer = startProducer();
+    waitForResults(NUM_INPUTS / 4);
+    Assert.assertFalse(scheduler.migrate(GROUP_ID, SOURCE_TASK_ID, DESTINATION_TASK_ID));
+    producer.join();
+    // The inputs held after the checkpoint are lost, as the broker does not replay them,
+    // but the recovered query processes the new inputs
+    broker.put(NUM_INPUTS);
+    while (!results.contains(NUM_INPUTS)) {
+      Thread.sleep(10);
+    }
+
+    Assert.assertEquals(1, destinationTask.numCreatedQueries.get());
+    Assert.assertEquals(0, destinationTask.runningQueries.size());
+    Assert.assertEquals(1, sourceTask.runningQueries.size());
+    verify(sourceTask.checkpointManager).checkpointGroup(GROUP_ID);
+    verify(sourceTask.checkpointManager).recoverGroup(GROUP_ID);
+    verify(sourceTask.checkpointManager, never()).deleteGroup(GROUP_ID);
+  }
+
+  /**
+   * Starts a thread that puts the inputs into the broker.
+   */
+  private Thread startProducer() {
+    final Thread producer = new Thread(() -> {
+      try {
+        for (int i = 0; i < NUM_INPUTS; i++) {
+          broker.put(i);
+          if (i % 50 == 0) {
+            Thread.sleep(1);
+          }
+        }
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    producer.start();
+    return producer;
+  }
+
+  private void waitForResults(final int numResults) throws InterruptedException {
+    while (results.size() < numResults) {
+      Thread.sleep(10);
+    }
+  }
+
+  private void assertExactlyOnce() throws InterruptedException {
+    // Duplicated inputs would arrive after the last input
+    Thread.sleep(200);
+    final List<Integer> expected = new ArrayList<>(NUM_INPUTS);
+    for (int i = 0; i < NUM_INPUTS; i++) {
+      expected.add(i);
+    }
+    Assert.assertEquals(expected, results);
+  }
+
+  /**
+   * A task which runs the query with a source consuming the broker and an operator collecting the inputs.
+   * The query manager, the checkpoint manager and the event processor are simplified.
+   */
+  private final class TestTask implements AutoCloseable {
+
+    private final Group group;
+    private final ApplicationInfo applicationInfo;
+    private final QueryIdConfigDagMap queryIdConfigDagMap;
+    private final ConfigExecutionVertexMap configExecutionVertexMap;
+    private final List<Query> queries;
+    private final List<Query> runningQueries;
+    private final AtomicInteger numCreatedQueries = new AtomicInteger();
+    private final CheckpointManager checkpointManager;
+    private final GroupMigrationManager migrationManager;
+    private final Server server;
+    private final ExecutorService eventProcessor;
+    private volatile boolean closed;
+
+    TestTask(final String taskId, final long maxPauseTime, final long preparationTime) throws Exception {
+      this(taskId, maxPauseTime, preparationTime, 0L, 30000L);
+    }
+
+    /**
+     * @param checkpointTime the time for checkpointing the group before the commit
+     * @param commitTimeout the time after which the prepared group is aborted if it is not committed
+     */
+    TestTask(final String taskId,
+             final long maxPauseTime,
+             final long preparationTime,
+             final long checkpointTime,
+             final long commitTimeout) throws Exception {
+      final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+      jcb.bindNamedParameter(MasterHostname.class, "localhost");
+      jcb.bindNamedParameter(TaskToMasterPort.class, String.valueOf(masterServer.getPort()));
+      jcb.bindNamedParameter(TaskId.class, taskId);
+      jcb.bindNamedParameter(MaxMigrationPauseTime.class, String.valueOf(maxPauseTime));
+      jcb.bindNamedParameter(MigrationCommitTimeout.class, String.valueOf(commitTimeout));
+      final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+      queryIdConfigDagMap = injector.getInstance(QueryIdConfigDagMap.class);
+      configExecutionVertexMap = injector.getInstance(ConfigExecutionVertexMap.class);
+      queries = Collections.synchronizedList(new ArrayList<>());
+      runningQueries = new CopyOnWriteArrayList<>();
+
+      group = mock(Group.class);
+      applicationInfo = mock(ApplicationInfo.class);
+      when(group.getGroupId()).thenReturn(GROUP_ID);
+      when(group.getQueries()).thenReturn(queries);
+      when(group.getApplicationInfo()).thenReturn(applicationInfo);
+      when(applicationInfo.getApplicationId()).thenReturn(APP_ID);
+      when(applicationInfo.getGroups()).thenReturn(Collections.singletonList(group));
+      when(applicationInfo.getQueryIdConfigDagMap()).thenReturn(queryIdConfigDagMap);
+      when(applicationInfo.getConfigExecutionVertexMap()).thenReturn(configExecutionVertexMap);
+      injector.getInstance(GroupMap.class).putIfAbsent(GROUP_ID, group);
+      injector.getInstance(ApplicationMap.class).putIfAbsent(APP_ID, applicationInfo);
+
+      final GroupCheckpointStore checkpointStore = mock(GroupCheckpointStore.class);
+      when(checkpointStore.loadSavedQueries(anyList())).thenReturn(Collections.singletonList(AvroDag.newBuilder()
+          .setAppId(APP_ID)
+          .setQueryId(QUERY_ID)
+          .setJarPaths(new ArrayList<>())
+          .setAvroVertices(new ArrayList<>())
+          .setEdges(new ArrayList<>())
+          .build()));
+      checkpointManager = mock(CheckpointManager.class);
+      when(checkpointManager.checkpointGroup(GROUP_ID)).thenAnswer(invocation -> {
+        Thread.sleep(checkpointTime);
+        return true;
+      });
+      doAnswer(invocation -> {
+        stopQuery();
+        return null;
+      }).when(checkpointManager).deleteGroup(GROUP_ID);
+      doAnswer(invocation -> {
+        startQuery();
+        return null;
+      }).when(checkpointManager).recoverGroup(GROUP_ID);
+      final QueryManager queryManager = mock(QueryManager.class);
+      when(queryManager.createQueryWithCheckpoint(any(AvroDag.class), any(QueryCheckpoint.class)))
+          .thenAnswer(invocation -> {
+            Thread.sleep(preparationTime);
+            createMigratedQuery((QueryCheckpoint) invocation.getArguments()[1]);
+            numCreatedQueries.incrementAndGet();
+            return QueryControlResult.newBuilder().setQueryId(QUERY_ID).setIsSuccess(true).setMsg("").build();
+          });
+      doAnswer(invocation -> {
+        stopQuery();
+        return null;
+      }).when(queryManager).delete(anyString(), anyString());
+      injector.bindVolatileInstance(GroupCheckpointStore.class, checkpointStore);
+      injector.bindVolatileInstance(CheckpointManager.class, checkpointManager);
+      injector.bindVolatileInstance(QueryManager.class, queryManager);
+      injector.bindVolatileInstance(RecoveryManager.class, mock(RecoveryManager.class));
+
+      migrationManager = injector.getInstance(GroupMigrationManager.class);
+      server = AvroUtils.createAvroServer(MasterToTaskMessage.class,
+          injector.getInstance(DefaultMasterToTaskMessageImpl.class), new InetSocketAddress(0));
+      taskAddressInfoMap.put(taskId, new TaskAddressInfo("localhost", 0, server.getPort()));
+      proxyToTaskMap.addNewProxy(taskId, AvroUtils.createAvroProxy(MasterToTaskMessage.class,
+          new InetSocketAddress("localhost", server.getPort())));
+
+      eventProcessor = Executors.newSingleThreadExecutor();
+      eventProcessor.submit(() -> {
+        while (!closed) {
+          for (final Query query : runningQueries) {
+            if (query.setProcessingFromReady()) {
+              query.processAllEvent();
+              query.setReady();
+            }
+          }
+          Thread.yield();
+        }
+      });
+      tasks.add(this);
+    }
+
+    /**
+     * Starts the query that has not migrated.
+     */
+    void startQuery() {
+      final ConfigVertex sourceVertex = new ConfigVertex("0", ExecutionVertex.Type.SOURCE, SOURCE_CONF);
+      final PhysicalSource source = new PhysicalSourceImpl<>("source", SOURCE_CONF,
+          new BrokerDataGenerator(), new TimestampEventGenerator());
+      addQuery(sourceVertex, source);
+      source.start();
+    }
+
+    /**
+     * Creates the query of the migrated group as the execution vertex generator does.
+     * The source does not start until the migration is committed.
+     */
+    private void createMigratedQuery(final QueryCheckpoint checkpoint) {
+      final ConfigVertex sourceVertex = new ConfigVertex("0", ExecutionVertex.Type.SOURCE, SOURCE_CONF,
+          checkpoint.getQueryState().get("0").getVertexState(), 0L);
+      Assert.assertTrue(QueuedSourceEvents.hasQueuedEvents(sourceVertex));
+      final PhysicalSource source = new PhysicalSourceImpl<>("source", SOURCE_CONF,
+          new BrokerDataGenerator(), new TimestampEventGenerator(), sourceVertex.getState(),
+          GroupMigrationTest.class.getClassLoader());
+      addQuery(sourceVertex, source);
+      source.start();
+    }
+
+    private void addQuery(final ConfigVertex sourceVertex, final PhysicalSource source) {
+      final Query query = new DefaultQueryImpl(QUERY_ID);
+      query.setGroup(group);
+      final ConfigVertex operatorVertex = new ConfigVertex("1", ExecutionVertex.Type.OPERATOR, OPERATOR_CONF);
+      final PhysicalOperator operator =
+          new DefaultPhysicalOperatorImpl("operator", OPERATOR_CONF, new CollectOperator());
+      final DAG<ConfigVertex, MISTEdge> configDag = new AdjacentListDAG<>();
+      configDag.addVertex(sourceVertex);
+      configDag.addVertex(operatorVertex);
+      configDag.addEdge(sourceVertex, operatorVertex, new MISTEdge(Direction.LEFT));
+      source.setOutputEmitter(new NonBlockingQueueSourceOutputEmitter<>(
+          Collections.singletonMap(operator, new MISTEdge(Direction.LEFT)), query));
+
+      queryIdConfigDagMap.put(QUERY_ID, configDag);
+      configExecutionVertexMap.put(sourceVertex, source);
+      configExecutionVertexMap.put(operatorVertex, operator);
+      queries.add(query);
+      runningQueries.add(query);
+    }
+
+    /**
+     * Removes the query and closes its source.
+     */
+    private void stopQuery() throws Exception {
+      final DAG<ConfigVertex, MISTEdge> configDag = queryIdConfigDagMap.remove(QUERY_ID);
+      for (final ConfigVertex sourceVertex : configDag.getRootVertices()) {
+        ((PhysicalSource) configExecutionVertexMap.remove(sourceVertex)).close();
+      }
+      queries.clear();
+      runningQueries.clear();
+    }
+
+    @Override
+    public void close() throws Exception {
+      closed = true;
+      eventProcessor.shutdown();
+      eventProcessor.awaitTermination(1000, TimeUnit.MILLISECONDS);
+      if (queryIdConfigDagMap.get(QUERY_ID) != null) {
+        stopQuery();
+      }
+      server.close();
+      migrationManager.close();
+    }
+  }
+
+  /**
+   * A data generator that takes the inputs from the broker.
+   * It does not emit any input after it is closed.
+   */
+  private final class BrokerDataGenerator implements DataGenerator<Integer> {
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private volatile boolean closed = false;
+    private EventGenerator<Integer> eventGenerator;
+
+    @Override
+    public void start() {
+      executorService.submit(() -> {
+        while (!closed) {
+          final Integer input = broker.poll(10, TimeUnit.MILLISECONDS);
+          if (input != null) {
+            eventGenerator.emitData(input);
+          }
+        }
+        return null;
+      });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setEventGenerator(final EventGenerator<Integer> generator) {
+      this.eventGenerator = generator;
+    }
+
+    @Override
+    public void close() throws Exception {
+      closed = true;
+      executorService.shutdown();
+      executorService.awaitTermination(1000, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * An event generator that uses the input as the timestamp.
+   */
+  private static final class TimestampEventGenerator implements EventGenerator<Integer> {
+
+    private OutputEmitter outputEmitter;
+
+    @Override
+    public void emitData(final Integer input) {
+      outputEmitter.emitData(new MistDataEvent(input, input));
+    }
+
+    @Override
+    public void emitDataBatch(final List<Integer> inputs) {
+      for (final Integer input : inputs) {
+        emitData(input);
+      }
+    }
+
+    @Override
+    public void start() {
+      // do nothing
+    }
+
+    @Override
+    public OutputEmitter getOutputEmitter() {
+      return outputEmitter;
+    }
+
+    @Override
+    public void setOutputEmitter(final OutputEmitter emitter) {
+      this.outputEmitter = emitter;
+    }
+
+    @Override
+    public void setCheckpointListener(final SourceCheckpointListener listener) {
+      // do nothing
+    }
+
+    @Override
+    public void close() {
+      // do nothing
+    }
+  }
+
+  /**
+   * An operator that collects the inputs.
+   */
+  private final class CollectOperator extends OneStreamOperator {
+
+    @Override
+    public void processLeftData(final MistDataEvent data) {
+      results.add((Integer) data.getValue());
+    }
+
+    @Override
+    public void processLeftWatermark(final MistWatermarkEvent watermark) {
+      // do nothing
+    }
+
+    @Override
+    public void processLeftCheckpoint(final MistCheckpointEvent checkpoint) {
+      // do nothing
+    }
+  }
+}
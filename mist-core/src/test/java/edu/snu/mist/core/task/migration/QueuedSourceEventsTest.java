@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.migration;
+
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.task.StateSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class QueuedSourceEventsTest {
+
+  /**
+   * Tests whether the queued data and watermark events are restored in order
+   * after the source vertex state is serialized and deserialized, and the checkpoint events are dropped.
+   */
+  @Test
+  public void testQueuedEventsRoundTrip() {
+    final List<MistEvent> queuedEvents = Arrays.asList(
+        new MistDataEvent("a", 1L),
+        new MistCheckpointEvent(),
+        new MistWatermarkEvent(2L),
+        new MistDataEvent(3, 4L));
+
+    final Map<String, Object> serializedState =
+        StateSerializer.serializeStateMap(QueuedSourceEvents.toState(queuedEvents));
+    final List<MistEvent> restoredEvents =
+        QueuedSourceEvents.fromState(StateSerializer.deserializeStateMap(serializedState));
+
+    Assert.assertEquals(3, restoredEvents.size());
+    Assert.assertTrue(restoredEvents.get(0).isData());
+    Assert.assertEquals("a", ((MistDataEvent) restoredEvents.get(0)).getValue());
+    Assert.assertEquals(1L, restoredEvents.get(0).getTimestamp());
+    Assert.assertFalse(restoredEvents.get(1).isData());
+    Assert.assertFalse(restoredEvents.get(1).isCheckpoint());
+    Assert.assertEquals(2L, restoredEvents.get(1).getTimestamp());
+    Assert.assertEquals(3, ((MistDataEvent) restoredEvents.get(2)).getValue());
+    Assert.assertEquals(4L, restoredEvents.get(2).getTimestamp());
+  }
+
+  /**
+   * Tests whether the state without queued events gives no events.
+   */
+  @Test
+  public void testEmptyState() {
+    Assert.assertTrue(QueuedSourceEvents.fromState(new HashMap<>()).isEmpty());
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.stores;
+
+import edu.snu.mist.core.parameters.CheckpointCompactionPeriod;
+import edu.snu.mist.core.parameters.SharedStorePath;
+import edu.snu.mist.core.task.ExecutionDags;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.formats.avro.GroupCheckpoint;
+import edu.snu.mist.formats.avro.QueryCheckpoint;
+import edu.snu.mist.formats.avro.StateWithTimestamp;
+import org.apache.reef.io.Tuple;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test whether the group checkpoint store writes and merges the delta checkpoints correctly.
+ */
+public final class DefaultGroupCheckpointStoreTest {
+
+  private static final String GROUP_ID = "testGroup";
+  private static final String QUERY_ID = "testQuery";
+  private static final String REMOVED_QUERY_ID = "removedQuery";
+
+  private File tmpFolder;
+  private GroupCheckpointStore store;
+  private Group group;
+
+  @Before
+  public void setUp() throws Exception {
+    tmpFolder = Files.createTempDirectory("checkpoint").toFile();
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(SharedStorePath.class, tmpFolder.getPath());
+    jcb.bindNamedParameter(CheckpointCompactionPeriod.class, "2");
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    store = injector.getInstance(GroupCheckpointStore.class);
+    final ExecutionDags executionDags = mock(ExecutionDags.class);
+    group = mock(Group.class);
+    when(group.getExecutionDags()).thenReturn(executionDags);
+  }
+
+  @After
+  public void tearDown() {
+    for (final File file : tmpFolder.listFiles()) {
+      file.delete();
+    }
+    tmpFolder.delete();
+  }
+
+  /**
+   * Builds a group checkpoint that has the given vertex states of a query.
+   */
+  private static GroupCheckpoint buildCheckpoint(final long checkpointTimestamp,
+                                                 final Map<String, Long> vertexTimestamps) {
+    final Map<String, StateWithTimestamp> queryState = new HashMap<>();
+    for (final Map.Entry<String, Long> entry : vertexTimestamps.entrySet()) {
+      final Map<String, Object> state = new HashMap<>();
+      state.put("value", entry.getValue());
+      queryState.put(entry.getKey(), StateWithTimestamp.newBuilder()
+          .setVertexState(state)
+          .setCheckpointTimestamp(entry.getValue())
+          .build());
+    }
+    final Map<String, QueryCheckpoint> queryCheckpointMap = new HashMap<>();
+    queryCheckpointMap.put(QUERY_ID, QueryCheckpoint.newBuilder().setQueryState(queryState).build());
+    return GroupCheckpoint.newBuilder()
+        .setGroupId(GROUP_ID)
+        .setCheckpointTimestamp(checkpointTimestamp)
+        .setQueryCheckpointMap(queryCheckpointMap)
+        .build();
+  }
+
+  private static long getVertexTimestamp(final GroupCheckpoint checkpoint, final String vertexId) {
+    return checkpoint.getQueryCheckpointMap().get(QUERY_ID).getQueryState().get(vertexId).getCheckpointTimestamp();
+  }
+
+  @Test
+  public void testDeltaCheckpoints() throws Exception {
+    final Map<String, Long> fullTimestamps = new HashMap<>();
+    fullTimestamps.put("v1", 10L);
+    fullTimestamps.put("v2", 10L);
+    when(group.checkpoint()).thenReturn(buildCheckpoint(10L, fullTimestamps));
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+
+    // The delta checkpoint only has the changed vertex.
+    final Map<String, Long> deltaTimestamps = new HashMap<>();
+    deltaTimestamps.put("v2", 20L);
+    when(group.checkpoint(anyMap())).thenReturn(buildCheckpoint(20L, deltaTimestamps));
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    Assert.assertTrue(new File(tmpFolder, GROUP_ID + ".checkpoint.delta").exists());
+
+    final GroupCheckpoint merged = store.loadSavedGroupState(GROUP_ID);
+    Assert.assertEquals(20L, (long) merged.getCheckpointTimestamp());
+    Assert.assertEquals(10L, getVertexTimestamp(merged, "v1"));
+    Assert.assertEquals(20L, getVertexTimestamp(merged, "v2"));
+
+    // The second delta checkpoint is merged to the previous ones.
+    deltaTimestamps.clear();
+    deltaTimestamps.put("v1", 30L);
+    when(group.checkpoint(anyMap())).thenReturn(buildCheckpoint(30L, deltaTimestamps));
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+
+    final GroupCheckpoint mergedAgain = store.loadSavedGroupState(GROUP_ID);
+    Assert.assertEquals(30L, (long) mergedAgain.getCheckpointTimestamp());
+    Assert.assertEquals(30L, getVertexTimestamp(mergedAgain, "v1"));
+    Assert.assertEquals(20L, getVertexTimestamp(mergedAgain, "v2"));
+
+    // The compaction takes a full checkpoint from the live states of the group, not from the written checkpoints.
+    fullTimestamps.put("v1", 40L);
+    fullTimestamps.put("v2", 40L);
+    when(group.checkpoint()).thenReturn(buildCheckpoint(40L, fullTimestamps));
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    verify(group, times(2)).checkpoint();
+    Assert.assertFalse(new File(tmpFolder, GROUP_ID + ".checkpoint.delta").exists());
+
+    final GroupCheckpoint compacted = store.loadSavedGroupState(GROUP_ID);
+    Assert.assertEquals(40L, (long) compacted.getCheckpointTimestamp());
+    Assert.assertEquals(40L, getVertexTimestamp(compacted, "v1"));
+    Assert.assertEquals(40L, getVertexTimestamp(compacted, "v2"));
+  }
+
+  /**
+   * Test whether the delta checkpoints are kept when writing the full checkpoint fails,
+   * and the delta checkpoints left from the previous full checkpoint are ignored.
+   */
+  @Test
+  public void testFailedCompaction() throws Exception {
+    final Map<String, Long> fullTimestamps = new HashMap<>();
+    fullTimestamps.put("v1", 10L);
+    when(group.checkpoint()).thenReturn(buildCheckpoint(10L, fullTimestamps));
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    final Map<String, Long> deltaTimestamps = new HashMap<>();
+    deltaTimestamps.put("v1", 20L);
+    when(group.checkpoint(anyMap())).thenReturn(buildCheckpoint(20L, deltaTimestamps));
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+
+    // The temporary file of the full checkpoint cannot be written
+    final File deltaFile = new File(tmpFolder, GROUP_ID + ".checkpoint.delta");
+    final File tmpFile = new File(tmpFolder, GROUP_ID + ".checkpoint.tmp");
+    Assert.assertTrue(tmpFile.mkdir());
+    fullTimestamps.put("v1", 30L);
+    when(group.checkpoint()).thenReturn(buildCheckpoint(30L, fullTimestamps));
+    Assert.assertFalse(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    Assert.assertTrue(deltaFile.exists());
+    final GroupCheckpoint recovered = store.loadSavedGroupState(GROUP_ID);
+    Assert.assertEquals(20L, (long) recovered.getCheckpointTimestamp());
+    Assert.assertEquals(20L, getVertexTimestamp(recovered, "v1"));
+
+    // The full checkpoint is written, but the old delta checkpoints remain as if the deletion did not happen
+    Assert.assertTrue(tmpFile.delete());
+    final byte[] oldDeltas = Files.readAllBytes(deltaFile.toPath());
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    Assert.assertFalse(deltaFile.exists());
+    Files.write(deltaFile.toPath(), oldDeltas);
+    final GroupCheckpoint compacted = store.loadSavedGroupState(GROUP_ID);
+    Assert.assertEquals(30L, (long) compacted.getCheckpointTimestamp());
+    Assert.assertEquals(30L, getVertexTimestamp(compacted, "v1"));
+  }
+
+  /**
+   * Test whether the queries and vertices removed after the full checkpoint are removed when merging.
+   */
+  @Test
+  public void testRemovalInDeltaCheckpoints() throws Exception {
+    final Map<String, Long> fullTimestamps = new HashMap<>();
+    fullTimestamps.put("v1", 10L);
+    fullTimestamps.put("v2", 10L);
+    final GroupCheckpoint fullCheckpoint = buildCheckpoint(10L, fullTimestamps);
+    fullCheckpoint.getQueryCheckpointMap().put(REMOVED_QUERY_ID,
+        fullCheckpoint.getQueryCheckpointMap().get(QUERY_ID));
+    when(group.checkpoint()).thenReturn(fullCheckpoint);
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+
+    final GroupCheckpoint delta = buildCheckpoint(20L, new HashMap<>());
+    delta.getQueryCheckpointMap().get(QUERY_ID).setRemovedVertices(Arrays.asList("v2"));
+    delta.setRemovedQueries(Arrays.asList(REMOVED_QUERY_ID));
+    when(group.checkpoint(anyMap())).thenReturn(delta);
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+
+    final GroupCheckpoint merged = store.loadSavedGroupState(GROUP_ID);
+    Assert.assertFalse(merged.getQueryCheckpointMap().containsKey(REMOVED_QUERY_ID));
+    final Map<String, StateWithTimestamp> queryState = merged.getQueryCheckpointMap().get(QUERY_ID).getQueryState();
+    Assert.assertEquals(1, queryState.size());
+    Assert.assertEquals(10L, getVertexTimestamp(merged, "v1"));
+
+    // The removed ones should not be passed as the previous timestamps anymore.
+    final ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    verify(group, times(2)).checkpoint(captor.capture());
+    final Map<?, ?> previousTimestamps = captor.getValue();
+    Assert.assertEquals(1, previousTimestamps.size());
+    Assert.assertEquals(1, ((Map<?, ?>) previousTimestamps.get(QUERY_ID)).size());
+  }
+
+  /**
+   * Test whether the group checkpointed after the deletion starts from a full checkpoint.
+   */
+  @Test
+  public void testRemoveGroup() throws Exception {
+    final Map<String, Long> timestamps = new HashMap<>();
+    timestamps.put("v1", 10L);
+    when(group.checkpoint()).thenReturn(buildCheckpoint(10L, timestamps));
+    when(group.checkpoint(anyMap())).thenReturn(buildCheckpoint(20L, new HashMap<>()));
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+
+    store.removeGroup(GROUP_ID);
+    // The written checkpoint remains for recovery.
+    Assert.assertNotNull(store.loadSavedGroupState(GROUP_ID));
+
+    Assert.assertTrue(store.checkpointGroupStates(new Tuple<>(GROUP_ID, group)).getIsSuccess());
+    verify(group, times(2)).checkpoint();
+    verify(group, never()).checkpoint(anyMap());
+  }
+}
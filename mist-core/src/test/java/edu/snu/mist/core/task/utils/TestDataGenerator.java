@@ -35,7 +35,7 @@ public final class TestDataGenerator<String> implements DataGenerator<String> {
   private final AtomicBoolean started;
   private final ExecutorService executorService;
   private final long sleepTime;
-  private EventGenerator eventGenerator;
+  private EventGenerator<String> eventGenerator;
   private final Iterator<String> inputs;
 
   /**
@@ -94,7 +94,7 @@ public final class TestDataGenerator<String> implements DataGenerator<String> {
   }
 
   @Override
-  public void setEventGenerator(final EventGenerator eventGenerator) {
+  public void setEventGenerator(final EventGenerator<String> eventGenerator) {
     this.eventGenerator = eventGenerator;
   }
 }
\ No newline at end of file
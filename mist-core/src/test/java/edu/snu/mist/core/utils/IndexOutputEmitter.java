@@ -39,6 +39,12 @@ public final class IndexOutputEmitter implements OutputEmitter {
     list.add(new Tuple<>(data, index));
   }
   @Override
+  public void emitDataBatch(final List<MistDataEvent> dataList) {
+    for (final MistDataEvent data : dataList) {
+      this.emitData(data, 0);
+    }
+  }
+  @Override
   public void emitWatermark(final MistWatermarkEvent watermark) {
     list.add(new Tuple<>(watermark, 0));
   }
@@ -39,6 +39,10 @@ public final class OutputBufferEmitter implements OutputEmitter {
     this.emitData(data);
   }
   @Override
+  public void emitDataBatch(final List<MistDataEvent> dataList) {
+    list.addAll(dataList);
+  }
+  @Override
   public void emitWatermark(final MistWatermarkEvent watermark) {
     list.add(watermark);
   }